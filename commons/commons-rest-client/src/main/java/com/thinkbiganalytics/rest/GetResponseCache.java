@@ -0,0 +1,178 @@
+package com.thinkbiganalytics.rest;
+
+/*-
+ * #%L
+ * thinkbig-commons-rest-client
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Shares the body of GET requests between callers.
+ *
+ * Callers asking for the same url while a request for it is in flight wait for that request instead of making their own.
+ * If a ttl is set the body is also kept for that long.  Any change made through the client calls {@link #invalidateAll()},
+ * which starts a new generation so requests made after the change never see a response read before it.
+ *
+ * Only the raw body is shared.  Each caller deserializes its own copy so the returned objects can be safely modified.
+ */
+public class GetResponseCache {
+
+    private final long ttlMillis;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final ConcurrentMap<String, CompletableFuture<Body>> inFlight = new ConcurrentHashMap<>();
+
+    private final Cache<String, Body> responses;
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private final AtomicLong cacheHits = new AtomicLong();
+
+    /**
+     * @param ttlMillis how long to keep a response.  0 or less only shares requests that are in flight
+     * @param maxSize   the max number of responses to keep
+     */
+    public GetResponseCache(long ttlMillis, long maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.responses = ttlMillis > 0 ? CacheBuilder.newBuilder().expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS).maximumSize(maxSize).build() : null;
+    }
+
+    /**
+     * Get the body for the url, sharing it with other callers if possible
+     *
+     * @param url    the url of the request
+     * @param loader makes the request and returns the body
+     * @return the body
+     */
+    public Body get(String url, Supplier<Body> loader) {
+        requests.incrementAndGet();
+        long currentGeneration = generation.get();
+        String key = currentGeneration + " " + url;
+        if (responses != null) {
+            Body cached = responses.getIfPresent(key);
+            if (cached != null) {
+                cacheHits.incrementAndGet();
+                return cached;
+            }
+        }
+
+        CompletableFuture<Body> future = new CompletableFuture<>();
+        CompletableFuture<Body> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return join(existing);
+        }
+        try {
+            Body body = loader.get();
+            if (responses != null && body != null && generation.get() == currentGeneration) {
+                responses.put(key, body);
+            }
+            future.complete(body);
+            return body;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * The body of a response and its media type
+     */
+    public static class Body {
+
+        private final byte[] entity;
+
+        private final MediaType mediaType;
+
+        public Body(byte[] entity, MediaType mediaType) {
+            this.entity = entity;
+            this.mediaType = mediaType;
+        }
+
+        public byte[] getEntity() {
+            return entity;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+    }
+
+    private static Body join(CompletableFuture<Body> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Called when something was changed so later requests do not get an earlier response
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        if (responses != null) {
+            responses.invalidateAll();
+        }
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    /**
+     * @return the number of GET requests
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return the number of GET requests that waited for an identical request in flight
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return the number of GET requests answered from the cached responses
+     */
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+}
@@ -54,6 +54,22 @@ public class JerseyClientConfig {
      * false by default
      **/
     private boolean useConnectionPooling = false;
+
+    /**
+     * connections allowed per host and in total when {@link #useConnectionPooling} is enabled
+     */
+    private int maxConnectionsPerRoute = 100;
+    private int maxConnections = 200;
+
+    /**
+     * share the response of identical GET requests that are in flight at the same time
+     */
+    private boolean coalesceRequests = false;
+
+    /**
+     * keep GET responses for this many millis. Changes made through the client clear them. 0 disables the cache
+     */
+    private long responseCacheTtlMillis = 0;
     private EncryptionService encryptionService;
 
     public JerseyClientConfig() {
@@ -200,6 +216,38 @@ public class JerseyClientConfig {
         this.useConnectionPooling = useConnectionPooling;
     }
 
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public boolean isCoalesceRequests() {
+        return coalesceRequests;
+    }
+
+    public void setCoalesceRequests(boolean coalesceRequests) {
+        this.coalesceRequests = coalesceRequests;
+    }
+
+    public long getResponseCacheTtlMillis() {
+        return responseCacheTtlMillis;
+    }
+
+    public void setResponseCacheTtlMillis(long responseCacheTtlMillis) {
+        this.responseCacheTtlMillis = responseCacheTtlMillis;
+    }
+
     public Integer getPort() {
         return port;
     }
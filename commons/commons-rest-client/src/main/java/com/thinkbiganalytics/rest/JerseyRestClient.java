@@ -35,10 +35,11 @@ import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.glassfish.jersey.SslConfigurator;
 import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.client.ClientProperties;
-import org.glassfish.jersey.client.HttpUrlConnectorProvider;
 import org.glassfish.jersey.client.JerseyClientBuilder;
+import org.glassfish.jersey.client.RequestEntityProcessing;
 import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
 import org.glassfish.jersey.jackson.JacksonFeature;
 import org.glassfish.jersey.media.multipart.Boundary;
@@ -48,14 +49,18 @@ import org.glassfish.jersey.media.multipart.file.StreamDataBodyPart;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 import javax.ws.rs.NotAcceptableException;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
@@ -65,6 +70,7 @@ import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.xml.bind.JAXB;
 
 /**
  * Generic JerseyRestClient
@@ -108,6 +114,11 @@ public class JerseyRestClient {
      */
     private boolean useConnectionPooling = false;
 
+    /**
+     * Shares GET responses between callers if coalescing or the response cache is enabled, otherwise null
+     */
+    private GetResponseCache responseCache;
+
 
     public JerseyRestClient(JerseyClientConfig config) {
         useConnectionPooling = config.isUseConnectionPooling();
@@ -198,12 +209,13 @@ public class JerseyRestClient {
             } else {
                 connectionManager = new PoolingHttpClientConnectionManager();
             }
-            connectionManager.setDefaultMaxPerRoute(100); // # of connections allowed per host/address
-            connectionManager.setMaxTotal(200); // number of connections allowed in total
+            connectionManager.setDefaultMaxPerRoute(config.getMaxConnectionsPerRoute()); // # of connections allowed per host/address
+            connectionManager.setMaxTotal(config.getMaxConnections()); // number of connections allowed in total
 
             clientConfig.property(ApacheClientProperties.CONNECTION_MANAGER, connectionManager);
-            HttpUrlConnectorProvider connectorProvider = new HttpUrlConnectorProvider();
-            clientConfig.connectorProvider(connectorProvider);
+            // send a Content-Length instead of chunking request bodies, the same as the default connector
+            clientConfig.property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.BUFFERED);
+            clientConfig.connectorProvider(new ApacheConnectorProvider());
 
         }
 
@@ -235,6 +247,10 @@ public class JerseyRestClient {
         this.uri = config.getUrl();
         this.username = config.getUsername();
 
+        if (config.isCoalesceRequests() || config.getResponseCacheTtlMillis() > 0) {
+            responseCache = new GetResponseCache(config.getResponseCacheTtlMillis(), 1000);
+        }
+
         if (StringUtils.isNotBlank(config.getHost()) && !HOST_NOT_SET_VALUE.equals(config.getHost())) {
             this.isHostConfigured = true;
         } else {
@@ -282,6 +298,31 @@ public class JerseyRestClient {
         return username;
     }
 
+    /**
+     * @return the cache sharing GET responses between callers, or null if it is not enabled
+     */
+    public GetResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Clear any shared GET responses.
+     * This is done after every change made through this client.  Callers making changes using {@link #request(String, Map)} or {@link #target(String, Map)} should call this afterwards.
+     */
+    public void invalidateResponses() {
+        if (responseCache != null) {
+            responseCache.invalidateAll();
+        }
+    }
+
+    private <T> T invalidateResponsesAfter(Supplier<T> request) {
+        try {
+            return request.get();
+        } finally {
+            invalidateResponses();
+        }
+    }
+
 
     /**
      * The base target that will be used upon each request.
@@ -463,7 +504,72 @@ public class JerseyRestClient {
      */
     public <T> T get(String path, Map<String, Object> params, Class<T> clazz, boolean logError) {
         WebTarget target = buildTarget(path, params);
-        return get(target, clazz, logError);
+        if (responseCache == null) {
+            return get(target, clazz, logError);
+        }
+
+        T obj = null;
+        try {
+            GetResponseCache.Body body = responseCache.get(target.getUri().toString(), () -> readBody(target));
+            obj = readResponse(body, clazz);
+        } catch (Exception e) {
+            if (e instanceof NotAcceptableException) {
+                obj = handleNotAcceptableGetRequestJsonException(target, clazz);
+            } else {
+                if (logError) {
+                    log.error("Failed to process request " + target.getUri(), e);
+                }
+            }
+        }
+        return obj;
+    }
+
+    private GetResponseCache.Body readBody(WebTarget target) {
+        Response response = target.request(MediaType.APPLICATION_JSON_TYPE).accept(MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_XML_TYPE).get();
+        try {
+            if (response.getStatus() == Response.Status.NOT_ACCEPTABLE.getStatusCode()) {
+                throw new NotAcceptableException(response);
+            } else if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+                throw new WebApplicationException(response);
+            }
+            return new GetResponseCache.Body(response.readEntity(byte[].class), response.getMediaType());
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * Deserialize the body of a shared GET response.
+     * Clients registering a custom JSON provider in {@link #registerClientFeatures(Client)} should override {@link #readJson(byte[], Class)} to read it the same way.
+     *
+     * @param body  the response
+     * @param clazz the type of result
+     * @param <T>   the returned class type
+     * @return the returned object of the specified Class
+     */
+    private <T> T readResponse(GetResponseCache.Body body, Class<T> clazz) throws IOException {
+        byte[] entity = body.getEntity();
+        if (entity == null || entity.length == 0) {
+            return null;
+        } else if (clazz == String.class) {
+            return clazz.cast(new String(entity, StandardCharsets.UTF_8));
+        } else if (body.getMediaType() != null && body.getMediaType().getSubtype().endsWith("xml")) {
+            return JAXB.unmarshal(new ByteArrayInputStream(entity), clazz);
+        } else {
+            return readJson(entity, clazz);
+        }
+    }
+
+    /**
+     * Deserialize the JSON body of a shared GET response
+     *
+     * @param json  the JSON response
+     * @param clazz the type of result
+     * @param <T>   the returned class type
+     * @return the returned object of the specified Class
+     */
+    protected <T> T readJson(byte[] json, Class<T> clazz) throws IOException {
+        return objectMapper.readValue(json, clazz);
     }
 
     /**
@@ -572,7 +678,7 @@ public class JerseyRestClient {
      */
     public Response post(String path, Object o) {
         WebTarget target = buildTarget(path, null);
-        return target.request().post(Entity.entity(o, MediaType.APPLICATION_JSON_TYPE));
+        return invalidateResponsesAfter(() -> target.request().post(Entity.entity(o, MediaType.APPLICATION_JSON_TYPE)));
     }
 
 
@@ -597,9 +703,8 @@ public class JerseyRestClient {
      */
     public <T> T postMultiPart(String path, MultiPart object, Class<T> returnType) {
         WebTarget target = buildTarget(path, null);
-        MediaType contentType = MediaType.MULTIPART_FORM_DATA_TYPE;
-        contentType = Boundary.addBoundary(contentType);
-        return target.request().post(Entity.entity(object, contentType), returnType);
+        MediaType contentType = Boundary.addBoundary(MediaType.MULTIPART_FORM_DATA_TYPE);
+        return invalidateResponsesAfter(() -> target.request().post(Entity.entity(object, contentType), returnType));
     }
 
     /**
@@ -618,10 +723,9 @@ public class JerseyRestClient {
 
         StreamDataBodyPart streamDataBodyPart = new StreamDataBodyPart(name, stream, fileName, MediaType.APPLICATION_OCTET_STREAM_TYPE);
         multiPart.getBodyParts().add(streamDataBodyPart);
-        MediaType contentType = MediaType.MULTIPART_FORM_DATA_TYPE;
-        contentType = Boundary.addBoundary(contentType);
-        return target.request().post(
-            Entity.entity(multiPart, contentType), returnType);
+        MediaType contentType = Boundary.addBoundary(MediaType.MULTIPART_FORM_DATA_TYPE);
+        return invalidateResponsesAfter(() -> target.request().post(
+            Entity.entity(multiPart, contentType), returnType));
     }
 
 
@@ -635,7 +739,7 @@ public class JerseyRestClient {
      */
     public <T> T post(String path, Object object, Class<T> returnType) {
         WebTarget target = buildTarget(path, null);
-        return target.request().post(Entity.entity(object, MediaType.APPLICATION_JSON), returnType);
+        return invalidateResponsesAfter(() -> target.request().post(Entity.entity(object, MediaType.APPLICATION_JSON), returnType));
     }
 
     /**
@@ -648,7 +752,7 @@ public class JerseyRestClient {
      */
     public <T> T put(String path, Object object, Class<T> returnType) {
         WebTarget target = buildTarget(path, null);
-        return target.request().put(Entity.entity(object, MediaType.APPLICATION_JSON), returnType);
+        return invalidateResponsesAfter(() -> target.request().put(Entity.entity(object, MediaType.APPLICATION_JSON), returnType));
     }
 
     /**
@@ -661,7 +765,7 @@ public class JerseyRestClient {
      */
     public <T> T delete(String path, Map<String, Object> params, Class<T> returnType) {
         WebTarget target = buildTarget(path, params);
-        return target.request().delete(returnType);
+        return invalidateResponsesAfter(() -> target.request().delete(returnType));
     }
 
 
@@ -682,7 +786,7 @@ public class JerseyRestClient {
             .headers(headers)
             .accept(MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_XML_TYPE);
 
-        return builder.delete(clazz);
+        return invalidateResponsesAfter(() -> builder.delete(clazz));
     }
 
     /**
@@ -695,7 +799,7 @@ public class JerseyRestClient {
      */
     public <T> T postForm(String path, Form form, Class<T> returnType) {
         WebTarget target = buildTarget(path, null);
-        return target.request().post(Entity.entity(form, MediaType.APPLICATION_FORM_URLENCODED_TYPE), returnType);
+        return invalidateResponsesAfter(() -> target.request().post(Entity.entity(form, MediaType.APPLICATION_FORM_URLENCODED_TYPE), returnType));
     }
 
     /**
@@ -708,7 +812,8 @@ public class JerseyRestClient {
      */
     public <T> Future<T> postAsync(String path, Object object, Class<T> returnType) {
         WebTarget target = buildTarget(path, null);
-        return target.request().async().post(Entity.entity(object, MediaType.APPLICATION_JSON), returnType);
+        // responses are cleared when the request is sent. Callers needing fresh GETs after the change completes should call invalidateResponses()
+        return invalidateResponsesAfter(() -> target.request().async().post(Entity.entity(object, MediaType.APPLICATION_JSON), returnType));
     }
     
     /**
@@ -0,0 +1,121 @@
+package com.thinkbiganalytics.rest;
+
+/*-
+ * #%L
+ * thinkbig-commons-rest-client
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.core.MediaType;
+
+public class GetResponseCacheTest {
+
+    private static GetResponseCache.Body body(String value) {
+        return new GetResponseCache.Body(value.getBytes(StandardCharsets.UTF_8), MediaType.APPLICATION_JSON_TYPE);
+    }
+
+    @Test
+    public void testConcurrentRequestsAreCoalesced() throws Exception {
+        GetResponseCache cache = new GetResponseCache(0, 100);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            Future<GetResponseCache.Body> first = executorService.submit(() -> cache.get("/flow/process-groups/root", () -> {
+                calls.incrementAndGet();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return body("root");
+            }));
+            while (calls.get() == 0) {
+                Thread.sleep(5);
+            }
+            Future<GetResponseCache.Body> second = executorService.submit(() -> cache.get("/flow/process-groups/root", () -> {
+                calls.incrementAndGet();
+                return body("other");
+            }));
+            while (cache.getCoalesced() == 0) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            Assert.assertSame(first.get(), second.get());
+            Assert.assertEquals(1, calls.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        //nothing is kept once the request completes without a ttl
+        cache.get("/flow/process-groups/root", () -> {
+            calls.incrementAndGet();
+            return body("root");
+        });
+        Assert.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testResponsesAreClearedByChanges() {
+        GetResponseCache cache = new GetResponseCache(60000, 100);
+        AtomicInteger calls = new AtomicInteger();
+        cache.get("/processors/1", () -> body("v" + calls.incrementAndGet()));
+        GetResponseCache.Body cached = cache.get("/processors/1", () -> body("v" + calls.incrementAndGet()));
+        Assert.assertEquals("v1", new String(cached.getEntity(), StandardCharsets.UTF_8));
+        Assert.assertEquals(1, cache.getCacheHits());
+
+        cache.invalidateAll();
+        GetResponseCache.Body reloaded = cache.get("/processors/1", () -> body("v" + calls.incrementAndGet()));
+        Assert.assertEquals("v2", new String(reloaded.getEntity(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testResponseReadBeforeChangeIsNotKept() {
+        GetResponseCache cache = new GetResponseCache(60000, 100);
+        cache.get("/processors/1", () -> {
+            //a change is made while the request is in flight
+            cache.invalidateAll();
+            return body("old");
+        });
+        GetResponseCache.Body reloaded = cache.get("/processors/1", () -> body("new"));
+        Assert.assertEquals("new", new String(reloaded.getEntity(), StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testErrorsAreNotKept() {
+        GetResponseCache cache = new GetResponseCache(60000, 100);
+        try {
+            cache.get("/processors/1", () -> {
+                throw new IllegalStateException("not found");
+            });
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("ok", new String(cache.get("/processors/1", () -> body("ok")).getEntity(), StandardCharsets.UTF_8));
+            throw e;
+        }
+    }
+}
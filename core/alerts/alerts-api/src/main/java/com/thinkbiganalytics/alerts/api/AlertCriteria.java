@@ -105,6 +105,16 @@ public interface AlertCriteria {
      */
     AlertCriteria before(DateTime time);
 
+    /**
+     * Filters alerts to retrieve only those listed after the specified alert, so that a large number of alerts may be read in pages.
+     * Alerts are listed by created time and then ID, newest first.
+     *
+     * @param time the created time of the last alert that was read
+     * @param id   the ID of the last alert that was read, or {@code null} to retrieve only those older than the specified time
+     * @return the updated criteria
+     */
+    AlertCriteria continueAfter(DateTime time, Alert.ID id);
+
     /**
      * @param flag set to true if cleared alerts should be retrieved (default false)
      * @return the updated criteria
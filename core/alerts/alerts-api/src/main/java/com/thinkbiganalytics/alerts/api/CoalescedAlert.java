@@ -0,0 +1,39 @@
+package com.thinkbiganalytics.alerts.api;
+
+/*-
+ * #%L
+ * thinkbig-alerts-api
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.joda.time.DateTime;
+
+/**
+ * Alert standing for repeated occurrences of the same alert raised within a short time
+ */
+public interface CoalescedAlert extends Alert {
+
+    /**
+     * @return the number of times this alert was raised
+     */
+    int getOccurrenceCount();
+
+    /**
+     * @return the time this alert was last raised
+     */
+    DateTime getLastSeenTime();
+}
@@ -61,6 +61,12 @@ public interface AlertSource {
      */
     Optional<Alert> getAlertAsServiceAccount(Alert.ID id);
 
+    /**
+     * Gets the alerts matching the criteria, newest first.
+     *
+     * @param criteria the criteria
+     * @return the alerts ordered by created time, descending
+     */
     Iterator<Alert> getAlerts(AlertCriteria criteria);
 
     Iterator<AlertSummary> getAlertsSummary(AlertCriteria criteria);
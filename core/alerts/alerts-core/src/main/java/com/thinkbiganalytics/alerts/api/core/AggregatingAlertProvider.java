@@ -23,6 +23,7 @@ package com.thinkbiganalytics.alerts.api.core;
  * #L%
  */
 
+import com.google.common.collect.Iterators;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.thinkbiganalytics.alerts.api.Alert;
 import com.thinkbiganalytics.alerts.api.Alert.ID;
@@ -49,6 +50,7 @@ import java.lang.reflect.Proxy;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -57,7 +59,9 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -79,6 +83,12 @@ public class AggregatingAlertProvider implements AlertProvider, AlertSourceAggre
 
     private static final Logger LOG = LoggerFactory.getLogger(AggregatingAlertProvider.class);
 
+    /**
+     * Orders wrapped alerts by created time, newest first, and then by the ID of their source
+     */
+    private static final Comparator<Alert> NEWEST_FIRST = Comparator.comparing(Alert::getCreatedTime, Comparator.reverseOrder())
+        .thenComparing(AggregatingAlertProvider::getSourceId);
+
     private List<AlertResponder> responders;
     private Registration<?, ?> respondersRegistration;
     private Map<AlertListener, Registration<?, ?>> listeners;
@@ -87,6 +97,11 @@ public class AggregatingAlertProvider implements AlertProvider, AlertSourceAggre
     private Executor availableAlertsExecutor;
     private volatile DateTime lastAlertsTime = DateTime.now();
 
+    /**
+     * Number of alerts reported available since the last check was started, or zero if no check is queued
+     */
+    private final AtomicInteger pendingAlertsCount = new AtomicInteger();
+
     @Inject
     @Named("alertsEventBus")
     private EventBus alertsBus;
@@ -261,7 +276,7 @@ public class AggregatingAlertProvider implements AlertProvider, AlertSourceAggre
     @Override
     public Iterator<? extends Alert> getAlerts(AlertCriteria criteria) {
         Map<String, AlertSource> srcs = snapshotAllSources();
-        return combineAlerts(criteria, srcs).iterator();
+        return combineAlerts(criteria, srcs);
     }
 
 
@@ -308,11 +323,17 @@ public class AggregatingAlertProvider implements AlertProvider, AlertSourceAggre
     public void alertsAvailable(int count) {
         LOG.debug("Alerts available: {}", count);
 
+        // Queue a single check at a time; alerts reported while it is queued are read by the same check
+        if (this.pendingAlertsCount.getAndAdd(Math.max(count, 1)) > 0) {
+            return;
+        }
+
         this.availableAlertsExecutor.execute(() -> {
+            LOG.debug("Checking for {} available alerts", AggregatingAlertProvider.this.pendingAlertsCount.getAndSet(0));
             final AtomicReference<DateTime> sinceTime = new AtomicReference<>(AggregatingAlertProvider.this.lastAlertsTime);
             Map<String, AlertSource> sources = snapshotAllSources();
 
-            combineAlerts(criteria().asServiceAccount(true).after(sinceTime.get()), sources).forEach(alert -> {
+            combineAlerts(criteria().asServiceAccount(true).after(sinceTime.get()), sources).forEachRemaining(alert -> {
                 LOG.debug("Alert {} received from {}", alert.getId(), alert.getSource());
 
                 notifyListeners(alert);
@@ -356,19 +377,44 @@ public class AggregatingAlertProvider implements AlertProvider, AlertSourceAggre
         }
     }
 
-    private Stream<Alert> combineAlerts(AlertCriteria criteria, Map<String, AlertSource> srcs) {
+    /**
+     * Merges the alerts of each source, newest first.  Each source returns its alerts newest first so they are merged as they are
+     * read instead of being collected and sorted.  Alerts with the same created time are ordered by the ID of their source.
+     */
+    private Iterator<Alert> combineAlerts(AlertCriteria criteria, Map<String, AlertSource> srcs) {
         Criteria critImpl = (Criteria) criteria;
 
-        return srcs.values().stream()
-            .map(src -> {
-                AlertCriteria srcCrit = src.criteria();
-                critImpl.transfer(srcCrit);
-                Iterable<Alert> alerts = () -> src.getAlerts(srcCrit);
-                return StreamSupport.stream(alerts.spliterator(), false);
-            })
-            .flatMap(s -> s)
-            .map(alert -> wrapAlert(alert, alert.getSource()))
-            .sorted((a1, a2) -> a2.getCreatedTime().compareTo(a1.getCreatedTime()));
+        List<Iterator<Alert>> alerts = srcs.values().stream()
+            .map(src -> src.getAlerts(createSourceCriteria(critImpl, src)))
+            .filter(Objects::nonNull)
+            .map(itr -> Iterators.transform(itr, alert -> wrapAlert(alert, alert.getSource())))
+            .collect(Collectors.toList());
+        return Iterators.mergeSorted(alerts, NEWEST_FIRST);
+    }
+
+    /**
+     * Transfers the criteria to the specified source.  A {@code continueAfter} alert only identifies a position within its own source, so
+     * the other sources continue after its created time, including or excluding alerts with the same time depending on whether they are
+     * merged before or after the source of the alert.  Without an alert every source continues with the alerts older than the time.
+     */
+    private AlertCriteria createSourceCriteria(Criteria critImpl, AlertSource src) {
+        AlertCriteria srcCrit = critImpl.transfer(src.criteria());
+
+        if (critImpl.getContinueAfterTime() != null && critImpl.getContinueAfterId() == null) {
+            srcCrit = srcCrit.continueAfter(critImpl.getContinueAfterTime(), null);
+        } else if (critImpl.getContinueAfterTime() != null) {
+            SourceAlertID lastId = asSourceAlertId(critImpl.getContinueAfterId());
+            int order = createAlertSourceId(src).compareTo(lastId.sourceId);
+
+            if (order == 0) {
+                srcCrit = srcCrit.continueAfter(critImpl.getContinueAfterTime(), lastId.alertId);
+            } else if (order < 0) {
+                srcCrit = srcCrit.continueAfter(critImpl.getContinueAfterTime(), null);
+            } else {
+                srcCrit = srcCrit.continueAfter(critImpl.getContinueAfterTime().plusMillis(1), null);
+            }
+        }
+        return srcCrit;
     }
 
     private Stream<AlertSummary> combineAlertSummary(AlertCriteria criteria, Map<String, AlertSource> srcs) {
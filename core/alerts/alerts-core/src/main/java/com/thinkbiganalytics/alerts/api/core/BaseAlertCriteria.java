@@ -56,6 +56,8 @@ public class BaseAlertCriteria implements AlertCriteria, Predicate<Alert> {
     private DateTime beforeTime;
     private DateTime modifiedAfterTime;
     private DateTime modifiedBeforeTime;
+    private DateTime continueAfterTime;
+    private Alert.ID continueAfterId;
     private boolean includeCleared = false;
     private boolean asServiceAccount = false;
     private boolean onlyIfChangesDetected = false;
@@ -72,6 +74,9 @@ public class BaseAlertCriteria implements AlertCriteria, Predicate<Alert> {
         updated.set(updated.get().before(this.beforeTime));
         updated.set(updated.get().modifiedAfter(this.modifiedAfterTime));
         updated.set(updated.get().modifiedBefore(this.modifiedBeforeTime));
+        if (this.continueAfterTime != null) {
+            updated.set(updated.get().continueAfter(this.continueAfterTime, this.continueAfterId));
+        }
         updated.set(updated.get().includedCleared(this.isIncludeCleared()));
         this.types.forEach((t) -> updated.set(updated.get().type(t)));
         this.subtypes.forEach((t) -> updated.set(updated.get().subtype(t)));
@@ -109,6 +114,9 @@ public class BaseAlertCriteria implements AlertCriteria, Predicate<Alert> {
         if (this.modifiedBeforeTime != null && !testModifiedBeforeTime(alert)) {
             return false;
         }
+        if (this.continueAfterTime != null && !testContinueAfter(alert)) {
+            return false;
+        }
         if (!this.testCleared(alert)) {
             return false;
         }
@@ -215,6 +223,18 @@ public class BaseAlertCriteria implements AlertCriteria, Predicate<Alert> {
         return this;
     }
 
+    /* (non-Javadoc)
+     * @see com.thinkbiganalytics.alerts.api.AlertCriteria#continueAfter(org.joda.time.DateTime, com.thinkbiganalytics.alerts.api.Alert.ID)
+     */
+    @Override
+    public AlertCriteria continueAfter(DateTime time, Alert.ID id) {
+        if (time != null) {
+            this.continueAfterTime = time;
+            this.continueAfterId = id;
+        }
+        return this;
+    }
+
     /* (non-Javadoc)
      * @see com.thinkbiganalytics.alerts.api.AlertCriteria#includedCleared(boolean)
      */
@@ -277,6 +297,13 @@ public class BaseAlertCriteria implements AlertCriteria, Predicate<Alert> {
     }
 
 
+    protected boolean testContinueAfter(Alert alert) {
+        return alert.getCreatedTime().isBefore(this.continueAfterTime)
+               || (this.continueAfterId != null && alert.getCreatedTime().isEqual(this.continueAfterTime)
+                   && alert.getId().toString().compareTo(this.continueAfterId.toString()) < 0);
+    }
+
+
     protected boolean testCleared(Alert alert) {
         return !alert.isCleared() || this.includeCleared;
     }
@@ -314,6 +341,14 @@ public class BaseAlertCriteria implements AlertCriteria, Predicate<Alert> {
         return modifiedBeforeTime;
     }
 
+    protected DateTime getContinueAfterTime() {
+        return continueAfterTime;
+    }
+
+    protected Alert.ID getContinueAfterId() {
+        return continueAfterId;
+    }
+
     protected boolean isIncludeCleared() {
         return includeCleared;
     }
@@ -346,6 +381,8 @@ public class BaseAlertCriteria implements AlertCriteria, Predicate<Alert> {
         sb.append(", beforeTime=").append(beforeTime);
         sb.append(", modifiedAfterTime=").append(modifiedAfterTime);
         sb.append(", modifiedBeforeTime=").append(modifiedBeforeTime);
+        sb.append(", continueAfterTime=").append(continueAfterTime);
+        sb.append(", continueAfterId=").append(continueAfterId);
         sb.append(", includeCleared=").append(includeCleared);
         sb.append(", asServiceAccount=").append(asServiceAccount);
         sb.append(", onlyIfChangesDetected=").append(onlyIfChangesDetected);
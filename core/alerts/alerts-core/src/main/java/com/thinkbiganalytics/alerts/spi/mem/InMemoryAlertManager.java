@@ -188,7 +188,7 @@ public class InMemoryAlertManager implements AlertManager {
     public Iterator<Alert> getAlerts(AlertCriteria criteria) {
         BaseAlertCriteria predicate = (BaseAlertCriteria) (criteria == null ? criteria() : criteria);
         // TODO Grab a partition of the map first based on before/after times of criteria
-        return this.alertsByTime.values().stream()
+        return this.alertsByTime.descendingMap().values().stream()
             .map(ref -> (Alert) ref.get())
             .filter(predicate)
             .iterator();
@@ -212,6 +212,72 @@ public class AggregatingAlertProviderTest {
         assertThat(alerts).hasSize(2).contains(srcAlert, mgrAlert);
     }
 
+    @Test
+    public void testGetAlertsMergedNewestFirst() {
+        DateTime now = DateTime.now();
+        TestAlert src3 = new TestAlert(this.source, now.minusSeconds(1));
+        TestAlert src1 = new TestAlert(this.source, now.minusSeconds(3));
+        TestAlert mgr2 = new TestAlert(this.manager, now.minusSeconds(2));
+        TestAlert mgr1 = new TestAlert(this.manager, now.minusSeconds(3));
+
+        this.provider.addAlertSource(this.source);
+        this.provider.addAlertManager(this.manager);
+
+        when(this.source.getAlerts(any(AlertCriteria.class))).thenAnswer(iteratorAnswer(src3, src1));
+        when(this.manager.getAlerts(any(AlertCriteria.class))).thenAnswer(iteratorAnswer(mgr2, mgr1));
+
+        List<Alert> alerts = Lists.newArrayList(Iterators.transform(this.provider.getAlerts(this.provider.criteria()), providerToSourceAlertFunction()));
+
+        // Alerts created at the same time are ordered by source ID, and the manager ID sorts before the source ID
+        assertThat(alerts).containsExactly(src3, mgr2, mgr1, src1);
+    }
+
+    @Test
+    public void testGetAlertsContinueAfterAlert() {
+        DateTime now = DateTime.now();
+        TestAlert src3 = new TestAlert(this.source, now.minusSeconds(1));
+        TestAlert src1 = new TestAlert(this.source, now.minusSeconds(3));
+        TestAlert mgr2 = new TestAlert(this.manager, now.minusSeconds(2));
+        TestAlert mgr1 = new TestAlert(this.manager, now.minusSeconds(3));
+
+        this.provider.addAlertSource(this.source);
+        this.provider.addAlertManager(this.manager);
+
+        when(this.source.criteria()).thenAnswer(invocation -> new BaseAlertCriteria());
+        when(this.manager.criteria()).thenAnswer(invocation -> new BaseAlertCriteria());
+        when(this.source.getAlerts(any(AlertCriteria.class))).thenAnswer(criteriaAnswer(src3, src1));
+        when(this.manager.getAlerts(any(AlertCriteria.class))).thenAnswer(criteriaAnswer(mgr2, mgr1));
+
+        // The source alert at the same time as the last manager alert has not been read yet
+        AlertCriteria afterManager = this.provider.criteria().continueAfter(mgr1.getCreatedTime(), new SourceAlertID(mgr1.getId(), this.manager));
+        List<Alert> alerts = Lists.newArrayList(Iterators.transform(this.provider.getAlerts(afterManager), providerToSourceAlertFunction()));
+        assertThat(alerts).containsExactly(src1);
+
+        AlertCriteria afterSource = this.provider.criteria().continueAfter(src3.getCreatedTime(), new SourceAlertID(src3.getId(), this.source));
+        alerts = Lists.newArrayList(Iterators.transform(this.provider.getAlerts(afterSource), providerToSourceAlertFunction()));
+        assertThat(alerts).containsExactly(mgr2, mgr1, src1);
+    }
+
+    @Test
+    public void testGetAlertsContinueAfterTimeOnly() {
+        DateTime now = DateTime.now();
+        TestAlert src3 = new TestAlert(this.source, now.minusSeconds(1));
+        TestAlert src1 = new TestAlert(this.source, now.minusSeconds(3));
+        TestAlert mgr2 = new TestAlert(this.manager, now.minusSeconds(2));
+        TestAlert mgr1 = new TestAlert(this.manager, now.minusSeconds(3));
+
+        this.provider.addAlertSource(this.source);
+        this.provider.addAlertManager(this.manager);
+
+        when(this.source.getAlerts(any(AlertCriteria.class))).thenAnswer(criteriaAnswer(src3, src1));
+        when(this.manager.getAlerts(any(AlertCriteria.class))).thenAnswer(criteriaAnswer(mgr2, mgr1));
+
+        AlertCriteria criteria = this.provider.criteria().continueAfter(mgr2.getCreatedTime(), null);
+        List<Alert> alerts = Lists.newArrayList(Iterators.transform(this.provider.getAlerts(criteria), providerToSourceAlertFunction()));
+
+        assertThat(alerts).containsExactly(mgr1, src1);
+    }
+
     @Test
     public void testRespondToActionable() {
         TestAlert mgrAlert = new TestAlert(this.manager, true);
@@ -316,6 +382,19 @@ public class AggregatingAlertProviderTest {
         };
     }
 
+    /**
+     * Answers the alerts that match the criteria passed to the source, as a source would query them.
+     */
+    private Answer<Iterator<? extends Alert>> criteriaAnswer(final Alert... alerts) {
+        return new Answer<Iterator<? extends Alert>>() {
+            @Override
+            public Iterator<? extends Alert> answer(InvocationOnMock invocation) throws Throwable {
+                BaseAlertCriteria criteria = (BaseAlertCriteria) invocation.getArguments()[0];
+                return Arrays.stream(alerts).filter(criteria).iterator();
+            }
+        };
+    }
+
     private Iterator<? extends Alert> interator(Alert... alerts) {
         return Arrays.asList(alerts).iterator();
     }
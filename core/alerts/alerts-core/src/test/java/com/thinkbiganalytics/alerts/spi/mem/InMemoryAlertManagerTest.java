@@ -119,10 +119,10 @@ public class InMemoryAlertManagerTest {
 
         Iterator<? extends Alert> itr = this.manager.getAlerts(null);
 
-        assertThat(itr.hasNext()).isTrue();
-        assertThat(itr.next().getLevel()).isEqualTo(Level.INFO);
         assertThat(itr.hasNext()).isTrue();
         assertThat(itr.next().getLevel()).isEqualTo(Level.CRITICAL);
+        assertThat(itr.hasNext()).isTrue();
+        assertThat(itr.next().getLevel()).isEqualTo(Level.INFO);
         assertThat(itr.hasNext()).isFalse();
     }
 
@@ -49,6 +49,12 @@ public interface ClusterService {
      */
     void subscribe(ClusterServiceMessageReceiver messageReceiver,String... topic);
 
+    /**
+     * Stop sending cluster messages to a receiver, for all of the topics it subscribed to
+     * @param messageReceiver the receiver
+     */
+    void unsubscribe(ClusterServiceMessageReceiver messageReceiver);
+
     /**
      * Adds this node to the cluster
      * @throws Exception
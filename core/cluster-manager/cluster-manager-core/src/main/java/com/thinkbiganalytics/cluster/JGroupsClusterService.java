@@ -50,6 +50,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -89,11 +90,15 @@ public class JGroupsClusterService extends ReceiverAdapter implements ClusterSer
     }
 
     public void subscribe(ClusterServiceMessageReceiver messageReceiver) {
-        messageReceivers.computeIfAbsent(ALL_TOPIC, t -> new ArrayList<>()).add(messageReceiver);
+        messageReceivers.computeIfAbsent(ALL_TOPIC, t -> new CopyOnWriteArrayList<>()).add(messageReceiver);
     }
 
     public void subscribe(ClusterServiceMessageReceiver messageReceiver, String... topics) {
-        Arrays.stream(topics).forEach(topic -> messageReceivers.computeIfAbsent(topic, t -> new ArrayList<>()).add(messageReceiver));
+        Arrays.stream(topics).forEach(topic -> messageReceivers.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(messageReceiver));
+    }
+
+    public void unsubscribe(ClusterServiceMessageReceiver messageReceiver) {
+        messageReceivers.values().forEach(receivers -> receivers.remove(messageReceiver));
     }
 
     private String ENSURE_MESSAGE_DELIVERY_TYPE = "ENSURE_MESSAGE_DELIVERY";
@@ -28,6 +28,7 @@ import org.joda.time.DateTime;
 import org.joda.time.ReadablePeriod;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -182,6 +183,14 @@ public interface OpsManagerFeedProvider {
 
     DateTime getLastActiveTimeStamp(String feedName);
 
+    /**
+     * Finds the last active time of each of the feeds using a few set-based queries rather than one per feed.
+     *
+     * @param feedNames the feeds
+     * @return the last active time keyed by feed name, without entries for feeds that have never been active
+     */
+    Map<String, DateTime> getLastActiveTimeStamps(Collection<String> feedNames);
+
     /**
      * Subscribe to Cache events for the underlying provider
      * @param listener
@@ -28,7 +28,9 @@ import org.joda.time.ReadablePeriod;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -89,6 +91,13 @@ public interface BatchJobExecutionProvider extends BatchJobExecutionFilters {
      */
     BatchJobExecution save(BatchJobExecution jobExecution, ProvenanceEventRecordDTO event);
 
+    /**
+     * save a group of Provenance events belonging to the same job execution, writing their steps together
+     *
+     * @return the job execution
+     */
+    BatchJobExecution save(BatchJobExecution jobExecution, List<ProvenanceEventRecordDTO> events);
+
     /**
      * find a job exeuction by its unique key
      *@param fetchSteps true to fetch any step excecutions with job.  false to just get the job
@@ -121,6 +130,16 @@ public interface BatchJobExecutionProvider extends BatchJobExecutionFilters {
      */
     BatchJobExecution getOrCreateJobExecution(ProvenanceEventRecordDTO event, OpsManagerFeed feed);
 
+    /**
+     * find or create the job executions for a group of provenance events sharing the same {@link ProvenanceEventRecordDTO#jobFlowFileId}
+     * The job execution is looked up once for the group and reused for each event that follows.
+     *
+     * @param events the events, in the order they should be applied
+     * @param feed   the feed related to these events
+     * @return the job execution for each event in the same order as the {@code events}. The entry is null if the event does not belong to a job
+     */
+    List<BatchJobExecution> getOrCreateJobExecutions(List<ProvenanceEventRecordDTO> events, OpsManagerFeed feed);
+
     /**
      * after a job execution is committed and returned this is called to store the job and its id back in a map for future reference
      */
@@ -179,6 +198,31 @@ public interface BatchJobExecutionProvider extends BatchJobExecutionFilters {
      */
     List<? extends BatchJobExecution> findLatestFinishedJobForFeedSince(String feedName, DateTime dateTime);
 
+    /**
+     * Returns the latest completed job execution for each of the feeds
+     *
+     * @param feedNames the feeds
+     * @return the job executions keyed by feed name, without entries for feeds that have no completed job
+     */
+    Map<String, BatchJobExecution> findLatestCompletedJobForFeeds(Collection<String> feedNames);
+
+    /**
+     * Returns the latest finished job execution for each of the feeds
+     *
+     * @param feedNames the feeds
+     * @return the job executions keyed by feed name, without entries for feeds that have no finished job
+     */
+    Map<String, BatchJobExecution> findLatestFinishedJobForFeeds(Collection<String> feedNames);
+
+    /**
+     * Returns the latest failed job execution for each of the feeds, if it finished > the date time
+     *
+     * @param feedNames the feeds
+     * @param dateTime  the time to search since.
+     * @return the job executions keyed by feed name, without entries for feeds that have not failed since the date time
+     */
+    Map<String, BatchJobExecution> findLatestFailedJobForFeedsSince(Collection<String> feedNames, DateTime dateTime);
+
     /**
      * check if a feed is running
      *
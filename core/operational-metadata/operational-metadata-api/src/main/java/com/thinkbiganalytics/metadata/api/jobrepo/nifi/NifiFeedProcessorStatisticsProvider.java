@@ -126,6 +126,21 @@ public interface NifiFeedProcessorStatisticsProvider {
      */
     String compactFeedProcessorStatistics();
 
+    /**
+     * Add the stats to the minute, hour and day rollups.
+     * Queries for longer time frames read the rollups instead of the individual stats records
+     *
+     * @param stats the newly saved stats
+     */
+    void rollup(List<? extends NifiFeedProcessorStats> stats);
+
+    /**
+     * Delete the rollups that are older than the retention configured for their resolution
+     *
+     * @return a summary of the rollups that were deleted
+     */
+    String purgeExpiredRollups();
+
     /**
      * allow for specifying a time to look back from when querying for statistical information
      */
@@ -173,5 +188,36 @@ public interface NifiFeedProcessorStatisticsProvider {
         }
     }
 
+    /**
+     * The resolutions the stats are rolled up to
+     */
+    enum RollupResolution {
+
+        MINUTE(TimeFrame.ONE_MIN.millis),
+        HOUR(TimeFrame.HOUR.millis),
+        DAY(TimeFrame.DAY.millis);
+
+        private long millis;
+
+        RollupResolution(long millis) {
+            this.millis = millis;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public long getSeconds() {
+            return millis / 1000;
+        }
+
+        /**
+         * @return the start of the bucket (aligned to UTC) the time falls in
+         */
+        public DateTime bucketStart(DateTime time) {
+            return new DateTime(time.getMillis() - Math.floorMod(time.getMillis(), millis), time.getZone());
+        }
+    }
+
 
 }
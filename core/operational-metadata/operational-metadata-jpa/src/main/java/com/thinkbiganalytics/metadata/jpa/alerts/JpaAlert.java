@@ -27,6 +27,7 @@ import com.querydsl.core.annotations.PropertyType;
 import com.querydsl.core.annotations.QueryType;
 import com.thinkbiganalytics.alerts.api.Alert;
 import com.thinkbiganalytics.alerts.api.AlertChangeEvent;
+import com.thinkbiganalytics.alerts.api.CoalescedAlert;
 import com.thinkbiganalytics.alerts.api.EntityAlert;
 import com.thinkbiganalytics.alerts.spi.AlertSource;
 import com.thinkbiganalytics.alerts.spi.EntityIdentificationAlertContent;
@@ -67,7 +68,7 @@ import javax.persistence.Transient;
 @Entity
 @Table(name = "KYLO_ALERT")
 @EntityListeners(AuditTimestampListener.class)
-public class JpaAlert implements EntityAlert, AuditedEntity {
+public class JpaAlert implements EntityAlert, CoalescedAlert, AuditedEntity {
 
     @EmbeddedId
     private AlertId id;
@@ -124,6 +125,13 @@ public class JpaAlert implements EntityAlert, AuditedEntity {
     @Column(name = "ENTITY_TYPE")
     private String entityType;
 
+    @Column(name = "OCCURRENCE_COUNT")
+    private Integer occurrenceCount;
+
+    @Type(type = "com.thinkbiganalytics.jpa.PersistentDateTimeAsMillisLong")
+    @Column(name = "LAST_SEEN_TIME")
+    private DateTime lastSeenTime;
+
     @Transient
     private AlertSource source;
 
@@ -143,6 +151,8 @@ public class JpaAlert implements EntityAlert, AuditedEntity {
         this.level = level;
         this.content = content;
         this.createdTime = DateTime.now();
+        this.occurrenceCount = 1;
+        this.lastSeenTime = this.createdTime;
         this.state = state;
         setDescription(description);
         if (content instanceof EntityIdentificationAlertContent) {
@@ -232,6 +242,30 @@ public class JpaAlert implements EntityAlert, AuditedEntity {
         return createdTimeMillis;
     }
 
+    @Override
+    public int getOccurrenceCount() {
+        // Alerts created before occurrences were counted have no count
+        return occurrenceCount != null ? occurrenceCount : 1;
+    }
+
+    @Override
+    public DateTime getLastSeenTime() {
+        return lastSeenTime != null ? lastSeenTime : createdTime;
+    }
+
+    /**
+     * Records further occurrences of this alert.
+     *
+     * @param count        the number of occurrences
+     * @param lastSeenTime the time of the latest occurrence
+     */
+    public void addOccurrences(int count, DateTime lastSeenTime) {
+        this.occurrenceCount = getOccurrenceCount() + count;
+        if (this.lastSeenTime == null || lastSeenTime.isAfter(this.lastSeenTime)) {
+            this.lastSeenTime = lastSeenTime;
+        }
+    }
+
     /* (non-Javadoc)
          * @see com.thinkbiganalytics.alerts.api.Alert#getSource()
          */
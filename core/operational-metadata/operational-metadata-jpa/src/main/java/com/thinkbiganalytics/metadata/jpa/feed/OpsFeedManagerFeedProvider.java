@@ -70,6 +70,7 @@ import org.springframework.stereotype.Service;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -530,6 +531,34 @@ public class OpsFeedManagerFeedProvider extends AbstractCacheBackedProvider<OpsM
         return lastFeedTime;
     }
 
+    @Override
+    public Map<String, DateTime> getLastActiveTimeStamps(Collection<String> feedNames) {
+        Map<String, DateTime> lastFeedTimes = new HashMap<>();
+        Set<String> streamingFeedNames = new HashSet<>();
+        Set<String> batchFeedNames = new HashSet<>();
+        for (String feedName : feedNames) {
+            OpsManagerFeed feed = this.findByName(feedName);
+            if (feed == null) {
+                log.warn("Unable to find the feed {} to get its last active time", feedName);
+            } else if (feed.isStream()) {
+                streamingFeedNames.add(feedName);
+            } else {
+                batchFeedNames.add(feedName);
+            }
+        }
+        if (!streamingFeedNames.isEmpty()) {
+            List<? extends NifiFeedStats> feedStats = metadataAccess.read(() -> nifiFeedStatisticsProvider.findFeedStats(true));
+            feedStats.stream()
+                .filter(stats -> streamingFeedNames.contains(stats.getFeedName()) && stats.getLastActivityTimestamp() != null)
+                .forEach(stats -> lastFeedTimes.put(stats.getFeedName(), new DateTime(stats.getLastActivityTimestamp())));
+        }
+        if (!batchFeedNames.isEmpty()) {
+            Map<String, BatchJobExecution> jobExecutions = metadataAccess.read(() -> batchJobExecutionProvider.findLatestCompletedJobForFeeds(batchFeedNames));
+            jobExecutions.forEach((feedName, jobExecution) -> lastFeedTimes.put(feedName, jobExecution.getEndTime()));
+        }
+        return lastFeedTimes;
+    }
+
 
     @Override
     protected Collection<OpsManagerFeed> populateCache() {
@@ -31,6 +31,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
 import javax.inject.Inject;
 
 /**
@@ -42,6 +47,20 @@ public class FeedAclCache extends CacheListBean<String, FeedOpsAclEntry> impleme
     @Inject
     AccessController accessController;
 
+    /**
+     * Incremented before and after each change to the acl entries.
+     * Anything built from the acl entries while the generation stayed the same did not see a partial change
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * The group and user names that appear in any acl entry.
+     * Names are only removed when the whole cache is cleared so these may contain names that no longer grant access to anything
+     */
+    private final Set<String> groupPrincipalNames = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> userPrincipalNames = ConcurrentHashMap.newKeySet();
+
 
     public boolean isAvailable() {
         return isPopulated();
@@ -68,6 +87,31 @@ public class FeedAclCache extends CacheListBean<String, FeedOpsAclEntry> impleme
     }
 
 
+    /**
+     * @return a number that changes each time the acl entries change
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Return a key identifying the feeds the user has access to.
+     * Users with the same key will be granted access to the same feeds since only the groups and user names referenced by an acl entry are part of the key.
+     *
+     * @param userContext the user
+     * @return the key for the users effective access
+     */
+    public String getAccessKey(RoleSetExposingSecurityExpressionRoot userContext) {
+        if (!accessController.isEntityAccessControlled()) {
+            return "*";
+        }
+        String groups = userContext.getGroups().stream()
+            .filter(groupPrincipalNames::contains)
+            .sorted()
+            .collect(Collectors.joining(","));
+        return userPrincipalNames.contains(userContext.getName()) ? groups + "|" + userContext.getName() : groups;
+    }
+
     public boolean isUserCacheAvailable() {
         return (!accessController.isEntityAccessControlled() || (accessController.isEntityAccessControlled() && isAvailable()));
     }
@@ -79,23 +123,39 @@ public class FeedAclCache extends CacheListBean<String, FeedOpsAclEntry> impleme
 
     @Override
     public void onAddedItem(JpaFeedOpsAclEntry.EntryId key, JpaFeedOpsAclEntry value) {
+        generation.incrementAndGet();
+        //add the name before the entry so the access key always includes names that grant access
+        String principalName = value.getPrincipalName();
+        if (principalName != null && value.getPrincipalType() == FeedOpsAclEntry.PrincipalType.GROUP) {
+            groupPrincipalNames.add(principalName);
+        } else if (principalName != null && value.getPrincipalType() == FeedOpsAclEntry.PrincipalType.USER) {
+            userPrincipalNames.add(principalName);
+        }
         add(key.getUuid().toString(), value);
+        generation.incrementAndGet();
     }
 
     @Override
     public void onRemovedItem(JpaFeedOpsAclEntry value) {
+        generation.incrementAndGet();
         remove(getKey(value), value);
+        generation.incrementAndGet();
     }
 
     @Override
     public void onRemoveAll() {
+        generation.incrementAndGet();
         invalidateAll();
+        groupPrincipalNames.clear();
+        userPrincipalNames.clear();
+        generation.incrementAndGet();
     }
 
     @Override
     public void onPopulated() {
         log.info("FeedAclCache populated.");
         setPopulated(true);
+        generation.incrementAndGet();
     }
 
     @Override
@@ -31,6 +31,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QueryDslPredicateExecutor;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -98,6 +99,43 @@ public interface BatchJobExecutionRepository extends JpaRepository<JpaBatchJobEx
            + "order by job.jobExecutionId DESC ")
     List<JpaBatchJobExecution> findLatestFinishedJobsForFeedSince(@Param("feedName") String feedName, @Param("since")Long since);
 
+    @Query("select job from JpaBatchJobExecution as job "
+           + "join fetch job.jobInstance as jobInstance "
+           + "join fetch jobInstance.feed as feed "
+           + "where feed.name in (:feedNames) "
+           + "and job.endTimeMillis = (SELECT max(job2.endTimeMillis)"
+           + "     from JpaBatchJobExecution as job2 "
+           + "join job2.jobInstance as jobInstance2 "
+           + "where jobInstance2.feed.id = feed.id "
+           + "and job2.status = 'COMPLETED')"
+           + "order by job.jobExecutionId DESC ")
+    List<JpaBatchJobExecution> findLatestCompletedJobForFeeds(@Param("feedNames") Collection<String> feedNames);
+
+    @Query("select job from JpaBatchJobExecution as job "
+           + "join fetch job.jobInstance as jobInstance "
+           + "join fetch jobInstance.feed as feed "
+           + "where feed.name in (:feedNames) "
+           + "and job.endTimeMillis = (SELECT max(job2.endTimeMillis)"
+           + "     from JpaBatchJobExecution as job2 "
+           + "join job2.jobInstance as jobInstance2 "
+           + "where jobInstance2.feed.id = feed.id )"
+           + "order by job.jobExecutionId DESC ")
+    List<JpaBatchJobExecution> findLatestFinishedJobForFeeds(@Param("feedNames") Collection<String> feedNames);
+
+    @Query("select job from JpaBatchJobExecution as job "
+           + "join fetch job.jobInstance as jobInstance "
+           + "join fetch jobInstance.feed as feed "
+           + "where feed.name in (:feedNames) "
+           + "and job.status = 'FAILED' "
+           + "and job.endTimeMillis > :since "
+           + "and job.endTimeMillis = (SELECT max(job2.endTimeMillis)"
+           + "     from JpaBatchJobExecution as job2 "
+           + "join job2.jobInstance as jobInstance2 "
+           + "where jobInstance2.feed.id = feed.id "
+           + "and job2.status = 'FAILED')"
+           + "order by job.jobExecutionId DESC ")
+    List<JpaBatchJobExecution> findLatestFailedJobForFeedsSince(@Param("feedNames") Collection<String> feedNames, @Param("since") Long since);
+
 
     @Query("select job from JpaBatchJobExecution as job "
            + "join JpaBatchJobInstance  jobInstance on jobInstance.jobInstanceId = job.jobInstance.jobInstanceId "
@@ -84,7 +84,7 @@ public class JobExecutionChangedNotifier {
         if (StringUtils.isBlank(status)) {
             status = "Job " + jobExecution.getJobExecutionId() + " " + state.name().toLowerCase() + " for feed: " + (feed != null ? feed.getName() : null);
         }
-        this.eventService.notify(newFeedOperationStatusEvent(jobExecution.getJobExecutionId(), feed, state, status));
+        this.eventService.notify(newFeedOperationStatusEvent(jobExecution, feed, state, status));
     }
 
 
@@ -113,15 +113,15 @@ public class JobExecutionChangedNotifier {
         if (StringUtils.isBlank(status)) {
             status = "Job " + jobExecution.getJobExecutionId() + " " + state.name().toLowerCase() + " for feed: " + (feed != null ? feed.getName() : null);
         }
-        this.eventService.notify(newFeedOperationStatusEvent(jobExecution.getJobExecutionId(), feed, state, status));
+        this.eventService.notify(newFeedOperationStatusEvent(jobExecution, feed, state, status));
 
     }
 
-    private FeedOperationStatusEvent newFeedOperationStatusEvent(Long jobExecutionId, OpsManagerFeed feed, FeedOperation.State state, String status) {
+    private FeedOperationStatusEvent newFeedOperationStatusEvent(BatchJobExecution jobExecution, OpsManagerFeed feed, FeedOperation.State state, String status) {
         String feedName = feed != null ? feed.getName() : null;
         Feed.ID feedId = feed != null ? feed.getId() : null;
         FeedOperation.FeedType feedType = feed != null ? FeedOperation.FeedType.valueOf(feed.getFeedType().name()) : FeedOperation.FeedType.FEED;
-        return new FeedOperationStatusEvent(new OperationStatus(feedId, feedName, feedType, new OpId(jobExecutionId), state, status));
+        return new FeedOperationStatusEvent(new OperationStatus(feedId, feedName, feedType, new OpId(jobExecution.getJobExecutionId()), state, status, jobExecution.getEndTime()));
     }
 
     protected static class OpId implements FeedOperation.ID {
@@ -21,6 +21,7 @@ package com.thinkbiganalytics.metadata.jpa.jobrepo.job;
  */
 
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.Lists;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.ConstructorExpression;
 import com.querydsl.core.types.Expression;
@@ -94,6 +95,7 @@ import java.math.BigInteger;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -102,6 +104,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
@@ -120,6 +123,11 @@ public class JpaBatchJobExecutionProvider extends QueryDslPagingSupport<JpaBatch
 
     private static String PARAM_TB_JOB_TYPE = "tb.jobType";
 
+    /**
+     * Max number of feed names bound to the IN clause of a single query
+     */
+    private static final int MAX_FEED_NAMES_PER_QUERY = 500;
+
     @Autowired
     private JPAQueryFactory factory;
 
@@ -431,7 +439,7 @@ public class JpaBatchJobExecutionProvider extends QueryDslPagingSupport<JpaBatch
                 feed = opsManagerFeedRepository.findByName(event.getFeedName());
             }
             if (isProcessBatchEvent(event, feed)) {
-                jobExecution = getOrCreateBatchJobExecution(event, feed);
+                jobExecution = getOrCreateBatchJobExecution(event, feed, null);
             }
         }
 
@@ -439,6 +447,29 @@ public class JpaBatchJobExecutionProvider extends QueryDslPagingSupport<JpaBatch
 
     }
 
+    /**
+     * Get or Create the JobExecutions for a group of ProvenanceEvents sharing the same job flow file.
+     * Once a batch job is found it is reused for the rest of the group instead of querying for it again for each event.
+     */
+    @Override
+    public List<BatchJobExecution> getOrCreateJobExecutions(List<ProvenanceEventRecordDTO> events, OpsManagerFeed feed) {
+        List<BatchJobExecution> jobExecutions = new ArrayList<>(events.size());
+        JpaBatchJobExecution batchJobExecution = null;
+        for (ProvenanceEventRecordDTO event : events) {
+            JpaBatchJobExecution jobExecution;
+            if (!event.isStream() && batchJobExecution != null && batchJobExecution.getNifiEventJobExecution().getFlowFileId().equals(event.getJobFlowFileId())) {
+                jobExecution = getOrCreateBatchJobExecution(event, feed, batchJobExecution);
+            } else {
+                jobExecution = getOrCreateJobExecution(event, feed);
+            }
+            if (jobExecution != null && !event.isStream()) {
+                batchJobExecution = jobExecution;
+            }
+            jobExecutions.add(jobExecution);
+        }
+        return jobExecutions;
+    }
+
     @Override
     public void updateFeedJobStartTime(BatchJobExecution jobExecution, OpsManagerFeed feed) {
         if (jobExecution != null) {
@@ -521,11 +552,16 @@ public class JpaBatchJobExecutionProvider extends QueryDslPagingSupport<JpaBatch
     }
 
 
-    private JpaBatchJobExecution getOrCreateBatchJobExecution(ProvenanceEventRecordDTO event, OpsManagerFeed feed) {
-        JpaBatchJobExecution jobExecution = null;
+    /**
+     * @param existingJobExecution the job execution already found for the event's job flow file, or null to look it up
+     */
+    private JpaBatchJobExecution getOrCreateBatchJobExecution(ProvenanceEventRecordDTO event, OpsManagerFeed feed, JpaBatchJobExecution existingJobExecution) {
+        JpaBatchJobExecution jobExecution = existingJobExecution;
         boolean isNew = false;
         try {
-            jobExecution = jobExecutionRepository.findByFlowFile(event.getJobFlowFileId());
+            if (jobExecution == null) {
+                jobExecution = jobExecutionRepository.findByFlowFile(event.getJobFlowFileId());
+            }
             if (jobExecution == null) {
                 jobExecution = createNewJobExecution(event, feed);
                 isNew = true;
@@ -674,6 +710,17 @@ public class JpaBatchJobExecutionProvider extends QueryDslPagingSupport<JpaBatch
         return jobExecution;
     }
 
+    @Override
+    public BatchJobExecution save(BatchJobExecution jobExecution, List<ProvenanceEventRecordDTO> events) {
+        if (jobExecution == null) {
+            return null;
+        }
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        batchStepExecutionProvider.createStepExecutions(jobExecution, events);
+        log.debug("Time to create {} steps {} ms ", events.size(), stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        return jobExecution;
+    }
+
     /**
      * Save the job execution in the database
      *
@@ -758,6 +805,41 @@ public class JpaBatchJobExecutionProvider extends QueryDslPagingSupport<JpaBatch
         }
     }
 
+    @Override
+    public Map<String, BatchJobExecution> findLatestCompletedJobForFeeds(Collection<String> feedNames) {
+        return latestJobByFeedName(feedNames, jobExecutionRepository::findLatestCompletedJobForFeeds);
+    }
+
+    @Override
+    public Map<String, BatchJobExecution> findLatestFinishedJobForFeeds(Collection<String> feedNames) {
+        return latestJobByFeedName(feedNames, jobExecutionRepository::findLatestFinishedJobForFeeds);
+    }
+
+    @Override
+    public Map<String, BatchJobExecution> findLatestFailedJobForFeedsSince(Collection<String> feedNames, DateTime dateTime) {
+        return latestJobByFeedName(feedNames, names -> jobExecutionRepository.findLatestFailedJobForFeedsSince(names, dateTime.getMillis()));
+    }
+
+    /**
+     * Runs a query for the latest job of each feed over chunks of at most {@link #MAX_FEED_NAMES_PER_QUERY} feeds, keeping the first job of each feed
+     * from the results ordered by job execution id descending, as the single feed queries take the first result.
+     */
+    private Map<String, BatchJobExecution> latestJobByFeedName(Collection<String> feedNames, Function<List<String>, List<JpaBatchJobExecution>> query) {
+        if (feedNames == null || feedNames.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, BatchJobExecution> latestJobs = new HashMap<>();
+        for (List<String> chunk : Lists.partition(new ArrayList<>(feedNames), MAX_FEED_NAMES_PER_QUERY)) {
+            List<JpaBatchJobExecution> jobExecutions = query.apply(chunk);
+            if (jobExecutions != null) {
+                for (JpaBatchJobExecution jobExecution : jobExecutions) {
+                    latestJobs.putIfAbsent(jobExecution.getJobInstance().getFeed().getName(), jobExecution);
+                }
+            }
+        }
+        return latestJobs;
+    }
+
     @Override
     public BatchJobExecution findLatestJobForFeed(String feedName) {
         List<JpaBatchJobExecution> jobExecutions = null;
@@ -0,0 +1,344 @@
+package com.thinkbiganalytics.metadata.jpa.jobrepo.nifi;
+
+/*-
+ * #%L
+ * thinkbig-operational-metadata-jpa
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.metadata.api.jobrepo.nifi.NifiFeedProcessorStatisticsProvider.RollupResolution;
+import com.thinkbiganalytics.metadata.api.jobrepo.nifi.NifiFeedProcessorStats;
+
+import org.hibernate.annotations.Type;
+import org.joda.time.DateTime;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+/**
+ * The {@link JpaNifiFeedProcessorStats} for a feed and processor summed into a minute, hour or day bucket.
+ * Rollups are updated as the stats arrive from NiFi so queries over long time frames do not need to aggregate the individual stats records.
+ */
+@Entity
+@Table(name = "NIFI_FEED_PROCESSOR_STATS_ROLLUP")
+public class JpaNifiFeedProcessorStatsRollup {
+
+    @EmbeddedId
+    private RollupId rollupId;
+
+    @Column(name = "RESOLUTION", insertable = false, updatable = false)
+    private String resolution;
+
+    @Column(name = "FM_FEED_NAME", insertable = false, updatable = false)
+    private String feedName;
+
+    @Column(name = "NIFI_PROCESSOR_ID", insertable = false, updatable = false)
+    private String processorId;
+
+    @Type(type = "org.jadira.usertype.dateandtime.joda.PersistentDateTime")
+    @Column(name = "BUCKET_TIME", insertable = false, updatable = false)
+    private DateTime bucketTime;
+
+    @Column(name = "PROCESSOR_NAME")
+    private String processorName;
+
+    @Column(name = "NIFI_FEED_PROCESS_GROUP_ID")
+    private String feedProcessGroupId;
+
+    @Type(type = "org.jadira.usertype.dateandtime.joda.PersistentDateTime")
+    @Column(name = "MIN_EVENT_TIME")
+    private DateTime minEventTime;
+
+    @Type(type = "org.jadira.usertype.dateandtime.joda.PersistentDateTime")
+    @Column(name = "MAX_EVENT_TIME")
+    private DateTime maxEventTime;
+
+    @Column(name = "TOTAL_EVENTS")
+    private Long totalCount = 0L;
+
+    @Column(name = "DURATION_MILLIS")
+    private Long duration = 0L;
+
+    @Column(name = "BYTES_IN")
+    private Long bytesIn = 0L;
+
+    @Column(name = "BYTES_OUT")
+    private Long bytesOut = 0L;
+
+    @Column(name = "JOBS_STARTED")
+    private Long jobsStarted = 0L;
+
+    @Column(name = "JOBS_FINISHED")
+    private Long jobsFinished = 0L;
+
+    @Column(name = "JOBS_FAILED")
+    private Long jobsFailed = 0L;
+
+    @Column(name = "JOB_DURATION")
+    private Long jobDuration = 0L;
+
+    @Column(name = "SUCCESSFUL_JOB_DURATION")
+    private Long successfulJobDuration = 0L;
+
+    @Column(name = "PROCESSORS_FAILED")
+    private Long processorsFailed = 0L;
+
+    @Column(name = "FLOW_FILES_STARTED")
+    private Long flowFilesStarted = 0L;
+
+    @Column(name = "FLOW_FILES_FINISHED")
+    private Long flowFilesFinished = 0L;
+
+    @Column(name = "FAILED_EVENTS")
+    private Long failedCount = 0L;
+
+    @Column(name = "MAX_EVENT_ID")
+    private Long maxEventId = 0L;
+
+    /**
+     * The number of {@link JpaNifiFeedProcessorStats} records added to this rollup
+     */
+    @Column(name = "RECORD_COUNT")
+    private Long recordCount = 0L;
+
+    /**
+     * Rollups can be updated by more than one Kylo node at a time
+     */
+    @Version
+    @Column(name = "VERSION")
+    private Long version;
+
+    public JpaNifiFeedProcessorStatsRollup() {
+
+    }
+
+    public JpaNifiFeedProcessorStatsRollup(RollupId rollupId) {
+        this.rollupId = rollupId;
+        this.resolution = rollupId.getResolution();
+        this.feedName = rollupId.getFeedName();
+        this.processorId = rollupId.getProcessorId();
+        this.bucketTime = rollupId.getBucketTime();
+    }
+
+    /**
+     * Add the stats to this rollup
+     */
+    public void add(NifiFeedProcessorStats stats) {
+        if (stats.getProcessorName() != null) {
+            processorName = stats.getProcessorName();
+        }
+        if (stats.getFeedProcessGroupId() != null) {
+            feedProcessGroupId = stats.getFeedProcessGroupId();
+        }
+        if (stats.getMinEventTime() != null && (minEventTime == null || stats.getMinEventTime().isBefore(minEventTime))) {
+            minEventTime = stats.getMinEventTime();
+        }
+        if (stats.getMaxEventTime() != null && (maxEventTime == null || stats.getMaxEventTime().isAfter(maxEventTime))) {
+            maxEventTime = stats.getMaxEventTime();
+        }
+        totalCount = sum(totalCount, stats.getTotalCount());
+        duration = sum(duration, stats.getDuration());
+        bytesIn = sum(bytesIn, stats.getBytesIn());
+        bytesOut = sum(bytesOut, stats.getBytesOut());
+        jobsStarted = sum(jobsStarted, stats.getJobsStarted());
+        jobsFinished = sum(jobsFinished, stats.getJobsFinished());
+        jobsFailed = sum(jobsFailed, stats.getJobsFailed());
+        jobDuration = sum(jobDuration, stats.getJobDuration());
+        successfulJobDuration = sum(successfulJobDuration, stats.getSuccessfulJobDuration());
+        processorsFailed = sum(processorsFailed, stats.getProcessorsFailed());
+        flowFilesStarted = sum(flowFilesStarted, stats.getFlowFilesStarted());
+        flowFilesFinished = sum(flowFilesFinished, stats.getFlowFilesFinished());
+        failedCount = sum(failedCount, stats.getFailedCount());
+        if (stats.getMaxEventId() != null && (maxEventId == null || stats.getMaxEventId() > maxEventId)) {
+            maxEventId = stats.getMaxEventId();
+        }
+        recordCount = sum(recordCount, 1L);
+    }
+
+    private static Long sum(Long total, Long value) {
+        return (total != null ? total : 0L) + (value != null ? value : 0L);
+    }
+
+    public RollupId getRollupId() {
+        return rollupId;
+    }
+
+    public String getResolution() {
+        return resolution;
+    }
+
+    public String getFeedName() {
+        return feedName;
+    }
+
+    public String getProcessorId() {
+        return processorId;
+    }
+
+    public DateTime getBucketTime() {
+        return bucketTime;
+    }
+
+    public String getProcessorName() {
+        return processorName;
+    }
+
+    public String getFeedProcessGroupId() {
+        return feedProcessGroupId;
+    }
+
+    public DateTime getMinEventTime() {
+        return minEventTime;
+    }
+
+    public DateTime getMaxEventTime() {
+        return maxEventTime;
+    }
+
+    public Long getTotalCount() {
+        return totalCount;
+    }
+
+    public Long getDuration() {
+        return duration;
+    }
+
+    public Long getBytesIn() {
+        return bytesIn;
+    }
+
+    public Long getBytesOut() {
+        return bytesOut;
+    }
+
+    public Long getJobsStarted() {
+        return jobsStarted;
+    }
+
+    public Long getJobsFinished() {
+        return jobsFinished;
+    }
+
+    public Long getJobsFailed() {
+        return jobsFailed;
+    }
+
+    public Long getJobDuration() {
+        return jobDuration;
+    }
+
+    public Long getSuccessfulJobDuration() {
+        return successfulJobDuration;
+    }
+
+    public Long getProcessorsFailed() {
+        return processorsFailed;
+    }
+
+    public Long getFlowFilesStarted() {
+        return flowFilesStarted;
+    }
+
+    public Long getFlowFilesFinished() {
+        return flowFilesFinished;
+    }
+
+    public Long getFailedCount() {
+        return failedCount;
+    }
+
+    public Long getMaxEventId() {
+        return maxEventId;
+    }
+
+    public Long getRecordCount() {
+        return recordCount;
+    }
+
+    @Embeddable
+    public static class RollupId implements Serializable {
+
+        private static final long serialVersionUID = 4506297387458829163L;
+
+        @Column(name = "RESOLUTION")
+        private String resolution;
+
+        @Column(name = "FM_FEED_NAME")
+        private String feedName;
+
+        @Column(name = "NIFI_PROCESSOR_ID")
+        private String processorId;
+
+        @Type(type = "org.jadira.usertype.dateandtime.joda.PersistentDateTime")
+        @Column(name = "BUCKET_TIME")
+        private DateTime bucketTime;
+
+        public RollupId() {
+
+        }
+
+        public RollupId(RollupResolution resolution, String feedName, String processorId, DateTime eventTime) {
+            this.resolution = resolution.name();
+            this.feedName = feedName;
+            this.processorId = processorId;
+            this.bucketTime = resolution.bucketStart(eventTime);
+        }
+
+        public String getResolution() {
+            return resolution;
+        }
+
+        public String getFeedName() {
+            return feedName;
+        }
+
+        public String getProcessorId() {
+            return processorId;
+        }
+
+        public DateTime getBucketTime() {
+            return bucketTime;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            RollupId that = (RollupId) o;
+            return resolution.equals(that.resolution) && feedName.equals(that.feedName) && processorId.equals(that.processorId) && bucketTime.getMillis() == that.bucketTime.getMillis();
+        }
+
+        @Override
+        public int hashCode() {
+            int result = resolution.hashCode();
+            result = 31 * result + feedName.hashCode();
+            result = 31 * result + processorId.hashCode();
+            result = 31 * result + Long.hashCode(bucketTime.getMillis());
+            return result;
+        }
+    }
+}
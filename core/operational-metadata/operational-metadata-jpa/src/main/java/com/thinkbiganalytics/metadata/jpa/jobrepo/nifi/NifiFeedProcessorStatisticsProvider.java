@@ -21,6 +21,7 @@ package com.thinkbiganalytics.metadata.jpa.jobrepo.nifi;
  */
 
 import com.google.common.collect.Lists;
+import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.Projections;
 import com.querydsl.jpa.impl.JPAQuery;
@@ -28,17 +29,27 @@ import com.querydsl.jpa.impl.JPAQueryFactory;
 import com.thinkbiganalytics.metadata.api.common.ItemLastModifiedProvider;
 import com.thinkbiganalytics.metadata.api.jobrepo.nifi.NifiFeedProcessorErrors;
 import com.thinkbiganalytics.metadata.api.jobrepo.nifi.NifiFeedProcessorStats;
+import com.thinkbiganalytics.metadata.jpa.jobrepo.nifi.JpaNifiFeedProcessorStatsRollup.RollupId;
 import com.thinkbiganalytics.metadata.jpa.feed.FeedAclIndexQueryAugmentor;
 import com.thinkbiganalytics.metadata.jpa.feed.QJpaOpsManagerFeed;
 import com.thinkbiganalytics.security.AccessController;
 
 import org.apache.commons.lang3.StringUtils;
 import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.inject.Inject;
 
@@ -48,8 +59,15 @@ import javax.inject.Inject;
 @Service
 public class NifiFeedProcessorStatisticsProvider implements com.thinkbiganalytics.metadata.api.jobrepo.nifi.NifiFeedProcessorStatisticsProvider {
 
+    private static final Logger log = LoggerFactory.getLogger(NifiFeedProcessorStatisticsProvider.class);
+
     public static final String ITEM_LAST_MODIFIED_KEY = "NIFI_FEED_PROCESSOR_STATS";
 
+    /**
+     * The resolutions to try when querying, coarsest first
+     */
+    private static final RollupResolution[] COARSEST_FIRST = {RollupResolution.DAY, RollupResolution.HOUR, RollupResolution.MINUTE};
+
     @Autowired
     private JPAQueryFactory factory;
 
@@ -66,6 +84,35 @@ public class NifiFeedProcessorStatisticsProvider implements com.thinkbiganalytic
     @Inject
     private AccessController accessController;
 
+    @Inject
+    private NifiFeedProcessorStatsRollupRepository rollupRepository;
+
+    /**
+     * Should the minute, hour and day rollups be maintained and queried
+     */
+    @Value("${kylo.ops.mgr.stats.rollup.enabled:true}")
+    private boolean rollupEnabled = true;
+
+    /**
+     * A rollup resolution is only queried if the requested time range contains at least this many of its buckets
+     */
+    @Value("${kylo.ops.mgr.stats.rollup.min-buckets:24}")
+    private int rollupMinBuckets = 24;
+
+    @Value("${kylo.ops.mgr.stats.rollup.minute.retention.days:2}")
+    private int minuteRollupRetentionDays = 2;
+
+    @Value("${kylo.ops.mgr.stats.rollup.hour.retention.days:90}")
+    private int hourRollupRetentionDays = 90;
+
+    @Value("${kylo.ops.mgr.stats.rollup.day.retention.days:1825}")
+    private int dayRollupRetentionDays = 1825;
+
+    /**
+     * The earliest bucket for each resolution.  Rollups are not used for time ranges that start before the rollups were being recorded
+     */
+    private Map<RollupResolution, DateTime> earliestRollupBucket = new ConcurrentHashMap<>();
+
     @Autowired
     public NifiFeedProcessorStatisticsProvider(NifiFeedProcessorStatisticsRepository repository, NifiEventRepository nifiEventRepository) {
         this.statisticsRepository = repository;
@@ -141,62 +188,66 @@ public class NifiFeedProcessorStatisticsProvider implements com.thinkbiganalytic
 
     @Override
     public List<? extends JpaNifiFeedProcessorStats> findFeedProcessorStatisticsByProcessorId(String feedName, DateTime start, DateTime end) {
-        QJpaNifiFeedProcessorStats stats = QJpaNifiFeedProcessorStats.jpaNifiFeedProcessorStats;
-        QJpaOpsManagerFeed feed = QJpaOpsManagerFeed.jpaOpsManagerFeed;
-        JPAQuery
-            query = factory.select(
-            Projections.bean(JpaNifiFeedProcessorStats.class,
-                             stats.feedName, stats.processorId, stats.processorName,
-                             stats.bytesIn.sum().as("bytesIn"), stats.bytesOut.sum().as("bytesOut"), stats.duration.sum().as("duration"),
-                             stats.jobsStarted.sum().as("jobsStarted"), stats.jobsFinished.sum().as("jobsFinished"), stats.jobDuration.sum().as("jobDuration"),
-                             stats.flowFilesStarted.sum().as("flowFilesStarted"), stats.flowFilesFinished.sum().as("flowFilesFinished"), stats.totalCount.sum().as("totalCount"),
-                             stats.maxEventTime.max().as("maxEventTime"), stats.minEventTime.min().as("minEventTime"), stats.jobsFailed.sum().as("jobsFailed"),
-                             stats.failedCount.sum().as("failedCount"),
-                             stats.count().as("resultSetCount"))
-        )
-            .from(stats)
-            .innerJoin(feed).on(feed.name.eq(stats.feedName))
-            .where(stats.feedName.eq(feedName)
-                       .and(FeedAclIndexQueryAugmentor.generateExistsExpression(feed.id, accessController.isEntityAccessControlled()))
-                       .and(stats.minEventTime.goe(start)
-                                .and(stats.maxEventTime.loe(end))))
-            .groupBy(stats.feedName, stats.processorId, stats.processorName)
-            .orderBy(stats.processorName.asc());
-
-        return (List<JpaNifiFeedProcessorStats>) query.fetch();
+        RollupResolution resolution = findRollupResolution(start, end);
+        if (resolution != null) {
+            return findRollupsGroupedByProcessor(feedName, resolution, start, end, true);
+        }
+        return findStatsGroupedByProcessor(feedName, withinDateTime(start, end), true);
     }
 
 
     @Override
     public List<? extends JpaNifiFeedProcessorStats> findFeedProcessorStatisticsByProcessorName(String feedName, DateTime start, DateTime end) {
-        QJpaNifiFeedProcessorStats stats = QJpaNifiFeedProcessorStats.jpaNifiFeedProcessorStats;
+        RollupResolution resolution = findRollupResolution(start, end);
+        if (resolution != null) {
+            return findRollupsGroupedByProcessor(feedName, resolution, start, end, false);
+        }
+        return findStatsGroupedByProcessor(feedName, withinDateTime(start, end), false);
+    }
 
+    public List<? extends JpaNifiFeedProcessorStats> findForFeedStatisticsGroupedByTime(String feedName, DateTime start, DateTime end) {
+        RollupResolution resolution = findRollupResolution(start, end);
+        if (resolution != null) {
+            return findRollupsGroupedByTime(feedName, resolution, start, end);
+        }
+        return findStatsGroupedByTime(feedName, withinDateTime(start, end));
+    }
+
+    /**
+     * Sum the individual stats records matching the time predicate for each processor
+     */
+    private List<JpaNifiFeedProcessorStats> findStatsGroupedByProcessor(String feedName, Predicate timePredicate, boolean byProcessorId) {
+        QJpaNifiFeedProcessorStats stats = QJpaNifiFeedProcessorStats.jpaNifiFeedProcessorStats;
         QJpaOpsManagerFeed feed = QJpaOpsManagerFeed.jpaOpsManagerFeed;
 
-        JPAQuery
-            query = factory.select(
-            Projections.bean(JpaNifiFeedProcessorStats.class,
-                             stats.feedName, stats.processorName,
+        List<Expression<?>> groupBy = byProcessorId ? Lists.newArrayList(stats.feedName, stats.processorId, stats.processorName)
+                                                    : Lists.newArrayList(stats.feedName, stats.processorName);
+        List<Expression<?>> columns = Lists.newArrayList(groupBy);
+        columns.addAll(Lists.newArrayList(
                              stats.bytesIn.sum().as("bytesIn"), stats.bytesOut.sum().as("bytesOut"), stats.duration.sum().as("duration"),
                              stats.jobsStarted.sum().as("jobsStarted"), stats.jobsFinished.sum().as("jobsFinished"), stats.jobDuration.sum().as("jobDuration"),
                              stats.flowFilesStarted.sum().as("flowFilesStarted"), stats.flowFilesFinished.sum().as("flowFilesFinished"), stats.totalCount.sum().as("totalCount"),
                              stats.maxEventTime.max().as("maxEventTime"), stats.minEventTime.min().as("minEventTime"), stats.jobsFailed.sum().as("jobsFailed"),
                              stats.failedCount.sum().as("failedCount"),
-                             stats.count().as("resultSetCount"))
-        )
+                             stats.count().as("resultSetCount")));
+
+        JPAQuery
+            query = factory.select(Projections.bean(JpaNifiFeedProcessorStats.class, columns.toArray(new Expression<?>[columns.size()])))
             .from(stats)
             .innerJoin(feed).on(feed.name.eq(stats.feedName))
             .where(stats.feedName.eq(feedName)
                        .and(FeedAclIndexQueryAugmentor.generateExistsExpression(feed.id, accessController.isEntityAccessControlled()))
-                       .and(stats.minEventTime.goe(start)
-                                .and(stats.maxEventTime.loe(end))))
-            .groupBy(stats.feedName, stats.processorName)
+                       .and(timePredicate))
+            .groupBy(groupBy.toArray(new Expression<?>[groupBy.size()]))
             .orderBy(stats.processorName.asc());
 
         return (List<JpaNifiFeedProcessorStats>) query.fetch();
     }
 
-    public List<? extends JpaNifiFeedProcessorStats> findForFeedStatisticsGroupedByTime(String feedName, DateTime start, DateTime end) {
+    /**
+     * Sum the individual stats records matching the time predicate for each collection time
+     */
+    private List<JpaNifiFeedProcessorStats> findStatsGroupedByTime(String feedName, Predicate timePredicate) {
         QJpaNifiFeedProcessorStats stats = QJpaNifiFeedProcessorStats.jpaNifiFeedProcessorStats;
 
         QJpaOpsManagerFeed feed = QJpaOpsManagerFeed.jpaOpsManagerFeed;
@@ -219,8 +270,7 @@ public class NifiFeedProcessorStatisticsProvider implements com.thinkbiganalytic
             .innerJoin(feed).on(feed.name.eq(stats.feedName))
             .where(stats.feedName.eq(feedName)
                        .and(FeedAclIndexQueryAugmentor.generateExistsExpression(feed.id, accessController.isEntityAccessControlled()))
-                       .and(stats.minEventTime.goe(start)
-                                .and(stats.maxEventTime.loe(end))))
+                       .and(timePredicate))
 
             .groupBy(stats.feedName, stats.minEventTime, stats.collectionIntervalSeconds)
             .orderBy(stats.minEventTime.asc());
@@ -274,4 +324,230 @@ public class NifiFeedProcessorStatisticsProvider implements com.thinkbiganalytic
     public String compactFeedProcessorStatistics(){
         return statisticsRepository.compactFeedProcessorStats();
     }
+
+    /**
+     * Find the coarsest rollup resolution that has at least {@link #rollupMinBuckets} buckets in the time range and whose rollups cover the whole range
+     *
+     * @return the resolution to query, or null if the individual stats records should be queried
+     */
+    private RollupResolution findRollupResolution(DateTime start, DateTime end) {
+        if (!rollupEnabled || start == null || end == null) {
+            return null;
+        }
+        long range = end.getMillis() - start.getMillis();
+        DateTime now = DateTime.now();
+        for (RollupResolution resolution : COARSEST_FIRST) {
+            if (range / resolution.getMillis() >= rollupMinBuckets
+                && !start.isBefore(now.minusDays(getRetentionDays(resolution)))
+                && isRollupAvailable(resolution, start)) {
+                return resolution;
+            }
+        }
+        return null;
+    }
+
+    private boolean isRollupAvailable(RollupResolution resolution, DateTime start) {
+        DateTime earliest = earliestRollupBucket.get(resolution);
+        if (earliest == null) {
+            earliest = rollupRepository.findEarliestBucketTime(resolution.name());
+            if (earliest == null) {
+                return false;
+            }
+            earliestRollupBucket.put(resolution, earliest);
+        }
+        return !resolution.bucketStart(start).isBefore(earliest);
+    }
+
+    private int getRetentionDays(RollupResolution resolution) {
+        switch (resolution) {
+            case MINUTE:
+                return minuteRollupRetentionDays;
+            case HOUR:
+                return hourRollupRetentionDays;
+            default:
+                return dayRollupRetentionDays;
+        }
+    }
+
+    /**
+     * Rollups are only read for the buckets that lie entirely within the time range. Stats in the partially covered buckets at either end of the range are read from the individual stats records,
+     * so the results never include events outside the range.
+     */
+    private List<JpaNifiFeedProcessorStats> findRollupsGroupedByTime(String feedName, RollupResolution resolution, DateTime start, DateTime end) {
+        QJpaNifiFeedProcessorStatsRollup rollup = QJpaNifiFeedProcessorStatsRollup.jpaNifiFeedProcessorStatsRollup;
+        QJpaOpsManagerFeed feed = QJpaOpsManagerFeed.jpaOpsManagerFeed;
+
+        JPAQuery
+            query = factory.select(
+            Projections.bean(JpaNifiFeedProcessorStats.class,
+                             rollup.feedName,
+                             rollup.bytesIn.sum().as("bytesIn"), rollup.bytesOut.sum().as("bytesOut"), rollup.duration.sum().as("duration"),
+                             rollup.jobsStarted.sum().as("jobsStarted"), rollup.jobsFinished.sum().as("jobsFinished"), rollup.jobDuration.sum().as("jobDuration"),
+                             rollup.flowFilesStarted.sum().as("flowFilesStarted"), rollup.flowFilesFinished.sum().as("flowFilesFinished"), rollup.failedCount.sum().as("failedCount"),
+                             rollup.bucketTime.as("minEventTime"),
+                             rollup.jobsFailed.sum().as("jobsFailed"), rollup.totalCount.sum().as("totalCount"),
+                             rollup.recordCount.sum().as("resultSetCount"))
+        )
+            .from(rollup)
+            .innerJoin(feed).on(feed.name.eq(rollup.feedName))
+            .where(rollup.resolution.eq(resolution.name())
+                       .and(rollup.feedName.eq(feedName))
+                       .and(FeedAclIndexQueryAugmentor.generateExistsExpression(feed.id, accessController.isEntityAccessControlled()))
+                       .and(rollup.bucketTime.goe(firstFullBucket(resolution, start))
+                                .and(rollup.bucketTime.lt(resolution.bucketStart(end)))))
+            .groupBy(rollup.feedName, rollup.bucketTime)
+            .orderBy(rollup.bucketTime.asc());
+
+        List<JpaNifiFeedProcessorStats> results = Lists.newArrayList((List<JpaNifiFeedProcessorStats>) query.fetch());
+        BigDecimal seconds = BigDecimal.valueOf(resolution.getSeconds());
+        for (JpaNifiFeedProcessorStats stats : results) {
+            stats.setCollectionIntervalSeconds(resolution.getSeconds());
+            stats.setJobsStartedPerSecond(BigDecimal.valueOf(stats.getJobsStarted() != null ? stats.getJobsStarted() : 0L).divide(seconds, 4, RoundingMode.HALF_UP));
+            stats.setJobsFinishedPerSecond(BigDecimal.valueOf(stats.getJobsFinished() != null ? stats.getJobsFinished() : 0L).divide(seconds, 4, RoundingMode.HALF_UP));
+        }
+        results.addAll(findStatsGroupedByTime(feedName, withinPartialBuckets(resolution, start, end)));
+        results.sort(Comparator.comparing(JpaNifiFeedProcessorStats::getMinEventTime, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return results;
+    }
+
+    /**
+     * Rollups are only read for the buckets that lie entirely within the time range, and the individual stats records in the partially covered buckets at either end are added to each processor.
+     */
+    private List<JpaNifiFeedProcessorStats> findRollupsGroupedByProcessor(String feedName, RollupResolution resolution, DateTime start, DateTime end, boolean byProcessorId) {
+        QJpaNifiFeedProcessorStatsRollup rollup = QJpaNifiFeedProcessorStatsRollup.jpaNifiFeedProcessorStatsRollup;
+        QJpaOpsManagerFeed feed = QJpaOpsManagerFeed.jpaOpsManagerFeed;
+
+        List<Expression<?>> groupBy = byProcessorId ? Lists.newArrayList(rollup.feedName, rollup.processorId, rollup.processorName)
+                                                    : Lists.newArrayList(rollup.feedName, rollup.processorName);
+        List<Expression<?>> columns = Lists.newArrayList(groupBy);
+        columns.addAll(Lists.newArrayList(
+                             rollup.bytesIn.sum().as("bytesIn"), rollup.bytesOut.sum().as("bytesOut"), rollup.duration.sum().as("duration"),
+                             rollup.jobsStarted.sum().as("jobsStarted"), rollup.jobsFinished.sum().as("jobsFinished"), rollup.jobDuration.sum().as("jobDuration"),
+                             rollup.flowFilesStarted.sum().as("flowFilesStarted"), rollup.flowFilesFinished.sum().as("flowFilesFinished"), rollup.totalCount.sum().as("totalCount"),
+                             rollup.maxEventTime.max().as("maxEventTime"), rollup.minEventTime.min().as("minEventTime"), rollup.jobsFailed.sum().as("jobsFailed"),
+                             rollup.failedCount.sum().as("failedCount"),
+                             rollup.recordCount.sum().as("resultSetCount")));
+
+        JPAQuery
+            query = factory.select(Projections.bean(JpaNifiFeedProcessorStats.class, columns.toArray(new Expression<?>[columns.size()])))
+            .from(rollup)
+            .innerJoin(feed).on(feed.name.eq(rollup.feedName))
+            .where(rollup.resolution.eq(resolution.name())
+                       .and(rollup.feedName.eq(feedName))
+                       .and(FeedAclIndexQueryAugmentor.generateExistsExpression(feed.id, accessController.isEntityAccessControlled()))
+                       .and(rollup.bucketTime.goe(firstFullBucket(resolution, start))
+                                .and(rollup.bucketTime.lt(resolution.bucketStart(end)))))
+            .groupBy(groupBy.toArray(new Expression<?>[groupBy.size()]))
+            .orderBy(rollup.processorName.asc());
+
+        Map<String, JpaNifiFeedProcessorStats> results = new LinkedHashMap<>();
+        for (JpaNifiFeedProcessorStats stats : (List<JpaNifiFeedProcessorStats>) query.fetch()) {
+            results.put(processorKey(stats, byProcessorId), stats);
+        }
+        for (JpaNifiFeedProcessorStats partial : findStatsGroupedByProcessor(feedName, withinPartialBuckets(resolution, start, end), byProcessorId)) {
+            JpaNifiFeedProcessorStats stats = results.get(processorKey(partial, byProcessorId));
+            if (stats == null) {
+                results.put(processorKey(partial, byProcessorId), partial);
+            } else {
+                add(stats, partial);
+            }
+        }
+        List<JpaNifiFeedProcessorStats> merged = Lists.newArrayList(results.values());
+        merged.sort(Comparator.comparing(JpaNifiFeedProcessorStats::getProcessorName, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return merged;
+    }
+
+    /**
+     * @return the start of the first bucket that begins at or after the time
+     */
+    private DateTime firstFullBucket(RollupResolution resolution, DateTime start) {
+        DateTime bucketStart = resolution.bucketStart(start);
+        return bucketStart.isEqual(start) ? bucketStart : bucketStart.plus(resolution.getMillis());
+    }
+
+    /**
+     * Matches the individual stats records in the time range that fall in the partially covered buckets at its start and end.  Records are bucketed by their min event time, as the rollups are.
+     */
+    private Predicate withinPartialBuckets(RollupResolution resolution, DateTime start, DateTime end) {
+        QJpaNifiFeedProcessorStats stats = QJpaNifiFeedProcessorStats.jpaNifiFeedProcessorStats;
+        return stats.minEventTime.goe(start).and(stats.minEventTime.lt(firstFullBucket(resolution, start)))
+            .or(stats.minEventTime.goe(resolution.bucketStart(end)))
+            .and(stats.maxEventTime.loe(end));
+    }
+
+    private String processorKey(JpaNifiFeedProcessorStats stats, boolean byProcessorId) {
+        return byProcessorId ? stats.getProcessorId() + ":" + stats.getProcessorName() : stats.getProcessorName();
+    }
+
+    /**
+     * Add the counts of the partial stats to the stats of the same processor
+     */
+    private void add(JpaNifiFeedProcessorStats stats, JpaNifiFeedProcessorStats partial) {
+        stats.setBytesIn(sum(stats.getBytesIn(), partial.getBytesIn()));
+        stats.setBytesOut(sum(stats.getBytesOut(), partial.getBytesOut()));
+        stats.setDuration(sum(stats.getDuration(), partial.getDuration()));
+        stats.setJobsStarted(sum(stats.getJobsStarted(), partial.getJobsStarted()));
+        stats.setJobsFinished(sum(stats.getJobsFinished(), partial.getJobsFinished()));
+        stats.setJobDuration(sum(stats.getJobDuration(), partial.getJobDuration()));
+        stats.setFlowFilesStarted(sum(stats.getFlowFilesStarted(), partial.getFlowFilesStarted()));
+        stats.setFlowFilesFinished(sum(stats.getFlowFilesFinished(), partial.getFlowFilesFinished()));
+        stats.setTotalCount(sum(stats.getTotalCount(), partial.getTotalCount()));
+        stats.setJobsFailed(sum(stats.getJobsFailed(), partial.getJobsFailed()));
+        stats.setFailedCount(sum(stats.getFailedCount(), partial.getFailedCount()));
+        if (partial.getMinEventTime() != null && (stats.getMinEventTime() == null || partial.getMinEventTime().isBefore(stats.getMinEventTime()))) {
+            stats.setMinEventTime(partial.getMinEventTime());
+        }
+        if (partial.getMaxEventTime() != null && (stats.getMaxEventTime() == null || partial.getMaxEventTime().isAfter(stats.getMaxEventTime()))) {
+            stats.setMaxEventTime(partial.getMaxEventTime());
+        }
+    }
+
+    private Long sum(Long value, Long other) {
+        if (value == null) {
+            return other;
+        }
+        return other == null ? value : value + other;
+    }
+
+    @Override
+    public void rollup(List<? extends NifiFeedProcessorStats> stats) {
+        if (!rollupEnabled || stats == null || stats.isEmpty()) {
+            return;
+        }
+        Map<RollupId, JpaNifiFeedProcessorStatsRollup> rollups = new HashMap<>();
+        for (NifiFeedProcessorStats stat : stats) {
+            if (stat.getFeedName() == null || stat.getProcessorId() == null || stat.getMinEventTime() == null) {
+                continue;
+            }
+            for (RollupResolution resolution : RollupResolution.values()) {
+                RollupId rollupId = new RollupId(resolution, stat.getFeedName(), stat.getProcessorId(), stat.getMinEventTime());
+                JpaNifiFeedProcessorStatsRollup rollup = rollups.get(rollupId);
+                if (rollup == null) {
+                    rollup = rollupRepository.findOne(rollupId);
+                    if (rollup == null) {
+                        rollup = new JpaNifiFeedProcessorStatsRollup(rollupId);
+                    }
+                    rollups.put(rollupId, rollup);
+                }
+                rollup.add(stat);
+            }
+        }
+        if (!rollups.isEmpty()) {
+            rollupRepository.save(rollups.values());
+        }
+    }
+
+    @Override
+    public String purgeExpiredRollups() {
+        StringBuilder summary = new StringBuilder();
+        DateTime now = DateTime.now();
+        for (RollupResolution resolution : RollupResolution.values()) {
+            DateTime before = now.minusDays(getRetentionDays(resolution));
+            int deleted = rollupRepository.deleteBefore(resolution.name(), before);
+            summary.append(resolution.name()).append(": ").append(deleted).append(" rollups older than ").append(before).append(" deleted. ");
+        }
+        earliestRollupBucket.clear();
+        log.info("Purged NiFi feed processor stats rollups. {}", summary);
+        return summary.toString();
+    }
 }
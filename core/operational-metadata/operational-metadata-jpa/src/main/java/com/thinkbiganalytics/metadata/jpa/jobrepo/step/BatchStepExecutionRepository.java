@@ -44,4 +44,9 @@ public interface BatchStepExecutionRepository extends JpaRepository<JpaBatchStep
                    + "join JpaNifiEventStepExecution as nifiEventStep on nifiEventStep.stepExecution.stepExecutionId = step.stepExecutionId  "
                    + "where nifiEventStep.componentId = :componentId and nifiEventStep.jobFlowFileId = :flowFileId")
     JpaBatchStepExecution findByProcessorAndJobFlowFile(@Param("componentId") String processorId, @Param("flowFileId") String flowFileId);
+
+    @Query(value = "select step from JpaBatchStepExecution as step "
+                   + "join fetch step.nifiEventStepExecution as nifiEventStep "
+                   + "where nifiEventStep.jobFlowFileId = :flowFileId")
+    List<JpaBatchStepExecution> findByJobFlowFile(@Param("flowFileId") String flowFileId);
 }
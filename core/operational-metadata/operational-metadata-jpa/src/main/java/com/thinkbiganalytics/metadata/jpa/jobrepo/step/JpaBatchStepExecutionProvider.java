@@ -41,12 +41,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * Provider for accessing {@link JpaBatchStepExecution}
@@ -130,6 +134,66 @@ public class JpaBatchStepExecutionProvider implements BatchStepExecutionProvider
     public BatchStepExecution createStepExecution(BatchJobExecution jobExecution, ProvenanceEventRecordDTO event) {
         //only create the step if it doesnt exist yet for this event
         JpaBatchStepExecution stepExecution = batchStepExecutionRepository.findByProcessorAndJobFlowFile(event.getComponentId(), event.getJobFlowFileId());
+        stepExecution = createOrUpdateStepExecution(jobExecution, event, stepExecution);
+        if (stepExecution != null) {
+            boolean isNew = stepExecution.getStepExecutionId() == null;
+            //saving the StepExecution will cascade and save the nifiEventStep
+            stepExecution = batchStepExecutionRepository.save(stepExecution);
+            if (isNew) {
+                jobExecution.getStepExecutions().add(stepExecution);
+            }
+        }
+        return stepExecution;
+
+    }
+
+    /**
+     * Create or update the StepExecution records for a group of events belonging to the same job execution and job flow file.
+     * The existing steps are looked up with a single query and all the steps are saved together so the inserts can be batched.
+     *
+     * @param jobExecution the job execution
+     * @param events       the events in the order they should be applied
+     * @return the new or updated steps
+     */
+    public List<BatchStepExecution> createStepExecutions(BatchJobExecution jobExecution, List<ProvenanceEventRecordDTO> events) {
+        Map<String, JpaBatchStepExecution> stepsByComponentAndFlowFile = new HashMap<>();
+        events.stream().map(ProvenanceEventRecordDTO::getJobFlowFileId).distinct()
+            .flatMap(jobFlowFileId -> batchStepExecutionRepository.findByJobFlowFile(jobFlowFileId).stream())
+            .forEach(step -> stepsByComponentAndFlowFile.putIfAbsent(stepKey(step.getNifiEventStepExecution().getComponentId(), step.getNifiEventStepExecution().getJobFlowFileId()), step));
+
+        //steps are compared by identity as unsaved steps on the same job are equal to each other
+        Set<JpaBatchStepExecution> changedSteps = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<JpaBatchStepExecution> stepsToSave = new ArrayList<>();
+        for (ProvenanceEventRecordDTO event : events) {
+            String key = stepKey(event.getComponentId(), event.getJobFlowFileId());
+            JpaBatchStepExecution stepExecution = createOrUpdateStepExecution(jobExecution, event, stepsByComponentAndFlowFile.get(key));
+            if (stepExecution != null) {
+                stepsByComponentAndFlowFile.put(key, stepExecution);
+                if (changedSteps.add(stepExecution)) {
+                    stepsToSave.add(stepExecution);
+                }
+            }
+        }
+        if (stepsToSave.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<JpaBatchStepExecution> newSteps = stepsToSave.stream().filter(step -> step.getStepExecutionId() == null).collect(Collectors.toList());
+        //saving the StepExecutions will cascade and save the nifiEventSteps
+        List<JpaBatchStepExecution> savedSteps = batchStepExecutionRepository.save(stepsToSave);
+        jobExecution.getStepExecutions().addAll(newSteps);
+        return new ArrayList<>(savedSteps);
+    }
+
+    private String stepKey(String componentId, String jobFlowFileId) {
+        return componentId + "-" + jobFlowFileId;
+    }
+
+    /**
+     * Apply the event to the step, creating a new unsaved step if {@code stepExecution} is null
+     *
+     * @return the step to save, or null if the event does not create a step
+     */
+    private JpaBatchStepExecution createOrUpdateStepExecution(BatchJobExecution jobExecution, ProvenanceEventRecordDTO event, JpaBatchStepExecution stepExecution) {
         if (stepExecution == null) {
             if (!"KYLO".equalsIgnoreCase(event.getEventType())) {
                 stepExecution = new JpaBatchStepExecution();
@@ -166,10 +230,6 @@ public class JpaBatchStepExecutionProvider implements BatchStepExecutionProvider
                 if (steps == null) {
                     ((JpaBatchJobExecution) jobExecution).setStepExecutions(new HashSet<>());
                 }
-                //saving the StepExecution will cascade and save the nifiEventStep
-                stepExecution = batchStepExecutionRepository.save(stepExecution);
-                jobExecution.getStepExecutions().add(stepExecution);
-
             }
 
         } else {
@@ -201,11 +261,8 @@ public class JpaBatchStepExecutionProvider implements BatchStepExecutionProvider
                 }
 
             }
-            stepExecution = batchStepExecutionRepository.save(stepExecution);
-          }
-
+        }
         return stepExecution;
-
     }
 
     private void checkForSavepointTriggerFailure(ProvenanceEventRecordDTO event, JpaBatchStepExecution stepExecution) {
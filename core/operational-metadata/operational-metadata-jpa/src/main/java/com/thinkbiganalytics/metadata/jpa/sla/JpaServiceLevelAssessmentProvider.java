@@ -24,6 +24,7 @@ package com.thinkbiganalytics.metadata.jpa.sla;
  */
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.ConstantImpl;
 import com.querydsl.core.types.ExpressionUtils;
@@ -48,7 +49,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 
@@ -60,6 +65,11 @@ public class JpaServiceLevelAssessmentProvider extends QueryDslPagingSupport<Jpa
 
     private static final Logger log = LoggerFactory.getLogger(JpaServiceLevelAssessmentProvider.class);
 
+    /**
+     * Max number of agreement ids bound to the IN clause of a single query
+     */
+    private static final int MAX_IDS_PER_QUERY = 500;
+
     private JpaServiceLevelAssessmentRepository serviceLevelAssessmentRepository;
 
     private JpaServiceLevelAgreementDescriptionRepository serviceLevelAgreementDescriptionRepository;
@@ -142,6 +152,31 @@ public class JpaServiceLevelAssessmentProvider extends QueryDslPagingSupport<Jpa
     }
 
 
+    /**
+     * find the latest assessment of each of the agreements
+     *
+     * @param slaIds the service level agreement ids
+     * @return the latest assessments keyed by the given ids
+     */
+    @Override
+    public Map<ServiceLevelAgreement.ID, ServiceLevelAssessment> findLatestAssessments(Collection<ServiceLevelAgreement.ID> slaIds) {
+        Map<String, ServiceLevelAgreement.ID> idsByString = new HashMap<>();
+        List<ServiceLevelAgreementDescriptionId> jpaIds = new ArrayList<>();
+        for (ServiceLevelAgreement.ID slaId : slaIds) {
+            idsByString.put(slaId.toString(), slaId);
+            jpaIds.add(slaId instanceof ServiceLevelAgreementDescriptionId ? (ServiceLevelAgreementDescriptionId) slaId : new ServiceLevelAgreementDescriptionId(slaId.toString()));
+        }
+
+        Map<ServiceLevelAgreement.ID, ServiceLevelAssessment> latestAssessments = new HashMap<>();
+        for (List<ServiceLevelAgreementDescriptionId> chunk : Lists.partition(jpaIds, MAX_IDS_PER_QUERY)) {
+            for (JpaServiceLevelAssessment assessment : serviceLevelAssessmentRepository.findLatestAssessmentsForAgreements(chunk)) {
+                latestAssessments.putIfAbsent(idsByString.get(assessment.getServiceLevelAgreementId().toString()), assessment);
+            }
+        }
+        return latestAssessments;
+    }
+
+
     /**
      * Find the latest SLA that doesn't match the incoming {@code assessmentId}
      *
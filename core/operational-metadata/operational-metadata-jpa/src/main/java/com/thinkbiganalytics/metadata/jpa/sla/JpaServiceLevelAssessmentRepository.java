@@ -27,6 +27,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -39,6 +40,12 @@ public interface JpaServiceLevelAssessmentRepository extends JpaRepository<JpaSe
            + "                              where assessment2.slaId = :slaId)")
     List<JpaServiceLevelAssessment> findLatestAssessments(@Param("slaId") ServiceLevelAgreementDescriptionId slaId);
 
+    @Query(" select assessment from JpaServiceLevelAssessment assessment where assessment.slaId in (:slaIds) "
+           + "and assessment.createdTime = (select max(assessment2.createdTime) "
+           + "                              from JpaServiceLevelAssessment as assessment2 "
+           + "                              where assessment2.slaId = assessment.slaId)")
+    List<JpaServiceLevelAssessment> findLatestAssessmentsForAgreements(@Param("slaIds") Collection<ServiceLevelAgreementDescriptionId> slaIds);
+
     @Query(" select assessment from JpaServiceLevelAssessment assessment where assessment.slaId = :slaId "
            + "and assessment.createdTime = (select max(assessment2.createdTime) "
            + "                              from JpaServiceLevelAssessment as assessment2 "
@@ -35,10 +35,12 @@ import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAgreement;
 import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAgreement.ID;
 import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAssessment;
 import com.thinkbiganalytics.metadata.sla.spi.AssessorNotFoundException;
+import com.thinkbiganalytics.metadata.sla.spi.BatchMetricAssessor;
 import com.thinkbiganalytics.metadata.sla.spi.MetricAssessmentBuilder;
 import com.thinkbiganalytics.metadata.sla.spi.MetricAssessor;
 import com.thinkbiganalytics.metadata.sla.spi.ObligationAssessmentBuilder;
 import com.thinkbiganalytics.metadata.sla.spi.ObligationAssessor;
+import com.thinkbiganalytics.metadata.sla.spi.PrefetchedMetrics;
 import com.thinkbiganalytics.metadata.sla.spi.ServiceLevelAgreementProvider;
 import com.thinkbiganalytics.metadata.sla.spi.ServiceLevelAssessor;
 
@@ -48,11 +50,14 @@ import org.slf4j.LoggerFactory;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.inject.Inject;
@@ -155,6 +160,36 @@ public class JpaServiceLevelAssessor implements ServiceLevelAssessor {
                                         MetadataAccess.SERVICE);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public PrefetchedMetrics prefetch(Collection<? extends ServiceLevelAgreement> slas) {
+        Map<BatchMetricAssessor<Metric, ?>, List<Metric>> metricsByAssessor = new HashMap<>();
+        for (ServiceLevelAgreement sla : slas) {
+            for (Obligation ob : sla.getObligations()) {
+                for (Metric metric : ob.getMetrics()) {
+                    try {
+                        MetricAssessor<Metric, ?> assessor = findAssessor(metric);
+                        if (assessor instanceof BatchMetricAssessor) {
+                            metricsByAssessor.computeIfAbsent((BatchMetricAssessor<Metric, ?>) assessor, a -> new ArrayList<>()).add(metric);
+                        }
+                    } catch (AssessorNotFoundException e) {
+                        // reported when the agreement is assessed
+                    }
+                }
+            }
+        }
+
+        Map<BatchMetricAssessor<Metric, ?>, Object> data = new HashMap<>();
+        metricsByAssessor.forEach((assessor, metrics) -> {
+            try {
+                data.put(assessor, assessor.prefetch(metrics));
+            } catch (Exception e) {
+                log.error("Unable to prefetch the data of {} metrics for {}.  They will be assessed individually.", metrics.size(), assessor, e);
+            }
+        });
+        return new PrefetchedMetrics(data);
+    }
+
     /**
      * Assess the SLA (coming from JCR)
      *
@@ -0,0 +1,75 @@
+package com.thinkbiganalytics.metadata.jpa.jobrepo.nifi;
+
+/*-
+ * #%L
+ * thinkbig-operational-metadata-jpa
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.metadata.api.jobrepo.nifi.NifiFeedProcessorStatisticsProvider.RollupResolution;
+import com.thinkbiganalytics.metadata.jpa.jobrepo.nifi.JpaNifiFeedProcessorStatsRollup.RollupId;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JpaNifiFeedProcessorStatsRollupTest {
+
+    private JpaNifiFeedProcessorStats stats(DateTime eventTime, long jobsStarted, long bytesIn) {
+        JpaNifiFeedProcessorStats stats = new JpaNifiFeedProcessorStats("category.feed", "processor1");
+        stats.setProcessorName("Processor 1");
+        stats.setMinEventTime(eventTime);
+        stats.setMaxEventTime(eventTime.plusSeconds(5));
+        stats.setJobsStarted(jobsStarted);
+        stats.setBytesIn(bytesIn);
+        stats.setTotalCount(1L);
+        return stats;
+    }
+
+    @Test
+    public void testBucketStart() {
+        DateTime time = new DateTime(2017, 6, 15, 13, 45, 30, 500, DateTimeZone.UTC);
+        Assert.assertEquals(new DateTime(2017, 6, 15, 13, 45, 0, 0, DateTimeZone.UTC), RollupResolution.MINUTE.bucketStart(time));
+        Assert.assertEquals(new DateTime(2017, 6, 15, 13, 0, 0, 0, DateTimeZone.UTC), RollupResolution.HOUR.bucketStart(time));
+        Assert.assertEquals(new DateTime(2017, 6, 15, 0, 0, 0, 0, DateTimeZone.UTC), RollupResolution.DAY.bucketStart(time));
+    }
+
+    @Test
+    public void testStatsInTheSameBucketAreSummed() {
+        DateTime first = new DateTime(2017, 6, 15, 13, 45, 10, 0, DateTimeZone.UTC);
+        DateTime second = first.plusSeconds(30);
+
+        RollupId firstId = new RollupId(RollupResolution.MINUTE, "category.feed", "processor1", first);
+        RollupId secondId = new RollupId(RollupResolution.MINUTE, "category.feed", "processor1", second);
+        Assert.assertEquals(firstId, secondId);
+        Assert.assertEquals(firstId.hashCode(), secondId.hashCode());
+        Assert.assertNotEquals(firstId, new RollupId(RollupResolution.HOUR, "category.feed", "processor1", first));
+
+        JpaNifiFeedProcessorStatsRollup rollup = new JpaNifiFeedProcessorStatsRollup(firstId);
+        rollup.add(stats(first, 2, 100));
+        rollup.add(stats(second, 3, 50));
+        Assert.assertEquals(Long.valueOf(5), rollup.getJobsStarted());
+        Assert.assertEquals(Long.valueOf(150), rollup.getBytesIn());
+        Assert.assertEquals(Long.valueOf(2), rollup.getTotalCount());
+        Assert.assertEquals(Long.valueOf(2), rollup.getRecordCount());
+        Assert.assertEquals(first, rollup.getMinEventTime());
+        Assert.assertEquals(second.plusSeconds(5), rollup.getMaxEventTime());
+        Assert.assertEquals("Processor 1", rollup.getProcessorName());
+        Assert.assertEquals(RollupResolution.MINUTE.bucketStart(first), rollup.getBucketTime());
+    }
+}
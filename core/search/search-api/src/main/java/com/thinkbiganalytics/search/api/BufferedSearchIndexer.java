@@ -0,0 +1,374 @@
+package com.thinkbiganalytics.search.api;
+
+/*-
+ * #%L
+ * kylo-search-api
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.search.rest.model.SearchResult;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Sends index updates to a search engine asynchronously in bulk requests.
+ *
+ * <p>Updates are added to a bounded queue and written by a single thread. The thread collects updates into a batch until it reaches the maximum
+ * number of documents or the maximum estimated size, or until no update has arrived for the linger time, then writes the batch with
+ * {@link Search#indexAll(Collection)} and {@link Search#deleteAll(Collection)}. Updates are written in the order they were added. A commit is
+ * applied after the updates added before it have been written. Callers block when the queue is full. Closing the indexer stops accepting
+ * updates and waits for the writer thread to write every update added before it.</p>
+ *
+ * <p>Searches are passed directly to the search engine.</p>
+ */
+public class BufferedSearchIndexer implements Search {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger log = LoggerFactory.getLogger(BufferedSearchIndexer.class);
+
+    /**
+     * Default maximum number of documents in a bulk request
+     */
+    public static final int DEFAULT_MAX_DOCUMENTS = 500;
+
+    /**
+     * Default maximum estimated size of a bulk request in bytes
+     */
+    public static final long DEFAULT_MAX_BYTES = 5 * 1024 * 1024;
+
+    /**
+     * Default maximum number of updates waiting to be written
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+    /**
+     * Default time to wait for more updates before writing a batch that is not full
+     */
+    public static final long DEFAULT_LINGER_MILLIS = 200;
+
+    @Nonnull
+    private final transient Search delegate;
+
+    private final int maxDocuments;
+
+    private final long maxBytes;
+
+    private final long lingerMillis;
+
+    @Nonnull
+    private final transient BlockingQueue<Update> queue;
+
+    @Nonnull
+    private final transient Thread writer;
+
+    private volatile boolean closed;
+
+    /**
+     * Held for reading while adding an update and for writing while closing, so no update is added after the writer is told to stop
+     */
+    @Nonnull
+    private final transient ReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructs a {@code BufferedSearchIndexer} with the default limits.
+     *
+     * @param delegate the search engine
+     */
+    public BufferedSearchIndexer(@Nonnull final Search delegate) {
+        this(delegate, DEFAULT_MAX_DOCUMENTS, DEFAULT_MAX_BYTES, DEFAULT_QUEUE_CAPACITY, DEFAULT_LINGER_MILLIS);
+    }
+
+    /**
+     * Constructs a {@code BufferedSearchIndexer}.
+     *
+     * @param delegate      the search engine
+     * @param maxDocuments  the maximum number of documents in a bulk request
+     * @param maxBytes      the maximum estimated size of a bulk request in bytes
+     * @param queueCapacity the maximum number of updates waiting to be written
+     * @param lingerMillis  the time to wait for more updates before writing a batch that is not full
+     */
+    public BufferedSearchIndexer(@Nonnull final Search delegate, final int maxDocuments, final long maxBytes, final int queueCapacity, final long lingerMillis) {
+        this.delegate = delegate;
+        this.maxDocuments = Math.max(1, maxDocuments);
+        this.maxBytes = Math.max(1, maxBytes);
+        this.lingerMillis = Math.max(0, lingerMillis);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+
+        writer = new Thread(this::writeUpdates, "kylo-search-indexer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void delete(@Nonnull final String indexName, @Nonnull final String typeName, @Nonnull final String id, @Nonnull final String schema, @Nonnull final String table) {
+        enqueue(new Update(UpdateType.DELETE, new SearchDocument(indexName, typeName, id, schema, table), null));
+    }
+
+    @Override
+    public void deleteAll(@Nonnull final Collection<SearchDocument> documents) {
+        documents.forEach(document -> enqueue(new Update(UpdateType.DELETE, document, null)));
+    }
+
+    @Override
+    public void commit(@Nonnull final String indexName) {
+        enqueue(new Update(UpdateType.COMMIT, null, indexName));
+    }
+
+    @Override
+    public void index(@Nonnull final String indexName, @Nonnull final String typeName, @Nonnull final String id, @Nonnull final Map<String, Object> fields) {
+        enqueue(new Update(UpdateType.INDEX, new SearchDocument(indexName, typeName, id, fields), null));
+    }
+
+    @Override
+    public void indexAll(@Nonnull final Collection<SearchDocument> documents) {
+        documents.forEach(document -> enqueue(new Update(UpdateType.INDEX, document, null)));
+    }
+
+    @Override
+    public SearchResult search(final String query, final int size, final int start) {
+        return delegate.search(query, size, start);
+    }
+
+    /**
+     * Waits for all updates added so far to be written, including pending commits.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void flush() throws InterruptedException {
+        final Update flush = new Update(UpdateType.FLUSH, null, null);
+        enqueue(flush);
+        flush.written.await();
+    }
+
+    /**
+     * Stops accepting updates, then waits for the writer thread to write the remaining updates and exit. Updates added afterwards are discarded.
+     */
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+
+        // Every accepted update is ahead of the stop in the queue
+        try {
+            queue.put(new Update(UpdateType.STOP, null, null));
+            writer.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for the search indexer to write the remaining updates");
+        }
+    }
+
+    /**
+     * @return the number of updates waiting to be written
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void enqueue(@Nonnull final Update update) {
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                log.warn("Search indexer is closed. Discarding update: {}", update);
+                update.written.countDown();
+                return;
+            }
+            queue.put(update);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting to queue search update: {}", update);
+            update.written.countDown();
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Collects updates into batches and writes them until the stop added by {@link #close()} is written.
+     */
+    private void writeUpdates() {
+        final List<Update> batch = new ArrayList<>();
+        boolean stopped = false;
+        while (!stopped) {
+            try {
+                final Update first = queue.take();
+                batch.add(first);
+                long bytes = first.estimatedBytes;
+                int documents = (first.document != null) ? 1 : 0;
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (documents < maxDocuments && bytes < maxBytes && !batch.get(batch.size() - 1).isBarrier()) {
+                    final Update next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    bytes += next.estimatedBytes;
+                    if (next.document != null) {
+                        documents++;
+                        deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                    }
+                }
+            } catch (final InterruptedException e) {
+                log.warn("Search indexer interrupted while waiting for updates");
+            }
+            if (!batch.isEmpty()) {
+                stopped = batch.get(batch.size() - 1).type == UpdateType.STOP;
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes a batch of updates as runs of indexes and deletes, then applies the commits.
+     */
+    private void write(@Nonnull final List<Update> batch) {
+        final Set<String> commits = new LinkedHashSet<>();
+        final List<SearchDocument> run = new ArrayList<>();
+        UpdateType runType = null;
+
+        for (final Update update : batch) {
+            if (update.document == null) {
+                if (update.type == UpdateType.COMMIT) {
+                    commits.add(update.indexName);
+                }
+                continue;
+            }
+            if (update.type != runType) {
+                writeRun(runType, run);
+                runType = update.type;
+            }
+            run.add(update.document);
+        }
+        writeRun(runType, run);
+
+        for (final String indexName : commits) {
+            try {
+                delegate.commit(indexName);
+            } catch (final Exception e) {
+                log.warn("Failed to commit search index: {}", indexName, e);
+            }
+        }
+
+        batch.stream().filter(update -> update.type == UpdateType.FLUSH).forEach(update -> update.written.countDown());
+    }
+
+    private void writeRun(final UpdateType type, @Nonnull final List<SearchDocument> run) {
+        if (run.isEmpty()) {
+            return;
+        }
+        try {
+            if (type == UpdateType.INDEX) {
+                delegate.indexAll(new ArrayList<>(run));
+            } else {
+                delegate.deleteAll(new ArrayList<>(run));
+            }
+            log.debug("Wrote {} search {} updates", run.size(), type);
+        } catch (final Exception e) {
+            log.warn("Failed to write {} search {} updates", run.size(), type, e);
+        }
+        run.clear();
+    }
+
+    /**
+     * Estimates the size in bytes of the specified value as JSON.
+     */
+    static long estimateBytes(final Object value) {
+        if (value == null) {
+            return 4;
+        } else if (value instanceof CharSequence) {
+            return ((CharSequence) value).length() + 2;
+        } else if (value instanceof Map) {
+            long bytes = 2;
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                bytes += estimateBytes(entry.getKey()) + estimateBytes(entry.getValue()) + 2;
+            }
+            return bytes;
+        } else if (value instanceof Collection) {
+            long bytes = 2;
+            for (final Object element : (Collection<?>) value) {
+                bytes += estimateBytes(element) + 1;
+            }
+            return bytes;
+        } else {
+            return String.valueOf(value).length();
+        }
+    }
+
+    private enum UpdateType {
+        INDEX, DELETE, COMMIT, FLUSH, STOP
+    }
+
+    /**
+     * An update waiting to be written.
+     */
+    private static class Update {
+
+        final UpdateType type;
+
+        final SearchDocument document;
+
+        final String indexName;
+
+        final long estimatedBytes;
+
+        final CountDownLatch written = new CountDownLatch(1);
+
+        Update(@Nonnull final UpdateType type, final SearchDocument document, final String indexName) {
+            this.type = type;
+            this.document = document;
+            this.indexName = indexName;
+            this.estimatedBytes = (document != null) ? estimateBytes(document.getFields()) + document.getId().length() + 64 : 0;
+        }
+
+        /**
+         * @return {@code true} if the batch must be written once this update is added
+         */
+        boolean isBarrier() {
+            return type == UpdateType.FLUSH || type == UpdateType.STOP;
+        }
+
+        @Override
+        public String toString() {
+            return type + " " + ((document != null) ? document : indexName);
+        }
+    }
+}
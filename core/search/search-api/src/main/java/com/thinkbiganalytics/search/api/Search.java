@@ -23,6 +23,7 @@ package com.thinkbiganalytics.search.api;
 import com.thinkbiganalytics.search.rest.model.SearchResult;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Map;
 
 import javax.annotation.Nonnull;
@@ -44,6 +45,17 @@ public interface Search extends Serializable {
      */
     void delete(@Nonnull String indexName, @Nonnull String typeName, @Nonnull String id, @Nonnull String schema, @Nonnull String table);
 
+    /**
+     * Deletes the specified items if they exist.
+     *
+     * <p>Search engines supporting bulk requests should override this to send the deletes together.</p>
+     *
+     * @param documents the items to delete, with their kylo schema and table
+     */
+    default void deleteAll(@Nonnull final Collection<SearchDocument> documents) {
+        documents.forEach(document -> delete(document.getIndexName(), document.getTypeName(), document.getId(), document.getSchema(), document.getTable()));
+    }
+
     /**
      * Commits any changes made to the specified index.
      *
@@ -63,6 +75,17 @@ public interface Search extends Serializable {
      */
     void index(@Nonnull String indexName, @Nonnull String typeName, @Nonnull String id, @Nonnull Map<String, Object> fields);
 
+    /**
+     * Indexes the specified objects.
+     *
+     * <p>Search engines supporting bulk requests should override this to send the objects together.</p>
+     *
+     * @param documents the objects to index
+     */
+    default void indexAll(@Nonnull final Collection<SearchDocument> documents) {
+        documents.forEach(document -> index(document.getIndexName(), document.getTypeName(), document.getId(), document.getFields()));
+    }
+
     /**
      * Execute a search
      *
@@ -0,0 +1,124 @@
+package com.thinkbiganalytics.search.api;
+
+/*-
+ * #%L
+ * kylo-search-api
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * An object to be indexed or deleted as part of a bulk request.
+ */
+public class SearchDocument implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Nonnull
+    private final String indexName;
+
+    @Nonnull
+    private final String typeName;
+
+    @Nonnull
+    private final String id;
+
+    @Nonnull
+    private final Map<String, Object> fields;
+
+    @Nullable
+    private final String schema;
+
+    @Nullable
+    private final String table;
+
+    /**
+     * Constructs a {@code SearchDocument} to be indexed.
+     *
+     * @param indexName the name of the index
+     * @param typeName  the type of object
+     * @param id        the unique identifier for the object
+     * @param fields    the properties of the object
+     */
+    public SearchDocument(@Nonnull final String indexName, @Nonnull final String typeName, @Nonnull final String id, @Nonnull final Map<String, Object> fields) {
+        this.indexName = indexName;
+        this.typeName = typeName;
+        this.id = id;
+        this.fields = fields;
+        this.schema = null;
+        this.table = null;
+    }
+
+    /**
+     * Constructs a {@code SearchDocument} to be deleted.
+     *
+     * @param indexName the name of the index
+     * @param typeName  the type of object
+     * @param id        the unique identifier for the object
+     * @param schema    the kylo schema related to the object
+     * @param table     the kylo table related to the object
+     */
+    public SearchDocument(@Nonnull final String indexName, @Nonnull final String typeName, @Nonnull final String id, @Nonnull final String schema, @Nonnull final String table) {
+        this.indexName = indexName;
+        this.typeName = typeName;
+        this.id = id;
+        this.fields = Collections.emptyMap();
+        this.schema = schema;
+        this.table = table;
+    }
+
+    @Nonnull
+    public String getIndexName() {
+        return indexName;
+    }
+
+    @Nonnull
+    public String getTypeName() {
+        return typeName;
+    }
+
+    @Nonnull
+    public String getId() {
+        return id;
+    }
+
+    @Nonnull
+    public Map<String, Object> getFields() {
+        return fields;
+    }
+
+    @Nullable
+    public String getSchema() {
+        return schema;
+    }
+
+    @Nullable
+    public String getTable() {
+        return table;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{indexName=" + indexName + ", typeName=" + typeName + ", id=" + id + "}";
+    }
+}
@@ -0,0 +1,234 @@
+package com.thinkbiganalytics.search.api;
+
+/*-
+ * #%L
+ * kylo-search-api
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.search.rest.model.SearchResult;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+
+public class BufferedSearchIndexerTest {
+
+    /**
+     * Long enough that a batch is only written when it is full or flushed
+     */
+    private static final long LINGER_MILLIS = 5000;
+
+    private final RecordingSearch delegate = new RecordingSearch();
+
+    private BufferedSearchIndexer indexer;
+
+    @After
+    public void tearDown() {
+        if (indexer != null) {
+            indexer.close();
+        }
+    }
+
+    @Test
+    public void testBatchesByMaxDocuments() throws Exception {
+        indexer = new BufferedSearchIndexer(delegate, 3, Long.MAX_VALUE, 100, LINGER_MILLIS);
+        for (int i = 1; i <= 7; i++) {
+            indexer.index("index", "type", "doc" + i, fields(10));
+        }
+        indexer.flush();
+
+        Assert.assertEquals(Arrays.asList("index:doc1,doc2,doc3", "index:doc4,doc5,doc6", "index:doc7"), delegate.calls);
+    }
+
+    @Test
+    public void testBatchesByMaxBytes() throws Exception {
+        // each document is estimated at 175 bytes, so two documents exceed the limit
+        indexer = new BufferedSearchIndexer(delegate, 100, 300, 100, LINGER_MILLIS);
+        for (int i = 1; i <= 5; i++) {
+            indexer.index("index", "type", "d" + i, fields(100));
+        }
+        indexer.flush();
+
+        Assert.assertEquals(Arrays.asList("index:d1,d2", "index:d3,d4", "index:d5"), delegate.calls);
+    }
+
+    @Test
+    public void testIndexAndDeleteRunsKeepOrder() throws Exception {
+        indexer = new BufferedSearchIndexer(delegate, 100, Long.MAX_VALUE, 100, LINGER_MILLIS);
+        indexer.index("index", "type", "a", fields(1));
+        indexer.index("index", "type", "b", fields(1));
+        indexer.delete("index", "type", "c", "schema", "table");
+        indexer.indexAll(Collections.singletonList(new SearchDocument("index", "type", "d", fields(1))));
+        indexer.deleteAll(Arrays.asList(new SearchDocument("index", "type", "e", "schema", "table"), new SearchDocument("index", "type", "f", "schema", "table")));
+        indexer.flush();
+
+        Assert.assertEquals(Arrays.asList("index:a,b", "delete:c", "index:d", "delete:e,f"), delegate.calls);
+    }
+
+    @Test
+    public void testCommitAppliedAfterEarlierWrites() throws Exception {
+        indexer = new BufferedSearchIndexer(delegate, 1, Long.MAX_VALUE, 100, LINGER_MILLIS);
+        indexer.index("index", "type", "a", fields(1));
+        indexer.commit("index");
+        indexer.index("index", "type", "b", fields(1));
+        indexer.commit("index");
+        indexer.flush();
+
+        // the first commit is batched with the next document and applied once it is written
+        Assert.assertEquals(Arrays.asList("index:a", "index:b", "commit:index", "commit:index"), delegate.calls);
+    }
+
+    @Test
+    public void testCommitsInBatchAreAppliedOnce() throws Exception {
+        indexer = new BufferedSearchIndexer(delegate, 100, Long.MAX_VALUE, 100, LINGER_MILLIS);
+        indexer.index("index1", "type", "a", fields(1));
+        indexer.commit("index1");
+        indexer.commit("index2");
+        indexer.commit("index1");
+        indexer.flush();
+
+        Assert.assertEquals(Arrays.asList("index:a", "commit:index1", "commit:index2"), delegate.calls);
+    }
+
+    @Test
+    public void testFlushWaitsForWrites() throws Exception {
+        delegate.writeMillis = 100;
+        indexer = new BufferedSearchIndexer(delegate, 1, Long.MAX_VALUE, 100, LINGER_MILLIS);
+        indexer.index("index", "type", "a", fields(1));
+        indexer.index("index", "type", "b", fields(1));
+        indexer.index("index", "type", "c", fields(1));
+        indexer.flush();
+
+        Assert.assertEquals(Arrays.asList("index:a", "index:b", "index:c"), delegate.calls);
+        Assert.assertEquals(0, indexer.getQueueSize());
+    }
+
+    @Test
+    public void testFailedWriteDoesNotStopLaterUpdates() throws Exception {
+        delegate.failingIds.add("a");
+        indexer = new BufferedSearchIndexer(delegate, 1, Long.MAX_VALUE, 100, LINGER_MILLIS);
+        indexer.index("index", "type", "a", fields(1));
+        indexer.index("index", "type", "b", fields(1));
+        indexer.flush();
+
+        Assert.assertEquals(Collections.singletonList("index:b"), delegate.calls);
+    }
+
+    @Test
+    public void testCloseWritesRemainingUpdates() throws Exception {
+        delegate.writeMillis = 50;
+        indexer = new BufferedSearchIndexer(delegate, 2, Long.MAX_VALUE, 100, LINGER_MILLIS);
+        for (int i = 1; i <= 5; i++) {
+            indexer.index("index", "type", "doc" + i, fields(1));
+        }
+        indexer.commit("index");
+        indexer.close();
+
+        Assert.assertEquals(Arrays.asList("index:doc1,doc2", "index:doc3,doc4", "index:doc5", "commit:index"), delegate.calls);
+        Assert.assertEquals(0, indexer.getQueueSize());
+
+        // updates after closing are discarded and flushing does not wait
+        indexer.index("index", "type", "late", fields(1));
+        indexer.flush();
+        indexer.close();
+        Assert.assertEquals(4, delegate.calls.size());
+        Assert.assertEquals(0, indexer.getQueueSize());
+    }
+
+    @Test
+    public void testSearchIsPassedToDelegate() {
+        indexer = new BufferedSearchIndexer(delegate);
+        Assert.assertNull(indexer.search("query", 10, 0));
+        Assert.assertEquals(Collections.singletonList("search:query"), delegate.calls);
+    }
+
+    private static Map<String, Object> fields(final int length) {
+        final char[] value = new char[length];
+        Arrays.fill(value, 'x');
+        return Collections.singletonMap("f", new String(value));
+    }
+
+    /**
+     * Records the calls made by the indexer.
+     */
+    private static class RecordingSearch implements Search {
+
+        private static final long serialVersionUID = 1L;
+
+        final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+
+        final List<String> failingIds = new ArrayList<>();
+
+        volatile long writeMillis;
+
+        @Override
+        public void delete(@Nonnull final String indexName, @Nonnull final String typeName, @Nonnull final String id, @Nonnull final String schema, @Nonnull final String table) {
+            deleteAll(Collections.singletonList(new SearchDocument(indexName, typeName, id, schema, table)));
+        }
+
+        @Override
+        public void deleteAll(@Nonnull final Collection<SearchDocument> documents) {
+            write("delete", documents);
+        }
+
+        @Override
+        public void commit(@Nonnull final String indexName) {
+            calls.add("commit:" + indexName);
+        }
+
+        @Override
+        public void index(@Nonnull final String indexName, @Nonnull final String typeName, @Nonnull final String id, @Nonnull final Map<String, Object> fields) {
+            indexAll(Collections.singletonList(new SearchDocument(indexName, typeName, id, fields)));
+        }
+
+        @Override
+        public void indexAll(@Nonnull final Collection<SearchDocument> documents) {
+            write("index", documents);
+        }
+
+        @Override
+        public SearchResult search(final String query, final int size, final int start) {
+            calls.add("search:" + query);
+            return null;
+        }
+
+        private void write(final String type, final Collection<SearchDocument> documents) {
+            if (writeMillis > 0) {
+                try {
+                    Thread.sleep(writeMillis);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (documents.stream().anyMatch(document -> failingIds.contains(document.getId()))) {
+                throw new IllegalStateException("Unable to write documents");
+            }
+            calls.add(type + ":" + documents.stream().map(SearchDocument::getId).collect(Collectors.joining(",")));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.thinkbiganalytics.metadata.sla.api;
+
+/*-
+ * #%L
+ * thinkbig-sla-api
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * A metric whose assessment can only change when a job of a feed completes.
+ * <p>
+ * Agreements made up only of these metrics are assessed as soon as the jobs of their feeds complete, so their schedule only needs to run as a
+ * safety net.
+ */
+public interface JobCompletionMetric extends Metric {
+
+}
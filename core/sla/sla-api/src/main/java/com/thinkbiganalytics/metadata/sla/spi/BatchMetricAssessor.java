@@ -0,0 +1,46 @@
+package com.thinkbiganalytics.metadata.sla.spi;
+
+/*-
+ * #%L
+ * thinkbig-sla-api
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.metadata.sla.api.Metric;
+
+import java.util.Collection;
+
+/**
+ * An optional capability of a {@link MetricAssessor} that can load the data it needs for many metrics at once.
+ * <p>
+ * Before a batch of agreements is assessed, {@link #prefetch(Collection)} is called with all the metrics of the batch accepted by the assessor.
+ * The assessor keeps no state; the data it returns is handed back through {@link PrefetchedMetrics#get(BatchMetricAssessor)} to the assessments of that batch
+ * instead of querying it again.
+ *
+ * @param <M> the type of metric
+ * @param <P> the type of the prefetched data
+ */
+public interface BatchMetricAssessor<M extends Metric, P> {
+
+    /**
+     * Loads the data needed to assess the given metrics.
+     *
+     * @param metrics the metrics about to be assessed
+     * @return the loaded data
+     */
+    P prefetch(Collection<M> metrics);
+}
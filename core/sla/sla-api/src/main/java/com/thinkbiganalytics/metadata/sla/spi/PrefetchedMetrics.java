@@ -0,0 +1,81 @@
+package com.thinkbiganalytics.metadata.sla.spi;
+
+/*-
+ * #%L
+ * thinkbig-sla-api
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The data loaded by each {@link BatchMetricAssessor} for a batch of agreements, as returned by {@link ServiceLevelAssessor#prefetch(java.util.Collection)}.
+ * <p>
+ * The data is only visible to the assessors while the batch is assessed within {@link #run(Runnable)}, on the thread calling it, so concurrent batches
+ * never see each other's data.
+ */
+public final class PrefetchedMetrics {
+
+    /**
+     * No prefetched data; every metric is assessed individually
+     */
+    public static final PrefetchedMetrics NONE = new PrefetchedMetrics(Collections.emptyMap());
+
+    private static final ThreadLocal<PrefetchedMetrics> current = new ThreadLocal<>();
+
+    private final Map<BatchMetricAssessor<?, ?>, Object> data;
+
+    /**
+     * @param data the data loaded by each assessor
+     */
+    public PrefetchedMetrics(Map<? extends BatchMetricAssessor<?, ?>, ?> data) {
+        this.data = Collections.unmodifiableMap(new HashMap<>(data));
+    }
+
+    /**
+     * Gets the data prefetched by the given assessor for the batch being assessed by the current thread.
+     *
+     * @param assessor the assessor
+     * @return the data, or null if none was prefetched
+     */
+    @SuppressWarnings("unchecked")
+    public static <P> P get(BatchMetricAssessor<?, P> assessor) {
+        PrefetchedMetrics prefetched = current.get();
+        return (prefetched != null) ? (P) prefetched.data.get(assessor) : null;
+    }
+
+    /**
+     * Runs the assessment of the batch on the current thread with this data visible to the assessors.
+     *
+     * @param task the assessment of the batch
+     */
+    public void run(Runnable task) {
+        PrefetchedMetrics previous = current.get();
+        current.set(this);
+        try {
+            task.run();
+        } finally {
+            if (previous != null) {
+                current.set(previous);
+            } else {
+                current.remove();
+            }
+        }
+    }
+}
@@ -22,6 +22,8 @@ package com.thinkbiganalytics.metadata.sla.spi;
 
 import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAgreement;
 
+import java.util.Collection;
+
 /**
  */
 public interface ServiceLevelAgreementChecker {
@@ -30,4 +32,11 @@ public interface ServiceLevelAgreementChecker {
 
     void checkAgreement(ServiceLevelAgreement agreement);
 
+    /**
+     * Checks the agreements with the given ids together as one batch, sharing the lookups the assessments of the agreements have in common.
+     *
+     * @param agreementIds the agreements to check
+     */
+    void checkAgreements(Collection<ServiceLevelAgreement.ID> agreementIds);
+
 }
@@ -27,7 +27,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  */
@@ -42,6 +44,14 @@ public interface ServiceLevelAssessmentProvider {
 
     ServiceLevelAssessment findLatestAssessmentNotEqualTo(ServiceLevelAgreement.ID slaId, ServiceLevelAssessment.ID assessmentId);
 
+    /**
+     * Find the latest assessment of each of the agreements in a single query.
+     *
+     * @param slaIds the agreements
+     * @return the latest assessments keyed by the given agreement ids, without entries for agreements that have never been assessed
+     */
+    Map<ServiceLevelAgreement.ID, ServiceLevelAssessment> findLatestAssessments(Collection<ServiceLevelAgreement.ID> slaIds);
+
 
     ServiceLevelAssessment.ID resolveId(Serializable id);
     /**
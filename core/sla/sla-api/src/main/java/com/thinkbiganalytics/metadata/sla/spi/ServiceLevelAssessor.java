@@ -29,6 +29,7 @@ import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAgreement;
 import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAssessment;
 
 import java.io.Serializable;
+import java.util.Collection;
 
 /**
  * A service for producing assessments SLAs.  It is also used to register obligation and metric assessors
@@ -46,6 +47,15 @@ public interface ServiceLevelAssessor {
 
     ServiceLevelAssessment findLatestAssessment(ServiceLevelAgreement sla);
 
+    /**
+     * Loads, ahead of assessing the given agreements as a batch, the data of any registered {@link BatchMetricAssessor} for the metrics of the agreements.
+     * The data is only used by the assessments made within {@link PrefetchedMetrics#run(Runnable)}.
+     *
+     * @param slas the SLAs about to be assessed
+     * @return the data loaded for the batch
+     */
+    PrefetchedMetrics prefetch(Collection<? extends ServiceLevelAgreement> slas);
+
     /**
      * Registers an assessor of obligations that match its expected obligation type.
      *
@@ -36,6 +36,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -91,6 +93,40 @@ public class DefaultServiceLevelAgreementChecker implements ServiceLevelAgreemen
 
     }
 
+    /**
+     * Check the enabled agreements among the given ones as one batch, letting the assessor prefetch the data of all their metrics first.
+     * Caller needs to wrap this in MetadataAccesss transcation
+     */
+    public void checkAgreements(Collection<ServiceLevelAgreement.ID> agreementIds) {
+        List<ServiceLevelAgreement> agreements = findEnabledAgreements(agreementIds);
+
+        LOG.info("Checking a batch of {} service level agreements", agreements.size());
+
+        assessor.prefetch(agreements).run(() -> {
+            for (ServiceLevelAgreement agreement : agreements) {
+                checkAgreement(agreement);
+            }
+        });
+    }
+
+    /**
+     * Find the agreements that are to be checked, skipping those that are disabled or no longer exist. Caller needs to wrap this in MetadataAccesss transcation
+     */
+    protected List<ServiceLevelAgreement> findEnabledAgreements(Collection<ServiceLevelAgreement.ID> agreementIds) {
+        List<ServiceLevelAgreement> agreements = new ArrayList<>();
+        for (ServiceLevelAgreement.ID slaId : agreementIds) {
+            ServiceLevelAgreement sla = slaProvider.getAgreement(slaId);
+            if (sla == null) {
+                LOG.error("UNABLE TO FIND SLA for {} ", slaId);
+            } else if (!sla.isEnabled()) {
+                LOG.info("SLA {} will not fire since it is disabled ", sla.getName());
+            } else {
+                agreements.add(sla);
+            }
+        }
+        return agreements;
+    }
+
     /**
      * Check the Agreement. Caller needs to wrap this in MetadataAccesss transcation
      */
@@ -32,10 +32,12 @@ import com.thinkbiganalytics.metadata.sla.api.ObligationGroup;
 import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAgreement;
 import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAssessment;
 import com.thinkbiganalytics.metadata.sla.spi.AssessorNotFoundException;
+import com.thinkbiganalytics.metadata.sla.spi.BatchMetricAssessor;
 import com.thinkbiganalytics.metadata.sla.spi.MetricAssessmentBuilder;
 import com.thinkbiganalytics.metadata.sla.spi.MetricAssessor;
 import com.thinkbiganalytics.metadata.sla.spi.ObligationAssessmentBuilder;
 import com.thinkbiganalytics.metadata.sla.spi.ObligationAssessor;
+import com.thinkbiganalytics.metadata.sla.spi.PrefetchedMetrics;
 import com.thinkbiganalytics.metadata.sla.spi.ServiceLevelAssessor;
 
 import org.slf4j.Logger;
@@ -44,6 +46,7 @@ import org.slf4j.LoggerFactory;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -187,6 +190,36 @@ public class SimpleServiceLevelAssessor implements ServiceLevelAssessor {
         return lastAssessments.get(sla.getId());
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public PrefetchedMetrics prefetch(Collection<? extends ServiceLevelAgreement> slas) {
+        Map<BatchMetricAssessor<Metric, ?>, List<Metric>> metricsByAssessor = new HashMap<>();
+        for (ServiceLevelAgreement sla : slas) {
+            for (Obligation ob : sla.getObligations()) {
+                for (Metric metric : ob.getMetrics()) {
+                    try {
+                        MetricAssessor<Metric, ?> assessor = findAssessor(metric);
+                        if (assessor instanceof BatchMetricAssessor) {
+                            metricsByAssessor.computeIfAbsent((BatchMetricAssessor<Metric, ?>) assessor, a -> new ArrayList<>()).add(metric);
+                        }
+                    } catch (AssessorNotFoundException e) {
+                        // reported when the agreement is assessed
+                    }
+                }
+            }
+        }
+
+        Map<BatchMetricAssessor<Metric, ?>, Object> data = new HashMap<>();
+        metricsByAssessor.forEach((assessor, metrics) -> {
+            try {
+                data.put(assessor, assessor.prefetch(metrics));
+            } catch (Exception e) {
+                Log.error("Unable to prefetch the data of {} metrics for {}.  They will be assessed individually.", metrics.size(), assessor, e);
+            }
+        });
+        return new PrefetchedMetrics(data);
+    }
+
     private ServiceLevelAssessment completeAssessment(SimpleServiceLevelAssessment slaAssessment, AssessmentResult result) {
         slaAssessment.setResult(result);
         if (result == AssessmentResult.SUCCESS) {
@@ -35,6 +35,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -116,14 +117,13 @@ public class GetTableDataSupport {
 
         logger.info("selectIncremental tableName {} dateField {} overlapTime {} lastLoadDate {} backoffTime {} unit {}", tableName, dateField, overlapTime, lastLoadDate, backoffTime, unit.toString());
 
-        final Date now = new Date(DateTimeUtils.currentTimeMillis());
-        DateRange range = new DateRange(lastLoadDate, now, overlapTime, backoffTime, unit);
+        DateRange range = getIncrementalRange(lastLoadDate, overlapTime, backoffTime, unit);
 
         logger.info("Load range with min {} max {}", range.getMinDate(), range.getMaxDate());
 
         StringBuilder sb = new StringBuilder();
         String select = selectStatement(selectFields, "tbl");
-        sb.append("select ").append(select).append(" from ").append(tableName).append(" tbl WHERE tbl.").append(dateField).append(" > ? and tbl.").append(dateField).append(" < ?");
+        sb.append("select ").append(select).append(" from ").append(tableName).append(" tbl WHERE ").append(incrementalCondition(dateField));
 
         if (range.getMinDate().before(range.getMaxDate())) {
             PreparedStatement ps = conn.prepareStatement(sb.toString());
@@ -137,6 +137,113 @@ public class GetTableDataSupport {
         return rs;
     }
 
+    /**
+     * Calculates the range of dates for an incremental load as of the current time.
+     *
+     * @param lastLoadDate the last batch load date
+     * @param overlapTime  the number of seconds to overlap with the last load status
+     * @param backoffTime  the number of seconds before the current time that records must be older than
+     * @param unit         the minimum unit of data eligible to load
+     * @return the range of dates to load
+     */
+    public DateRange getIncrementalRange(Date lastLoadDate, int overlapTime, int backoffTime, UnitSizes unit) {
+        final Date now = new Date(DateTimeUtils.currentTimeMillis());
+        return new DateRange(lastLoadDate, now, overlapTime, backoffTime, unit);
+    }
+
+    /**
+     * Finds the minimum and maximum values of the partition column and splits them into ranges.
+     *
+     * @param tableName       the table
+     * @param partitionColumn the numeric or date column to split on
+     * @param partitions      the number of ranges
+     * @param dateField       the field used for an incremental load, or null for a full load
+     * @param dateRange       the range of dates for an incremental load, or null for a full load
+     * @return the ranges, or an empty list if the incremental date range is empty
+     */
+    public List<PartitionRange> selectPartitionRanges(String tableName, String partitionColumn, int partitions, String dateField, DateRange dateRange) throws SQLException {
+        if (dateRange != null && !dateRange.getMinDate().before(dateRange.getMaxDate())) {
+            return Collections.emptyList();
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT MIN(tbl.").append(partitionColumn).append("), MAX(tbl.").append(partitionColumn).append(") FROM ").append(tableName).append(" tbl");
+        if (dateRange != null) {
+            sb.append(" WHERE ").append(incrementalCondition(dateField));
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement(sb.toString())) {
+            ps.setQueryTimeout(timeout);
+            if (dateRange != null) {
+                ps.setTimestamp(1, new java.sql.Timestamp(dateRange.getMinDate().getTime()));
+                ps.setTimestamp(2, new java.sql.Timestamp(dateRange.getMaxDate().getTime()));
+            }
+
+            logger.info("Executing GetTableData partition bounds query {}", sb);
+            try (ResultSet rs = ps.executeQuery()) {
+                Object min = null;
+                Object max = null;
+                if (rs.next()) {
+                    min = rs.getObject(1);
+                    max = rs.getObject(2);
+                }
+                List<PartitionRange> ranges = PartitionRange.split(min, max, partitions);
+                logger.info("Split {} on {} with min {} max {} into {} ranges", tableName, partitionColumn, min, max, ranges.size());
+                return ranges;
+            }
+        }
+    }
+
+    /**
+     * Selects the rows of the table in one range of the partition column.
+     *
+     * @param tableName       the table
+     * @param selectFields    the fields to select
+     * @param partitionColumn the column the ranges were split on
+     * @param partition       the range to select
+     * @param dateField       the field used for an incremental load, or null for a full load
+     * @param dateRange       the range of dates for an incremental load, or null for a full load
+     */
+    public ResultSet selectPartition(String tableName, String[] selectFields, String partitionColumn, PartitionRange partition, String dateField, DateRange dateRange) throws SQLException {
+        List<String> conditions = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        if (dateRange != null) {
+            conditions.add(incrementalCondition(dateField));
+            params.add(new java.sql.Timestamp(dateRange.getMinDate().getTime()));
+            params.add(new java.sql.Timestamp(dateRange.getMaxDate().getTime()));
+        }
+        if (partition.getLowerBound() == null && partition.getUpperBound() != null) {
+            conditions.add("(tbl." + partitionColumn + " IS NULL OR tbl." + partitionColumn + " < ?)");
+            params.add(partition.getUpperBound());
+        } else if (partition.getLowerBound() != null) {
+            conditions.add("tbl." + partitionColumn + " >= ?");
+            params.add(partition.getLowerBound());
+            if (partition.getUpperBound() != null) {
+                conditions.add("tbl." + partitionColumn + " < ?");
+                params.add(partition.getUpperBound());
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(getSelectQuery(tableName, selectFields));
+        if (!conditions.isEmpty()) {
+            sb.append(" WHERE ").append(StringUtils.join(conditions, " and "));
+        }
+
+        PreparedStatement ps = conn.prepareStatement(sb.toString());
+        ps.setQueryTimeout(timeout);
+        for (int i = 0; i < params.size(); i++) {
+            ps.setObject(i + 1, params.get(i));
+        }
+
+        logger.info("Executing GetTableData query for {} {}", partition, sb);
+        return ps.executeQuery();
+    }
+
+    private String incrementalCondition(String dateField) {
+        return "tbl." + dateField + " > ? and tbl." + dateField + " < ?";
+    }
+
     /**
      * Output format for table rows.
      */
@@ -161,7 +268,7 @@ public class GetTableDataSupport {
         YEAR
     }
 
-    protected static class DateRange {
+    public static class DateRange {
 
         private Date minDate;
         private Date maxDate;
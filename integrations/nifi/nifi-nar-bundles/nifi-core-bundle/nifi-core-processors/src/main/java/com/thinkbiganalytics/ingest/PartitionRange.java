@@ -0,0 +1,163 @@
+package com.thinkbiganalytics.ingest;
+
+/*-
+ * #%L
+ * thinkbig-nifi-core-processors
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A range of values of the partition column of a table.
+ *
+ * Ranges include their lower bound and exclude their upper bound.  The first range has no lower bound and also includes null values,
+ * and the last range has no upper bound, so the ranges of a split together cover every row of the table.
+ */
+public class PartitionRange {
+
+    private final int index;
+
+    private final int count;
+
+    private final Object lowerBound;
+
+    private final Object upperBound;
+
+    public PartitionRange(int index, int count, Object lowerBound, Object upperBound) {
+        this.index = index;
+        this.count = count;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+    }
+
+    /**
+     * Splits the values between the minimum and maximum into ranges of equal size.
+     *
+     * Numbers are split on whole numbers if both the minimum and maximum are whole numbers, and dates are split on milliseconds.
+     * Fewer ranges are returned if there are not enough distinct values.
+     *
+     * @param min        the minimum value of the partition column, or null if the table is empty
+     * @param max        the maximum value of the partition column, or null if the table is empty
+     * @param partitions the number of ranges
+     * @return the ranges
+     * @throws IllegalArgumentException if the values are not numbers or dates
+     */
+    public static List<PartitionRange> split(Object min, Object max, int partitions) {
+        if (min == null || max == null || partitions <= 1) {
+            return Collections.singletonList(new PartitionRange(0, 1, null, null));
+        }
+
+        List<Object> bounds = new ArrayList<>();
+        if (min instanceof Date && max instanceof Date) {
+            long minTime = ((Date) min).getTime();
+            long maxTime = ((Date) max).getTime();
+            for (BigDecimal bound : splitPoints(BigDecimal.valueOf(minTime), BigDecimal.valueOf(maxTime), partitions, true)) {
+                bounds.add(new Timestamp(bound.longValue()));
+            }
+        } else if (min instanceof Number && max instanceof Number) {
+            BigDecimal minValue = toBigDecimal((Number) min);
+            BigDecimal maxValue = toBigDecimal((Number) max);
+            for (BigDecimal bound : splitPoints(minValue, maxValue, partitions, isWholeNumber(minValue) && isWholeNumber(maxValue))) {
+                bounds.add(bound);
+            }
+        } else {
+            throw new IllegalArgumentException("Partition column must be a number or date but found: " + min.getClass().getName());
+        }
+
+        List<PartitionRange> ranges = new ArrayList<>(bounds.size() + 1);
+        for (int i = 0; i <= bounds.size(); i++) {
+            ranges.add(new PartitionRange(i, bounds.size() + 1, (i == 0) ? null : bounds.get(i - 1), (i == bounds.size()) ? null : bounds.get(i)));
+        }
+        return ranges;
+    }
+
+    /**
+     * Finds the distinct split points between the minimum and maximum, excluding the minimum itself.
+     */
+    private static List<BigDecimal> splitPoints(BigDecimal min, BigDecimal max, int partitions, boolean wholeNumbers) {
+        List<BigDecimal> points = new ArrayList<>();
+        BigDecimal width = max.subtract(min);
+        BigDecimal previous = min;
+        for (int i = 1; i < partitions; i++) {
+            BigDecimal point = min.add(width.multiply(BigDecimal.valueOf(i)).divide(BigDecimal.valueOf(partitions), 10, RoundingMode.FLOOR));
+            if (wholeNumbers) {
+                point = point.setScale(0, RoundingMode.FLOOR);
+            }
+            if (point.compareTo(previous) > 0) {
+                points.add(point);
+                previous = point;
+            }
+        }
+        return points;
+    }
+
+    private static BigDecimal toBigDecimal(Number value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(value.doubleValue());
+        } else {
+            return BigDecimal.valueOf(value.longValue());
+        }
+    }
+
+    private static boolean isWholeNumber(BigDecimal value) {
+        return value.signum() == 0 || value.scale() <= 0 || value.stripTrailingZeros().scale() <= 0;
+    }
+
+    /**
+     * @return the position of this range in the split, starting at 0
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the number of ranges in the split
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the lowest value included in this range, or null if this is the first range
+     */
+    public Object getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * @return the value above the highest value included in this range, or null if this is the last range
+     */
+    public Object getUpperBound() {
+        return upperBound;
+    }
+
+    public String toString() {
+        return "range " + index + " of " + count + " [" + (lowerBound == null ? "" : lowerBound) + ", " + (upperBound == null ? "" : upperBound) + ")";
+    }
+}
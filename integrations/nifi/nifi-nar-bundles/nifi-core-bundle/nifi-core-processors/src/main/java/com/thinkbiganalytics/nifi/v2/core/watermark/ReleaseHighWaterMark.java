@@ -29,6 +29,7 @@ import com.thinkbiganalytics.nifi.core.api.metadata.MetadataRecorder;
 import com.thinkbiganalytics.nifi.provenance.KyloProcessorFlowType;
 import com.thinkbiganalytics.nifi.provenance.NiFiProvenanceConstants;
 import com.thinkbiganalytics.nifi.v2.common.CommonProperties;
+import com.thinkbiganalytics.nifi.v2.ingest.GetTableData;
 
 import org.apache.nifi.annotation.behavior.EventDriven;
 import org.apache.nifi.annotation.behavior.InputRequirement;
@@ -102,6 +103,13 @@ public class ReleaseHighWaterMark extends HighWaterMarkProcessor {
             String mode = context.getProperty(MODE).toString();
 
             try {
+                if (mode.equals("COMMIT") && isUnmergedPartition(ff)) {
+                    getLog().error("Unable to commit high-water mark(s) for {}: it is one of {} partitions of a table extract that must be merged first",
+                                   new Object[]{ff, ff.getAttribute(GetTableData.FRAGMENT_COUNT)});
+                    session.transfer(ff, CommonProperties.REL_FAILURE);
+                    return;
+                }
+
                 if (mode.equals("COMMIT")) {
                     if (context.getProperty(RELEASE_ALL).asBoolean()) {
                         ff = recorder.commitAllWaterMarks(session, ff, getFeedId(context, ff));
@@ -129,6 +137,15 @@ public class ReleaseHighWaterMark extends HighWaterMarkProcessor {
 
     }
 
+    /**
+     * Indicates if the flow file is one of several partitions of a GetTableData extract. Only the merged flow file has read every partition, so committing the new
+     * water mark for a single partition could skip rows of the others if they fail. Merging drops the range attribute, as its value differs between the partitions.
+     */
+    private boolean isUnmergedPartition(FlowFile ff) {
+        final String count = ff.getAttribute(GetTableData.FRAGMENT_COUNT);
+        return ff.getAttribute(GetTableData.PARTITION_RANGE) != null && count != null && !count.trim().equals("1");
+    }
+
     private void transferForCancelledWaterMarks(ProcessContext context, ProcessSession session, FlowFile ff, ActiveWaterMarksCancelledException ex) {
         FlowFile resultFF = session.putAttribute(ff, NiFiProvenanceConstants.NiFiKyloJobExecutionState, KyloProcessorFlowType.WARNING.toString());
         resultFF = session.putAttribute(ff, "kylo.waterMarksCancelled", ex.getWaterMarkNames().toString());
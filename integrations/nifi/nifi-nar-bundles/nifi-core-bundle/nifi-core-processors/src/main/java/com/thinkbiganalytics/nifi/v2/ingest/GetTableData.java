@@ -20,7 +20,9 @@ package com.thinkbiganalytics.nifi.v2.ingest;
  * #L%
  */
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.thinkbiganalytics.ingest.GetTableDataSupport;
+import com.thinkbiganalytics.ingest.PartitionRange;
 import com.thinkbiganalytics.nifi.core.api.metadata.MetadataProviderService;
 import com.thinkbiganalytics.nifi.processor.AbstractNiFiProcessor;
 import com.thinkbiganalytics.nifi.thrift.api.AbstractRowVisitor;
@@ -40,6 +42,8 @@ import org.apache.nifi.annotation.documentation.CapabilityDescription;
 import org.apache.nifi.annotation.documentation.Tags;
 import org.apache.nifi.components.PropertyDescriptor;
 import org.apache.nifi.components.PropertyValue;
+import org.apache.nifi.components.ValidationContext;
+import org.apache.nifi.components.ValidationResult;
 import org.apache.nifi.components.Validator;
 import org.apache.nifi.dbcp.DBCPService;
 import org.apache.nifi.flowfile.FlowFile;
@@ -52,7 +56,9 @@ import org.apache.nifi.processor.io.OutputStreamCallback;
 import org.apache.nifi.processor.util.StandardValidators;
 import org.apache.nifi.util.StopWatch;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.sql.Connection;
 import java.sql.ResultSet;
@@ -61,12 +67,22 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.Vector;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -84,7 +100,12 @@ import static com.thinkbiganalytics.nifi.v2.ingest.IngestProperties.REL_SUCCESS;
     "Extracts data from a JDBC source table and can optional extract incremental data if provided criteria. Query result will be converted to a delimited format, or to Avro if specified. Streaming is used so arbitrarily large result sets are supported. This processor can be scheduled to run on a timer, or cron expression, using the standard scheduling methods, or it can be triggered by an incoming FlowFile. If it is triggered by an incoming FlowFile, then attributes of that FlowFile will be available when evaluating the select query. FlowFile attribute \'source.row.count\' indicates how many rows were selected.")
 @WritesAttributes({
         @WritesAttribute(attribute = "db.table.output.format", description = "Output format for database table ingested"),
-        @WritesAttribute(attribute = "db.table.avro.schema", description = "Avro schema for the database table ingested")
+        @WritesAttribute(attribute = "db.table.avro.schema", description = "Avro schema for the database table ingested"),
+        @WritesAttribute(attribute = "fragment.identifier", description = "If the table is partitioned, all flow files from the same extract have the same identifier"),
+        @WritesAttribute(attribute = "fragment.index", description = "If the table is partitioned, the position of the range in the flow file, starting at 0"),
+        @WritesAttribute(attribute = "fragment.count", description = "If the table is partitioned, the number of flow files from the same extract"),
+        @WritesAttribute(attribute = "segment.original.filename", description = "If the table is partitioned, the filename of the flow file the extract was triggered by"),
+        @WritesAttribute(attribute = "db.table.partition.range", description = "If the table is partitioned, the range of the partition column in the flow file")
     })
 
 // Implements strategies outlined by https://thebibackend.wordpress.com/2011/05/18/incremental-load-part-i-overview/
@@ -94,6 +115,11 @@ public class GetTableData extends AbstractNiFiProcessor {
     public static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ISO_DATE_TIME;
     public static final String RESULT_ROW_COUNT = "source.row.count";
     public static final String EMPTY_STRING = "";
+    public static final String FRAGMENT_ID = "fragment.identifier";
+    public static final String FRAGMENT_INDEX = "fragment.index";
+    public static final String FRAGMENT_COUNT = "fragment.count";
+    public static final String SEGMENT_ORIGINAL_FILENAME = "segment.original.filename";
+    public static final String PARTITION_RANGE = "db.table.partition.range";
 
     public static final Relationship REL_NO_DATA = new Relationship.Builder()
         .name("nodata")
@@ -196,9 +222,44 @@ public class GetTableData extends AbstractNiFiProcessor {
         .defaultValue(",")
         .expressionLanguageSupported(true)
         .build();
+    public static final PropertyDescriptor PARTITIONS = new PropertyDescriptor.Builder()
+        .name("Number of Partitions")
+        .description("Number of ranges to split the extract into.  Each range is read concurrently over its own connection from the Source Database Connection and written to its own flow file.  "
+                     + "Ranges without any rows are skipped, and delimited output only has a header line in the flow file with a fragment.index of 0.  "
+                     + "The flow files have fragment.identifier, fragment.index and fragment.count attributes so they can be merged downstream.  For an incremental load all of them "
+                     + "have the new high-water mark, and they must be merged, for example by MergeContent with the Defragment strategy, before ReleaseHighWaterMark commits it; "
+                     + "ReleaseHighWaterMark routes an unmerged flow file to failure so that the water mark cannot move past ranges that are still being processed.  "
+                     + "A value of 1 reads the table with a single query.")
+        .required(true)
+        .defaultValue("1")
+        .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
+        .build();
+    public static final PropertyDescriptor PARTITION_COLUMN = new PropertyDescriptor.Builder()
+        .name("Partition Column")
+        .description("Numeric or date source field used to split the extract into ranges.  The minimum and maximum values of the field are queried and split into ranges of equal size.  "
+                     + "Rows with a null value are included in the first range.  Required if the Number of Partitions is greater than 1.")
+        .required(false)
+        .addValidator(StandardValidators.NON_EMPTY_VALIDATOR)
+        .expressionLanguageSupported(true)
+        .build();
     private final Set<Relationship> relationships;
     private final List<PropertyDescriptor> propDescriptors;
 
+    /**
+     * Size of the chunks that the output of a range is queued in
+     */
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Number of chunks that can be queued for each range before its worker waits
+     */
+    private static final int CHUNKS_PER_PARTITION = 16;
+
+    /**
+     * Time to wait for a chunk before checking whether the workers have finished
+     */
+    private static final long CHUNK_POLL_MILLIS = 100;
+
     public GetTableData() {
         HashSet<Relationship> r = new HashSet<>();
         r.add(REL_SUCCESS);
@@ -222,6 +283,8 @@ public class GetTableData extends AbstractNiFiProcessor {
         pds.add(UNIT_SIZE);
         pds.add(OUTPUT_TYPE);
         pds.add(OUTPUT_DELIMITER);
+        pds.add(PARTITIONS);
+        pds.add(PARTITION_COLUMN);
         this.propDescriptors = Collections.unmodifiableList(pds);
     }
 
@@ -258,6 +321,19 @@ public class GetTableData extends AbstractNiFiProcessor {
         return propDescriptors;
     }
 
+    @Override
+    protected Collection<ValidationResult> customValidate(ValidationContext validationContext) {
+        final List<ValidationResult> results = new ArrayList<>();
+        if (validationContext.getProperty(PARTITIONS).asInteger() > 1 && !validationContext.getProperty(PARTITION_COLUMN).isSet()) {
+            results.add(new ValidationResult.Builder()
+                            .subject(PARTITION_COLUMN.getName())
+                            .valid(false)
+                            .explanation("a partition column is required if the number of partitions is greater than 1")
+                            .build());
+        }
+        return results;
+    }
+
     @Override
     public void onTrigger(final ProcessContext context, final ProcessSession session) throws ProcessException {
         FlowFile flowFile = null;
@@ -292,12 +368,33 @@ public class GetTableData extends AbstractNiFiProcessor {
         final String delimiter = StringUtils.isBlank(outputDelimiter) ? "," : outputDelimiter;
 
         final PropertyValue waterMarkPropName = context.getProperty(HIGH_WATER_MARK_PROP).evaluateAttributeExpressions(incoming);
+        final int partitions = context.getProperty(PARTITIONS).asInteger();
+        final String partitionColumn = context.getProperty(PARTITION_COLUMN).evaluateAttributeExpressions(incoming).getValue();
 
         final String[] selectFields = parseFields(fieldSpecs);
 
         final LoadStrategy strategy = LoadStrategy.valueOf(loadStrategy);
         final StopWatch stopWatch = new StopWatch(true);
 
+        if (partitions > 1) {
+            FlowFile outgoing = (incoming == null ? session.create() : incoming);
+            try {
+                final PartitionExtract extract = new PartitionExtract(dbcpService, queryTimeout, tableName, selectFields, partitionColumn, GetTableDataSupport.OutputType.valueOf(outputType), delimiter);
+                if (strategy == LoadStrategy.INCREMENTAL) {
+                    String waterMarkValue = getIncrementalWaterMarkValue(outgoing, waterMarkPropName);
+                    extract.dateField = dateField;
+                    extract.lastLoadDate = toDate(LocalDateTime.parse(waterMarkValue, DATE_TIME_FORMAT));
+                }
+                transferPartitions(session, outgoing, extract, partitions, strategy, overlapTime, backoffTime, unitSize, waterMarkPropName, feedName, stopWatch);
+            } catch (final Exception e) {
+                if (incoming == null) {
+                    session.remove(outgoing);
+                }
+                routeToFailure(session, incoming, e);
+            }
+            return;
+        }
+
         try (final Connection conn = dbcpService.getConnection()) {
 
             FlowFile outgoing = (incoming == null ? session.create() : incoming);
@@ -378,11 +475,150 @@ public class GetTableData extends AbstractNiFiProcessor {
                 session.transfer(outgoing, REL_SUCCESS);
             }
         } catch (final Exception e) {
-            if (incoming == null) {
-                logger.error("Unable to execute SQL select from table due to {}. No incoming flow file to route to failure", new Object[]{e});
-            } else {
-                logger.error("Unable to execute SQL select from table due to {}; routing to failure", new Object[]{incoming, e});
-                session.transfer(incoming, REL_FAILURE);
+            routeToFailure(session, incoming, e);
+        }
+    }
+
+    private void routeToFailure(ProcessSession session, FlowFile incoming, Exception e) {
+        if (incoming == null) {
+            getLog().error("Unable to execute SQL select from table due to {}. No incoming flow file to route to failure", new Object[]{e});
+        } else {
+            getLog().error("Unable to execute SQL select from table due to {}; routing to failure", new Object[]{incoming, e});
+            session.transfer(incoming, REL_FAILURE);
+        }
+    }
+
+    /**
+     * Splits the table into ranges, reads the ranges concurrently, and transfers one flow file for each range that has rows.
+     *
+     * A process session can only be used by one thread, so the workers reading the ranges queue their output in chunks, and this thread writes the chunks to the
+     * flow files of the ranges. Nothing is transferred unless all of the ranges are read successfully.
+     */
+    private void transferPartitions(ProcessSession session, FlowFile outgoing, PartitionExtract extract, int partitions, LoadStrategy strategy, int overlapTime, int backoffTime,
+                                    String unitSize, PropertyValue waterMarkPropName, String feedName, StopWatch stopWatch) throws Exception {
+        final ComponentLog logger = getLog();
+        final List<PartitionRange> ranges;
+        try (final Connection conn = extract.dbcpService.getConnection()) {
+            GetTableDataSupport support = new GetTableDataSupport(conn, extract.queryTimeout);
+            if (strategy == LoadStrategy.INCREMENTAL) {
+                extract.dateRange = support.getIncrementalRange(extract.lastLoadDate, overlapTime, backoffTime, GetTableDataSupport.UnitSizes.valueOf(unitSize));
+            }
+            ranges = support.selectPartitionRanges(extract.tableName, extract.partitionColumn, partitions, extract.dateField, extract.dateRange);
+        }
+
+        // Each extract has its own threads so that concurrent tasks of this processor do not wait for each other's ranges
+        final FlowFile[] fragments = new FlowFile[ranges.size()];
+        final PartitionCollector collector = new PartitionCollector(ranges.size());
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, ranges.size()),
+                                                                      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("GetTableData-partition-%d").build());
+        try {
+            for (int i = 0; i < ranges.size(); i++) {
+                fragments[i] = session.create(outgoing);
+            }
+            for (PartitionRange range : ranges) {
+                collector.futures.add(executor.submit(() -> extract.read(range, collector.chunks)));
+            }
+            writeFragments(session, fragments, new OutputStream[fragments.length], 0, collector);
+        } catch (final Exception e) {
+            collector.cancel();
+            removeAll(session, fragments);
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final List<PartitionResult> results = collector.getResults();
+        try {
+            long nrOfRows = 0;
+            Date lastModifyDate = extract.lastLoadDate;
+            for (PartitionResult result : results) {
+                nrOfRows += result.nrOfRows;
+                if (result.lastModifyDate != null && (lastModifyDate == null || result.lastModifyDate.after(lastModifyDate))) {
+                    lastModifyDate = result.lastModifyDate;
+                }
+            }
+
+            // Empty ranges are dropped, and the range with the header of delimited output comes first
+            final List<PartitionResult> nonEmpty = new ArrayList<>(results.size());
+            for (PartitionResult result : results) {
+                if (result.nrOfRows == 0L) {
+                    session.remove(fragments[result.range.getIndex()]);
+                    fragments[result.range.getIndex()] = null;
+                } else if (result.range.getIndex() == collector.headerIndex) {
+                    nonEmpty.add(0, result);
+                } else {
+                    nonEmpty.add(result);
+                }
+            }
+
+            if (nrOfRows == 0L) {
+                outgoing = session.putAttribute(outgoing, RESULT_ROW_COUNT, "0");
+                outgoing = session.putAttribute(outgoing, ComponentAttributes.NUM_SOURCE_RECORDS.key(), "0");
+                logger.info("{} contains no data; transferring to 'nodata'", new Object[]{outgoing});
+                session.transfer(outgoing, REL_NO_DATA);
+                return;
+            }
+
+            final String fragmentId = UUID.randomUUID().toString();
+            final String newWaterMarkStr = (strategy == LoadStrategy.INCREMENTAL) ? format(lastModifyDate) : null;
+            final List<FlowFile> transfers = new ArrayList<>(nonEmpty.size());
+            for (int i = 0; i < nonEmpty.size(); i++) {
+                final PartitionResult result = nonEmpty.get(i);
+                FlowFile fragment = fragments[result.range.getIndex()];
+
+                final Map<String, String> attributes = new HashMap<>();
+                attributes.put(RESULT_ROW_COUNT, Long.toString(result.nrOfRows));
+                attributes.put(ComponentAttributes.NUM_SOURCE_RECORDS.key(), Long.toString(result.nrOfRows));
+                attributes.put("db.table.output.format", extract.outputType.toString());
+                attributes.put("db.table.avro.schema", (result.avroSchema != null) ? JdbcCommon.getAvroSchemaForFeedSetup(result.avroSchema) : EMPTY_STRING);
+                attributes.put(FRAGMENT_ID, fragmentId);
+                attributes.put(FRAGMENT_INDEX, Integer.toString(i));
+                attributes.put(FRAGMENT_COUNT, Integer.toString(nonEmpty.size()));
+                attributes.put(PARTITION_RANGE, result.range.toString());
+                if (outgoing.getAttribute("filename") != null) {
+                    attributes.put(SEGMENT_ORIGINAL_FILENAME, outgoing.getAttribute("filename"));
+                }
+                fragment = session.putAllAttributes(fragment, attributes);
+
+                // Every fragment has the new water mark so that it is kept when they are merged; ReleaseHighWaterMark only commits it for the merged flow file
+                if (newWaterMarkStr != null) {
+                    fragment = setIncrementalWaterMarkValue(session, fragment, waterMarkPropName, newWaterMarkStr);
+                }
+                session.getProvenanceReporter().modifyContent(fragment, "Retrieved " + result.nrOfRows + " rows for " + result.range, stopWatch.getElapsed(TimeUnit.MILLISECONDS));
+                fragments[result.range.getIndex()] = fragment;
+                transfers.add(fragment);
+            }
+
+            logger.info("{} contains {} records in {} partitions; transferring to 'success'", new Object[]{outgoing, nrOfRows, transfers.size()});
+            if (newWaterMarkStr != null) {
+                logger.info("Recorded load status feed {} date {}", new Object[]{feedName, newWaterMarkStr});
+            }
+            session.transfer(transfers, REL_SUCCESS);
+            session.remove(outgoing);
+        } catch (final Exception e) {
+            removeAll(session, fragments);
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the content of each fragment for writing, one inside the other, and then has the collector write the output of the ranges to them.
+     */
+    private void writeFragments(ProcessSession session, FlowFile[] fragments, OutputStream[] streams, int index, PartitionCollector collector) throws IOException {
+        if (index == fragments.length) {
+            collector.collect(streams);
+            return;
+        }
+        fragments[index] = session.write(fragments[index], out -> {
+            streams[index] = out;
+            writeFragments(session, fragments, streams, index + 1, collector);
+        });
+    }
+
+    private void removeAll(ProcessSession session, FlowFile[] fragments) {
+        for (FlowFile fragment : fragments) {
+            if (fragment != null) {
+                session.remove(fragment);
             }
         }
     }
@@ -439,6 +675,281 @@ public class GetTableData extends AbstractNiFiProcessor {
         }
     }
 
+    /**
+     * Reads ranges of a table, queueing the output in chunks.
+     */
+    static class PartitionExtract {
+
+        final DBCPService dbcpService;
+        final int queryTimeout;
+        final String tableName;
+        final String[] selectFields;
+        final String partitionColumn;
+        final GetTableDataSupport.OutputType outputType;
+        final String delimiter;
+
+        /**
+         * The date field, last load date, and range of dates for an incremental load, otherwise null
+         */
+        String dateField;
+        Date lastLoadDate;
+        GetTableDataSupport.DateRange dateRange;
+
+        PartitionExtract(DBCPService dbcpService, int queryTimeout, String tableName, String[] selectFields, String partitionColumn, GetTableDataSupport.OutputType outputType,
+                         String delimiter) {
+            this.dbcpService = dbcpService;
+            this.queryTimeout = queryTimeout;
+            this.tableName = tableName;
+            this.selectFields = selectFields;
+            this.partitionColumn = partitionColumn;
+            this.outputType = outputType;
+            this.delimiter = delimiter;
+        }
+
+        /**
+         * Reads the specified range. Delimited output is queued without a header; the header is queued separately first.
+         */
+        PartitionResult read(PartitionRange range, BlockingQueue<PartitionChunk> chunks) throws IOException, SQLException {
+            final LastFieldVisitor visitor = (dateRange != null) ? new LastFieldVisitor(dateField, lastLoadDate) : null;
+            try (final Connection conn = dbcpService.getConnection();
+                 final ChunkOutputStream out = new ChunkOutputStream(range.getIndex(), chunks)) {
+                GetTableDataSupport support = new GetTableDataSupport(conn, queryTimeout);
+                final ResultSet rs = support.selectPartition(tableName, selectFields, partitionColumn, range, dateField, dateRange);
+                try {
+                    final PartitionResult result = new PartitionResult(range);
+                    if (outputType == GetTableDataSupport.OutputType.DELIMITED) {
+                        final ByteArrayOutputStream header = new ByteArrayOutputStream();
+                        JdbcCommon.writeDelimitedHeader(rs, header, delimiter);
+                        out.putHeader(header.toByteArray());
+                        result.nrOfRows = JdbcCommon.convertToDelimitedStream(rs, out, visitor, delimiter, false);
+                    } else {
+                        result.avroSchema = JdbcCommon.createSchema(rs);
+                        result.nrOfRows = JdbcCommon.convertToAvroStream(rs, out, visitor, result.avroSchema);
+                    }
+                    result.lastModifyDate = (visitor != null) ? visitor.getLastModifyDate() : null;
+                    return result;
+                } finally {
+                    // closing the statement also closes the result set
+                    rs.getStatement().close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the chunks queued by the workers reading the ranges of a table to the flow files of the ranges.
+     */
+    static class PartitionCollector {
+
+        /**
+         * Output of the workers, bounded so that slow writes hold back the workers instead of filling the heap
+         */
+        final BlockingQueue<PartitionChunk> chunks;
+
+        /**
+         * The workers, in the same order as the ranges
+         */
+        final List<Future<PartitionResult>> futures = new ArrayList<>();
+
+        /**
+         * Index of the range whose flow file has the header of delimited output, or -1 if none
+         */
+        int headerIndex = -1;
+
+        private List<PartitionResult> results;
+
+        PartitionCollector(int partitions) {
+            this.chunks = new ArrayBlockingQueue<>(Math.max(1, partitions * CHUNKS_PER_PARTITION));
+        }
+
+        /**
+         * Writes the chunks to the output streams of the ranges until every worker has finished.
+         *
+         * @throws IOException if any range could not be read or written
+         */
+        void collect(OutputStream[] streams) throws IOException {
+            byte[] header = null;
+            try {
+                while (true) {
+                    PartitionChunk chunk = chunks.poll(CHUNK_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (chunk == null) {
+                        if (!isDone()) {
+                            continue;
+                        }
+                        // No more chunks can be queued once every worker has finished
+                        chunk = chunks.poll();
+                        if (chunk == null) {
+                            break;
+                        }
+                    }
+                    if (chunk.header) {
+                        header = chunk.data;
+                        continue;
+                    }
+                    final OutputStream out = streams[chunk.index];
+                    if (header != null && headerIndex < 0) {
+                        // The header of delimited output is only written once, to the first range with rows
+                        out.write(header);
+                        headerIndex = chunk.index;
+                    }
+                    out.write(chunk.data, 0, chunk.length);
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while reading partitions");
+            }
+
+            results = new ArrayList<>(futures.size());
+            for (Future<PartitionResult> future : futures) {
+                results.add(getResult(future));
+            }
+        }
+
+        /**
+         * @return the results in the same order as the ranges
+         */
+        List<PartitionResult> getResults() {
+            return results;
+        }
+
+        /**
+         * Stops any workers that are still reading.
+         */
+        void cancel() {
+            for (Future<PartitionResult> future : futures) {
+                future.cancel(true);
+            }
+        }
+
+        /**
+         * @return true if every worker has finished
+         * @throws IOException if any worker failed
+         */
+        private boolean isDone() throws IOException {
+            boolean done = true;
+            for (Future<PartitionResult> future : futures) {
+                if (future.isDone()) {
+                    getResult(future);
+                } else {
+                    done = false;
+                }
+            }
+            return done;
+        }
+
+        private PartitionResult getResult(Future<PartitionResult> future) throws IOException {
+            try {
+                return future.get();
+            } catch (final ExecutionException e) {
+                throw new IOException("Unable to read partition", e.getCause());
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while reading partitions");
+            }
+        }
+    }
+
+    /**
+     * Buffers the output of a worker and queues it in chunks.
+     */
+    static class ChunkOutputStream extends OutputStream {
+
+        private final int index;
+        private final BlockingQueue<PartitionChunk> chunks;
+        private byte[] buffer = new byte[CHUNK_SIZE];
+        private int count;
+
+        ChunkOutputStream(int index, BlockingQueue<PartitionChunk> chunks) {
+            this.index = index;
+            this.chunks = chunks;
+        }
+
+        /**
+         * Queues the header of delimited output.
+         */
+        void putHeader(byte[] header) throws IOException {
+            put(new PartitionChunk(index, true, header, header.length));
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                flush();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (count == buffer.length) {
+                    flush();
+                }
+                final int length = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, length);
+                count += length;
+                off += length;
+                len -= length;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (count > 0) {
+                put(new PartitionChunk(index, false, buffer, count));
+                buffer = new byte[CHUNK_SIZE];
+                count = 0;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+        private void put(PartitionChunk chunk) throws IOException {
+            try {
+                chunks.put(chunk);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while queueing partition output");
+            }
+        }
+    }
+
+    /**
+     * Part of the output of a range.
+     */
+    static class PartitionChunk {
+
+        final int index;
+        final boolean header;
+        final byte[] data;
+        final int length;
+
+        PartitionChunk(int index, boolean header, byte[] data, int length) {
+            this.index = index;
+            this.header = header;
+            this.data = data;
+            this.length = length;
+        }
+    }
+
+    /**
+     * The result of reading a range of a table.
+     */
+    static class PartitionResult {
+
+        final PartitionRange range;
+        long nrOfRows;
+        Date lastModifyDate;
+        Schema avroSchema;
+
+        PartitionResult(PartitionRange range) {
+            this.range = range;
+        }
+    }
+
     /**
      * Track the max date we read
      */
@@ -0,0 +1,232 @@
+package com.thinkbiganalytics.util;
+
+/*-
+ * #%L
+ * thinkbig-nifi-core-processors
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Writes delimited text as UTF-8 to an output stream through a single reusable buffer.
+ *
+ * A value containing the delimiter, a quote, or a line break is quoted. Within a quoted value, quotes are escaped with a backslash
+ * and line breaks are replaced with {@code \\n} or {@code \\r}.
+ */
+final class DelimitedTextWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Characters that can appear in a printed timestamp
+     */
+    private static final String TIMESTAMP_CHARS = "0123456789-+:.TZ";
+
+    private final OutputStream out;
+
+    private final String delimiter;
+
+    private final byte[] delimiterBytes;
+
+    /**
+     * The delimiter if it is a single character, otherwise -1
+     */
+    private final int delimiterChar;
+
+    /**
+     * true if the delimiter contains a character that would otherwise be escaped, so it has to be matched when escaping a value
+     */
+    private final boolean matchDelimiter;
+
+    /**
+     * true if a printed timestamp can never contain the delimiter, so timestamps never need escaping
+     */
+    private final boolean plainTimestamps;
+
+    private byte[] buffer = new byte[BUFFER_SIZE];
+
+    private int count;
+
+    /**
+     * Constructs a {@code DelimitedTextWriter} for the specified output stream.
+     *
+     * @param out       the output stream
+     * @param delimiter the column delimiter
+     */
+    DelimitedTextWriter(@Nonnull final OutputStream out, @Nonnull final String delimiter) {
+        this.out = out;
+        this.delimiter = delimiter;
+        this.delimiterBytes = delimiter.getBytes(StandardCharsets.UTF_8);
+        this.delimiterChar = (delimiter.length() == 1) ? delimiter.charAt(0) : -1;
+        this.matchDelimiter = delimiter.indexOf('"') >= 0 || delimiter.indexOf('\n') >= 0 || delimiter.indexOf('\r') >= 0;
+
+        boolean timestampDelimiter = true;
+        for (int i = 0; i < delimiter.length(); i++) {
+            if (TIMESTAMP_CHARS.indexOf(delimiter.charAt(i)) < 0) {
+                timestampDelimiter = false;
+                break;
+            }
+        }
+        this.plainTimestamps = !timestampDelimiter;
+    }
+
+    /**
+     * Writes the delimiter between two columns.
+     */
+    void writeDelimiter() throws IOException {
+        ensureCapacity(delimiterBytes.length);
+        System.arraycopy(delimiterBytes, 0, buffer, count, delimiterBytes.length);
+        count += delimiterBytes.length;
+    }
+
+    /**
+     * Writes the end of a row.
+     */
+    void writeNewline() throws IOException {
+        ensureCapacity(1);
+        buffer[count++] = '\n';
+    }
+
+    /**
+     * Writes the specified value, escaping it if necessary.
+     *
+     * @param value the value, or {@code null} to write nothing
+     */
+    void writeValue(final String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        final int length = value.length();
+        final boolean quote = needsQuote(value);
+
+        // A char is at most 3 bytes in UTF-8 or as an escape sequence
+        ensureCapacity(length * 3 + 2);
+        final byte[] buf = buffer;
+        int pos = count;
+        if (quote) {
+            buf[pos++] = '"';
+        }
+        for (int i = 0; i < length; i++) {
+            if (quote && matchDelimiter && value.startsWith(delimiter, i)) {
+                System.arraycopy(delimiterBytes, 0, buf, pos, delimiterBytes.length);
+                pos += delimiterBytes.length;
+                i += delimiter.length() - 1;
+                continue;
+            }
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                if (quote) {
+                    if (c == '"') {
+                        buf[pos++] = '\\';
+                    } else if (c == '\n' || c == '\r') {
+                        buf[pos++] = '\\';
+                        buf[pos++] = '\\';
+                        buf[pos++] = (byte) (c == '\n' ? 'n' : 'r');
+                        continue;
+                    }
+                }
+                buf[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xc0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buf[pos++] = (byte) (0xf0 | (codePoint >> 18));
+                    buf[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                    buf[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                    buf[pos++] = (byte) (0x80 | (codePoint & 0x3f));
+                } else {
+                    // Same replacement as String.getBytes(UTF_8)
+                    buf[pos++] = '?';
+                }
+            } else {
+                buf[pos++] = (byte) (0xe0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buf[pos++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        if (quote) {
+            buf[pos++] = '"';
+        }
+        count = pos;
+    }
+
+    /**
+     * Writes the UTC date and time of the specified instant, such as {@code 2017-01-06T11:50:00.000Z}.
+     */
+    void writeDateTime(final long millis) throws IOException {
+        if (plainTimestamps && IsoTimestampFormat.isFixedWidth(millis)) {
+            ensureCapacity(IsoTimestampFormat.DATE_TIME_LENGTH);
+            count = IsoTimestampFormat.printDateTime(buffer, count, millis);
+        } else {
+            writeValue(IsoTimestampFormat.DATE_TIME.print(millis));
+        }
+    }
+
+    /**
+     * Writes the UTC time of day of the specified instant, such as {@code 11:50:00.000Z}.
+     */
+    void writeTime(final long millis) throws IOException {
+        if (plainTimestamps) {
+            ensureCapacity(IsoTimestampFormat.TIME_LENGTH);
+            count = IsoTimestampFormat.printTime(buffer, count, millis);
+        } else {
+            writeValue(IsoTimestampFormat.TIME.print(millis));
+        }
+    }
+
+    /**
+     * Writes any buffered bytes and flushes the output stream.
+     */
+    void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    private boolean needsQuote(final String value) {
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\n' || c == '\r' || c == delimiterChar) {
+                return true;
+            }
+        }
+        return delimiterChar == -1 && value.contains(delimiter);
+    }
+
+    private void ensureCapacity(final int length) throws IOException {
+        if (count + length > buffer.length) {
+            flushBuffer();
+            if (length > buffer.length) {
+                buffer = new byte[length];
+            }
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.thinkbiganalytics.util;
+
+/*-
+ * #%L
+ * thinkbig-nifi-core-processors
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.ISODateTimeFormat;
+
+/**
+ * Prints UTC timestamps as ASCII bytes in the same format as {@code ISODateTimeFormat.dateTime().withZoneUTC()} and {@code ISODateTimeFormat.time().withZoneUTC()}
+ * without creating any objects.
+ *
+ * Only instants in the years 0000 to 9999 have a fixed width. Use the Joda formatters for any other instant.
+ */
+final class IsoTimestampFormat {
+
+    /**
+     * Formatter for a date and time, such as {@code 2017-01-06T11:50:00.000Z}
+     */
+    static final DateTimeFormatter DATE_TIME = ISODateTimeFormat.dateTime().withZoneUTC();
+
+    /**
+     * Formatter for a time, such as {@code 11:50:00.000Z}
+     */
+    static final DateTimeFormatter TIME = ISODateTimeFormat.time().withZoneUTC();
+
+    /**
+     * Number of bytes printed by {@link #printDateTime(byte[], int, long)}
+     */
+    static final int DATE_TIME_LENGTH = 24;
+
+    /**
+     * Number of bytes printed by {@link #printTime(byte[], int, long)}
+     */
+    static final int TIME_LENGTH = 13;
+
+    private static final long MILLIS_PER_DAY = 86400000L;
+
+    /**
+     * 0000-01-01T00:00:00.000Z
+     */
+    private static final long MIN_FIXED_WIDTH_MILLIS = -62167219200000L;
+
+    /**
+     * 10000-01-01T00:00:00.000Z
+     */
+    private static final long MAX_FIXED_WIDTH_MILLIS = 253402300800000L;
+
+    private IsoTimestampFormat() {
+    }
+
+    /**
+     * @return true if the date and time of the instant can be printed by {@link #printDateTime(byte[], int, long)}
+     */
+    static boolean isFixedWidth(long millis) {
+        return millis >= MIN_FIXED_WIDTH_MILLIS && millis < MAX_FIXED_WIDTH_MILLIS;
+    }
+
+    /**
+     * Prints the date and time of the instant in UTC.
+     *
+     * @param buffer the buffer to print to, with at least {@link #DATE_TIME_LENGTH} bytes remaining
+     * @param pos    the position to start printing at
+     * @param millis the instant, which must be {@link #isFixedWidth(long) fixed width}
+     * @return the position after the last byte printed
+     */
+    static int printDateTime(byte[] buffer, int pos, long millis) {
+        // Converts days since the epoch to a proleptic Gregorian date, counting eras of 400 years from 0000-03-01
+        long days = Math.floorDiv(millis, MILLIS_PER_DAY) + 719468;
+        long era = (days >= 0 ? days : days - 146096) / 146097;
+        int dayOfEra = (int) (days - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+        int month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+        int year = (int) (era * 400) + yearOfEra + (month <= 2 ? 1 : 0);
+
+        pos = printDigits(buffer, pos, year / 100, 2);
+        pos = printDigits(buffer, pos, year % 100, 2);
+        buffer[pos++] = '-';
+        pos = printDigits(buffer, pos, month, 2);
+        buffer[pos++] = '-';
+        pos = printDigits(buffer, pos, day, 2);
+        buffer[pos++] = 'T';
+        return printTime(buffer, pos, millis);
+    }
+
+    /**
+     * Prints the time of day of the instant in UTC.
+     *
+     * @param buffer the buffer to print to, with at least {@link #TIME_LENGTH} bytes remaining
+     * @param pos    the position to start printing at
+     * @param millis the instant
+     * @return the position after the last byte printed
+     */
+    static int printTime(byte[] buffer, int pos, long millis) {
+        int millisOfDay = (int) Math.floorMod(millis, MILLIS_PER_DAY);
+        pos = printDigits(buffer, pos, millisOfDay / 3600000, 2);
+        buffer[pos++] = ':';
+        pos = printDigits(buffer, pos, millisOfDay / 60000 % 60, 2);
+        buffer[pos++] = ':';
+        pos = printDigits(buffer, pos, millisOfDay / 1000 % 60, 2);
+        buffer[pos++] = '.';
+        pos = printDigits(buffer, pos, millisOfDay % 1000, 3);
+        buffer[pos++] = 'Z';
+        return pos;
+    }
+
+    private static int printDigits(byte[] buffer, int pos, int value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+}
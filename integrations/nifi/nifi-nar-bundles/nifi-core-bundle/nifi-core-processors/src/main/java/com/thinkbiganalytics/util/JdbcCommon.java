@@ -18,7 +18,6 @@ package com.thinkbiganalytics.util;
  */
 
 
-import com.google.common.base.Preconditions;
 import com.thinkbiganalytics.nifi.thrift.api.RowVisitor;
 
 import org.apache.avro.Schema;
@@ -29,20 +28,15 @@ import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.DatumWriter;
+import org.apache.avro.util.Utf8;
 import org.apache.commons.lang3.CharUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.text.translate.CharSequenceTranslator;
-import org.joda.time.DateTime;
-import org.joda.time.format.DateTimeFormatter;
-import org.joda.time.format.ISODateTimeFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.StringWriter;
-import java.io.Writer;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
@@ -54,8 +48,6 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
 
-import javax.annotation.Nonnull;
-
 import static java.sql.Types.ARRAY;
 import static java.sql.Types.BIGINT;
 import static java.sql.Types.BINARY;
@@ -94,6 +86,8 @@ public class JdbcCommon {
     /**
      * Converts the specified SQL result set to a delimited text file written to the specified output stream.
      *
+     * <p>The text is encoded as UTF-8.</p>
+     *
      * @param rs        the SQL result set
      * @param outStream the output stream for the delimited text file
      * @param visitor   records position of the result set
@@ -103,6 +97,23 @@ public class JdbcCommon {
      * @throws IOException  if an I/O error occurs while writing to the output stream
      */
     public static long convertToDelimitedStream(final ResultSet rs, final OutputStream outStream, final RowVisitor visitor, String delimiter) throws SQLException, IOException {
+        return convertToDelimitedStream(rs, outStream, visitor, delimiter, true);
+    }
+
+    /**
+     * Converts the specified SQL result set to delimited text written to the specified output stream, with or without a header line.
+     *
+     * @param rs            the SQL result set
+     * @param outStream     the output stream for the delimited text
+     * @param visitor       records position of the result set
+     * @param delimiter     the column delimiter for the delimited text
+     * @param includeHeader {@code true} to write the column names before the rows
+     * @return the number of rows written
+     * @throws SQLException if a SQL error occurs while reading the result set
+     * @throws IOException  if an I/O error occurs while writing to the output stream
+     */
+    public static long convertToDelimitedStream(final ResultSet rs, final OutputStream outStream, final RowVisitor visitor, String delimiter, boolean includeHeader)
+        throws SQLException, IOException {
         // avoid overflowing log with redundant messages
         int dateConversionWarning = 0;
 
@@ -110,90 +121,127 @@ public class JdbcCommon {
             log.warn("Received empty resultset or no metadata.");
             return 0;
         }
-        OutputStreamWriter writer = new OutputStreamWriter(outStream);
         final ResultSetMetaData meta = rs.getMetaData();
-        final DelimiterEscaper escaper = new DelimiterEscaper(delimiter);
+        final DelimitedTextWriter writer = new DelimitedTextWriter(outStream, delimiter);
 
-        // Write header
+        // Read the column names and types once instead of for every value
         final int nrOfColumns = meta.getColumnCount();
-        StringBuffer sb = new StringBuffer();
-        for (int i = 1; i <= nrOfColumns; i++) {
-            String columnName = meta.getColumnName(i);
-            sb.append(escaper.translate(columnName));
-            if (i != nrOfColumns) {
-                sb.append(delimiter);
-            } else {
-                sb.append("\n");
-            }
+        final String[] columnNames = new String[nrOfColumns];
+        final int[] columnTypes = new int[nrOfColumns];
+        for (int i = 0; i < nrOfColumns; i++) {
+            columnNames[i] = meta.getColumnName(i + 1);
+            columnTypes[i] = meta.getColumnType(i + 1);
+        }
+
+        // Write header
+        if (includeHeader) {
+            writeHeader(writer, columnNames);
         }
-        writer.append(sb.toString());
         long nrOfRows = 0;
         while (rs.next()) {
             if (visitor != null) {
                 visitor.visitRow(rs);
             }
-            sb = new StringBuffer();
             nrOfRows++;
-            for (int i = 1; i <= nrOfColumns; i++) {
-                String val = null;
-
-                int colType = meta.getColumnType(i);
-                if (colType == Types.DATE || colType == Types.TIMESTAMP) {
-                    Timestamp sqlDate = null;
-                    try {
-                        // Extract timestamp
-                        sqlDate = extractSqlDate(rs, i);
-                    } catch (Exception e) {
-                        // Still failed, maybe exotic date type
-                        if (dateConversionWarning++ < 10) {
-                            log.warn("{} is not convertible to timestamp or date", rs.getMetaData().getColumnName(i));
+            for (int i = 0; i < nrOfColumns; i++) {
+                final int column = i + 1;
+                final int colType = columnTypes[i];
+                switch (colType) {
+                    case DATE:
+                    case TIMESTAMP:
+                        Timestamp sqlDate = null;
+                        try {
+                            // Extract timestamp
+                            sqlDate = extractSqlDate(rs, column);
+                        } catch (Exception e) {
+                            // Still failed, maybe exotic date type
+                            if (dateConversionWarning++ < 10) {
+                                log.warn("{} is not convertible to timestamp or date", columnNames[i]);
+                            }
                         }
-                    }
 
-                    if (visitor != null) {
-                        visitor.visitColumn(rs.getMetaData().getColumnName(i), colType, sqlDate);
-                    }
-                    if (sqlDate != null) {
-                        DateTimeFormatter formatter = ISODateTimeFormat.dateTime().withZoneUTC();
-                        val = formatter.print(new DateTime(sqlDate.getTime()));
-                    }
-                } else if (colType == Types.TIME) {
-                    Time time = rs.getTime(i);
-                    if (visitor != null) {
-                        visitor.visitColumn(rs.getMetaData().getColumnName(i), colType, time);
-                    }
-                    if (time != null) {
-                        DateTimeFormatter formatter = ISODateTimeFormat.time().withZoneUTC();
-                        val = formatter.print(new DateTime(time.getTime()));
-                    }
-                } else if (colType == Types.BLOB) {
-                    byte[] bytes = rs.getBytes(i);
+                        if (visitor != null) {
+                            visitor.visitColumn(columnNames[i], colType, sqlDate);
+                        }
+                        if (sqlDate != null) {
+                            writer.writeDateTime(sqlDate.getTime());
+                        }
+                        break;
 
-                    if (bytes != null)
-                        val = rs.getBytes(i).toString();
+                    case TIME:
+                        Time time = rs.getTime(column);
+                        if (visitor != null) {
+                            visitor.visitColumn(columnNames[i], colType, time);
+                        }
+                        if (time != null) {
+                            writer.writeTime(time.getTime());
+                        }
+                        break;
 
-                    if (visitor != null) {
-                        visitor.visitColumn(rs.getMetaData().getColumnName(i), colType, val);
-                    }
-                } else {
-                    val = rs.getString(i);
-                    if (visitor != null) {
-                        visitor.visitColumn(rs.getMetaData().getColumnName(i), colType, val);
-                    }
-                }
-                sb.append((val == null ? "" : escaper.translate(val)));
-                if (i != nrOfColumns) {
-                    sb.append(delimiter);
-                } else {
-                    sb.append("\n");
+                    case BLOB:
+                        byte[] bytes = rs.getBytes(column);
+                        String blob = (bytes != null) ? bytes.toString() : null;
+                        if (visitor != null) {
+                            visitor.visitColumn(columnNames[i], colType, blob);
+                        }
+                        writer.writeValue(blob);
+                        break;
+
+                    default:
+                        String val = rs.getString(column);
+                        if (visitor != null) {
+                            visitor.visitColumn(columnNames[i], colType, val);
+                        }
+                        writer.writeValue(val);
                 }
+                writeSeparator(writer, i, nrOfColumns);
             }
-            writer.append(sb.toString());
         }
         writer.flush();
         return nrOfRows;
     }
 
+    /**
+     * Writes the header line of the delimited text for the specified SQL result set.
+     *
+     * @param rs        the SQL result set
+     * @param outStream the output stream for the delimited text
+     * @param delimiter the column delimiter for the delimited text
+     * @throws SQLException if a SQL error occurs while reading the result set metadata
+     * @throws IOException  if an I/O error occurs while writing to the output stream
+     */
+    public static void writeDelimitedHeader(final ResultSet rs, final OutputStream outStream, String delimiter) throws SQLException, IOException {
+        final ResultSetMetaData meta = rs.getMetaData();
+        final String[] columnNames = new String[meta.getColumnCount()];
+        for (int i = 0; i < columnNames.length; i++) {
+            columnNames[i] = meta.getColumnName(i + 1);
+        }
+        final DelimitedTextWriter writer = new DelimitedTextWriter(outStream, delimiter);
+        writeHeader(writer, columnNames);
+        writer.flush();
+    }
+
+    /**
+     * Writes the column names as a line of delimited text.
+     */
+    private static void writeHeader(DelimitedTextWriter writer, String[] columnNames) throws IOException {
+        for (int i = 0; i < columnNames.length; i++) {
+            writer.writeValue(columnNames[i]);
+            writeSeparator(writer, i, columnNames.length);
+        }
+    }
+
+    /**
+     * Writes the delimiter after a column, or a new line after the last column.
+     */
+    private static void writeSeparator(DelimitedTextWriter writer, int index, int nrOfColumns) throws IOException {
+        if (index != nrOfColumns - 1) {
+            writer.writeDelimiter();
+        } else {
+            writer.writeNewline();
+        }
+    }
+
 
     /**
      * Extracts a resultset col to a SQL timestamp
@@ -223,25 +271,39 @@ public class JdbcCommon {
         try (final DataFileWriter<GenericRecord> dataFileWriter = new DataFileWriter<>(datumWriter)) {
             dataFileWriter.create(schema, outStream);
 
+            // Read the column names and types once instead of for every value
             final ResultSetMetaData meta = rs.getMetaData();
             final int nrOfColumns = meta.getColumnCount();
+            final String[] columnNames = new String[nrOfColumns];
+            final int[] columnTypes = new int[nrOfColumns];
+            final boolean[] binaryColumns = new boolean[nrOfColumns];
+            for (int i = 0; i < nrOfColumns; i++) {
+                columnNames[i] = meta.getColumnName(i + 1);
+                columnTypes[i] = meta.getColumnType(i + 1);
+                binaryColumns[i] = isBinary(columnTypes[i]);
+            }
+
+            // Dates and times are printed into a Utf8 per column that is reused for every row
+            final Utf8[] printedValues = new Utf8[nrOfColumns];
+
             long nrOfRows = 0;
             while (rs.next()) {
                 if (visitor != null) {
                     visitor.visitRow(rs);
                 }
-                for (int i = 1; i <= nrOfColumns; i++) {
-                    final int javaSqlType = meta.getColumnType(i);
-                    final Object value = rs.getObject(i);
+                for (int i = 0; i < nrOfColumns; i++) {
+                    final int column = i + 1;
+                    final int javaSqlType = columnTypes[i];
+                    final Object value = rs.getObject(column);
 
                     if (value == null) {
-                        rec.put(i - 1, null);
+                        rec.put(i, null);
 
-                    } else if (javaSqlType == BINARY || javaSqlType == VARBINARY || javaSqlType == LONGVARBINARY || javaSqlType == ARRAY || javaSqlType == BLOB || javaSqlType == CLOB) {
+                    } else if (binaryColumns[i]) {
                         // bytes requires little bit different handling
-                        byte[] bytes = rs.getBytes(i);
+                        byte[] bytes = (value instanceof byte[]) ? (byte[]) value : rs.getBytes(column);
                         ByteBuffer bb = ByteBuffer.wrap(bytes);
-                        rec.put(i - 1, bb);
+                        rec.put(i, bb);
 
                     } else if (value instanceof Byte) {
                         // tinyint(1) type is returned by JDBC driver as java.sql.Types.TINYINT
@@ -249,60 +311,49 @@ public class JdbcCommon {
                         // (at least H2 JDBC works this way)
                         // direct put to avro record results:
                         // org.apache.avro.AvroRuntimeException: Unknown datum type java.lang.Byte
-                        rec.put(i - 1, ((Byte) value).intValue());
+                        rec.put(i, ((Byte) value).intValue());
 
                     } else if (value instanceof BigDecimal || value instanceof BigInteger) {
                         // Avro can't handle BigDecimal and BigInteger as numbers - it will throw an AvroRuntimeException such as: "Unknown datum type: java.math.BigDecimal: 38"
-                        rec.put(i - 1, value.toString());
+                        rec.put(i, value.toString());
 
                     } else if (value instanceof Number || value instanceof Boolean) {
-                        rec.put(i - 1, value);
+                        rec.put(i, value);
 
-                    } else if (value instanceof Date) {
-                        final DateTimeFormatter formatter = ISODateTimeFormat.dateTime().withZoneUTC();
-                        rec.put(i - 1, formatter.print(new DateTime(((Date) value).getTime())));
+                    } else if (value instanceof Date || value instanceof Timestamp) {
+                        rec.put(i, printDateTime(printedValues, i, ((java.util.Date) value).getTime()));
 
                     } else if (value instanceof Time) {
-                        final DateTimeFormatter formatter = ISODateTimeFormat.time().withZoneUTC();
-                        rec.put(i - 1, formatter.print(new DateTime(((Time) value).getTime())));
-
-                    } else if (value instanceof Timestamp) {
-                        final DateTimeFormatter formatter = ISODateTimeFormat.dateTime().withZoneUTC();
-                        rec.put(i - 1, formatter.print(new DateTime(((Timestamp) value).getTime())));
+                        rec.put(i, printTime(printedValues, i, ((Time) value).getTime()));
 
                     } else {
                         // The different types that we support are numbers (int, long, double, float),
                         // as well as boolean values and Strings. Since Avro doesn't provide
                         // timestamp types, we want to convert those to Strings. So we will cast anything other
                         // than numbers or booleans to strings by using the toString() method.
-                        rec.put(i - 1, value.toString());
+                        rec.put(i, value.toString());
                     }
 
                     //notify the visitor
+                    if (visitor == null) {
+                        continue;
+                    }
                     if (javaSqlType == Types.DATE || javaSqlType == Types.TIMESTAMP) {
                         Timestamp sqlDate = null;
                         try {
                             // Extract timestamp
-                            sqlDate = extractSqlDate(rs, i);
+                            sqlDate = extractSqlDate(rs, column);
 
                         } catch (Exception e) {
                             if (dateConversionWarning++ < 10) {
-                                log.warn("{} is not convertible to timestamp or date", rs.getMetaData().getColumnName(i));
+                                log.warn("{} is not convertible to timestamp or date", columnNames[i]);
                             }
                         }
-
-                        if (visitor != null) {
-                            visitor.visitColumn(rs.getMetaData().getColumnName(i), javaSqlType, sqlDate);
-                        }
+                        visitor.visitColumn(columnNames[i], javaSqlType, sqlDate);
                     } else if (javaSqlType == Types.TIME) {
-                        Time time = rs.getTime(i);
-                        if (visitor != null) {
-                            visitor.visitColumn(rs.getMetaData().getColumnName(i), javaSqlType, time);
-                        }
+                        visitor.visitColumn(columnNames[i], javaSqlType, rs.getTime(column));
                     } else {
-                        if (visitor != null) {
-                            visitor.visitColumn(rs.getMetaData().getColumnName(i), javaSqlType, (value != null) ? value.toString() : null);
-                        }
+                        visitor.visitColumn(columnNames[i], javaSqlType, (value != null) ? value.toString() : null);
                     }
                 }
                 dataFileWriter.append(rec);
@@ -313,6 +364,41 @@ public class JdbcCommon {
         }
     }
 
+    /**
+     * Indicates if the specified SQL type is written to Avro as bytes.
+     */
+    private static boolean isBinary(final int javaSqlType) {
+        return javaSqlType == BINARY || javaSqlType == VARBINARY || javaSqlType == LONGVARBINARY || javaSqlType == ARRAY || javaSqlType == BLOB || javaSqlType == CLOB;
+    }
+
+    /**
+     * Prints the UTC date and time of the instant into the reusable value for the column.
+     */
+    private static CharSequence printDateTime(final Utf8[] printedValues, final int index, final long millis) {
+        if (!IsoTimestampFormat.isFixedWidth(millis)) {
+            return IsoTimestampFormat.DATE_TIME.print(millis);
+        }
+        final Utf8 utf8 = reusableUtf8(printedValues, index).setByteLength(IsoTimestampFormat.DATE_TIME_LENGTH);
+        IsoTimestampFormat.printDateTime(utf8.getBytes(), 0, millis);
+        return utf8;
+    }
+
+    /**
+     * Prints the UTC time of day of the instant into the reusable value for the column.
+     */
+    private static CharSequence printTime(final Utf8[] printedValues, final int index, final long millis) {
+        final Utf8 utf8 = reusableUtf8(printedValues, index).setByteLength(IsoTimestampFormat.TIME_LENGTH);
+        IsoTimestampFormat.printTime(utf8.getBytes(), 0, millis);
+        return utf8;
+    }
+
+    private static Utf8 reusableUtf8(final Utf8[] printedValues, final int index) {
+        if (printedValues[index] == null) {
+            printedValues[index] = new Utf8(new byte[IsoTimestampFormat.DATE_TIME_LENGTH]);
+        }
+        return printedValues[index];
+    }
+
     public static Schema createSchema(final ResultSet rs) throws SQLException {
         final ResultSetMetaData meta = rs.getMetaData();
         final int nrOfColumns = meta.getColumnCount();
@@ -406,67 +492,6 @@ public class JdbcCommon {
         return builder.endRecord();
     }
 
-    /**
-     * Escapes values in delimited text files.
-     */
-    static class DelimiterEscaper extends CharSequenceTranslator {
-
-        /**
-         * Character for quoting values
-         */
-        private static final char QUOTE = '"';
-
-        /**
-         * String for quoting values
-         */
-        private static final String QUOTE_STR = String.valueOf(QUOTE);
-
-        /**
-         * Character for escaping values
-         */
-        private static final char BACKSLASH = '\\';
-
-        /**
-         * String for escaping values
-         */
-        private static final String BACKSLASH_STR = String.valueOf(BACKSLASH);
-
-        /**
-         * Strings that, if found, require a value to be escaped
-         */
-        private final String[] searchStrings;
-
-        /**
-         * Replacements for the search strings found
-         */
-        private final String[] replacementStrings;
-
-        /**
-         * Constructs a {@code DelimiterEscaper} with the specified delimiter.
-         *
-         * @param delimiter the delimiter
-         */
-        DelimiterEscaper(@Nonnull final String delimiter) {
-            searchStrings = new String[]{delimiter, QUOTE_STR, Character.toString('\n'), Character.toString('\r') };
-            replacementStrings = new String[]{delimiter, BACKSLASH_STR+QUOTE_STR, "\\\\n", "\\\\r"};
-        }
-
-        @Override
-        public int translate(@Nonnull final CharSequence input, final int index, @Nonnull final Writer out) throws IOException {
-            Preconditions.checkState(index == 0, "Unsupported translation index %d", index);
-            String inputString = input.toString();
-            if (StringUtils.containsAny(inputString, searchStrings)) {
-                out.write(QUOTE);
-                out.write(StringUtils.replaceEach(inputString, searchStrings, replacementStrings));
-                out.write(QUOTE);
-            } else {
-                out.write(input.toString());
-            }
-
-            return Character.codePointCount(input, 0, input.length());
-        }
-    }
-
     /**
      * Get schema in the format for setting up the feed table
      * @param schema Avro Schema
@@ -34,11 +34,13 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.util.Date;
+import java.util.List;
 import java.util.TimeZone;
 
 import static com.thinkbiganalytics.nifi.v2.ingest.GetTableData.DATE_TIME_FORMAT;
 import static com.thinkbiganalytics.nifi.v2.ingest.GetTableData.toDate;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  */
@@ -190,4 +192,40 @@ public class GetTableDataSupportTest {
         tableDataSupport.selectIncremental("testTable", new String[]{"col1", "col2"}, "col2", overlapTime, lastLoadDate, backoffTime, GetTableDataSupport.UnitSizes.NONE);
     }
 
+    @Test
+    public void testSelectPartitions() throws Exception {
+        try (Connection con = DriverManager.getConnection("jdbc:h2:mem:get_table_data_partitions")) {
+            try (Statement st = con.createStatement()) {
+                st.execute("CREATE TABLE ORDERS (ID INT, AMOUNT INT)");
+                st.execute("INSERT INTO ORDERS VALUES (NULL, 0)");
+                for (int i = 1; i <= 100; i++) {
+                    st.execute("INSERT INTO ORDERS VALUES (" + i + ", " + i + ")");
+                }
+            }
+
+            GetTableDataSupport support = new GetTableDataSupport(con, 0);
+            List<PartitionRange> ranges = support.selectPartitionRanges("ORDERS", "ID", 4, null, null);
+            assertEquals(4, ranges.size());
+
+            int rows = 0;
+            int total = 0;
+            for (PartitionRange range : ranges) {
+                try (ResultSet rs = support.selectPartition("ORDERS", new String[]{"ID", "AMOUNT"}, "ID", range, null, null)) {
+                    while (rs.next()) {
+                        rows++;
+                        total += rs.getInt(2);
+                    }
+                }
+            }
+            assertEquals(101, rows);
+            assertEquals(5050, total);
+        }
+    }
+
+    @Test
+    public void testSelectPartitionRangesEmptyIncrementalRange() throws Exception {
+        GetTableDataSupport.DateRange range = new GetTableDataSupport.DateRange(testDate, testDate, 0, 0, GetTableDataSupport.UnitSizes.NONE);
+        assertTrue(tableDataSupport.selectPartitionRanges("testTable", "col1", 4, "col2", range).isEmpty());
+    }
+
 }
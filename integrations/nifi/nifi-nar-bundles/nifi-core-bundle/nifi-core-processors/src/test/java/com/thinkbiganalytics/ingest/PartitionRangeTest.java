@@ -0,0 +1,77 @@
+package com.thinkbiganalytics.ingest;
+
+/*-
+ * #%L
+ * thinkbig-nifi-core-processors
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class PartitionRangeTest {
+
+    @Test
+    public void testSplitWholeNumbers() {
+        List<PartitionRange> ranges = PartitionRange.split(1L, 100L, 4);
+        assertEquals(4, ranges.size());
+        assertNull(ranges.get(0).getLowerBound());
+        assertEquals(new BigDecimal(25), ranges.get(0).getUpperBound());
+        assertEquals(new BigDecimal(25), ranges.get(1).getLowerBound());
+        assertEquals(new BigDecimal(50), ranges.get(1).getUpperBound());
+        assertEquals(new BigDecimal(75), ranges.get(3).getLowerBound());
+        assertNull(ranges.get(3).getUpperBound());
+        assertEquals(3, ranges.get(3).getIndex());
+        assertEquals(4, ranges.get(3).getCount());
+    }
+
+    @Test
+    public void testSplitFewerValuesThanPartitions() {
+        List<PartitionRange> ranges = PartitionRange.split(1, 3, 10);
+        assertEquals(2, ranges.size());
+        assertEquals(new BigDecimal(2), ranges.get(0).getUpperBound());
+        assertEquals(new BigDecimal(2), ranges.get(1).getLowerBound());
+        assertEquals(2, ranges.get(0).getCount());
+    }
+
+    @Test
+    public void testSplitDates() {
+        List<PartitionRange> ranges = PartitionRange.split(new Timestamp(0L), new Timestamp(3000L), 3);
+        assertEquals(3, ranges.size());
+        assertEquals(new Timestamp(1000L), ranges.get(1).getLowerBound());
+        assertEquals(new Timestamp(2000L), ranges.get(1).getUpperBound());
+    }
+
+    @Test
+    public void testSplitEmptyTable() {
+        List<PartitionRange> ranges = PartitionRange.split(null, null, 4);
+        assertEquals(1, ranges.size());
+        assertNull(ranges.get(0).getLowerBound());
+        assertNull(ranges.get(0).getUpperBound());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSplitUnsupportedType() {
+        PartitionRange.split("a", "z", 4);
+    }
+}
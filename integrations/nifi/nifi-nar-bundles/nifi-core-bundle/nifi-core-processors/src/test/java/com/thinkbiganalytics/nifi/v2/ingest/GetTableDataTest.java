@@ -291,6 +291,53 @@ public class GetTableDataTest {
                                              + "2|Jon|Stephens|Jon.Stephens@sakilastaff.com|2006-02-15T03:57:16.000Z\n");
     }
 
+    /**
+     * Verify a full load split into partitions.
+     */
+    @Test
+    public void testPartitions() {
+        runner.setProperty(GetTableData.PARTITIONS, "3");
+        runner.setProperty(GetTableData.PARTITION_COLUMN, "id");
+        runner.enqueue(new byte[0]);
+        runner.run();
+
+        // The ids 1 to 5 are split into [..2), [2,3) and [3..); the empty range [2,3) is skipped
+        List<MockFlowFile> flowFiles = runner.getFlowFilesForRelationship(CommonProperties.REL_SUCCESS);
+        Assert.assertEquals(0, runner.getFlowFilesForRelationship(CommonProperties.REL_FAILURE).size());
+        Assert.assertEquals(0, runner.getFlowFilesForRelationship(GetTableData.REL_NO_DATA).size());
+        Assert.assertEquals(2, flowFiles.size());
+        flowFiles.sort((a, b) -> a.getAttribute(GetTableData.FRAGMENT_INDEX).compareTo(b.getAttribute(GetTableData.FRAGMENT_INDEX)));
+
+        for (MockFlowFile flowFile : flowFiles) {
+            Assert.assertEquals("2", flowFile.getAttribute(GetTableData.FRAGMENT_COUNT));
+            Assert.assertEquals(flowFiles.get(0).getAttribute(GetTableData.FRAGMENT_ID), flowFile.getAttribute(GetTableData.FRAGMENT_ID));
+        }
+        Assert.assertEquals("0", flowFiles.get(0).getAttribute(GetTableData.FRAGMENT_INDEX));
+        Assert.assertEquals("1", flowFiles.get(1).getAttribute(GetTableData.FRAGMENT_INDEX));
+        Assert.assertNotNull(flowFiles.get(0).getAttribute(GetTableData.PARTITION_RANGE));
+        Assert.assertNotEquals(flowFiles.get(0).getAttribute(GetTableData.PARTITION_RANGE), flowFiles.get(1).getAttribute(GetTableData.PARTITION_RANGE));
+
+        // Only the first fragment has the header
+        final String header = "id,first_name,last_name,email,last_updated\n";
+        final String range1 = "1,Mike,Hillyer,Mike.Hillyer@sakilastaff.com,2006-02-15T03:57:16.000Z\n";
+        final String range3 = "3,Jon,Stephens,Jon.Stephens@sakilastaff.com,2006-02-15T03:57:16.000Z\n"
+                              + "5,Mary,Smith,Mary.Smith@sakilastaff.com,2006-02-15T03:57:16.000Z\n";
+        final String first = new String(flowFiles.get(0).toByteArray());
+        final String second = new String(flowFiles.get(1).toByteArray());
+        Assert.assertTrue(first.startsWith(header));
+        Assert.assertFalse(second.contains(header));
+        if (first.equals(header + range1)) {
+            Assert.assertEquals("1", flowFiles.get(0).getAttribute(GetTableData.RESULT_ROW_COUNT));
+            Assert.assertEquals(range3, second);
+            Assert.assertEquals("2", flowFiles.get(1).getAttribute(GetTableData.RESULT_ROW_COUNT));
+        } else {
+            Assert.assertEquals(header + range3, first);
+            Assert.assertEquals("2", flowFiles.get(0).getAttribute(GetTableData.RESULT_ROW_COUNT));
+            Assert.assertEquals(range1, second);
+            Assert.assertEquals("1", flowFiles.get(1).getAttribute(GetTableData.RESULT_ROW_COUNT));
+        }
+    }
+
     /**
      * A mock implementation of {@link DBCPService} for unit testing.
      */
@@ -322,6 +369,12 @@ public class GetTableDataTest {
             Mockito.when(statement.executeQuery("SELECT tbl.id,tbl.email FROM empty tbl")).then(invocation -> getEmptyResults());
             Mockito.when(statement.executeQuery("SELECT tbl.id,tbl.first_name,tbl.last_name,tbl.email,tbl.last_updated FROM mytable tbl")).then(invocation -> getSimpleResults());
 
+            Mockito.when(connection.prepareStatement("SELECT MIN(tbl.id), MAX(tbl.id) FROM mytable tbl")).then(invocation -> getPartitionBounds());
+            Mockito.when(connection.prepareStatement(Mockito.startsWith("SELECT tbl.id,tbl.first_name,tbl.last_name,tbl.email,tbl.last_updated FROM mytable tbl WHERE tbl.id")))
+                .then(invocation -> getPartitionResults(invocation.getArgumentAt(0, String.class)));
+            Mockito.when(connection.prepareStatement(Mockito.startsWith("SELECT tbl.id,tbl.first_name,tbl.last_name,tbl.email,tbl.last_updated FROM mytable tbl WHERE (tbl.id IS NULL")))
+                .then(invocation -> getPartitionResults(invocation.getArgumentAt(0, String.class)));
+
             Mockito.when(connection.getMetaData()).thenReturn(databaseMetaData);
             Mockito.when(databaseMetaData.getIdentifierQuoteString()).thenReturn("");
         }
@@ -452,6 +505,52 @@ public class GetTableDataTest {
             return preparedStatement;
         }
 
+        /**
+         * Creates a prepared statement for the minimum and maximum ids.
+         *
+         * @return a new prepared statement
+         * @throws SQLException never
+         */
+        PreparedStatement getPartitionBounds() throws SQLException {
+            final ResultSet results = Mockito.mock(ResultSet.class);
+            Mockito.when(results.next()).thenReturn(true, false);
+            Mockito.when(results.getObject(1)).thenReturn(1);
+            Mockito.when(results.getObject(2)).thenReturn(5);
+
+            final PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+            Mockito.when(preparedStatement.executeQuery()).thenReturn(results);
+            return preparedStatement;
+        }
+
+        /**
+         * Creates a prepared statement for the rows in one range of ids.
+         *
+         * @param sql the query for the range
+         * @return a new prepared statement
+         * @throws SQLException never
+         */
+        PreparedStatement getPartitionResults(@Nonnull final String sql) throws SQLException {
+            final ResultSetMetaData metadata = getSimpleMetadata();
+            final Object[][] rows = new Object[][]{
+                new Object[]{1, "Mike", "Hillyer", "Mike.Hillyer@sakilastaff.com", new Timestamp(1139975836000L)},
+                new Object[]{3, "Jon", "Stephens", "Jon.Stephens@sakilastaff.com", new Timestamp(1139975836000L)},
+                new Object[]{5, "Mary", "Smith", "Mary.Smith@sakilastaff.com", new Timestamp(1139975836000L)}
+            };
+
+            final List<Object> params = Collections.synchronizedList(new LinkedList<>());
+            final PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+            Mockito.doAnswer(invocation -> params.add(invocation.getArgumentAt(1, Object.class))).when(preparedStatement).setObject(Mockito.anyInt(), Mockito.any());
+            Mockito.when(preparedStatement.executeQuery()).then(invocation -> {
+                final double lower = sql.contains("tbl.id >= ?") ? ((Number) params.get(0)).doubleValue() : Double.NEGATIVE_INFINITY;
+                final double upper = sql.endsWith("tbl.id < ?") || sql.endsWith("tbl.id < ?)") ? ((Number) params.get(params.size() - 1)).doubleValue() : Double.POSITIVE_INFINITY;
+                final Object[][] selectedRows = Stream.of(rows).filter(row -> (Integer) row[0] >= lower && (Integer) row[0] < upper).toArray(Object[][]::new);
+                final ResultSet results = getResultSet(metadata, selectedRows);
+                Mockito.when(results.getStatement()).thenReturn(preparedStatement);
+                return results;
+            });
+            return preparedStatement;
+        }
+
         /**
          * Creates a simple result set.
          *
@@ -459,6 +558,23 @@ public class GetTableDataTest {
          * @throws SQLException never
          */
         ResultSet getSimpleResults() throws SQLException {
+            final ResultSetMetaData metadata = getSimpleMetadata();
+
+            final Object[][] rows = new Object[][]{
+                new Object[]{1, "Mike", "Hillyer", "Mike.Hillyer@sakilastaff.com", new Timestamp(1139975836000L)},
+                new Object[]{2, "Jon", "Stephens", "Jon.Stephens@sakilastaff.com", new Timestamp(1139975836000L)}
+            };
+
+            return getResultSet(metadata, rows);
+        }
+
+        /**
+         * Creates the metadata of the simple result set.
+         *
+         * @return new result set metadata
+         * @throws SQLException never
+         */
+        ResultSetMetaData getSimpleMetadata() throws SQLException {
             final ResultSetMetaData metadata = Mockito.mock(ResultSetMetaData.class);
             Mockito.when(metadata.getColumnCount()).thenReturn(5);
             Mockito.when(metadata.getColumnName(1)).thenReturn("id");
@@ -472,13 +588,7 @@ public class GetTableDataTest {
             Mockito.when(metadata.getColumnType(4)).thenReturn(Types.VARCHAR);
             Mockito.when(metadata.getColumnType(5)).thenReturn(Types.TIMESTAMP);
             Mockito.when(metadata.getTableName(Mockito.anyInt())).thenReturn("mytable");
-
-            final Object[][] rows = new Object[][]{
-                new Object[]{1, "Mike", "Hillyer", "Mike.Hillyer@sakilastaff.com", new Timestamp(1139975836000L)},
-                new Object[]{2, "Jon", "Stephens", "Jon.Stephens@sakilastaff.com", new Timestamp(1139975836000L)}
-            };
-
-            return getResultSet(metadata, rows);
+            return metadata;
         }
     }
 
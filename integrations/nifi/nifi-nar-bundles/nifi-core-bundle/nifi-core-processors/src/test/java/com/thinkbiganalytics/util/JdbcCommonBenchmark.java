@@ -0,0 +1,154 @@
+package com.thinkbiganalytics.util;
+
+/*-
+ * #%L
+ * thinkbig-nifi-core-processors
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.apache.avro.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput (rows per second) of {@link JdbcCommon#convertToDelimitedStream} and {@link JdbcCommon#convertToAvroStream}
+ * over a table in an in-memory H2 database.
+ *
+ * Run the main method to execute the benchmark.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JdbcCommonBenchmark {
+
+    private static final int ROWS = 20000;
+
+    private static final String QUERY = "SELECT * FROM orders";
+
+    Connection connection;
+
+    Schema schema;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:jdbc_common_benchmark;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS orders");
+            statement.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, customer VARCHAR(100), notes VARCHAR(200), amount DECIMAL(12,2), quantity INT, "
+                              + "urgent BOOLEAN, order_date DATE, order_time TIME, updated TIMESTAMP)");
+        }
+        long start = Timestamp.valueOf("2017-01-06 11:50:00").getTime();
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO orders VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                long millis = start + i * 61000L;
+                insert.setLong(1, i);
+                insert.setString(2, "customer " + (i % 500));
+                insert.setString(3, (i % 10 == 0) ? "deliver to \"back door\", ring twice" : null);
+                insert.setBigDecimal(4, BigDecimal.valueOf(i * 37L, 2));
+                insert.setInt(5, i % 20);
+                insert.setBoolean(6, i % 3 == 0);
+                insert.setDate(7, new java.sql.Date(millis));
+                insert.setTime(8, new Time(millis));
+                insert.setTimestamp(9, new Timestamp(millis));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(QUERY)) {
+            schema = JdbcCommon.createSchema(rs);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE orders");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long delimited() throws SQLException, IOException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(QUERY)) {
+            return JdbcCommon.convertToDelimitedStream(rs, new CountingOutputStream(), null, ",");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long avro() throws SQLException, IOException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(QUERY)) {
+            return JdbcCommon.convertToAvroStream(rs, new CountingOutputStream(), null, schema);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(JdbcCommonBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * Discards the output so only the conversion is measured.
+     */
+    static class CountingOutputStream extends OutputStream {
+
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -23,7 +23,11 @@ package com.thinkbiganalytics.nifi.provenance.jms;
 import com.thinkbiganalytics.jms.SendJmsMessage;
 import com.thinkbiganalytics.jms.Queues;
 import com.thinkbiganalytics.nifi.provenance.AggregationEventProcessingStats;
+import com.thinkbiganalytics.nifi.provenance.repo.ConfigurationProperties;
 import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTOHolder;
+import com.thinkbiganalytics.nifi.provenance.model.codec.JavaSerializationProvenanceEventCodec;
+import com.thinkbiganalytics.nifi.provenance.model.codec.ProvenanceEventCodec;
+import com.thinkbiganalytics.nifi.provenance.model.codec.ProvenanceEventCodecs;
 import com.thinkbiganalytics.nifi.provenance.model.stats.AggregatedFeedProcessorStatisticsHolder;
 
 import org.slf4j.Logger;
@@ -42,6 +46,7 @@ import javax.annotation.PostConstruct;
  * 2 Queues are used.  The Queue names are constants shared with Kylo Operations Manager found in the {@link Queues} class.
  * Queues.PROVENANCE_EVENT_STATS_QUEUE  is the Statistics Queue name for creating the Summary statistics
  * Queues.FEED_MANAGER_QUEUE is the Batch Provenance Events Queue for creating the Jobs/Steps in Kylo
+ * Queues.FEED_MANAGER_QUEUE2 receives the Batch Provenance Events when they are encoded with one of the binary {@link ProvenanceEventCodecs}
  */
 public class ProvenanceEventJmsWriter {
 
@@ -102,19 +107,30 @@ public class ProvenanceEventJmsWriter {
     }
 
     /**
-     * Send the Batched Events to the JMS Queue {@link Queues#FEED_MANAGER_QUEUE}
+     * Send the Batched Events to the JMS Queue {@link Queues#FEED_MANAGER_QUEUE}.
+     * If a binary codec is configured with the kylo.provenance.jms.codec property the encoded events are sent to {@link Queues#FEED_MANAGER_QUEUE2} instead
      *
      * @param events the events to send to JMS
      */
     public void writeBatchEvents(ProvenanceEventRecordDTOHolder events) {
+        ProvenanceEventCodec codec = ProvenanceEventCodecs.forName(ConfigurationProperties.getInstance().getJmsCodec());
+        String destination = JavaSerializationProvenanceEventCodec.NAME.equals(codec.getName()) ? Queues.FEED_MANAGER_QUEUE : Queues.FEED_MANAGER_QUEUE2;
         try {
             logger.info("SENDING Batch Events to JMS {} ", events);
-            sendJmsMessage.sendSerializedObjectToQueue(Queues.FEED_MANAGER_QUEUE, events);
+            if (Queues.FEED_MANAGER_QUEUE.equals(destination)) {
+                sendJmsMessage.sendSerializedObjectToQueue(destination, events);
+            } else {
+                byte[] payload = codec.encode(events);
+                Map<String, Object> headers = new HashMap<>();
+                headers.put(ProvenanceEventCodecs.CODEC_PROPERTY, codec.getName());
+                sendJmsMessage.sendBytesToQueue(destination, payload, headers);
+                logger.debug("Encoded {} events into {} bytes using the {} codec ", events.getEvents().size(), payload.length, codec.getName());
+            }
             AggregationEventProcessingStats.addBatchEvents(events.getEvents().size());
-            notifySuccess(Queues.FEED_MANAGER_QUEUE, events);
+            notifySuccess(destination, events);
         } catch (Exception e) {
             logger.error("Error sending Batch Events to JMS ", e);
-            notifyError(Queues.FEED_MANAGER_QUEUE, events, e.getMessage());
+            notifyError(destination, events, e.getMessage());
 
         }
     }
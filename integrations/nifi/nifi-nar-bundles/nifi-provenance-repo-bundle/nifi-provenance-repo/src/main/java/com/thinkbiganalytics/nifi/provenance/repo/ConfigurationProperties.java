@@ -20,6 +20,9 @@ package com.thinkbiganalytics.nifi.provenance.repo;
  * #L%
  */
 
+import com.thinkbiganalytics.nifi.provenance.model.codec.JavaSerializationProvenanceEventCodec;
+import com.thinkbiganalytics.nifi.provenance.model.codec.ProvenanceEventCodecs;
+
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +47,12 @@ public class ConfigurationProperties {
     public static final Long DEFAULT_RUN_INTERVAL_MILLIS = 3000L;
     public static final Integer DEFAULT_THROTTLE_STARTING_FEED_FLOWS_THRESHOLD = 15;
     public static final Integer DEFAULT_THROTTLE_STARTING_FEED_FLOWS_TIME_PERIOD_MILLIS = 1000;
+    public static final Integer DEFAULT_INGEST_LOCK_STRIPES = 1;
+    public static final Integer DEFAULT_CHECKPOINT_INTERVAL_SECONDS = 0;
+    public static final String DEFAULT_JMS_CODEC = JavaSerializationProvenanceEventCodec.NAME;
+    public static final Integer DEFAULT_JMS_SEND_QUEUE_SIZE = 10;
+    public static final Integer DEFAULT_MAX_COALESCED_EVENTS = 10000;
+    public static final Integer DEFAULT_FLUSH_BATCH_SIZE = 10000;
 
     public static final Integer DEFAULT_REMOTE_INPUT_PORT_EXPIRE_TIME_SECONDS = 20*1000*60; //20 min
 
@@ -54,6 +63,10 @@ public class ConfigurationProperties {
     public static final String RUN_INTERVAL_KEY = "runInterval";
     public static final String ORPHAN_CHILD_FLOW_FILE_PROCESSORS_KEY="orphanChildFlowFileProcessors";
     public static final String REMOTE_EVENT_EXPIRE_TIME_KEY="remoteEventExpireTime";
+    public static final String INGEST_LOCK_STRIPES_KEY = "ingestLockStripes";
+    public static final String JMS_CODEC_KEY = "jmsCodec";
+    public static final String MAX_COALESCED_EVENTS_KEY = "maxCoalescedEvents";
+    public static final String FLUSH_BATCH_SIZE_KEY = "flushBatchSize";
 
     private Properties properties = new Properties();
 
@@ -65,6 +78,18 @@ public class ConfigurationProperties {
 
     private Integer remoteInputPortExpireTimeSeconds = DEFAULT_REMOTE_INPUT_PORT_EXPIRE_TIME_SECONDS;
 
+    private Integer ingestLockStripes = DEFAULT_INGEST_LOCK_STRIPES;
+
+    private Integer checkpointIntervalSeconds = DEFAULT_CHECKPOINT_INTERVAL_SECONDS;
+
+    private String jmsCodec = DEFAULT_JMS_CODEC;
+
+    private Integer jmsSendQueueSize = DEFAULT_JMS_SEND_QUEUE_SIZE;
+
+    private Integer maxCoalescedEvents = DEFAULT_MAX_COALESCED_EVENTS;
+
+    private Integer flushBatchSize = DEFAULT_FLUSH_BATCH_SIZE;
+
     //JSON MAP of eventType to processors that create children that are removed without provenance.
     private String orphanChildFlowFileProcessorsString;
 
@@ -119,6 +144,12 @@ public class ConfigurationProperties {
         this.throttleStartingFeedFlowsTimePeriodMillis = new Integer(properties.getProperty("kylo.provenance.event.throttle.threshold.time.millis", DEFAULT_THROTTLE_STARTING_FEED_FLOWS_TIME_PERIOD_MILLIS + ""));
         orphanChildFlowFileProcessorsString = properties.getProperty("kylo.provenance.orphan.child.flowfile.processors", DEFAULT_ORPHAN_CHILD_FLOW_FILE_PROCESSORS);
         this.remoteInputPortExpireTimeSeconds = new Integer(properties.getProperty("kylo.provenance.remote.event.expire.time.seconds",DEFAULT_REMOTE_INPUT_PORT_EXPIRE_TIME_SECONDS+""));
+        this.ingestLockStripes = new Integer(properties.getProperty("kylo.provenance.ingest.lock.stripes", DEFAULT_INGEST_LOCK_STRIPES + ""));
+        this.checkpointIntervalSeconds = new Integer(properties.getProperty("kylo.provenance.checkpoint.interval.seconds", DEFAULT_CHECKPOINT_INTERVAL_SECONDS + ""));
+        this.jmsCodec = properties.getProperty("kylo.provenance.jms.codec", DEFAULT_JMS_CODEC);
+        this.jmsSendQueueSize = new Integer(properties.getProperty("kylo.provenance.jms.send.queue.size", DEFAULT_JMS_SEND_QUEUE_SIZE + ""));
+        this.maxCoalescedEvents = new Integer(properties.getProperty("kylo.provenance.jms.max.coalesced.events", DEFAULT_MAX_COALESCED_EVENTS + ""));
+        this.flushBatchSize = new Integer(properties.getProperty("kylo.provenance.flush.batch.size", DEFAULT_FLUSH_BATCH_SIZE + ""));
         //only update this on the initial run.  Any changes will be detected and updated with the ConfigurationPropertiesRefresher
         if(lastModified == null) {
             FeedEventStatistics.getInstance().updateEventTypeProcessorTypeSkipChildren(orphanChildFlowFileProcessorsString);
@@ -152,11 +183,63 @@ public class ConfigurationProperties {
         return remoteInputPortExpireTimeSeconds == null ? DEFAULT_REMOTE_INPUT_PORT_EXPIRE_TIME_SECONDS : remoteInputPortExpireTimeSeconds;
     }
 
+    /**
+     * The number of lock stripes used when adding provenance events.
+     * A value of 1 will process all feeds through a single lock.
+     */
+    public Integer getIngestLockStripes() {
+        return ingestLockStripes == null || ingestLockStripes < 1 ? DEFAULT_INGEST_LOCK_STRIPES : ingestLockStripes;
+    }
+
+    /**
+     * How often the running flow data is checkpointed to the backup location while NiFi is running.
+     * A value of 0 will only write the backup when NiFi shuts down
+     */
+    public Integer getCheckpointIntervalSeconds() {
+        return checkpointIntervalSeconds == null || checkpointIntervalSeconds < 0 ? DEFAULT_CHECKPOINT_INTERVAL_SECONDS : checkpointIntervalSeconds;
+    }
+
+    /**
+     * The name of the codec used to encode the batch events sent to ops manager.
+     * Unknown codecs fall back to java serialization
+     */
+    public String getJmsCodec() {
+        return ProvenanceEventCodecs.isKnown(jmsCodec) ? jmsCodec.trim().toLowerCase() : DEFAULT_JMS_CODEC;
+    }
+
+    /**
+     * The number of gathered batches that can wait to be sent to JMS.
+     * Once full, new batches are coalesced into a single pending batch until the queue has room
+     */
+    public Integer getJmsSendQueueSize() {
+        return jmsSendQueueSize == null || jmsSendQueueSize < 1 ? DEFAULT_JMS_SEND_QUEUE_SIZE : jmsSendQueueSize;
+    }
+
+    /**
+     * The max number of provenance events held in the coalesced batch while JMS is backed up.
+     * Events over this are dropped, but are still counted in the feed statistics
+     */
+    public Integer getMaxCoalescedEvents() {
+        return maxCoalescedEvents == null || maxCoalescedEvents < 0 ? DEFAULT_MAX_COALESCED_EVENTS : maxCoalescedEvents;
+    }
+
+    /**
+     * Gather and send the statistics before the run interval once this many events have been processed.
+     * A value of 0 will only send on the run interval
+     */
+    public Integer getFlushBatchSize() {
+        return flushBatchSize == null || flushBatchSize < 0 ? DEFAULT_FLUSH_BATCH_SIZE : flushBatchSize;
+    }
+
     public void populateChanges(Map<String, PropertyChange> changes, boolean old) {
         changes.computeIfAbsent(BACKUP_LOCATION_KEY, key -> new PropertyChange(key)).setValue(backupLocation, old);
         changes.computeIfAbsent(MAX_FEED_EVENTS_KEY, key -> new PropertyChange(key)).setValue(maxFeedEvents + "", old);
         changes.computeIfAbsent(RUN_INTERVAL_KEY, key -> new PropertyChange(key)).setValue(runInterval + "", old);
         changes.computeIfAbsent(ORPHAN_CHILD_FLOW_FILE_PROCESSORS_KEY,key -> new PropertyChange(key)).setValue(orphanChildFlowFileProcessorsString, old);
+        changes.computeIfAbsent(INGEST_LOCK_STRIPES_KEY, key -> new PropertyChange(key)).setValue(ingestLockStripes + "", old);
+        changes.computeIfAbsent(JMS_CODEC_KEY, key -> new PropertyChange(key)).setValue(jmsCodec, old);
+        changes.computeIfAbsent(MAX_COALESCED_EVENTS_KEY, key -> new PropertyChange(key)).setValue(maxCoalescedEvents + "", old);
+        changes.computeIfAbsent(FLUSH_BATCH_SIZE_KEY, key -> new PropertyChange(key)).setValue(flushBatchSize + "", old);
     }
 
     public Map<String, PropertyChange> refresh() {
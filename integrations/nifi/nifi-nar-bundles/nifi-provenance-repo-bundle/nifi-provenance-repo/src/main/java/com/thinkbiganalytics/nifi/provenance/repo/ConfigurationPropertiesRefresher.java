@@ -60,6 +60,21 @@ public class ConfigurationPropertiesRefresher {
                     FeedStatisticsManager.getInstance().resetMaxEvents(new Integer(maxEvents.getNewValue()));
                     log.info("Reset {} ", maxEvents);
                 }
+                ConfigurationProperties.PropertyChange ingestLockStripes = changes.get(ConfigurationProperties.INGEST_LOCK_STRIPES_KEY);
+                if (ingestLockStripes != null) {
+                    FeedStatisticsManager.getInstance().resetIngestLockStripes(ConfigurationProperties.getInstance().getIngestLockStripes());
+                    log.info("Reset {} ", ingestLockStripes);
+                }
+                ConfigurationProperties.PropertyChange flushBatchSize = changes.get(ConfigurationProperties.FLUSH_BATCH_SIZE_KEY);
+                if (flushBatchSize != null) {
+                    FeedStatisticsManager.getInstance().resetFlushBatchSize(ConfigurationProperties.getInstance().getFlushBatchSize());
+                    log.info("Reset {} ", flushBatchSize);
+                }
+                ConfigurationProperties.PropertyChange maxCoalescedEvents = changes.get(ConfigurationProperties.MAX_COALESCED_EVENTS_KEY);
+                if (maxCoalescedEvents != null) {
+                    FeedStatisticsManager.getInstance().resetMaxCoalescedEvents(ConfigurationProperties.getInstance().getMaxCoalescedEvents());
+                    log.info("Reset {} ", maxCoalescedEvents);
+                }
                 ConfigurationProperties.PropertyChange backupLocation = changes.get(ConfigurationProperties.BACKUP_LOCATION_KEY);
                 if (backupLocation != null) {
                     FeedEventStatistics.getInstance().setBackupLocation(backupLocation.getNewValue());
@@ -29,6 +29,10 @@ import com.google.common.cache.RemovalNotification;
 import com.thinkbiganalytics.json.ObjectMapperSerializer;
 import com.thinkbiganalytics.nifi.provenance.RemoteMessageResponseWithRelatedFlowFiles;
 import com.thinkbiganalytics.nifi.provenance.model.RemoteEventMessageResponse;
+import com.thinkbiganalytics.nifi.provenance.util.EventLongMap;
+import com.thinkbiganalytics.nifi.provenance.util.FlowFileIdMap;
+import com.thinkbiganalytics.nifi.provenance.util.FlowFileLongMap;
+import com.thinkbiganalytics.nifi.provenance.util.PrimitiveKeyedMap;
 import com.thinkbiganalytics.nifi.provenance.util.ProvenanceEventUtil;
 
 import org.apache.commons.io.serialization.ValidatingObjectInputStream;
@@ -39,16 +43,25 @@ import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -58,28 +71,29 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 /**
  * Hold all data about running flows as they pertain to Feeds
  */
-public class FeedEventStatistics implements Serializable {
+public class FeedEventStatistics implements Serializable, FeedEventStatisticsMXBean {
 
     private static final long serialVersionUID = 312709295696295868L;
 
     private static final Logger log = LoggerFactory.getLogger(FeedEventStatistics.class);
 
-    protected Map<String, String> feedFlowFileIdToFeedProcessorId = new ConcurrentHashMap<>();
+    protected Map<String, String> feedFlowFileIdToFeedProcessorId = new FlowFileIdMap();
 
     ////Track feedFlowFile relationships to parent/child flow files for lifetime feed job execution
-    protected Set<String> detailedTrackingFeedFlowFileId = new HashSet<>();
+    protected Set<String> detailedTrackingFeedFlowFileId = ConcurrentHashMap.newKeySet();
 
     /**
      * Map of all the flow files as they pertain to the starting feed flow file
      * Used to expire EventStatistics
      */
-    protected Map<String, String> allFlowFileToFeedFlowFile = new ConcurrentHashMap<>();
+    protected Map<String, String> allFlowFileToFeedFlowFile = new FlowFileIdMap();
 
 
     /**
@@ -113,24 +127,24 @@ public class FeedEventStatistics implements Serializable {
     /**
      * Map of the FlowFile Id to Event Time that is not a drop event
      */
-    protected Map<String, Long> flowFileLastNonDropEventTime = new ConcurrentHashMap<>();
+    protected Map<String, Long> flowFileLastNonDropEventTime = new FlowFileLongMap();
 
     /**
      * Map of the EventId to the duration in millis
      */
-    protected Map<Long, Long> eventDuration = new ConcurrentHashMap<>();
+    protected Map<Long, Long> eventDuration = new EventLongMap();
 
-    protected Map<Long, Long> eventStartTime = new ConcurrentHashMap<>();
+    protected Map<Long, Long> eventStartTime = new EventLongMap();
 
     /**
      * feed flowFile Id to startTime
      */
-    protected Map<String, Long> feedFlowFileStartTime = new ConcurrentHashMap<>();
+    protected Map<String, Long> feedFlowFileStartTime = new FlowFileLongMap();
 
     /**
      * feedFlowFile Id to end time
      */
-    protected Map<String, Long> feedFlowFileEndTime = new ConcurrentHashMap<>();
+    protected Map<String, Long> feedFlowFileEndTime = new FlowFileLongMap();
 
     //Feed Execution tracking
 
@@ -139,7 +153,7 @@ public class FeedEventStatistics implements Serializable {
     /**
      * Set of Event Ids that are events that finish the feed flow execution.  Last Job Event Ids
      */
-    protected Set<Long> eventsThatCompleteFeedFlow = new HashSet<>();
+    protected Set<Long> eventsThatCompleteFeedFlow = ConcurrentHashMap.newKeySet();
 
     /**
      * Count of how many flow files are still processing for a given feedFlowFile execution
@@ -168,7 +182,7 @@ public class FeedEventStatistics implements Serializable {
     /**
      * Count of the flows running by feed processor
      */
-    protected Set<String> changedFeedProcessorRunningFeedFlows = new HashSet<>();
+    protected Set<String> changedFeedProcessorRunningFeedFlows = ConcurrentHashMap.newKeySet();
 
     protected AtomicBoolean feedProcessorRunningFeedFlowsChanged = new AtomicBoolean(false);
 
@@ -198,6 +212,11 @@ public class FeedEventStatistics implements Serializable {
      */
     protected List<String> streamingFeedProcessorIdsList = new ArrayList<>();
 
+    /**
+     * Writes the backups, keeping the interned starting feed flow files between them
+     */
+    private final FeedEventStatisticsCheckpoint checkpoint = new FeedEventStatisticsCheckpoint();
+
 
     private static final FeedEventStatistics instance = new FeedEventStatistics();
 
@@ -248,7 +267,41 @@ public class FeedEventStatistics implements Serializable {
         return backup(getBackupLocation());
     }
 
-    public boolean backup(String location) {
+    /**
+     * Write a {@link FeedEventStatisticsCheckpoint} of the running flow data to the location.
+     * The checkpoint is written to a temporary file and then moved into place so a crash during the write will leave the previous checkpoint intact.
+     *
+     * @param location the file to write
+     * @return true if successful, false if not
+     */
+    public synchronized boolean backup(String location) {
+        File tmp = new File(location + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp), 64 * 1024))) {
+            //cleanup any files that should be removed before backup
+            detailedTrackingFlowFilesToDelete.cleanUp();
+
+            checkpoint.write(this, out);
+        } catch (Exception ex) {
+            log.error("Error backing up feed event statistics to {}. {} ", location, ex.getMessage(), ex);
+            return false;
+        }
+        try {
+            Files.move(tmp.toPath(), Paths.get(location), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (Exception ex) {
+            log.error("Error moving feed event statistics backup {} to {}. {} ", tmp, location, ex.getMessage(), ex);
+        }
+        return false;
+    }
+
+    /**
+     * Write the backup using Java serialization of the {@link FeedEventStatisticsDataV3} object.
+     * This is the format used prior to the {@link FeedEventStatisticsCheckpoint}
+     *
+     * @param location the file to write
+     * @return true if successful, false if not
+     */
+    public boolean backupSerialized(String location) {
 
         try (FileOutputStream fos = new FileOutputStream(location);
              GZIPOutputStream gz = new GZIPOutputStream(fos);
@@ -270,17 +323,26 @@ public class FeedEventStatistics implements Serializable {
         return loadBackup(getBackupLocation());
     }
 
+    /**
+     * Load the backup from the location.
+     * Both the {@link FeedEventStatisticsCheckpoint} and the older serialized {@link FeedEventStatisticsData} formats are supported.
+     *
+     * @param location the file to load
+     * @return true if loaded, false if not
+     */
     public boolean loadBackup(String location) {
-        FeedEventStatisticsData inStats = null;
-        try (FileInputStream fin = new FileInputStream(location);
-             GZIPInputStream gis = new GZIPInputStream(fin);
-             ValidatingObjectInputStream ois = new ValidatingObjectInputStream(gis)) {
-
-            ois.accept(FeedEventStatisticsDataV3.class, FeedEventStatisticsDataV2.class, FeedEventStatisticsData.class);
-            ois.accept("java.lang.*", "java.util.*", "[Ljava.lang.*", "[Ljava.util.*");
-            inStats = (FeedEventStatisticsData) ois.readObject();
-            ois.close();
-
+        boolean success = false;
+        try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(location), 64 * 1024)) {
+            byte[] header = new byte[4];
+            in.mark(header.length);
+            int read = in.read(header);
+            in.reset();
+            if (read == header.length && FeedEventStatisticsCheckpoint.isCheckpoint(header)) {
+                new FeedEventStatisticsCheckpoint().read(this, new DataInputStream(in));
+                success = true;
+            } else {
+                success = loadSerializedBackup(in);
+            }
         } catch (Exception ex) {
             if (!(ex instanceof FileNotFoundException)) {
                 log.error("Unable to load feed event statistics backup from {}. {} ", location, ex.getMessage(), ex);
@@ -288,8 +350,7 @@ public class FeedEventStatistics implements Serializable {
                 log.info("Kylo feed event statistics backup file not found. Not loading backup from {}. ", location);
             }
         }
-        if (inStats != null) {
-            boolean success = this.load(inStats);
+        if (success) {
             //DELETE backup
             if (deleteBackupAfterLoad) {
                 try {
@@ -308,6 +369,17 @@ public class FeedEventStatistics implements Serializable {
         return false;
     }
 
+    private boolean loadSerializedBackup(InputStream in) throws IOException, ClassNotFoundException {
+        try (GZIPInputStream gis = new GZIPInputStream(in);
+             ValidatingObjectInputStream ois = new ValidatingObjectInputStream(gis)) {
+
+            ois.accept(FeedEventStatisticsDataV3.class, FeedEventStatisticsDataV2.class, FeedEventStatisticsData.class);
+            ois.accept("java.lang.*", "java.util.*", "[Ljava.lang.*", "[Ljava.util.*");
+            FeedEventStatisticsData inStats = (FeedEventStatisticsData) ois.readObject();
+            return inStats != null && this.load(inStats);
+        }
+    }
+
 
     public void clear() {
         this.feedFlowFileIdToFeedProcessorId.clear();
@@ -412,9 +484,7 @@ public class FeedEventStatistics implements Serializable {
                 if(StringUtils.isNotBlank(startingFlowFile)){
                     //remove it from the remote map
                     allFlowFileToFeedFlowFile.put(event.getFlowFileUuid(),startingFlowFile);
-                    if (feedFlowProcessing.containsKey(startingFlowFile)) {
-                        feedFlowProcessing.get(startingFlowFile).incrementAndGet();
-                    }
+                    incrementFeedFlowProcessing(startingFlowFile);
                     log.info("Received a Remote Event {}, coming from a previous flowfile {}.  Assigning relationship ",event.getFlowFileUuid(),sourceSystemFlowFileIdentifier);
                     result.setStartingFlowFileId(startingFlowFile);
                     result.setRegisteredStartingEvent(true);
@@ -452,6 +522,57 @@ public class FeedEventStatistics implements Serializable {
         return feedProcessorRunningFeedFlowsChanged.get();
     }
 
+    /**
+     * Reset the running feed flows changed flag, returning the previous value.
+     * Unlike {@link #markFeedProcessorRunningFeedFlowsUnchanged()} this is safe to call while events are being added
+     *
+     * @return true if the running feed flows changed since the last call
+     */
+    public boolean getAndMarkFeedProcessorRunningFeedFlowsUnchanged() {
+        return feedProcessorRunningFeedFlowsChanged.getAndSet(false);
+    }
+
+    /**
+     * Remove and return the running flow counts for the feed processors that changed since the last call.
+     * Feed processors that change while draining will be returned on the next call
+     *
+     * @return map of the feed processor id to the count of running feed flows
+     */
+    public Map<String, Long> drainRunningFeedFlowsChanged() {
+        Map<String, Long> changed = new HashMap<>();
+        Iterator<String> iterator = changedFeedProcessorRunningFeedFlows.iterator();
+        while (iterator.hasNext()) {
+            String processorId = iterator.next();
+            iterator.remove();
+            AtomicLong runningCount = feedProcessorRunningFeedFlows.get(processorId);
+            changed.put(processorId, runningCount != null ? runningCount.get() : 0L);
+        }
+        return changed;
+    }
+
+    /**
+     * Resolve the starting feed flow file for an event before it is processed.
+     * Events that start a feed flow resolve to their own flow file, otherwise the flow file or its parents are looked up
+     *
+     * @param event the event
+     * @return the starting feed flow file id, or the event flow file id if it is not yet related to a feed flow
+     */
+    public String resolveFeedFlowFileId(ProvenanceEventRecord event) {
+        String feedFlowFileId = null;
+        if (ProvenanceEventUtil.isStartingFeedFlow(event)) {
+            String sourceSystemFlowFileIdentifier = ProvenanceEventUtil.parseSourceSystemFlowFileIdentifier(event);
+            if (sourceSystemFlowFileIdentifier != null) {
+                feedFlowFileId = allFlowFileToFeedFlowFile.get(sourceSystemFlowFileIdentifier);
+            }
+        } else {
+            feedFlowFileId = allFlowFileToFeedFlowFile.get(event.getFlowFileUuid());
+            if (feedFlowFileId == null && hasParents(event)) {
+                feedFlowFileId = event.getParentUuids().stream().map(parent -> allFlowFileToFeedFlowFile.get(parent)).filter(id -> id != null).findFirst().orElse(null);
+            }
+        }
+        return feedFlowFileId != null ? feedFlowFileId : event.getFlowFileUuid();
+    }
+
     /**
      * attach the event that has parents/children to a tracking feedflowfile (if possible)
      * This is for the Many to one case
@@ -490,10 +611,7 @@ public class FeedEventStatistics implements Serializable {
                 startingFlowFile = determineParentFeedFlow(event);
                 if (startingFlowFile != null) {
                     allFlowFileToFeedFlowFile.put(event.getFlowFileUuid(), startingFlowFile);
-                    if (feedFlowProcessing.containsKey(startingFlowFile)) {
-                        feedFlowProcessing.get(startingFlowFile).incrementAndGet();
-                        trackingEventFlowFile = true;
-                    }
+                    trackingEventFlowFile = incrementFeedFlowProcessing(startingFlowFile);
                 }
             }
 
@@ -505,8 +623,8 @@ public class FeedEventStatistics implements Serializable {
                 //Add children flow files to active processing
                 //skip this add if we already did it while iterating the parents.
                 //NiFi will create a new Flow File for this event (event.getFlowFileId) and it will also be part of the children
-                if (feedFlowProcessing.containsKey(startingFlowFile) && (!trackingEventFlowFile || (trackingEventFlowFile && !child.equalsIgnoreCase(event.getFlowFileUuid())))) {
-                    feedFlowProcessing.get(startingFlowFile).incrementAndGet();
+                if (!trackingEventFlowFile || !child.equalsIgnoreCase(event.getFlowFileUuid())) {
+                    incrementFeedFlowProcessing(startingFlowFile);
                 }
                 flowFileLastNonDropEventTime.put(child, event.getEventTime());
             }
@@ -598,6 +716,7 @@ public class FeedEventStatistics implements Serializable {
         return false;
     }
 
+    @Override
     public Long getSkippedEvents() {
         return skippedEvents.get();
     }
@@ -722,14 +841,43 @@ public class FeedEventStatistics implements Serializable {
         String feedProcessor = feedFlowFileIdToFeedProcessorId.get(feedFlowFile);
         if (feedProcessor != null) {
             AtomicLong runningCount = feedProcessorRunningFeedFlows.get(feedProcessor);
-            if (runningCount != null && runningCount.get() >= 1) {
-                runningCount.decrementAndGet();
+            //the count is shared by the feed flows in every stripe so only decrement it if it is still positive when updated
+            if (runningCount != null && runningCount.getAndUpdate(count -> count >= 1 ? count - 1 : count) >= 1) {
                 feedProcessorRunningFeedFlowsChanged.set(true);
                 changedFeedProcessorRunningFeedFlows.add(feedProcessor);
             }
         }
     }
 
+    /**
+     * Add a flow file to the active processing count of a feed flow, if the feed flow is being tracked
+     *
+     * @param feedFlowFile the starting feed flow file id
+     * @return true if the feed flow is being tracked and its count was incremented
+     */
+    private boolean incrementFeedFlowProcessing(String feedFlowFile) {
+        return feedFlowProcessing.computeIfPresent(feedFlowFile, (flowFileId, activeCounts) -> {
+            activeCounts.incrementAndGet();
+            return activeCounts;
+        }) != null;
+    }
+
+    /**
+     * Remove a flow file from the active processing count of a feed flow.
+     * The count is updated while holding the map entry so only one event will see the feed flow finish
+     *
+     * @param feedFlowFile the starting feed flow file id
+     * @return true if this call finished the feed flow
+     */
+    private boolean decrementFeedFlowProcessing(String feedFlowFile) {
+        AtomicBoolean finished = new AtomicBoolean(false);
+        feedFlowProcessing.computeIfPresent(feedFlowFile, (flowFileId, activeCounts) -> {
+            finished.set(activeCounts.decrementAndGet() == 0);
+            return activeCounts;
+        });
+        return finished.get();
+    }
+
     private void clearMapsForFeedFlowFile(String feedFlowFile) {
         if (feedFlowFile != null) {
             detailedTrackingFeedFlowFileId.remove(feedFlowFile);
@@ -808,10 +956,13 @@ public class FeedEventStatistics implements Serializable {
         String feedFlowFileId = allFlowFileToFeedFlowFile.get(event.getFlowFileUuid());
         if (isTrackingDetails(event.getFlowFileUuid()) && feedFlowFileId != null && ProvenanceEventType.DROP.equals(event.getEventType())) {
             //get the feed flow fileId for this event
-            AtomicInteger activeCounts = feedFlowProcessing.get(feedFlowFileId);
-            if (activeCounts != null) {
-                return activeCounts.get() == 1;
-            }
+            //read the count while holding the map entry so a concurrent increment or decrement is not interleaved with the check
+            AtomicBoolean lastEvent = new AtomicBoolean(false);
+            feedFlowProcessing.computeIfPresent(feedFlowFileId, (flowFileId, activeCounts) -> {
+                lastEvent.set(activeCounts.get() == 1);
+                return activeCounts;
+            });
+            return lastEvent.get();
         }
         return false;
     }
@@ -821,16 +972,11 @@ public class FeedEventStatistics implements Serializable {
         String feedFlowFileId = allFlowFileToFeedFlowFile.get(event.getFlowFileUuid());
         if (feedFlowFileId != null && ProvenanceEventType.DROP.equals(event.getEventType())) {
             //get the feed flow fileId for this event
-            AtomicInteger activeCounts = feedFlowProcessing.get(feedFlowFileId);
-            if (activeCounts != null) {
-                feedFlowProcessing.get(feedFlowFileId).decrementAndGet();
-                if (activeCounts.get() <= 0) {
-                    //Feed is finished
-                    eventsThatCompleteFeedFlow.add(eventId);
-                    feedFlowFileEndTime.put(feedFlowFileId, event.getEventTime());
-                    decrementRunningProcessorFeedFlows(feedFlowFileId);
-                }
-
+            if (decrementFeedFlowProcessing(feedFlowFileId)) {
+                //Feed is finished
+                eventsThatCompleteFeedFlow.add(eventId);
+                feedFlowFileEndTime.put(feedFlowFileId, event.getEventTime());
+                decrementRunningProcessorFeedFlows(feedFlowFileId);
             }
 
         }
@@ -847,6 +993,29 @@ public class FeedEventStatistics implements Serializable {
         checkAndClear(event, eventId);
     }
 
+    /**
+     * @return the number of flow files being tracked
+     */
+    @Override
+    public int getTrackedFlowFiles() {
+        return allFlowFileToFeedFlowFile.size();
+    }
+
+    /**
+     * Estimate the heap used by the flow file tracking maps.
+     * Only the primitive keyed maps are measured, the remaining maps are keyed by the starting feed flow file and are comparatively small
+     *
+     * @return the estimated bytes used
+     */
+    @Override
+    public long getEstimatedTrackingBytes() {
+        return Stream.of(feedFlowFileIdToFeedProcessorId, allFlowFileToFeedFlowFile, flowFileLastNonDropEventTime, eventDuration, eventStartTime, feedFlowFileStartTime,
+                                          feedFlowFileEndTime)
+            .filter(map -> map instanceof PrimitiveKeyedMap)
+            .mapToLong(map -> ((PrimitiveKeyedMap) map).estimatedBytes())
+            .sum();
+    }
+
     public void setDeleteBackupAfterLoad(boolean deleteBackupAfterLoad) {
         this.deleteBackupAfterLoad = deleteBackupAfterLoad;
     }
@@ -858,6 +1027,7 @@ public class FeedEventStatistics implements Serializable {
         sb.append(", allFlowFileToFeedFlowFile=").append(allFlowFileToFeedFlowFile.size());
         sb.append(", feedFlowProcessing=").append(feedFlowProcessing.size());
         sb.append(", skippedEvents=").append(skippedEvents);
+        sb.append(", estimatedTrackingBytes=").append(getEstimatedTrackingBytes());
         sb.append('}');
         return sb.toString();
     }
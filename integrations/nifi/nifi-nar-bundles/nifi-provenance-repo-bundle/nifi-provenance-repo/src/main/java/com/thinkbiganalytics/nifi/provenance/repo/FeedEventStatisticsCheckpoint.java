@@ -0,0 +1,364 @@
+package com.thinkbiganalytics.nifi.provenance.repo;
+
+/*-
+ * #%L
+ * thinkbig-nifi-provenance-repo
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streaming binary checkpoint of the {@link FeedEventStatistics} tracking maps.
+ *
+ * The checkpoint starts with a magic number and schema version followed by a section per map.
+ * Each section is written as blocks of entries, each block prefixed with its entry count and the section ended by an empty block.
+ * This allows the maps to be written while events are still being processed.
+ * Flow file ids are written as two longs when they are UUIDs, and the starting feed flow file ids are written once and referenced by index.
+ *
+ * The table of starting feed flow file ids is kept between writes so each checkpoint only interns the feed flow files started since the last one.
+ * The slots of feed flow files that have completed are written as null and reused by later feed flow files.
+ * A single instance should be used to checkpoint a single {@link FeedEventStatistics}, one write at a time.
+ *
+ * Loading reads each entry straight into the {@link FeedEventStatistics} maps without building an intermediate data object.
+ */
+public class FeedEventStatisticsCheckpoint {
+
+    /**
+     * "KFES"
+     */
+    public static final int MAGIC = 0x4B464553;
+
+    public static final int VERSION = 1;
+
+    private static final int BLOCK_SIZE = 1024;
+
+    private static final byte ID_NULL = 0;
+    private static final byte ID_UUID = 1;
+    private static final byte ID_STRING = 2;
+
+    private static final byte SECTION_END = 0;
+    private static final byte SECTION_FEED_FLOW_FILES = 1;
+    private static final byte SECTION_FEED_FLOW_FILE_TO_FEED_PROCESSOR = 2;
+    private static final byte SECTION_DETAILED_TRACKING = 3;
+    private static final byte SECTION_ALL_FLOW_FILE_TO_FEED_FLOW_FILE = 4;
+    private static final byte SECTION_FLOW_FILE_LAST_NON_DROP_EVENT_TIME = 5;
+    private static final byte SECTION_EVENT_DURATION = 6;
+    private static final byte SECTION_EVENT_START_TIME = 7;
+    private static final byte SECTION_FEED_FLOW_FILE_START_TIME = 8;
+    private static final byte SECTION_FEED_FLOW_FILE_END_TIME = 9;
+    private static final byte SECTION_EVENTS_THAT_COMPLETE_FEED_FLOW = 10;
+    private static final byte SECTION_FEED_FLOW_PROCESSING = 11;
+    private static final byte SECTION_FEED_FLOW_FILE_FAILURE_COUNT = 12;
+    private static final byte SECTION_SKIPPED_EVENTS = 13;
+
+    /**
+     * Index of each starting feed flow file id in {@link #feedFlowFiles}
+     */
+    private final Map<String, Integer> feedFlowFileIndex = new HashMap<>();
+
+    /**
+     * The interned starting feed flow file ids, by index.  Null for a free slot
+     */
+    private final List<String> feedFlowFiles = new ArrayList<>();
+
+    /**
+     * The slots of {@link #feedFlowFiles} that are free to be reused
+     */
+    private final BitSet freeFeedFlowFileSlots = new BitSet();
+
+    /**
+     * The slots of {@link #feedFlowFiles} referenced by the statistics being written
+     */
+    private final BitSet liveFeedFlowFileSlots = new BitSet();
+
+    /**
+     * Writes a single entry of a section
+     */
+    private interface EntryWriter<T> {
+
+        void write(DataOutputStream out, T entry) throws IOException;
+    }
+
+    /**
+     * Reads a single entry of a section
+     */
+    private interface EntryReader {
+
+        void read(DataInputStream in) throws IOException;
+    }
+
+    /**
+     * Check if the stream starts with the checkpoint magic number
+     *
+     * @param header the first 4 bytes of the stream
+     */
+    public static boolean isCheckpoint(byte[] header) {
+        return header != null && header.length >= 4 && ((header[0] & 0xFF) << 24 | (header[1] & 0xFF) << 16 | (header[2] & 0xFF) << 8 | (header[3] & 0xFF)) == MAGIC;
+    }
+
+    /**
+     * Write the statistics to the stream
+     *
+     * @param stats the statistics to write
+     * @param out   the stream to write to
+     */
+    public void write(FeedEventStatistics stats, DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+
+        //intern the starting feed flow files so they are written once, and free those no longer referenced
+        liveFeedFlowFileSlots.clear();
+        stats.allFlowFileToFeedFlowFile.values().forEach(feedFlowFileId -> liveFeedFlowFileSlots.set(intern(feedFlowFileId)));
+        releaseFeedFlowFiles();
+
+        writeSection(out, SECTION_FEED_FLOW_FILES, feedFlowFiles, this::writeId);
+        writeSection(out, SECTION_FEED_FLOW_FILE_TO_FEED_PROCESSOR, stats.feedFlowFileIdToFeedProcessorId.entrySet(), (o, e) -> {
+            writeId(o, e.getKey());
+            writeId(o, e.getValue());
+        });
+        writeSection(out, SECTION_DETAILED_TRACKING, stats.detailedTrackingFeedFlowFileId, this::writeId);
+        writeSection(out, SECTION_ALL_FLOW_FILE_TO_FEED_FLOW_FILE, stats.allFlowFileToFeedFlowFile.entrySet(), (o, e) -> {
+            Integer index = feedFlowFileIndex.get(e.getValue());
+            writeId(o, e.getKey());
+            if (index != null) {
+                o.writeInt(index);
+            } else {
+                //added after the feed flow files were interned
+                o.writeInt(-1);
+                writeId(o, e.getValue());
+            }
+        });
+        writeSection(out, SECTION_FLOW_FILE_LAST_NON_DROP_EVENT_TIME, stats.flowFileLastNonDropEventTime.entrySet(), this::writeIdToLong);
+        writeSection(out, SECTION_EVENT_DURATION, stats.eventDuration.entrySet(), this::writeLongToLong);
+        writeSection(out, SECTION_EVENT_START_TIME, stats.eventStartTime.entrySet(), this::writeLongToLong);
+        writeSection(out, SECTION_FEED_FLOW_FILE_START_TIME, stats.feedFlowFileStartTime.entrySet(), this::writeIdToLong);
+        writeSection(out, SECTION_FEED_FLOW_FILE_END_TIME, stats.feedFlowFileEndTime.entrySet(), this::writeIdToLong);
+        writeSection(out, SECTION_EVENTS_THAT_COMPLETE_FEED_FLOW, stats.eventsThatCompleteFeedFlow, DataOutputStream::writeLong);
+        writeSection(out, SECTION_FEED_FLOW_PROCESSING, stats.feedFlowProcessing.entrySet(), this::writeIdToCount);
+        writeSection(out, SECTION_FEED_FLOW_FILE_FAILURE_COUNT, stats.feedFlowFileFailureCount.entrySet(), this::writeIdToCount);
+        out.writeByte(SECTION_SKIPPED_EVENTS);
+        out.writeLong(stats.skippedEvents.get());
+        out.writeByte(SECTION_END);
+        out.flush();
+    }
+
+    /**
+     * Read a checkpoint from the stream into the statistics.
+     *
+     * @param stats the statistics to load into
+     * @param in    the stream to read
+     */
+    public void read(FeedEventStatistics stats, DataInputStream in) throws IOException {
+        int magic = in.readInt();
+        if (magic != MAGIC) {
+            throw new IOException("Not a feed event statistics checkpoint");
+        }
+        int version = in.readInt();
+        if (version > VERSION) {
+            throw new IOException("Unsupported feed event statistics checkpoint version " + version + ". Supported up to version " + VERSION);
+        }
+        List<String> feedFlowFiles = new ArrayList<>();
+
+        byte section = in.readByte();
+        while (section != SECTION_END) {
+            switch (section) {
+                case SECTION_FEED_FLOW_FILES:
+                    readSection(in, i -> feedFlowFiles.add(readId(i)));
+                    break;
+                case SECTION_FEED_FLOW_FILE_TO_FEED_PROCESSOR:
+                    readSection(in, i -> stats.feedFlowFileIdToFeedProcessorId.put(readId(i), readId(i)));
+                    break;
+                case SECTION_DETAILED_TRACKING:
+                    readSection(in, i -> stats.detailedTrackingFeedFlowFileId.add(readId(i)));
+                    break;
+                case SECTION_ALL_FLOW_FILE_TO_FEED_FLOW_FILE:
+                    readSection(in, i -> {
+                        String flowFileId = readId(i);
+                        int index = i.readInt();
+                        stats.allFlowFileToFeedFlowFile.put(flowFileId, index >= 0 ? feedFlowFiles.get(index) : readId(i));
+                    });
+                    break;
+                case SECTION_FLOW_FILE_LAST_NON_DROP_EVENT_TIME:
+                    readSection(in, i -> stats.flowFileLastNonDropEventTime.put(readId(i), i.readLong()));
+                    break;
+                case SECTION_EVENT_DURATION:
+                    readSection(in, i -> stats.eventDuration.put(i.readLong(), i.readLong()));
+                    break;
+                case SECTION_EVENT_START_TIME:
+                    readSection(in, i -> stats.eventStartTime.put(i.readLong(), i.readLong()));
+                    break;
+                case SECTION_FEED_FLOW_FILE_START_TIME:
+                    readSection(in, i -> stats.feedFlowFileStartTime.put(readId(i), i.readLong()));
+                    break;
+                case SECTION_FEED_FLOW_FILE_END_TIME:
+                    readSection(in, i -> stats.feedFlowFileEndTime.put(readId(i), i.readLong()));
+                    break;
+                case SECTION_EVENTS_THAT_COMPLETE_FEED_FLOW:
+                    readSection(in, i -> stats.eventsThatCompleteFeedFlow.add(i.readLong()));
+                    break;
+                case SECTION_FEED_FLOW_PROCESSING:
+                    readSection(in, i -> stats.feedFlowProcessing.put(readId(i), new AtomicInteger(i.readInt())));
+                    break;
+                case SECTION_FEED_FLOW_FILE_FAILURE_COUNT:
+                    readSection(in, i -> stats.feedFlowFileFailureCount.put(readId(i), new AtomicInteger(i.readInt())));
+                    break;
+                case SECTION_SKIPPED_EVENTS:
+                    stats.skippedEvents.set(in.readLong());
+                    break;
+                default:
+                    throw new IOException("Unknown feed event statistics checkpoint section " + section);
+            }
+            section = in.readByte();
+        }
+    }
+
+    /**
+     * @return the index of the starting feed flow file, adding it to the first free slot if it is not yet interned
+     */
+    private int intern(String feedFlowFileId) {
+        Integer index = feedFlowFileIndex.get(feedFlowFileId);
+        if (index == null) {
+            int slot = freeFeedFlowFileSlots.nextSetBit(0);
+            if (slot >= 0) {
+                freeFeedFlowFileSlots.clear(slot);
+                feedFlowFiles.set(slot, feedFlowFileId);
+            } else {
+                slot = feedFlowFiles.size();
+                feedFlowFiles.add(feedFlowFileId);
+            }
+            index = slot;
+            feedFlowFileIndex.put(feedFlowFileId, index);
+        }
+        return index;
+    }
+
+    /**
+     * Free the slots of the interned feed flow files that are no longer referenced
+     */
+    private void releaseFeedFlowFiles() {
+        for (int slot = liveFeedFlowFileSlots.nextClearBit(0); slot < feedFlowFiles.size(); slot = liveFeedFlowFileSlots.nextClearBit(slot + 1)) {
+            String feedFlowFileId = feedFlowFiles.get(slot);
+            if (feedFlowFileId != null) {
+                feedFlowFileIndex.remove(feedFlowFileId);
+                feedFlowFiles.set(slot, null);
+                freeFeedFlowFileSlots.set(slot);
+            }
+        }
+    }
+
+    private <T> void writeSection(DataOutputStream out, byte section, Collection<T> entries, EntryWriter<T> writer) throws IOException {
+        out.writeByte(section);
+        List<T> block = new ArrayList<>(BLOCK_SIZE);
+        Iterator<T> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            block.add(iterator.next());
+            if (block.size() == BLOCK_SIZE || !iterator.hasNext()) {
+                out.writeInt(block.size());
+                for (T entry : block) {
+                    writer.write(out, entry);
+                }
+                block.clear();
+            }
+        }
+        out.writeInt(0);
+    }
+
+    private void readSection(DataInputStream in, EntryReader reader) throws IOException {
+        int count = in.readInt();
+        while (count > 0) {
+            for (int i = 0; i < count; i++) {
+                reader.read(in);
+            }
+            count = in.readInt();
+        }
+    }
+
+    private void writeIdToLong(DataOutputStream out, Map.Entry<String, Long> entry) throws IOException {
+        writeId(out, entry.getKey());
+        out.writeLong(entry.getValue());
+    }
+
+    private void writeLongToLong(DataOutputStream out, Map.Entry<Long, Long> entry) throws IOException {
+        out.writeLong(entry.getKey());
+        out.writeLong(entry.getValue());
+    }
+
+    private void writeIdToCount(DataOutputStream out, Map.Entry<String, AtomicInteger> entry) throws IOException {
+        writeId(out, entry.getKey());
+        out.writeInt(entry.getValue().get());
+    }
+
+    /**
+     * Write the id as two longs if it is a UUID, otherwise as a string
+     */
+    void writeId(DataOutputStream out, String id) throws IOException {
+        if (id == null) {
+            out.writeByte(ID_NULL);
+            return;
+        }
+        UUID uuid = toUuid(id);
+        if (uuid != null) {
+            out.writeByte(ID_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else {
+            out.writeByte(ID_STRING);
+            out.writeUTF(id);
+        }
+    }
+
+    String readId(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case ID_NULL:
+                return null;
+            case ID_UUID:
+                return new UUID(in.readLong(), in.readLong()).toString();
+            case ID_STRING:
+                return in.readUTF();
+            default:
+                throw new IOException("Unknown id type " + type);
+        }
+    }
+
+    /**
+     * @return the UUID if the id will be written back out exactly as it was read, otherwise null
+     */
+    private UUID toUuid(String id) {
+        if (id.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
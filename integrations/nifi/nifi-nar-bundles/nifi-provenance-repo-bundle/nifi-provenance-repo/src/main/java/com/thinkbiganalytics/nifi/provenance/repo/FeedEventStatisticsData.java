@@ -107,14 +107,15 @@ public class FeedEventStatisticsData implements Serializable {
 
 
     public FeedEventStatisticsData(FeedEventStatistics other) {
-        this.feedFlowFileIdToFeedProcessorId = other.feedFlowFileIdToFeedProcessorId;
+        //copy the primitive keyed maps so the data can be serialized
+        this.feedFlowFileIdToFeedProcessorId = new ConcurrentHashMap<>(other.feedFlowFileIdToFeedProcessorId);
         this.detailedTrackingFeedFlowFileId = other.detailedTrackingFeedFlowFileId;
-        this.allFlowFileToFeedFlowFile = other.allFlowFileToFeedFlowFile;
-        this.flowFileLastNonDropEventTime = other.flowFileLastNonDropEventTime;
-        this.eventDuration = other.eventDuration;
-        this.eventStartTime = other.eventStartTime;
-        this.feedFlowFileStartTime = other.feedFlowFileStartTime;
-        this.feedFlowFileEndTime = other.feedFlowFileEndTime;
+        this.allFlowFileToFeedFlowFile = new ConcurrentHashMap<>(other.allFlowFileToFeedFlowFile);
+        this.flowFileLastNonDropEventTime = new ConcurrentHashMap<>(other.flowFileLastNonDropEventTime);
+        this.eventDuration = new ConcurrentHashMap<>(other.eventDuration);
+        this.eventStartTime = new ConcurrentHashMap<>(other.eventStartTime);
+        this.feedFlowFileStartTime = new ConcurrentHashMap<>(other.feedFlowFileStartTime);
+        this.feedFlowFileEndTime = new ConcurrentHashMap<>(other.feedFlowFileEndTime);
         this.eventsThatCompleteFeedFlow = other.eventsThatCompleteFeedFlow;
         this.feedFlowProcessing = other.feedFlowProcessing;
         this.skippedEvents = other.skippedEvents;
@@ -20,27 +20,25 @@ package com.thinkbiganalytics.nifi.provenance.repo;
  * #L%
  */
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.BlockingQueue;
-
 /**
- * Queue to drain and send to ops Manager
+ * JMX gauges for the flow file tracking data held by the {@link FeedEventStatistics}
  */
-public class JmsSenderConsumer implements Runnable {
-
-    private JmsSender jmsSender;
+public interface FeedEventStatisticsMXBean {
 
+    String OBJECT_NAME = "com.thinkbiganalytics.nifi.provenance:type=FeedEventStatistics";
 
-    public JmsSenderConsumer(JmsSender jmsSender) {
-        this.jmsSender = jmsSender;
-    }
+    /**
+     * @return the number of flow files being tracked
+     */
+    int getTrackedFlowFiles();
 
-    @Override
-    public void run() {
-       if(jmsSender != null) {
-           jmsSender.run();
-       }
-    }
+    /**
+     * @return the estimated heap used by the flow file tracking maps
+     */
+    long getEstimatedTrackingBytes();
 
+    /**
+     * @return the events not capturing details
+     */
+    Long getSkippedEvents();
 }
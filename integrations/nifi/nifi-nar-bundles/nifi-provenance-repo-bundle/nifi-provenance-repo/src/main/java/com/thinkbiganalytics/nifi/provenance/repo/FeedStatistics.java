@@ -20,7 +20,6 @@ package com.thinkbiganalytics.nifi.provenance.repo;
  * #L%
  */
 
-import com.google.common.collect.EvictingQueue;
 import com.thinkbiganalytics.nifi.provenance.ProvenanceEventRecordConverter;
 import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTO;
 import com.thinkbiganalytics.nifi.provenance.model.stats.GroupedStats;
@@ -35,10 +34,8 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.Map;
-import java.util.Queue;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Holds Statistics about a Feed and Processor updated during Nifi execution
@@ -73,66 +70,18 @@ public class FeedStatistics {
     private Map<String, GroupedStats> stats;
 
     /**
-     * Flag to indicate we are throttling the start Job events that get sent to ops manager
+     * Throttles the start Job events that get sent to ops manager.  Shared by the statistics for this feed and processor in every lock stripe
      */
-    private AtomicBoolean isThrottled = new AtomicBoolean(false);
-
-    /**
-     * The
-     */
-    private Integer throttleStartingFeedFlowsThreshold = 15;
-
-    /**
-     * Rolling queue of the last {throttleStartingFeedFlowsThreshold} items based upon time
-     */
-    Queue<Long> startingFeedFlowQueue = null;
+    private final StartingFeedFlowThrottle throttle;
 
 
-    /**
-     * Time to before the throttle key will rest
-     * Rapid events need to be slow for this amount of time before resetting the key
-     */
-    private Integer throttleStartingFeedFlowsTimePeriod = 1000;
-
-
-    private String batchKey(ProvenanceEventRecord event, String feedFlowFileId, boolean isStartingFeedFlow) {
+    private String batchKey(ProvenanceEventRecord event, String feedFlowFileId, boolean isThrottledStart) {
         String key = event.getComponentId() + ":" + event.getEventType().name();
-
-        if (isStartingFeedFlow) {
-            if(startingFeedFlowQueue == null){
-                startingFeedFlowQueue =EvictingQueue.create(throttleStartingFeedFlowsThreshold);
-            }
-
-            startingFeedFlowQueue.add(event.getEventTime());
-            if(startingFeedFlowQueue.size() >= throttleStartingFeedFlowsThreshold) {
-                Long diff = event.getEventTime() - startingFeedFlowQueue.peek();
-                if (diff < throttleStartingFeedFlowsTimePeriod) {
-                    //we got more than x events within the threshold... throttle
-                    key += eventTimeNearestSecond(event);
-                    if(isThrottled.compareAndSet(false,true)) {
-                        log.debug("Detected over {} flows starting within the given window of {} ms for key {}.  Throttling back starting events (for batch job processing) to only 1 per second until it slows down. ", throttleStartingFeedFlowsThreshold,throttleStartingFeedFlowsTimePeriod, key );
-                    }
-                } else {
-                    key +=":" + feedFlowFileId;
-                    startingFeedFlowQueue.clear();
-                    if(isThrottled.compareAndSet(true,false)) {
-                        log.debug("Resetting the batch job processing throttle flow rate.  Fewer than {} flows within the given window of {} ms for key {} were detected.", throttleStartingFeedFlowsThreshold, throttleStartingFeedFlowsTimePeriod, key);
-                    }
-                }
-
-            }
-            else {
-                key = key + ":" + feedFlowFileId;
-            }
-        }
-        else {
-            key +=":" + feedFlowFileId;
+        if (isThrottledStart) {
+            //only 1 starting event per second is sent while throttled
+            return key + eventTimeNearestSecond(event);
         }
-
-
-        return key;
-
-
+        return key + ":" + feedFlowFileId;
     }
 
 
@@ -147,12 +96,16 @@ public class FeedStatistics {
 
 
     public FeedStatistics(String feedProcessorId, String processorId) {
+        this(feedProcessorId, processorId, new StartingFeedFlowThrottle(ConfigurationProperties.getInstance().getThrottleStartingFeedFlowsThreshold(),
+                                                                        ConfigurationProperties.getInstance().getDefaultThrottleStartingFeedFlowsTimePeriodMillis()));
+    }
+
+    public FeedStatistics(String feedProcessorId, String processorId, StartingFeedFlowThrottle throttle) {
         this.feedProcessorId = feedProcessorId;
         this.processorId = processorId;
         stats = new ConcurrentHashMap<>();
         this.limit = ConfigurationProperties.getInstance().getFeedProcessorMaxEvents();
-        this.throttleStartingFeedFlowsThreshold = ConfigurationProperties.getInstance().getThrottleStartingFeedFlowsThreshold();
-        this.throttleStartingFeedFlowsTimePeriod = ConfigurationProperties.getInstance().getDefaultThrottleStartingFeedFlowsTimePeriodMillis();
+        this.throttle = throttle;
     }
 
     public GroupedStats getStats(ProvenanceEventRecord event) {
@@ -173,7 +126,8 @@ public class FeedStatistics {
         String feedFlowFileId = FeedEventStatistics.getInstance().getFeedFlowFileId(event);
 
         boolean isStartingFeedFlow = ProvenanceEventUtil.isStartingFeedFlow(event);
-        String batchKey = batchKey(event, feedFlowFileId, isStartingFeedFlow);
+        boolean isThrottledOut = isStartingFeedFlow && !throttle.tryStart(event.getEventTime());
+        String batchKey = batchKey(event, feedFlowFileId, isStartingFeedFlow && throttle.isThrottled());
 
         //always track drop events if its on a tracked feed
         boolean isDropEvent = ProvenanceEventUtil.isEndingFlowFileEvent(event);
@@ -181,7 +135,7 @@ public class FeedStatistics {
             batchKey += UUID.randomUUID().toString();
         }
 
-        if (((!isStartingFeedFlow && FeedEventStatistics.getInstance().isTrackingDetails(event.getFlowFileUuid())) || (isStartingFeedFlow && lastRecords.size() <= limit)) && !lastRecords
+        if (!isThrottledOut && ((!isStartingFeedFlow && FeedEventStatistics.getInstance().isTrackingDetails(event.getFlowFileUuid())) || (isStartingFeedFlow && lastRecords.size() <= limit)) && !lastRecords
             .containsKey(batchKey)) {
             // if we are tracking details send the event off for jms
             if (isStartingFeedFlow) {
@@ -254,6 +208,57 @@ public class FeedStatistics {
         stats.clear();
     }
 
+    /**
+     * Swap out the events and stats gathered so far, leaving this object ready to collect the next set.
+     * The caller must hold the lock used when adding events to this object.
+     *
+     * @return the events and stats gathered since the last snapshot
+     */
+    public Snapshot snapshotAndReset() {
+        Snapshot snapshot = new Snapshot(feedProcessorId, processorId, lastRecords.values(), stats.values());
+        lastRecords = new ConcurrentHashMap<>(limit);
+        stats = new ConcurrentHashMap<>();
+        return snapshot;
+    }
+
+    /**
+     * Events and stats for a feed and processor taken from a {@link FeedStatistics} object
+     */
+    public static class Snapshot {
+
+        private String feedProcessorId;
+        private String processorId;
+        private Collection<ProvenanceEventRecordDTO> eventsToSend;
+        private Collection<GroupedStats> stats;
+
+        public Snapshot(String feedProcessorId, String processorId, Collection<ProvenanceEventRecordDTO> eventsToSend, Collection<GroupedStats> stats) {
+            this.feedProcessorId = feedProcessorId;
+            this.processorId = processorId;
+            this.eventsToSend = eventsToSend;
+            this.stats = stats;
+        }
+
+        public String getFeedProcessorId() {
+            return feedProcessorId;
+        }
+
+        public String getProcessorId() {
+            return processorId;
+        }
+
+        public Collection<ProvenanceEventRecordDTO> getEventsToSend() {
+            return eventsToSend;
+        }
+
+        public Collection<GroupedStats> getStats() {
+            return stats;
+        }
+
+        public boolean hasStats() {
+            return stats.stream().anyMatch(s -> s.getTotalCount() > 0);
+        }
+    }
+
     public void setLimit(Integer limit) {
         this.limit = limit;
     }
@@ -33,18 +33,19 @@ import org.apache.nifi.provenance.ProvenanceEventRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
@@ -58,9 +59,40 @@ public class FeedStatisticsManager {
 
     private Long sendJmsTimeMillis = ConfigurationProperties.DEFAULT_RUN_INTERVAL_MILLIS; //every 3 seconds
 
+    /**
+     * Lock guarding the gather statistics timer and changes to the lock stripes
+     */
     private Lock lock = new ReentrantLock();
 
-    private Map<String, FeedStatistics> feedStatisticsMap = new ConcurrentHashMap<>();
+    /**
+     * Events are assigned to a stripe by their starting feed flow file.  Each stripe has its own lock and statistics so different feed flows can be processed concurrently
+     */
+    private volatile StatisticsStripe[] stripes;
+
+    /**
+     * Throttles for the starting feed flow events by feed processor and processor.  These are shared by every stripe so the throttle rate does not grow with the number of stripes
+     */
+    private final Map<String, StartingFeedFlowThrottle> startingFeedFlowThrottles = new ConcurrentHashMap<>();
+
+    /**
+     * Gather the statistics before the run interval once this many events have been added.  0 will only gather on the run interval
+     */
+    private volatile int flushBatchSize = 0;
+
+    /**
+     * The events added since the statistics were last gathered.  A LongAdder so the threads adding events to different stripes do not contend on a single counter
+     */
+    private final LongAdder eventsSinceGather = new LongAdder();
+
+    /**
+     * true if a gather has been requested because the flush batch size was reached
+     */
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    /**
+     * When the statistics were last gathered
+     */
+    private volatile long lastGatherTime = System.currentTimeMillis();
 
 
     private KyloFeedBatchStreamTypeJmsListener kyloFeedBatchStreamTypeJmsListener;
@@ -68,9 +100,21 @@ public class FeedStatisticsManager {
     private static final FeedStatisticsManager instance = new FeedStatisticsManager();
 
     private FeedStatisticsManager() {
+        this(ConfigurationProperties.getInstance().getIngestLockStripes());
+        this.flushBatchSize = ConfigurationProperties.getInstance().getFlushBatchSize();
+        jmsSendQueue.start();
         initTimerThread();
     }
 
+    /**
+     * Create a manager without the timer thread to gather statistics
+     *
+     * @param ingestLockStripes the number of lock stripes used when adding events
+     */
+    FeedStatisticsManager(Integer ingestLockStripes) {
+        this.stripes = createStripes(ingestLockStripes);
+    }
+
     public static FeedStatisticsManager getInstance() {
         return instance;
     }
@@ -79,24 +123,66 @@ public class FeedStatisticsManager {
     private ThreadFactory gatherStatsThreadFactory = new ThreadFactoryBuilder().setDaemon(true)
         .setNameFormat("FeedStatisticsManager-GatherStats-%d").build();
 
-    private ThreadFactory sendJmsThreadFactory = new ThreadFactoryBuilder().setDaemon(true)
-        .setNameFormat("FeedStatisticsManager-SendStats-%d").build();
-
     /**
      * Scheduled task to gather stats and send to JMS
      */
     private ScheduledFuture gatherStatsScheduledFuture;
 
     /**
-     * Service to schedule the sending of events to activemq
+     * Bounded queue of the gathered events and stats waiting to be sent to activemq
      */
-    private ExecutorService jmsService = Executors.newFixedThreadPool(3, sendJmsThreadFactory);
+    private JmsSendQueue jmsSendQueue = new JmsSendQueue(ConfigurationProperties.getInstance().getJmsSendQueueSize(), ConfigurationProperties.getInstance().getMaxCoalescedEvents());
 
     private ScheduledExecutorService jmsGatherEventsToSendService = Executors.newSingleThreadScheduledExecutor(gatherStatsThreadFactory);
 
 
+    /**
+     * A lock and the feed statistics for the events assigned to it
+     */
+    private static class StatisticsStripe {
+
+        private final Lock lock = new ReentrantLock();
+
+        private final Map<String, FeedStatistics> feedStatisticsMap = new ConcurrentHashMap<>();
+
+        /**
+         * true if this stripe has been replaced by a call to {@link #resetIngestLockStripes(Integer)}
+         */
+        private boolean retired;
+    }
+
+    private static StatisticsStripe[] createStripes(Integer count) {
+        int size = count == null || count < 1 ? ConfigurationProperties.DEFAULT_INGEST_LOCK_STRIPES : count;
+        StatisticsStripe[] stripes = new StatisticsStripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new StatisticsStripe();
+        }
+        return stripes;
+    }
+
+    /**
+     * Find and lock the stripe for the event.
+     * If the stripes are replaced while waiting for the lock the stripe is looked up again
+     */
+    private StatisticsStripe lockStripe(ProvenanceEventRecord event) {
+        while (true) {
+            StatisticsStripe[] current = stripes;
+            StatisticsStripe stripe = current[0];
+            if (current.length > 1) {
+                String feedFlowFileId = FeedEventStatistics.getInstance().resolveFeedFlowFileId(event);
+                stripe = current[(feedFlowFileId.hashCode() & Integer.MAX_VALUE) % current.length];
+            }
+            stripe.lock.lock();
+            if (!stripe.retired) {
+                return stripe;
+            }
+            stripe.lock.unlock();
+        }
+    }
+
+
     public void addEvent(ProvenanceEventRecord event, Long eventId) {
-        lock.lock();
+        StatisticsStripe stripe = lockStripe(event);
         try {
             //build up feed flow file map relationships
             boolean isStartingFeedFlow = ProvenanceEventUtil.isStartingFeedFlow(event);
@@ -119,7 +205,8 @@ public class FeedStatisticsManager {
             String feedProcessorId = FeedEventStatistics.getInstance().getFeedProcessorId(event);
             if (feedProcessorId != null) {
                 String key = feedProcessorId + event.getComponentId();
-                feedStatisticsMap.computeIfAbsent(key, feedStatisticsKey -> new FeedStatistics(feedProcessorId, event.getComponentId())).addEvent(event, eventId);
+                stripe.feedStatisticsMap.computeIfAbsent(key, feedStatisticsKey -> new FeedStatistics(feedProcessorId, event.getComponentId(), getStartingFeedFlowThrottle(feedStatisticsKey)))
+                    .addEvent(event, eventId);
             } else {
                 //UNABLE TO FIND data in maps
                 String startingFlowFile = FeedEventStatistics.getInstance().getFeedFlowFileId(event);
@@ -128,7 +215,29 @@ public class FeedStatisticsManager {
                 }
             }
         } finally {
-            lock.unlock();
+            stripe.lock.unlock();
+        }
+        checkFlushBatchSize();
+    }
+
+    private StartingFeedFlowThrottle getStartingFeedFlowThrottle(String key) {
+        return startingFeedFlowThrottles.computeIfAbsent(key, throttleKey -> new StartingFeedFlowThrottle(ConfigurationProperties.getInstance().getThrottleStartingFeedFlowsThreshold(),
+                                                                                                         ConfigurationProperties.getInstance().getDefaultThrottleStartingFeedFlowsTimePeriodMillis()));
+    }
+
+    /**
+     * Gather the statistics early if the flush batch size has been reached.
+     * This is skipped while JMS is backed up since the batch would only be coalesced with the batches already waiting
+     */
+    private void checkFlushBatchSize() {
+        int batchSize = flushBatchSize;
+        if (batchSize <= 0 || flushRequested.get()) {
+            return;
+        }
+        eventsSinceGather.increment();
+        if (eventsSinceGather.sum() >= batchSize && !jmsSendQueue.isBackedUp() && flushRequested.compareAndSet(false, true)) {
+            log.debug("Processed {} events since the last gather. Gathering statistics before the run interval", batchSize);
+            jmsGatherEventsToSendService.execute(gatherStatisticsTask);
         }
     }
 
@@ -139,66 +248,85 @@ public class FeedStatisticsManager {
         }
     }
 
+    /**
+     * Swap out the events and stats from each stripe.
+     * Only one stripe is locked at a time, and only for as long as it takes to swap its collections
+     */
+    List<FeedStatistics.Snapshot> snapshotStripes() {
+        List<FeedStatistics.Snapshot> snapshots = new ArrayList<>();
+        for (StatisticsStripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.feedStatisticsMap.values().stream().forEach(feedStatistics -> snapshots.add(feedStatistics.snapshotAndReset()));
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return snapshots;
+    }
+
 
     public void gatherStatistics() {
-        lock.lock();
         List<ProvenanceEventRecordDTO> eventsToSend = null;
         Map<String, AggregatedFeedProcessorStatistics> statsToSend = null;
-        try {
-            //Gather Events and Stats to send Ops Manager
-            //filter out the streaming feeds
-            ensureStreamingFeedMetadata();
-            eventsToSend =
-                feedStatisticsMap.values().stream()
-                    .flatMap(stats -> stats.getEventsToSend().stream().filter(event -> !FeedEventStatistics.getInstance().streamingFeedProcessorIdsList.contains(event.getFirstEventProcessorId())))
-                    .sorted(Comparator.comparing(ProvenanceEventRecordDTO::getEventTime)
-                                .thenComparing(ProvenanceEventRecordDTO::getEventId))
-                    .collect(Collectors.toList());
-
-            final String collectionId = UUID.randomUUID().toString();
-            Map<String, Long> runningFlowsCount = new HashMap<>();
-
-            for (FeedStatistics feedStatistics : feedStatisticsMap.values()) {
-                if (feedStatistics.hasStats()) {
-                    if (statsToSend == null) {
-                        statsToSend = new ConcurrentHashMap<>();
-                    }
-                    AggregatedFeedProcessorStatistics
-                        feedProcessorStatistics =
-                        statsToSend.computeIfAbsent(feedStatistics.getFeedProcessorId(),
-                                                    feedProcessorId -> new AggregatedFeedProcessorStatistics(feedStatistics.getFeedProcessorId(), collectionId, sendJmsTimeMillis));
-
-                    AggregatedProcessorStatistics
-                        processorStatistics =
-                        feedProcessorStatistics.getProcessorStats()
-                            .computeIfAbsent(feedStatistics.getProcessorId(), processorId -> new AggregatedProcessorStatisticsV2(feedStatistics.getProcessorId(), null, collectionId));
-
-                    //accumulate the stats together into the processorStatistics object grouped by source connection id
-                    feedStatistics.getStats().stream().forEach(stats -> {
-                        FeedProcessorStatisticsAggregator.getInstance().addStats1(processorStatistics.getStats(stats.getSourceConnectionIdentifier()), stats);
-                    });
+        eventsSinceGather.reset();
+        flushRequested.set(false);
+        long now = System.currentTimeMillis();
+        final long collectionIntervalMillis = now - lastGatherTime;
+        lastGatherTime = now;
+
+        //Gather Events and Stats to send Ops Manager
+        //filter out the streaming feeds
+        ensureStreamingFeedMetadata();
+        boolean runningFlowsChanged = FeedEventStatistics.getInstance().getAndMarkFeedProcessorRunningFeedFlowsUnchanged();
+        List<FeedStatistics.Snapshot> snapshots = snapshotStripes();
+        Map<String, Long> runningFlows = FeedEventStatistics.getInstance().drainRunningFeedFlowsChanged();
+        runningFlowsChanged |= !runningFlows.isEmpty();
+
+        eventsToSend =
+            snapshots.stream()
+                .flatMap(stats -> stats.getEventsToSend().stream().filter(event -> !FeedEventStatistics.getInstance().streamingFeedProcessorIdsList.contains(event.getFirstEventProcessorId())))
+                .sorted(Comparator.comparing(ProvenanceEventRecordDTO::getEventTime)
+                            .thenComparing(ProvenanceEventRecordDTO::getEventId))
+                .collect(Collectors.toList());
+
+        final String collectionId = UUID.randomUUID().toString();
+
+        for (FeedStatistics.Snapshot feedStatistics : snapshots) {
+            if (feedStatistics.hasStats()) {
+                if (statsToSend == null) {
+                    statsToSend = new ConcurrentHashMap<>();
                 }
+                AggregatedFeedProcessorStatistics
+                    feedProcessorStatistics =
+                    statsToSend.computeIfAbsent(feedStatistics.getFeedProcessorId(),
+                                                feedProcessorId -> new AggregatedFeedProcessorStatistics(feedStatistics.getFeedProcessorId(), collectionId, collectionIntervalMillis));
+
+                AggregatedProcessorStatistics
+                    processorStatistics =
+                    feedProcessorStatistics.getProcessorStats()
+                        .computeIfAbsent(feedStatistics.getProcessorId(), processorId -> new AggregatedProcessorStatisticsV2(feedStatistics.getProcessorId(), null, collectionId));
+
+                //accumulate the stats together into the processorStatistics object grouped by source connection id
+                feedStatistics.getStats().stream().forEach(stats -> {
+                    FeedProcessorStatisticsAggregator.getInstance().addStats1(processorStatistics.getStats(stats.getSourceConnectionIdentifier()), stats);
+                });
             }
-            boolean runningFlowsChanged = FeedEventStatistics.getInstance().isFeedProcessorRunningFeedFlowsChanged();
-
-            if ((eventsToSend != null && !eventsToSend.isEmpty()) || (statsToSend != null && !statsToSend.isEmpty())) {
-                //send it off to jms on a different thread
-                JmsSender jmsSender = new JmsSender(eventsToSend, statsToSend.values(), FeedEventStatistics.getInstance().getRunningFeedFlowsForFeed(statsToSend.keySet()),runningFlowsChanged);
-                this.jmsService.submit(new JmsSenderConsumer(jmsSender));
-            } else {
-                    JmsSender jmsSender = new JmsSender(null, null, FeedEventStatistics.getInstance().getRunningFeedFlowsChanged(),runningFlowsChanged);
-                    this.jmsService.submit(new JmsSenderConsumer(jmsSender));
-            }
-
-
-        } finally {
-            FeedEventStatistics.getInstance().markFeedProcessorRunningFeedFlowsUnchanged();
-
-            feedStatisticsMap.values().stream().forEach(stats -> stats.clear());
-            lock.unlock();
         }
 
+        if (statsToSend != null && !statsToSend.isEmpty()) {
+            //ensure the running counts are sent for each feed with stats
+            statsToSend.keySet().stream().filter(id -> !runningFlows.containsKey(id)).forEach(id -> runningFlows.put(id, FeedEventStatistics.getInstance().getRunningFeedFlows(id)));
+        }
 
+        if (!eventsToSend.isEmpty() || (statsToSend != null && !statsToSend.isEmpty())) {
+            //send it off to jms on a different thread
+            JmsSender jmsSender = new JmsSender(eventsToSend, statsToSend != null ? statsToSend.values() : null, runningFlows, runningFlowsChanged);
+            jmsSendQueue.submit(jmsSender);
+        } else {
+            JmsSender jmsSender = new JmsSender(null, null, runningFlows, runningFlowsChanged);
+            jmsSendQueue.submit(jmsSender);
+        }
     }
 
     private Runnable gatherStatisticsTask = new Runnable() {
@@ -223,9 +351,57 @@ public class FeedStatisticsManager {
     }
 
     public void resetMaxEvents(Integer limit) {
+        for (StatisticsStripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.feedStatisticsMap.values().forEach(stats -> stats.setLimit(limit));
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    public void resetFlushBatchSize(Integer flushBatchSize) {
+        this.flushBatchSize = flushBatchSize == null ? 0 : flushBatchSize;
+    }
+
+    public void resetMaxCoalescedEvents(Integer maxCoalescedEvents) {
+        jmsSendQueue.setMaxCoalescedEvents(maxCoalescedEvents);
+    }
+
+    /**
+     * @return the queue of batches waiting to be sent to JMS
+     */
+    public JmsSendQueue getJmsSendQueue() {
+        return jmsSendQueue;
+    }
+
+    /**
+     * Change the number of lock stripes used when adding events.
+     * Statistics gathered by the current stripes are carried over to the new stripes
+     *
+     * @param ingestLockStripes the number of stripes
+     */
+    public void resetIngestLockStripes(Integer ingestLockStripes) {
         lock.lock();
         try {
-            feedStatisticsMap.values().forEach(stats -> stats.setLimit(limit));
+            StatisticsStripe[] current = stripes;
+            StatisticsStripe[] replacement = createStripes(ingestLockStripes);
+            for (StatisticsStripe stripe : current) {
+                stripe.lock.lock();
+            }
+            try {
+                for (StatisticsStripe stripe : current) {
+                    stripe.feedStatisticsMap.forEach((key, feedStatistics) -> replacement[0].feedStatisticsMap.putIfAbsent(key, feedStatistics));
+                    stripe.retired = true;
+                }
+                stripes = replacement;
+            } finally {
+                for (StatisticsStripe stripe : current) {
+                    stripe.lock.unlock();
+                }
+            }
+            log.info("Reset the provenance event ingest lock stripes to {} ", replacement.length);
         } finally {
             lock.unlock();
         }
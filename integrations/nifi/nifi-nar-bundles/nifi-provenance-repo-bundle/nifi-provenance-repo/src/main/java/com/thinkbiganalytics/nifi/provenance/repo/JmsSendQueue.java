@@ -0,0 +1,196 @@
+package com.thinkbiganalytics.nifi.provenance.repo;
+
+/*-
+ * #%L
+ * thinkbig-nifi-provenance-repo
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded queue of the batches gathered by the {@link FeedStatisticsManager} waiting to be sent to JMS.
+ *
+ * Batches are sent in order by a single thread.  When the queue is full new batches are coalesced into one pending batch instead of being queued,
+ * so a slow JMS broker does not cause the NiFi heap to grow.  The pending batch is queued as soon as there is room.
+ */
+public class JmsSendQueue implements JmsSendQueueMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(JmsSendQueue.class);
+
+    private final BlockingQueue<JmsSender> queue;
+
+    private final int capacity;
+
+    private volatile int maxCoalescedEvents;
+
+    /**
+     * The batch gathered while the queue was full.  Guarded by the queue
+     */
+    private JmsSender pending;
+
+    private final AtomicLong coalescedBatches = new AtomicLong();
+
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private final AtomicLong sentBatches = new AtomicLong();
+
+    private final AtomicLong totalSendLatencyMillis = new AtomicLong();
+
+    private volatile long lastSendLatencyMillis;
+
+    private volatile long maxSendLatencyMillis;
+
+    /**
+     * @param capacity           the number of batches that can wait to be sent
+     * @param maxCoalescedEvents the max provenance events kept in the pending batch
+     */
+    public JmsSendQueue(int capacity, int maxCoalescedEvents) {
+        this.capacity = capacity;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxCoalescedEvents = maxCoalescedEvents;
+    }
+
+    /**
+     * Start the thread sending the queued batches
+     */
+    public void start() {
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("FeedStatisticsManager-SendStats-%d").build().newThread(this::sendLoop).start();
+    }
+
+    /**
+     * Queue the batch to be sent, or coalesce it into the pending batch if the queue is full
+     */
+    public void submit(JmsSender jmsSender) {
+        synchronized (queue) {
+            if (pending == null && queue.offer(jmsSender)) {
+                return;
+            }
+            if (pending == null) {
+                log.warn("The JMS send queue is full with {} batches. Coalescing new batches until JMS catches up", capacity);
+                pending = jmsSender;
+            } else {
+                int dropped = pending.coalesce(jmsSender, maxCoalescedEvents);
+                coalescedBatches.incrementAndGet();
+                if (dropped > 0) {
+                    droppedEvents.addAndGet(dropped);
+                    log.warn("Dropped {} provenance events while JMS is backed up. They are still included in the feed statistics", dropped);
+                }
+            }
+            queuePending();
+        }
+    }
+
+    /**
+     * Move the pending batch to the queue if there is room.  Must be called holding the queue lock
+     */
+    private void queuePending() {
+        if (pending != null && queue.offer(pending)) {
+            log.info("The JMS send queue has room. Queued the batch coalesced while it was full");
+            pending = null;
+        }
+    }
+
+    private void sendLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                JmsSender jmsSender = queue.take();
+                synchronized (queue) {
+                    queuePending();
+                }
+                send(jmsSender);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Error sending statistics to JMS", e);
+            }
+        }
+    }
+
+    /**
+     * Send the batch and record the latency from when it was gathered
+     */
+    void send(JmsSender jmsSender) {
+        jmsSender.run();
+        long latency = System.currentTimeMillis() - jmsSender.getGatheredTime();
+        lastSendLatencyMillis = latency;
+        if (latency > maxSendLatencyMillis) {
+            maxSendLatencyMillis = latency;
+        }
+        totalSendLatencyMillis.addAndGet(latency);
+        sentBatches.incrementAndGet();
+    }
+
+    public void setMaxCoalescedEvents(int maxCoalescedEvents) {
+        this.maxCoalescedEvents = maxCoalescedEvents;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public boolean isBackedUp() {
+        synchronized (queue) {
+            return pending != null;
+        }
+    }
+
+    @Override
+    public long getCoalescedBatches() {
+        return coalescedBatches.get();
+    }
+
+    @Override
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    @Override
+    public long getSentBatches() {
+        return sentBatches.get();
+    }
+
+    @Override
+    public long getLastSendLatencyMillis() {
+        return lastSendLatencyMillis;
+    }
+
+    @Override
+    public long getAverageSendLatencyMillis() {
+        long sent = sentBatches.get();
+        return sent == 0 ? 0 : totalSendLatencyMillis.get() / sent;
+    }
+
+    @Override
+    public long getMaxSendLatencyMillis() {
+        return maxSendLatencyMillis;
+    }
+}
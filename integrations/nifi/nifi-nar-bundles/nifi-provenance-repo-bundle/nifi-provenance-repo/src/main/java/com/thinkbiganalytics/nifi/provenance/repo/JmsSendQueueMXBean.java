@@ -0,0 +1,74 @@
+package com.thinkbiganalytics.nifi.provenance.repo;
+
+/*-
+ * #%L
+ * thinkbig-nifi-provenance-repo
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * JMX gauges for the {@link JmsSendQueue} sending statistics and events to Ops Manager
+ */
+public interface JmsSendQueueMXBean {
+
+    String OBJECT_NAME = "com.thinkbiganalytics.nifi.provenance:type=JmsSendQueue";
+
+    /**
+     * @return the number of batches waiting to be sent
+     */
+    int getQueueDepth();
+
+    /**
+     * @return the max number of batches that can wait to be sent before new batches are coalesced
+     */
+    int getQueueCapacity();
+
+    /**
+     * @return true if the queue is full and new batches are being coalesced
+     */
+    boolean isBackedUp();
+
+    /**
+     * @return the number of batches merged into a pending batch because the queue was full
+     */
+    long getCoalescedBatches();
+
+    /**
+     * @return the number of provenance events dropped from coalesced batches
+     */
+    long getDroppedEvents();
+
+    /**
+     * @return the number of batches sent
+     */
+    long getSentBatches();
+
+    /**
+     * @return the time from gathering the last batch until it was sent
+     */
+    long getLastSendLatencyMillis();
+
+    /**
+     * @return the average time from gathering a batch until it was sent
+     */
+    long getAverageSendLatencyMillis();
+
+    /**
+     * @return the longest time from gathering a batch until it was sent
+     */
+    long getMaxSendLatencyMillis();
+}
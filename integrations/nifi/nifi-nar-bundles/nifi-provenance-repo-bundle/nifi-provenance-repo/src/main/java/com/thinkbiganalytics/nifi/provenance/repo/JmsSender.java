@@ -26,6 +26,7 @@ import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTO;
 import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTOHolder;
 import com.thinkbiganalytics.nifi.provenance.model.stats.AggregatedFeedProcessorStatistics;
 import com.thinkbiganalytics.nifi.provenance.model.stats.AggregatedFeedProcessorStatisticsHolderV3;
+import com.thinkbiganalytics.nifi.provenance.model.stats.AggregatedProcessorStatistics;
 import com.thinkbiganalytics.nifi.provenance.util.SpringApplicationContext;
 
 import org.slf4j.Logger;
@@ -37,6 +38,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Send data to Ops Manager
@@ -50,6 +53,11 @@ public class JmsSender {
     Map<String,Long> processorIdRunningFlows = new HashMap<>();
     private boolean runningFlowsChanged;
 
+    /**
+     * When the data in this sender was gathered.  Used to measure the send latency
+     */
+    private long gatheredTime = System.currentTimeMillis();
+
 
     public static class JmsSenderBuilder {
         List<ProvenanceEventRecordDTO> eventsToSend = null;
@@ -69,6 +77,85 @@ public class JmsSender {
         this.runningFlowsChanged = runningFlowsChanged;
     }
 
+    public long getGatheredTime() {
+        return gatheredTime;
+    }
+
+    /**
+     * Merge a sender gathered after this one into this sender.
+     * The statistics are added together and the newer running flow counts replace the older ones.
+     * If there are more than the max events, events that do not start or finish a job are dropped first, then the oldest events.
+     *
+     * @param newer     the sender to merge in
+     * @param maxEvents the max events to keep
+     * @return the number of events dropped
+     */
+    public int coalesce(JmsSender newer, int maxEvents) {
+        if (newer.eventsToSend != null && !newer.eventsToSend.isEmpty()) {
+            if (eventsToSend == null) {
+                eventsToSend = new ArrayList<>(newer.eventsToSend);
+            } else {
+                eventsToSend = new ArrayList<>(eventsToSend);
+                eventsToSend.addAll(newer.eventsToSend);
+            }
+        }
+        if (newer.statsToSend != null) {
+            if (statsToSend == null) {
+                statsToSend = new ArrayList<>(newer.statsToSend);
+            } else {
+                Map<String, AggregatedFeedProcessorStatistics>
+                    feedStats =
+                    statsToSend.stream().collect(Collectors.toMap(AggregatedFeedProcessorStatistics::getStartingProcessorId, Function.identity(), (a, b) -> a));
+                for (AggregatedFeedProcessorStatistics stats : newer.statsToSend) {
+                    AggregatedFeedProcessorStatistics existing = feedStats.get(stats.getStartingProcessorId());
+                    if (existing == null) {
+                        statsToSend.add(stats);
+                        feedStats.put(stats.getStartingProcessorId(), stats);
+                    } else {
+                        addFeedStats(existing, stats);
+                    }
+                }
+            }
+        }
+        processorIdRunningFlows.putAll(newer.processorIdRunningFlows);
+        runningFlowsChanged |= newer.runningFlowsChanged;
+        return trimEvents(maxEvents);
+    }
+
+    private void addFeedStats(AggregatedFeedProcessorStatistics existing, AggregatedFeedProcessorStatistics stats) {
+        if (existing.getCollectionIntervalMillis() != null && stats.getCollectionIntervalMillis() != null) {
+            existing.setCollectionIntervalMillis(existing.getCollectionIntervalMillis() + stats.getCollectionIntervalMillis());
+        }
+        stats.getProcessorStats().forEach((processorId, processorStats) -> {
+            AggregatedProcessorStatistics existingProcessorStats = existing.getProcessorStats().putIfAbsent(processorId, processorStats);
+            if (existingProcessorStats != null) {
+                processorStats.getStats().values().forEach(
+                    groupedStats -> FeedProcessorStatisticsAggregator.getInstance().addStats1(existingProcessorStats.getStats(groupedStats.getSourceConnectionIdentifier()), groupedStats));
+            }
+        });
+    }
+
+    private int trimEvents(int maxEvents) {
+        if (eventsToSend == null || eventsToSend.size() <= maxEvents) {
+            return 0;
+        }
+        int size = eventsToSend.size();
+        int toDrop = size - maxEvents;
+        List<ProvenanceEventRecordDTO> kept = new ArrayList<>(maxEvents);
+        for (ProvenanceEventRecordDTO event : eventsToSend) {
+            if (toDrop > 0 && !event.isStartOfJob() && !event.isFinalJobEvent()) {
+                toDrop--;
+            } else {
+                kept.add(event);
+            }
+        }
+        if (kept.size() > maxEvents) {
+            kept = new ArrayList<>(kept.subList(kept.size() - maxEvents, kept.size()));
+        }
+        eventsToSend = kept;
+        return size - kept.size();
+    }
+
     public void run() {
 
         try {
@@ -18,12 +18,21 @@ package com.thinkbiganalytics.nifi.provenance.repo;
  * limitations under the License.
  * #L%
  */
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.thinkbiganalytics.nifi.provenance.util.SpringApplicationContext;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
 
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 /**
  * Created by sr186054 on 6/21/17.
  */
@@ -31,9 +40,17 @@ public class KyloProvenanceEventRepositoryUtil {
 
     private static final Logger log = LoggerFactory.getLogger(KyloProvenanceEventRepositoryUtil.class);
 
+    /**
+     * Periodically checkpoints the running flow data to the backup location
+     */
+    private ScheduledExecutorService checkpointService;
+
 
     public final void persistFeedEventStatisticsToDisk() {
         log.info("onShutdown: Attempting to persist any active flow files to disk");
+        if (checkpointService != null) {
+            checkpointService.shutdownNow();
+        }
         try {
             //persist running flowfile metadata to disk
             boolean success = FeedEventStatistics.getInstance().backup();
@@ -58,6 +75,45 @@ public class KyloProvenanceEventRepositoryUtil {
         } else {
             log.error("Error loading backup");
         }
+        initCheckpointTimerThread();
+        registerMXBean();
+    }
+
+    /**
+     * Expose the flow file tracking and JMS send queue gauges over JMX
+     */
+    private void registerMXBean() {
+        registerMXBean(FeedEventStatistics.getInstance(), FeedEventStatisticsMXBean.OBJECT_NAME);
+        registerMXBean(FeedStatisticsManager.getInstance().getJmsSendQueue(), JmsSendQueueMXBean.OBJECT_NAME);
+    }
+
+    private void registerMXBean(Object mxBean, String objectName) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(objectName);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(mxBean, name);
+            }
+        } catch (Exception e) {
+            log.error("Unable to register the {} MXBean. {} ", objectName, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Start the timer to checkpoint the running flow data so a NiFi crash will lose at most the checkpoint interval of tracking information
+     */
+    private void initCheckpointTimerThread() {
+        Integer interval = ConfigurationProperties.getInstance().getCheckpointIntervalSeconds();
+        if (interval > 0 && checkpointService == null) {
+            checkpointService = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true).setNameFormat("FeedEventStatistics-Checkpoint-%d").build());
+            checkpointService.scheduleWithFixedDelay(() -> {
+                long start = System.currentTimeMillis();
+                if (FeedEventStatistics.getInstance().backup()) {
+                    log.debug("Checkpointed Kylo Flow processing data to {} in {} ms", FeedEventStatistics.getInstance().getBackupLocation(), System.currentTimeMillis() - start);
+                }
+            }, interval, interval, TimeUnit.SECONDS);
+            log.info("Initialized Timer Thread to checkpoint Kylo Flow processing data every {} seconds ", interval);
+        }
     }
 
     public void init() {
@@ -0,0 +1,114 @@
+package com.thinkbiganalytics.nifi.provenance.repo;
+
+/*-
+ * #%L
+ * thinkbig-nifi-provenance-repo
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Throttles the starting feed flow events sent to Ops Manager for a feed and processor.
+ * Once more than {@code threshold} flows start within the time period only 1 starting event per second is sent until the flows slow down.
+ *
+ * The state is lock free so a single throttle can be shared by every lock stripe processing events for the feed and processor.
+ */
+public class StartingFeedFlowThrottle {
+
+    private static final Logger log = LoggerFactory.getLogger(StartingFeedFlowThrottle.class);
+
+    private final int threshold;
+
+    private final long timePeriodMillis;
+
+    /**
+     * Rolling window of the event times of the last {@code threshold} starting flows
+     */
+    private final AtomicLongArray startTimes;
+
+    /**
+     * Number of starting flows recorded
+     */
+    private final AtomicLong starts = new AtomicLong();
+
+    /**
+     * Flag to indicate we are throttling the starting events
+     */
+    private final AtomicBoolean throttled = new AtomicBoolean(false);
+
+    /**
+     * The second of the last starting event sent while throttled
+     */
+    private final AtomicLong lastSentSecond = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @param threshold        the number of flows that may start within the time period before throttling
+     * @param timePeriodMillis the time period in millis
+     */
+    public StartingFeedFlowThrottle(Integer threshold, Integer timePeriodMillis) {
+        this.threshold = Math.max(1, threshold != null ? threshold : ConfigurationProperties.DEFAULT_THROTTLE_STARTING_FEED_FLOWS_THRESHOLD);
+        this.timePeriodMillis = timePeriodMillis != null ? timePeriodMillis : ConfigurationProperties.DEFAULT_THROTTLE_STARTING_FEED_FLOWS_TIME_PERIOD_MILLIS;
+        this.startTimes = new AtomicLongArray(this.threshold);
+    }
+
+    /**
+     * Record a starting flow
+     *
+     * @param eventTime the time of the starting event
+     * @return true if the starting event should be sent, false if it is throttled
+     */
+    public boolean tryStart(long eventTime) {
+        long count = starts.getAndIncrement();
+        startTimes.set((int) (count % threshold), eventTime);
+        if (count + 1 < threshold) {
+            return true;
+        }
+        //the next slot to be overwritten holds the oldest time in the window
+        long oldest = startTimes.get((int) ((count + 1) % threshold));
+        if (eventTime - oldest < timePeriodMillis) {
+            if (throttled.compareAndSet(false, true)) {
+                log.debug("Detected over {} flows starting within the given window of {} ms.  Throttling back starting events (for batch job processing) to only 1 per second until it slows down. ",
+                          threshold, timePeriodMillis);
+            }
+            long second = eventTime - Math.floorMod(eventTime, 1000L);
+            long last = lastSentSecond.get();
+            while (last < second) {
+                if (lastSentSecond.compareAndSet(last, second)) {
+                    return true;
+                }
+                last = lastSentSecond.get();
+            }
+            return false;
+        } else if (throttled.compareAndSet(true, false)) {
+            log.debug("Resetting the batch job processing throttle flow rate.  Fewer than {} flows within the given window of {} ms were detected.", threshold, timePeriodMillis);
+        }
+        return true;
+    }
+
+    /**
+     * @return true if starting events are being throttled
+     */
+    public boolean isThrottled() {
+        return throttled.get();
+    }
+}
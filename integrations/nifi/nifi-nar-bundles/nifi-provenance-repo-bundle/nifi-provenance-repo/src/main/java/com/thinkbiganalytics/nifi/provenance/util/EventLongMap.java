@@ -0,0 +1,57 @@
+package com.thinkbiganalytics.nifi.provenance.util;
+
+/*-
+ * #%L
+ * thinkbig-nifi-provenance-repo
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Map of a provenance event id to a long value such as the event duration
+ */
+public class EventLongMap extends PrimitiveKeyedMap<Long, Long> {
+
+    public EventLongMap() {
+        super(1, 1);
+    }
+
+    @Override
+    protected boolean encodeKey(Object key, long[] dst) {
+        if (key instanceof Long) {
+            dst[0] = 0L;
+            dst[1] = (Long) key;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected Long decodeKey(long high, long low) {
+        return low;
+    }
+
+    @Override
+    protected boolean encodeValue(Long value, long[] dst, int offset) {
+        dst[offset] = value;
+        return true;
+    }
+
+    @Override
+    protected Long decodeValue(long[] src, int offset) {
+        return src[offset];
+    }
+}
@@ -0,0 +1,80 @@
+package com.thinkbiganalytics.nifi.provenance.util;
+
+/*-
+ * #%L
+ * thinkbig-nifi-provenance-repo
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Map of a flow file id to another flow file or component id, storing both ids as two longs
+ */
+public class FlowFileIdMap extends PrimitiveKeyedMap<String, String> {
+
+    private static final int DECODED_CACHE_SIZE = 256;
+
+    /**
+     * Recently decoded values.  Many flow files map to the same feed flow file or processor id, so lookups return the same String instead of formatting a new one each time.
+     * Each slot holds an immutable id so it is safe to read and replace without locking.
+     */
+    private final DecodedId[] decoded = new DecodedId[DECODED_CACHE_SIZE];
+
+    public FlowFileIdMap() {
+        super(2, 2);
+    }
+
+    @Override
+    protected boolean encodeKey(Object key, long[] dst) {
+        return FlowFileIds.parse(key, dst);
+    }
+
+    @Override
+    protected String decodeKey(long high, long low) {
+        return FlowFileIds.toString(high, low);
+    }
+
+    @Override
+    protected boolean encodeValue(String value, long[] dst, int offset) {
+        return FlowFileIds.parse(value, dst, offset);
+    }
+
+    @Override
+    protected String decodeValue(long[] src, int offset) {
+        long high = src[offset];
+        long low = src[offset + 1];
+        int slot = (int) ((high ^ low) ^ ((high ^ low) >>> 32)) & (DECODED_CACHE_SIZE - 1);
+        DecodedId id = decoded[slot];
+        if (id == null || id.high != high || id.low != low) {
+            id = new DecodedId(high, low, FlowFileIds.toString(high, low));
+            decoded[slot] = id;
+        }
+        return id.id;
+    }
+
+    private static final class DecodedId {
+
+        private final long high;
+        private final long low;
+        private final String id;
+
+        DecodedId(long high, long low, String id) {
+            this.high = high;
+            this.low = low;
+            this.id = id;
+        }
+    }
+}
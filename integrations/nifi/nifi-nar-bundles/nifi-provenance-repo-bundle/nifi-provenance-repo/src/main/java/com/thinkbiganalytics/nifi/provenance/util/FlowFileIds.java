@@ -0,0 +1,110 @@
+package com.thinkbiganalytics.nifi.provenance.util;
+
+/*-
+ * #%L
+ * thinkbig-nifi-provenance-repo
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.UUID;
+
+/**
+ * Convert NiFi flow file and component UUID strings to and from two longs without creating a {@link UUID}
+ */
+public class FlowFileIds {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private FlowFileIds() {
+
+    }
+
+    /**
+     * Parse a lower case UUID string into its most and least significant bits.
+     * Only ids that will be written back exactly the same by {@link #toString(long, long)} are parsed.
+     *
+     * @param id  the id
+     * @param dst array of length 2 to hold the most and least significant bits
+     * @return true if parsed, false if the id is not a lower case UUID
+     */
+    public static boolean parse(Object id, long[] dst) {
+        return parse(id, dst, 0);
+    }
+
+    /**
+     * Parse a lower case UUID string into its most and least significant bits
+     *
+     * @param id     the id
+     * @param dst    the array to hold the most and least significant bits
+     * @param offset the offset in the array to write the most significant bits, followed by the least significant bits
+     * @return true if parsed, false if the id is not a lower case UUID
+     */
+    public static boolean parse(Object id, long[] dst, int offset) {
+        if (!(id instanceof String)) {
+            return false;
+        }
+        String s = (String) id;
+        if (s.length() != 36 || s.charAt(8) != '-' || s.charAt(13) != '-' || s.charAt(18) != '-' || s.charAt(23) != '-') {
+            return false;
+        }
+        long high = 0;
+        long low = 0;
+        int digits = 0;
+        for (int i = 0; i < 36; i++) {
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                continue;
+            }
+            int value = Character.digit(s.charAt(i), 16);
+            if (value < 0 || Character.isUpperCase(s.charAt(i))) {
+                return false;
+            }
+            if (digits < 16) {
+                high = (high << 4) | value;
+            } else {
+                low = (low << 4) | value;
+            }
+            digits++;
+        }
+        dst[offset] = high;
+        dst[offset + 1] = low;
+        return true;
+    }
+
+    /**
+     * Format the bits as a lower case UUID string, the same as {@link UUID#toString()} without creating the UUID and its intermediate Strings
+     */
+    public static String toString(long high, long low) {
+        char[] chars = new char[36];
+        formatDigits(high >>> 32, chars, 0, 8);
+        chars[8] = '-';
+        formatDigits(high >>> 16, chars, 9, 4);
+        chars[13] = '-';
+        formatDigits(high, chars, 14, 4);
+        chars[18] = '-';
+        formatDigits(low >>> 48, chars, 19, 4);
+        chars[23] = '-';
+        formatDigits(low, chars, 24, 12);
+        return new String(chars);
+    }
+
+    private static void formatDigits(long value, char[] dst, int offset, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            dst[i] = HEX_DIGITS[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.thinkbiganalytics.nifi.provenance.util;
+
+/*-
+ * #%L
+ * thinkbig-nifi-provenance-repo
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Map of a flow file id to a long value such as an event time, storing the id as two longs
+ */
+public class FlowFileLongMap extends PrimitiveKeyedMap<String, Long> {
+
+    public FlowFileLongMap() {
+        super(2, 1);
+    }
+
+    @Override
+    protected boolean encodeKey(Object key, long[] dst) {
+        return FlowFileIds.parse(key, dst);
+    }
+
+    @Override
+    protected String decodeKey(long high, long low) {
+        return FlowFileIds.toString(high, low);
+    }
+
+    @Override
+    protected boolean encodeValue(Long value, long[] dst, int offset) {
+        dst[offset] = value;
+        return true;
+    }
+
+    @Override
+    protected Long decodeValue(long[] src, int offset) {
+        return src[offset];
+    }
+}
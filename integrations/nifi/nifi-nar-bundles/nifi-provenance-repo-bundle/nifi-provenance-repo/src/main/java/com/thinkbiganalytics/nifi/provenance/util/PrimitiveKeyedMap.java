@@ -0,0 +1,447 @@
+package com.thinkbiganalytics.nifi.provenance.util;
+
+/*-
+ * #%L
+ * thinkbig-nifi-provenance-repo
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread safe map that stores its keys as one or two longs and its values as one or more longs in flat arrays.
+ * This avoids the object overhead of a {@link ConcurrentHashMap} entry, String key and boxed value for each entry.
+ *
+ * The map is split into segments, each an open addressing hash table guarded by its own monitor.
+ * Keys or values that cannot be encoded as longs are kept in a regular {@link ConcurrentHashMap}.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public abstract class PrimitiveKeyedMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    private static final int INITIAL_SEGMENT_CAPACITY = 64;
+
+    private static final byte EMPTY = 0;
+    private static final byte FULL = 1;
+    private static final byte REMOVED = 2;
+
+    /**
+     * Estimated bytes for an entry in the fallback map including the entry, key and value objects
+     */
+    private static final long FALLBACK_ENTRY_BYTES = 200L;
+
+    private final int keyWidth;
+
+    private final int valueWidth;
+
+    private final Segment[] segments;
+
+    private final Map<K, V> fallback = new ConcurrentHashMap<>();
+
+    /**
+     * Per thread buffer the key (first 2 longs) and value are encoded into, so lookups do not allocate
+     */
+    private final ThreadLocal<long[]> buffer;
+
+    /**
+     * @param keyWidth   the number of longs used to store each key, 1 or 2.  Keys with a width of 1 only store the low bits
+     * @param valueWidth the number of longs used to store each value
+     */
+    @SuppressWarnings("unchecked")
+    protected PrimitiveKeyedMap(int keyWidth, int valueWidth) {
+        this.keyWidth = keyWidth;
+        this.valueWidth = valueWidth;
+        this.buffer = ThreadLocal.withInitial(() -> new long[2 + valueWidth]);
+        this.segments = (Segment[]) new PrimitiveKeyedMap.Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(INITIAL_SEGMENT_CAPACITY);
+        }
+    }
+
+    /**
+     * Encode the key into the high and low bits
+     *
+     * @param key the key
+     * @param dst array of length 2 to hold the high and low bits of the encoded key
+     * @return true if encoded, false if the key needs to be stored in the fallback map
+     */
+    protected abstract boolean encodeKey(Object key, long[] dst);
+
+    protected abstract K decodeKey(long high, long low);
+
+    /**
+     * Encode the value into {@code valueWidth} longs
+     *
+     * @param value  the value
+     * @param dst    the array to hold the encoded value
+     * @param offset the offset in the array to start writing
+     * @return true if encoded, false if the entry needs to be stored in the fallback map
+     */
+    protected abstract boolean encodeValue(V value, long[] dst, int offset);
+
+    protected abstract V decodeValue(long[] src, int offset);
+
+
+    private static int hash(long high, long low) {
+        long h = (high * 0x9E3779B97F4A7C15L) ^ low;
+        h ^= (h >>> 32);
+        h *= 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 29));
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[(hash >>> 28) & (SEGMENTS - 1)];
+    }
+
+    @Override
+    public V get(Object key) {
+        long[] k = buffer.get();
+        if (key != null && encodeKey(key, k)) {
+            int hash = hash(k[0], k[1]);
+            V value = segmentFor(hash).get(k[0], k[1], hash);
+            if (value != null || fallback.isEmpty()) {
+                return value;
+            }
+        }
+        return key != null ? fallback.get(key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        long[] k = buffer.get();
+        if (key != null && encodeKey(key, k)) {
+            int hash = hash(k[0], k[1]);
+            if (segmentFor(hash).contains(k[0], k[1], hash)) {
+                return true;
+            } else if (fallback.isEmpty()) {
+                return false;
+            }
+        }
+        return key != null && fallback.containsKey(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return put(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return put(key, value, true);
+    }
+
+    private V put(K key, V value, boolean onlyIfAbsent) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+        long[] k = buffer.get();
+        if (encodeKey(key, k)) {
+            int hash = hash(k[0], k[1]);
+            Segment segment = segmentFor(hash);
+            if (encodeValue(value, k, 2)) {
+                V previous = fallback.isEmpty() ? null : fallback.get(key);
+                if (previous != null && onlyIfAbsent) {
+                    return previous;
+                }
+                V old = segment.put(k[0], k[1], hash, k, 2, onlyIfAbsent);
+                if (previous != null) {
+                    fallback.remove(key);
+                }
+                return old != null ? old : previous;
+            } else {
+                V old = segment.get(k[0], k[1], hash);
+                if (old != null) {
+                    if (onlyIfAbsent) {
+                        return old;
+                    }
+                    segment.remove(k[0], k[1], hash);
+                }
+                V previous = onlyIfAbsent ? fallback.putIfAbsent(key, value) : fallback.put(key, value);
+                return old != null ? old : previous;
+            }
+        }
+        return onlyIfAbsent ? fallback.putIfAbsent(key, value) : fallback.put(key, value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        long[] k = buffer.get();
+        if (key != null && encodeKey(key, k)) {
+            int hash = hash(k[0], k[1]);
+            V value = segmentFor(hash).remove(k[0], k[1], hash);
+            if (value != null || fallback.isEmpty()) {
+                return value;
+            }
+        }
+        return key != null ? fallback.remove(key) : null;
+    }
+
+    @Override
+    public int size() {
+        int size = fallback.size();
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+        fallback.clear();
+    }
+
+    /**
+     * @return the estimated number of bytes held by this map
+     */
+    public long estimatedBytes() {
+        long bytes = fallback.size() * FALLBACK_ENTRY_BYTES;
+        for (Segment segment : segments) {
+            bytes += segment.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Iterates over a copy of each segment, one segment at a time, so the map can be modified while iterating.
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return PrimitiveKeyedMap.this.size();
+            }
+        };
+    }
+
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+
+        private int segment = 0;
+        private Iterator<Entry<K, V>> current = null;
+        private Entry<K, V> last;
+
+        @Override
+        public boolean hasNext() {
+            while (current == null || !current.hasNext()) {
+                if (segment < SEGMENTS) {
+                    current = segments[segment++].entries().iterator();
+                } else if (segment == SEGMENTS) {
+                    segment++;
+                    current = fallback.entrySet().iterator();
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new java.util.NoSuchElementException();
+            }
+            last = current.next();
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            PrimitiveKeyedMap.this.remove(last.getKey());
+            last = null;
+        }
+    }
+
+    /**
+     * Open addressing hash table with linear probing.  Removed slots are marked until the table is rehashed.
+     */
+    private final class Segment {
+
+        private long[] keys;
+        private long[] values;
+        private byte[] states;
+        private int size;
+        private int used;
+
+        Segment(int capacity) {
+            allocate(capacity);
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity * keyWidth];
+            values = new long[capacity * valueWidth];
+            states = new byte[capacity];
+            size = 0;
+            used = 0;
+        }
+
+        private boolean keyEquals(int i, long high, long low) {
+            return keyWidth == 1 ? keys[i] == low : keys[i * 2] == high && keys[i * 2 + 1] == low;
+        }
+
+        private void setKey(int i, long high, long low) {
+            if (keyWidth == 1) {
+                keys[i] = low;
+            } else {
+                keys[i * 2] = high;
+                keys[i * 2 + 1] = low;
+            }
+        }
+
+        private long high(long[] keys, int i) {
+            return keyWidth == 1 ? 0L : keys[i * 2];
+        }
+
+        private long low(long[] keys, int i) {
+            return keyWidth == 1 ? keys[i] : keys[i * 2 + 1];
+        }
+
+        private int indexOf(long high, long low, int hash) {
+            int mask = states.length - 1;
+            int i = hash & mask;
+            while (states[i] != EMPTY) {
+                if (states[i] == FULL && keyEquals(i, high, low)) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        synchronized V get(long high, long low, int hash) {
+            int i = indexOf(high, low, hash);
+            return i >= 0 ? decodeValue(values, i * valueWidth) : null;
+        }
+
+        synchronized boolean contains(long high, long low, int hash) {
+            return indexOf(high, low, hash) >= 0;
+        }
+
+        synchronized V put(long high, long low, int hash, long[] value, int offset, boolean onlyIfAbsent) {
+            int i = indexOf(high, low, hash);
+            if (i >= 0) {
+                V old = decodeValue(values, i * valueWidth);
+                if (!onlyIfAbsent) {
+                    System.arraycopy(value, offset, values, i * valueWidth, valueWidth);
+                }
+                return old;
+            }
+            int mask = states.length - 1;
+            i = hash & mask;
+            while (states[i] == FULL) {
+                i = (i + 1) & mask;
+            }
+            if (states[i] == EMPTY) {
+                used++;
+            }
+            states[i] = FULL;
+            setKey(i, high, low);
+            System.arraycopy(value, offset, values, i * valueWidth, valueWidth);
+            size++;
+            if (used > states.length * 3 / 4) {
+                rehash(size > states.length / 2 ? states.length * 2 : states.length);
+            }
+            return null;
+        }
+
+        synchronized V remove(long high, long low, int hash) {
+            int i = indexOf(high, low, hash);
+            if (i < 0) {
+                return null;
+            }
+            V old = decodeValue(values, i * valueWidth);
+            states[i] = REMOVED;
+            size--;
+            if (states.length > INITIAL_SEGMENT_CAPACITY && size < states.length / 8) {
+                //shrink after a burst of flow files completes
+                rehash(states.length / 2);
+            }
+            return old;
+        }
+
+        private void rehash(int capacity) {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            byte[] oldStates = states;
+            allocate(capacity);
+            int mask = capacity - 1;
+            for (int j = 0; j < oldStates.length; j++) {
+                if (oldStates[j] == FULL) {
+                    long high = high(oldKeys, j);
+                    long low = low(oldKeys, j);
+                    int i = hash(high, low) & mask;
+                    while (states[i] != EMPTY) {
+                        i = (i + 1) & mask;
+                    }
+                    states[i] = FULL;
+                    setKey(i, high, low);
+                    System.arraycopy(oldValues, j * valueWidth, values, i * valueWidth, valueWidth);
+                    size++;
+                    used++;
+                }
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized void clear() {
+            allocate(INITIAL_SEGMENT_CAPACITY);
+        }
+
+        synchronized List<Entry<K, V>> entries() {
+            List<Entry<K, V>> entries = new ArrayList<>(size);
+            for (int i = 0; i < states.length; i++) {
+                if (states[i] == FULL) {
+                    entries.add(new SimpleImmutableEntry<>(decodeKey(high(keys, i), low(keys, i)), decodeValue(values, i * valueWidth)));
+                }
+            }
+            return entries;
+        }
+
+        synchronized long estimatedBytes() {
+            //array headers plus the array contents
+            return 3 * 16L + keys.length * 8L + values.length * 8L + states.length;
+        }
+    }
+}
@@ -66,11 +66,19 @@ public class TestLoadBackup {
         URL r = getClass().getClassLoader().getResource("feed-event-statistics.gz");
         String path = r.getPath();
 
+        //Test backup and load of the binary checkpoint
+        String checkpointLocation = StringUtils.substringBeforeLast(path, "/") + "/test-backup.checkpoint";
+        FeedEventStatistics.getInstance().backup(checkpointLocation);
+        FeedEventStatistics.getInstance().clear();
+        boolean success = FeedEventStatistics.getInstance().loadBackup(checkpointLocation);
+        Assert.assertTrue(success);
+        Assert.assertNotNull(FeedEventStatistics.getInstance().getFeedFlowFileId(flowfileId));
+
         //Test backup and load of the V3 version of the metadata events
         String v3BackupLocation = StringUtils.substringBeforeLast(path, "/") + "/test-backup.v3.gz";
-        FeedEventStatistics.getInstance().backup(v3BackupLocation);
+        FeedEventStatistics.getInstance().backupSerialized(v3BackupLocation);
         FeedEventStatistics.getInstance().clear();
-        boolean success = FeedEventStatistics.getInstance().loadBackup(v3BackupLocation);
+        success = FeedEventStatistics.getInstance().loadBackup(v3BackupLocation);
         Assert.assertTrue(success);
         FeedEventStatistics eventStatistics = FeedEventStatistics.getInstance();
         Assert.assertNotNull(eventStatistics.getFeedFlowFileId(flowfileId));
@@ -96,6 +104,56 @@ public class TestLoadBackup {
     }
 
 
+    /**
+     * Test the binary checkpoint writes and reads each of the tracking maps
+     */
+    @Test
+    public void testCheckpoint() throws Exception {
+        FeedEventStatistics.getInstance().clear();
+        String componentId = UUID.randomUUID().toString();
+        String flowfileId = UUID.randomUUID().toString();
+        String childFlowFileId = "not-a-uuid-" + UUID.randomUUID().toString();
+        ProvenanceEventRecord start = new StandardProvenanceEventRecord.Builder().setEventTime(System.currentTimeMillis())
+            .setFlowFileEntryDate(DateTime.now().getMillis())
+            .setComponentId(componentId)
+            .setComponentType("PROCESSOR")
+            .setCurrentContentClaim("container", "section", "identifier", 0L, 0L)
+            .setFlowFileUUID(flowfileId)
+            .setEventType(ProvenanceEventType.CREATE)
+            .build();
+        ProvenanceEventRecord clone = new StandardProvenanceEventRecord.Builder().setEventTime(System.currentTimeMillis())
+            .setFlowFileEntryDate(start.getFlowFileEntryDate())
+            .setComponentId(UUID.randomUUID().toString())
+            .setComponentType("PROCESSOR")
+            .setCurrentContentClaim("container", "section", "identifier", 0L, 0L)
+            .setFlowFileUUID(flowfileId)
+            .setEventType(ProvenanceEventType.CLONE)
+            .addParentUuid(flowfileId)
+            .addChildUuid(childFlowFileId)
+            .build();
+        FeedEventStatistics.getInstance().checkAndAssignStartingFlowFile(start, 1L);
+        FeedEventStatistics.getInstance().calculateTimes(start, 1L);
+        FeedEventStatistics.getInstance().setTrackingDetails(start);
+        FeedEventStatistics.getInstance().assignParentsAndChildren(clone);
+        FeedEventStatistics.getInstance().skip(clone, 2L);
+
+        File checkpoint = File.createTempFile("feed-event-statistics", ".checkpoint");
+        checkpoint.deleteOnExit();
+        Assert.assertTrue(FeedEventStatistics.getInstance().backup(checkpoint.getAbsolutePath()));
+        FeedEventStatistics.getInstance().clear();
+        FeedEventStatistics.getInstance().setDeleteBackupAfterLoad(false);
+        Assert.assertTrue(FeedEventStatistics.getInstance().loadBackup(checkpoint.getAbsolutePath()));
+
+        FeedEventStatistics eventStatistics = FeedEventStatistics.getInstance();
+        Assert.assertEquals(flowfileId, eventStatistics.getFeedFlowFileId(flowfileId));
+        Assert.assertEquals(flowfileId, eventStatistics.getFeedFlowFileId(childFlowFileId));
+        Assert.assertEquals(componentId, eventStatistics.getFeedProcessorId(flowfileId));
+        Assert.assertTrue(eventStatistics.isTrackingDetails(childFlowFileId));
+        Assert.assertEquals(start.getFlowFileEntryDate(), eventStatistics.getEventStartTime(1L).longValue());
+        Assert.assertEquals(start.getFlowFileEntryDate(), eventStatistics.getFeedFlowStartTime(flowfileId).longValue());
+        Assert.assertEquals(1L, eventStatistics.getSkippedEvents().longValue());
+    }
+
     private void backupV2(String location) throws Exception {
 
         try (FileOutputStream fos = new FileOutputStream(location);
@@ -0,0 +1,104 @@
+package com.thinkbiganalytics.nifi.provenance.jms;
+
+
+/*-
+ * #%L
+ * kylo-nifi-provenance-repo
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTOHolder;
+import com.thinkbiganalytics.nifi.provenance.model.codec.ProvenanceEventCodec;
+import com.thinkbiganalytics.nifi.provenance.model.codec.ProvenanceEventCodecs;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the encode and decode throughput (events per second) of the {@link ProvenanceEventCodecs}.
+ *
+ * Run the main method to print the encoded bytes per event and execute the benchmark.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProvenanceEventCodecBenchmark {
+
+    private static final int FLOWS = 250;
+
+    private static final int EVENTS_PER_FLOW = 4;
+
+    @Param({"java", "binary", "binary-deflate"})
+    public String codecName;
+
+    ProvenanceEventCodec codec;
+
+    ProvenanceEventRecordDTOHolder holder;
+
+    byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        codec = ProvenanceEventCodecs.forName(codecName);
+        holder = ProvenanceEventCodecTestData.buildHolder(FLOWS, EVENTS_PER_FLOW);
+        encoded = codec.encode(holder);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FLOWS * EVENTS_PER_FLOW)
+    public byte[] encode() throws IOException {
+        return codec.encode(holder);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FLOWS * EVENTS_PER_FLOW)
+    public ProvenanceEventRecordDTOHolder decode() throws IOException {
+        return codec.decode(encoded);
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        ProvenanceEventRecordDTOHolder holder = ProvenanceEventCodecTestData.buildHolder(FLOWS, EVENTS_PER_FLOW);
+        for (String name : new String[]{"java", "binary", "binary-deflate"}) {
+            int bytes = ProvenanceEventCodecs.forName(name).encode(holder).length;
+            System.out.println(String.format("%-15s %8d bytes  %6.1f bytes/event", name, bytes, (double) bytes / (FLOWS * EVENTS_PER_FLOW)));
+        }
+        Options options = new OptionsBuilder()
+            .include(ProvenanceEventCodecBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,111 @@
+package com.thinkbiganalytics.nifi.provenance.jms;
+
+
+/*-
+ * #%L
+ * kylo-nifi-provenance-repo
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTO;
+import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTOHolder;
+import com.thinkbiganalytics.nifi.provenance.model.codec.BinaryProvenanceEventCodec;
+import com.thinkbiganalytics.nifi.provenance.model.codec.ProvenanceEventCodec;
+import com.thinkbiganalytics.nifi.provenance.model.codec.ProvenanceEventCodecs;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+public class ProvenanceEventCodecTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        ProvenanceEventRecordDTOHolder holder = ProvenanceEventCodecTestData.buildHolder(20, 4);
+        //include an event with missing values
+        ProvenanceEventRecordDTO empty = new ProvenanceEventRecordDTO();
+        empty.setEventId(5L);
+        holder.getEvents().add(empty);
+
+        for (String name : Arrays.asList("java", "binary", "binary-deflate")) {
+            ProvenanceEventCodec codec = ProvenanceEventCodecs.forName(name);
+            Assert.assertEquals(name, codec.getName());
+            byte[] data = codec.encode(holder);
+            assertEquals(holder, ProvenanceEventCodecs.decode(data, name));
+        }
+    }
+
+    @Test
+    public void testDetectFormatWithoutHeader() throws Exception {
+        ProvenanceEventRecordDTOHolder holder = ProvenanceEventCodecTestData.buildHolder(2, 3);
+        assertEquals(holder, ProvenanceEventCodecs.decode(ProvenanceEventCodecs.BINARY.encode(holder), null));
+        assertEquals(holder, ProvenanceEventCodecs.decode(ProvenanceEventCodecs.JAVA.encode(holder), null));
+    }
+
+    @Test
+    public void testBinaryIsSmaller() throws Exception {
+        ProvenanceEventRecordDTOHolder holder = ProvenanceEventCodecTestData.buildHolder(50, 4);
+        int java = ProvenanceEventCodecs.JAVA.encode(holder).length;
+        int binary = ProvenanceEventCodecs.BINARY.encode(holder).length;
+        int deflate = ProvenanceEventCodecs.BINARY_DEFLATE.encode(holder).length;
+        Assert.assertTrue("binary " + binary + " java " + java, binary * 2 < java);
+        Assert.assertTrue("deflate " + deflate + " binary " + binary, deflate < binary);
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedData() throws Exception {
+        byte[] data = ProvenanceEventCodecs.BINARY.encode(ProvenanceEventCodecTestData.buildHolder(2, 3));
+        new BinaryProvenanceEventCodec().decode(Arrays.copyOf(data, data.length / 2));
+    }
+
+    private void assertEquals(ProvenanceEventRecordDTOHolder expected, ProvenanceEventRecordDTOHolder actual) {
+        Assert.assertEquals(expected.getBatchId(), actual.getBatchId());
+        List<ProvenanceEventRecordDTO> expectedEvents = expected.getEvents();
+        List<ProvenanceEventRecordDTO> actualEvents = actual.getEvents();
+        Assert.assertEquals(expectedEvents.size(), actualEvents.size());
+        for (int i = 0; i < expectedEvents.size(); i++) {
+            ProvenanceEventRecordDTO e = expectedEvents.get(i);
+            ProvenanceEventRecordDTO a = actualEvents.get(i);
+            Assert.assertEquals(e.getEventId(), a.getEventId());
+            Assert.assertEquals(e.getEventTime(), a.getEventTime());
+            Assert.assertEquals(e.getStartTime(), a.getStartTime());
+            Assert.assertEquals(e.getEventDuration(), a.getEventDuration());
+            Assert.assertEquals(e.getEventType(), a.getEventType());
+            Assert.assertEquals(e.getFlowFileUuid(), a.getFlowFileUuid());
+            Assert.assertEquals(e.getJobFlowFileId(), a.getJobFlowFileId());
+            Assert.assertEquals(e.getComponentId(), a.getComponentId());
+            Assert.assertEquals(e.getComponentName(), a.getComponentName());
+            Assert.assertEquals(e.getFirstEventProcessorId(), a.getFirstEventProcessorId());
+            Assert.assertEquals(e.getFeedName(), a.getFeedName());
+            Assert.assertEquals(e.getFeedProcessGroupId(), a.getFeedProcessGroupId());
+            Assert.assertEquals(e.getFileSizeBytes(), a.getFileSizeBytes());
+            Assert.assertEquals(e.getFileSize(), a.getFileSize());
+            Assert.assertEquals(e.isStartOfJob(), a.isStartOfJob());
+            Assert.assertEquals(e.isFinalJobEvent(), a.isFinalJobEvent());
+            Assert.assertEquals(e.isFailure(), a.isFailure());
+            Assert.assertEquals(e.getProcessorType(), a.getProcessorType());
+            Assert.assertEquals(e.getParentUuids(), a.getParentUuids());
+            Assert.assertEquals(e.getChildUuids(), a.getChildUuids());
+            Assert.assertEquals(e.getUpdatedAttributes(), a.getUpdatedAttributes());
+            Assert.assertEquals(e.getAttributeMap(), a.getAttributeMap());
+            Assert.assertEquals(e.getPreviousAttributes(), a.getPreviousAttributes());
+        }
+    }
+}
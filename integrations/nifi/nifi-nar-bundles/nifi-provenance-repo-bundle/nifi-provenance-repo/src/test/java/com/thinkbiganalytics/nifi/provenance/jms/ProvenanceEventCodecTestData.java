@@ -0,0 +1,90 @@
+package com.thinkbiganalytics.nifi.provenance.jms;
+
+
+/*-
+ * #%L
+ * kylo-nifi-provenance-repo
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.nifi.provenance.KyloProcessorFlowType;
+import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTO;
+import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTOHolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Builds batches of events that look like those sent to ops manager for a feed flow
+ */
+public class ProvenanceEventCodecTestData {
+
+    private ProvenanceEventCodecTestData() {
+
+    }
+
+    public static ProvenanceEventRecordDTOHolder buildHolder(int flows, int eventsPerFlow) {
+        String feedProcessGroupId = UUID.randomUUID().toString();
+        String[] processorIds = new String[eventsPerFlow];
+        for (int i = 0; i < eventsPerFlow; i++) {
+            processorIds[i] = UUID.randomUUID().toString();
+        }
+        long eventId = 1000;
+        long now = System.currentTimeMillis();
+        List<ProvenanceEventRecordDTO> events = new ArrayList<>();
+        for (int flow = 0; flow < flows; flow++) {
+            String jobFlowFileId = UUID.randomUUID().toString();
+            for (int i = 0; i < eventsPerFlow; i++) {
+                ProvenanceEventRecordDTO event = new ProvenanceEventRecordDTO();
+                event.setEventId(eventId++);
+                event.setStartTime(now - 5);
+                event.setEventTime(now++);
+                event.setEventType(i == 0 ? "CREATE" : i == eventsPerFlow - 1 ? "DROP" : "ATTRIBUTES_MODIFIED");
+                event.setFlowFileUuid(jobFlowFileId);
+                event.setJobFlowFileId(jobFlowFileId);
+                event.setComponentId(processorIds[i]);
+                event.setFirstEventProcessorId(processorIds[0]);
+                event.setComponentType("UpdateAttribute");
+                event.setComponentName("Processor " + i);
+                event.setFeedName("category.feed");
+                event.setFeedProcessGroupId(feedProcessGroupId);
+                event.setGroupId(feedProcessGroupId);
+                event.setFileSizeBytes(1024L * i);
+                event.setFileSize(event.getFileSizeBytes() + " bytes");
+                event.setIsStartOfJob(i == 0);
+                event.setIsFinalJobEvent(i == eventsPerFlow - 1);
+                event.setProcessorType(KyloProcessorFlowType.NORMAL_FLOW);
+                event.setParentUuids(new ArrayList<String>());
+                event.setChildUuids(Arrays.asList(UUID.randomUUID().toString()));
+                Map<String, String> attributes = new HashMap<>();
+                attributes.put("filename", "file-" + flow + ".csv");
+                attributes.put("path", "./");
+                attributes.put("uuid", jobFlowFileId);
+                event.setUpdatedAttributes(attributes);
+                event.setAttributeMap(attributes);
+                events.add(event);
+            }
+        }
+        ProvenanceEventRecordDTOHolder holder = new ProvenanceEventRecordDTOHolder();
+        holder.setEvents(events);
+        return holder;
+    }
+}
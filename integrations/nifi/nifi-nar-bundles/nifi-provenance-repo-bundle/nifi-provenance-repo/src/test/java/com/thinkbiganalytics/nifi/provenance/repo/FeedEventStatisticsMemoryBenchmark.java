@@ -0,0 +1,118 @@
+package com.thinkbiganalytics.nifi.provenance.repo;
+
+/*-
+ * #%L
+ * thinkbig-nifi-provenance-repo
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.nifi.provenance.util.EventLongMap;
+import com.thinkbiganalytics.nifi.provenance.util.FlowFileIdMap;
+import com.thinkbiganalytics.nifi.provenance.util.FlowFileLongMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Reports the heap used per tracked flow file by the {@link FeedEventStatistics} maps,
+ * comparing the previous {@link ConcurrentHashMap} maps against the primitive keyed maps.
+ *
+ * Run the main method with a large heap, e.g. -Xmx4g, to execute the benchmark.
+ */
+public class FeedEventStatisticsMemoryBenchmark {
+
+    private static final int FLOW_FILES = 1_000_000;
+
+    /**
+     * Each feed flow file has 10 flow files, each flow file has one event tracked
+     */
+    private static final int FLOW_FILES_PER_FEED_FLOW = 10;
+
+    private static class TrackingMaps {
+
+        Map<String, String> allFlowFileToFeedFlowFile;
+        Map<String, String> feedFlowFileIdToFeedProcessorId;
+        Map<String, Long> flowFileLastNonDropEventTime;
+        Map<String, Long> feedFlowFileStartTime;
+        Map<Long, Long> eventDuration;
+        Map<Long, Long> eventStartTime;
+
+        TrackingMaps(Supplier<Map<String, String>> idMap, Supplier<Map<String, Long>> timeMap, Supplier<Map<Long, Long>> eventMap) {
+            allFlowFileToFeedFlowFile = idMap.get();
+            feedFlowFileIdToFeedProcessorId = idMap.get();
+            flowFileLastNonDropEventTime = timeMap.get();
+            feedFlowFileStartTime = timeMap.get();
+            eventDuration = eventMap.get();
+            eventStartTime = eventMap.get();
+        }
+
+        void track(int count) {
+            String feedProcessorId = UUID.randomUUID().toString();
+            String feedFlowFileId = null;
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < count; i++) {
+                String flowFileId = UUID.randomUUID().toString();
+                if (i % FLOW_FILES_PER_FEED_FLOW == 0) {
+                    feedFlowFileId = flowFileId;
+                    feedFlowFileIdToFeedProcessorId.put(feedFlowFileId, feedProcessorId);
+                    feedFlowFileStartTime.put(feedFlowFileId, now);
+                }
+                allFlowFileToFeedFlowFile.put(flowFileId, feedFlowFileId);
+                flowFileLastNonDropEventTime.put(flowFileId, now + i);
+                eventDuration.put((long) i, 100L);
+                eventStartTime.put((long) i, now + i);
+            }
+        }
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static double bytesPerFlowFile(Supplier<TrackingMaps> supplier) {
+        List<TrackingMaps> retained = new ArrayList<>();
+        long before = usedHeap();
+        TrackingMaps maps = supplier.get();
+        retained.add(maps);
+        maps.track(FLOW_FILES);
+        long after = usedHeap();
+        double bytes = (after - before) / (double) FLOW_FILES;
+        retained.clear();
+        return bytes;
+    }
+
+    public static void main(String[] args) {
+        double before = bytesPerFlowFile(() -> new TrackingMaps(ConcurrentHashMap::new, ConcurrentHashMap::new, ConcurrentHashMap::new));
+        double after = bytesPerFlowFile(() -> new TrackingMaps(FlowFileIdMap::new, FlowFileLongMap::new, EventLongMap::new));
+        System.out.println(String.format("Tracked flow files: %d", FLOW_FILES));
+        System.out.println(String.format("ConcurrentHashMap bytes per flow file: %.1f", before));
+        System.out.println(String.format("PrimitiveKeyedMap bytes per flow file: %.1f", after));
+    }
+}
@@ -0,0 +1,140 @@
+package com.thinkbiganalytics.nifi.provenance.repo;
+
+/*-
+ * #%L
+ * kylo-nifi-provenance-repo
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.apache.nifi.provenance.ProvenanceEventRecord;
+import org.apache.nifi.provenance.ProvenanceEventType;
+import org.apache.nifi.provenance.StandardProvenanceEventRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the provenance events per second processed by the {@link FeedStatisticsManager} for 1 to 32 producer threads.
+ * A single lock stripe matches the previous global lock implementation.
+ *
+ * Run the main method to execute the benchmark.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeedStatisticsManagerBenchmark {
+
+    private static final int EVENTS_PER_FLOW = 3;
+
+    @State(Scope.Benchmark)
+    public static class ManagerState {
+
+        @Param({"1", "32"})
+        public int ingestLockStripes;
+
+        FeedStatisticsManager feedStatisticsManager;
+
+        AtomicLong eventId = new AtomicLong(0);
+
+        String[] feedProcessorIds = new String[16];
+
+        ScheduledExecutorService gatherStatsService;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            feedStatisticsManager = new FeedStatisticsManager(ingestLockStripes);
+            for (int i = 0; i < feedProcessorIds.length; i++) {
+                feedProcessorIds[i] = UUID.randomUUID().toString();
+            }
+            //drain the stats while events are added as the timer thread would
+            gatherStatsService = Executors.newSingleThreadScheduledExecutor();
+            gatherStatsService.scheduleAtFixedRate(() -> feedStatisticsManager.snapshotStripes(), 500, 500, TimeUnit.MILLISECONDS);
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            gatherStatsService.shutdownNow();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ProducerState {
+
+        String processorId = UUID.randomUUID().toString();
+
+        int flowCount = 0;
+    }
+
+    private static ProvenanceEventRecord buildEvent(String componentId, ProvenanceEventType type, String flowFileId) {
+        long now = System.currentTimeMillis();
+        return new StandardProvenanceEventRecord.Builder()
+            .setEventTime(now)
+            .setFlowFileEntryDate(now)
+            .setComponentId(componentId)
+            .setComponentType("com.thinkbiganalytics.ComponentType")
+            .setCurrentContentClaim("container", "section", "identifier", 0L, 0L)
+            .setFlowFileUUID(flowFileId)
+            .setEventType(type)
+            .build();
+    }
+
+    /**
+     * Simulate a feed flow of a starting, modify and drop event
+     */
+    @Benchmark
+    @OperationsPerInvocation(EVENTS_PER_FLOW)
+    public void addEvents(ManagerState manager, ProducerState producer) {
+        String flowFileId = UUID.randomUUID().toString();
+        String feedProcessorId = manager.feedProcessorIds[producer.flowCount++ % manager.feedProcessorIds.length];
+        manager.feedStatisticsManager.addEvent(buildEvent(feedProcessorId, ProvenanceEventType.CREATE, flowFileId), manager.eventId.incrementAndGet());
+        manager.feedStatisticsManager.addEvent(buildEvent(producer.processorId, ProvenanceEventType.ATTRIBUTES_MODIFIED, flowFileId), manager.eventId.incrementAndGet());
+        manager.feedStatisticsManager.addEvent(buildEvent(producer.processorId, ProvenanceEventType.DROP, flowFileId), manager.eventId.incrementAndGet());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 2, 4, 8, 16, 32}) {
+            Options options = new OptionsBuilder()
+                .include(FeedStatisticsManagerBenchmark.class.getSimpleName())
+                .threads(threads)
+                .build();
+            new Runner(options).run();
+        }
+    }
+}
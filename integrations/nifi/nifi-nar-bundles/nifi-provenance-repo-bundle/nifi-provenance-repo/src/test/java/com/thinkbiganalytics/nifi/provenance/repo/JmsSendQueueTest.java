@@ -0,0 +1,124 @@
+package com.thinkbiganalytics.nifi.provenance.repo;
+
+/*-
+ * #%L
+ * thinkbig-nifi-provenance-repo
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTO;
+import com.thinkbiganalytics.nifi.provenance.model.stats.AggregatedFeedProcessorStatistics;
+import com.thinkbiganalytics.nifi.provenance.model.stats.AggregatedProcessorStatisticsV2;
+import com.thinkbiganalytics.nifi.provenance.model.stats.GroupedStats;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test the back pressure of the {@link JmsSendQueue}
+ */
+public class JmsSendQueueTest {
+
+    private ProvenanceEventRecordDTO event(long eventId, boolean startOfJob) {
+        ProvenanceEventRecordDTO event = new ProvenanceEventRecordDTO();
+        event.setEventId(eventId);
+        event.setEventTime(eventId);
+        event.setIsStartOfJob(startOfJob);
+        return event;
+    }
+
+    private AggregatedFeedProcessorStatistics stats(String feedProcessorId, String processorId, long count) {
+        AggregatedFeedProcessorStatistics feedStats = new AggregatedFeedProcessorStatistics(feedProcessorId, "collection", 1000L);
+        AggregatedProcessorStatisticsV2 processorStats = new AggregatedProcessorStatisticsV2(processorId, null, "collection");
+        GroupedStats groupedStats = processorStats.getStats("connection");
+        groupedStats.addTotalCount(count);
+        groupedStats.setMinTime(1L);
+        groupedStats.setMaxTime(2L);
+        feedStats.getProcessorStats().put(processorId, processorStats);
+        return feedStats;
+    }
+
+    private JmsSender sender(List<ProvenanceEventRecordDTO> events, AggregatedFeedProcessorStatistics stats, long runningFlows) {
+        Map<String, Long> running = new HashMap<>();
+        running.put("feed", runningFlows);
+        return new JmsSender(events, Collections.singletonList(stats), running, true);
+    }
+
+    @Test
+    public void testCoalesceStats() {
+        JmsSender older = sender(new ArrayList<>(Collections.singletonList(event(1L, true))), stats("feed", "processor", 5L), 1L);
+        JmsSender newer = sender(Collections.singletonList(event(2L, false)), stats("feed", "processor", 3L), 4L);
+
+        Assert.assertEquals(0, older.coalesce(newer, 10));
+        Assert.assertEquals(2, older.eventsToSend.size());
+        Assert.assertEquals(1, older.statsToSend.size());
+        AggregatedFeedProcessorStatistics feedStats = older.statsToSend.get(0);
+        Assert.assertEquals(Long.valueOf(2000L), feedStats.getCollectionIntervalMillis());
+        Assert.assertEquals(8L, (long) feedStats.getProcessorStats().get("processor").getStats("connection").getTotalCount());
+        Assert.assertEquals(Long.valueOf(4L), older.processorIdRunningFlows.get("feed"));
+
+        //a new feed is added to the stats
+        older.coalesce(sender(null, stats("feed2", "processor", 1L), 1L), 10);
+        Assert.assertEquals(2, older.statsToSend.size());
+    }
+
+    @Test
+    public void testCoalesceDropsEventsThatDoNotStartJobs() {
+        List<ProvenanceEventRecordDTO> events = new ArrayList<>();
+        for (long i = 0; i < 10; i++) {
+            events.add(event(i, i % 5 == 0));
+        }
+        JmsSender older = sender(events, stats("feed", "processor", 1L), 1L);
+        Assert.assertEquals(7, older.coalesce(sender(Collections.singletonList(event(10L, false)), stats("feed", "processor", 1L), 1L), 4));
+        Assert.assertEquals(4, older.eventsToSend.size());
+        Assert.assertTrue(older.eventsToSend.get(0).isStartOfJob());
+        Assert.assertTrue(older.eventsToSend.get(1).isStartOfJob());
+        Assert.assertEquals(Long.valueOf(10L), older.eventsToSend.get(3).getEventId());
+
+        //only the newest events are kept if all of them start jobs
+        Assert.assertEquals(4, older.coalesce(sender(Collections.singletonList(event(11L, true)), stats("feed", "processor", 1L), 1L), 1));
+        Assert.assertEquals(Long.valueOf(11L), older.eventsToSend.get(0).getEventId());
+    }
+
+    @Test
+    public void testFullQueueCoalesces() {
+        List<JmsSender> sent = new ArrayList<>();
+        JmsSendQueue queue = new JmsSendQueue(1, 1) {
+            @Override
+            void send(JmsSender jmsSender) {
+                sent.add(jmsSender);
+            }
+        };
+        queue.submit(sender(Collections.singletonList(event(1L, true)), stats("feed", "processor", 1L), 1L));
+        Assert.assertFalse(queue.isBackedUp());
+        Assert.assertEquals(1, queue.getQueueDepth());
+
+        queue.submit(sender(Collections.singletonList(event(2L, true)), stats("feed", "processor", 1L), 1L));
+        queue.submit(sender(Collections.singletonList(event(3L, true)), stats("feed", "processor", 1L), 1L));
+        queue.submit(sender(Collections.singletonList(event(4L, true)), stats("feed", "processor", 1L), 1L));
+        Assert.assertTrue(queue.isBackedUp());
+        Assert.assertEquals(1, queue.getQueueDepth());
+        Assert.assertEquals(2, queue.getCoalescedBatches());
+        Assert.assertEquals(2, queue.getDroppedEvents());
+    }
+}
@@ -0,0 +1,94 @@
+package com.thinkbiganalytics.nifi.provenance.repo;
+
+/*-
+ * #%L
+ * thinkbig-nifi-provenance-repo
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test the {@link StartingFeedFlowThrottle} shared by the lock stripes
+ */
+public class StartingFeedFlowThrottleTest {
+
+    @Test
+    public void testThrottleToOnePerSecond() {
+        StartingFeedFlowThrottle throttle = new StartingFeedFlowThrottle(3, 1000);
+        Assert.assertTrue(throttle.tryStart(10000L));
+        Assert.assertTrue(throttle.tryStart(10001L));
+        Assert.assertFalse(throttle.isThrottled());
+
+        //the third start within the period throttles, but is the first start sent in its second
+        Assert.assertTrue(throttle.tryStart(10002L));
+        Assert.assertTrue(throttle.isThrottled());
+        Assert.assertFalse(throttle.tryStart(10003L));
+        Assert.assertFalse(throttle.tryStart(10500L));
+
+        //one start is sent in the next second
+        Assert.assertTrue(throttle.tryStart(11000L));
+        Assert.assertFalse(throttle.tryStart(11001L));
+
+        //flows slow down
+        Assert.assertTrue(throttle.tryStart(13000L));
+        Assert.assertFalse(throttle.isThrottled());
+    }
+
+    /**
+     * Starts from many stripes share the same limit of 1 per second once throttled
+     */
+    @Test
+    public void testSharedByThreads() throws Exception {
+        StartingFeedFlowThrottle throttle = new StartingFeedFlowThrottle(5, 1000);
+        for (int i = 0; i < 5; i++) {
+            throttle.tryStart(20500L + i);
+        }
+        Assert.assertTrue(throttle.isThrottled());
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Integer>> stripes = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                stripes.add(() -> {
+                    int sent = 0;
+                    for (int i = 0; i < 1000; i++) {
+                        if (throttle.tryStart(21000L + (i % 100))) {
+                            sent++;
+                        }
+                    }
+                    return sent;
+                });
+            }
+            int sent = 0;
+            for (Future<Integer> result : executor.invokeAll(stripes)) {
+                sent += result.get();
+            }
+            Assert.assertEquals(1, sent);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.thinkbiganalytics.nifi.provenance.util;
+
+/*-
+ * #%L
+ * thinkbig-nifi-provenance-repo
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Test the primitive keyed maps used to track flow files
+ */
+public class FlowFileIdMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        FlowFileIdMap map = new FlowFileIdMap();
+        Map<String, String> expected = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            String flowFileId = UUID.randomUUID().toString();
+            String feedFlowFileId = UUID.randomUUID().toString();
+            map.put(flowFileId, feedFlowFileId);
+            expected.put(flowFileId, feedFlowFileId);
+        }
+        Assert.assertEquals(expected.size(), map.size());
+        expected.forEach((k, v) -> Assert.assertEquals(v, map.get(k)));
+        Assert.assertEquals(expected, new HashMap<>(map));
+
+        //remove most of the entries to force the segments to shrink
+        Iterator<String> keys = expected.keySet().iterator();
+        int removed = 0;
+        while (keys.hasNext() && removed < 9900) {
+            String key = keys.next();
+            Assert.assertEquals(expected.get(key), map.remove(key));
+            keys.remove();
+            removed++;
+        }
+        Assert.assertEquals(expected.size(), map.size());
+        expected.forEach((k, v) -> Assert.assertEquals(v, map.get(k)));
+        Assert.assertNull(map.get(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    public void testNonUuidIds() {
+        FlowFileIdMap map = new FlowFileIdMap();
+        String uuid = UUID.randomUUID().toString();
+        String upperCase = UUID.randomUUID().toString().toUpperCase();
+        map.put("flowfile-1", uuid);
+        map.put(uuid, "feed-flowfile-1");
+        map.put(upperCase, uuid);
+        Assert.assertEquals(uuid, map.get("flowfile-1"));
+        Assert.assertEquals("feed-flowfile-1", map.get(uuid));
+        Assert.assertEquals(uuid, map.get(upperCase));
+        Assert.assertEquals(3, map.size());
+
+        //replacing a fallback value with a uuid value moves it back to the primitive table
+        String other = UUID.randomUUID().toString();
+        Assert.assertEquals("feed-flowfile-1", map.put(uuid, other));
+        Assert.assertEquals(other, map.get(uuid));
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals(other, map.putIfAbsent(uuid, "ignored"));
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testFormatIds() {
+        long[] bits = new long[2];
+        for (int i = 0; i < 1000; i++) {
+            UUID uuid = UUID.randomUUID();
+            Assert.assertEquals(uuid.toString(), FlowFileIds.toString(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+            Assert.assertTrue(FlowFileIds.parse(uuid.toString(), bits));
+            Assert.assertEquals(uuid, new UUID(bits[0], bits[1]));
+        }
+        Assert.assertEquals("00000000-0000-0000-0000-000000000000", FlowFileIds.toString(0L, 0L));
+        Assert.assertEquals("ffffffff-ffff-ffff-ffff-ffffffffffff", FlowFileIds.toString(-1L, -1L));
+    }
+
+    @Test
+    public void testRepeatedValuesAreNotReformatted() {
+        FlowFileIdMap map = new FlowFileIdMap();
+        String feedFlowFileId = UUID.randomUUID().toString();
+        String first = UUID.randomUUID().toString();
+        String second = UUID.randomUUID().toString();
+        map.put(first, feedFlowFileId);
+        map.put(second, feedFlowFileId);
+        Assert.assertTrue(map.containsKey(first));
+        Assert.assertFalse(map.containsKey(UUID.randomUUID().toString()));
+        Assert.assertEquals(feedFlowFileId, map.get(first));
+        Assert.assertSame(map.get(first), map.get(second));
+    }
+
+    @Test
+    public void testEventLongMap() {
+        EventLongMap map = new EventLongMap();
+        for (long i = 0; i < 1000; i++) {
+            map.put(i, i * 10);
+        }
+        Assert.assertEquals(Long.valueOf(990L), map.get(99L));
+        Assert.assertEquals(Long.valueOf(990L), map.remove(99L));
+        Assert.assertFalse(map.containsKey(99L));
+        Assert.assertEquals(999, map.size());
+        Assert.assertTrue(map.estimatedBytes() > 0);
+    }
+}
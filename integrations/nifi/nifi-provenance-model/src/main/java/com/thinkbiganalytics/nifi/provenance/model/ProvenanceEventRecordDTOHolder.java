@@ -121,4 +121,11 @@ public class ProvenanceEventRecordDTOHolder implements Serializable {
         return batchId;
     }
 
+    /**
+     * set the Unique Id for this collection of events.  Used when a holder is decoded from a message
+     */
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
 }
@@ -0,0 +1,564 @@
+package com.thinkbiganalytics.nifi.provenance.model.codec;
+
+/*-
+ * #%L
+ * thinkbig-nifi-provenance-model
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.nifi.provenance.KyloProcessorFlowType;
+import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTO;
+import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTOHolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Versioned binary encoding of a {@link ProvenanceEventRecordDTOHolder}.
+ *
+ * The payload starts with a 4 byte magic number, a version and a flags byte.
+ * All strings in the batch (feed names, processor and component ids, flow file ids, attribute keys and values) are written once to a dictionary
+ * and referenced by their index.  Numbers are written as variable length integers, and event ids and times are written as the difference from the previous event.
+ * The dictionary and events can optionally be compressed with {@link Deflater#BEST_SPEED}.
+ *
+ * The additional (JSON any-setter) properties of the events are not part of the schema and are not sent.
+ */
+public class BinaryProvenanceEventCodec implements ProvenanceEventCodec {
+
+    public static final String NAME = "binary";
+
+    public static final String DEFLATE_NAME = "binary-deflate";
+
+    /**
+     * "KPEV"
+     */
+    static final int MAGIC = 0x4B504556;
+
+    static final int VERSION = 1;
+
+    private static final int FLAG_DEFLATE = 1;
+
+    private static final int START_OF_JOB = 1;
+    private static final int FINAL_JOB_EVENT = 1 << 1;
+    private static final int FAILURE = 1 << 2;
+    private static final int STREAM = 1 << 3;
+    private static final int HAS_START_TIME = 1 << 4;
+    private static final int HAS_EVENT_ID = 1 << 5;
+    private static final int HAS_EVENT_TIME = 1 << 6;
+    private static final int HAS_EVENT_DURATION = 1 << 7;
+    private static final int HAS_FILE_SIZE_BYTES = 1 << 8;
+    private static final int HAS_INPUT_CLAIM_BYTES = 1 << 9;
+    private static final int HAS_OUTPUT_CLAIM_BYTES = 1 << 10;
+
+    private final boolean compress;
+
+    public BinaryProvenanceEventCodec() {
+        this(false);
+    }
+
+    /**
+     * @param compress true to compress the encoded events
+     */
+    public BinaryProvenanceEventCodec(boolean compress) {
+        this.compress = compress;
+    }
+
+    @Override
+    public String getName() {
+        return compress ? DEFLATE_NAME : NAME;
+    }
+
+    /**
+     * @return true if the data starts with the magic number written by this codec
+     */
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length >= 6 && readInt(data, 0) == MAGIC;
+    }
+
+    @Override
+    public byte[] encode(ProvenanceEventRecordDTOHolder holder) throws IOException {
+        Writer events = new Writer(1024);
+        Dictionary dictionary = new Dictionary();
+        writeHolder(events, dictionary, holder);
+
+        Writer content = new Writer(events.size() + dictionary.strings.size() * 40 + 16);
+        content.writeVarInt(dictionary.strings.size());
+        for (String s : dictionary.strings) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            content.writeVarInt(bytes.length);
+            content.write(bytes, 0, bytes.length);
+        }
+        content.write(events.buffer, 0, events.size());
+
+        Writer out = new Writer(compress ? content.size() / 2 + 16 : content.size() + 6);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(compress ? FLAG_DEFLATE : 0);
+        if (compress) {
+            out.writeVarInt(content.size());
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(content.buffer, 0, content.size());
+                deflater.finish();
+                byte[] chunk = new byte[8192];
+                while (!deflater.finished()) {
+                    int length = deflater.deflate(chunk);
+                    out.write(chunk, 0, length);
+                }
+            } finally {
+                deflater.end();
+            }
+        } else {
+            out.write(content.buffer, 0, content.size());
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public ProvenanceEventRecordDTOHolder decode(byte[] data) throws IOException {
+        if (!isBinary(data)) {
+            throw new IOException("The data is not in the binary provenance event format");
+        }
+        int version = data[4] & 0xFF;
+        if (version > VERSION) {
+            throw new IOException("Unsupported binary provenance event version " + version + ".  The max supported version is " + VERSION);
+        }
+        int flags = data[5] & 0xFF;
+        Reader in = new Reader(data, 6, data.length);
+        if ((flags & FLAG_DEFLATE) != 0) {
+            int length = in.readVarInt();
+            byte[] content = new byte[length];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(data, in.position, data.length - in.position);
+                int read = 0;
+                while (read < length && !inflater.finished()) {
+                    int n = inflater.inflate(content, read, length - read);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new IOException("Truncated binary provenance event data");
+                    }
+                    read += n;
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Unable to inflate the binary provenance event data", e);
+            } finally {
+                inflater.end();
+            }
+            in = new Reader(content, 0, length);
+        }
+
+        int dictionarySize = in.readVarInt();
+        String[] dictionary = new String[dictionarySize];
+        for (int i = 0; i < dictionarySize; i++) {
+            int length = in.readVarInt();
+            dictionary[i] = new String(in.buffer, in.take(length), length, StandardCharsets.UTF_8);
+        }
+        in.dictionary = dictionary;
+        return readHolder(in);
+    }
+
+    private void writeHolder(Writer out, Dictionary dictionary, ProvenanceEventRecordDTOHolder holder) {
+        writeString(out, dictionary, holder.getBatchId());
+        List<ProvenanceEventRecordDTO> events = holder.getEvents();
+        if (events == null) {
+            out.writeVarInt(0);
+            return;
+        }
+        out.writeVarInt(events.size() + 1);
+        long previousEventId = 0;
+        long previousEventTime = 0;
+        for (ProvenanceEventRecordDTO event : events) {
+            writeEvent(out, dictionary, event, previousEventId, previousEventTime);
+            if (event.getEventId() != null) {
+                previousEventId = event.getEventId();
+            }
+            if (event.getEventTime() != null) {
+                previousEventTime = event.getEventTime();
+            }
+        }
+    }
+
+    private ProvenanceEventRecordDTOHolder readHolder(Reader in) throws IOException {
+        ProvenanceEventRecordDTOHolder holder = new ProvenanceEventRecordDTOHolder();
+        holder.setBatchId(in.readString());
+        int count = in.readVarInt();
+        if (count > 0) {
+            List<ProvenanceEventRecordDTO> events = new ArrayList<>(count - 1);
+            long previousEventId = 0;
+            long previousEventTime = 0;
+            for (int i = 0; i < count - 1; i++) {
+                ProvenanceEventRecordDTO event = readEvent(in, previousEventId, previousEventTime);
+                if (event.getEventId() != null) {
+                    previousEventId = event.getEventId();
+                }
+                if (event.getEventTime() != null) {
+                    previousEventTime = event.getEventTime();
+                }
+                events.add(event);
+            }
+            holder.setEvents(events);
+        }
+        return holder;
+    }
+
+    private void writeEvent(Writer out, Dictionary dictionary, ProvenanceEventRecordDTO event, long previousEventId, long previousEventTime) {
+        Long eventDuration = event.getEventDuration();
+        int flags = (event.isStartOfJob() ? START_OF_JOB : 0)
+                    | (event.isFinalJobEvent() ? FINAL_JOB_EVENT : 0)
+                    | (event.isFailure() ? FAILURE : 0)
+                    | (event.isStream() ? STREAM : 0)
+                    | (event.getStartTime() != null ? HAS_START_TIME : 0)
+                    | (event.getEventId() != null ? HAS_EVENT_ID : 0)
+                    | (event.getEventTime() != null ? HAS_EVENT_TIME : 0)
+                    | (eventDuration != null ? HAS_EVENT_DURATION : 0)
+                    | (event.getFileSizeBytes() != null ? HAS_FILE_SIZE_BYTES : 0)
+                    | (event.getInputContentClaimFileSizeBytes() != null ? HAS_INPUT_CLAIM_BYTES : 0)
+                    | (event.getOutputContentClaimFileSizeBytes() != null ? HAS_OUTPUT_CLAIM_BYTES : 0);
+        out.writeVarInt(flags);
+        if (event.getEventId() != null) {
+            out.writeVarLong(event.getEventId() - previousEventId);
+        }
+        if (event.getEventTime() != null) {
+            out.writeVarLong(event.getEventTime() - previousEventTime);
+        }
+        if (event.getStartTime() != null) {
+            out.writeVarLong(event.getStartTime() - (event.getEventTime() != null ? event.getEventTime() : 0L));
+        }
+        if (eventDuration != null) {
+            out.writeVarLong(eventDuration);
+        }
+        if (event.getFileSizeBytes() != null) {
+            out.writeVarLong(event.getFileSizeBytes());
+        }
+        if (event.getInputContentClaimFileSizeBytes() != null) {
+            out.writeVarLong(event.getInputContentClaimFileSizeBytes());
+        }
+        if (event.getOutputContentClaimFileSizeBytes() != null) {
+            out.writeVarLong(event.getOutputContentClaimFileSizeBytes());
+        }
+        writeString(out, dictionary, event.getEventType());
+        writeString(out, dictionary, event.getFlowFileUuid());
+        writeString(out, dictionary, event.getFileSize());
+        writeString(out, dictionary, event.getClusterNodeId());
+        writeString(out, dictionary, event.getClusterNodeAddress());
+        writeString(out, dictionary, event.getGroupId());
+        writeString(out, dictionary, event.getComponentId());
+        writeString(out, dictionary, event.getComponentType());
+        writeString(out, dictionary, event.getComponentName());
+        writeString(out, dictionary, event.getDetails());
+        writeString(out, dictionary, event.getSourceConnectionIdentifier());
+        writeString(out, dictionary, event.getInputContentClaimFileSize());
+        writeString(out, dictionary, event.getOutputContentClaimFileSize());
+        writeString(out, dictionary, event.getJobFlowFileId());
+        writeString(out, dictionary, event.getRelationship());
+        writeString(out, dictionary, event.getFirstEventProcessorId());
+        writeString(out, dictionary, event.getFeedName());
+        writeString(out, dictionary, event.getFeedProcessGroupId());
+        writeString(out, dictionary, event.getProcessorType() != null ? event.getProcessorType().name() : null);
+        writeList(out, dictionary, event.getParentUuids());
+        writeList(out, dictionary, event.getChildUuids());
+        writeMap(out, dictionary, event.getUpdatedAttributes());
+        writeMap(out, dictionary, event.getPreviousAttributes());
+        writeMap(out, dictionary, event.getAttributeMap());
+    }
+
+    private ProvenanceEventRecordDTO readEvent(Reader in, long previousEventId, long previousEventTime) throws IOException {
+        ProvenanceEventRecordDTO event = new ProvenanceEventRecordDTO();
+        int flags = in.readVarInt();
+        event.setIsStartOfJob((flags & START_OF_JOB) != 0);
+        event.setIsFinalJobEvent((flags & FINAL_JOB_EVENT) != 0);
+        event.setIsFailure((flags & FAILURE) != 0);
+        event.setStream((flags & STREAM) != 0);
+        if ((flags & HAS_EVENT_ID) != 0) {
+            event.setEventId(previousEventId + in.readVarLong());
+        }
+        if ((flags & HAS_EVENT_TIME) != 0) {
+            event.setEventTime(previousEventTime + in.readVarLong());
+        }
+        if ((flags & HAS_START_TIME) != 0) {
+            event.setStartTime((event.getEventTime() != null ? event.getEventTime() : 0L) + in.readVarLong());
+        }
+        if ((flags & HAS_EVENT_DURATION) != 0) {
+            event.setEventDuration(in.readVarLong());
+        }
+        if ((flags & HAS_FILE_SIZE_BYTES) != 0) {
+            event.setFileSizeBytes(in.readVarLong());
+        }
+        if ((flags & HAS_INPUT_CLAIM_BYTES) != 0) {
+            event.setInputContentClaimFileSizeBytes(in.readVarLong());
+        }
+        if ((flags & HAS_OUTPUT_CLAIM_BYTES) != 0) {
+            event.setOutputContentClaimFileSizeBytes(in.readVarLong());
+        }
+        event.setEventType(in.readString());
+        event.setFlowFileUuid(in.readString());
+        event.setFileSize(in.readString());
+        event.setClusterNodeId(in.readString());
+        event.setClusterNodeAddress(in.readString());
+        event.setGroupId(in.readString());
+        event.setComponentId(in.readString());
+        event.setComponentType(in.readString());
+        event.setComponentName(in.readString());
+        event.setDetails(in.readString());
+        event.setSourceConnectionIdentifier(in.readString());
+        event.setInputContentClaimFileSize(in.readString());
+        event.setOutputContentClaimFileSize(in.readString());
+        event.setJobFlowFileId(in.readString());
+        event.setRelationship(in.readString());
+        event.setFirstEventProcessorId(in.readString());
+        event.setFeedName(in.readString());
+        event.setFeedProcessGroupId(in.readString());
+        String processorType = in.readString();
+        if (processorType != null) {
+            try {
+                event.setProcessorType(KyloProcessorFlowType.valueOf(processorType));
+            } catch (IllegalArgumentException e) {
+                //a newer sender may have a type this version doesnt know about
+                event.setProcessorType(KyloProcessorFlowType.NORMAL_FLOW);
+            }
+        }
+        event.setParentUuids(in.readList());
+        event.setChildUuids(in.readList());
+        event.setUpdatedAttributes(in.readMap());
+        event.setPreviousAttributes(in.readMap());
+        event.setAttributeMap(in.readMap());
+        return event;
+    }
+
+    private void writeString(Writer out, Dictionary dictionary, String s) {
+        out.writeVarInt(s == null ? 0 : dictionary.indexOf(s) + 1);
+    }
+
+    private void writeList(Writer out, Dictionary dictionary, List<String> list) {
+        if (list == null) {
+            out.writeVarInt(0);
+            return;
+        }
+        out.writeVarInt(list.size() + 1);
+        for (String s : list) {
+            writeString(out, dictionary, s);
+        }
+    }
+
+    private void writeMap(Writer out, Dictionary dictionary, Map<String, String> map) {
+        if (map == null) {
+            out.writeVarInt(0);
+            return;
+        }
+        out.writeVarInt(map.size() + 1);
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            writeString(out, dictionary, entry.getKey());
+            writeString(out, dictionary, entry.getValue());
+        }
+    }
+
+    private static int readInt(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16) | ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+    }
+
+    /**
+     * The strings in a batch in the order they were first written
+     */
+    private static class Dictionary {
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        private final List<String> strings = new ArrayList<>();
+
+        int indexOf(String s) {
+            Integer index = indexes.get(s);
+            if (index == null) {
+                index = strings.size();
+                indexes.put(s, index);
+                strings.add(s);
+            }
+            return index;
+        }
+    }
+
+    private static class Writer {
+
+        private byte[] buffer;
+
+        private int size;
+
+        Writer(int capacity) {
+            buffer = new byte[Math.max(16, capacity)];
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void ensureCapacity(int additional) {
+            if (size + additional > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+            }
+        }
+
+        void writeByte(int b) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) b;
+        }
+
+        void writeInt(int v) {
+            ensureCapacity(4);
+            buffer[size++] = (byte) (v >>> 24);
+            buffer[size++] = (byte) (v >>> 16);
+            buffer[size++] = (byte) (v >>> 8);
+            buffer[size++] = (byte) v;
+        }
+
+        void writeVarInt(int v) {
+            ensureCapacity(5);
+            while ((v & ~0x7F) != 0) {
+                buffer[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buffer[size++] = (byte) v;
+        }
+
+        /**
+         * zig zag encode so small negative numbers are also small
+         */
+        void writeVarLong(long v) {
+            long zigZag = (v << 1) ^ (v >> 63);
+            ensureCapacity(10);
+            while ((zigZag & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((zigZag & 0x7F) | 0x80);
+                zigZag >>>= 7;
+            }
+            buffer[size++] = (byte) zigZag;
+        }
+
+        void write(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, buffer, size, length);
+            size += length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    private static class Reader {
+
+        private final byte[] buffer;
+
+        private final int limit;
+
+        private int position;
+
+        private String[] dictionary;
+
+        Reader(byte[] buffer, int position, int limit) {
+            this.buffer = buffer;
+            this.position = position;
+            this.limit = limit;
+        }
+
+        /**
+         * Skip over the next length bytes
+         *
+         * @return the position of the first byte
+         */
+        int take(int length) throws IOException {
+            if (length < 0 || position + length > limit) {
+                throw new IOException("Truncated binary provenance event data");
+            }
+            int start = position;
+            position += length;
+            return start;
+        }
+
+        private int readByte() throws IOException {
+            if (position >= limit) {
+                throw new IOException("Truncated binary provenance event data");
+            }
+            return buffer[position++];
+        }
+
+        int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed variable length integer");
+        }
+
+        long readVarLong() throws IOException {
+            long zigZag = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                int b = readByte();
+                zigZag |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (zigZag >>> 1) ^ -(zigZag & 1);
+                }
+            }
+            throw new IOException("Malformed variable length long");
+        }
+
+        String readString() throws IOException {
+            int index = readVarInt();
+            if (index == 0) {
+                return null;
+            }
+            if (index > dictionary.length) {
+                throw new IOException("Invalid string index " + index);
+            }
+            return dictionary[index - 1];
+        }
+
+        List<String> readList() throws IOException {
+            int size = readVarInt();
+            if (size == 0) {
+                return null;
+            }
+            List<String> list = new ArrayList<>(size - 1);
+            for (int i = 0; i < size - 1; i++) {
+                list.add(readString());
+            }
+            return list;
+        }
+
+        Map<String, String> readMap() throws IOException {
+            int size = readVarInt();
+            if (size == 0) {
+                return null;
+            }
+            Map<String, String> map = new HashMap<>();
+            for (int i = 0; i < size - 1; i++) {
+                String key = readString();
+                map.put(key, readString());
+            }
+            return map;
+        }
+    }
+}
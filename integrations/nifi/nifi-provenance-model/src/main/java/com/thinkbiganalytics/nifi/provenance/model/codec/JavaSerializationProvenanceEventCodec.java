@@ -0,0 +1,63 @@
+package com.thinkbiganalytics.nifi.provenance.model.codec;
+
+/*-
+ * #%L
+ * thinkbig-nifi-provenance-model
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTOHolder;
+
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.SerializationUtils;
+
+import java.io.IOException;
+
+/**
+ * Java serialization of the holder.  This is the format used before the codecs were introduced and is used when a message does not have a codec property.
+ */
+public class JavaSerializationProvenanceEventCodec implements ProvenanceEventCodec {
+
+    public static final String NAME = "java";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(ProvenanceEventRecordDTOHolder holder) throws IOException {
+        try {
+            return SerializationUtils.serialize(holder);
+        } catch (SerializationException e) {
+            throw new IOException("Unable to serialize the provenance events", e);
+        }
+    }
+
+    @Override
+    public ProvenanceEventRecordDTOHolder decode(byte[] data) throws IOException {
+        try {
+            Object o = SerializationUtils.deserialize(data);
+            if (o instanceof ProvenanceEventRecordDTOHolder) {
+                return (ProvenanceEventRecordDTOHolder) o;
+            }
+            throw new IOException("Expected a ProvenanceEventRecordDTOHolder but found " + (o != null ? o.getClass().getName() : null));
+        } catch (SerializationException e) {
+            throw new IOException("Unable to deserialize the provenance events", e);
+        }
+    }
+}
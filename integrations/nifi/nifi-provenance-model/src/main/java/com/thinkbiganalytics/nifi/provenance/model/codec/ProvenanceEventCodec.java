@@ -0,0 +1,41 @@
+package com.thinkbiganalytics.nifi.provenance.model.codec;
+
+/*-
+ * #%L
+ * thinkbig-nifi-provenance-model
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTOHolder;
+
+import java.io.IOException;
+
+/**
+ * Converts a {@link ProvenanceEventRecordDTOHolder} to and from the bytes sent over JMS.
+ * The name of the codec is sent with the message in the {@link ProvenanceEventCodecs#CODEC_PROPERTY} so the receiver knows how to decode it.
+ */
+public interface ProvenanceEventCodec {
+
+    /**
+     * @return the unique name of the codec sent with each message
+     */
+    String getName();
+
+    byte[] encode(ProvenanceEventRecordDTOHolder holder) throws IOException;
+
+    ProvenanceEventRecordDTOHolder decode(byte[] data) throws IOException;
+}
@@ -0,0 +1,94 @@
+package com.thinkbiganalytics.nifi.provenance.model.codec;
+
+/*-
+ * #%L
+ * thinkbig-nifi-provenance-model
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTOHolder;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Lookup for the {@link ProvenanceEventCodec}s that can be used to send provenance events over JMS.
+ *
+ * The sender adds the codec name to the message in the {@link #CODEC_PROPERTY} header so the receiver knows how to decode it.
+ * Messages without the header are assumed to be Java serialized unless they start with the binary magic number.
+ */
+public class ProvenanceEventCodecs {
+
+    /**
+     * The JMS message property holding the codec name
+     */
+    public static final String CODEC_PROPERTY = "kyloProvenanceCodec";
+
+    public static final ProvenanceEventCodec JAVA = new JavaSerializationProvenanceEventCodec();
+
+    public static final ProvenanceEventCodec BINARY = new BinaryProvenanceEventCodec(false);
+
+    public static final ProvenanceEventCodec BINARY_DEFLATE = new BinaryProvenanceEventCodec(true);
+
+    private static final Map<String, ProvenanceEventCodec> CODECS;
+
+    static {
+        Map<String, ProvenanceEventCodec> codecs = new LinkedHashMap<>();
+        codecs.put(JAVA.getName(), JAVA);
+        codecs.put(BINARY.getName(), BINARY);
+        codecs.put(BINARY_DEFLATE.getName(), BINARY_DEFLATE);
+        CODECS = Collections.unmodifiableMap(codecs);
+    }
+
+    private ProvenanceEventCodecs() {
+
+    }
+
+    /**
+     * @return the codec with the name, or the java serialization codec if the name is null or unknown
+     */
+    public static ProvenanceEventCodec forName(String name) {
+        ProvenanceEventCodec codec = name != null ? CODECS.get(name.trim().toLowerCase()) : null;
+        return codec != null ? codec : JAVA;
+    }
+
+    /**
+     * @return true if there is a codec registered with the name
+     */
+    public static boolean isKnown(String name) {
+        return name != null && CODECS.containsKey(name.trim().toLowerCase());
+    }
+
+    /**
+     * Decode a message payload
+     *
+     * @param data      the payload
+     * @param codecName the value of the {@link #CODEC_PROPERTY} header, or null if the message did not have one
+     * @return the decoded events
+     */
+    public static ProvenanceEventRecordDTOHolder decode(byte[] data, String codecName) throws IOException {
+        ProvenanceEventCodec codec;
+        if (codecName != null) {
+            codec = forName(codecName);
+        } else {
+            codec = BinaryProvenanceEventCodec.isBinary(data) ? BINARY : JAVA;
+        }
+        return codec.decode(data);
+    }
+}
@@ -73,6 +73,8 @@ public class SpringNifiRestConfiguration {
         config.setPassword(env.getProperty("thinkbig.nifi.rest.password") == null ? null : env.getProperty("thinkbig.nifi.rest.password").toCharArray());
         config.setHttps(BooleanUtils.toBoolean(env.getProperty("thinkbig.nifi.rest.https")));
         config.setUseConnectionPooling(BooleanUtils.toBoolean(env.getProperty("thinkbig.nifi.rest.useConnectionPooling")));
+        // concurrent feed deploys and flow inspection often ask for the same process group, so share identical GETs unless disabled
+        config.setCoalesceRequests(env.getProperty("nifi.rest.coalesceRequests", Boolean.class, Boolean.TRUE));
         config.setTruststorePath(env.getProperty("thinkbig.nifi.rest.truststorePath"));
         config.setTruststorePassword(env.getProperty("thinkbig.nifi.rest.truststorePassword") == null ? null : env.getProperty("thinkbig.nifi.rest.truststorePassword").toCharArray());
         config.setKeystorePassword(env.getProperty("thinkbig.nifi.rest.keystorePassword") == null ? null : env.getProperty("thinkbig.nifi.rest.keystorePassword").toCharArray());
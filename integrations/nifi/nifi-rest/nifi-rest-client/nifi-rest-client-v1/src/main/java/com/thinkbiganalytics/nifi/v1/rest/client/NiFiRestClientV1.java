@@ -52,6 +52,7 @@ import org.apache.nifi.web.api.entity.ClusteSummaryEntity;
 import org.apache.nifi.web.api.entity.SearchResultsEntity;
 import org.glassfish.jersey.jackson.JacksonFeature;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -62,6 +63,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
 
 public class NiFiRestClientV1 extends JerseyRestClient implements NiFiRestClient {
 
@@ -118,6 +120,11 @@ public class NiFiRestClientV1 extends JerseyRestClient implements NiFiRestClient
 
     protected NiFiSiteToSiteRestClientV1 siteToSite;
 
+    /**
+     * Reads shared GET responses the same way as the provider registered with the client
+     */
+    private final JacksonJaxbJsonProvider responseJsonProvider = new JacksonJaxbJsonProvider().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
     /**
      * Constructs a {@code NiFiRestClientV1} with the specified NiFi REST client configuration.
      *
@@ -296,6 +303,11 @@ public class NiFiRestClientV1 extends JerseyRestClient implements NiFiRestClient
         return super.getBaseTarget().path("/nifi-api");
     }
 
+    @Override
+    protected <T> T readJson(byte[] json, Class<T> clazz) throws IOException {
+        return responseJsonProvider.locateMapper(clazz, MediaType.APPLICATION_JSON_TYPE).readValue(json, clazz);
+    }
+
     @Override
     protected void registerClientFeatures(Client client) {
         JacksonJsonProvider jacksonJsonProvider =
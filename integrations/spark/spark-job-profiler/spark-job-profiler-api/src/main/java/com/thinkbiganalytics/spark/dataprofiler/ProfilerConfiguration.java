@@ -30,6 +30,9 @@ public class ProfilerConfiguration implements Serializable {
 
     private static final long serialVersionUID = -6099960489540200374L;
 
+    private Boolean approximate = false;
+    private Integer approximateTopNCapacity = 256;
+    private Integer approximateUniqueCountPrecision = 14;
     private Integer decimalDigitsToDisplayConsoleOutput = 4;
     private String inputAndOutputTablePartitionKey = "partitionKey";
     private String inputTablePartitionColumnName = "processing_dttm";
@@ -39,6 +42,43 @@ public class ProfilerConfiguration implements Serializable {
     private String outputTablePartitionColumnName = "processing_dttm";
     private String sqlDialect = "hiveql";  // Hive supported HQL
 
+    /**
+     * Indicates if statistics should be estimated using sketches that are aggregated within each partition, instead of counting every distinct
+     * value exactly<br>
+     * Unique counts and top-N values are approximated; all other statistics remain exact.
+     */
+    public Boolean getApproximate() {
+        return approximate;
+    }
+
+    public void setApproximate(Boolean approximate) {
+        this.approximate = approximate;
+    }
+
+    /**
+     * Number of values tracked per column when approximating top-N values<br>
+     * (higher values reduce the error of the top-N counts)
+     */
+    public Integer getApproximateTopNCapacity() {
+        return approximateTopNCapacity;
+    }
+
+    public void setApproximateTopNCapacity(Integer approximateTopNCapacity) {
+        this.approximateTopNCapacity = approximateTopNCapacity;
+    }
+
+    /**
+     * Number of bits used to index the registers when approximating unique counts, between 4 and 18<br>
+     * (each additional bit doubles the memory per column and reduces the error by a factor of the square root of 2)
+     */
+    public Integer getApproximateUniqueCountPrecision() {
+        return approximateUniqueCountPrecision;
+    }
+
+    public void setApproximateUniqueCountPrecision(Integer approximateUniqueCountPrecision) {
+        this.approximateUniqueCountPrecision = approximateUniqueCountPrecision;
+    }
+
     /**
      * Number of decimals to print out in console<br>
      * (not considered when writing to table)
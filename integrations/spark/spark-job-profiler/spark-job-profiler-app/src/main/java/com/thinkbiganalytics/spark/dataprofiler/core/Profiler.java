@@ -141,6 +141,12 @@ public class Profiler {
             inputAndOutputTablePartitionKey = args[5];
         }
 
+        String profileMode = "exact";
+
+        if (args.length >= 7) {
+            profileMode = args[6];
+        }
+
         switch (profileObjectType) {
             case "table":
                 // Quote source table
@@ -187,6 +193,19 @@ public class Profiler {
             return null;
         }
 
+        switch (profileMode) {
+            case "exact":
+                profilerConfiguration.setApproximate(false);
+                break;
+            case "approximate":
+                profilerConfiguration.setApproximate(true);
+                break;
+            default:
+                log.error("Illegal command line argument for profile mode ({})", profileMode);
+                showCommandLineArgs();
+                return null;
+        }
+
         profilerConfiguration.setInputAndOutputTablePartitionKey(inputAndOutputTablePartitionKey);
 
         return retVal;
@@ -226,7 +245,8 @@ public class Profiler {
                  + "5. full path to policy file "
                  + "\n"
                  + "Info: Optional command line argument:\n"
-                 + "6. partition_key: valid value is {<string>}\n\n"
+                 + "6. partition_key: valid value is {<string>}\n"
+                 + "7. profile mode: valid values are {exact, approximate} (approximate estimates unique counts and top_n values without shuffling the data)\n\n"
                  + "(Note: Only alphanumeric and underscore characters for table names and partition key)"
                  + "\n***");
     }
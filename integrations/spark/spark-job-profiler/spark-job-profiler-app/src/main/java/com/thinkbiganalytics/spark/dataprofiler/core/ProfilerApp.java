@@ -37,6 +37,8 @@ import com.thinkbiganalytics.spark.dataprofiler.columns.TimestampColumnStatistic
 import com.thinkbiganalytics.spark.dataprofiler.columns.UnsupportedColumnStatistics;
 import com.thinkbiganalytics.spark.dataprofiler.output.OutputWriter;
 import com.thinkbiganalytics.spark.dataprofiler.output.OutputRow;
+import com.thinkbiganalytics.spark.dataprofiler.sketch.HyperLogLog;
+import com.thinkbiganalytics.spark.dataprofiler.sketch.SpaceSaving;
 import com.thinkbiganalytics.spark.dataprofiler.topn.TopNDataItem;
 import com.thinkbiganalytics.spark.dataprofiler.topn.TopNDataList;
 
@@ -99,6 +101,8 @@ public class ProfilerApp {
         serializeClassesList.add(TopNDataList.class);
         serializeClassesList.add(OutputRow.class);
         serializeClassesList.add(OutputWriter.class);
+        serializeClassesList.add(HyperLogLog.class);
+        serializeClassesList.add(SpaceSaving.class);
 
         serializeClassesArray = new Class[serializeClassesList.size()];
         for (int i = 0; i < serializeClassesList.size(); i++) {
@@ -1,6 +1,7 @@
 package com.thinkbiganalytics.spark.dataprofiler
 
 import com.thinkbiganalytics.spark.dataprofiler.function.PartitionLevelModels
+import com.thinkbiganalytics.spark.dataprofiler.model.StandardStatisticsModel
 import com.thinkbiganalytics.spark.{DataSet, SparkContextService}
 import org.apache.spark.sql.SQLContext
 import org.apache.spark.sql.types.StructField
@@ -16,7 +17,11 @@ class StandardProfiler(val sqlContext: SQLContext, val sparkContextService: Spar
         val schemaMap = populateSchemaMap(dataset)
 
         /* Get profile statistics */
-        profileStatistics(dataset, schemaMap, profilerConfiguration).orNull
+        if (profilerConfiguration.getApproximate) {
+            approximateStatistics(dataset, schemaMap, profilerConfiguration).orNull
+        } else {
+            profileStatistics(dataset, schemaMap, profilerConfiguration).orNull
+        }
     }
 
     /** Generates a map from column index to field type.
@@ -51,4 +56,35 @@ class StandardProfiler(val sqlContext: SQLContext, val sparkContextService: Spar
             Option.empty
         }
     }
+
+    /** Profiles the columns in the specified data set using sketches for the unique counts and top-N values.
+      *
+      * Every row is accommodated into a statistics model within its partition, and the models are merged, so the values are never
+      * shuffled. This avoids counting every distinct value of every column, at the cost of approximating the unique counts and top-N values.
+      *
+      * @param dataset   the data set
+      * @param schemaMap the schema map
+      * @return the statistics model
+      */
+    private def approximateStatistics(dataset: DataSet, schemaMap: Map[Int, StructField], profilerConfiguration: ProfilerConfiguration): Option[StatisticsModel] = {
+        val statisticsModel = dataset.rdd.treeAggregate(new StandardStatisticsModel(profilerConfiguration))(
+            (model, row) => {
+                var columnIndex = 0
+                while (columnIndex < row.length) {
+                    model.add(columnIndex, row.get(columnIndex), 1L, schemaMap(columnIndex))
+                    columnIndex += 1
+                }
+                model
+            },
+            (a, b) => {
+                a.combine(b)
+                a
+            })
+
+        if (!statisticsModel.getColumnStatisticsMap.isEmpty) {
+            Option(statisticsModel)
+        } else {
+            Option.empty
+        }
+    }
 }
@@ -24,6 +24,8 @@ import com.thinkbiganalytics.spark.dataprofiler.ColumnStatistics;
 import com.thinkbiganalytics.spark.dataprofiler.ProfilerConfiguration;
 import com.thinkbiganalytics.spark.dataprofiler.model.MetricType;
 import com.thinkbiganalytics.spark.dataprofiler.output.OutputRow;
+import com.thinkbiganalytics.spark.dataprofiler.sketch.HyperLogLog;
+import com.thinkbiganalytics.spark.dataprofiler.sketch.SpaceSaving;
 import com.thinkbiganalytics.spark.dataprofiler.topn.TopNDataItem;
 import com.thinkbiganalytics.spark.dataprofiler.topn.TopNDataList;
 
@@ -47,6 +49,9 @@ public abstract class StandardColumnStatistics implements ColumnStatistics, Seri
     /* Other variables */
     final DecimalFormat df;
     private final TopNDataList topNValues;
+    /* Sketches for unique count and top-N values when profiling approximately (otherwise null) */
+    private final HyperLogLog uniqueValuesSketch;
+    private final SpaceSaving topNValuesSketch;
     /* Common metrics for all data types */
     long nullCount;
     long totalCount;
@@ -72,12 +77,20 @@ public abstract class StandardColumnStatistics implements ColumnStatistics, Seri
         percDuplicateValues = 0.0d;
         this.profilerConfiguration = profilerConfiguration;
         topNValues = new TopNDataList(profilerConfiguration.getNumberOfTopNValues());
+        if (Boolean.TRUE.equals(profilerConfiguration.getApproximate())) {
+            uniqueValuesSketch = new HyperLogLog(profilerConfiguration.getApproximateUniqueCountPrecision());
+            topNValuesSketch = new SpaceSaving(Math.max(profilerConfiguration.getApproximateTopNCapacity(), profilerConfiguration.getNumberOfTopNValues()));
+        } else {
+            uniqueValuesSketch = null;
+            topNValuesSketch = null;
+        }
         df = new DecimalFormat(getDecimalFormatPattern());
     }
 
 
     /**
-     * Calculate common statistics by accommodating the value and frequency/count
+     * Calculate common statistics by accommodating the value and frequency/count<br>
+     * When profiling approximately, the same value may be accommodated more than once.
      *
      * @param columnValue value
      * @param columnCount frequency/count
@@ -85,12 +98,19 @@ public abstract class StandardColumnStatistics implements ColumnStatistics, Seri
     void accomodateCommon(Object columnValue, Long columnCount) {
 
         totalCount += columnCount;
-        uniqueCount += 1;
 
         if (columnValue == null) {
             nullCount += columnCount;
         }
 
+        if (isApproximate()) {
+            uniqueValuesSketch.add(columnValue);
+            topNValuesSketch.add(columnValue, columnCount);
+            return;
+        }
+
+        uniqueCount += 1;
+
         doPercentageCalculationsCommon();
 
         topNValues.add(columnValue, columnCount);
@@ -105,9 +125,16 @@ public abstract class StandardColumnStatistics implements ColumnStatistics, Seri
     void combineCommon(StandardColumnStatistics v_columnStatistics) {
 
         totalCount += v_columnStatistics.totalCount;
-        uniqueCount += v_columnStatistics.uniqueCount;
         nullCount += v_columnStatistics.nullCount;
 
+        if (isApproximate()) {
+            uniqueValuesSketch.merge(v_columnStatistics.uniqueValuesSketch);
+            topNValuesSketch.merge(v_columnStatistics.topNValuesSketch);
+            return;
+        }
+
+        uniqueCount += v_columnStatistics.uniqueCount;
+
         doPercentageCalculationsCommon();
 
         for (TopNDataItem dataItem :
@@ -147,7 +174,17 @@ public abstract class StandardColumnStatistics implements ColumnStatistics, Seri
      * Write top n rows in column for output result table
      */
     private void writeTopNInformation(@Nonnull final List<OutputRow> rows) {
-        rows.add(new OutputRow(columnField.name(), String.valueOf(MetricType.TOP_N_VALUES), topNValues.printTopNItems()));
+        rows.add(new OutputRow(columnField.name(), String.valueOf(MetricType.TOP_N_VALUES), getTopNValues().printTopNItems()));
+    }
+
+
+    /**
+     * Write error bounds of approximated statistics for output result table
+     */
+    private void writeErrorInformation(@Nonnull final List<OutputRow> rows) {
+        rows.add(new OutputRow(columnField.name(), String.valueOf(MetricType.UNIQUE_COUNT_ERROR), df.format(uniqueValuesSketch.getRelativeError() * 100)));
+        rows.add(new OutputRow(columnField.name(), String.valueOf(MetricType.TOP_N_COUNT_ERROR),
+                               String.valueOf(topNValuesSketch.getMaxError(profilerConfiguration.getNumberOfTopNValues()))));
     }
 
 
@@ -159,7 +196,7 @@ public abstract class StandardColumnStatistics implements ColumnStatistics, Seri
     private String getVerboseTopNInformation() {
 
         return "Top " + profilerConfiguration.getNumberOfTopNValues() + " values [\n"
-               + topNValues.printTopNItems()
+               + getTopNValues().printTopNItems()
                + "]";
     }
 
@@ -169,6 +206,7 @@ public abstract class StandardColumnStatistics implements ColumnStatistics, Seri
      */
     void writeStatisticsCommon(@Nonnull final List<OutputRow> rows) {
 
+        updateApproximateStatistics();
         writeColumnSchemaInformation(rows);
 
         rows.add(new OutputRow(columnField.name(), String.valueOf(MetricType.NULL_COUNT), String.valueOf(nullCount)));
@@ -179,6 +217,10 @@ public abstract class StandardColumnStatistics implements ColumnStatistics, Seri
         rows.add(new OutputRow(columnField.name(), String.valueOf(MetricType.PERC_DUPLICATE_VALUES), df.format(percDuplicateValues)));
 
         writeTopNInformation(rows);
+
+        if (isApproximate()) {
+            writeErrorInformation(rows);
+        }
     }
 
 
@@ -189,6 +231,7 @@ public abstract class StandardColumnStatistics implements ColumnStatistics, Seri
      */
     String getVerboseStatisticsCommon() {
 
+        updateApproximateStatistics();
         return getVerboseColumnSchemaInformation()
                + "\n"
                + "CommonStatistics ["
@@ -215,6 +258,26 @@ public abstract class StandardColumnStatistics implements ColumnStatistics, Seri
     }
 
 
+    /*
+     * Indicates if unique count and top-N values are approximated by sketches
+     */
+    private boolean isApproximate() {
+        return uniqueValuesSketch != null;
+    }
+
+
+    /*
+     * Estimate unique count from sketch (estimating is too expensive to do for every value)
+     */
+    private void updateApproximateStatistics() {
+
+        if (isApproximate()) {
+            uniqueCount = Math.min(uniqueValuesSketch.estimate(), totalCount);
+            doPercentageCalculationsCommon();
+        }
+    }
+
+
     /*
      * Build format to display decimals up to configured number of digits
      */
@@ -257,6 +320,7 @@ public abstract class StandardColumnStatistics implements ColumnStatistics, Seri
      * @return unique count
      */
     public long getUniqueCount() {
+        updateApproximateStatistics();
         return uniqueCount;
     }
 
@@ -267,6 +331,7 @@ public abstract class StandardColumnStatistics implements ColumnStatistics, Seri
      * @return percentage of null values
      */
     public double getPercNullValues() {
+        updateApproximateStatistics();
         return percNullValues;
     }
 
@@ -277,6 +342,7 @@ public abstract class StandardColumnStatistics implements ColumnStatistics, Seri
      * @return percentage of unique values
      */
     public double getPercUniqueValues() {
+        updateApproximateStatistics();
         return percUniqueValues;
     }
 
@@ -287,16 +353,21 @@ public abstract class StandardColumnStatistics implements ColumnStatistics, Seri
      * @return percentage of duplicate values
      */
     public double getPercDuplicateValues() {
+        updateApproximateStatistics();
         return percDuplicateValues;
     }
 
 
     /**
-     * Get top n values (in order of frequency)
+     * Get top n values (in order of frequency)<br>
+     * When profiling approximately, counts are upper bounds of the true frequencies.
      *
      * @return top n values
      */
     public TopNDataList getTopNValues() {
+        if (isApproximate()) {
+            return topNValuesSketch.getTopNDataList(profilerConfiguration.getNumberOfTopNValues());
+        }
         return topNValues;
     }
 
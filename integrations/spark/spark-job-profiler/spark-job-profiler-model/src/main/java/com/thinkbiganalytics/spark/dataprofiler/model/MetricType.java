@@ -216,6 +216,18 @@ public enum MetricType {
     /**
      * Max string (Lexical ordering) (Case-insensitive)
      */
-    MAX_STRING_ICASE
+    MAX_STRING_ICASE,
+
+
+    /**
+     * Relative standard error of the unique count, as a percentage (only when profiled approximately)
+     */
+    UNIQUE_COUNT_ERROR,
+
+
+    /**
+     * Maximum amount by which a count of the top n values may exceed the true frequency (only when profiled approximately)
+     */
+    TOP_N_COUNT_ERROR
 
 }
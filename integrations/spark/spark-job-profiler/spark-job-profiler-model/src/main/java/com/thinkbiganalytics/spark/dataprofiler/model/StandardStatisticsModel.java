@@ -76,6 +76,24 @@ public class StandardStatisticsModel implements Serializable, StatisticsModel {
      */
     public void add(Integer columnIndex, Object columnValue, Long columnCount, StructField columnField) {
 
+        StandardColumnStatistics currentColumnStatistics = columnStatisticsMap.get(columnIndex);
+        if (currentColumnStatistics == null) {
+            currentColumnStatistics = createColumnStatistics(columnField);
+            columnStatisticsMap.put(columnIndex, currentColumnStatistics);
+        }
+
+        currentColumnStatistics.accomodate(columnValue, columnCount);
+    }
+
+
+    /**
+     * Create the column statistics for the data type of a column
+     *
+     * @param columnField schema information of the column
+     * @return column statistics
+     */
+    private StandardColumnStatistics createColumnStatistics(StructField columnField) {
+
         StandardColumnStatistics newColumnStatistics;
         DataType columnDataType = columnField.dataType();
 
@@ -222,12 +240,7 @@ public class StandardStatisticsModel implements Serializable, StatisticsModel {
                 }
         }
 
-        if (!columnStatisticsMap.containsKey(columnIndex)) {
-            columnStatisticsMap.put(columnIndex, newColumnStatistics);
-        }
-
-        StandardColumnStatistics currentColumnStatistics = columnStatisticsMap.get(columnIndex);
-        currentColumnStatistics.accomodate(columnValue, columnCount);
+        return newColumnStatistics;
     }
 
 
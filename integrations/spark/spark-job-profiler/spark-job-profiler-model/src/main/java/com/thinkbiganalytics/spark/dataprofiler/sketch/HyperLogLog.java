@@ -0,0 +1,245 @@
+package com.thinkbiganalytics.spark.dataprofiler.sketch;
+
+/*-
+ * #%L
+ * thinkbig-spark-job-profiler-app
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Estimates the number of distinct values in a column using the HyperLogLog algorithm.<br>
+ * Sketches with the same precision can be merged, so each partition can be profiled independently.
+ *
+ * <p>The cardinality is computed with the improved estimator described by Otmar Ertl in "New cardinality estimation algorithms for
+ * HyperLogLog sketches", which needs no empirical bias correction for small or large cardinalities.</p>
+ */
+public class HyperLogLog implements Serializable {
+
+    private static final long serialVersionUID = 4520447227358622715L;
+
+    /**
+     * Minimum number of bits used to index the registers
+     */
+    public static final int MIN_PRECISION = 4;
+
+    /**
+     * Maximum number of bits used to index the registers
+     */
+    public static final int MAX_PRECISION = 18;
+
+    /**
+     * Hash of a null value
+     */
+    private static final long NULL_HASH = 0x9e3779b97f4a7c15L;
+
+    private final int precision;
+    private final byte[] registers;
+
+
+    /**
+     * Constructs an empty sketch
+     *
+     * @param precision number of bits used to index the registers
+     * @throws IllegalArgumentException if the precision is out of range
+     */
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION + " but was: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+
+    /**
+     * Add a value to the sketch (null is counted as a distinct value)
+     *
+     * @param value value
+     */
+    public void add(Object value) {
+        addHash(hash(value));
+    }
+
+
+    /**
+     * Add the 64-bit hash of a value to the sketch
+     *
+     * @param hash hash of value
+     */
+    void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+
+    /**
+     * Merge another sketch into this sketch
+     *
+     * @param other sketch with the same precision
+     * @throws IllegalArgumentException if the precisions differ
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches with precision " + precision + " and " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+
+    /**
+     * Get the estimated number of distinct values
+     *
+     * @return estimated count
+     */
+    public long estimate() {
+        final int m = registers.length;
+        final int q = 64 - precision;
+
+        final int[] histogram = new int[q + 2];
+        for (byte register : registers) {
+            histogram[register]++;
+        }
+
+        double z = m * tau(1.0 - (double) histogram[q + 1] / m);
+        for (int k = q; k >= 1; k--) {
+            z = 0.5 * (z + histogram[k]);
+        }
+        z += m * sigma((double) histogram[0] / m);
+
+        return Math.round(0.5 / Math.log(2) * m * m / z);
+    }
+
+
+    /**
+     * Get the relative standard error of the estimate
+     *
+     * @return standard error as a fraction of the estimate
+     */
+    public double getRelativeError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+
+    /**
+     * Get the number of bits used to index the registers
+     *
+     * @return precision
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+
+    /*
+     * Sum of the series used to correct for empty registers
+     */
+    private static double sigma(double x) {
+        if (x == 1.0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double y = 1.0;
+        double z = x;
+        double previous;
+        do {
+            x *= x;
+            previous = z;
+            z += x * y;
+            y += y;
+        } while (z != previous);
+        return z;
+    }
+
+
+    /*
+     * Sum of the series used to correct for saturated registers
+     */
+    private static double tau(double x) {
+        if (x == 0.0 || x == 1.0) {
+            return 0.0;
+        }
+        double y = 1.0;
+        double z = 1.0 - x;
+        double previous;
+        do {
+            x = Math.sqrt(x);
+            previous = z;
+            y *= 0.5;
+            z -= (1.0 - x) * (1.0 - x) * y;
+        } while (z != previous);
+        return z / 3.0;
+    }
+
+
+    /**
+     * Compute a 64-bit hash of a column value<br>
+     * Strings and numbers are hashed over all of their bits, rather than their 32-bit hash codes, so that collisions do not inflate
+     * the error for columns with many distinct values.
+     *
+     * @param value column value
+     * @return hash
+     */
+    static long hash(Object value) {
+        if (value == null) {
+            return NULL_HASH;
+        } else if (value instanceof String) {
+            final String string = (String) value;
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < string.length(); i++) {
+                hash = (hash ^ string.charAt(i)) * 0x100000001b3L;
+            }
+            return mix(hash);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return mix(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            return mix(Double.doubleToLongBits(((Number) value).doubleValue()));
+        } else if (value instanceof BigDecimal && ((BigDecimal) value).precision() <= 18) {
+            return mix(((BigDecimal) value).unscaledValue().longValue() * 31 + ((BigDecimal) value).scale());
+        } else if (value instanceof Date) {
+            return mix(((Date) value).getTime());
+        } else if (value instanceof byte[]) {
+            return mix(Arrays.hashCode((byte[]) value));
+        } else {
+            return mix(value.hashCode());
+        }
+    }
+
+
+    /*
+     * Finalization step of MurmurHash3 which spreads the bits of the key over the whole hash
+     */
+    private static long mix(long key) {
+        long hash = key;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
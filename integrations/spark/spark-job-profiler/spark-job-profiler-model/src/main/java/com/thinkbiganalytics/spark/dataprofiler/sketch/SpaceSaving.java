@@ -0,0 +1,262 @@
+package com.thinkbiganalytics.spark.dataprofiler.sketch;
+
+/*-
+ * #%L
+ * thinkbig-spark-job-profiler-app
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.spark.dataprofiler.topn.TopNDataList;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the most frequent values in a column using the Space-Saving algorithm.<br>
+ * A fixed number of counters is kept; when a new value arrives and all counters are in use, the counter with the lowest count is
+ * reassigned to the new value, and the count it already had is recorded as the maximum error of the new value.
+ *
+ * <p>Every count is an upper bound of the true frequency, and is at most the recorded error above it. Sketches are merged following
+ * "Mergeable Summaries" by Agarwal et al., so each partition can be profiled independently.</p>
+ */
+public class SpaceSaving implements Serializable {
+
+    private static final long serialVersionUID = -3346542209185883640L;
+
+    /**
+     * Orders counters from highest count to lowest count
+     */
+    private static final Comparator<Counter> DESCENDING_COUNT = new Comparator<Counter>() {
+        @Override
+        public int compare(Counter a, Counter b) {
+            return Long.compare(b.count, a.count);
+        }
+    };
+
+    private final int capacity;
+    private final Map<Object, Counter> counters = new HashMap<>();
+
+    /* Min-heap of counters ordered by count */
+    private Counter[] heap;
+    private int size;
+
+
+    /**
+     * Constructs an empty sketch
+     *
+     * @param capacity number of counters
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive but was: " + capacity);
+        }
+        this.capacity = capacity;
+        this.heap = new Counter[Math.min(capacity, 16)];
+    }
+
+
+    /**
+     * Add occurrences of a value to the sketch (null is tracked as a value)
+     *
+     * @param value value
+     * @param count number of occurrences
+     */
+    public void add(Object value, long count) {
+        Counter counter = counters.get(value);
+        if (counter != null) {
+            counter.count += count;
+            siftDown(counter.position);
+        } else if (size < capacity) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, Math.min(capacity, size * 2));
+            }
+            counter = new Counter(value, count, 0);
+            counters.put(value, counter);
+            heap[size] = counter;
+            counter.position = size;
+            siftUp(size++);
+        } else {
+            counter = heap[0];
+            counters.remove(counter.value);
+            counter.value = value;
+            counter.error = counter.count;
+            counter.count += count;
+            counters.put(value, counter);
+            siftDown(0);
+        }
+    }
+
+
+    /**
+     * Merge another sketch into this sketch<br>
+     * A value tracked by only one of the sketches may have occurred up to the lowest count of the other sketch, so that count is added
+     * to both its count and its error.
+     *
+     * @param other sketch to merge
+     */
+    public void merge(SpaceSaving other) {
+        final long thisMinimum = getMinimumCount();
+        final long otherMinimum = other.getMinimumCount();
+
+        final List<Counter> merged = new ArrayList<>(size + other.size);
+        for (int i = 0; i < size; i++) {
+            final Counter counter = heap[i];
+            final Counter otherCounter = other.counters.get(counter.value);
+            if (otherCounter != null) {
+                merged.add(new Counter(counter.value, counter.count + otherCounter.count, counter.error + otherCounter.error));
+            } else {
+                merged.add(new Counter(counter.value, counter.count + otherMinimum, counter.error + otherMinimum));
+            }
+        }
+        for (int i = 0; i < other.size; i++) {
+            final Counter otherCounter = other.heap[i];
+            if (!counters.containsKey(otherCounter.value)) {
+                merged.add(new Counter(otherCounter.value, otherCounter.count + thisMinimum, otherCounter.error + thisMinimum));
+            }
+        }
+
+        Collections.sort(merged, DESCENDING_COUNT);
+        counters.clear();
+        size = Math.min(capacity, merged.size());
+        heap = new Counter[Math.max(size, Math.min(capacity, 16))];
+        for (int i = 0; i < size; i++) {
+            final Counter counter = merged.get(i);
+            counters.put(counter.value, counter);
+            heap[i] = counter;
+            counter.position = i;
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+
+    /**
+     * Get the most frequent values (in order of their estimated frequency)
+     *
+     * @param n number of values
+     * @return top-N list with the estimated count of each value
+     */
+    public TopNDataList getTopNDataList(int n) {
+        final TopNDataList topNDataList = new TopNDataList(n);
+        for (Counter counter : getTopCounters(n)) {
+            topNDataList.add(counter.value, counter.count);
+        }
+        return topNDataList;
+    }
+
+
+    /**
+     * Get the maximum amount by which the count of any of the most frequent values may exceed its true frequency
+     *
+     * @param n number of values
+     * @return maximum error
+     */
+    public long getMaxError(int n) {
+        long maxError = 0;
+        for (Counter counter : getTopCounters(n)) {
+            maxError = Math.max(maxError, counter.error);
+        }
+        return maxError;
+    }
+
+
+    /*
+     * Get the lowest count, which is the most times an untracked value may have occurred
+     */
+    private long getMinimumCount() {
+        return (size == capacity) ? heap[0].count : 0;
+    }
+
+
+    /*
+     * Get the counters with the highest counts
+     */
+    private List<Counter> getTopCounters(int n) {
+        final List<Counter> sorted = new ArrayList<>(size);
+        sorted.addAll(Arrays.asList(heap).subList(0, size));
+        Collections.sort(sorted, DESCENDING_COUNT);
+        return sorted.subList(0, Math.min(n, size));
+    }
+
+
+    private void siftUp(int position) {
+        final Counter counter = heap[position];
+        int child = position;
+        while (child > 0) {
+            final int parent = (child - 1) >>> 1;
+            if (heap[parent].count <= counter.count) {
+                break;
+            }
+            heap[child] = heap[parent];
+            heap[child].position = child;
+            child = parent;
+        }
+        heap[child] = counter;
+        counter.position = child;
+    }
+
+
+    private void siftDown(int position) {
+        final Counter counter = heap[position];
+        int parent = position;
+        while (true) {
+            int child = 2 * parent + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+                child++;
+            }
+            if (counter.count <= heap[child].count) {
+                break;
+            }
+            heap[parent] = heap[child];
+            heap[parent].position = parent;
+            parent = child;
+        }
+        heap[parent] = counter;
+        counter.position = parent;
+    }
+
+
+    /**
+     * Estimated count of a value
+     */
+    private static class Counter implements Serializable {
+
+        private static final long serialVersionUID = 6212843021580447392L;
+
+        private Object value;
+        private long count;
+        private long error;
+        private int position;
+
+        Counter(Object value, long count, long error) {
+            this.value = value;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.thinkbiganalytics.spark.dataprofiler.testcases;
+
+/*-
+ * #%L
+ * thinkbig-spark-job-profiler-app
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.spark.dataprofiler.ProfilerConfiguration;
+import com.thinkbiganalytics.spark.dataprofiler.columns.IntegerColumnStatistics;
+import com.thinkbiganalytics.spark.dataprofiler.output.OutputRow;
+import com.thinkbiganalytics.spark.dataprofiler.sketch.HyperLogLog;
+import com.thinkbiganalytics.spark.dataprofiler.sketch.SpaceSaving;
+import com.thinkbiganalytics.spark.dataprofiler.topn.TopNDataItem;
+
+import org.apache.spark.sql.types.DataTypes;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Approximate Profiling Test Case
+ */
+public class ApproximateCase1Test {
+
+    /**
+     * Verify unique count estimates for small and large cardinalities, including merged sketches.
+     */
+    @Test
+    public void testUniqueCount() {
+        HyperLogLog empty = new HyperLogLog(14);
+        Assert.assertEquals(0, empty.estimate());
+
+        HyperLogLog small = new HyperLogLog(14);
+        for (int i = 0; i < 1000; i++) {
+            small.add(i);
+            small.add(i);
+        }
+        assertWithinError(1000, small.estimate(), small.getRelativeError());
+
+        HyperLogLog first = new HyperLogLog(14);
+        HyperLogLog second = new HyperLogLog(14);
+        for (long i = 0; i < 300000; i++) {
+            first.add("value-" + i);
+            second.add("value-" + (i + 200000));
+        }
+        first.merge(second);
+        assertWithinError(500000, first.estimate(), first.getRelativeError());
+    }
+
+    /**
+     * Verify most frequent values and error bounds, including merged sketches.
+     */
+    @Test
+    public void testTopN() {
+        SpaceSaving first = new SpaceSaving(50);
+        SpaceSaving second = new SpaceSaving(50);
+        for (int i = 0; i < 10000; i++) {
+            SpaceSaving sketch = (i % 2 == 0) ? first : second;
+            sketch.add("unique-" + i, 1L);
+            if (i % 10 == 0) {
+                sketch.add("A", 1L);
+            }
+            if (i % 20 == 0) {
+                sketch.add("B", 1L);
+            }
+            if (i % 50 == 0) {
+                sketch.add(null, 1L);
+            }
+        }
+        first.merge(second);
+
+        Iterator<TopNDataItem> iterator = first.getTopNDataList(3).getTopNDataItemsForColumn().descendingIterator();
+        long error = first.getMaxError(3);
+        assertCount("A", 1000, error, iterator.next());
+        assertCount("B", 500, error, iterator.next());
+        assertCount(null, 200, error, iterator.next());
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * Verify column statistics when profiling approximately.
+     */
+    @Test
+    public void testColumnStatistics() {
+        final ProfilerConfiguration profilerConfiguration = new ProfilerConfiguration();
+        profilerConfiguration.setApproximate(true);
+
+        IntegerColumnStatistics first = new IntegerColumnStatistics(DataTypes.createStructField("id", DataTypes.IntegerType, true), profilerConfiguration);
+        IntegerColumnStatistics second = new IntegerColumnStatistics(DataTypes.createStructField("id", DataTypes.IntegerType, true), profilerConfiguration);
+        for (int i = 0; i < 20000; i++) {
+            IntegerColumnStatistics stats = (i % 2 == 0) ? first : second;
+            stats.accomodate(i % 5000, 1L);
+            if (i % 100 == 0) {
+                stats.accomodate(null, 1L);
+            }
+        }
+        first.combine(second);
+
+        Assert.assertEquals(20200, first.getTotalCount());
+        Assert.assertEquals(200, first.getNullCount());
+        Assert.assertEquals(4999, first.getMax());
+        Assert.assertEquals(0, first.getMin());
+        assertWithinError(5001, first.getUniqueCount(), 1.04 / Math.sqrt(1 << 14));
+        Assert.assertEquals(null, first.getTopNValues().getTopNDataItemsForColumn().last().getValue());
+
+        List<OutputRow> rows = first.getStatistics();
+        Assert.assertEquals("OutputRow [columnName=id, metricType=UNIQUE_COUNT_ERROR, metricValue=0.8125]", rows.get(10).toString());
+        Assert.assertEquals("TOP_N_COUNT_ERROR", rows.get(11).getMetricType());
+    }
+
+    private static void assertWithinError(long expected, long actual, double relativeError) {
+        Assert.assertEquals(expected, actual, 3 * relativeError * expected);
+    }
+
+    private static void assertCount(Object expectedValue, long expectedCount, long error, TopNDataItem item) {
+        Assert.assertEquals(expectedValue, item.getValue());
+        Assert.assertTrue(item.getCount() >= expectedCount);
+        Assert.assertTrue(item.getCount() <= expectedCount + error);
+    }
+}
@@ -35,6 +35,8 @@ import com.thinkbiganalytics.spark.service.IdleMonitorService;
 import com.thinkbiganalytics.spark.service.JobTrackerService;
 import com.thinkbiganalytics.spark.service.SparkListenerService;
 import com.thinkbiganalytics.spark.service.SparkLocatorService;
+import com.thinkbiganalytics.spark.service.TransformCacheService;
+import com.thinkbiganalytics.spark.service.TransformPageService;
 import com.thinkbiganalytics.spark.service.TransformService;
 import com.thinkbiganalytics.spark.shell.DatasourceProviderFactory;
 
@@ -42,6 +44,7 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.spark.SparkConf;
 import org.apache.spark.SparkContext;
+import org.apache.spark.network.util.JavaUtils;
 import org.apache.spark.sql.SQLContext;
 import org.apache.spark.sql.jdbc.JdbcDialect;
 import org.apache.spark.sql.jdbc.JdbcDialects;
@@ -151,7 +154,8 @@ public class SparkShellApp {
      * @return the Jersey configuration
      */
     @Bean
-    public ResourceConfig jerseyConfig(final TransformService transformService, final FileSystem fileSystem, final SparkLocatorService sparkLocatorService) {
+    public ResourceConfig jerseyConfig(final TransformService transformService, final TransformCacheService transformCacheService, final TransformPageService transformPageService,
+                                       final FileSystem fileSystem, final SparkLocatorService sparkLocatorService) {
         final ResourceConfig config = new ResourceConfig(ApiListingResource.class, SwaggerSerializers.class);
         config.packages("com.thinkbiganalytics.spark.rest");
         config.register(new AbstractBinder() {
@@ -160,6 +164,8 @@ public class SparkShellApp {
                 bind(fileSystem).to(FileSystem.class);
                 bind(transformService).to(TransformService.class);
                 bind(sparkLocatorService).to(SparkLocatorService.class);
+                bind(transformCacheService).to(TransformCacheService.class);
+                bind(transformPageService).to(TransformPageService.class);
             }
         });
 
@@ -330,6 +336,30 @@ public class SparkShellApp {
         return engine.getSQLContext();
     }
 
+    /**
+     * Creates the cache of transformation results.
+     *
+     * @param sqlContext          the Spark SQL context
+     * @param sparkContextService the Spark context service
+     * @param maxSize             the maximum size of cached results in memory and on disk, such as {@code 2g}
+     * @return the transform cache service
+     */
+    @Bean
+    public TransformCacheService transformCacheService(final SQLContext sqlContext, final SparkContextService sparkContextService, @Value("${spark.shell.cache.maxSize}") final String maxSize) {
+        return new TransformCacheService(sqlContext, sparkContextService, JavaUtils.byteStringAsBytes(maxSize), 1, TimeUnit.HOURS);
+    }
+
+    /**
+     * Creates the service for reading transformation results in pages.
+     *
+     * @param pageSize the maximum number of rows in a page, including the first page returned with the result
+     * @return the transform page service
+     */
+    @Bean
+    public TransformPageService transformPageService(@Value("${spark.shell.results.pageSize}") final int pageSize) {
+        return new TransformPageService(pageSize, 100, 1, TimeUnit.HOURS);
+    }
+
     /**
      * Gets the transform service.
      *
@@ -339,13 +369,17 @@ public class SparkShellApp {
      * @param tracker                   the transform job tracker
      * @param datasourceProviderFactory the data source provider factory
      * @param profiler                  the profiler
+     * @param cache                     the cache of transformation results
+     * @param pageService               the service for reading transformation results in pages
      * @return the transform service
      */
     @Bean
     public TransformService transformService(final Class<? extends TransformScript> transformScriptClass, final SparkScriptEngine engine, final SparkContextService sparkContextService,
                                              final JobTrackerService tracker, final DatasourceProviderFactory datasourceProviderFactory, final Profiler profiler, final DataValidator validator,
-                                             final FileSystem fileSystem) {
+                                             final FileSystem fileSystem, final TransformCacheService cache, final TransformPageService pageService) {
         final TransformService service = new TransformService(transformScriptClass, engine, sparkContextService, tracker);
+        service.setCache(cache);
+        service.setPageService(pageService);
         service.setDatasourceProviderFactory(datasourceProviderFactory);
         service.setFileSystem(fileSystem);
         service.setProfiler(profiler);
@@ -0,0 +1,125 @@
+package com.thinkbiganalytics.spark.io;
+
+/*-
+ * #%L
+ * thinkbig-spark-shell-client-app
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thinkbiganalytics.discovery.schema.QueryResultColumn;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Writes a page of rows as JSON with the values grouped by column.
+ *
+ * <p>Example:
+ * <code>
+ * {"table": "...", "start": 0, "rowCount": 2000, "fields": ["id", "name"], "data": [[1, 2], ["a", "b"]]}
+ * </code></p>
+ *
+ * <p>Each array in {@code data} holds the values of one field, which avoids repeating field names or row structure for each value.</p>
+ */
+public class ColumnarPageStreamingOutput implements StreamingOutput {
+
+    /**
+     * Serializes values
+     */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Columns of the result
+     */
+    @Nonnull
+    private final List<QueryResultColumn> columns;
+
+    /**
+     * Total number of rows in the result
+     */
+    private final long rowCount;
+
+    /**
+     * Rows in the page
+     */
+    @Nonnull
+    private final List<List<Object>> rows;
+
+    /**
+     * Index of the first row in the page
+     */
+    private final long start;
+
+    /**
+     * Destination table name
+     */
+    @Nonnull
+    private final String table;
+
+    /**
+     * Constructs a {@code ColumnarPageStreamingOutput}.
+     *
+     * @param table    the destination table name
+     * @param columns  the columns of the result
+     * @param start    the index of the first row in the page
+     * @param rows     the rows in the page
+     * @param rowCount the total number of rows in the result
+     */
+    public ColumnarPageStreamingOutput(@Nonnull final String table, @Nonnull final List<QueryResultColumn> columns, final long start, @Nonnull final List<List<Object>> rows,
+                                       final long rowCount) {
+        this.table = table;
+        this.columns = columns;
+        this.start = start;
+        this.rows = rows;
+        this.rowCount = rowCount;
+    }
+
+    @Override
+    public void write(@Nonnull final OutputStream output) throws IOException {
+        final JsonGenerator generator = MAPPER.getFactory().createGenerator(output, JsonEncoding.UTF8);
+        generator.writeStartObject();
+        generator.writeStringField("table", table);
+        generator.writeNumberField("start", start);
+        generator.writeNumberField("rowCount", rowCount);
+
+        generator.writeArrayFieldStart("fields");
+        for (final QueryResultColumn column : columns) {
+            generator.writeString(column.getField());
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("data");
+        for (int column = 0; column < columns.size(); ++column) {
+            generator.writeStartArray();
+            for (final List<Object> row : rows) {
+                generator.writeObject(row.get(column));
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+        generator.flush();
+    }
+}
@@ -0,0 +1,165 @@
+package com.thinkbiganalytics.spark.metadata;
+
+/*-
+ * #%L
+ * thinkbig-spark-shell-client-app
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.discovery.schema.QueryResultColumn;
+import com.thinkbiganalytics.spark.DataSet;
+
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.function.Function2;
+import org.apache.spark.sql.Row;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The result of a transformation that can be read in pages of rows.
+ *
+ * <p>The rows in each partition are counted the first time the result is read. A page is then read by collecting only the partitions that contain
+ * it, one partition at a time, so the driver never holds more than one partition of the result.</p>
+ */
+public class PagedResult {
+
+    /**
+     * Columns of the result
+     */
+    @Nonnull
+    private final List<QueryResultColumn> columns;
+
+    /**
+     * Index of the first row of each partition, followed by the total number of rows
+     */
+    @Nullable
+    private long[] partitionOffsets;
+
+    /**
+     * Rows of the result
+     */
+    @Nonnull
+    private final JavaRDD<Row> rdd;
+
+    /**
+     * Converts rows to response objects
+     */
+    @Nonnull
+    private final QueryResultRowTransform rowTransform;
+
+    /**
+     * Constructs a {@code PagedResult}.
+     *
+     * @param table   the destination table name
+     * @param dataSet the result, which should be cached or persisted
+     */
+    public PagedResult(@Nonnull final String table, @Nonnull final DataSet dataSet) {
+        this.rdd = dataSet.javaRDD();
+        this.rowTransform = new QueryResultRowTransform(dataSet.schema(), table);
+        this.columns = Arrays.<QueryResultColumn>asList(rowTransform.columns());
+    }
+
+    /**
+     * Gets the columns of the result.
+     *
+     * @return the columns
+     */
+    @Nonnull
+    public List<QueryResultColumn> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the total number of rows.
+     *
+     * @return the number of rows
+     */
+    public long getRowCount() {
+        final long[] offsets = getPartitionOffsets();
+        return offsets[offsets.length - 1];
+    }
+
+    /**
+     * Reads a page of rows.
+     *
+     * @param start the index of the first row
+     * @param limit the maximum number of rows
+     * @return the rows, converted to response objects
+     */
+    @Nonnull
+    public List<List<Object>> getRows(final long start, final int limit) {
+        final long[] offsets = getPartitionOffsets();
+        final long end = Math.min(start + limit, offsets[offsets.length - 1]);
+        final List<List<Object>> rows = new ArrayList<>((int) Math.max(0, end - start));
+
+        for (int partition = 0; partition < offsets.length - 1 && offsets[partition] < end; ++partition) {
+            if (offsets[partition + 1] <= start || offsets[partition + 1] == offsets[partition]) {
+                continue;
+            }
+
+            final List<Row> partitionRows = rdd.collectPartitions(new int[]{partition})[0];
+            final int from = (int) Math.max(0, start - offsets[partition]);
+            final int to = (int) Math.min(partitionRows.size(), end - offsets[partition]);
+            for (int i = from; i < to; ++i) {
+                rows.add(rowTransform.convertRow(partitionRows.get(i)));
+            }
+        }
+
+        return rows;
+    }
+
+    /**
+     * Counts the rows in each partition, if not already counted.
+     */
+    @Nonnull
+    private synchronized long[] getPartitionOffsets() {
+        if (partitionOffsets == null) {
+            final List<Long> counts = rdd.mapPartitionsWithIndex(new CountRows(), false).collect();
+            final long[] offsets = new long[counts.size() + 1];
+            for (int i = 0; i < counts.size(); ++i) {
+                offsets[i + 1] = offsets[i] + counts.get(i);
+            }
+            partitionOffsets = offsets;
+        }
+        return partitionOffsets;
+    }
+
+    /**
+     * Counts the rows in a partition.
+     */
+    private static class CountRows implements Function2<Integer, Iterator<Row>, Iterator<Long>> {
+
+        private static final long serialVersionUID = -3581290651425307461L;
+
+        @Override
+        public Iterator<Long> call(final Integer partition, final Iterator<Row> rows) {
+            long count = 0;
+            while (rows.hasNext()) {
+                rows.next();
+                ++count;
+            }
+            return Collections.singletonList(count).iterator();
+        }
+    }
+}
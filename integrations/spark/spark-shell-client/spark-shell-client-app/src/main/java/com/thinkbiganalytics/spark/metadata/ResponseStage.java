@@ -25,6 +25,8 @@ import com.google.common.collect.Lists;
 import com.thinkbiganalytics.spark.model.TransformResult;
 import com.thinkbiganalytics.spark.rest.model.TransformQueryResult;
 import com.thinkbiganalytics.spark.rest.model.TransformResponse;
+import com.thinkbiganalytics.spark.rest.model.TransformValidationResult;
+import com.thinkbiganalytics.spark.service.TransformPageService;
 
 import jline.internal.Preconditions;
 
@@ -47,10 +49,35 @@ public class ResponseStage implements Function<TransformResult, TransformRespons
     private final String table;
 
     /**
-     * Constructs a {@code ResponseStage}.
+     * Keeps the result for reading in pages
+     */
+    @Nullable
+    private final TransformPageService pageService;
+
+    /**
+     * Maximum number of rows requested in the response
+     */
+    @Nullable
+    private final Integer pageSize;
+
+    /**
+     * Constructs a {@code ResponseStage} that includes all rows in the response.
      */
     public ResponseStage(@Nonnull final String table) {
+        this(table, null, null);
+    }
+
+    /**
+     * Constructs a {@code ResponseStage} that includes only the first page of rows in the response, if both a page service and a page size are given.
+     *
+     * @param table       the destination table name
+     * @param pageService the service for reading the result in pages, or {@code null} to include all rows
+     * @param pageSize    the number of rows requested in the response, or {@code null} to include all rows
+     */
+    public ResponseStage(@Nonnull final String table, @Nullable final TransformPageService pageService, @Nullable final Integer pageSize) {
         this.table = table;
+        this.pageService = pageService;
+        this.pageSize = pageSize;
     }
 
     @Nonnull
@@ -59,20 +86,35 @@ public class ResponseStage implements Function<TransformResult, TransformRespons
         Preconditions.checkNotNull(result);
 
         // Transform data set into rows
-        final QueryResultRowTransform rowTransform = new QueryResultRowTransform(result.getDataSet().schema(), table);
-        final List<List<Object>> rows = Lists.transform(result.getDataSet().collectAsList(), new Function<Row, List<Object>>() {
-            @Nullable
-            @Override
-            public List<Object> apply(@Nullable Row row) {
-                return (row != null) ? rowTransform.convertRow(row) : null;
+        final List<List<Object>> rows;
+        final long rowCount;
+        List<List<TransformValidationResult>> validationResults = result.getValidationResults();
+
+        if (pageService != null && pageSize != null && pageSize > 0) {
+            final PagedResult pagedResult = pageService.put(table, result.getDataSet());
+            rows = pagedResult.getRows(0, Math.min(pageSize, pageService.getPageSize()));
+            rowCount = pagedResult.getRowCount();
+            if (validationResults != null && validationResults.size() > rows.size()) {
+                validationResults = validationResults.subList(0, rows.size());
             }
-        });
+        } else {
+            final QueryResultRowTransform rowTransform = new QueryResultRowTransform(result.getDataSet().schema(), table);
+            rows = Lists.transform(result.getDataSet().collectAsList(), new Function<Row, List<Object>>() {
+                @Nullable
+                @Override
+                public List<Object> apply(@Nullable Row row) {
+                    return (row != null) ? rowTransform.convertRow(row) : null;
+                }
+            });
+            rowCount = rows.size();
+        }
 
         // Build the query result
         final TransformQueryResult queryResult = new TransformQueryResult();
         queryResult.setColumns(result.getColumns());
         queryResult.setRows(rows);
-        queryResult.setValidationResults(result.getValidationResults());
+        queryResult.setRowCount(rowCount);
+        queryResult.setValidationResults(validationResults);
 
         // Build the response
         final TransformResponse response = new TransformResponse();
@@ -43,16 +43,32 @@ public class ShellTransformStage implements Supplier<TransformResult> {
     private final DataSet dataSet;
 
     /**
-     * Constructs a {@code ShellTransformStage}.
+     * Indicates that the data set should be persisted in memory.
+     */
+    private final boolean persist;
+
+    /**
+     * Constructs a {@code ShellTransformStage} that persists the data set in memory.
      */
     public ShellTransformStage(@Nonnull final DataSet dataSet) {
+        this(dataSet, true);
+    }
+
+    /**
+     * Constructs a {@code ShellTransformStage}.
+     *
+     * @param dataSet the data set
+     * @param persist {@code true} to persist the data set in memory, or {@code false} if it is already cached
+     */
+    public ShellTransformStage(@Nonnull final DataSet dataSet, final boolean persist) {
         this.dataSet = dataSet;
+        this.persist = persist;
     }
 
     @Override
     public TransformResult get() {
         final TransformResult result = new TransformResult();
-        result.setDataSet(dataSet.persist(StorageLevel.MEMORY_ONLY()));
+        result.setDataSet(persist ? dataSet.persist(StorageLevel.MEMORY_ONLY()) : dataSet);
         result.setColumns(Arrays.<QueryResultColumn>asList(new QueryResultRowTransform(result.getDataSet().schema(), "").columns()));
         return result;
     }
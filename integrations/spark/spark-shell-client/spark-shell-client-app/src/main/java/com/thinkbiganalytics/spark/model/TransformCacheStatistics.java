@@ -0,0 +1,113 @@
+package com.thinkbiganalytics.spark.model;
+
+/*-
+ * #%L
+ * thinkbig-spark-shell-client-app
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Usage of the cache of transformation results.
+ */
+public class TransformCacheStatistics {
+
+    /**
+     * Number of cached results.
+     */
+    private int entries;
+
+    /**
+     * Number of requests whose parent result was cached.
+     */
+    private long hitCount;
+
+    /**
+     * Number of requests whose parent result was not cached.
+     */
+    private long missCount;
+
+    /**
+     * Bytes of cached results stored in memory.
+     */
+    private long memorySize;
+
+    /**
+     * Bytes of cached results stored on disk.
+     */
+    private long diskSize;
+
+    /**
+     * Maximum bytes of cached results in memory and on disk.
+     */
+    private long maxSize;
+
+    public int getEntries() {
+        return entries;
+    }
+
+    public void setEntries(int entries) {
+        this.entries = entries;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public void setMissCount(long missCount) {
+        this.missCount = missCount;
+    }
+
+    /**
+     * Gets the ratio of requests whose parent result was cached, or 1.0 if no requests had a parent.
+     */
+    public double getHitRate() {
+        final long requestCount = hitCount + missCount;
+        return (requestCount == 0) ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    public long getMemorySize() {
+        return memorySize;
+    }
+
+    public void setMemorySize(long memorySize) {
+        this.memorySize = memorySize;
+    }
+
+    public long getDiskSize() {
+        return diskSize;
+    }
+
+    public void setDiskSize(long diskSize) {
+        this.diskSize = diskSize;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+}
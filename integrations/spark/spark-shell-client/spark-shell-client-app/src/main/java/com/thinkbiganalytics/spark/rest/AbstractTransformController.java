@@ -20,25 +20,31 @@ package com.thinkbiganalytics.spark.rest;
  * #L%
  */
 
+import com.thinkbiganalytics.spark.io.ColumnarPageStreamingOutput;
 import com.thinkbiganalytics.spark.io.ZipStreamingOutput;
+import com.thinkbiganalytics.spark.metadata.PagedResult;
 import com.thinkbiganalytics.spark.metadata.SaveJob;
 import com.thinkbiganalytics.spark.metadata.TransformJob;
 import com.thinkbiganalytics.spark.model.SaveResult;
 import com.thinkbiganalytics.spark.rest.model.SaveResponse;
 import com.thinkbiganalytics.spark.rest.model.TransformResponse;
+import com.thinkbiganalytics.spark.service.TransformPageService;
 import com.thinkbiganalytics.spark.service.TransformService;
 
 import org.apache.hadoop.fs.FileSystem;
 
+import java.util.List;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
 
 import javax.annotation.Nonnull;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
@@ -62,6 +68,12 @@ public abstract class AbstractTransformController {
     @Context
     public FileSystem fileSystem;
 
+    /**
+     * Service for reading transformation results in pages
+     */
+    @Context
+    public TransformPageService transformPageService;
+
     /**
      * Service for evaluating transform scripts
      */
@@ -121,6 +133,50 @@ public abstract class AbstractTransformController {
         }
     }
 
+    /**
+     * Fetches a page of rows from the results of a transformation.
+     *
+     * <p>The values are grouped by column to keep the response compact.</p>
+     *
+     * @param id    the destination table name
+     * @param start the index of the first row
+     * @param limit the maximum number of rows
+     * @return the rows
+     */
+    @GET
+    @Path("{table}/rows")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation("Fetches a page of rows from the results of a transformation.")
+    @ApiResponses({
+                      @ApiResponse(code = 200, message = "Returns the rows with the values of each field in an array."),
+                      @ApiResponse(code = 400, message = "The start or limit is negative.", response = TransformResponse.class),
+                      @ApiResponse(code = 404, message = "The transformation does not exist.", response = TransformResponse.class),
+                      @ApiResponse(code = 500, message = "There was a problem accessing the data.", response = TransformResponse.class)
+                  })
+    @Nonnull
+    public Response getRows(@Nonnull @PathParam("table") final String id, @QueryParam("start") @DefaultValue("0") final long start,
+                            @QueryParam("limit") @DefaultValue("1000") final int limit) {
+        // Validate request
+        if (start < 0 || limit < 0) {
+            return error(Response.Status.BAD_REQUEST, "getRows.invalidRange");
+        }
+
+        final PagedResult result = transformPageService.get(id);
+        if (result == null) {
+            return error(Response.Status.NOT_FOUND, "getRows.notFound");
+        }
+
+        // Read the rows before streaming so errors are reported
+        try {
+            final List<List<Object>> rows = result.getRows(start, Math.min(limit, transformPageService.getPageSize()));
+            return Response.ok(new ColumnarPageStreamingOutput(id, result.getColumns(), start, rows, result.getRowCount()))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+                .build();
+        } catch (final Exception e) {
+            return error(Response.Status.INTERNAL_SERVER_ERROR, e);
+        }
+    }
+
     /**
      * Requests the status of a save.
      *
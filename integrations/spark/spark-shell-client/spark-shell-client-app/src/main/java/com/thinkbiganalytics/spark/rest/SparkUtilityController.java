@@ -22,7 +22,9 @@ package com.thinkbiganalytics.spark.rest;
 
 import com.google.common.base.Function;
 import com.google.common.collect.FluentIterable;
+import com.thinkbiganalytics.spark.model.TransformCacheStatistics;
 import com.thinkbiganalytics.spark.service.SparkLocatorService;
+import com.thinkbiganalytics.spark.service.TransformCacheService;
 
 import org.apache.spark.sql.sources.DataSourceRegister;
 
@@ -51,6 +53,24 @@ public class SparkUtilityController {
     @Context
     public SparkLocatorService sparkLocatorService;
 
+    /**
+     * Cache of transformation results
+     */
+    @Context
+    public TransformCacheService transformCacheService;
+
+    /**
+     * Returns the usage of the cache of transformation results.
+     */
+    @GET
+    @Path("cache")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation("Gets the transformation cache statistics")
+    @ApiResponse(code = 200, message = "Hit rate and size of the transformation cache.", response = TransformCacheStatistics.class)
+    public Response getCacheStatistics() {
+        return Response.ok(transformCacheService.getStatistics()).build();
+    }
+
     /**
      * Returns the data sources available to Spark.
      */
@@ -0,0 +1,307 @@
+package com.thinkbiganalytics.spark.service;
+
+/*-
+ * #%L
+ * thinkbig-spark-shell-client-app
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.spark.DataSet;
+import com.thinkbiganalytics.spark.SparkContextService;
+import com.thinkbiganalytics.spark.model.TransformCacheStatistics;
+
+import org.apache.spark.sql.SQLContext;
+import org.apache.spark.storage.RDDInfo;
+import org.slf4j.ext.XLogger;
+import org.slf4j.ext.XLoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Caches the results of transformations so that the next transformation can be evaluated on top of its parent's results.
+ *
+ * <p>Each result is registered as a temporary table named after the result, which is where transform scripts look for their parent, and is cached
+ * by Spark in memory with overflow to disk. The least recently used results are evicted when the cached size exceeds the maximum size, and results
+ * that have not been used for the expiry time are evicted regardless of size. The size of a result is only known after it has been computed, so the
+ * maximum size is enforced whenever a new result is added.</p>
+ */
+public class TransformCacheService {
+
+    private static final XLogger log = XLoggerFactory.getXLogger(TransformCacheService.class);
+
+    /**
+     * Prefix of the name of the RDD storing a cached table
+     */
+    private static final String CACHED_TABLE_PREFIX = "In-memory table ";
+
+    /**
+     * Cached results by table name, ordered from least to most recently used
+     */
+    @Nonnull
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Milliseconds after last use that a result is evicted
+     */
+    private final long expireAfterAccess;
+
+    /**
+     * Number of requests whose parent result was cached
+     */
+    private long hitCount;
+
+    /**
+     * Maximum bytes of cached results in memory and on disk
+     */
+    private final long maxSize;
+
+    /**
+     * Number of requests whose parent result was not cached
+     */
+    private long missCount;
+
+    /**
+     * Provides access to the Spark context
+     */
+    @Nonnull
+    private final SparkContextService sparkContextService;
+
+    /**
+     * Spark SQL context for the temporary tables
+     */
+    @Nonnull
+    private final SQLContext sqlContext;
+
+    /**
+     * Constructs a {@code TransformCacheService}.
+     *
+     * @param sqlContext          the Spark SQL context
+     * @param sparkContextService the Spark context service
+     * @param maxSize             the maximum bytes of cached results
+     * @param expireAfterAccess   the time after last use that a result is evicted
+     * @param unit                the unit of {@code expireAfterAccess}
+     */
+    public TransformCacheService(@Nonnull final SQLContext sqlContext, @Nonnull final SparkContextService sparkContextService, final long maxSize, final long expireAfterAccess,
+                                 @Nonnull final TimeUnit unit) {
+        this.sqlContext = sqlContext;
+        this.sparkContextService = sparkContextService;
+        this.maxSize = maxSize;
+        this.expireAfterAccess = unit.toMillis(expireAfterAccess);
+    }
+
+    /**
+     * Indicates if the result with the specified table name is cached, and marks it as recently used.
+     *
+     * @param table the table name of the result
+     * @return {@code true} if the result is cached, or {@code false} otherwise
+     */
+    public synchronized boolean contains(@Nonnull final String table) {
+        expireEntries();
+
+        final Entry entry = entries.get(table);
+        if (entry != null) {
+            entry.accessTime = System.currentTimeMillis();
+            ++hitCount;
+            return true;
+        } else {
+            ++missCount;
+            return false;
+        }
+    }
+
+    /**
+     * Caches the specified result.
+     *
+     * <p>The returned data set reads from the cache. It is computed and cached by the first action run on it.</p>
+     *
+     * @param table       the table name for the result
+     * @param parentTable the table name of the parent result, if any
+     * @param dataSet     the result
+     * @return the cached data set
+     */
+    @Nonnull
+    public synchronized DataSet put(@Nonnull final String table, @Nullable final String parentTable, @Nonnull final DataSet dataSet) {
+        log.entry(table, parentTable, dataSet);
+
+        expireEntries();
+        evictEntries(getLineage(parentTable));
+
+        dataSet.registerTempTable(table);
+        sqlContext.cacheTable(table);
+        entries.put(table, new Entry(parentTable));
+
+        return log.exit(sparkContextService.toDataSet(sqlContext, table));
+    }
+
+    /**
+     * Gets the cache usage.
+     *
+     * @return the cache statistics
+     */
+    @Nonnull
+    public synchronized TransformCacheStatistics getStatistics() {
+        expireEntries();
+
+        long memorySize = 0;
+        long diskSize = 0;
+        final Map<String, RDDInfo> storage = getStorageInfo();
+        for (final String table : entries.keySet()) {
+            final RDDInfo info = storage.get(table);
+            if (info != null) {
+                memorySize += info.memSize();
+                diskSize += info.diskSize();
+            }
+        }
+
+        final TransformCacheStatistics statistics = new TransformCacheStatistics();
+        statistics.setDiskSize(diskSize);
+        statistics.setEntries(entries.size());
+        statistics.setHitCount(hitCount);
+        statistics.setMaxSize(maxSize);
+        statistics.setMemorySize(memorySize);
+        statistics.setMissCount(missCount);
+        return statistics;
+    }
+
+    /**
+     * Evicts the specified result from the cache, releasing its cached data before removing its temporary table.
+     */
+    private void dropTable(@Nonnull final String table) {
+        log.debug("Evicting cached transform result: {}", table);
+        try {
+            sqlContext.uncacheTable(table);
+        } catch (final RuntimeException e) {
+            log.warn("Unable to uncache transform result: {}: {}", table, e.toString());
+        }
+        try {
+            sqlContext.dropTempTable(table);
+        } catch (final RuntimeException e) {
+            log.warn("Unable to drop cached transform result: {}: {}", table, e.toString());
+        }
+    }
+
+    /**
+     * Evicts the least recently used results until the cached size is no more than the maximum size.
+     *
+     * @param retained table names of results that must not be evicted
+     */
+    private void evictEntries(@Nonnull final Set<String> retained) {
+        final Map<String, RDDInfo> storage = getStorageInfo();
+        long size = 0;
+        for (final String table : entries.keySet()) {
+            size += getSize(storage.get(table));
+        }
+
+        final Iterator<String> iter = entries.keySet().iterator();
+        while (size > maxSize && iter.hasNext()) {
+            final String table = iter.next();
+            if (!retained.contains(table)) {
+                size -= getSize(storage.get(table));
+                iter.remove();
+                dropTable(table);
+            }
+        }
+    }
+
+    /**
+     * Evicts results that have not been used within the expiry time.
+     */
+    private void expireEntries() {
+        final long expireTime = System.currentTimeMillis() - expireAfterAccess;
+        final Iterator<Map.Entry<String, Entry>> iter = entries.entrySet().iterator();
+        while (iter.hasNext()) {
+            final Map.Entry<String, Entry> entry = iter.next();
+            if (entry.getValue().accessTime >= expireTime) {
+                break;
+            }
+            iter.remove();
+            dropTable(entry.getKey());
+        }
+    }
+
+    /**
+     * Gets the table names of the specified result and its cached ancestors, which a new result may still be computed from, and marks them as
+     * recently used.
+     */
+    @Nonnull
+    private Set<String> getLineage(@Nullable final String table) {
+        final Set<String> lineage = new HashSet<>();
+        final long now = System.currentTimeMillis();
+        String next = table;
+        while (next != null && lineage.add(next)) {
+            final Entry entry = entries.get(next);
+            if (entry != null) {
+                entry.accessTime = now;
+                next = entry.parentTable;
+            } else {
+                next = null;
+            }
+        }
+        return lineage;
+    }
+
+    /**
+     * Gets the bytes used by the specified cached RDD in memory and on disk.
+     */
+    private long getSize(@Nullable final RDDInfo info) {
+        return (info != null) ? info.memSize() + info.diskSize() : 0;
+    }
+
+    /**
+     * Gets the storage information of the cached tables, by table name.
+     */
+    @Nonnull
+    private Map<String, RDDInfo> getStorageInfo() {
+        final Map<String, RDDInfo> storage = new HashMap<>();
+        for (final RDDInfo info : sqlContext.sparkContext().getRDDStorageInfo()) {
+            if (info.name() != null && info.name().startsWith(CACHED_TABLE_PREFIX)) {
+                storage.put(info.name().substring(CACHED_TABLE_PREFIX.length()), info);
+            }
+        }
+        return storage;
+    }
+
+    /**
+     * A cached result.
+     */
+    private static class Entry {
+
+        /**
+         * Time the result was last used
+         */
+        long accessTime = System.currentTimeMillis();
+
+        /**
+         * Table name of the parent result
+         */
+        @Nullable
+        final String parentTable;
+
+        Entry(@Nullable final String parentTable) {
+            this.parentTable = parentTable;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.thinkbiganalytics.spark.service;
+
+/*-
+ * #%L
+ * thinkbig-spark-shell-client-app
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.thinkbiganalytics.spark.DataSet;
+import com.thinkbiganalytics.spark.metadata.PagedResult;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Keeps the results of recent transformations so that they can be read in pages.
+ */
+public class TransformPageService {
+
+    /**
+     * Maximum number of rows in a page
+     */
+    private final int pageSize;
+
+    /**
+     * Results by table name
+     */
+    @Nonnull
+    private final Cache<String, PagedResult> results;
+
+    /**
+     * Constructs a {@code TransformPageService}.
+     *
+     * @param pageSize          the maximum number of rows in a page
+     * @param maximumResults    the maximum number of results to keep
+     * @param expireAfterAccess the time after last use that a result is discarded
+     * @param unit              the unit of {@code expireAfterAccess}
+     */
+    public TransformPageService(final int pageSize, final long maximumResults, final long expireAfterAccess, @Nonnull final TimeUnit unit) {
+        this.pageSize = pageSize;
+        this.results = CacheBuilder.newBuilder()
+            .expireAfterAccess(expireAfterAccess, unit)
+            .maximumSize(maximumResults)
+            .build();
+    }
+
+    /**
+     * Gets the maximum number of rows in a page.
+     *
+     * @return the page size
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Gets the result with the specified table name.
+     *
+     * @param table the destination table name
+     * @return the result, or {@code null} if the result does not exist or has been discarded
+     */
+    @Nullable
+    public PagedResult get(@Nonnull final String table) {
+        return results.getIfPresent(table);
+    }
+
+    /**
+     * Adds the specified result.
+     *
+     * @param table   the destination table name
+     * @param dataSet the result, which should be cached or persisted
+     * @return the paged result
+     */
+    @Nonnull
+    public PagedResult put(@Nonnull final String table, @Nonnull final DataSet dataSet) {
+        final PagedResult result = new PagedResult(table, dataSet);
+        results.put(table, result);
+        return result;
+    }
+}
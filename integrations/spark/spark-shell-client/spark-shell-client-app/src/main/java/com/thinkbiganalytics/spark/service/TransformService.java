@@ -88,6 +88,18 @@ public class TransformService {
 
     private static final XLogger log = XLoggerFactory.getXLogger(TransformService.class);
 
+    /**
+     * Cache of transformation results
+     */
+    @Nullable
+    private TransformCacheService cache;
+
+    /**
+     * Keeps transformation results for reading in pages
+     */
+    @Nullable
+    private TransformPageService pageService;
+
     /**
      * Data source provider factory
      */
@@ -167,6 +179,44 @@ public class TransformService {
         this.tracker = tracker;
     }
 
+    /**
+     * Gets the cache of transformation results.
+     *
+     * @return the cache
+     */
+    @Nullable
+    public TransformCacheService getCache() {
+        return cache;
+    }
+
+    /**
+     * Sets the cache of transformation results.
+     *
+     * @param cache the cache
+     */
+    public void setCache(@Nullable final TransformCacheService cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Gets the service for reading transformation results in pages.
+     *
+     * @return the page service
+     */
+    @Nullable
+    public TransformPageService getPageService() {
+        return pageService;
+    }
+
+    /**
+     * Sets the service for reading transformation results in pages.
+     *
+     * @param pageService the page service
+     */
+    public void setPageService(@Nullable final TransformPageService pageService) {
+        this.pageService = pageService;
+    }
+
     /**
      * Gets the data source provider factory.
      *
@@ -204,14 +254,30 @@ public class TransformService {
             return cacheTransform(request);
         }
 
+        // Look for cached parent
+        final String parentTable = (request.getParent() != null) ? request.getParent().getTable() : null;
+        if (cache != null && parentTable != null && !cache.contains(parentTable)) {
+            log.debug("Parent transformation is not cached and will be re-evaluated: {}", parentTable);
+        }
+
         // Execute script
-        final DataSet dataSet = createShellTask(request);
+        final String table = newTableName();
+        final DataSet dataSet;
+        final ShellTransformStage stage;
+
+        if (cache != null) {
+            dataSet = cache.put(table, parentTable, createShellTask(request));
+            stage = new ShellTransformStage(dataSet, false);
+        } else {
+            dataSet = createShellTask(request);
+            stage = new ShellTransformStage(dataSet);
+        }
+
         final StructType schema = dataSet.schema();
-        TransformResponse response = submitTransformJob(new ShellTransformStage(dataSet), getPolicies(request));
+        TransformResponse response = submitTransformJob(table, stage, getPolicies(request), request.getPageSize());
 
         // Build response
         if (response.getStatus() != TransformResponse.Status.SUCCESS) {
-            final String table = response.getTable();
             final TransformQueryResult partialResult = new TransformQueryResult();
             partialResult.setColumns(Arrays.<QueryResultColumn>asList(new QueryResultRowTransform(schema, table).columns()));
 
@@ -321,7 +387,7 @@ public class TransformService {
         }
 
         // Execute query
-        final TransformResponse response = submitTransformJob(createSqlTask(request), getPolicies(request));
+        final TransformResponse response = submitTransformJob(newTableName(), createSqlTask(request), getPolicies(request), request.getPageSize());
         return log.exit(response);
     }
 
@@ -551,8 +617,9 @@ public class TransformService {
      * Submits the specified task to be executed and returns the result.
      */
     @Nonnull
-    private TransformResponse submitTransformJob(@Nonnull final Supplier<TransformResult> task, @Nullable final FieldPolicy[] policies) throws ScriptException {
-        log.entry(task, policies);
+    private TransformResponse submitTransformJob(@Nonnull final String table, @Nonnull final Supplier<TransformResult> task, @Nullable final FieldPolicy[] policies,
+                                                 @Nullable final Integer pageSize) throws ScriptException {
+        log.entry(table, task, policies, pageSize);
 
         // Prepare script
         Supplier<TransformResult> result = task;
@@ -565,8 +632,7 @@ public class TransformService {
         }
 
         // Execute script
-        final String table = newTableName();
-        final TransformJob job = new TransformJob(table, Suppliers.compose(new ResponseStage(table), result), engine.getSparkContext());
+        final TransformJob job = new TransformJob(table, Suppliers.compose(new ResponseStage(table, pageService, pageSize), result), engine.getSparkContext());
         tracker.submitJob(job);
 
         // Build response
@@ -0,0 +1,99 @@
+package com.thinkbiganalytics.spark.metadata;
+
+/*-
+ * #%L
+ * thinkbig-spark-shell-client-app
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.spark.DataSet;
+
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.function.Function2;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructType;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.AdditionalMatchers;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class PagedResultTest {
+
+    /**
+     * Verify reading pages that span partitions.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void getRows() {
+        // Mock partitions of 3, 0, 2, and 3 rows
+        final JavaRDD<Long> counts = Mockito.mock(JavaRDD.class);
+        Mockito.when(counts.collect()).thenReturn(Arrays.asList(3L, 0L, 2L, 3L));
+
+        final JavaRDD<Row> rdd = Mockito.mock(JavaRDD.class);
+        Mockito.when(rdd.mapPartitionsWithIndex(Mockito.any(Function2.class), Mockito.eq(false))).thenReturn(counts);
+        Mockito.when(rdd.collectPartitions(AdditionalMatchers.aryEq(new int[]{0}))).thenReturn(new List[]{rows(0, 3)});
+        Mockito.when(rdd.collectPartitions(AdditionalMatchers.aryEq(new int[]{2}))).thenReturn(new List[]{rows(3, 5)});
+        Mockito.when(rdd.collectPartitions(AdditionalMatchers.aryEq(new int[]{3}))).thenReturn(new List[]{rows(5, 8)});
+
+        final DataSet dataSet = Mockito.mock(DataSet.class);
+        Mockito.when(dataSet.javaRDD()).thenReturn(rdd);
+        Mockito.when(dataSet.schema()).thenReturn(new StructType().add("id", DataTypes.IntegerType));
+
+        // Test reading pages
+        final PagedResult result = new PagedResult("mytable", dataSet);
+        Assert.assertEquals(8, result.getRowCount());
+        Assert.assertEquals(Arrays.asList(0, 1), ids(result.getRows(0, 2)));
+        Assert.assertEquals(Arrays.asList(2, 3, 4, 5), ids(result.getRows(2, 4)));
+        Assert.assertEquals(Arrays.asList(6, 7), ids(result.getRows(6, 10)));
+        Assert.assertEquals(Collections.emptyList(), ids(result.getRows(8, 10)));
+
+        // Verify rows were counted once and only the needed partitions were collected
+        Mockito.verify(counts, Mockito.times(1)).collect();
+        Mockito.verify(rdd, Mockito.never()).collectPartitions(AdditionalMatchers.aryEq(new int[]{1}));
+        Mockito.verify(rdd, Mockito.times(2)).collectPartitions(AdditionalMatchers.aryEq(new int[]{0}));
+        Mockito.verify(rdd, Mockito.times(1)).collectPartitions(AdditionalMatchers.aryEq(new int[]{2}));
+        Mockito.verify(rdd, Mockito.times(2)).collectPartitions(AdditionalMatchers.aryEq(new int[]{3}));
+    }
+
+    /**
+     * Gets the id of each row.
+     */
+    private static List<Object> ids(final List<List<Object>> rows) {
+        final Object[] ids = new Object[rows.size()];
+        for (int i = 0; i < ids.length; ++i) {
+            ids[i] = rows.get(i).get(0);
+        }
+        return Arrays.asList(ids);
+    }
+
+    /**
+     * Creates rows with the specified range of ids.
+     */
+    private static List<Row> rows(final int start, final int end) {
+        final Row[] rows = new Row[end - start];
+        for (int i = start; i < end; ++i) {
+            rows[i - start] = RowFactory.create(i);
+        }
+        return Arrays.asList(rows);
+    }
+}
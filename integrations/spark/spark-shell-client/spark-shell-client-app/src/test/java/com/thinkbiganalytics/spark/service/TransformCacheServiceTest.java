@@ -0,0 +1,177 @@
+package com.thinkbiganalytics.spark.service;
+
+/*-
+ * #%L
+ * thinkbig-spark-shell-client-app
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.spark.DataSet;
+import com.thinkbiganalytics.spark.SparkContextService;
+import com.thinkbiganalytics.spark.model.TransformCacheStatistics;
+
+import org.apache.spark.SparkContext;
+import org.apache.spark.sql.SQLContext;
+import org.apache.spark.storage.RDDInfo;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+public class TransformCacheServiceTest {
+
+    /**
+     * Bytes used by each cached table, by table name
+     */
+    private final Map<String, Long> sizes = new LinkedHashMap<>();
+
+    private SQLContext sqlContext;
+
+    private SparkContextService sparkContextService;
+
+    @Before
+    public void setUp() {
+        // Report the cached tables as Spark would name their RDDs
+        final SparkContext sparkContext = Mockito.mock(SparkContext.class);
+        Mockito.when(sparkContext.getRDDStorageInfo()).thenAnswer(invocation -> sizes.entrySet().stream()
+            .map(entry -> rddInfo("In-memory table " + entry.getKey(), entry.getValue()))
+            .toArray(RDDInfo[]::new));
+
+        sqlContext = Mockito.mock(SQLContext.class);
+        Mockito.when(sqlContext.sparkContext()).thenReturn(sparkContext);
+
+        sparkContextService = Mockito.mock(SparkContextService.class);
+        Mockito.when(sparkContextService.toDataSet(Mockito.any(SQLContext.class), Mockito.anyString())).thenReturn(Mockito.mock(DataSet.class));
+    }
+
+    /**
+     * Verify the least recently used results are evicted and uncached once the maximum size is exceeded.
+     */
+    @Test
+    public void evictLeastRecentlyUsed() {
+        final TransformCacheService cache = new TransformCacheService(sqlContext, sparkContextService, 100, 1, TimeUnit.HOURS);
+        put(cache, "a", null, 40);
+        put(cache, "b", null, 40);
+        put(cache, "c", null, 40);
+        Mockito.verify(sqlContext, Mockito.never()).dropTempTable(Mockito.anyString());
+
+        // Using a makes b the least recently used
+        Assert.assertTrue(cache.contains("a"));
+        put(cache, "d", null, 40);
+
+        assertEvicted("b");
+        Mockito.verify(sqlContext, Mockito.never()).uncacheTable("a");
+        Mockito.verify(sqlContext, Mockito.never()).uncacheTable("c");
+        Assert.assertFalse(cache.contains("b"));
+        Assert.assertTrue(cache.contains("a"));
+        Assert.assertTrue(cache.contains("c"));
+        Assert.assertTrue(cache.contains("d"));
+    }
+
+    /**
+     * Verify results that a new result is computed from are never evicted.
+     */
+    @Test
+    public void retainParentLineage() {
+        final TransformCacheService cache = new TransformCacheService(sqlContext, sparkContextService, 100, 1, TimeUnit.HOURS);
+        put(cache, "a", null, 60);
+        put(cache, "b", "a", 60);
+        put(cache, "c", "b", 60);
+        put(cache, "d", "c", 60);
+
+        Mockito.verify(sqlContext, Mockito.never()).uncacheTable(Mockito.anyString());
+        Mockito.verify(sqlContext, Mockito.never()).dropTempTable(Mockito.anyString());
+
+        // An unrelated result can evict the whole chain except what still fits
+        put(cache, "e", null, 60);
+        assertEvicted("a");
+        assertEvicted("b");
+        assertEvicted("c");
+        Assert.assertTrue(cache.contains("d"));
+    }
+
+    /**
+     * Verify results are evicted and uncached once they have not been used for the expiry time, regardless of size.
+     */
+    @Test
+    public void expireAfterAccess() throws Exception {
+        final TransformCacheService cache = new TransformCacheService(sqlContext, sparkContextService, Long.MAX_VALUE, 50, TimeUnit.MILLISECONDS);
+        put(cache, "a", null, 1);
+        Thread.sleep(100);
+        put(cache, "b", null, 1);
+
+        assertEvicted("a");
+        Assert.assertFalse(cache.contains("a"));
+        Assert.assertTrue(cache.contains("b"));
+        Mockito.verify(sqlContext, Mockito.never()).uncacheTable("b");
+    }
+
+    /**
+     * Verify the statistics only include results that are still cached.
+     */
+    @Test
+    public void getStatistics() {
+        final TransformCacheService cache = new TransformCacheService(sqlContext, sparkContextService, 100, 1, TimeUnit.HOURS);
+        put(cache, "a", null, 60);
+        put(cache, "b", null, 60);
+        put(cache, "c", null, 30);
+        assertEvicted("a");
+
+        Assert.assertTrue(cache.contains("b"));
+        Assert.assertFalse(cache.contains("a"));
+        Assert.assertFalse(cache.contains("z"));
+
+        final TransformCacheStatistics statistics = cache.getStatistics();
+        Assert.assertEquals(2, statistics.getEntries());
+        Assert.assertEquals(90, statistics.getMemorySize());
+        Assert.assertEquals(1, statistics.getHitCount());
+        Assert.assertEquals(2, statistics.getMissCount());
+    }
+
+    /**
+     * Caches a result and reports its size once it has been computed.
+     */
+    private void put(@Nonnull final TransformCacheService cache, @Nonnull final String table, final String parentTable, final long size) {
+        cache.put(table, parentTable, Mockito.mock(DataSet.class));
+        Mockito.verify(sqlContext).cacheTable(table);
+        sizes.put(table, size);
+    }
+
+    /**
+     * Verifies the specified result was uncached and its temporary table dropped, and stops reporting its size.
+     */
+    private void assertEvicted(@Nonnull final String table) {
+        Mockito.verify(sqlContext).uncacheTable(table);
+        Mockito.verify(sqlContext).dropTempTable(table);
+        sizes.remove(table);
+    }
+
+    @Nonnull
+    private static RDDInfo rddInfo(@Nonnull final String name, final long size) {
+        final RDDInfo info = Mockito.mock(RDDInfo.class);
+        Mockito.when(info.name()).thenReturn(name);
+        Mockito.when(info.memSize()).thenReturn(size);
+        Mockito.when(info.diskSize()).thenReturn(0L);
+        return info;
+    }
+}
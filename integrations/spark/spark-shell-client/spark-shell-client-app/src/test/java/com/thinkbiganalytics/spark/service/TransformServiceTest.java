@@ -163,6 +163,47 @@ public class TransformServiceTest {
         Assert.assertEquals(datasourceProvider, bindings.get(1).value());
     }
 
+    /**
+     * Verify executing a transformation request with a cache of transformation results.
+     */
+    @Test
+    public void executeWithCache() throws Exception {
+        // Mock data sets
+        final DataSet dataSet = Mockito.mock(DataSet.class);
+        final DataSet cachedDataSet = Mockito.mock(DataSet.class);
+        Mockito.when(cachedDataSet.schema()).thenReturn(new StructType());
+
+        // Mock Spark script engine
+        final SparkScriptEngine engine = Mockito.mock(SparkScriptEngine.class);
+        Mockito.when(engine.eval(Mockito.anyString(), Mockito.anyListOf(NamedParam.class))).thenReturn(dataSet);
+        Mockito.when(engine.getSparkContext()).thenReturn(Mockito.mock(SparkContext.class));
+
+        // Mock cache
+        final TransformCacheService cache = Mockito.mock(TransformCacheService.class);
+        Mockito.when(cache.contains("parent_table")).thenReturn(true);
+        Mockito.when(cache.put(Mockito.anyString(), Mockito.eq("parent_table"), Mockito.eq(dataSet))).thenReturn(cachedDataSet);
+
+        // Test executing a request
+        final TransformRequest.Parent parent = new TransformRequest.Parent();
+        parent.setScript("sqlContext.range(1,10)");
+        parent.setTable("parent_table");
+
+        final TransformRequest request = new TransformRequest();
+        request.setParent(parent);
+        request.setScript("parent.withColumn(functions.expr(\"id+1\")");
+
+        final TransformService service = new TransformService(TransformScript.class, engine, Mockito.mock(SparkContextService.class), new MockJobTrackerService());
+        service.setCache(cache);
+
+        final TransformResponse response = service.execute(request);
+        Assert.assertEquals(TransformResponse.Status.PENDING, response.getStatus());
+
+        // Verify result is cached with the response table name
+        Mockito.verify(cache).contains("parent_table");
+        Mockito.verify(cache).put(response.getTable(), "parent_table", dataSet);
+        Mockito.verify(dataSet, Mockito.never()).persist(Mockito.any(StorageLevel.class));
+    }
+
     /**
      * Verify converting a transformation request to a Scala script.
      */
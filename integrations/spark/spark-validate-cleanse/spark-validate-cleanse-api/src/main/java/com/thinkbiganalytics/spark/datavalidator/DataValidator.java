@@ -76,6 +76,24 @@ public interface DataValidator {
      */
     void saveProfileToTable(@Nonnull String databaseName, @Nonnull String tableName, @Nonnull String partition, @Nonnull DataValidatorResult result, @Nonnull HiveContext hiveContext);
 
+    /**
+     * Saves the invalid rows, valid rows, and profile data to the specified Hive tables while validating the rows only once.
+     *
+     * <p>The valid and invalid rows are written to a staging table in a single pass that also counts the invalid columns and rows, so the
+     * result does not need to be persisted.</p>
+     *
+     * @param databaseName     target database name
+     * @param feedTableName    source table name
+     * @param validTableName   table name for valid rows
+     * @param invalidTableName table name for invalid rows
+     * @param profileTableName table name for profile data
+     * @param partition        target processing_dttm partition value
+     * @param result           validation results
+     * @param hiveContext      Hive context
+     */
+    void saveToTables(@Nonnull String databaseName, @Nonnull String feedTableName, @Nonnull String validTableName, @Nonnull String invalidTableName, @Nonnull String profileTableName,
+                      @Nonnull String partition, @Nonnull DataValidatorResult result, @Nonnull HiveContext hiveContext);
+
     /**
      * Saves the valid rows to the specified Hive table.
      */
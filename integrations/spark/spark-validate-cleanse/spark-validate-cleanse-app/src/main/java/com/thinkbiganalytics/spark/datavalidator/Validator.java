@@ -54,6 +54,7 @@ public class Validator {
             String msg = "Proper Usage is: <targetDatabase> <entity> <partition> <path-to-policy-file>\n" +
                          "You can optionally add: --hiveConf hive.setting=value --hiveConf hive.other.setting=value\n" +
                          "You can optionally add: --storageLevel rdd_persistence_level_value\n" +
+                         "You can optionally add: --singlePass\n" +
                          "You can optionally add: --numPartitions number_of_rdd_partitions\n" +
                          "You provided " + args.length + " args which are (comma separated): " + StringUtils.join(args, ",");
             out.println(msg);
@@ -83,13 +84,19 @@ public class Validator {
             final DataValidatorResult results = app.validateTable(params.getTargetDatabase(), params.getFeedTableName(), params.getValidTableName(), params.getPartition(), params.getNumPartitions(),
                                                                   policyMap, hiveContext);
 
-            log.info("Persistence level: {}", params.getStorageLevel());
-            results.persist(StorageLevel.fromString(params.getStorageLevel()));
-
-            app.saveInvalidToTable(params.getTargetDatabase(), params.getFeedTableName(), params.getInvalidTableName(), results, hiveContext);
-            app.saveValidToTable(params.getTargetDatabase(), params.getFeedTableName(), params.getValidTableName(), results, hiveContext);
-            app.saveProfileToTable(params.getTargetDatabase(), params.getProfileTableName(), params.getPartition(), results, hiveContext);
-            results.unpersist();
+            if (params.isSinglePass()) {
+                log.info("Writing valid and invalid rows in a single pass");
+                app.saveToTables(params.getTargetDatabase(), params.getFeedTableName(), params.getValidTableName(), params.getInvalidTableName(), params.getProfileTableName(),
+                                 params.getPartition(), results, hiveContext);
+            } else {
+                log.info("Persistence level: {}", params.getStorageLevel());
+                results.persist(StorageLevel.fromString(params.getStorageLevel()));
+
+                app.saveInvalidToTable(params.getTargetDatabase(), params.getFeedTableName(), params.getInvalidTableName(), results, hiveContext);
+                app.saveValidToTable(params.getTargetDatabase(), params.getFeedTableName(), params.getValidTableName(), results, hiveContext);
+                app.saveProfileToTable(params.getTargetDatabase(), params.getProfileTableName(), params.getPartition(), results, hiveContext);
+                results.unpersist();
+            }
             log.info("Validator app finished");
         } catch (Exception e) {
             log.error("Failed to perform validation: {}", e.toString(), e);
@@ -46,6 +46,9 @@ public class ValidatorConfiguration {
     @Parameter(names = "--storageLevel", description = "Storage for RDD persistance")
     private String storageLevel = DEFAULT_STORAGE_LEVEL;
 
+    @Parameter(names = "--singlePass", description = "Write valid and invalid rows in a single pass instead of persisting the RDD")
+    private boolean singlePass = false;
+
     private final String entity;
     private String fieldPolicyJsonPath;
     private String partition;
@@ -92,6 +95,10 @@ public class ValidatorConfiguration {
         return storageLevel;
     }
 
+    public boolean isSinglePass() {
+        return singlePass;
+    }
+
     public String getTargetDatabase() {
         return targetDatabase;
     }
@@ -27,6 +27,7 @@ import org.junit.Test;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class ValidatorConfigurationTest {
@@ -65,6 +66,22 @@ public class ValidatorConfigurationTest {
         assertEquals("MEMORY_AND_DISK", defaultStorageLevel);
     }
 
+    @Test
+    public void testParseRemainingParametersSinglePass() {
+        String[] args = {"--singlePass"};
+        ValidatorConfiguration params = new ValidatorConfiguration(new String[]{"targetDatabase", "entity", "partition", "path-to-policy-file"});
+        new JCommander(params).parse(args);
+        assertTrue(params.isSinglePass());
+    }
+
+    @Test
+    public void testDefaultSinglePass() {
+        String[] args = {};
+        ValidatorConfiguration params = new ValidatorConfiguration(new String[]{"targetDatabase", "entity", "partition", "path-to-policy-file"});
+        new JCommander(params).parse(args);
+        assertFalse(params.isSinglePass());
+    }
+
     @Test
     public void testParseRemainingParametersNumPartitions() {
         String[] args = {"--storageLevel", "MEMORY_ONLY", "--numPartitions", "10"};
@@ -29,14 +29,20 @@ import com.thinkbiganalytics.spark.DataSet;
 import com.thinkbiganalytics.spark.SparkContextService;
 import com.thinkbiganalytics.spark.dataprofiler.output.OutputRow;
 import com.thinkbiganalytics.spark.datavalidator.functions.CleanseAndValidateRow;
+import com.thinkbiganalytics.spark.datavalidator.functions.StageCleansedRow;
 import com.thinkbiganalytics.spark.datavalidator.functions.SumPartitionLevelCounts;
+import com.thinkbiganalytics.spark.datavalidator.functions.ValidationCountsParam;
 
 import org.apache.commons.lang.StringUtils;
+import org.apache.spark.Accumulable;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
 import org.apache.spark.api.java.function.Function;
 import org.apache.spark.sql.Row;
+import org.apache.spark.sql.SaveMode;
 import org.apache.spark.sql.hive.HiveContext;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.Metadata;
 import org.apache.spark.sql.types.StructField;
 import org.apache.spark.sql.types.StructType;
 import org.slf4j.Logger;
@@ -85,6 +91,11 @@ public class StandardDataValidator implements DataValidator, Serializable {
      */
     private static final String VALID_COUNT = "VALID_COUNT";
 
+    /**
+     * Name of the staging table column indicating if a row is valid or invalid.
+     */
+    private static final String VALIDITY_COL = "dlp_validity";
+
     private final SparkContextService scs;
 
     private final IValidatorStrategy validatorStrategy;
@@ -99,8 +110,16 @@ public class StandardDataValidator implements DataValidator, Serializable {
 
     @Override
     public List<OutputRow> getProfileStats(@Nonnull final DataValidatorResult result) {
-        final List<OutputRow> stats = new ArrayList<>();
         final long[] validationCounts = cleansedRowResultsValidationCounts(result.getCleansedRowResultRDD(), result.getSchema().length() - 1);
+        return getProfileStats(validationCounts, result);
+    }
+
+    /**
+     * Gets the validation profile statistics for the specified counts of invalid columns, and total valid and invalid rows.
+     */
+    @Nonnull
+    private List<OutputRow> getProfileStats(@Nonnull final long[] validationCounts, @Nonnull final DataValidatorResult result) {
+        final List<OutputRow> stats = new ArrayList<>();
 
         // Calculate global stats
         final long validCount = validationCounts[result.getSchema().length() - 1];
@@ -201,12 +220,89 @@ public class StandardDataValidator implements DataValidator, Serializable {
     @Override
     public void saveProfileToTable(@Nonnull final String databaseName, @Nonnull final String tableName, @Nonnull final String partition, @Nonnull final DataValidatorResult result,
                                    @Nonnull final HiveContext hiveContext) {
+        saveProfileToTable(databaseName, tableName, partition, getProfileStats(result), hiveContext);
+    }
+
+    @Override
+    public void saveToTables(@Nonnull final String databaseName, @Nonnull final String feedTableName, @Nonnull final String validTableName, @Nonnull final String invalidTableName,
+                             @Nonnull final String profileTableName, @Nonnull final String partition, @Nonnull final DataValidatorResult result, @Nonnull final HiveContext hiveContext) {
+        // Resolve the schemas of the valid and invalid rows
+        final StructField[] feedFields = resolveSchema(databaseName, feedTableName, hiveContext);
+        final StructType validSchema = ModifiedSchema.getValidTableSchema(feedFields, resolveSchema(databaseName, validTableName, hiveContext), result.getPolicies());
+        final StructType invalidSchema = cloneSchemaWithNewTypes(new StructType(resolveSchema(databaseName, invalidTableName, hiveContext)), new StructType(feedFields));
+
+        // Cleanse and validate every row once, writing both valid and invalid rows to a staging table partitioned by validity
+        final int schemaLength = result.getSchema().length() - 1;
+        @SuppressWarnings("squid:S2095") final Accumulable<long[], CleansedRowResult> counts = JavaSparkContext.fromSparkContext(hiveContext.sparkContext())
+            .accumulable(new long[schemaLength + 2], new ValidationCountsParam(schemaLength));
+        final JavaRDD<Row> stagingRDD = result.getCleansedRowResultRDD().map(new StageCleansedRow(counts, validSchema.length(), invalidSchema.length()));
+
+        final String stagingTable = HiveUtils.quoteIdentifier(databaseName, validTableName + "_" + System.currentTimeMillis());
+        log.info("Writing valid and invalid rows to staging table {}", stagingTable);
+        scs.toDataSet(hiveContext, stagingRDD, getStagingSchema(validSchema, invalidSchema)).write().format("parquet").partitionBy(VALIDITY_COL).mode(SaveMode.Overwrite).saveAsTable(stagingTable);
+
+        try {
+            final String invalidSql = "SELECT " + toStagingSelectFields("i", invalidSchema, null) + " FROM " + stagingTable + " WHERE " + VALIDITY_COL + " = '" + StageCleansedRow.INVALID + "'";
+            writeToTargetTable(scs.sql(hiveContext, invalidSql), databaseName, invalidTableName, hiveContext);
+            log.info("wrote values to the invalid Table  {}", invalidTableName);
+
+            final String validSql = "SELECT " + toStagingSelectFields("v", validSchema, REJECT_REASON_COL) + " FROM " + stagingTable + " WHERE " + VALIDITY_COL + " = '" + StageCleansedRow.VALID + "'";
+            writeToTargetTable(scs.sql(hiveContext, validSql), databaseName, validTableName, hiveContext);
+            log.info("wrote values to the valid Table  {}", validTableName);
+        } finally {
+            scs.sql(hiveContext, "DROP TABLE IF EXISTS " + stagingTable);
+        }
+
+        // Counts were accumulated while writing the staging table
+        saveProfileToTable(databaseName, profileTableName, partition, getProfileStats(counts.value(), result), hiveContext);
+    }
+
+    /**
+     * Gets the schema of the staging table, which contains the columns of the valid table, followed by the columns of the invalid table, followed by the validity.
+     */
+    @Nonnull
+    private StructType getStagingSchema(@Nonnull final StructType validSchema, @Nonnull final StructType invalidSchema) {
+        final List<StructField> fields = new ArrayList<>(validSchema.length() + invalidSchema.length() + 1);
+        for (int i = 0; i < validSchema.length(); i++) {
+            fields.add(new StructField("v" + i, validSchema.fields()[i].dataType(), true, Metadata.empty()));
+        }
+        for (int i = 0; i < invalidSchema.length(); i++) {
+            fields.add(new StructField("i" + i, invalidSchema.fields()[i].dataType(), true, Metadata.empty()));
+        }
+        fields.add(new StructField(VALIDITY_COL, DataTypes.StringType, false, Metadata.empty()));
+        return new StructType(fields.toArray(new StructField[0]));
+    }
+
+    /**
+     * Builds a select statement for converting the staging columns with the specified prefix to the target schema.
+     *
+     * @param prefix        the prefix of the staging columns
+     * @param schema        the target schema
+     * @param excludeColumn a target column to skip, or {@code null}
+     */
+    @Nonnull
+    private String toStagingSelectFields(@Nonnull final String prefix, @Nonnull final StructType schema, final String excludeColumn) {
+        final List<String> fields = new ArrayList<>(schema.length());
+        for (int i = 0; i < schema.length(); i++) {
+            final String name = schema.fields()[i].name();
+            if (!name.equals(excludeColumn)) {
+                fields.add(HiveUtils.quoteIdentifier(prefix + i) + " AS " + HiveUtils.quoteIdentifier(name));
+            }
+        }
+        return StringUtils.join(fields, ",");
+    }
+
+    /**
+     * Saves the specified profile statistics to a Hive table.
+     */
+    private void saveProfileToTable(@Nonnull final String databaseName, @Nonnull final String tableName, @Nonnull final String partition, @Nonnull final List<OutputRow> stats,
+                                    @Nonnull final HiveContext hiveContext) {
         try {
             // Create a temporary table that can be used to copy data from. Writing directly to the partition from a spark dataframe doesn't work.
             final String tempTable = tableName + "_" + System.currentTimeMillis();
 
             // Refactor this into something common with profile table
-            @SuppressWarnings("squid:S2095") final JavaRDD<OutputRow> statsRDD = JavaSparkContext.fromSparkContext(hiveContext.sparkContext()).parallelize(getProfileStats(result));
+            @SuppressWarnings("squid:S2095") final JavaRDD<OutputRow> statsRDD = JavaSparkContext.fromSparkContext(hiveContext.sparkContext()).parallelize(stats);
             final DataSet df = scs.toDataSet(hiveContext, statsRDD, OutputRow.class);
             df.registerTempTable(tempTable);
 
@@ -0,0 +1,285 @@
+package com.thinkbiganalytics.spark.datavalidator.functions;
+
+/*-
+ * #%L
+ * kylo-spark-validate-cleanse-core
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.policy.BaseFieldPolicy;
+import com.thinkbiganalytics.policy.FieldPolicy;
+import com.thinkbiganalytics.policy.standardization.AcceptsEmptyValues;
+import com.thinkbiganalytics.policy.standardization.StandardizationPolicy;
+import com.thinkbiganalytics.policy.validation.NotNullValidator;
+import com.thinkbiganalytics.policy.validation.ValidationPolicy;
+import com.thinkbiganalytics.policy.validation.ValidationResult;
+import com.thinkbiganalytics.spark.datavalidator.StandardizationAndValidationResult;
+import com.thinkbiganalytics.spark.util.InvalidFormatException;
+import com.thinkbiganalytics.spark.validation.HCatDataType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import static com.thinkbiganalytics.spark.datavalidator.StandardDataValidator.VALID_RESULT;
+
+/**
+ * Standardizes and validates the values of a single column according to its field policy.
+ *
+ * <p>The policies are resolved into a flat array of stages when the pipeline is compiled, including the parameter type of each validator, so
+ * applying the pipeline to a value requires no reflection, type checks of the policies, or collections.</p>
+ */
+final class FieldPolicyPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(FieldPolicyPipeline.class);
+
+    /**
+     * Target data type
+     */
+    @Nonnull
+    private final HCatDataType dataType;
+
+    /**
+     * Indicates if values may be kept even if they are not convertible to the target data type
+     */
+    private final boolean skipSchemaValidation;
+
+    /**
+     * Standardizers and validators in the order they are applied
+     */
+    @Nonnull
+    private final Stage[] stages;
+
+    private FieldPolicyPipeline(@Nonnull final HCatDataType dataType, final boolean skipSchemaValidation, @Nonnull final Stage[] stages) {
+        this.dataType = dataType;
+        this.skipSchemaValidation = skipSchemaValidation;
+        this.stages = stages;
+    }
+
+    /**
+     * Compiles the policies of a field into a pipeline.
+     *
+     * @param fieldPolicy the field policy
+     * @param dataType    the target data type
+     * @return the pipeline
+     */
+    @Nonnull
+    static FieldPolicyPipeline compile(@Nonnull final FieldPolicy fieldPolicy, @Nonnull final HCatDataType dataType) {
+        final List<BaseFieldPolicy> policies = fieldPolicy.getAllPolicies();
+        final List<Stage> stages = new ArrayList<>();
+
+        if (policies != null) {
+            int standardizerCount = 0;
+            for (final BaseFieldPolicy policy : policies) {
+                if (policy instanceof StandardizationPolicy) {
+                    standardizerCount++;
+                }
+            }
+
+            int processedStandardizers = 0;
+            for (final BaseFieldPolicy policy : policies) {
+                final StandardizationPolicy standardizer = (policy instanceof StandardizationPolicy) ? (StandardizationPolicy) policy : null;
+                final ValidationPolicy validator = (policy instanceof ValidationPolicy) ? (ValidationPolicy) policy : null;
+                if (standardizer != null) {
+                    processedStandardizers++;
+                }
+                if (standardizer != null || validator != null) {
+                    stages.add(new Stage(standardizer, processedStandardizers == standardizerCount, validator));
+                }
+            }
+        }
+
+        return new FieldPolicyPipeline(dataType, fieldPolicy.shouldSkipSchemaValidation(), stages.toArray(new Stage[0]));
+    }
+
+    /**
+     * Standardizes and validates the specified value.
+     *
+     * @param value the original value
+     * @return the standardized value and any failed validations
+     */
+    @Nonnull
+    StandardizationAndValidationResult apply(final Object value) {
+        final StandardizationAndValidationResult result = new StandardizationAndValidationResult(value);
+
+        boolean validateNullValues = false;
+        for (final Stage stage : stages) {
+            final boolean isEmpty = isEmpty(result.getFieldValue());
+            if (stage.standardizer != null) {
+                standardize(stage, result, isEmpty);
+            }
+
+            if (stage.validator != null) {
+                //run through the validator if the value is not null, or if we are allowed to validate nulls based upon a previous
+                //not null validator
+                if (!isEmpty || validateNullValues || stage.notNullValidator) {
+                    final ValidationResult validationResult = validate(stage, result.getFieldValue());
+                    if (isEmpty && stage.notNullValidator) {
+                        validateNullValues = true;
+                    }
+                    //only need to add those that are invalid
+                    if (validationResult != VALID_RESULT) {
+                        result.addValidationResult(validationResult);
+                        break; //exit out of processing if invalid records found.
+                    }
+                }
+                //reset the failOnEmpty flag back to false
+                if (!stage.notNullValidator) {
+                    validateNullValues = false;
+                }
+            }
+        }
+
+        final ValidationResult finalValidationCheck = finalValidationCheck(result.getFieldValue());
+        if (finalValidationCheck != VALID_RESULT) {
+            result.addValidationResult(finalValidationCheck);
+        }
+
+        return result;
+    }
+
+    /**
+     * Indicates if the specified value is null or an empty string.
+     */
+    static boolean isEmpty(final Object value) {
+        if (value == null) {
+            return true;
+        } else if (value instanceof String) {
+            return ((String) value).isEmpty();
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof java.util.Date || value instanceof byte[]) {
+            return false;
+        } else {
+            return value.toString().isEmpty();
+        }
+    }
+
+    private void standardize(@Nonnull final Stage stage, @Nonnull final StandardizationAndValidationResult result, final boolean isEmpty) {
+        final Object value = result.getFieldValue();
+        if ((isEmpty && !stage.acceptsEmptyValues) || !stage.standardizer.accepts(value)) {
+            return;
+        }
+
+        Object newValue = value;
+        try {
+            newValue = stage.standardizer.convertRawValue(value);
+        } catch (Exception e) {
+            log.error("Standardizer '{}' threw exception while attempting to standardize value, original value will be kept. Exception: {}", stage.standardizer.getClass(), e);
+        }
+
+        //If this is the last standardizer for this field and the standardized value is returned as a String, and target column is not String, then validate and convert it to correct type
+        if (newValue != null && stage.lastStandardizer && dataType.getConvertibleType() != newValue.getClass()) {
+            try {
+                //Date and timestamp fields can be valid as strings
+                if (!dataType.isStringValueValidForHiveType(newValue.toString())) {
+                    //if the current string is not in a correct format attempt to convert it
+                    try {
+                        newValue = dataType.toNativeValue(newValue.toString());
+                    } catch (RuntimeException e) {
+                        result.addValidationResult(ValidationResult.failField("incompatible", dataType.getName(), "Not convertible to " + dataType.getNativeType()));
+                    }
+                }
+            } catch (InvalidFormatException e) {
+                log.warn("Could not convert value {} to correct type {}", newValue.toString(), dataType.getConvertibleType().getName());
+            }
+        }
+        result.setFieldValue(newValue);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ValidationResult validate(@Nonnull final Stage stage, final Object fieldValue) {
+        try {
+            Object nativeValue = fieldValue;
+            if (stage.validatorParamType != String.class && fieldValue instanceof String) {
+                nativeValue = dataType.toNativeValue(fieldValue.toString());
+            }
+            if (!stage.validator.validate(nativeValue)) {
+                return ValidationResult.failFieldRule("rule", dataType.getName(), stage.validator.getClass().getSimpleName(), "Rule violation");
+            }
+            return VALID_RESULT;
+        } catch (InvalidFormatException | ClassCastException e) {
+            return ValidationResult.failField("incompatible", dataType.getName(), "Not convertible to " + dataType.getNativeType());
+        }
+    }
+
+    /**
+     * Validates that the value is convertible to the target data type.
+     */
+    private ValidationResult finalValidationCheck(final Object fieldValue) {
+        final boolean isEmpty = (fieldValue == null || (fieldValue instanceof String && ((String) fieldValue).isEmpty()));
+        if (!isEmpty && !skipSchemaValidation && !dataType.isValueConvertibleToType(fieldValue)) {
+            return ValidationResult.failField("incompatible", dataType.getName(), "Not convertible to " + dataType.getNativeType());
+        }
+        return VALID_RESULT;
+    }
+
+    /**
+     * Resolves the type of parameter required by the validator.
+     */
+    @Nonnull
+    private static Class<?> resolveValidatorParamType(@Nonnull final ValidationPolicy validator) {
+        final Object type = validator.getClass().getGenericInterfaces()[0];
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getActualTypeArguments()[0];
+        } else {
+            return String.class;
+        }
+    }
+
+    /**
+     * A standardizer, a validator, or both for a policy implementing both.
+     */
+    private static final class Stage {
+
+        final StandardizationPolicy standardizer;
+
+        /**
+         * Indicates if the standardizer should be applied to empty values
+         */
+        final boolean acceptsEmptyValues;
+
+        /**
+         * Indicates if this is the last standardizer of the field, whose result is converted to the target data type
+         */
+        final boolean lastStandardizer;
+
+        final ValidationPolicy validator;
+
+        /**
+         * Type of parameter required by the validator
+         */
+        final Class<?> validatorParamType;
+
+        /**
+         * Indicates if the validator should be applied to empty values
+         */
+        final boolean notNullValidator;
+
+        Stage(final StandardizationPolicy standardizer, final boolean lastStandardizer, final ValidationPolicy validator) {
+            this.standardizer = standardizer;
+            this.acceptsEmptyValues = standardizer instanceof AcceptsEmptyValues;
+            this.lastStandardizer = lastStandardizer;
+            this.validator = validator;
+            this.validatorParamType = (validator != null) ? resolveValidatorParamType(validator) : null;
+            this.notNullValidator = validator instanceof NotNullValidator;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.thinkbiganalytics.spark.datavalidator.functions;
+
+/*-
+ * #%L
+ * kylo-spark-validate-cleanse-core
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.spark.datavalidator.CleansedRowResult;
+
+import org.apache.spark.Accumulable;
+import org.apache.spark.api.java.function.Function;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Spark function to convert a cleansed row into a staging row holding either the valid or the invalid values, while accumulating the
+ * validation counts.
+ *
+ * <p>A staging row contains the columns of the valid table, followed by the columns of the invalid table, followed by the validity. Only the
+ * columns matching the validity of the row are set.</p>
+ */
+public class StageCleansedRow implements Function<CleansedRowResult, Row> {
+
+    /**
+     * Value of the validity column for valid rows
+     */
+    public static final String VALID = "valid";
+
+    /**
+     * Value of the validity column for invalid rows
+     */
+    public static final String INVALID = "invalid";
+
+    private static final long serialVersionUID = 7338459254016457744L;
+
+    /**
+     * Validation counts
+     */
+    @Nonnull
+    private final Accumulable<long[], CleansedRowResult> counts;
+
+    /**
+     * Number of columns of the valid table
+     */
+    private final int validLength;
+
+    /**
+     * Number of columns of the invalid table
+     */
+    private final int invalidLength;
+
+    public StageCleansedRow(@Nonnull final Accumulable<long[], CleansedRowResult> counts, final int validLength, final int invalidLength) {
+        this.counts = counts;
+        this.validLength = validLength;
+        this.invalidLength = invalidLength;
+    }
+
+    @Override
+    public Row call(@Nonnull final CleansedRowResult cleansedRowResult) throws Exception {
+        counts.add(cleansedRowResult);
+
+        final boolean valid = cleansedRowResult.isRowValid();
+        final Row row = cleansedRowResult.getRow();
+        final Object[] values = new Object[validLength + invalidLength + 1];
+        final int offset = valid ? 0 : validLength;
+        final int length = Math.min(row.length(), valid ? validLength : invalidLength);
+        for (int idx = 0; idx < length; idx++) {
+            values[offset + idx] = row.get(idx);
+        }
+        values[validLength + invalidLength] = valid ? VALID : INVALID;
+        return RowFactory.create(values);
+    }
+}
@@ -0,0 +1,70 @@
+package com.thinkbiganalytics.spark.datavalidator.functions;
+
+/*-
+ * #%L
+ * kylo-spark-validate-cleanse-core
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.spark.datavalidator.CleansedRowResult;
+
+import org.apache.spark.AccumulableParam;
+
+/**
+ * Accumulates counts of invalid columns, and total valid and invalid rows, in the same layout as {@link SumPartitionLevelCounts}.
+ */
+public class ValidationCountsParam implements AccumulableParam<long[], CleansedRowResult> {
+
+    private static final long serialVersionUID = -2254937315528325436L;
+
+    /**
+     * Number of columns in schema
+     */
+    private final int schemaLength;
+
+    public ValidationCountsParam(final int schemaLength) {
+        this.schemaLength = schemaLength;
+    }
+
+    @Override
+    public long[] addAccumulator(final long[] counts, final CleansedRowResult cleansedRowResult) {
+        for (int idx = 0; idx < schemaLength; idx++) {
+            if (!cleansedRowResult.isColumnValid(idx)) {
+                counts[idx]++;
+            }
+        }
+        if (cleansedRowResult.isRowValid()) {
+            counts[schemaLength]++;
+        } else {
+            counts[schemaLength + 1]++;
+        }
+        return counts;
+    }
+
+    @Override
+    public long[] addInPlace(final long[] countsA, final long[] countsB) {
+        for (int idx = 0; idx < countsA.length; idx++) {
+            countsA[idx] += countsB[idx];
+        }
+        return countsA;
+    }
+
+    @Override
+    public long[] zero(final long[] initialValue) {
+        return new long[schemaLength + 2];
+    }
+}
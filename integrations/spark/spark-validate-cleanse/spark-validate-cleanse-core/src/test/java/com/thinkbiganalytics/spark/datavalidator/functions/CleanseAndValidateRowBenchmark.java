@@ -0,0 +1,155 @@
+package com.thinkbiganalytics.spark.datavalidator.functions;
+
+/*-
+ * #%L
+ * kylo-spark-validate-cleanse-core
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.policy.BaseFieldPolicy;
+import com.thinkbiganalytics.policy.FieldPolicy;
+import com.thinkbiganalytics.policy.FieldPolicyBuilder;
+import com.thinkbiganalytics.policy.standardization.DefaultValueStandardizer;
+import com.thinkbiganalytics.policy.standardization.StripNonNumeric;
+import com.thinkbiganalytics.policy.standardization.TrimStandardizer;
+import com.thinkbiganalytics.policy.standardization.UppercaseStandardizer;
+import com.thinkbiganalytics.policy.validation.LengthValidator;
+import com.thinkbiganalytics.policy.validation.NotNullValidator;
+import com.thinkbiganalytics.policy.validation.RangeValidator;
+import com.thinkbiganalytics.policy.validation.TimestampValidator;
+import com.thinkbiganalytics.spark.datavalidator.CleansedRowResult;
+
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.apache.spark.sql.types.DataType;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.Metadata;
+import org.apache.spark.sql.types.StructField;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput (rows per second) of {@link CleanseAndValidateRow} over a synthetic wide table of string, integer, decimal and
+ * timestamp columns, with a few percent of empty or invalid values.
+ *
+ * Run the main method to execute the benchmark.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CleanseAndValidateRowBenchmark {
+
+    /**
+     * Number of groups of string, integer, decimal and timestamp columns
+     */
+    private static final int COLUMN_GROUPS = 25;
+
+    private static final int ROWS = 10000;
+
+    CleanseAndValidateRow function;
+
+    Row[] rows;
+
+    @Setup
+    public void setup() {
+        final List<StructField> fields = new ArrayList<>();
+        final List<FieldPolicy> policies = new ArrayList<>();
+        for (int group = 0; group < COLUMN_GROUPS; group++) {
+            addColumn("name_" + group, DataTypes.StringType, fields, policies, TrimStandardizer.instance(), UppercaseStandardizer.instance(), new LengthValidator(1, 50));
+            addColumn("quantity_" + group, DataTypes.IntegerType, fields, policies, StripNonNumeric.instance(), new NotNullValidator(false, true), new RangeValidator(0, 1000000));
+            addColumn("amount_" + group, DataTypes.createDecimalType(12, 2), fields, policies, new RangeValidator(0, 10000));
+            addColumn("updated_" + group, DataTypes.TimestampType, fields, policies, new DefaultValueStandardizer("2017-01-01 00:00:00"), new TimestampValidator());
+        }
+        addColumn(CleanseAndValidateRow.PROCESSING_DTTM_COL, DataTypes.StringType, fields, policies);
+
+        function = new CleanseAndValidateRow(policies.toArray(new FieldPolicy[0]), fields.toArray(new StructField[0]));
+        rows = createRows(fields.size(), new Random(42));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void cleanseAndValidate(final Blackhole blackhole) throws Exception {
+        for (final Row row : rows) {
+            final CleansedRowResult result = function.call(row);
+            blackhole.consume(result);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(CleanseAndValidateRowBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * Creates rows of string values, as read from a feed table.
+     */
+    private static Row[] createRows(final int columns, final Random random) {
+        final Row[] rows = new Row[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            final Object[] values = new Object[columns];
+            for (int col = 0; col < columns - 1; col++) {
+                final int bad = random.nextInt(100);
+                switch (col % 4) {
+                    case 0:
+                        values[col] = (bad == 0) ? "" : "  customer " + random.nextInt(1000) + " ";
+                        break;
+                    case 1:
+                        values[col] = (bad == 0) ? null : (bad == 1) ? "n/a" : "#" + random.nextInt(5000);
+                        break;
+                    case 2:
+                        values[col] = (bad == 0) ? "-1" : (bad == 1) ? "abc" : random.nextInt(1000000) / 100 + "." + random.nextInt(100);
+                        break;
+                    default:
+                        values[col] = (bad == 0) ? "" : String.format("2017-%02d-%02d 11:50:%02d", 1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(60));
+                }
+            }
+            values[columns - 1] = "1483703400000";
+            rows[i] = RowFactory.create(values);
+        }
+        return rows;
+    }
+
+    private static void addColumn(final String name, final DataType dataType, final List<StructField> fields, final List<FieldPolicy> policies, final BaseFieldPolicy... fieldPolicies) {
+        fields.add(new StructField(name, dataType, true, Metadata.empty()));
+        policies.add(FieldPolicyBuilder.newBuilder().addPolicies(new ArrayList<>(Arrays.asList(fieldPolicies))).tableName("orders").fieldName(name).feedFieldName(name).build());
+    }
+}
@@ -42,7 +42,6 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
@@ -119,7 +118,7 @@ public class CleanseAndValidateRowTest {
         policies.add(validatorPolicy);
 
         FieldPolicy fieldPolicy = FieldPolicyBuilder.newBuilder().addPolicies(policies).tableName("emp").fieldName("field1").feedFieldName("field1").addPolicies(policies).build();
-        StandardizationAndValidationResult result = validator.standardizeAndValidateField(fieldPolicy, value, HCatDataType.createFromDataType("field1", dataType), new HashMap<Class, Class>());
+        StandardizationAndValidationResult result = validator.standardizeAndValidateField(fieldPolicy, value, HCatDataType.createFromDataType("field1", dataType));
         return result.getFinalValidationResult();
     }
 
@@ -132,13 +131,13 @@ public class CleanseAndValidateRowTest {
         FieldPolicy fieldPolicy = FieldPolicyBuilder.newBuilder().addPolicies(policies).tableName("emp").fieldName(fieldName).feedFieldName(fieldName).build();
 
         HCatDataType fieldDataType = HCatDataType.createFromDataType(fieldName, "string");
-        StandardizationAndValidationResult result = validator.standardizeAndValidateField(fieldPolicy, "aafooaa", fieldDataType, new HashMap<Class, Class>());
+        StandardizationAndValidationResult result = validator.standardizeAndValidateField(fieldPolicy, "aafooaa", fieldDataType);
         assertEquals(result.getFieldValue(), "aabaraa");
 
-        result = validator.standardizeAndValidateField(fieldPolicy, null, fieldDataType, new HashMap<Class, Class>());
+        result = validator.standardizeAndValidateField(fieldPolicy, null, fieldDataType);
         assertNull(result.getFieldValue());
 
-        result = validator.standardizeAndValidateField(fieldPolicy, "", fieldDataType, new HashMap<Class, Class>());
+        result = validator.standardizeAndValidateField(fieldPolicy, "", fieldDataType);
         assertEquals(result.getFieldValue(), "");
     }
 
@@ -155,7 +154,7 @@ public class CleanseAndValidateRowTest {
         FieldPolicy fieldPolicy = FieldPolicyBuilder.newBuilder().addPolicies(policies).tableName("emp").fieldName(fieldName).feedFieldName(fieldName).build();
 
         HCatDataType fieldDataType = HCatDataType.createFromDataType(fieldName, "string");
-        StandardizationAndValidationResult result = validator.standardizeAndValidateField(fieldPolicy, "aafooaa", fieldDataType, new HashMap<Class, Class>());
+        StandardizationAndValidationResult result = validator.standardizeAndValidateField(fieldPolicy, "aafooaa", fieldDataType);
         assertEquals(result.getFieldValue(), "aatestaa");
         assertEquals(StandardDataValidator.VALID_RESULT, result.getFinalValidationResult());
     }
@@ -172,7 +171,7 @@ public class CleanseAndValidateRowTest {
         FieldPolicy fieldPolicy = FieldPolicyBuilder.newBuilder().addPolicies(policies).tableName("emp").fieldName(fieldName).feedFieldName(fieldName).build();
 
         HCatDataType fieldDataType = HCatDataType.createFromDataType(fieldName, "string");
-        StandardizationAndValidationResult result = validator.standardizeAndValidateField(fieldPolicy, "aafooaa", fieldDataType, new HashMap<Class, Class>());
+        StandardizationAndValidationResult result = validator.standardizeAndValidateField(fieldPolicy, "aafooaa", fieldDataType);
         assertEquals("aabaraa", result.getFieldValue());
         assertNotEquals(StandardDataValidator.VALID_RESULT, result.getFinalValidationResult());
     }
@@ -189,7 +188,7 @@ public class CleanseAndValidateRowTest {
         FieldPolicy fieldPolicy = FieldPolicyBuilder.newBuilder().addPolicies(policies).tableName("emp").fieldName(fieldName).feedFieldName(fieldName).build();
 
         HCatDataType fieldDataType = HCatDataType.createFromDataType(fieldName, "string");
-        StandardizationAndValidationResult result = validator.standardizeAndValidateField(fieldPolicy, null, fieldDataType, new HashMap<Class, Class>());
+        StandardizationAndValidationResult result = validator.standardizeAndValidateField(fieldPolicy, null, fieldDataType);
         assertEquals(StandardDataValidator.VALID_RESULT, result.getFinalValidationResult());
 
     }
@@ -212,7 +211,7 @@ public class CleanseAndValidateRowTest {
         FieldPolicy fieldPolicy = FieldPolicyBuilder.newBuilder().addPolicies(policies).tableName("emp").fieldName(fieldName).feedFieldName(fieldName).build();
 
         HCatDataType fieldDataType = HCatDataType.createFromDataType(fieldName, "string");
-        StandardizationAndValidationResult result = validator.standardizeAndValidateField(fieldPolicy, fieldValue, fieldDataType, new HashMap<Class, Class>());
+        StandardizationAndValidationResult result = validator.standardizeAndValidateField(fieldPolicy, fieldValue, fieldDataType);
         assertEquals(StandardDataValidator.VALID_RESULT, result.getFinalValidationResult());
         assertEquals("test_field", result.getFieldValue());
 
@@ -231,7 +230,7 @@ public class CleanseAndValidateRowTest {
         policies.add(validatorPolicy);
         FieldPolicy fieldPolicy = FieldPolicyBuilder.newBuilder().addPolicies(policies).tableName("emp").fieldName("field1").feedFieldName("field1").build();
 
-        StandardizationAndValidationResult result = validator.standardizeAndValidateField(fieldPolicy, value, HCatDataType.createFromDataType("field1", dataType), new HashMap<Class, Class>());
+        StandardizationAndValidationResult result = validator.standardizeAndValidateField(fieldPolicy, value, HCatDataType.createFromDataType("field1", dataType));
         return result.getFinalValidationResult();
     }
 
@@ -246,7 +245,7 @@ public class CleanseAndValidateRowTest {
         FieldPolicy fieldPolicy = FieldPolicyBuilder.newBuilder().addPolicies(policies).tableName("temp").fieldName(fieldName).feedFieldName(fieldName).build();
 
         HCatDataType fieldDataType = HCatDataType.createFromDataType(fieldName, "int");
-        StandardizationAndValidationResult result = validator.standardizeAndValidateField(fieldPolicy, 0, fieldDataType, new HashMap<Class, Class>());
+        StandardizationAndValidationResult result = validator.standardizeAndValidateField(fieldPolicy, 0, fieldDataType);
         assertEquals(2, result.getFieldValue());
         assertEquals(StandardDataValidator.VALID_RESULT, result.getFinalValidationResult());
     }
@@ -261,7 +260,7 @@ public class CleanseAndValidateRowTest {
         FieldPolicy fieldPolicy = FieldPolicyBuilder.newBuilder().addPolicies(policies).tableName("emp").fieldName(fieldName).feedFieldName(fieldName).build();
 
         HCatDataType fieldDataType = HCatDataType.createFromDataType(fieldName, "string");
-        StandardizationAndValidationResult result = validator.standardizeAndValidateField(fieldPolicy, "aafooaa", fieldDataType, new HashMap<Class, Class>());
+        StandardizationAndValidationResult result = validator.standardizeAndValidateField(fieldPolicy, "aafooaa", fieldDataType);
         assertEquals(result.getFieldValue(), "aafooaa");
     }
 
@@ -0,0 +1,57 @@
+package com.thinkbiganalytics.spark.datavalidator.functions;
+
+/*-
+ * #%L
+ * thinkbig-spark-validate-cleanse-app
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.spark.datavalidator.CleansedRowResult;
+
+import org.apache.spark.sql.Row;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class ValidationCountsParamTest {
+
+    @Test
+    public void testAccumulateCounts() {
+        CleansedRowResult validRow = new CleansedRowResult(Mockito.mock(Row.class), new boolean[]{true, true, true, true, true}, true);
+        CleansedRowResult invalidRow1 = new CleansedRowResult(Mockito.mock(Row.class), new boolean[]{true, false, true, true, false}, false);
+        CleansedRowResult invalidRow2 = new CleansedRowResult(Mockito.mock(Row.class), new boolean[]{false, false, true, true, false}, false);
+
+        ValidationCountsParam param = new ValidationCountsParam(5);
+
+        // Accumulate two partitions separately then merge them
+        long[] partition1 = param.zero(new long[7]);
+        for (int i = 0; i < 4; i++) {
+            partition1 = param.addAccumulator(partition1, validRow);
+        }
+        partition1 = param.addAccumulator(partition1, invalidRow1);
+
+        long[] partition2 = param.zero(new long[7]);
+        for (int i = 0; i < 3; i++) {
+            partition2 = param.addAccumulator(partition2, validRow);
+        }
+        partition2 = param.addAccumulator(partition2, invalidRow2);
+
+        long[] expectedOutput = {1L, 2L, 0L, 0L, 2L, 7L, 2L};
+        assertArrayEquals(expectedOutput, param.addInPlace(partition1, partition2));
+    }
+}
@@ -26,6 +26,8 @@ package com.thinkbiganalytics.metadata.api.event.feed;
 import com.thinkbiganalytics.metadata.api.feed.Feed;
 import com.thinkbiganalytics.metadata.api.op.FeedOperation;
 
+import org.joda.time.DateTime;
+
 import java.io.Serializable;
 
 /**
@@ -41,16 +43,24 @@ public class OperationStatus implements Serializable {
     private final FeedOperation.State state;
     private final String status;
     private final FeedOperation.FeedType feedType;
-
+    private final DateTime endTime;
 
 
     public OperationStatus(Feed.ID id, String feedName, FeedOperation.FeedType feedType,FeedOperation.ID opId, FeedOperation.State state, String status) {
+        this(id, feedName, feedType, opId, state, status, null);
+    }
+
+    /**
+     * @param endTime the time the operation ended, or {@code null} if it has not ended or the time is unknown
+     */
+    public OperationStatus(Feed.ID id, String feedName, FeedOperation.FeedType feedType, FeedOperation.ID opId, FeedOperation.State state, String status, DateTime endTime) {
         this.feedId = id;
         this.feedName = feedName;
         this.operationId = opId;
         this.state = state;
         this.status = status;
         this.feedType = feedType != null ? feedType : FeedOperation.FeedType.FEED;
+        this.endTime = endTime;
     }
 
 
@@ -78,4 +88,8 @@ public class OperationStatus implements Serializable {
     public FeedOperation.FeedType getFeedType() {
         return feedType;
     }
+
+    public DateTime getEndTime() {
+        return endTime;
+    }
 }
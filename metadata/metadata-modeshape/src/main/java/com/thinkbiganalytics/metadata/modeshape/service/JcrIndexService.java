@@ -29,6 +29,7 @@ import com.thinkbiganalytics.metadata.modeshape.JcrMetadataAccess;
 import com.thinkbiganalytics.metadata.modeshape.MetadataRepositoryException;
 import com.thinkbiganalytics.metadata.modeshape.common.EntityUtil;
 import com.thinkbiganalytics.metadata.modeshape.datasource.JcrDerivedDatasource;
+import com.thinkbiganalytics.search.api.BufferedSearchIndexer;
 import com.thinkbiganalytics.search.api.Search;
 import com.thinkbiganalytics.search.api.SearchIndex;
 
@@ -40,6 +41,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -86,16 +88,16 @@ public class JcrIndexService implements EventListener {
     private final MetadataAccess metadataAccess;
 
     /**
-     * Provides access to the search engine.
+     * Provides access to the search engine, sending index updates in bulk.
      */
     @Nonnull
-    private final Search search;
+    private final BufferedSearchIndexer search;
 
     /**
      * Constructs a {@code JcrIndexService}.
      */
     public JcrIndexService(@Nonnull final Search search, @Nonnull final DatasourceProvider datasourceProvider, @Nonnull final MetadataAccess metadataAccess) {
-        this.search = search;
+        this.search = new BufferedSearchIndexer(search);
         this.datasourceProvider = datasourceProvider;
         this.metadataAccess = metadataAccess;
     }
@@ -105,14 +107,15 @@ public class JcrIndexService implements EventListener {
      */
     @PostConstruct
     public void initialize() {
-        executor.execute(() -> metadataAccess.read(() -> datasourceProvider.getDatasources().stream()
-                                                       .filter(DerivedDatasource.class::isInstance)
-                                                       .map(DerivedDatasource.class::cast)
-                                                       .filter(ds -> HIVE_DATASOURCE.equals(ds.getDatasourceType()))
-                                                       .forEach(this::indexDerivedDatasource),
-                                                   MetadataAccess.SERVICE)
-        );
-        search.commit(SearchIndex.DATASOURCES);
+        executor.execute(() -> {
+            metadataAccess.read(() -> datasourceProvider.getDatasources().stream()
+                                    .filter(DerivedDatasource.class::isInstance)
+                                    .map(DerivedDatasource.class::cast)
+                                    .filter(ds -> HIVE_DATASOURCE.equals(ds.getDatasourceType()))
+                                    .forEach(this::indexDerivedDatasource),
+                                MetadataAccess.SERVICE);
+            search.commit(SearchIndex.DATASOURCES);
+        });
     }
 
     /**
@@ -133,11 +136,17 @@ public class JcrIndexService implements EventListener {
     }
 
     /**
-     * Initiates an orderly shutdown by waiting for currently queued events to be processed.
+     * Initiates an orderly shutdown by waiting for currently queued events to be processed and their index updates to be written.
      */
     @PreDestroy
     public void shutdown() {
         executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        search.close();
     }
 
     /**
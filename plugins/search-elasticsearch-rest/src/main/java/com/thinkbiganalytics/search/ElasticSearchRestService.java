@@ -21,6 +21,7 @@ package com.thinkbiganalytics.search;
  */
 
 import com.thinkbiganalytics.search.api.Search;
+import com.thinkbiganalytics.search.api.SearchDocument;
 import com.thinkbiganalytics.search.api.SearchIndex;
 import com.thinkbiganalytics.search.config.ElasticSearchRestClientConfiguration;
 import com.thinkbiganalytics.search.rest.model.HiveColumn;
@@ -48,9 +49,11 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -68,8 +71,11 @@ public class ElasticSearchRestService implements Search {
     private static final String PUT_METHOD = "PUT";
     private static final String DELETE_METHOD = "DELETE";
     private static final String SEARCH_ENDPOINT = "_search";
+    private static final String BULK_ENDPOINT = "/_bulk";
     private static final String VERSION_TWO = "2";
     private static final String QUERY = "query";
+    private static final String INDEX_ACTION = "index";
+    private static final String DELETE_ACTION = "delete";
 
     private ElasticSearchRestClientConfiguration restClientConfig;
 
@@ -88,29 +94,8 @@ public class ElasticSearchRestService implements Search {
             );
             log.info("Deleted schema document for index={}, type={}, id={}", indexName, typeName, id);
 
-            final String dataIndexName = "kylo-data";
-            final String dataIndexType = "hive-data";
-
             //Delete data
-            if ((restClientConfig.getEsversion() != null) && (restClientConfig.getEsversion().equals(VERSION_TWO))) {
-                log.debug("Elasticsearch v2");
-                restClient.performRequest(
-                    DELETE_METHOD,
-                    getDataDeleteEndPointEsV2(dataIndexName, dataIndexType),
-                    new HashMap<>(),
-                    getDataDeleteRequestBodyDslEsV2(schema, table)
-                );
-            }
-            else {
-                log.debug("Elasticsearch v5 or above");
-                restClient.performRequest(
-                    POST_METHOD,
-                    getDataDeleteEndPoint(dataIndexName, dataIndexType),
-                    new HashMap<>(),
-                    getDataDeleteRequestBodyDsl(schema, table)
-                );
-            }
-            log.info("Deleted data for index={}, type={}, schema={}, table={}", dataIndexName, dataIndexType, schema, table);
+            deleteData(restClient, schema, table);
         } catch (ResponseException responseException) {
             log.error("Index document deletion encountered issues in Elasticsearch for index={}, type={}, id={}",indexName, typeName, responseException);
         } catch (ClientProtocolException clientProtocolException) {
@@ -120,6 +105,37 @@ public class ElasticSearchRestService implements Search {
         }
     }
 
+    @Override
+    public void deleteAll(@Nonnull Collection<SearchDocument> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        try (RestClient restClient = buildRestClient()) {
+            //Delete schemas
+            StringBuilder body = new StringBuilder();
+            Map<String, SearchDocument> tables = new LinkedHashMap<>();
+            for (SearchDocument document : documents) {
+                body.append(getBulkActionLine(DELETE_ACTION, document)).append('\n');
+                if (document.getSchema() != null && document.getTable() != null) {
+                    tables.putIfAbsent(document.getSchema() + "." + document.getTable(), document);
+                }
+            }
+            performBulkRequest(restClient, body.toString(), DELETE_ACTION, documents.size());
+            log.info("Deleted {} schema documents", documents.size());
+
+            //Delete data
+            for (SearchDocument document : tables.values()) {
+                deleteData(restClient, document.getSchema(), document.getTable());
+            }
+        } catch (ResponseException responseException) {
+            log.error("Bulk document deletion encountered issues in Elasticsearch for {} documents", documents.size(), responseException);
+        } catch (ClientProtocolException clientProtocolException) {
+            log.error("Http protocol error for bulk delete of {} documents", documents.size(), clientProtocolException);
+        } catch (IOException | JSONException exception) {
+            log.error("Error in rest client for bulk delete", exception);
+        }
+    }
+
     @Override
     public void commit(@Nonnull String indexName) {
         try (RestClient restClient = buildRestClient()){
@@ -157,6 +173,96 @@ public class ElasticSearchRestService implements Search {
         }
     }
 
+    @Override
+    public void indexAll(@Nonnull Collection<SearchDocument> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        try (RestClient restClient = buildRestClient()) {
+            StringBuilder body = new StringBuilder();
+            for (SearchDocument document : documents) {
+                body.append(getBulkActionLine(INDEX_ACTION, document)).append('\n');
+                body.append(new JSONObject(document.getFields()).toString()).append('\n');
+            }
+            performBulkRequest(restClient, body.toString(), INDEX_ACTION, documents.size());
+            log.debug("Wrote {} documents in bulk", documents.size());
+        } catch (ResponseException responseException) {
+            log.warn("Bulk index write encountered issues in Elasticsearch for {} documents", documents.size(), responseException);
+        } catch (ClientProtocolException clientProtocolException) {
+            log.debug("Http protocol error for bulk write of {} documents", documents.size(), clientProtocolException);
+        } catch (IOException | JSONException exception) {
+            log.error("Error in rest client for bulk write", exception);
+        }
+    }
+
+    /**
+     * Sends a bulk request and logs any documents that failed.
+     */
+    private void performBulkRequest(@Nonnull RestClient restClient, @Nonnull String body, @Nonnull String action, int count) throws IOException, JSONException {
+        Response response = restClient.performRequest(
+            POST_METHOD,
+            BULK_ENDPOINT,
+            Collections.emptyMap(),
+            new NStringEntity(body, ContentType.APPLICATION_JSON));
+
+        if (response.getEntity() != null) {
+            JSONObject result = new JSONObject(EntityUtils.toString(response.getEntity()));
+            if (result.optBoolean("errors")) {
+                JSONArray items = result.getJSONArray("items");
+                int failed = 0;
+                String firstError = null;
+                for (int i = 0; i < items.length(); i++) {
+                    JSONObject item = items.getJSONObject(i).optJSONObject(action);
+                    if (item != null && item.has("error")) {
+                        failed++;
+                        if (firstError == null) {
+                            firstError = item.get("error").toString();
+                        }
+                    }
+                }
+                log.warn("Bulk {} failed for {} of {} documents. First error: {}", action, failed, count, firstError);
+            }
+        }
+    }
+
+    private String getBulkActionLine(@Nonnull String action, @Nonnull SearchDocument document) throws JSONException {
+        JSONObject metadata = new JSONObject()
+            .put("_index", document.getIndexName())
+            .put("_type", document.getTypeName())
+            .put("_id", document.getId());
+        return new JSONObject()
+            .put(action, metadata)
+            .toString();
+    }
+
+    /**
+     * Deletes the data indexed for a table.
+     */
+    private void deleteData(@Nonnull RestClient restClient, @Nonnull String schema, @Nonnull String table) throws IOException {
+        final String dataIndexName = "kylo-data";
+        final String dataIndexType = "hive-data";
+
+        if ((restClientConfig.getEsversion() != null) && (restClientConfig.getEsversion().equals(VERSION_TWO))) {
+            log.debug("Elasticsearch v2");
+            restClient.performRequest(
+                DELETE_METHOD,
+                getDataDeleteEndPointEsV2(dataIndexName, dataIndexType),
+                new HashMap<>(),
+                getDataDeleteRequestBodyDslEsV2(schema, table)
+            );
+        }
+        else {
+            log.debug("Elasticsearch v5 or above");
+            restClient.performRequest(
+                POST_METHOD,
+                getDataDeleteEndPoint(dataIndexName, dataIndexType),
+                new HashMap<>(),
+                getDataDeleteRequestBodyDsl(schema, table)
+            );
+        }
+        log.info("Deleted data for index={}, type={}, schema={}, table={}", dataIndexName, dataIndexType, schema, table);
+    }
+
     private String getIndexWriteEndPoint(String indexName, String typeName, String id) {
         return "/" + indexName + "/" + typeName + "/" + id;
     }
@@ -0,0 +1,172 @@
+package com.thinkbiganalytics.search;
+
+/*-
+ * #%L
+ * kylo-search-elasticsearch-rest
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.sun.net.httpserver.HttpServer;
+import com.thinkbiganalytics.search.api.BufferedSearchIndexer;
+import com.thinkbiganalytics.search.api.SearchDocument;
+import com.thinkbiganalytics.search.api.SearchIndex;
+import com.thinkbiganalytics.search.config.ElasticSearchRestClientConfiguration;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput (documents per second) of indexing Hive table schemas one request at a time, with bulk requests, and through a
+ * {@link BufferedSearchIndexer}, against a stub Elasticsearch server that accepts every request.
+ *
+ * Run the main method to execute the benchmark.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ElasticSearchRestIndexBenchmark {
+
+    private static final int DOCUMENTS = 1000;
+
+    private static final int BULK_SIZE = 500;
+
+    private static final byte[] RESPONSE = "{\"took\":1,\"errors\":false,\"items\":[]}".getBytes(StandardCharsets.UTF_8);
+
+    HttpServer server;
+
+    ElasticSearchRestService service;
+
+    BufferedSearchIndexer indexer;
+
+    List<SearchDocument> documents;
+
+    @Setup
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                final byte[] buffer = new byte[8192];
+                while (in.read(buffer) != -1) {
+                    // discard the request
+                }
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(RESPONSE);
+            }
+        });
+        server.start();
+
+        final ElasticSearchRestClientConfiguration config = new ElasticSearchRestClientConfiguration();
+        config.setHost("localhost");
+        config.setPort(server.getAddress().getPort());
+        config.setEsversion("5");
+        service = new ElasticSearchRestService(config);
+        indexer = new BufferedSearchIndexer(service, BULK_SIZE, BufferedSearchIndexer.DEFAULT_MAX_BYTES, BufferedSearchIndexer.DEFAULT_QUEUE_CAPACITY, 10);
+
+        documents = new ArrayList<>(DOCUMENTS);
+        for (int i = 0; i < DOCUMENTS; i++) {
+            documents.add(createDocument(i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        indexer.close();
+        server.stop(0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public void single() {
+        for (final SearchDocument document : documents) {
+            service.index(document.getIndexName(), document.getTypeName(), document.getId(), document.getFields());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public void bulk() {
+        for (int start = 0; start < DOCUMENTS; start += BULK_SIZE) {
+            service.indexAll(documents.subList(start, Math.min(start + BULK_SIZE, DOCUMENTS)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public void buffered() throws InterruptedException {
+        for (final SearchDocument document : documents) {
+            indexer.index(document.getIndexName(), document.getTypeName(), document.getId(), document.getFields());
+        }
+        indexer.flush();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ElasticSearchRestIndexBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * Creates the document for a Hive table with 20 columns, as indexed for a derived datasource.
+     */
+    private static SearchDocument createDocument(final int table) {
+        final List<Map<String, Object>> columns = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            final Map<String, Object> column = new HashMap<>();
+            column.put("columnName", "column_" + i);
+            column.put("columnType", (i % 2 == 0) ? "string" : "int");
+            column.put("columnComment", "Column " + i + " of table " + table);
+            columns.add(column);
+        }
+        final Map<String, Object> fields = new HashMap<>();
+        fields.put("databaseName", "benchmark");
+        fields.put("tableName", "table_" + table);
+        fields.put("hiveColumns", columns);
+        return new SearchDocument(SearchIndex.DATASOURCES, "HiveDatasource", "datasource-" + table, fields);
+    }
+}
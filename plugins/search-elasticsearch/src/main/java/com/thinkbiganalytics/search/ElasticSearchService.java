@@ -21,6 +21,7 @@ package com.thinkbiganalytics.search;
  */
 
 import com.thinkbiganalytics.search.api.Search;
+import com.thinkbiganalytics.search.api.SearchDocument;
 import com.thinkbiganalytics.search.api.SearchIndex;
 import com.thinkbiganalytics.search.config.ElasticSearchClientConfiguration;
 import com.thinkbiganalytics.search.rest.model.SearchResult;
@@ -28,6 +29,8 @@ import com.thinkbiganalytics.search.transform.ElasticSearchSearchResultTransform
 
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.admin.indices.refresh.RefreshResponse;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteResponse;
 import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.action.search.SearchRequestBuilder;
@@ -43,6 +46,7 @@ import org.slf4j.LoggerFactory;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.Collection;
 import java.util.Map;
 
 import javax.annotation.Nonnull;
@@ -79,6 +83,17 @@ public class ElasticSearchService implements Search {
             });
     }
 
+    @Override
+    public void deleteAll(@Nonnull final Collection<SearchDocument> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        buildTransportClient();
+        final BulkRequestBuilder bulkRequest = client.prepareBulk();
+        documents.forEach(document -> bulkRequest.add(client.prepareDelete(document.getIndexName(), document.getTypeName(), document.getId())));
+        executeBulk(bulkRequest, "deleting", documents.size());
+    }
+
     @Override
     public void commit(@Nonnull final String indexName) {
         buildTransportClient();
@@ -113,6 +128,39 @@ public class ElasticSearchService implements Search {
             });
     }
 
+    @Override
+    public void indexAll(@Nonnull final Collection<SearchDocument> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        buildTransportClient();
+        final BulkRequestBuilder bulkRequest = client.prepareBulk();
+        documents.forEach(document -> bulkRequest.add(client.prepareIndex(document.getIndexName(), document.getTypeName(), document.getId()).setSource(document.getFields())));
+        executeBulk(bulkRequest, "indexing", documents.size());
+    }
+
+    /**
+     * Sends a bulk request and logs any documents that failed.
+     */
+    private void executeBulk(@Nonnull final BulkRequestBuilder bulkRequest, @Nonnull final String action, final int count) {
+        bulkRequest.execute()
+            .addListener(new ActionListener<BulkResponse>() {
+                @Override
+                public void onResponse(final BulkResponse bulkResponse) {
+                    if (bulkResponse.hasFailures()) {
+                        log.warn("Failed bulk {} of some of {} documents: {}", action, count, bulkResponse.buildFailureMessage());
+                    } else {
+                        log.debug("Completed bulk {} of {} documents", action, count);
+                    }
+                }
+
+                @Override
+                public void onFailure(final Throwable e) {
+                    log.warn("Failed bulk {} of {} documents", action, count, e);
+                }
+            });
+    }
+
     @Override
     public SearchResult search(String query, int size, int start) {
         buildTransportClient();
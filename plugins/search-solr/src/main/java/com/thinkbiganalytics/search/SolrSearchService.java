@@ -22,6 +22,7 @@ package com.thinkbiganalytics.search;
 
 import com.thinkbiganalytics.json.ObjectMapperSerializer;
 import com.thinkbiganalytics.search.api.Search;
+import com.thinkbiganalytics.search.api.SearchDocument;
 import com.thinkbiganalytics.search.api.SearchIndex;
 import com.thinkbiganalytics.search.config.SolrSearchClientConfiguration;
 import com.thinkbiganalytics.search.rest.model.SearchResult;
@@ -36,7 +37,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 
@@ -78,6 +86,45 @@ public class SolrSearchService implements Search {
         }
     }
 
+    @Override
+    public void deleteAll(@Nonnull final Collection<SearchDocument> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        buildRestClient();
+        final String dataCollectionName = "kylo-data";
+
+        //deletes the schemas
+        final Map<String, List<String>> idsByIndex = new LinkedHashMap<>();
+        final Set<String> tableQueries = new LinkedHashSet<>();
+        for (final SearchDocument document : documents) {
+            idsByIndex.computeIfAbsent(document.getIndexName(), indexName -> new ArrayList<>()).add(document.getId());
+            if (document.getSchema() != null && document.getTable() != null) {
+                tableQueries.add("(kylo_schema:" + document.getSchema() + " AND kylo_table:" + document.getTable() + ")");
+            }
+        }
+        idsByIndex.forEach((indexName, ids) -> {
+            try {
+                client.deleteById(indexName, ids);
+                client.commit(indexName);
+                log.info("Deleted {} schema documents in index={}", ids.size(), indexName);
+            } catch (final IOException | SolrServerException e) {
+                log.warn("Failed to delete {} documents in index:{} [{}]", ids.size(), indexName, e);
+            }
+        });
+
+        //delete the data
+        if (!tableQueries.isEmpty()) {
+            try {
+                client.deleteByQuery(dataCollectionName, String.join(" OR ", tableQueries));
+                client.commit(dataCollectionName);
+                log.info("Deleted data for index={}, tables={}", dataCollectionName, tableQueries.size());
+            } catch (final IOException | SolrServerException e) {
+                log.warn("Failed to delete data for index={}, tables={} [{}]", dataCollectionName, tableQueries.size(), e);
+            }
+        }
+    }
+
     @Override
     public void commit(@Nonnull final String indexName) {
         buildRestClient();
@@ -98,6 +145,23 @@ public class SolrSearchService implements Search {
         }
     }
 
+    @Override
+    public void indexAll(@Nonnull final Collection<SearchDocument> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        buildRestClient();
+        final Map<String, List<SearchDocument>> documentsByIndex = documents.stream()
+            .collect(Collectors.groupingBy(SearchDocument::getIndexName, LinkedHashMap::new, Collectors.toList()));
+        documentsByIndex.forEach((indexName, indexDocuments) -> {
+            try {
+                client.add(indexName, indexDocuments.stream().map(document -> createDocument(document.getId(), document.getFields())).collect(Collectors.toList()));
+            } catch (final IOException | SolrServerException e) {
+                log.warn("Failed to index {} documents in index:{}", indexDocuments.size(), indexName, e);
+            }
+        });
+    }
+
     @Override
     public SearchResult search(String query, int size, int start) {
         buildRestClient();
@@ -20,7 +20,7 @@ package com.thinkbiganalytics.metadata.sla.api.core;
  * #L%
  */
 
-import com.thinkbiganalytics.metadata.sla.api.Metric;
+import com.thinkbiganalytics.metadata.sla.api.JobCompletionMetric;
 import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAgreementMetric;
 import com.thinkbiganalytics.policy.PolicyProperty;
 import com.thinkbiganalytics.policy.PolicyPropertyTypes;
@@ -31,7 +31,7 @@ import com.thinkbiganalytics.policy.PolicyPropertyTypes;
  */
 @ServiceLevelAgreementMetric(name = "Feed Failure Notification",
                              description = "Act upon a Feed Failure")
-public class FeedFailedMetric implements Metric {
+public class FeedFailedMetric implements JobCompletionMetric {
 
     @PolicyProperty(name = "FeedName",
                     type = PolicyPropertyTypes.PROPERTY_TYPE.feedSelect,
@@ -22,21 +22,27 @@ package com.thinkbiganalytics.metadata.sla.api.core;
 
 import com.thinkbiganalytics.metadata.sla.api.AssessmentResult;
 import com.thinkbiganalytics.metadata.sla.api.Metric;
+import com.thinkbiganalytics.metadata.sla.spi.BatchMetricAssessor;
 import com.thinkbiganalytics.metadata.sla.spi.MetricAssessmentBuilder;
 import com.thinkbiganalytics.metadata.sla.spi.MetricAssessor;
+import com.thinkbiganalytics.metadata.sla.spi.PrefetchedMetrics;
 
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
 /**
  * SLA assessor used to asses the {@link FeedFailedMetric} and violate the SLA if the feed fails
  */
-public class FeedFailureMetricAssessor implements MetricAssessor<FeedFailedMetric, Serializable> {
+public class FeedFailureMetricAssessor implements MetricAssessor<FeedFailedMetric, Serializable>, BatchMetricAssessor<FeedFailedMetric, Map<String, FeedFailureService.LastFeedJob>> {
 
 
     private static final Logger LOG = LoggerFactory.getLogger(FeedFailureMetricAssessor.class);
@@ -50,13 +56,23 @@ public class FeedFailureMetricAssessor implements MetricAssessor<FeedFailedMetri
         return metric instanceof FeedFailedMetric;
     }
 
+    /**
+     * Finds the latest jobs of the feeds of the batch being assessed
+     */
+    @Override
+    public Map<String, FeedFailureService.LastFeedJob> prefetch(Collection<FeedFailedMetric> metrics) {
+        Set<String> feedNames = metrics.stream().map(FeedFailedMetric::getFeedName).collect(Collectors.toSet());
+        return feedFailureService.findLatestJobs(feedNames);
+    }
+
     @Override
     public void assess(FeedFailedMetric metric, MetricAssessmentBuilder<Serializable> builder) {
         builder.metric(metric);
 
         String feedName = metric.getFeedName();
 
-        FeedFailureService.LastFeedJob lastFeedJob = feedFailureService.findLatestJob(feedName);
+        Map<String, FeedFailureService.LastFeedJob> prefetched = PrefetchedMetrics.get(this);
+        FeedFailureService.LastFeedJob lastFeedJob = (prefetched != null && prefetched.containsKey(feedName)) ? prefetched.get(feedName) : feedFailureService.findLatestJob(feedName);
         LOG.debug("Assessing FeedFailureMetric for '{}'.  The Last Feed Job was: {} ",feedName,lastFeedJob);
         if (!feedFailureService.isEmptyJob(lastFeedJob)) {
             DateTime lastTime = lastFeedJob.getDateTime();
@@ -35,11 +35,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -75,12 +79,12 @@ public class FeedFailureService {
     /**
      * Map with the Latest recorded failure that has been assessed by the FeedFailureMetricAssessor
      */
-    private Map<String, LastFeedJob> lastAssessedFeedFailureMap = new HashMap<>();
+    private Map<String, LastFeedJob> lastAssessedFeedFailureMap = new ConcurrentHashMap<>();
 
     private FeedFailureServiceStatusStartupListener servicesApplicationStartupListener = new FeedFailureServiceStatusStartupListener();
 
 
-    private Map<String, LastFeedJob> lastAssessedFeedMap = new HashMap<>();
+    private Map<String, LastFeedJob> lastAssessedFeedMap = new ConcurrentHashMap<>();
 
 
     @PostConstruct
@@ -105,14 +109,7 @@ public class FeedFailureService {
     public LastFeedJob findLatestJob(String feedName) {
         LastFeedJob lastFeedJob = metadataAccess.read(() -> {
 
-            LastFeedJob lastAssessedJob = lastAssessedFeedMap.getOrDefault(feedName, newEmptyFeedJob(DateTime.now()));
-            LOG.debug("Feed failure service check.  LastAssessJob from map is {}",lastAssessedJob);
-            DateTime lastAssessedTime = lastAssessedJob.getDateTime();
-            if (isEmptyJob(lastAssessedJob)) {
-                //attempt to get jobs since the app started
-                lastAssessedTime = servicesApplicationStartupListener.getStartTime();
-                lastAssessedJob.setDateTime(lastAssessedTime);
-            }
+            DateTime lastAssessedTime = getLastAssessedTime(feedName);
 
             OpsManagerFeed feed = feedProvider.findByName(feedName);
             if(feed == null){
@@ -120,50 +117,18 @@ public class FeedFailureService {
                 return newEmptyFeedJob(DateTime.now());
             }
             if (feed.isStream()) {
-                List<NifiFeedProcessorStats> latestStats = nifiFeedProcessorStatisticsProvider.findLatestFinishedStatsSince(feedName, lastAssessedTime);
-                LOG.debug("Streaming Feed failure check for {}.  Found {} stats",feedName,latestStats.size());
-                Optional<NifiFeedProcessorStats> total = latestStats.stream().reduce((a, b) -> {
-                    a.setFailedCount(a.getFailedCount() + b.getFailedCount());
-                    if (b.getMinEventTime().isAfter(a.getMinEventTime())) {
-                        a.setMinEventTime(b.getMinEventTime());
-                    }
-                    return a;
-                });
-                LastFeedJob lastJob = null;
-                if (total.isPresent()) {
-                    NifiFeedProcessorStats stats = total.get();
-                    boolean success = stats.getFailedCount() == 0;
-                     lastJob = new LastFeedJob(feedName, stats.getMinEventTime(), success);
-
-                } else {
-                     lastJob = new LastFeedJob(feedName, lastAssessedTime,true);
-                }
-                LOG.debug("{} stats for feed. Streaming Feed failure returning {}",total.isPresent() ? "Found":"Did not find any",lastJob);
-                return lastJob;
+                return findLatestStreamingJob(feedName, lastAssessedTime);
             } else {
 
                 List<? extends BatchJobExecution> latestJobs = batchJobExecutionProvider.findLatestFinishedJobForFeedSince(feedName, lastAssessedTime);
                 LOG.debug("Batch Feed failure check for {}.  Found {} jobs",feedName,latestJobs != null ? latestJobs.size() : 0);
-                BatchJobExecution latestJob = latestJobs.stream().sorted(Comparator.comparing(BatchJobExecution::getEndTime).reversed())
-                    .filter(job -> FAILED.equals(job.getStatus()))
-                    .findFirst()
-                    .orElse(null);
-
+                BatchJobExecution latestJob = findLatestJob(latestJobs);
+                // if the set doesnt have anything attempt to get the latest job
                 if (latestJob == null) {
-                    //find the last job if there are no failures
-                    latestJob = latestJobs.stream().sorted(Comparator.comparing(BatchJobExecution::getEndTime).reversed())
-                        .findFirst().orElse(null);
-                    // if the set doesnt have anything attempt to get the latest job
-                    if (latestJob == null) {
-                        latestJob = batchJobExecutionProvider.findLatestFinishedJobForFeed(feedName);
-                    }
+                    latestJob = batchJobExecutionProvider.findLatestFinishedJobForFeed(feedName);
                 }
 
-
-                LastFeedJob lastJob = latestJob != null ? new LastFeedJob(feedName, latestJob.getEndTime(), !FAILED.equals(latestJob.getStatus()),latestJob.getJobExecutionId()) : newEmptyFeedJob(lastAssessedTime);
-                LOG.debug("Batch Feed failure check returning {} for feed {}",lastJob,feedName);
-                return lastJob;
-
+                return toLastFeedJob(feedName, latestJob, lastAssessedTime);
             }
         }, MetadataAccess.SERVICE);
 
@@ -172,6 +137,114 @@ public class FeedFailureService {
         return lastFeedJob;
     }
 
+    /**
+     * Find the latest Job of each of the feeds, as {@link #findLatestJob(String)} does, but loading the jobs of all the batch feeds with two queries that return at most one job per feed.
+     *
+     * @param feedNames the feeds to check
+     * @return the latest job keyed by feed name, with an entry for every feed
+     */
+    public Map<String, LastFeedJob> findLatestJobs(Collection<String> feedNames) {
+        Map<String, LastFeedJob> lastFeedJobs = metadataAccess.read(() -> {
+            Map<String, LastFeedJob> latest = new HashMap<>();
+            Map<String, DateTime> batchFeedAssessedTimes = new HashMap<>();
+
+            for (String feedName : feedNames) {
+                DateTime lastAssessedTime = getLastAssessedTime(feedName);
+                OpsManagerFeed feed = feedProvider.findByName(feedName);
+                if (feed == null) {
+                    LOG.error("Feed Failure Service check Error!!!  Unable to find feed for:  {}", feedName);
+                    latest.put(feedName, newEmptyFeedJob(DateTime.now()));
+                } else if (feed.isStream()) {
+                    latest.put(feedName, findLatestStreamingJob(feedName, lastAssessedTime));
+                } else {
+                    batchFeedAssessedTimes.put(feedName, lastAssessedTime);
+                }
+            }
+
+            if (!batchFeedAssessedTimes.isEmpty()) {
+                // find the latest failure of each feed since the earliest time any of them was assessed and keep it if it is since the feed's own time,
+                // otherwise use the feed's latest finished job
+                DateTime since = batchFeedAssessedTimes.values().stream().min(Comparator.naturalOrder()).get();
+                Map<String, BatchJobExecution> failedJobs = batchJobExecutionProvider.findLatestFailedJobForFeedsSince(batchFeedAssessedTimes.keySet(), since);
+                failedJobs.entrySet().removeIf(entry -> entry.getValue().getEndTime() == null || !entry.getValue().getEndTime().isAfter(batchFeedAssessedTimes.get(entry.getKey())));
+
+                Set<String> feedsWithoutFailures = new HashSet<>(batchFeedAssessedTimes.keySet());
+                feedsWithoutFailures.removeAll(failedJobs.keySet());
+                Map<String, BatchJobExecution> finishedJobs = batchJobExecutionProvider.findLatestFinishedJobForFeeds(feedsWithoutFailures);
+
+                batchFeedAssessedTimes.forEach((feedName, lastAssessedTime) -> {
+                    BatchJobExecution latestJob = failedJobs.containsKey(feedName) ? failedJobs.get(feedName) : finishedJobs.get(feedName);
+                    latest.put(feedName, toLastFeedJob(feedName, latestJob, lastAssessedTime));
+                });
+            }
+            return latest;
+        }, MetadataAccess.SERVICE);
+
+        lastAssessedFeedMap.putAll(lastFeedJobs);
+
+        return lastFeedJobs;
+    }
+
+    /**
+     * Find the time the feed was last assessed, or the time the app started if it has not been assessed yet.
+     */
+    private DateTime getLastAssessedTime(String feedName) {
+        LastFeedJob lastAssessedJob = lastAssessedFeedMap.getOrDefault(feedName, newEmptyFeedJob(DateTime.now()));
+        LOG.debug("Feed failure service check.  LastAssessJob from map is {}",lastAssessedJob);
+        DateTime lastAssessedTime = lastAssessedJob.getDateTime();
+        if (isEmptyJob(lastAssessedJob)) {
+            //attempt to get jobs since the app started
+            lastAssessedTime = servicesApplicationStartupListener.getStartTime();
+        }
+        return lastAssessedTime;
+    }
+
+    /**
+     * Find the latest failed job, or the latest job if none of them failed.
+     */
+    private BatchJobExecution findLatestJob(List<? extends BatchJobExecution> latestJobs) {
+        BatchJobExecution latestJob = latestJobs.stream().sorted(Comparator.comparing(BatchJobExecution::getEndTime).reversed())
+            .filter(job -> FAILED.equals(job.getStatus()))
+            .findFirst()
+            .orElse(null);
+
+        if (latestJob == null) {
+            //find the last job if there are no failures
+            latestJob = latestJobs.stream().sorted(Comparator.comparing(BatchJobExecution::getEndTime).reversed())
+                .findFirst().orElse(null);
+        }
+        return latestJob;
+    }
+
+    private LastFeedJob toLastFeedJob(String feedName, BatchJobExecution latestJob, DateTime lastAssessedTime) {
+        LastFeedJob lastJob = latestJob != null ? new LastFeedJob(feedName, latestJob.getEndTime(), !FAILED.equals(latestJob.getStatus()),latestJob.getJobExecutionId()) : newEmptyFeedJob(lastAssessedTime);
+        LOG.debug("Batch Feed failure check returning {} for feed {}",lastJob,feedName);
+        return lastJob;
+    }
+
+    private LastFeedJob findLatestStreamingJob(String feedName, DateTime lastAssessedTime) {
+        List<NifiFeedProcessorStats> latestStats = nifiFeedProcessorStatisticsProvider.findLatestFinishedStatsSince(feedName, lastAssessedTime);
+        LOG.debug("Streaming Feed failure check for {}.  Found {} stats",feedName,latestStats.size());
+        Optional<NifiFeedProcessorStats> total = latestStats.stream().reduce((a, b) -> {
+            a.setFailedCount(a.getFailedCount() + b.getFailedCount());
+            if (b.getMinEventTime().isAfter(a.getMinEventTime())) {
+                a.setMinEventTime(b.getMinEventTime());
+            }
+            return a;
+        });
+        LastFeedJob lastJob = null;
+        if (total.isPresent()) {
+            NifiFeedProcessorStats stats = total.get();
+            boolean success = stats.getFailedCount() == 0;
+             lastJob = new LastFeedJob(feedName, stats.getMinEventTime(), success);
+
+        } else {
+             lastJob = new LastFeedJob(feedName, lastAssessedTime,true);
+        }
+        LOG.debug("{} stats for feed. Streaming Feed failure returning {}",total.isPresent() ? "Found":"Did not find any",lastJob);
+        return lastJob;
+    }
+
     boolean isExistingFailure(LastFeedJob job) {
         if (job.isFailure()) {
             String feedName = job.getFeedName();
@@ -30,8 +30,10 @@ import com.thinkbiganalytics.metadata.api.jobrepo.job.BatchJobExecution;
 import com.thinkbiganalytics.metadata.api.jobrepo.job.BatchJobExecutionProvider;
 import com.thinkbiganalytics.metadata.sla.api.AssessmentResult;
 import com.thinkbiganalytics.metadata.sla.api.Metric;
+import com.thinkbiganalytics.metadata.sla.spi.BatchMetricAssessor;
 import com.thinkbiganalytics.metadata.sla.spi.MetricAssessmentBuilder;
 import com.thinkbiganalytics.metadata.sla.spi.MetricAssessor;
+import com.thinkbiganalytics.metadata.sla.spi.PrefetchedMetrics;
 import com.thinkbiganalytics.scheduler.util.CronExpressionUtil;
 
 import org.joda.time.DateTime;
@@ -40,14 +42,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
 /**
  * Metric assessor to assess the {@link FeedOnTimeArrivalMetric}
  */
-public class FeedOnTimeArrivalMetricAssessor implements MetricAssessor<FeedOnTimeArrivalMetric, Serializable> {
+public class FeedOnTimeArrivalMetricAssessor implements MetricAssessor<FeedOnTimeArrivalMetric, Serializable>, BatchMetricAssessor<FeedOnTimeArrivalMetric, Map<String, DateTime>> {
 
     private static final Logger LOG = LoggerFactory.getLogger(FeedOnTimeArrivalMetricAssessor.class);
 
@@ -66,6 +73,18 @@ public class FeedOnTimeArrivalMetricAssessor implements MetricAssessor<FeedOnTim
         return metric instanceof FeedOnTimeArrivalMetric;
     }
 
+    /**
+     * Finds the last active times of the feeds of the batch being assessed, including null values for feeds that have never been active
+     */
+    @Override
+    public Map<String, DateTime> prefetch(Collection<FeedOnTimeArrivalMetric> metrics) {
+        Set<String> feedNames = metrics.stream().map(FeedOnTimeArrivalMetric::getFeedName).collect(Collectors.toSet());
+        Map<String, DateTime> lastFeedTimes = new HashMap<>();
+        feedNames.forEach(feedName -> lastFeedTimes.put(feedName, null));
+        lastFeedTimes.putAll(feedProvider.getLastActiveTimeStamps(feedNames));
+        return lastFeedTimes;
+    }
+
     /* (non-Javadoc)
      * @see com.thinkbiganalytics.metadata.sla.spi.MetricAssessor#assess(com.thinkbiganalytics.metadata.sla.api.Metric, com.thinkbiganalytics.metadata.sla.spi.MetricAssessmentBuilder)
      */
@@ -77,7 +96,8 @@ public class FeedOnTimeArrivalMetricAssessor implements MetricAssessor<FeedOnTim
         builder.metric(metric);
 
         String feedName = metric.getFeedName();
-        DateTime lastFeedTime = feedProvider.getLastActiveTimeStamp(feedName);
+        Map<String, DateTime> prefetched = PrefetchedMetrics.get(this);
+        DateTime lastFeedTime = (prefetched != null && prefetched.containsKey(feedName)) ? prefetched.get(feedName) : feedProvider.getLastActiveTimeStamp(feedName);
 
         Long nowDiff = 0L;
         Period nowDiffPeriod = new Period(nowDiff.longValue());
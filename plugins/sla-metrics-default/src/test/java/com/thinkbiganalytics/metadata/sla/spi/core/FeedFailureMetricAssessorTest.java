@@ -39,6 +39,7 @@ import com.thinkbiganalytics.metadata.sla.api.core.FeedFailedMetric;
 import com.thinkbiganalytics.metadata.sla.api.core.FeedFailureMetricAssessor;
 import com.thinkbiganalytics.metadata.sla.api.core.FeedFailureService;
 import com.thinkbiganalytics.metadata.sla.spi.MetricAssessmentBuilder;
+import com.thinkbiganalytics.metadata.sla.spi.PrefetchedMetrics;
 
 import org.joda.time.DateTime;
 import org.junit.Before;
@@ -53,6 +54,9 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import java.math.BigDecimal;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -355,6 +359,81 @@ public class FeedFailureMetricAssessorTest {
         verify(this.builder).result(AssessmentResult.SUCCESS);
     }
 
+    /**
+     * Test that prefetching a batch finds the latest failure of a feed since it was last assessed and the latest finished job of the others,
+     * without querying each feed
+     */
+    @Test
+    public void testPrefetchedBatchFeeds() throws ParseException {
+        when(feedProvider.findByName("failed")).thenReturn(newOpsManagerFeed("failed", false));
+        when(feedProvider.findByName("succeeded")).thenReturn(newOpsManagerFeed("succeeded", false));
+
+        DateTime jobTime = DateTime.now().plusMinutes(1);
+        Map<String, BatchJobExecution> failedJobs = new HashMap<>();
+        failedJobs.put("failed", newBatchJob("failed", jobTime, true));
+        Map<String, BatchJobExecution> finishedJobs = new HashMap<>();
+        finishedJobs.put("succeeded", newBatchJob("succeeded", jobTime, false));
+
+        Mockito.when(this.jobExecutionProvider.findLatestFailedJobForFeedsSince(Mockito.anyCollection(), Mockito.any(DateTime.class))).thenReturn(failedJobs);
+        Mockito.when(this.jobExecutionProvider.findLatestFinishedJobForFeeds(Mockito.anyCollection())).thenReturn(finishedJobs);
+
+        FeedFailedMetric failedMetric = new FeedFailedMetric();
+        failedMetric.setFeedName("failed");
+        FeedFailedMetric succeededMetric = new FeedFailedMetric();
+        succeededMetric.setFeedName("succeeded");
+        PrefetchedMetrics prefetched = new PrefetchedMetrics(Collections.singletonMap(this.assessor, this.assessor.prefetch(Arrays.asList(failedMetric, succeededMetric))));
+
+        prefetched.run(() -> {
+            MetricAssessmentBuilder failedBuilder = newBuilder();
+            this.assessor.assess(failedMetric, failedBuilder);
+            verify(failedBuilder).result(AssessmentResult.FAILURE);
+
+            MetricAssessmentBuilder succeededBuilder = newBuilder();
+            this.assessor.assess(succeededMetric, succeededBuilder);
+            verify(succeededBuilder).result(AssessmentResult.SUCCESS);
+        });
+
+        //only the feeds without a recent failure should be looked up for their latest finished job
+        verify(this.jobExecutionProvider).findLatestFinishedJobForFeeds(Collections.singleton("succeeded"));
+        verify(this.jobExecutionProvider, Mockito.never()).findLatestFinishedJobForFeedSince(Mockito.anyString(), Mockito.any(DateTime.class));
+        verify(this.jobExecutionProvider, Mockito.never()).findLatestFinishedJobForFeed(Mockito.anyString());
+    }
+
+    /**
+     * Test that a failure prefetched for a batch is ignored if it is from before the feed was last assessed
+     */
+    @Test
+    public void testPrefetchedFailureBeforeLastAssessment() throws ParseException {
+        when(feedProvider.findByName("feed")).thenReturn(newOpsManagerFeed("feed", false));
+
+        Map<String, BatchJobExecution> failedJobs = new HashMap<>();
+        failedJobs.put("feed", newBatchJob("feed", DateTime.now().minusDays(1), true));
+        Map<String, BatchJobExecution> finishedJobs = new HashMap<>();
+        finishedJobs.put("feed", newBatchJob("feed", DateTime.now().plusMinutes(1), false));
+
+        Mockito.when(this.jobExecutionProvider.findLatestFailedJobForFeedsSince(Mockito.anyCollection(), Mockito.any(DateTime.class))).thenReturn(failedJobs);
+        Mockito.when(this.jobExecutionProvider.findLatestFinishedJobForFeeds(Mockito.anyCollection())).thenReturn(finishedJobs);
+
+        this.metric.setFeedName("feed");
+        PrefetchedMetrics prefetched = new PrefetchedMetrics(Collections.singletonMap(this.assessor, this.assessor.prefetch(Collections.singletonList(this.metric))));
+        prefetched.run(() -> this.assessor.assess(this.metric, this.builder));
+        verify(this.builder).result(AssessmentResult.SUCCESS);
+
+        //outside of the batch the assessor should query the feed again
+        List<? extends BatchJobExecution> batchJobs = new ArrayList<>();
+        Mockito.when(this.jobExecutionProvider.findLatestFinishedJobForFeedSince(Mockito.anyString(), Mockito.any(DateTime.class))).thenAnswer(x -> batchJobs);
+        this.assessor.assess(this.metric, newBuilder());
+        verify(this.jobExecutionProvider).findLatestFinishedJobForFeedSince(Mockito.eq("feed"), Mockito.any(DateTime.class));
+    }
+
+    private MetricAssessmentBuilder newBuilder() {
+        MetricAssessmentBuilder builder = Mockito.mock(MetricAssessmentBuilder.class);
+        when(builder.message(any(String.class))).thenReturn(builder);
+        when(builder.metric(any(Metric.class))).thenReturn(builder);
+        when(builder.result(any(AssessmentResult.class))).thenReturn(builder);
+        return builder;
+    }
+
     private OpsManagerFeed newOpsManagerFeed(String feedName, boolean isStream) {
         MockOpsManagerFeed feed = new MockOpsManagerFeed();
         feed.setName(feedName);
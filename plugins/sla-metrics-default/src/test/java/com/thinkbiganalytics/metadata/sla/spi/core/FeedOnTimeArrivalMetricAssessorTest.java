@@ -28,6 +28,7 @@ import com.thinkbiganalytics.metadata.sla.api.Metric;
 import com.thinkbiganalytics.metadata.sla.api.core.FeedOnTimeArrivalMetric;
 import com.thinkbiganalytics.metadata.sla.api.core.FeedOnTimeArrivalMetricAssessor;
 import com.thinkbiganalytics.metadata.sla.spi.MetricAssessmentBuilder;
+import com.thinkbiganalytics.metadata.sla.spi.PrefetchedMetrics;
 import com.thinkbiganalytics.scheduler.util.CronExpressionUtil;
 
 import org.joda.time.DateTime;
@@ -45,9 +46,13 @@ import org.quartz.CronExpression;
 import org.testng.Assert;
 
 import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -219,6 +224,29 @@ public class FeedOnTimeArrivalMetricAssessorTest {
     }
 
 
+    @Test
+    public void testPrefetchedLastActiveTimes() throws ParseException {
+        FeedOnTimeArrivalMetric neverActive = new FeedOnTimeArrivalMetric("neverActive", this.metric.getExpectedExpression(), Period.hours(lateTimeGracePeriod));
+        when(this.feedProvider.getLastActiveTimeStamps(any(Collection.class))).thenReturn(Collections.singletonMap("feed", this.lateTime.minusMinutes(1)));
+
+        PrefetchedMetrics prefetched = new PrefetchedMetrics(Collections.singletonMap(this.assessor, this.assessor.prefetch(Arrays.asList(this.metric, neverActive))));
+
+        //a feed missing from the prefetched times has never been active, so it should not be queried again
+        MetricAssessmentBuilder neverActiveBuilder = mock(MetricAssessmentBuilder.class);
+        when(neverActiveBuilder.message(any(String.class))).thenReturn(neverActiveBuilder);
+        when(neverActiveBuilder.metric(any(Metric.class))).thenReturn(neverActiveBuilder);
+        when(neverActiveBuilder.result(any(AssessmentResult.class))).thenReturn(neverActiveBuilder);
+        prefetched.run(() -> {
+            this.assessor.assess(this.metric, this.builder);
+            this.assessor.assess(neverActive, neverActiveBuilder);
+        });
+        verify(this.builder).result(AssessmentResult.SUCCESS);
+        verify(neverActiveBuilder).result(AssessmentResult.WARNING);
+
+        verify(this.feedProvider, never()).getLastActiveTimeStamp(any(String.class));
+    }
+
+
     private BatchJobExecution createFeedJobExecution(DateTime endTime) {
         BatchJobExecution feed = mock(BatchJobExecution.class);
         when(feed.getEndTime()).thenReturn(endTime);
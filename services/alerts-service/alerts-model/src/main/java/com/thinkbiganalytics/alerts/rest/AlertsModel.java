@@ -22,6 +22,7 @@ package com.thinkbiganalytics.alerts.rest;
 
 import com.thinkbiganalytics.alerts.AlertConstants;
 import com.thinkbiganalytics.alerts.api.AlertSummary;
+import com.thinkbiganalytics.alerts.api.CoalescedAlert;
 import com.thinkbiganalytics.alerts.api.EntityAlert;
 import com.thinkbiganalytics.alerts.api.SourceAlert;
 import com.thinkbiganalytics.alerts.rest.model.Alert;
@@ -134,6 +135,10 @@ public class AlertsModel {
             result.setEntityId(((EntityAlert)baseAlert).getEntityId() != null ? ((EntityAlert)baseAlert).getEntityId().toString(): null);
             result.setEntityType(((EntityAlert)baseAlert).getEntityType());
         }
+        if (baseAlert instanceof CoalescedAlert) {
+            result.setOccurrenceCount(((CoalescedAlert) baseAlert).getOccurrenceCount());
+            result.setLastSeenTime(((CoalescedAlert) baseAlert).getLastSeenTime());
+        }
         return result;
     }
 
@@ -89,6 +89,16 @@ public class Alert {
      */
     private String entityType;
 
+    /**
+     * The number of times this alert was raised
+     */
+    private int occurrenceCount = 1;
+
+    /**
+     * The time this alert was last raised
+     */
+    private DateTime lastSeenTime;
+
     /**
      * The ordered list of state change events
      */
@@ -166,6 +176,22 @@ public class Alert {
         this.actionable = actionable;
     }
 
+    public int getOccurrenceCount() {
+        return occurrenceCount;
+    }
+
+    public void setOccurrenceCount(int occurrenceCount) {
+        this.occurrenceCount = occurrenceCount;
+    }
+
+    public DateTime getLastSeenTime() {
+        return lastSeenTime;
+    }
+
+    public void setLastSeenTime(DateTime lastSeenTime) {
+        this.lastSeenTime = lastSeenTime;
+    }
+
     public List<AlertChangeEvent> getEvents() {
         return events;
     }
@@ -46,6 +46,7 @@ import com.thinkbiganalytics.feedmgr.service.feed.DefaultFeedManagerFeedService;
 import com.thinkbiganalytics.feedmgr.service.feed.FeedHiveTableService;
 import com.thinkbiganalytics.feedmgr.service.feed.FeedManagerFeedService;
 import com.thinkbiganalytics.feedmgr.service.feed.FeedManagerPreconditionService;
+import com.thinkbiganalytics.feedmgr.service.feed.FeedMetadataCache;
 import com.thinkbiganalytics.feedmgr.service.feed.FeedModelTransform;
 import com.thinkbiganalytics.feedmgr.service.feed.FeedPreconditionService;
 import com.thinkbiganalytics.feedmgr.service.feed.FeedWaterMarkService;
@@ -142,6 +143,11 @@ public class FeedManagerConfiguration {
         return new FeedModelTransform();
     }
 
+    @Bean
+    public FeedMetadataCache feedMetadataCache() {
+        return new FeedMetadataCache();
+    }
+
 
     @Bean
     public TemplateModelTransform templateModelTransform() {
@@ -0,0 +1,176 @@
+package com.thinkbiganalytics.feedmgr.nifi.cache;
+/*-
+ * #%L
+ * thinkbig-feed-manager-controller
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.thinkbiganalytics.metadata.rest.model.nifi.NiFiFlowCacheConnectionData;
+import com.thinkbiganalytics.nifi.rest.model.flow.NiFiFlowConnectionConverter;
+import com.thinkbiganalytics.nifi.rest.model.flow.NifiFlowConnection;
+import com.thinkbiganalytics.nifi.rest.support.NifiConnectionUtil;
+
+import org.apache.nifi.web.api.dto.ConnectionDTO;
+import org.apache.nifi.web.api.dto.flow.FlowDTO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The processors and connections directly in a NiFi process group, as stored in the NiFi flow cache snapshot.
+ * The parent, level and fingerprint come from the recursive status of the flow and are used to decide if the group needs to be inspected again.
+ */
+public class NiFiFlowCacheProcessGroup {
+
+    private String id;
+
+    private String name;
+
+    private String parentId;
+
+    private int level;
+
+    private String fingerprint;
+
+    private Map<String, String> processorIdToProcessorName = new HashMap<>();
+
+    private List<NiFiFlowCacheConnectionData> connections = new ArrayList<>();
+
+    private List<String> inputProcessorIds = new ArrayList<>();
+
+    /**
+     * The connections as returned by NiFi.  These are only available if the group was inspected and are not persisted
+     */
+    @JsonIgnore
+    private Set<ConnectionDTO> connectionDTOs;
+
+    public NiFiFlowCacheProcessGroup() {
+
+    }
+
+    /**
+     * Create the group from the inspection of its flow
+     *
+     * @param inspection the inspection of the process group
+     * @param status     the status of the group used to detect changes
+     */
+    public static NiFiFlowCacheProcessGroup fromInspection(NiFiFlowInspection inspection, NiFiFlowProcessGroupStatus status) {
+        NiFiFlowCacheProcessGroup group = new NiFiFlowCacheProcessGroup();
+        group.id = status.getId();
+        group.name = status.getName();
+        group.parentId = status.getParentId();
+        group.level = status.getLevel();
+        group.fingerprint = status.getFingerprint();
+
+        FlowDTO flow = inspection.getProcessGroupFlow().getFlow();
+        group.processorIdToProcessorName = flow.getProcessors().stream().map(e -> e.getComponent()).collect(Collectors.toMap(p -> p.getId(), p -> p.getName()));
+        group.connectionDTOs = flow.getConnections().stream().map(e -> e.getComponent()).collect(Collectors.toSet());
+        group.connections = group.connectionDTOs.stream()
+            .map(c -> NiFiFlowConnectionConverter.toNiFiFlowConnection(c))
+            .map(NiFiFlowCacheProcessGroup::toConnectionData)
+            .collect(Collectors.toList());
+        group.inputProcessorIds = NifiConnectionUtil.getInputProcessorIds(group.connectionDTOs);
+        return group;
+    }
+
+    private static NiFiFlowCacheConnectionData toConnectionData(NifiFlowConnection conn) {
+        return new NiFiFlowCacheConnectionData(conn.getConnectionIdentifier(), conn.getName(), conn.getSourceIdentifier(), conn.getDestinationIdentifier());
+    }
+
+    /**
+     * Update the parent and level of this group, which can change without the group itself changing
+     */
+    public void updateStatus(NiFiFlowProcessGroupStatus status) {
+        this.name = status.getName();
+        this.parentId = status.getParentId();
+        this.level = status.getLevel();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(String parentId) {
+        this.parentId = parentId;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public Map<String, String> getProcessorIdToProcessorName() {
+        return processorIdToProcessorName;
+    }
+
+    public void setProcessorIdToProcessorName(Map<String, String> processorIdToProcessorName) {
+        this.processorIdToProcessorName = processorIdToProcessorName;
+    }
+
+    public List<NiFiFlowCacheConnectionData> getConnections() {
+        return connections;
+    }
+
+    public void setConnections(List<NiFiFlowCacheConnectionData> connections) {
+        this.connections = connections;
+    }
+
+    public List<String> getInputProcessorIds() {
+        return inputProcessorIds;
+    }
+
+    public void setInputProcessorIds(List<String> inputProcessorIds) {
+        this.inputProcessorIds = inputProcessorIds;
+    }
+
+    @JsonIgnore
+    public Set<ConnectionDTO> getConnectionDTOs() {
+        return connectionDTOs;
+    }
+}
@@ -0,0 +1,143 @@
+package com.thinkbiganalytics.feedmgr.nifi.cache;
+/*-
+ * #%L
+ * thinkbig-feed-manager-controller
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.metadata.rest.model.nifi.NiFiFlowCacheConnectionData;
+import com.thinkbiganalytics.nifi.feedmgr.TemplateCreationHelper;
+import com.thinkbiganalytics.nifi.rest.support.NifiTemplateNameUtil;
+import com.thinkbiganalytics.support.FeedNameUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the maps used by the NiFi flow cache from the cached process groups.
+ * The feeds and reusable templates are found the same way as the {@link DefaultNiFiFlowCompletionCallback}.
+ */
+public class NiFiFlowCacheProcessGroupMaps {
+
+    private Map<String, String> processorIdToFeedProcessGroupId = new HashMap<>();
+    private Map<String, String> processorIdToFeedNameMap = new HashMap<>();
+    private Map<String, String> processorIdToProcessorName = new HashMap<>();
+    private Map<String, NiFiFlowCacheConnectionData> connectionIdToConnectionMap = new HashMap<>();
+    private Map<String, String> connectionIdCacheNameMap = new HashMap<>();
+    private Set<String> reusableTemplateProcessorIds = new HashSet<>();
+    private String reusableTemplateProcessGroupId;
+    private Set<String> feedNames = new HashSet<>();
+    private Map<String, List<String>> feedToInputProcessorIds = new HashMap<>();
+
+    private final Map<String, NiFiFlowCacheProcessGroup> processGroups;
+    private final Map<String, List<NiFiFlowCacheProcessGroup>> children;
+
+    public NiFiFlowCacheProcessGroupMaps(Map<String, NiFiFlowCacheProcessGroup> processGroups) {
+        this.processGroups = processGroups;
+        this.children = processGroups.values().stream().filter(g -> g.getParentId() != null).collect(Collectors.groupingBy(NiFiFlowCacheProcessGroup::getParentId));
+        build();
+    }
+
+    private void build() {
+        reusableTemplateProcessGroupId = processGroups.values().stream()
+            .filter(g -> g.getLevel() == 2 && TemplateCreationHelper.REUSABLE_TEMPLATES_PROCESS_GROUP_NAME.equalsIgnoreCase(g.getName()))
+            .findFirst()
+            .map(NiFiFlowCacheProcessGroup::getId)
+            .orElse(null);
+
+        processGroups.values().stream().filter(g -> g.getLevel() == 3).forEach(group -> {
+            NiFiFlowCacheProcessGroup parent = processGroups.get(group.getParentId());
+            String parentName = parent != null ? parent.getName() : null;
+            Set<String> processorIds = thisAndAllChildren(group).stream().flatMap(g -> g.getProcessorIdToProcessorName().keySet().stream()).collect(Collectors.toSet());
+            if (TemplateCreationHelper.REUSABLE_TEMPLATES_PROCESS_GROUP_NAME.equalsIgnoreCase(parentName)) {
+                reusableTemplateProcessorIds.addAll(processorIds);
+            } else {
+                //strip the kylo version suffix if it is there and add the category prefix
+                String feedName = FeedNameUtil.fullName(parentName, NifiTemplateNameUtil.parseVersionedProcessGroupName(group.getName()));
+                feedNames.add(feedName);
+                processorIds.forEach(processorId -> {
+                    processorIdToFeedNameMap.put(processorId, feedName);
+                    processorIdToFeedProcessGroupId.put(processorId, group.getId());
+                });
+                feedToInputProcessorIds.put(feedName, group.getInputProcessorIds());
+            }
+        });
+
+        processGroups.values().stream().forEach(group -> {
+            processorIdToProcessorName.putAll(group.getProcessorIdToProcessorName());
+            group.getConnections().forEach(connection -> {
+                if (connection.getName() != null) {
+                    connectionIdCacheNameMap.put(connection.getConnectionIdentifier(), connection.getName());
+                }
+                connectionIdToConnectionMap.put(connection.getConnectionIdentifier(), connection);
+            });
+        });
+    }
+
+    private List<NiFiFlowCacheProcessGroup> thisAndAllChildren(NiFiFlowCacheProcessGroup group) {
+        List<NiFiFlowCacheProcessGroup> groups = new ArrayList<>();
+        groups.add(group);
+        children.getOrDefault(group.getId(), new ArrayList<>()).forEach(child -> groups.addAll(thisAndAllChildren(child)));
+        return groups;
+    }
+
+    public Collection<NiFiFlowCacheProcessGroup> getProcessGroups() {
+        return processGroups.values();
+    }
+
+    public Map<String, String> getProcessorIdToFeedProcessGroupId() {
+        return processorIdToFeedProcessGroupId;
+    }
+
+    public Map<String, String> getProcessorIdToFeedNameMap() {
+        return processorIdToFeedNameMap;
+    }
+
+    public Map<String, String> getProcessorIdToProcessorName() {
+        return processorIdToProcessorName;
+    }
+
+    public Map<String, NiFiFlowCacheConnectionData> getConnectionIdToConnectionMap() {
+        return connectionIdToConnectionMap;
+    }
+
+    public Map<String, String> getConnectionIdCacheNameMap() {
+        return connectionIdCacheNameMap;
+    }
+
+    public Set<String> getReusableTemplateProcessorIds() {
+        return reusableTemplateProcessorIds;
+    }
+
+    public String getReusableTemplateProcessGroupId() {
+        return reusableTemplateProcessGroupId;
+    }
+
+    public Set<String> getFeedNames() {
+        return feedNames;
+    }
+
+    public Map<String, List<String>> getFeedToInputProcessorIds() {
+        return feedToInputProcessorIds;
+    }
+}
@@ -0,0 +1,167 @@
+package com.thinkbiganalytics.feedmgr.nifi.cache;
+/*-
+ * #%L
+ * thinkbig-feed-manager-controller
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Saves the process groups in the NiFi flow cache to a gzipped json file so the cache is available as soon as Kylo starts.
+ *
+ * The file is written to a temporary file and moved into place so a crash during the save never leaves a partial file.
+ * Errors reading or writing the file are logged and the cache falls back to inspecting NiFi.
+ */
+public class NiFiFlowCacheProcessGroupStore {
+
+    private static final Logger log = LoggerFactory.getLogger(NiFiFlowCacheProcessGroupStore.class);
+
+    private static final int VERSION = 1;
+
+    private final String location;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * @param location the file to store the process groups in.  A blank location disables the store
+     */
+    public NiFiFlowCacheProcessGroupStore(String location) {
+        this.location = location;
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    public boolean isEnabled() {
+        return StringUtils.isNotBlank(location);
+    }
+
+    /**
+     * @return the saved process groups keyed by id, or null if there is nothing saved or it could not be read
+     */
+    public Map<String, NiFiFlowCacheProcessGroup> load() {
+        if (!isEnabled()) {
+            return null;
+        }
+        Path path = Paths.get(location);
+        if (!Files.exists(path)) {
+            log.info("No saved NiFi flow cache found at {}", location);
+            return null;
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(path))) {
+            SavedProcessGroups saved = objectMapper.readValue(in, SavedProcessGroups.class);
+            if (saved.getVersion() != VERSION || saved.getProcessGroups() == null) {
+                log.info("Ignoring the saved NiFi flow cache at {}. It was saved with version {} and the current version is {}", location, saved.getVersion(), VERSION);
+                return null;
+            }
+            return saved.getProcessGroups().stream().collect(Collectors.toMap(NiFiFlowCacheProcessGroup::getId, Function.identity(), (g1, g2) -> g2));
+        } catch (Exception e) {
+            log.warn("Unable to read the saved NiFi flow cache at {}. The flow will be inspected. {}", location, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Save the process groups, replacing anything previously saved
+     *
+     * @param processGroups the process groups to save
+     */
+    public void save(Map<String, NiFiFlowCacheProcessGroup> processGroups) {
+        if (!isEnabled()) {
+            return;
+        }
+        SavedProcessGroups saved = new SavedProcessGroups();
+        saved.setVersion(VERSION);
+        saved.setSavedTime(System.currentTimeMillis());
+        saved.setProcessGroups(new ArrayList<>(processGroups.values()));
+
+        Path path = Paths.get(location).toAbsolutePath();
+        Path tmp = null;
+        try {
+            Files.createDirectories(path.getParent());
+            tmp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+                objectMapper.writeValue(out, saved);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Saved {} process groups in the NiFi flow cache to {}", processGroups.size(), location);
+        } catch (Exception e) {
+            log.warn("Unable to save the NiFi flow cache to {}. {}", location, e.getMessage());
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (Exception ignored) {
+                    //nothing to clean up
+                }
+            }
+        }
+    }
+
+    /**
+     * The contents of the saved file
+     */
+    public static class SavedProcessGroups {
+
+        private int version;
+
+        private long savedTime;
+
+        private List<NiFiFlowCacheProcessGroup> processGroups;
+
+        public int getVersion() {
+            return version;
+        }
+
+        public void setVersion(int version) {
+            this.version = version;
+        }
+
+        public long getSavedTime() {
+            return savedTime;
+        }
+
+        public void setSavedTime(long savedTime) {
+            this.savedTime = savedTime;
+        }
+
+        public List<NiFiFlowCacheProcessGroup> getProcessGroups() {
+            return processGroups;
+        }
+
+        public void setProcessGroups(List<NiFiFlowCacheProcessGroup> processGroups) {
+            this.processGroups = processGroups;
+        }
+    }
+}
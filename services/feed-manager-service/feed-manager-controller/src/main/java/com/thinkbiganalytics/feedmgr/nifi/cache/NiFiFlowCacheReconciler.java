@@ -0,0 +1,176 @@
+package com.thinkbiganalytics.feedmgr.nifi.cache;
+/*-
+ * #%L
+ * thinkbig-feed-manager-controller
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.nifi.rest.client.NiFiRestClient;
+
+import org.apache.nifi.web.api.dto.ConnectionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Brings the process groups in the NiFi flow cache up to date with NiFi.
+ *
+ * A single recursive status call returns the structure of the whole flow.  Only the process groups that are new, or whose
+ * fingerprint changed, are inspected with the {@link NiFiFlowInspector}.  Passing no previous groups inspects every group.
+ */
+public class NiFiFlowCacheReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(NiFiFlowCacheReconciler.class);
+
+    private final NiFiRestClient restClient;
+
+    private final int threads;
+
+    public NiFiFlowCacheReconciler(NiFiRestClient restClient, int threads) {
+        this.restClient = restClient;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * @param previous the process groups currently in the cache, keyed by id
+     * @return the process groups in NiFi along with the stats for the reconciliation
+     * @throws NiFiFlowCacheException if a process group could not be inspected
+     */
+    public Result reconcile(Map<String, NiFiFlowCacheProcessGroup> previous) {
+        NiFiFlowCacheRebuildStats stats = new NiFiFlowCacheRebuildStats();
+        stats.setType(previous.isEmpty() ? NiFiFlowCacheRebuildStats.RebuildType.FULL : NiFiFlowCacheRebuildStats.RebuildType.INCREMENTAL);
+        stats.setStartTime(System.currentTimeMillis());
+
+        long start = System.currentTimeMillis();
+        Map<String, NiFiFlowProcessGroupStatus> status = NiFiFlowProcessGroupStatus.flatten(restClient.processGroups().flowStatus("root", true));
+        stats.setStatusTimeMillis(System.currentTimeMillis() - start);
+        if (status.isEmpty()) {
+            throw new NiFiFlowCacheException("Unable to get the status of the NiFi flow");
+        }
+
+        Map<String, NiFiFlowCacheProcessGroup> groups = new HashMap<>();
+        List<NiFiFlowProcessGroupStatus> toInspect = new ArrayList<>();
+        int added = 0;
+        for (NiFiFlowProcessGroupStatus groupStatus : status.values()) {
+            NiFiFlowCacheProcessGroup group = previous.get(groupStatus.getId());
+            if (groupStatus.isChanged(group)) {
+                toInspect.add(groupStatus);
+                if (group == null) {
+                    added++;
+                }
+            } else {
+                group.updateStatus(groupStatus);
+                groups.put(group.getId(), group);
+            }
+        }
+        int removed = (int) previous.keySet().stream().filter(id -> !status.containsKey(id)).count();
+
+        start = System.currentTimeMillis();
+        List<NiFiFlowCacheProcessGroup> inspected = inspect(toInspect);
+        inspected.forEach(group -> groups.put(group.getId(), group));
+        stats.setInspectionTimeMillis(System.currentTimeMillis() - start);
+
+        stats.setProcessGroups(groups.size());
+        stats.setProcessGroupsInspected(inspected.size());
+        stats.setProcessGroupsAdded(added);
+        stats.setProcessGroupsChanged(inspected.size() - added);
+        stats.setProcessGroupsRemoved(removed);
+
+        Set<ConnectionDTO> rootConnections = inspected.stream()
+            .filter(group -> group.getLevel() == 1)
+            .findFirst()
+            .map(NiFiFlowCacheProcessGroup::getConnectionDTOs)
+            .orElse(null);
+        log.info("Reconciled the NiFi flow cache in {} ms. Status took {} ms. Inspected {} of {} process groups with {} threads in {} ms. {} added, {} changed, {} removed",
+                 System.currentTimeMillis() - stats.getStartTime(), stats.getStatusTimeMillis(), inspected.size(), groups.size(), threads, stats.getInspectionTimeMillis(),
+                 added, stats.getProcessGroupsChanged(), removed);
+        return new Result(groups, rootConnections, stats);
+    }
+
+    private List<NiFiFlowCacheProcessGroup> inspect(List<NiFiFlowProcessGroupStatus> toInspect) {
+        if (toInspect.isEmpty()) {
+            return Collections.emptyList();
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(threads, toInspect.size()));
+        try {
+            List<CompletableFuture<NiFiFlowCacheProcessGroup>> futures = toInspect.stream()
+                .map(status -> CompletableFuture.supplyAsync(() -> inspect(status), executorService))
+                .collect(Collectors.toList());
+            return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        } catch (Exception e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw cause instanceof NiFiFlowCacheException ? (NiFiFlowCacheException) cause : new NiFiFlowCacheException("Error inspecting the NiFi flow", cause);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private NiFiFlowCacheProcessGroup inspect(NiFiFlowProcessGroupStatus status) {
+        NiFiFlowInspection inspection = new NiFiFlowInspector(status.getId(), status.getLevel(), null, restClient).inspect();
+        if (!inspection.isComplete()) {
+            throw new NiFiFlowCacheException("Unable to inspect process group " + status.getId());
+        }
+        return NiFiFlowCacheProcessGroup.fromInspection(inspection, status);
+    }
+
+    /**
+     * The reconciled process groups
+     */
+    public static class Result {
+
+        private final Map<String, NiFiFlowCacheProcessGroup> processGroups;
+
+        private final Set<ConnectionDTO> rootConnections;
+
+        private final NiFiFlowCacheRebuildStats stats;
+
+        Result(Map<String, NiFiFlowCacheProcessGroup> processGroups, Set<ConnectionDTO> rootConnections, NiFiFlowCacheRebuildStats stats) {
+            this.processGroups = processGroups;
+            this.rootConnections = rootConnections;
+            this.stats = stats;
+        }
+
+        public Map<String, NiFiFlowCacheProcessGroup> getProcessGroups() {
+            return processGroups;
+        }
+
+        /**
+         * @return the connections in the root process group, or null if the root process group was not inspected
+         */
+        public Set<ConnectionDTO> getRootConnections() {
+            return rootConnections;
+        }
+
+        public NiFiFlowCacheRebuildStats getStats() {
+            return stats;
+        }
+
+        public boolean isChanged() {
+            return stats.getProcessGroupsInspected() > 0 || stats.getProcessGroupsRemoved() > 0;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.thinkbiganalytics.feedmgr.nifi.cache;
+/*-
+ * #%L
+ * thinkbig-feed-manager-controller
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.nifi.web.api.dto.status.ConnectionStatusSnapshotDTO;
+import org.apache.nifi.web.api.dto.status.ProcessGroupStatusDTO;
+import org.apache.nifi.web.api.dto.status.ProcessGroupStatusSnapshotDTO;
+import org.apache.nifi.web.api.dto.status.ProcessorStatusSnapshotDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The structure of a NiFi process group as seen in the recursive status of the flow.
+ *
+ * NiFi does not change the revision of a process group when its contents change, so the fingerprint is a hash of the
+ * group name, the ids of its child groups, and the ids, names and endpoints of the processors and connections directly in the group.
+ * If the fingerprint of a group is unchanged since the last inspection the group does not need to be inspected again.
+ */
+public class NiFiFlowProcessGroupStatus {
+
+    private final String id;
+
+    private final String name;
+
+    private final String parentId;
+
+    private final int level;
+
+    private final String fingerprint;
+
+    public NiFiFlowProcessGroupStatus(String id, String name, String parentId, int level, String fingerprint) {
+        this.id = id;
+        this.name = name;
+        this.parentId = parentId;
+        this.level = level;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Flatten the recursive status of the flow into the status of each process group
+     *
+     * @param status the recursive status starting at the root process group
+     * @return map of the process group id to its status
+     */
+    public static Map<String, NiFiFlowProcessGroupStatus> flatten(ProcessGroupStatusDTO status) {
+        Map<String, NiFiFlowProcessGroupStatus> groups = new HashMap<>();
+        if (status != null && status.getAggregateSnapshot() != null) {
+            ProcessGroupStatusSnapshotDTO snapshot = status.getAggregateSnapshot();
+            String id = status.getId() != null ? status.getId() : snapshot.getId();
+            flatten(id, snapshot, null, 1, groups);
+        }
+        return groups;
+    }
+
+    private static void flatten(String id, ProcessGroupStatusSnapshotDTO snapshot, String parentId, int level, Map<String, NiFiFlowProcessGroupStatus> groups) {
+        if (snapshot == null) {
+            //the group could not be read.  A null fingerprint forces it to be inspected
+            groups.put(id, new NiFiFlowProcessGroupStatus(id, null, parentId, level, null));
+            return;
+        }
+        groups.put(id, new NiFiFlowProcessGroupStatus(id, snapshot.getName(), parentId, level, fingerprint(snapshot)));
+        if (snapshot.getProcessGroupStatusSnapshots() != null) {
+            snapshot.getProcessGroupStatusSnapshots().stream()
+                .filter(Objects::nonNull)
+                .forEach(child -> flatten(child.getId(), child.getProcessGroupStatusSnapshot(), id, level + 1, groups));
+        }
+    }
+
+    private static String fingerprint(ProcessGroupStatusSnapshotDTO snapshot) {
+        List<String> entries = new ArrayList<>();
+        if (snapshot.getProcessorStatusSnapshots() != null) {
+            snapshot.getProcessorStatusSnapshots().stream().forEach(e -> {
+                ProcessorStatusSnapshotDTO processor = e.getProcessorStatusSnapshot();
+                entries.add(processor != null ? "p:" + processor.getId() + ":" + StringUtils.defaultString(processor.getName()) : "p:" + e.getId() + ":?");
+            });
+        }
+        if (snapshot.getProcessGroupStatusSnapshots() != null) {
+            snapshot.getProcessGroupStatusSnapshots().stream().filter(Objects::nonNull).forEach(e -> entries.add("g:" + e.getId()));
+        }
+        if (snapshot.getConnectionStatusSnapshots() != null) {
+            snapshot.getConnectionStatusSnapshots().stream().forEach(e -> {
+                ConnectionStatusSnapshotDTO connection = e.getConnectionStatusSnapshot();
+                entries.add(connection != null ? "c:" + connection.getId() + ":" + StringUtils.defaultString(connection.getName()) + ":" + StringUtils.defaultString(connection.getSourceId())
+                                                 + ":" + StringUtils.defaultString(connection.getDestinationId()) : "c:" + e.getId() + ":?");
+            });
+        }
+        entries.sort(String::compareTo);
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        hasher.putString(StringUtils.defaultString(snapshot.getName()), StandardCharsets.UTF_8);
+        entries.forEach(entry -> hasher.putChar('\n').putString(entry, StandardCharsets.UTF_8));
+        return hasher.hash().toString();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getParentId() {
+        return parentId;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @param group the cached group
+     * @return true if the group needs to be inspected again
+     */
+    public boolean isChanged(NiFiFlowCacheProcessGroup group) {
+        return fingerprint == null || group == null || !fingerprint.equals(group.getFingerprint());
+    }
+}
@@ -116,6 +116,26 @@ public class NifiFlowCacheImpl implements ServicesApplicationStartupListener, Ni
     @Value("${nifi.flow.retry.wait.time.seconds:5}")
     private Integer nifiFlowWaitTime = 5;
 
+    /**
+     * File used to save the process groups in the cache so it can be loaded on startup without inspecting all of NiFi
+     */
+    @Value("${nifi.flow.cache.snapshot.location:/opt/kylo/nifi-flow-cache/nifi-flow-cache.json.gz}")
+    private String nifiFlowCacheSnapshotLocation = "/opt/kylo/nifi-flow-cache/nifi-flow-cache.json.gz";
+
+    private NiFiFlowCacheProcessGroupStore processGroupStore;
+
+    /**
+     * The process groups that were inspected, keyed by id.  These are compared with NiFi so only the changed groups are inspected again
+     */
+    private volatile Map<String, NiFiFlowCacheProcessGroup> processGroups = Collections.emptyMap();
+
+    private volatile NiFiFlowCacheRebuildStats rebuildStats;
+
+    /**
+     * The maps last applied to the cache from the process groups, used to remove the entries of groups that changed or were removed
+     */
+    private NiFiFlowCacheProcessGroupMaps processGroupMaps;
+
     @Deprecated
     private Map<String, Map<String, List<NifiFlowProcessor>>> feedProcessorIdProcessorMap = new ConcurrentHashMap<>();
 
@@ -230,6 +250,7 @@ public class NifiFlowCacheImpl implements ServicesApplicationStartupListener, Ni
         if (!loaded && rebuildWithRetryInProgress.get() == false) {
             log.info("Check and Initialize NiFi Flow Cache. Kylo up to date:{}, NiFi Connected:{}, Cache needs loading:{} ", isLatest, nifiConnected, !loaded);
             if (isLatest && nifiConnected && !loaded) {
+                loadSavedProcessGroups();
                 rebuildCacheWithRetry(nifiFlowMaxRetries, nifiFlowWaitTime);
             }
         }
@@ -317,59 +338,139 @@ public class NifiFlowCacheImpl implements ServicesApplicationStartupListener, Ni
 
     /**
      * Rebuild the base cache that others will update from.
+     * Every process group in NiFi is inspected again.
      */
     @Override
     public boolean rebuildAll() {
         if (rebuildWithRetryInProgress.get() == false) {
+            processGroups = Collections.emptyMap();
             return rebuildCacheWithRetry(1, 5);
         }
         return false;
     }
 
+    @Override
+    public NiFiFlowCacheRebuildStats getRebuildStats() {
+        return rebuildStats;
+    }
+
+    /**
+     * Populate the cache with the process groups saved by the last rebuild so it is available before NiFi is inspected.
+     * This is only done the first time the cache is built
+     */
+    private void loadSavedProcessGroups() {
+        if (!processGroups.isEmpty() || reloadCount.get() > 0) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Map<String, NiFiFlowCacheProcessGroup> saved = getProcessGroupStore().load();
+        if (saved == null || saved.isEmpty()) {
+            return;
+        }
+        NiFiFlowCacheProcessGroupMaps maps = new NiFiFlowCacheProcessGroupMaps(saved);
+        applyProcessGroupMaps(maps);
+        processGroups = saved;
+
+        NiFiFlowCacheRebuildStats stats = new NiFiFlowCacheRebuildStats();
+        stats.setType(NiFiFlowCacheRebuildStats.RebuildType.SNAPSHOT);
+        stats.setStartTime(start);
+        stats.setProcessGroups(saved.size());
+        stats.setSnapshotTimeMillis(System.currentTimeMillis() - start);
+        stats.setTotalTimeMillis(stats.getSnapshotTimeMillis());
+        rebuildStats = stats;
+
+        lastUpdated = DateTime.now();
+        loaded = true;
+        reloadCount.incrementAndGet();
+        log.info("Loaded the NiFi Flow Cache with {} process groups, {} feeds, {} processors and {} connections from {} in {} ms", saved.size(), maps.getFeedNames().size(),
+                 processorIdToProcessorName.size(), connectionIdCacheNameMap.size(), nifiFlowCacheSnapshotLocation, stats.getSnapshotTimeMillis());
+        notifyCacheAvailable();
+    }
+
+    private NiFiFlowCacheProcessGroupStore getProcessGroupStore() {
+        if (processGroupStore == null) {
+            processGroupStore = new NiFiFlowCacheProcessGroupStore(nifiFlowCacheSnapshotLocation);
+        }
+        return processGroupStore;
+    }
+
+    /**
+     * Replace the entries built from the previously applied process groups with the entries built from the given groups.
+     * Processors, connections and feeds of groups that were changed or removed in NiFi are dropped from the cache.
+     * Entries added outside of the process groups, such as by a feed update, are kept.
+     *
+     * @param maps the maps built from every process group in NiFi
+     */
+    private void applyProcessGroupMaps(NiFiFlowCacheProcessGroupMaps maps) {
+        NiFiFlowCacheProcessGroupMaps previous = processGroupMaps;
+        if (previous != null) {
+            removeStale(connectionIdCacheNameMap.keySet(), previous.getConnectionIdCacheNameMap().keySet(), maps.getConnectionIdCacheNameMap().keySet());
+            removeStale(connectionIdToConnectionMap.keySet(), previous.getConnectionIdToConnectionMap().keySet(), maps.getConnectionIdToConnectionMap().keySet());
+            removeStale(processorIdToFeedProcessGroupId.keySet(), previous.getProcessorIdToFeedProcessGroupId().keySet(), maps.getProcessorIdToFeedProcessGroupId().keySet());
+            removeStale(processorIdToFeedNameMap.keySet(), previous.getProcessorIdToFeedNameMap().keySet(), maps.getProcessorIdToFeedNameMap().keySet());
+            removeStale(processorIdToProcessorName.keySet(), previous.getProcessorIdToProcessorName().keySet(), maps.getProcessorIdToProcessorName().keySet());
+            removeStale(reuseableTemplateProcessorIds, previous.getReusableTemplateProcessorIds(), maps.getReusableTemplateProcessorIds());
+            removeStale(feedToInputProcessorIds.keySet(), previous.getFeedToInputProcessorIds().keySet(), maps.getFeedToInputProcessorIds().keySet());
+        }
+        connectionIdCacheNameMap.putAll(maps.getConnectionIdCacheNameMap());
+        connectionIdToConnectionMap.putAll(maps.getConnectionIdToConnectionMap());
+        processorIdToFeedProcessGroupId.putAll(maps.getProcessorIdToFeedProcessGroupId());
+        processorIdToFeedNameMap.putAll(maps.getProcessorIdToFeedNameMap());
+        processorIdToProcessorName.putAll(maps.getProcessorIdToProcessorName());
+        reuseableTemplateProcessorIds.addAll(maps.getReusableTemplateProcessorIds());
+        reusableTemplateProcessGroupId = maps.getReusableTemplateProcessGroupId();
+        feedToInputProcessorIds.putAll(maps.getFeedToInputProcessorIds());
+        if (maps.getReusableTemplateProcessGroupId() != null) {
+            niFiObjectCache.setReusableTemplateProcessGroupId(maps.getReusableTemplateProcessGroupId());
+        }
+        processGroupMaps = maps;
+    }
 
+    /**
+     * Remove the keys that were built from the previous process groups and are no longer built from the current ones
+     */
+    private void removeStale(Set<String> cached, Set<String> previous, Set<String> current) {
+        previous.stream().filter(key -> !current.contains(key)).forEach(cached::remove);
+    }
+
+    /**
+     * Bring the cache up to date with NiFi, inspecting only the process groups that changed since the last rebuild.
+     * If there are no process groups in the cache every process group is inspected.
+     */
     private void rebuildAllCache() {
-        log.info("Rebuilding the NiFi Flow Cache. Starting NiFi Flow Inspection with {} threads ...", nififlowInspectorThreads);
+        boolean full = processGroups.isEmpty();
+        log.info("{} the NiFi Flow Cache. Starting NiFi Flow Inspection with {} threads ...", full ? "Rebuilding" : "Reconciling", nififlowInspectorThreads);
         boolean notify = reloadCount.get() == 0;
-        loaded = false;
-
-        DefaultNiFiFlowCompletionCallback completionCallback = new DefaultNiFiFlowCompletionCallback();
-        NiFiFlowInspectorManager flowInspectorManager = new NiFiFlowInspectorManager.NiFiFlowInspectorManagerBuilder(nifiRestClient.getNiFiRestClient())
-            .startingProcessGroupId("root")
-            .completionCallback(completionCallback)
-            .threads(nififlowInspectorThreads)
-            .waitUntilComplete(true)
-            .buildAndInspect();
-
-        connectionIdCacheNameMap.putAll(completionCallback.getConnectionIdCacheNameMap());
-        connectionIdToConnectionMap.putAll(completionCallback.getConnectionIdToConnectionMap());
-        processorIdToFeedProcessGroupId.putAll(completionCallback.getProcessorIdToFeedProcessGroupId());
-        processorIdToFeedNameMap.putAll(completionCallback.getProcessorIdToFeedNameMap());
-        processorIdToProcessorName.putAll(completionCallback.getProcessorIdToProcessorName());
-        reuseableTemplateProcessorIds.addAll(completionCallback.getReusableTemplateProcessorIds());
-        reusableTemplateProcessGroupId = completionCallback.getReusableTemplateProcessGroupId();
-        feedToInputProcessorIds.putAll(completionCallback.getFeedToInputProcessorIds());
-
-        if (!flowInspectorManager.hasErrors()) {
-            log.info("NiFi Flow Inspection took {} ms with {} threads for {} feeds, {} processors and {} connections ", flowInspectorManager.getTotalTime(), flowInspectorManager.getThreadCount(),
-                     completionCallback.getFeedNames().size(), processorIdToProcessorName.size(), connectionIdCacheNameMap.size());
-            if (completionCallback.getRootConnections() != null) {
-                log.info("Adding {} Root Connections to the niFiObjectCache ", completionCallback.getRootConnections().size());
-                niFiObjectCache.addProcessGroupConnections(completionCallback.getRootConnections());
-            }
-            if (completionCallback.getReusableTemplateProcessGroupId() != null) {
-                niFiObjectCache.setReusableTemplateProcessGroupId(completionCallback.getReusableTemplateProcessGroupId());
-            }
-            lastUpdated = DateTime.now();
-            loaded = true;
-            reloadCount.incrementAndGet();
-            log.info("Successfully built NiFi Flow Cache");
-            if (notify) {
-                notifyCacheAvailable();
-            }
-        } else {
-            throw new NiFiFlowCacheException("Error inspecting and building the NiFi flow cache.");
+        if (full) {
+            loaded = false;
+        }
+
+        NiFiFlowCacheReconciler.Result result = new NiFiFlowCacheReconciler(nifiRestClient.getNiFiRestClient(), nififlowInspectorThreads).reconcile(processGroups);
+        NiFiFlowCacheProcessGroupMaps maps = new NiFiFlowCacheProcessGroupMaps(result.getProcessGroups());
+        applyProcessGroupMaps(maps);
+        processGroups = result.getProcessGroups();
+
+        log.info("NiFi Flow Inspection took {} ms with {} threads for {} feeds, {} processors and {} connections ", result.getStats().getInspectionTimeMillis(), nififlowInspectorThreads,
+                 maps.getFeedNames().size(), processorIdToProcessorName.size(), connectionIdCacheNameMap.size());
+        if (result.getRootConnections() != null) {
+            log.info("Adding {} Root Connections to the niFiObjectCache ", result.getRootConnections().size());
+            niFiObjectCache.addProcessGroupConnections(result.getRootConnections());
+        }
+        if (result.isChanged()) {
+            long start = System.currentTimeMillis();
+            getProcessGroupStore().save(processGroups);
+            result.getStats().setSnapshotTimeMillis(System.currentTimeMillis() - start);
         }
+        result.getStats().setTotalTimeMillis(System.currentTimeMillis() - result.getStats().getStartTime());
+        rebuildStats = result.getStats();
 
+        lastUpdated = DateTime.now();
+        loaded = true;
+        reloadCount.incrementAndGet();
+        log.info("Successfully built NiFi Flow Cache. {}", rebuildStats);
+        if (notify) {
+            notifyCacheAvailable();
+        }
     }
 
     private void notifyCacheAvailable() {
@@ -406,11 +507,9 @@ public class NifiFlowCacheImpl implements ServicesApplicationStartupListener, Ni
                 try {
                     log.info("Attempting to build the NiFiFlowCache");
                     rebuildAllCache();
-                    if (loaded) {
-                        log.info("Successfully built the NiFiFlowCache");
-                        updated = true;
-                        break;
-                    }
+                    log.info("Successfully built the NiFiFlowCache");
+                    updated = true;
+                    break;
                 } catch (final Exception e) {
                     log.error("Error attempting to build cache.  The system will attempt to retry {} more times.  Next attempt to rebuild in {} seconds.  The error was: {}. ", (retries - count),
                               waitTime,
@@ -419,7 +518,7 @@ public class NifiFlowCacheImpl implements ServicesApplicationStartupListener, Ni
                     Uninterruptibles.sleepUninterruptibly(waitTime, TimeUnit.SECONDS);
                 }
             }
-            if (!loaded) {
+            if (!updated) {
                 log.error(
                     "Unable to build the NiFi Flow Cache!  You will need to manually rebuild the cache using the following url:  http://KYLO_HOST:PORT/proxy/v1/metadata/nifi-provenance/nifi-flow-cache/reset-cache ",
                     lastError);
@@ -21,6 +21,7 @@ package com.thinkbiganalytics.feedmgr.rest.controller;
  */
 
 import com.thinkbiganalytics.feedmgr.nifi.cache.CacheSummary;
+import com.thinkbiganalytics.feedmgr.nifi.cache.NiFiFlowCacheRebuildStats;
 import com.thinkbiganalytics.feedmgr.nifi.cache.NifiFlowCache;
 import com.thinkbiganalytics.metadata.api.MetadataAccess;
 import com.thinkbiganalytics.metadata.api.jobrepo.nifi.NifiFeedProcessorStatisticsProvider;
@@ -146,6 +147,17 @@ public class NifiProvenanceRestController {
     }
 
 
+    @GET
+    @Path("/nifi-flow-cache/rebuild-stats")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation("Gets the timings and number of changed process groups for the last time the flow cache was built.")
+    @ApiResponses(
+        @ApiResponse(code = 200, message = "Returns the rebuild stats, or nothing if the cache has not been built.", response = NiFiFlowCacheRebuildStats.class)
+    )
+    public Response getRebuildStats() {
+        return Response.ok(nifiFlowCache.getRebuildStats()).build();
+    }
+
     @GET
     @Path("/nifi-flow-cache/available")
     @Produces(MediaType.APPLICATION_JSON)
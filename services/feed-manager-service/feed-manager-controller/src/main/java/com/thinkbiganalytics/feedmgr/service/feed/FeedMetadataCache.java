@@ -0,0 +1,301 @@
+package com.thinkbiganalytics.feedmgr.service.feed;
+
+/*-
+ * #%L
+ * thinkbig-feed-manager-controller
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.thinkbiganalytics.cluster.ClusterMessage;
+import com.thinkbiganalytics.cluster.ClusterService;
+import com.thinkbiganalytics.cluster.ClusterServiceMessageReceiver;
+import com.thinkbiganalytics.feedmgr.rest.model.FeedMetadata;
+import com.thinkbiganalytics.json.ObjectMapperSerializer;
+import com.thinkbiganalytics.metadata.api.event.MetadataEventListener;
+import com.thinkbiganalytics.metadata.api.event.MetadataEventService;
+import com.thinkbiganalytics.metadata.api.event.feed.FeedChange;
+import com.thinkbiganalytics.metadata.api.event.feed.FeedChangeEvent;
+import com.thinkbiganalytics.metadata.api.feed.Feed;
+
+import org.joda.time.DateTime;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+/**
+ * Caches the parsed JSON of feeds so that feeds which have not changed are not read or parsed again.
+ *
+ * <p>Entries are keyed by feed id and are only used if the feed's modified time and version name still match, since older versions of a
+ * feed share its id. Each entry holds a {@link FeedMetadata} that is never modified, for callers that only read the feed, and the JSON as a
+ * buffer of parsed tokens, from which a copy is bound for callers that modify the feed they receive.</p>
+ *
+ * <p>Entries are removed when a feed changes on this node or, through the cluster service, on another node.</p>
+ */
+public class FeedMetadataCache implements ClusterServiceMessageReceiver {
+
+    /**
+     * Type of cluster message for a changed feed
+     */
+    public static final String CLUSTER_MESSAGE_TYPE = "FeedMetadataCacheInvalidate";
+
+    /**
+     * Default maximum estimated bytes in the cache
+     */
+    private static final long DEFAULT_MAX_BYTES = 128L * 1024 * 1024;
+
+    /**
+     * Estimated bytes for each buffered token in addition to its characters, including the buffer slot and the String or number object
+     */
+    private static final int TOKEN_BYTES = 48;
+
+    /**
+     * Parsed feeds by feed id
+     */
+    @Nonnull
+    private final Cache<String, Entry> cache;
+
+    @Inject
+    private ClusterService clusterService;
+
+    /**
+     * Listens for changed feeds
+     */
+    @Nonnull
+    private final FeedChangeListener feedChangeListener = new FeedChangeListener();
+
+    /**
+     * Deserializes feeds with the same settings as {@link ObjectMapperSerializer}
+     */
+    @Nonnull
+    private final ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Inject
+    private MetadataEventService metadataEventService;
+
+    /**
+     * Constructs a {@code FeedMetadataCache} with the default maximum size.
+     */
+    public FeedMetadataCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Constructs a {@code FeedMetadataCache}.
+     *
+     * @param maxBytes the maximum estimated bytes of the cached feeds
+     */
+    public FeedMetadataCache(final long maxBytes) {
+        cache = CacheBuilder.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((String id, Entry entry) -> entry.weight)
+            .build();
+    }
+
+    /**
+     * Adds listeners for changed feeds.
+     */
+    @PostConstruct
+    public void addEventListener() {
+        metadataEventService.addListener(feedChangeListener);
+        clusterService.subscribe(this, CLUSTER_MESSAGE_TYPE);
+    }
+
+    /**
+     * Removes listeners for changed feeds.
+     */
+    @PreDestroy
+    public void removeEventListener() {
+        metadataEventService.removeListener(feedChangeListener);
+        clusterService.unsubscribe(this);
+    }
+
+    /**
+     * Deserializes the JSON of the specified feed into a new object that the caller may modify.
+     *
+     * @param domain the feed
+     * @return a new feed object
+     * @throws RuntimeException if the JSON cannot be parsed
+     */
+    @Nonnull
+    public FeedMetadata deserialize(@Nonnull final Feed domain) {
+        final Entry entry = getEntry(domain);
+        if (entry == null) {
+            return ObjectMapperSerializer.deserialize(domain.getJson(), FeedMetadata.class);
+        }
+        try {
+            return mapper.readValue(entry.tokens.asParser(), FeedMetadata.class);
+        } catch (final IOException e) {
+            throw new RuntimeException("Error de-serializing object", e);
+        }
+    }
+
+    /**
+     * Gets the deserialized JSON of the specified feed, which is shared with other callers and must not be modified.
+     *
+     * @param domain the feed
+     * @return the shared feed object
+     * @throws RuntimeException if the JSON cannot be parsed
+     */
+    @Nonnull
+    public FeedMetadata getUnmodifiable(@Nonnull final Feed domain) {
+        final Entry entry = getEntry(domain);
+        return (entry != null) ? entry.feed : ObjectMapperSerializer.deserialize(domain.getJson(), FeedMetadata.class);
+    }
+
+    /**
+     * Gets the cached entry for the specified feed, parsing its JSON if the feed is not cached or has changed.
+     *
+     * @return the entry, or {@code null} if the feed cannot be cached
+     */
+    private Entry getEntry(@Nonnull final Feed domain) {
+        final String id = (domain.getId() != null) ? domain.getId().toString() : null;
+        if (id == null) {
+            return null;
+        }
+
+        final DateTime modifiedTime = domain.getModifiedTime();
+        final long modified = (modifiedTime != null) ? modifiedTime.getMillis() : Long.MIN_VALUE;
+        final String version = domain.getVersionName();
+
+        Entry entry = cache.getIfPresent(id);
+        if (entry == null || !entry.matches(modified, version)) {
+            final String json = domain.getJson();
+            if (json == null) {
+                return null;
+            }
+            try {
+                entry = parse(modified, version, json);
+            } catch (final IOException e) {
+                throw new RuntimeException("Error de-serializing object", e);
+            }
+            cache.put(id, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Removes the specified feed from the cache.
+     *
+     * @param feedId the feed id
+     */
+    public void invalidate(@Nonnull final String feedId) {
+        cache.invalidate(feedId);
+    }
+
+    @Override
+    public void onMessageReceived(final String from, final ClusterMessage message) {
+        if (CLUSTER_MESSAGE_TYPE.equals(message.getType())) {
+            invalidate((String) message.getMessage());
+        }
+    }
+
+    /**
+     * Parses the specified JSON into a token buffer and binds the shared feed object.
+     */
+    @Nonnull
+    private Entry parse(final long modified, final String version, @Nonnull final String json) throws IOException {
+        final TokenBuffer tokens = new TokenBuffer(mapper, false);
+        int tokenCount = 0;
+        try (final JsonParser parser = mapper.getFactory().createParser(json)) {
+            for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                tokens.copyCurrentEvent(parser);
+                ++tokenCount;
+            }
+        }
+        final FeedMetadata feed = mapper.readValue(tokens.asParser(), FeedMetadata.class);
+
+        // The characters and tokens are held by the buffer, and the shared feed object holds about as much again
+        final long bytes = 2 * (json.length() * 2L + tokenCount * (long) TOKEN_BYTES);
+        return new Entry(modified, version, tokens, feed, (int) Math.min(bytes, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Parsed JSON of a feed.
+     */
+    private static class Entry {
+
+        /**
+         * Modified time of the feed
+         */
+        final long modified;
+
+        /**
+         * Version name of the feed
+         */
+        final String version;
+
+        /**
+         * Parsed JSON, for binding copies of the feed
+         */
+        @Nonnull
+        final TokenBuffer tokens;
+
+        /**
+         * Shared feed object that is never modified
+         */
+        @Nonnull
+        final FeedMetadata feed;
+
+        /**
+         * Estimated bytes held by this entry
+         */
+        final int weight;
+
+        Entry(final long modified, final String version, @Nonnull final TokenBuffer tokens, @Nonnull final FeedMetadata feed, final int weight) {
+            this.modified = modified;
+            this.version = version;
+            this.tokens = tokens;
+            this.feed = feed;
+            this.weight = weight;
+        }
+
+        /**
+         * Indicates if this entry was parsed from the specified version of the feed.
+         */
+        boolean matches(final long modified, final String version) {
+            return this.modified == modified && Objects.equals(this.version, version);
+        }
+    }
+
+    /**
+     * Removes changed feeds from this cache and the caches of other nodes.
+     */
+    private class FeedChangeListener implements MetadataEventListener<FeedChangeEvent> {
+
+        @Override
+        public void notify(@Nonnull final FeedChangeEvent metadataEvent) {
+            final FeedChange change = metadataEvent.getData();
+            if (change != null && change.getFeedId() != null) {
+                final String feedId = change.getFeedId().toString();
+                invalidate(feedId);
+                clusterService.sendMessageToOthers(CLUSTER_MESSAGE_TYPE, feedId);
+            }
+        }
+    }
+}
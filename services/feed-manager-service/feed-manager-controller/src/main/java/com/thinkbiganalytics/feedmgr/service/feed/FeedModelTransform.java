@@ -112,6 +112,9 @@ public class FeedModelTransform {
     @Inject
     private EncryptionService encryptionService;
 
+    @Inject
+    private FeedMetadataCache feedMetadataCache;
+
     /**
      *
      * @param feedMetadata
@@ -339,8 +342,7 @@ public class FeedModelTransform {
     }
 
     public FeedMetadata deserializeFeedMetadata(Feed domain, boolean clearSensitiveProperties) {
-        String json = domain.getJson();
-        FeedMetadata feedMetadata = ObjectMapperSerializer.deserialize(json, FeedMetadata.class);
+        FeedMetadata feedMetadata = feedMetadataCache.deserialize(domain);
         
         populate(feedMetadata, domain);
         
@@ -38,6 +38,7 @@ import com.thinkbiganalytics.feedmgr.service.category.CategoryModelTransform;
 import com.thinkbiganalytics.feedmgr.service.category.FeedManagerCategoryService;
 import com.thinkbiganalytics.feedmgr.service.category.InMemoryFeedManagerCategoryService;
 import com.thinkbiganalytics.feedmgr.service.feed.FeedManagerFeedService;
+import com.thinkbiganalytics.feedmgr.service.feed.FeedMetadataCache;
 import com.thinkbiganalytics.feedmgr.service.feed.FeedModelTransform;
 import com.thinkbiganalytics.feedmgr.service.feed.InMemoryFeedManagerFeedService;
 import com.thinkbiganalytics.feedmgr.service.template.FeedManagerTemplateService;
@@ -61,6 +62,7 @@ import com.thinkbiganalytics.metadata.api.MetadataRollbackCommand;
 import com.thinkbiganalytics.metadata.api.app.KyloVersionProvider;
 import com.thinkbiganalytics.metadata.api.category.CategoryProvider;
 import com.thinkbiganalytics.metadata.api.datasource.DatasourceProvider;
+import com.thinkbiganalytics.metadata.api.event.MetadataEventService;
 import com.thinkbiganalytics.metadata.api.feed.FeedProvider;
 import com.thinkbiganalytics.metadata.api.security.HadoopSecurityGroupProvider;
 import com.thinkbiganalytics.metadata.api.sla.FeedServiceLevelAgreementProvider;
@@ -384,6 +386,16 @@ public class TestSpringConfiguration {
         return new FeedModelTransform();
     }
 
+    @Bean
+    FeedMetadataCache feedMetadataCache() {
+        return new FeedMetadataCache();
+    }
+
+    @Bean
+    MetadataEventService metadataEventService() {
+        return Mockito.mock(MetadataEventService.class);
+    }
+
     @Bean
     CategoryModelTransform categoryModelTransform() {
         return new CategoryModelTransform();
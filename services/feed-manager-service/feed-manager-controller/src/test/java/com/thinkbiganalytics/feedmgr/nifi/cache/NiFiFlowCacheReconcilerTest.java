@@ -0,0 +1,349 @@
+package com.thinkbiganalytics.feedmgr.nifi.cache;
+
+/*-
+ * #%L
+ * thinkbig-feed-manager-controller
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.metadata.rest.model.nifi.NiFiFlowCacheConnectionData;
+import com.thinkbiganalytics.nifi.rest.NiFiObjectCache;
+import com.thinkbiganalytics.nifi.rest.client.LegacyNifiRestClient;
+import com.thinkbiganalytics.nifi.rest.client.NiFiProcessGroupsRestClient;
+import com.thinkbiganalytics.nifi.rest.client.NiFiRestClient;
+
+import org.apache.nifi.web.api.dto.ConnectableDTO;
+import org.apache.nifi.web.api.dto.ConnectionDTO;
+import org.apache.nifi.web.api.dto.ProcessorDTO;
+import org.apache.nifi.web.api.dto.flow.FlowBreadcrumbDTO;
+import org.apache.nifi.web.api.dto.flow.FlowDTO;
+import org.apache.nifi.web.api.dto.flow.ProcessGroupFlowDTO;
+import org.apache.nifi.web.api.dto.status.ConnectionStatusSnapshotDTO;
+import org.apache.nifi.web.api.dto.status.ProcessGroupStatusDTO;
+import org.apache.nifi.web.api.dto.status.ProcessGroupStatusSnapshotDTO;
+import org.apache.nifi.web.api.dto.status.ProcessorStatusSnapshotDTO;
+import org.apache.nifi.web.api.entity.ConnectionEntity;
+import org.apache.nifi.web.api.entity.ConnectionStatusSnapshotEntity;
+import org.apache.nifi.web.api.entity.FlowBreadcrumbEntity;
+import org.apache.nifi.web.api.entity.ProcessGroupEntity;
+import org.apache.nifi.web.api.entity.ProcessGroupStatusSnapshotEntity;
+import org.apache.nifi.web.api.entity.ProcessorEntity;
+import org.apache.nifi.web.api.entity.ProcessorStatusSnapshotEntity;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Tests the reconciliation of the NiFi flow cache with the process groups in NiFi as groups are added, changed and removed.
+ */
+public class NiFiFlowCacheReconcilerTest {
+
+    /**
+     * The process groups in NiFi, keyed by id
+     */
+    private final Map<String, Group> nifi = new LinkedHashMap<>();
+
+    private NiFiProcessGroupsRestClient processGroupsClient;
+
+    private NiFiRestClient restClient;
+
+    @Before
+    public void setUp() {
+        processGroupsClient = Mockito.mock(NiFiProcessGroupsRestClient.class);
+        Mockito.when(processGroupsClient.flowStatus(Mockito.eq("root"), Mockito.eq(true))).thenAnswer(invocation -> status("root"));
+        Mockito.when(processGroupsClient.flow(Mockito.anyString())).thenAnswer(invocation -> flow((String) invocation.getArguments()[0]));
+        restClient = Mockito.mock(NiFiRestClient.class);
+        Mockito.when(restClient.processGroups()).thenReturn(processGroupsClient);
+
+        group("root", "NiFi Flow", null);
+        group("category", "cat", "root");
+        group("feed1", "feed1", "category").processor("p1", "GetFile").processor("p2", "PutFile").connection("c1", "p1", "p2");
+        group("feed2", "feed2", "category").processor("p3", "GetFile").processor("p4", "PutFile").connection("c2", "p3", "p4");
+    }
+
+    @Test
+    public void testFullReconcileInspectsEveryGroup() {
+        NiFiFlowCacheReconciler.Result result = reconcile(Collections.emptyMap());
+
+        Assert.assertEquals(NiFiFlowCacheRebuildStats.RebuildType.FULL, result.getStats().getType());
+        Assert.assertEquals(setOf("root", "category", "feed1", "feed2"), result.getProcessGroups().keySet());
+        Assert.assertEquals(4, result.getStats().getProcessGroupsInspected());
+        Assert.assertEquals(4, result.getStats().getProcessGroupsAdded());
+        Assert.assertTrue(result.isChanged());
+        Assert.assertNotNull(result.getRootConnections());
+    }
+
+    @Test
+    public void testUnchangedGroupsAreNotInspected() {
+        NiFiFlowCacheReconciler.Result first = reconcile(Collections.emptyMap());
+        Mockito.reset(processGroupsClient);
+        Mockito.when(processGroupsClient.flowStatus(Mockito.eq("root"), Mockito.eq(true))).thenAnswer(invocation -> status("root"));
+
+        NiFiFlowCacheReconciler.Result second = reconcile(first.getProcessGroups());
+
+        Assert.assertEquals(NiFiFlowCacheRebuildStats.RebuildType.INCREMENTAL, second.getStats().getType());
+        Assert.assertEquals(first.getProcessGroups().keySet(), second.getProcessGroups().keySet());
+        Assert.assertEquals(0, second.getStats().getProcessGroupsInspected());
+        Assert.assertFalse(second.isChanged());
+        Assert.assertNull(second.getRootConnections());
+        Mockito.verify(processGroupsClient, Mockito.never()).flow(Mockito.anyString());
+    }
+
+    @Test
+    public void testAddedChangedAndRemovedGroups() {
+        NiFiFlowCacheReconciler.Result first = reconcile(Collections.emptyMap());
+
+        removeGroup("feed1");
+        nifi.get("feed2").processors.remove("p4");
+        nifi.get("feed2").processor("p5", "PutHDFS").connections.put("c2", new String[]{"p3", "p5"});
+        group("feed3", "feed3", "category").processor("p6", "GetFile");
+
+        NiFiFlowCacheReconciler.Result second = reconcile(first.getProcessGroups());
+
+        Assert.assertEquals(setOf("root", "category", "feed2", "feed3"), second.getProcessGroups().keySet());
+        //the category is inspected again as its child groups changed
+        Assert.assertEquals(3, second.getStats().getProcessGroupsInspected());
+        Assert.assertEquals(1, second.getStats().getProcessGroupsAdded());
+        Assert.assertEquals(2, second.getStats().getProcessGroupsChanged());
+        Assert.assertEquals(1, second.getStats().getProcessGroupsRemoved());
+        Assert.assertTrue(second.isChanged());
+        Assert.assertSame(first.getProcessGroups().get("root"), second.getProcessGroups().get("root"));
+        Assert.assertEquals(setOf("p3", "p5"), second.getProcessGroups().get("feed2").getProcessorIdToProcessorName().keySet());
+    }
+
+    @Test
+    public void testCacheDropsEntriesOfChangedAndRemovedGroups() {
+        NifiFlowCacheImpl cache = newCache();
+        ReflectionTestUtils.invokeMethod(cache, "rebuildAllCache");
+
+        Map<String, String> processorIdToFeedName = getField(cache, "processorIdToFeedNameMap");
+        Map<String, String> processorIdToProcessorName = getField(cache, "processorIdToProcessorName");
+        Map<String, String> processorIdToFeedProcessGroupId = getField(cache, "processorIdToFeedProcessGroupId");
+        Map<String, NiFiFlowCacheConnectionData> connections = getField(cache, "connectionIdToConnectionMap");
+        Map<String, List<String>> feedToInputProcessorIds = getField(cache, "feedToInputProcessorIds");
+        Assert.assertEquals("cat.feed1", processorIdToFeedName.get("p1"));
+        Assert.assertEquals(setOf("p1", "p2", "p3", "p4"), processorIdToProcessorName.keySet());
+        Assert.assertEquals(setOf("c1", "c2"), connections.keySet());
+        Assert.assertEquals(setOf("cat.feed1", "cat.feed2"), feedToInputProcessorIds.keySet());
+
+        //a processor added to the cache outside of the inspection, such as by a feed update
+        processorIdToProcessorName.put("external", "UpdateAttribute");
+
+        removeGroup("feed1");
+        nifi.get("feed2").processors.remove("p4");
+        nifi.get("feed2").processor("p5", "PutHDFS").connections.put("c2", new String[]{"p3", "p5"});
+        group("feed3", "feed3", "category").processor("p6", "GetFile");
+        ReflectionTestUtils.invokeMethod(cache, "rebuildAllCache");
+
+        Assert.assertEquals(setOf("p3", "p5", "p6"), processorIdToFeedName.keySet());
+        Assert.assertEquals(setOf("p3", "p5", "p6"), processorIdToFeedProcessGroupId.keySet());
+        Assert.assertEquals(setOf("p3", "p5", "p6", "external"), processorIdToProcessorName.keySet());
+        Assert.assertEquals(setOf("c2"), connections.keySet());
+        Assert.assertEquals("p5", connections.get("c2").getDestinationIdentifier());
+        Assert.assertEquals(setOf("cat.feed2", "cat.feed3"), feedToInputProcessorIds.keySet());
+    }
+
+    @Test
+    public void testCacheDropsEntriesOfMovedFeed() {
+        NifiFlowCacheImpl cache = newCache();
+        ReflectionTestUtils.invokeMethod(cache, "rebuildAllCache");
+
+        //the feed is moved to a new category
+        group("category2", "cat2", "root");
+        nifi.get("feed1").parentId = "category2";
+        ReflectionTestUtils.invokeMethod(cache, "rebuildAllCache");
+
+        Map<String, String> processorIdToFeedName = getField(cache, "processorIdToFeedNameMap");
+        Map<String, List<String>> feedToInputProcessorIds = getField(cache, "feedToInputProcessorIds");
+        Assert.assertEquals("cat2.feed1", processorIdToFeedName.get("p1"));
+        Assert.assertEquals(setOf("cat2.feed1", "cat.feed2"), feedToInputProcessorIds.keySet());
+    }
+
+    private NiFiFlowCacheReconciler.Result reconcile(Map<String, NiFiFlowCacheProcessGroup> previous) {
+        return new NiFiFlowCacheReconciler(restClient, 2).reconcile(previous);
+    }
+
+    private NifiFlowCacheImpl newCache() {
+        LegacyNifiRestClient legacyRestClient = Mockito.mock(LegacyNifiRestClient.class);
+        Mockito.when(legacyRestClient.getNiFiRestClient()).thenReturn(restClient);
+        NifiFlowCacheImpl cache = new NifiFlowCacheImpl();
+        ReflectionTestUtils.setField(cache, "nifiRestClient", legacyRestClient);
+        ReflectionTestUtils.setField(cache, "niFiObjectCache", Mockito.mock(NiFiObjectCache.class));
+        //disable saving the process groups to disk
+        ReflectionTestUtils.setField(cache, "nifiFlowCacheSnapshotLocation", "");
+        return cache;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T getField(Object target, String name) {
+        return (T) ReflectionTestUtils.getField(target, name);
+    }
+
+    private Group group(String id, String name, String parentId) {
+        Group group = new Group(id, name, parentId);
+        nifi.put(id, group);
+        return group;
+    }
+
+    private void removeGroup(String id) {
+        nifi.remove(id);
+        nifi.values().stream().filter(g -> id.equals(g.parentId)).map(g -> g.id).collect(Collectors.toList()).forEach(this::removeGroup);
+    }
+
+    private List<Group> children(String id) {
+        return nifi.values().stream().filter(g -> id.equals(g.parentId)).collect(Collectors.toList());
+    }
+
+    private ProcessGroupStatusDTO status(String id) {
+        ProcessGroupStatusDTO status = new ProcessGroupStatusDTO();
+        status.setId(id);
+        status.setAggregateSnapshot(snapshot(nifi.get(id)));
+        return status;
+    }
+
+    private ProcessGroupStatusSnapshotDTO snapshot(Group group) {
+        ProcessGroupStatusSnapshotDTO snapshot = new ProcessGroupStatusSnapshotDTO();
+        snapshot.setId(group.id);
+        snapshot.setName(group.name);
+        snapshot.setProcessorStatusSnapshots(group.processors.entrySet().stream().map(e -> {
+            ProcessorStatusSnapshotDTO processor = new ProcessorStatusSnapshotDTO();
+            processor.setId(e.getKey());
+            processor.setName(e.getValue());
+            ProcessorStatusSnapshotEntity entity = new ProcessorStatusSnapshotEntity();
+            entity.setId(e.getKey());
+            entity.setProcessorStatusSnapshot(processor);
+            return entity;
+        }).collect(Collectors.toList()));
+        snapshot.setConnectionStatusSnapshots(group.connections.entrySet().stream().map(e -> {
+            ConnectionStatusSnapshotDTO connection = new ConnectionStatusSnapshotDTO();
+            connection.setId(e.getKey());
+            connection.setSourceId(e.getValue()[0]);
+            connection.setDestinationId(e.getValue()[1]);
+            ConnectionStatusSnapshotEntity entity = new ConnectionStatusSnapshotEntity();
+            entity.setId(e.getKey());
+            entity.setConnectionStatusSnapshot(connection);
+            return entity;
+        }).collect(Collectors.toList()));
+        snapshot.setProcessGroupStatusSnapshots(children(group.id).stream().map(child -> {
+            ProcessGroupStatusSnapshotEntity entity = new ProcessGroupStatusSnapshotEntity();
+            entity.setId(child.id);
+            entity.setProcessGroupStatusSnapshot(snapshot(child));
+            return entity;
+        }).collect(Collectors.toList()));
+        return snapshot;
+    }
+
+    private ProcessGroupFlowDTO flow(String id) {
+        Group group = nifi.get(id);
+        FlowDTO flow = new FlowDTO();
+        flow.setProcessors(group.processors.entrySet().stream().map(e -> {
+            ProcessorDTO processor = new ProcessorDTO();
+            processor.setId(e.getKey());
+            processor.setName(e.getValue());
+            ProcessorEntity entity = new ProcessorEntity();
+            entity.setId(e.getKey());
+            entity.setComponent(processor);
+            return entity;
+        }).collect(Collectors.toSet()));
+        flow.setConnections(group.connections.entrySet().stream().map(e -> {
+            ConnectionDTO connection = new ConnectionDTO();
+            connection.setId(e.getKey());
+            connection.setSource(connectable(e.getValue()[0]));
+            connection.setDestination(connectable(e.getValue()[1]));
+            ConnectionEntity entity = new ConnectionEntity();
+            entity.setId(e.getKey());
+            entity.setComponent(connection);
+            return entity;
+        }).collect(Collectors.toSet()));
+        flow.setProcessGroups(children(id).stream().map(child -> {
+            ProcessGroupEntity entity = new ProcessGroupEntity();
+            entity.setId(child.id);
+            return entity;
+        }).collect(Collectors.toSet()));
+
+        FlowBreadcrumbDTO breadcrumb = new FlowBreadcrumbDTO();
+        breadcrumb.setId(id);
+        breadcrumb.setName(group.name);
+        FlowBreadcrumbEntity breadcrumbEntity = new FlowBreadcrumbEntity();
+        breadcrumbEntity.setBreadcrumb(breadcrumb);
+
+        ProcessGroupFlowDTO processGroupFlow = new ProcessGroupFlowDTO();
+        processGroupFlow.setId(id);
+        processGroupFlow.setBreadcrumb(breadcrumbEntity);
+        processGroupFlow.setFlow(flow);
+        return processGroupFlow;
+    }
+
+    private static ConnectableDTO connectable(String id) {
+        ConnectableDTO connectable = new ConnectableDTO();
+        connectable.setId(id);
+        connectable.setType("PROCESSOR");
+        return connectable;
+    }
+
+    private static Set<String> setOf(String... values) {
+        Set<String> set = new HashSet<>();
+        Collections.addAll(set, values);
+        return set;
+    }
+
+    /**
+     * A process group in NiFi
+     */
+    private static class Group {
+
+        private final String id;
+
+        private final String name;
+
+        private String parentId;
+
+        private final Map<String, String> processors = new HashMap<>();
+
+        /**
+         * The source and destination of each connection, keyed by connection id
+         */
+        private final Map<String, String[]> connections = new HashMap<>();
+
+        Group(String id, String name, String parentId) {
+            this.id = id;
+            this.name = name;
+            this.parentId = parentId;
+        }
+
+        Group processor(String id, String name) {
+            processors.put(id, name);
+            return this;
+        }
+
+        Group connection(String id, String sourceId, String destinationId) {
+            connections.put(id, new String[]{sourceId, destinationId});
+            return this;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.thinkbiganalytics.feedmgr.service.feed;
+
+/*-
+ * #%L
+ * thinkbig-feed-manager-controller
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.google.common.cache.Cache;
+import com.thinkbiganalytics.cluster.ClusterMessage;
+import com.thinkbiganalytics.cluster.ClusterService;
+import com.thinkbiganalytics.feedmgr.rest.model.FeedMetadata;
+import com.thinkbiganalytics.metadata.api.event.MetadataChange;
+import com.thinkbiganalytics.metadata.api.event.MetadataEventListener;
+import com.thinkbiganalytics.metadata.api.event.MetadataEventService;
+import com.thinkbiganalytics.metadata.api.event.feed.FeedChange;
+import com.thinkbiganalytics.metadata.api.event.feed.FeedChangeEvent;
+import com.thinkbiganalytics.metadata.api.feed.Feed;
+
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.Serializable;
+
+public class FeedMetadataCacheTest {
+
+    private static final DateTime MODIFIED = new DateTime(2017, 6, 15, 13, 45, 0, 0);
+
+    private final FeedMetadataCache feedMetadataCache = new FeedMetadataCache();
+
+    private final ClusterService clusterService = Mockito.mock(ClusterService.class);
+
+    private final MetadataEventService metadataEventService = Mockito.mock(MetadataEventService.class);
+
+    private final Feed.ID feedId = new TestFeedId("feed-1");
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(feedMetadataCache, "clusterService", clusterService);
+        ReflectionTestUtils.setField(feedMetadataCache, "metadataEventService", metadataEventService);
+        feedMetadataCache.addEventListener();
+    }
+
+    @Test
+    public void testHitReturnsNewCopy() {
+        final FeedMetadata first = feedMetadataCache.deserialize(feed("{\"feedName\":\"feed1\"}", MODIFIED));
+        final Object entry = cachedEntry();
+        first.setFeedName("modified by caller");
+
+        final FeedMetadata second = feedMetadataCache.deserialize(feed("{\"feedName\":\"feed1\"}", MODIFIED));
+
+        Assert.assertSame(entry, cachedEntry());
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals("feed1", second.getFeedName());
+    }
+
+    @Test
+    public void testHitDoesNotReadJson() {
+        feedMetadataCache.deserialize(feed("{\"feedName\":\"feed1\"}", MODIFIED));
+        final Feed feed = feed("{\"feedName\":\"feed1\"}", MODIFIED);
+
+        Assert.assertEquals("feed1", feedMetadataCache.deserialize(feed).getFeedName());
+        Assert.assertEquals("feed1", feedMetadataCache.getUnmodifiable(feed).getFeedName());
+        Mockito.verify(feed, Mockito.never()).getJson();
+    }
+
+    @Test
+    public void testUnmodifiableIsShared() {
+        final FeedMetadata first = feedMetadataCache.getUnmodifiable(feed("{\"feedName\":\"feed1\"}", MODIFIED));
+        final FeedMetadata copy = feedMetadataCache.deserialize(feed("{\"feedName\":\"feed1\"}", MODIFIED));
+
+        Assert.assertSame(first, feedMetadataCache.getUnmodifiable(feed("{\"feedName\":\"feed1\"}", MODIFIED)));
+        Assert.assertNotSame(first, copy);
+    }
+
+    @Test
+    public void testMissWhenVersionChanges() {
+        feedMetadataCache.deserialize(feed("{\"feedName\":\"feed1\"}", MODIFIED));
+        final Object entry = cachedEntry();
+
+        final Feed version = feed("{\"feedName\":\"feed2\"}", MODIFIED);
+        Mockito.when(version.getVersionName()).thenReturn("1.1");
+        final FeedMetadata changed = feedMetadataCache.deserialize(version);
+
+        Assert.assertNotSame(entry, cachedEntry());
+        Assert.assertEquals("feed2", changed.getFeedName());
+    }
+
+    @Test
+    public void testMissWhenModifiedTimeChanges() {
+        feedMetadataCache.deserialize(feed("{\"feedName\":\"feed1\"}", MODIFIED));
+        final Object entry = cachedEntry();
+
+        feedMetadataCache.deserialize(feed("{\"feedName\":\"feed1\"}", MODIFIED.plusSeconds(1)));
+
+        Assert.assertNotSame(entry, cachedEntry());
+    }
+
+    @Test
+    public void testFeedWithoutIdIsNotCached() {
+        final Feed feed = feed("{\"feedName\":\"feed1\"}", MODIFIED);
+        Mockito.when(feed.getId()).thenReturn(null);
+
+        Assert.assertEquals("feed1", feedMetadataCache.deserialize(feed).getFeedName());
+        Assert.assertEquals(0, cache().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFeedChangeInvalidatesAndNotifiesCluster() {
+        final ArgumentCaptor<MetadataEventListener> listener = ArgumentCaptor.forClass(MetadataEventListener.class);
+        Mockito.verify(metadataEventService).addListener(listener.capture());
+        feedMetadataCache.deserialize(feed("{\"feedName\":\"feed1\"}", MODIFIED));
+
+        listener.getValue().notify(new FeedChangeEvent(new FeedChange(MetadataChange.ChangeType.UPDATE, feedId, Feed.State.ENABLED)));
+
+        Assert.assertNull(cachedEntry());
+        Mockito.verify(clusterService).sendMessageToOthers(FeedMetadataCache.CLUSTER_MESSAGE_TYPE, "feed-1");
+    }
+
+    @Test
+    public void testClusterMessageInvalidates() {
+        Mockito.verify(clusterService).subscribe(feedMetadataCache, FeedMetadataCache.CLUSTER_MESSAGE_TYPE);
+        feedMetadataCache.deserialize(feed("{\"feedName\":\"feed1\"}", MODIFIED));
+
+        feedMetadataCache.onMessageReceived("other-node", message("OtherType", "feed-1"));
+        Assert.assertNotNull(cachedEntry());
+
+        feedMetadataCache.onMessageReceived("other-node", message(FeedMetadataCache.CLUSTER_MESSAGE_TYPE, "feed-1"));
+        Assert.assertNull(cachedEntry());
+        Mockito.verify(clusterService, Mockito.never()).sendMessageToOthers(Mockito.anyString(), Mockito.any(Serializable.class));
+    }
+
+    @Test
+    public void testRemoveEventListenerUnsubscribes() {
+        feedMetadataCache.removeEventListener();
+
+        Mockito.verify(metadataEventService).removeListener(Mockito.any());
+        Mockito.verify(clusterService).unsubscribe(feedMetadataCache);
+    }
+
+    private Feed feed(final String json, final DateTime modifiedTime) {
+        final Feed feed = Mockito.mock(Feed.class);
+        Mockito.when(feed.getId()).thenReturn(feedId);
+        Mockito.when(feed.getJson()).thenReturn(json);
+        Mockito.when(feed.getModifiedTime()).thenReturn(modifiedTime);
+        return feed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<String, Object> cache() {
+        return (Cache<String, Object>) ReflectionTestUtils.getField(feedMetadataCache, "cache");
+    }
+
+    private Object cachedEntry() {
+        return cache().getIfPresent("feed-1");
+    }
+
+    private static ClusterMessage message(final String type, final String feedId) {
+        final ClusterMessage message = Mockito.mock(ClusterMessage.class);
+        Mockito.when(message.getType()).thenReturn(type);
+        Mockito.when(message.getMessage()).thenReturn(feedId);
+        return message;
+    }
+
+    private static class TestFeedId implements Feed.ID {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String id;
+
+        TestFeedId(final String id) {
+            this.id = id;
+        }
+
+        @Override
+        public String toString() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.thinkbiganalytics.feedmgr.nifi.cache;
+
+/*-
+ * #%L
+ * kylo-feed-manager-nifi-cache-api
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Timings and the number of process groups that changed for the last time the NiFi flow cache was built
+ */
+public class NiFiFlowCacheRebuildStats {
+
+    public enum RebuildType {
+        /**
+         * Every process group was inspected
+         */
+        FULL,
+        /**
+         * Only new and changed process groups were inspected
+         */
+        INCREMENTAL,
+        /**
+         * The cache was loaded from the persisted snapshot
+         */
+        SNAPSHOT
+    }
+
+    private RebuildType type;
+
+    private long startTime;
+
+    private long totalTimeMillis;
+
+    private long statusTimeMillis;
+
+    private long inspectionTimeMillis;
+
+    private long snapshotTimeMillis;
+
+    private int processGroups;
+
+    private int processGroupsInspected;
+
+    private int processGroupsAdded;
+
+    private int processGroupsChanged;
+
+    private int processGroupsRemoved;
+
+    public RebuildType getType() {
+        return type;
+    }
+
+    public void setType(RebuildType type) {
+        this.type = type;
+    }
+
+    /**
+     * @return when the rebuild started, in millis
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    public long getTotalTimeMillis() {
+        return totalTimeMillis;
+    }
+
+    public void setTotalTimeMillis(long totalTimeMillis) {
+        this.totalTimeMillis = totalTimeMillis;
+    }
+
+    /**
+     * @return the time taken to get the status of every process group from NiFi, used to detect changed process groups
+     */
+    public long getStatusTimeMillis() {
+        return statusTimeMillis;
+    }
+
+    public void setStatusTimeMillis(long statusTimeMillis) {
+        this.statusTimeMillis = statusTimeMillis;
+    }
+
+    /**
+     * @return the time taken to inspect the new and changed process groups
+     */
+    public long getInspectionTimeMillis() {
+        return inspectionTimeMillis;
+    }
+
+    public void setInspectionTimeMillis(long inspectionTimeMillis) {
+        this.inspectionTimeMillis = inspectionTimeMillis;
+    }
+
+    /**
+     * @return the time taken to load or save the persisted snapshot
+     */
+    public long getSnapshotTimeMillis() {
+        return snapshotTimeMillis;
+    }
+
+    public void setSnapshotTimeMillis(long snapshotTimeMillis) {
+        this.snapshotTimeMillis = snapshotTimeMillis;
+    }
+
+    public int getProcessGroups() {
+        return processGroups;
+    }
+
+    public void setProcessGroups(int processGroups) {
+        this.processGroups = processGroups;
+    }
+
+    public int getProcessGroupsInspected() {
+        return processGroupsInspected;
+    }
+
+    public void setProcessGroupsInspected(int processGroupsInspected) {
+        this.processGroupsInspected = processGroupsInspected;
+    }
+
+    public int getProcessGroupsAdded() {
+        return processGroupsAdded;
+    }
+
+    public void setProcessGroupsAdded(int processGroupsAdded) {
+        this.processGroupsAdded = processGroupsAdded;
+    }
+
+    public int getProcessGroupsChanged() {
+        return processGroupsChanged;
+    }
+
+    public void setProcessGroupsChanged(int processGroupsChanged) {
+        this.processGroupsChanged = processGroupsChanged;
+    }
+
+    public int getProcessGroupsRemoved() {
+        return processGroupsRemoved;
+    }
+
+    public void setProcessGroupsRemoved(int processGroupsRemoved) {
+        this.processGroupsRemoved = processGroupsRemoved;
+    }
+
+    @Override
+    public String toString() {
+        return "NiFiFlowCacheRebuildStats{" +
+               "type=" + type +
+               ", totalTimeMillis=" + totalTimeMillis +
+               ", statusTimeMillis=" + statusTimeMillis +
+               ", inspectionTimeMillis=" + inspectionTimeMillis +
+               ", snapshotTimeMillis=" + snapshotTimeMillis +
+               ", processGroups=" + processGroups +
+               ", processGroupsInspected=" + processGroupsInspected +
+               ", processGroupsAdded=" + processGroupsAdded +
+               ", processGroupsChanged=" + processGroupsChanged +
+               ", processGroupsRemoved=" + processGroupsRemoved +
+               '}';
+    }
+}
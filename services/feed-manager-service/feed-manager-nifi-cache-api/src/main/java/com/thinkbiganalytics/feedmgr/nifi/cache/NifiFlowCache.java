@@ -60,6 +60,11 @@ public interface NifiFlowCache {
 
     NiFiFlowCacheSync refreshAll(String syncId);
 
+    /**
+     * @return timings and the number of changed process groups for the last time the cache was built
+     */
+    NiFiFlowCacheRebuildStats getRebuildStats();
+
     @Deprecated
     void updateFlow(FeedMetadata feedMetadata, NifiFlowProcessGroup feedProcessGroup);
 
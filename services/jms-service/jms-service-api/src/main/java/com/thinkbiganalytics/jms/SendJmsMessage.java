@@ -27,6 +27,7 @@ import org.springframework.jms.core.JmsMessagingTemplate;
 import org.springframework.stereotype.Component;
 
 import java.io.Serializable;
+import java.util.Map;
 
 @Component
 public class SendJmsMessage {
@@ -39,4 +40,15 @@ public class SendJmsMessage {
         jmsMessagingTemplate.convertAndSend(queueName, obj);
     }
 
+    /**
+     * Send an already encoded payload with the given message headers
+     *
+     * @param queueName the queue
+     * @param payload   the encoded payload, sent as a bytes message
+     * @param headers   the message headers
+     */
+    public void sendBytesToQueue(String queueName, final byte[] payload, Map<String, Object> headers) throws JmsException {
+        jmsMessagingTemplate.convertAndSend(queueName, payload, headers);
+    }
+
 }
@@ -28,6 +28,7 @@ import com.thinkbiganalytics.jobrepo.query.model.JobStatusCount;
 import com.thinkbiganalytics.metadata.cache.CacheService;
 import com.thinkbiganalytics.metadata.cache.CategoryFeedService;
 import com.thinkbiganalytics.metadata.cache.Dashboard;
+import com.thinkbiganalytics.metadata.cache.DashboardResponseCache;
 import com.thinkbiganalytics.metadata.cache.FeedHealthSummaryCache;
 import com.thinkbiganalytics.rest.model.search.SearchResult;
 
@@ -48,7 +49,10 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -68,6 +72,9 @@ public class DashboardController {
     @Inject
     private CategoryFeedService categoryFeedService;
 
+    @Inject
+    private DashboardResponseCache dashboardResponseCache;
+
 
     @GET
     @Path("/data-confidence/summary")
@@ -168,18 +175,36 @@ public class DashboardController {
         return cacheService.getUserAlertSummaryForFeedName(feedName);
     }
 
+    /**
+     * Returns the dashboard for the current user.
+     * Users with the same feed access share the same serialized dashboard, and a client sending the ETag of an unchanged dashboard in If-None-Match gets a 304.
+     * The ETag is weak since the time since values in the dashboard move on while the data is unchanged.
+     */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @ApiOperation("Get dashboard containing service health,feed health, data confidence, and unhandled alerts summary")
-    @ApiResponses(
-        @ApiResponse(code = 200, message = "Returns the dashboard.", response = Dashboard.class)
-    )
-    public Dashboard getDashboard(@Context HttpServletRequest request, @QueryParam("sort") @DefaultValue("") String sort,
-                                  @QueryParam("limit") @DefaultValue("10") Integer limit,
-                                  @QueryParam("start") @DefaultValue("0") Integer start,
-                                  @QueryParam("fixedFilter") String fixedFilter,
-                                  @QueryParam("filter") String filter) {
-        return cacheService.getDashboard(new FeedHealthSummaryCache.FeedSummaryFilter(fixedFilter, filter, null, limit, start, sort));
+    @ApiResponses({
+                      @ApiResponse(code = 200, message = "Returns the dashboard.", response = Dashboard.class),
+                      @ApiResponse(code = 304, message = "The dashboard has not changed.")
+                  })
+    public Response getDashboard(@Context HttpServletRequest request, @Context Request jaxRsRequest, @QueryParam("sort") @DefaultValue("") String sort,
+                                 @QueryParam("limit") @DefaultValue("10") Integer limit,
+                                 @QueryParam("start") @DefaultValue("0") Integer start,
+                                 @QueryParam("fixedFilter") String fixedFilter,
+                                 @QueryParam("filter") String filter) {
+        FeedHealthSummaryCache.FeedSummaryFilter feedSummaryFilter = new FeedHealthSummaryCache.FeedSummaryFilter(fixedFilter, filter, null, limit, start, sort);
+        String eTag = dashboardResponseCache.getETag(feedSummaryFilter);
+        if (eTag != null) {
+            Response.ResponseBuilder notModified = jaxRsRequest.evaluatePreconditions(new EntityTag(eTag, true));
+            if (notModified != null) {
+                return notModified.build();
+            }
+        }
+        DashboardResponseCache.DashboardResponse dashboardResponse = dashboardResponseCache.getDashboard(feedSummaryFilter);
+        if (dashboardResponse == null) {
+            return Response.ok(Dashboard.NOT_READY, MediaType.APPLICATION_JSON_TYPE).build();
+        }
+        return Response.ok(dashboardResponse.getJson(), MediaType.APPLICATION_JSON_TYPE).tag(new EntityTag(dashboardResponse.getETag(), true)).build();
     }
 
 
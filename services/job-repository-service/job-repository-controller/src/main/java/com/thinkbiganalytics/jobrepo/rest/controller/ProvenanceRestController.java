@@ -19,6 +19,7 @@ package com.thinkbiganalytics.jobrepo.rest.controller;
  * #L%
  */
 import com.thinkbiganalytics.metadata.jobrepo.nifi.provenance.NifiStatsJmsReceiver;
+import com.thinkbiganalytics.metadata.jobrepo.nifi.provenance.ProvenanceEventJobExecutionLockManager;
 import com.thinkbiganalytics.metadata.jobrepo.nifi.provenance.ProvenanceEventReceiver;
 import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTO;
 import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTOHolder;
@@ -31,9 +32,11 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
@@ -57,6 +60,9 @@ public class ProvenanceRestController {
     @Inject
     NifiStatsJmsReceiver statsJmsReceiver;
 
+    @Inject
+    ProvenanceEventJobExecutionLockManager jobExecutionLockManager;
+
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
@@ -87,4 +93,16 @@ public class ProvenanceRestController {
 
     }
 
+    @GET
+    @Path("/lock-statistics")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation("Gets the time spent waiting on the job execution lock when processing provenance events, by feed")
+    @ApiResponses(
+        @ApiResponse(code = 200, message = "Returns the wait time and contention by feed", response = Map.class)
+    )
+    public Response getLockStatistics() {
+        Map<String, ProvenanceEventJobExecutionLockManager.FeedLockStatistics> statistics = jobExecutionLockManager.getFeedLockStatistics();
+        return Response.ok(statistics).build();
+    }
+
 }
@@ -24,6 +24,8 @@ import com.thinkbiganalytics.metadata.rest.model.sla.ServiceLevelAssessmentTrans
 import com.thinkbiganalytics.rest.model.search.SearchResult;
 import com.thinkbiganalytics.jobrepo.query.model.transform.ModelUtils;
 import com.thinkbiganalytics.metadata.api.MetadataAccess;
+import com.thinkbiganalytics.metadata.sla.ServiceLevelAgreementCheckBatcher;
+import com.thinkbiganalytics.metadata.sla.ServiceLevelAgreementCheckStatistics;
 import com.thinkbiganalytics.metadata.sla.spi.ServiceLevelAssessmentProvider;
 import com.thinkbiganalytics.rest.model.RestResponseStatus;
 
@@ -61,6 +63,9 @@ public class ServiceLevelAssessmentsController {
     @Inject
     private MetadataAccess metadataAccess;
 
+    @Inject
+    private ServiceLevelAgreementCheckBatcher slaCheckBatcher;
+
 
     @GET
     @Path("/")
@@ -85,6 +90,17 @@ public class ServiceLevelAssessmentsController {
 
     }
 
+    @GET
+    @Path("/statistics")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation("Gets the cost of the SLA checks and the time taken to assess SLAs after their feed jobs complete")
+    @ApiResponses(
+        @ApiResponse(code = 200, message = "Returns the SLA check statistics", response = ServiceLevelAgreementCheckStatistics.class)
+    )
+    public ServiceLevelAgreementCheckStatistics getStatistics() {
+        return slaCheckBatcher.getStatistics();
+    }
+
     @GET
     @Path("/{assessmentId}")
     @Produces(MediaType.APPLICATION_JSON)
@@ -37,6 +37,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Created by sr186054 on 8/3/17.
@@ -62,16 +63,29 @@ public class DefaultAlertCriteria extends BaseAlertCriteria {
 
         // When limiting and using "after" criteria only, we need to sort ascending to get the next n values after the given id/time.
         // In all other cases sort descending. The results will be ordered correctly when aggregated by the provider.
-        if (getLimit() != Integer.MAX_VALUE && getAfterTime() != null && getBeforeTime() == null) {
+        if (isAscending()) {
             query.orderBy(alert.createdTime.asc());
         } else {
-            query.orderBy(alert.createdTime.desc());
+            query.orderBy(alert.createdTime.desc(), alert.id.value.desc());
         }
 
         return addWhere(query,preds,orFilter);
 
     }
 
+    /**
+     * Indicates if the query returns the oldest alerts first instead of the newest first.
+     */
+    public boolean isAscending() {
+        return getLimit() != Integer.MAX_VALUE && getAfterTime() != null && getBeforeTime() == null && getContinueAfterTime() == null;
+    }
+
+    @Override
+    protected int getLimit() {
+        // Overridden so the limit is visible to the alert manager
+        return super.getLimit();
+    }
+
 
 
     public JPAQuery<AlertSummary> createSummaryQuery() {
@@ -167,6 +181,15 @@ public class DefaultAlertCriteria extends BaseAlertCriteria {
         if (getBeforeTime() != null) {
             preds.add(alert.createdTime.lt(getBeforeTime()));
         }
+        if (getContinueAfterTime() != null) {
+            if (getContinueAfterId() instanceof JpaAlert.AlertId) {
+                UUID lastId = ((JpaAlert.AlertId) getContinueAfterId()).getUuid();
+                preds.add(alert.createdTime.lt(getContinueAfterTime())
+                              .or(alert.createdTime.eq(getContinueAfterTime()).and(alert.id.value.lt(lastId))));
+            } else {
+                preds.add(alert.createdTime.lt(getContinueAfterTime()));
+            }
+        }
         if (!isIncludeCleared()) {
             preds.add(alert.cleared.isFalse());
         }
@@ -23,7 +23,9 @@ package com.thinkbiganalytics.alerts.spi.defaults;
  * #L%
  */
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import com.thinkbiganalytics.alerts.api.Alert;
 import com.thinkbiganalytics.alerts.api.Alert.Level;
@@ -33,6 +35,7 @@ import com.thinkbiganalytics.alerts.api.AlertCriteria;
 import com.thinkbiganalytics.alerts.api.AlertNotfoundException;
 import com.thinkbiganalytics.alerts.api.AlertResponse;
 import com.thinkbiganalytics.alerts.api.AlertSummary;
+import com.thinkbiganalytics.alerts.api.CoalescedAlert;
 import com.thinkbiganalytics.alerts.service.ServiceStatusAlerts;
 import com.thinkbiganalytics.alerts.sla.AssessmentAlerts;
 import com.thinkbiganalytics.alerts.spi.AlertDescriptor;
@@ -54,6 +57,7 @@ import com.thinkbiganalytics.security.role.SecurityRole;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.jpa.repository.support.QueryDslRepositorySupport;
 import org.springframework.security.core.context.SecurityContextHolder;
 
@@ -61,17 +65,25 @@ import java.io.Serializable;
 import java.net.URI;
 import java.security.Principal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
 /**
@@ -81,6 +93,16 @@ public class DefaultAlertManager extends QueryDslRepositorySupport implements Al
 
     private static final Logger log = LoggerFactory.getLogger(DefaultAlertManager.class);
 
+    /**
+     * Default number of alerts read in each transaction
+     */
+    public static final int DEFAULT_PAGE_SIZE = 500;
+
+    /**
+     * Interval between writes of the occurrences of coalesced alerts
+     */
+    private static final long OCCURRENCES_FLUSH_MILLIS = 1000;
+
 
     @Inject
     private JPAQueryFactory queryFactory;
@@ -100,6 +122,11 @@ public class DefaultAlertManager extends QueryDslRepositorySupport implements Al
 
     private Long previousUpdatedTime;
 
+    /**
+     * Number of alerts read in each transaction when iterating over the results of a query
+     */
+    private int pageSize = DEFAULT_PAGE_SIZE;
+
     /**
      * Map of the latest alerts summary for a given criteria
      */
@@ -110,10 +137,41 @@ public class DefaultAlertManager extends QueryDslRepositorySupport implements Al
      */
     private Map<String, AlertsCache> latestAlerts = new ConcurrentHashMap<>();
 
+    /**
+     * Time after an alert is created during which the same alert is counted as another occurrence instead of being created again.  Zero disables coalescing.
+     */
+    @Value("${kylo.alerts.coalesce.window.seconds:60}")
+    private long coalesceWindowSeconds = 60;
+
+    /**
+     * Map of the coalesce key to the occurrences of the alert created for that key
+     */
+    private final Map<List<Object>, AlertOccurrences> openWindows = new ConcurrentHashMap<>();
+
+    /**
+     * Windows replaced by a newer window for the same key whose occurrences may not have been written yet
+     */
+    private final Set<AlertOccurrences> replacedWindows = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Writes the occurrences of coalesced alerts
+     */
+    private ScheduledExecutorService occurrencesExecutor;
+
 
     @PostConstruct
     private void init() {
         clusterService.subscribe(this,AlertManagerChangedClusterMessage.TYPE);
+        occurrencesExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true).setNameFormat("alert-occurrences-%d").build());
+        occurrencesExecutor.scheduleWithFixedDelay(this::flushOccurrences, OCCURRENCES_FLUSH_MILLIS, OCCURRENCES_FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    private void destroy() {
+        if (occurrencesExecutor != null) {
+            occurrencesExecutor.shutdown();
+        }
+        flushOccurrences();
     }
 
     @Override
@@ -121,6 +179,13 @@ public class DefaultAlertManager extends QueryDslRepositorySupport implements Al
         return id;
     }
 
+    /**
+     * @param pageSize the number of alerts read in each transaction when iterating over the results of a query
+     */
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
     /**
      * @param repo
      */
@@ -239,17 +304,15 @@ public class DefaultAlertManager extends QueryDslRepositorySupport implements Al
             return new ArrayList(latestAlerts.get(criteria.toString()).getAlertList()).iterator();
         }
         log.debug("Query for Alerts data");
-        List<Alert> alerts = this.metadataAccess.read(() -> {
-            DefaultAlertCriteria critImpl = ensureAlertCriteriaType(criteria);
-            return critImpl.createQuery().fetch().stream()
-                .map(a -> asValue(a))
-                .collect(Collectors.toList());
-        }, principal);
+        DefaultAlertCriteria critImpl = ensureAlertCriteriaType(criteria);
+        Iterator<Alert> alerts = new AlertPageIterator((DefaultAlertCriteria) critImpl.transfer(criteria()), principal);
 
         if (criteria.isOnlyIfChangesDetected()) {
-            latestAlerts.put(criteria.toString(), new AlertsCache(now, alerts));
+            List<Alert> alertList = Lists.newArrayList(alerts);
+            latestAlerts.put(criteria.toString(), new AlertsCache(now, alertList));
+            return alertList.iterator();
         }
-        return alerts.iterator();
+        return alerts;
     }
 
     public Set<String> getAlertTypes() {
@@ -317,8 +380,53 @@ public class DefaultAlertManager extends QueryDslRepositorySupport implements Al
         }
         final String finalSubType = subtype;
 
+        // Count a repeat of a recent alert instead of creating another one
+        final long now = DateTime.now().getMillis();
+        if (coalesceWindowSeconds <= 0) {
+            return insert(type, finalSubType, level, user, description, content);
+        }
+        final List<Object> coalesceKey = coalesceKey(type, finalSubType, level, content);
+
+        while (true) {
+            // Claim the window before inserting so concurrent repeats wait for this alert rather than creating their own
+            final AlertOccurrences claimed = new AlertOccurrences(now + TimeUnit.SECONDS.toMillis(coalesceWindowSeconds));
+            final AlertOccurrences occurrences = openWindows.compute(coalesceKey, (key, existing) -> {
+                if (existing != null && existing.isOpen(now)) {
+                    return existing;
+                }
+                if (existing != null && existing.alert != null) {
+                    replacedWindows.add(existing);
+                }
+                return claimed;
+            });
+
+            if (occurrences != claimed) {
+                occurrences.add(now);
+                Alert alert = occurrences.awaitAlert();
+                if (alert != null) {
+                    return alert;
+                }
+                // The insert of the alert that claimed the window failed; claim it again
+                continue;
+            }
+
+            Alert created = null;
+            try {
+                created = insert(type, finalSubType, level, user, description, content);
+                claimed.created(created);
+                return created;
+            } finally {
+                if (created == null) {
+                    openWindows.remove(coalesceKey, claimed);
+                    claimed.failed();
+                }
+            }
+        }
+    }
+
+    private <C extends Serializable> Alert insert(URI type, String subtype, Level level, Principal user, String description, C content) {
         Alert created = this.metadataAccess.commit(() -> {
-            JpaAlert alert = new JpaAlert(type, finalSubType, level, user, description, content);
+            JpaAlert alert = new JpaAlert(type, subtype, level, user, description, content);
             this.repository.save(alert);
             return asValue(alert);
         }, MetadataAccess.SERVICE);
@@ -328,6 +436,96 @@ public class DefaultAlertManager extends QueryDslRepositorySupport implements Al
         return created;
     }
 
+    /**
+     * Sets the time after an alert is created during which the same alert is counted as another occurrence.
+     *
+     * @param coalesceWindowSeconds the window in seconds, or zero to always create alerts
+     */
+    public void setCoalesceWindowSeconds(long coalesceWindowSeconds) {
+        this.coalesceWindowSeconds = coalesceWindowSeconds;
+    }
+
+    /**
+     * Writes the occurrences counted since the last flush to the coalesced alerts, in a single transaction.  If the transaction fails then the
+     * occurrences are counted again and written by a later flush.
+     */
+    protected void flushOccurrences() {
+        final long now = DateTime.now().getMillis();
+        final Map<AlertOccurrences, Integer> counts = new HashMap<>();
+        final Map<List<Object>, AlertOccurrences> expired = new HashMap<>();
+        final Set<AlertOccurrences> replaced = new HashSet<>(replacedWindows);
+
+        openWindows.forEach((key, occurrences) -> {
+            if (occurrences.alert == null) {
+                // The alert is still being inserted; its occurrences are written by a later flush
+                return;
+            }
+            // Closed windows are kept until any occurrences added while they were closing have been counted
+            if (now > occurrences.windowEnd + OCCURRENCES_FLUSH_MILLIS) {
+                expired.put(key, occurrences);
+            }
+            takeOccurrences(occurrences, counts);
+        });
+        replaced.forEach(occurrences -> takeOccurrences(occurrences, counts));
+
+        if (!counts.isEmpty()) {
+            try {
+                this.metadataAccess.commit(() -> {
+                    counts.forEach((occurrences, count) -> {
+                        JpaAlert alert = repository.findOne((JpaAlert.AlertId) occurrences.alert.getId());
+                        if (alert != null) {
+                            alert.addOccurrences(count, new DateTime(occurrences.lastSeenTime));
+                        }
+                    });
+                }, MetadataAccess.SERVICE);
+                updateLastUpdatedTime();
+            } catch (Exception e) {
+                counts.forEach((occurrences, count) -> occurrences.pending.addAndGet(count));
+                log.error("Unable to record {} occurrences of {} alerts", counts.values().stream().mapToInt(Integer::intValue).sum(), counts.size(), e);
+                return;
+            }
+        }
+
+        expired.forEach(openWindows::remove);
+        replaced.stream()
+            .filter(occurrences -> now > occurrences.windowEnd + OCCURRENCES_FLUSH_MILLIS)
+            .forEach(replacedWindows::remove);
+    }
+
+    /**
+     * Moves the pending occurrences of the specified window into the counts to be written.
+     */
+    private static void takeOccurrences(AlertOccurrences occurrences, Map<AlertOccurrences, Integer> counts) {
+        int count = occurrences.pending.getAndSet(0);
+        if (count > 0) {
+            counts.merge(occurrences, count, Integer::sum);
+        }
+    }
+
+    /**
+     * Stops counting occurrences of the specified alert, so the next occurrence creates a new alert.
+     */
+    private void closeWindow(Alert.ID id) {
+        openWindows.values().stream()
+            .filter(occurrences -> occurrences.alert != null && occurrences.alert.getId().equals(id))
+            .forEach(AlertOccurrences::close);
+    }
+
+    /**
+     * Identifies alerts that are repeats of each other: those with the same type, subtype, level, and entity.  The description and any other
+     * content, such as the ID of a failed job, are those of the first occurrence.
+     */
+    private static List<Object> coalesceKey(URI type, String subtype, Level level, Serializable content) {
+        Object entityType = null;
+        Object entityId = null;
+        if (content instanceof EntityIdentificationAlertContent) {
+            EntityIdentificationAlertContent entity = (EntityIdentificationAlertContent) content;
+            entityType = entity.getEntityType();
+            entityId = entity.getEntityId();
+        }
+        return Arrays.asList(type, subtype, level, entityType, entityId);
+    }
+
     @Override
     public <C extends Serializable> Alert createEntityAlert(URI type, Level level, String description, EntityIdentificationAlertContent<C> content) {
         return create(type, null, level, description, content);
@@ -349,6 +547,7 @@ public class DefaultAlertManager extends QueryDslRepositorySupport implements Al
     public Alert remove(Alert.ID id) {
         JpaAlert.AlertId idImpl = (JpaAlert.AlertId) resolve(id);
 
+        closeWindow(idImpl);
         JpaAlert jpaAlert = this.metadataAccess.commit(() -> {
             JpaAlert alert = repository.findOne(idImpl);
             this.repository.delete(id);
@@ -368,6 +567,7 @@ public class DefaultAlertManager extends QueryDslRepositorySupport implements Al
     }
 
     protected JpaAlert clearAlert(JpaAlert.AlertId id) {
+        closeWindow(id);
         JpaAlert jpaAlert = this.metadataAccess.commit(() -> {
             JpaAlert alert = repository.findOne(id);
             alert.setCleared(true);
@@ -414,6 +614,7 @@ public class DefaultAlertManager extends QueryDslRepositorySupport implements Al
                                ? SecurityContextHolder.getContext().getAuthentication()
                                : null;
 
+        closeWindow(id);
         Alert changed = this.metadataAccess.commit(() -> {
             JpaAlert alert = findAlert(id).orElseThrow(() -> new AlertNotfoundException(id));
             JpaAlertChangeEvent event = new JpaAlertChangeEvent(state, user, descr, content);
@@ -488,7 +689,7 @@ public class DefaultAlertManager extends QueryDslRepositorySupport implements Al
         return lastUpdatedTime;
     }
 
-    protected static class ImmutableAlert implements Alert {
+    protected static class ImmutableAlert implements CoalescedAlert {
 
         private final AlertManager source;
         private final Alert.ID id;
@@ -500,6 +701,8 @@ public class DefaultAlertManager extends QueryDslRepositorySupport implements Al
         private final DateTime modifiedTime;
         private final Serializable content;
         private final boolean cleared;
+        private final int occurrenceCount;
+        private final DateTime lastSeenTime;
         private final List<AlertChangeEvent> events;
 
         public ImmutableAlert(Alert alert, AlertManager mgr) {
@@ -513,6 +716,8 @@ public class DefaultAlertManager extends QueryDslRepositorySupport implements Al
             this.cleared = alert.isCleared();
             this.createdTime = alert.getCreatedTime();
             this.modifiedTime = alert.getModifiedTime();
+            this.occurrenceCount = (alert instanceof CoalescedAlert) ? ((CoalescedAlert) alert).getOccurrenceCount() : 1;
+            this.lastSeenTime = (alert instanceof CoalescedAlert) ? ((CoalescedAlert) alert).getLastSeenTime() : alert.getCreatedTime();
             this.events = Collections.unmodifiableList(alert.getEvents().stream()
                                                            .map(a -> new ImmutableAlertChangeEvent(a))
                                                            .collect(Collectors.toList()));
@@ -574,6 +779,16 @@ public class DefaultAlertManager extends QueryDslRepositorySupport implements Al
             return this.modifiedTime;
         }
 
+        @Override
+        public int getOccurrenceCount() {
+            return this.occurrenceCount;
+        }
+
+        @Override
+        public DateTime getLastSeenTime() {
+            return this.lastSeenTime;
+        }
+
 
         @Override
         public boolean isCleared() {
@@ -626,6 +841,77 @@ public class DefaultAlertManager extends QueryDslRepositorySupport implements Al
         }
     }
 
+    /**
+     * Iterates over the alerts matching a criteria, newest first, reading one page of alerts at a time.
+     *
+     * <p>Each page continues after the created time and ID of the last alert of the previous page, so only a single page is held in memory
+     * and no alerts are skipped or repeated when several alerts have the same created time.</p>
+     */
+    private class AlertPageIterator implements Iterator<Alert> {
+
+        private final DefaultAlertCriteria criteria;
+        private final Principal[] principal;
+        private Iterator<Alert> page = Collections.emptyIterator();
+        private boolean lastPage;
+        private Alert lastAlert;
+        private int remaining;
+
+        public AlertPageIterator(DefaultAlertCriteria criteria, Principal[] principal) {
+            this.criteria = criteria;
+            this.principal = principal;
+            this.remaining = criteria.getLimit();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!page.hasNext() && !lastPage) {
+                page = fetchPage();
+            }
+            return page.hasNext();
+        }
+
+        @Override
+        public Alert next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastAlert = page.next();
+            remaining--;
+            return lastAlert;
+        }
+
+        private Iterator<Alert> fetchPage() {
+            // Oldest first queries are bounded by their limit, so read them at once and reverse them
+            if (criteria.isAscending()) {
+                lastPage = true;
+                List<Alert> alerts = fetch(remaining);
+                Collections.reverse(alerts);
+                return alerts.iterator();
+            }
+
+            final int size = Math.min(pageSize, remaining);
+            if (size <= 0) {
+                lastPage = true;
+                return Collections.emptyIterator();
+            }
+            if (lastAlert != null) {
+                criteria.continueAfter(lastAlert.getCreatedTime(), lastAlert.getId());
+            }
+
+            List<Alert> alerts = fetch(size);
+            lastPage = alerts.size() < size;
+            return alerts.iterator();
+        }
+
+        private List<Alert> fetch(int size) {
+            return metadataAccess.read(() -> {
+                return criteria.createQuery().limit(size).fetch().stream()
+                    .map(a -> asValue(a))
+                    .collect(Collectors.toList());
+            }, principal);
+        }
+    }
+
     private class TransactionalResponse implements AlertResponse {
 
         private final JpaAlert.AlertId id;
@@ -728,6 +1014,74 @@ public class DefaultAlertManager extends QueryDslRepositorySupport implements Al
 
     }
 
+    /**
+     * Occurrences of an alert counted within its coalesce window that have not yet been written
+     */
+    private static class AlertOccurrences {
+
+        private volatile Alert alert;
+        private volatile boolean failed;
+        private volatile long windowEnd;
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile long lastSeenTime;
+
+        public AlertOccurrences(long windowEnd) {
+            this.windowEnd = windowEnd;
+        }
+
+        public boolean isOpen(long now) {
+            return now < windowEnd && !failed;
+        }
+
+        public void add(long now) {
+            lastSeenTime = now;
+            pending.incrementAndGet();
+        }
+
+        public void close() {
+            windowEnd = 0;
+        }
+
+        /**
+         * Called by the thread that claimed the window once its alert has been inserted.
+         */
+        public synchronized void created(Alert alert) {
+            if (lastSeenTime == 0) {
+                this.lastSeenTime = alert.getCreatedTime().getMillis();
+            }
+            this.alert = alert;
+            notifyAll();
+        }
+
+        /**
+         * Called by the thread that claimed the window if its alert could not be inserted.
+         */
+        public synchronized void failed() {
+            this.failed = true;
+            notifyAll();
+        }
+
+        /**
+         * Waits for the alert of this window to be inserted.
+         *
+         * @return the alert, or null if its insert failed
+         */
+        public synchronized Alert awaitAlert() {
+            boolean interrupted = false;
+            while (alert == null && !failed) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return alert;
+        }
+    }
+
     private class AlertSummaryCache {
 
         private Long lastUpdatedTime;
@@ -113,10 +113,10 @@ public class KyloEntityAwareAlertCriteria extends DefaultAlertCriteria implement
         addEntityFilter(alert, preds);
         // When limiting and using "after" criteria only, we need to sort ascending to get the next n values after the given id/time.
         // In all other cases sort descending. The results will be ordered correctly when aggregated by the provider.
-        if (getLimit() != Integer.MAX_VALUE && getAfterTime() != null && getBeforeTime() == null) {
+        if (isAscending()) {
             query.orderBy(alert.createdTime.asc());
         } else {
-            query.orderBy(alert.createdTime.desc());
+            query.orderBy(alert.createdTime.desc(), alert.id.value.desc());
         }
         return super.addWhere(query, preds, orFilter);
 
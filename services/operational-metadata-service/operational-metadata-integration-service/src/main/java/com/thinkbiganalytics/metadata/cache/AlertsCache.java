@@ -19,11 +19,9 @@ package com.thinkbiganalytics.metadata.cache;
  * #L%
  */
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.thinkbiganalytics.alerts.api.Alert;
 import com.thinkbiganalytics.alerts.api.AlertCriteria;
+import com.thinkbiganalytics.alerts.api.AlertListener;
 import com.thinkbiganalytics.alerts.api.AlertProvider;
 import com.thinkbiganalytics.alerts.api.AlertSummary;
 import com.thinkbiganalytics.alerts.api.core.AlertCriteriaInput;
@@ -40,6 +38,7 @@ import com.thinkbiganalytics.metadata.jpa.sla.ServiceLevelAgreementDescriptionCa
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -48,10 +47,14 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
 /**
  * Created by sr186054 on 9/27/17.
+ *
+ * The unhandled alert summary is reloaded when the {@link AlertProvider} notifies of an alert change.
+ * Alerts changed without a notification, such as those updated when a feed or sla is deleted, are picked up when the summary reaches its max age.
  */
 public class AlertsCache implements TimeBasedCache<AlertSummaryGrouped> {
 
@@ -75,15 +78,21 @@ public class AlertsCache implements TimeBasedCache<AlertSummaryGrouped> {
     private AlertsModel alertsModel;
 
 
-    LoadingCache<Long, List<AlertSummaryGrouped>> alertSummaryCache = CacheBuilder.newBuilder().expireAfterWrite(15, TimeUnit.SECONDS).build(new CacheLoader<Long, List<AlertSummaryGrouped>>() {
-        @Override
-        public List<AlertSummaryGrouped> load(Long millis) throws Exception {
-            return fetchUnhandledAlerts();
-        }
-    });
+    @Value("${kylo.ops.mgr.dashboard.alerts.max-age.seconds:60}")
+    private long maxAgeSeconds = 60;
+
+    private ChangeAwareCache<List<AlertSummaryGrouped>> alertSummaryCache;
+
+    private final AlertChangeListener alertChangeListener = new AlertChangeListener();
+
+    @PostConstruct
+    private void init() {
+        alertSummaryCache = new ChangeAwareCache<>("alert summary", this::fetchUnhandledAlerts, TimeUnit.SECONDS.toMillis(maxAgeSeconds));
+        alertProvider.addListener(alertChangeListener);
+    }
 
     public List<AlertSummaryGrouped> getAlertSummary(Long time) {
-        return alertSummaryCache.getUnchecked(time);
+        return alertSummaryCache.get();
     }
 
     public List<AlertSummaryGrouped> getUserAlertSummary() {
@@ -153,6 +162,13 @@ public class AlertsCache implements TimeBasedCache<AlertSummaryGrouped> {
         }
     }
 
+    /**
+     * @return a number that changes each time the cached data changes
+     */
+    public long getGeneration() {
+        return alertSummaryCache.getGeneration();
+    }
+
     @Override
     public boolean isAvailable() {
         return feedAclCache.isUserCacheAvailable();
@@ -198,4 +214,12 @@ public class AlertsCache implements TimeBasedCache<AlertSummaryGrouped> {
             .filter(alertSummaryGrouped -> hasAccess(userContext, alertSummaryGrouped, feedName, feedId))
             .collect(Collectors.toList());
     }
+
+    private class AlertChangeListener implements AlertListener {
+
+        @Override
+        public void alertChange(Alert alert) {
+            alertSummaryCache.invalidate();
+        }
+    }
 }
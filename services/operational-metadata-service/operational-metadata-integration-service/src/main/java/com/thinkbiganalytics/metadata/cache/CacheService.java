@@ -20,7 +20,6 @@ package com.thinkbiganalytics.metadata.cache;
  * #L%
  */
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.thinkbiganalytics.alerts.rest.model.AlertSummaryGrouped;
 import com.thinkbiganalytics.jobrepo.query.model.CheckDataJob;
 import com.thinkbiganalytics.jobrepo.query.model.DataConfidenceSummary;
@@ -34,16 +33,10 @@ import com.thinkbiganalytics.security.AccessController;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.CyclicBarrier;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import javax.inject.Inject;
 
@@ -77,99 +70,54 @@ public class CacheService {
     @Inject
     DataConfidenceJobsCache dataConfidenceJobsCache;
 
-    @Value("${kylo.ops.mgr.dashboard.threads:20}")
-    private int dashboardThreads = 20;
-
-    ExecutorService executor = Executors.newFixedThreadPool(dashboardThreads, new ThreadFactoryBuilder().setNameFormat("kylo-dashboard-pool-%d").build());
-
     /**
-     * Threaded Task that releases the barrier counter
+     * Create the Dashboard view as it pertains to the User.
+     * The caches are kept up to date from job, alert and service events so this is built from memory and filtered for the user
      */
-    private class ThreadedDashboardTask implements Runnable {
-        CyclicBarrier barrier;
-        Runnable runnable;
-        String name;
-        public ThreadedDashboardTask(CyclicBarrier barrier, Runnable runnable){
-            this.barrier = barrier;
-            this.runnable = runnable;
-            this.name = UUID.randomUUID().toString();
+    private Dashboard createDashboard(Long time, RoleSetExposingSecurityExpressionRoot userContext, FeedHealthSummaryCache.FeedSummaryFilter feedSummaryFilter) {
+        try {
+            DataConfidenceSummary dataConfidenceSummary = new DataConfidenceSummary(dataConfidenceJobsCache.getUserDataConfidenceJobs(time, userContext), 60);
+            return new Dashboard(time, userContext.getName(), feedHealthSummaryCache.getUserFeedHealthCounts(time, userContext),
+                                 feedHealthSummaryCache.getUserFeedHealth(time, feedSummaryFilter, userContext),
+                                 alertsCache.getUserCache(time, userContext), dataConfidenceSummary, serviceStatusCache.getUserCache(time));
+        } catch (Exception e) {
+            log.error("Error getting the dashboard ", e);
+            throw new RuntimeException("Unable to get the Dashboard " + e.getMessage());
         }
-        public void run(){
-            try {
-                this.runnable.run();
-            }catch (Exception e){
-
-            }finally {
-                try {
-                    barrier.await();
-                }catch (Exception e){
-
-                }
-            }
-            }
-
     }
 
     /**
-     * Action called after getting feed data to create the Dashboard view as it pertains to the User
+     * We need the Acl List populated in order to do the correct fetch
      */
-    private class DashboardAction implements  Runnable{
-
-        private Long time;
-        private Dashboard dashboard;
-
-        private FeedHealthSummaryCache.FeedSummaryFilter feedSummaryFilter;
-        private RoleSetExposingSecurityExpressionRoot userContext;
-
-        public DashboardAction(Long time, RoleSetExposingSecurityExpressionRoot userContext,FeedHealthSummaryCache.FeedSummaryFilter feedSummaryFilter){
-            this.time = time;
-            this.feedSummaryFilter = feedSummaryFilter;
-            this.userContext = userContext;
-        }
-        public void run() {
-            try {
-                DataConfidenceSummary dataConfidenceSummary = new DataConfidenceSummary(dataConfidenceJobsCache.getUserDataConfidenceJobs(time,userContext), 60);
-                dashboard =
-                    new Dashboard(time, userContext.getName(), feedHealthSummaryCache.getUserFeedHealthCounts(time, userContext), feedHealthSummaryCache.getUserFeedHealth(time, feedSummaryFilter,userContext),
-                                  alertsCache.getUserCache(time,userContext), dataConfidenceSummary, serviceStatusCache.getUserCache(time));
-            } catch (Exception e) {
-                log.error("Error getting the dashboard ", e);
-                throw new RuntimeException("Unable to get the Dashboard " + e.getMessage());
-            }
-        }
-
-        public Dashboard getDashboard(){
-            return dashboard;
-        }
+    public boolean isDashboardReady() {
+        return !accessController.isEntityAccessControlled() || (accessController.isEntityAccessControlled() && feedAclCache.isAvailable());
     }
 
-    /**
-     * We need the Acl List populated in order to do the correct fetch
-     * Fetch the components of the dashboard in separate threads
-     */
     public Dashboard getDashboard(FeedHealthSummaryCache.FeedSummaryFilter feedSummaryFilter) {
-        Dashboard dashboard = null;
-        if (!accessController.isEntityAccessControlled() || (accessController.isEntityAccessControlled() && feedAclCache.isAvailable())) {
+        if (isDashboardReady()) {
             Long time = TimeUtil.getTimeNearestFiveSeconds();
             RoleSetExposingSecurityExpressionRoot userContext = feedAclCache.userContext();
-            DashboardAction dashboardAction = new DashboardAction(time, userContext,feedSummaryFilter);
-            CyclicBarrier barrier = new CyclicBarrier(5, dashboardAction);
-            List<ThreadedDashboardTask> tasks = new ArrayList<>();
-            tasks.add(new ThreadedDashboardTask(barrier,() -> feedHealthSummaryCache.getCache(time)));
-            tasks.add(new ThreadedDashboardTask(barrier,() -> dataConfidenceJobsCache.getCache(time)));
-            tasks.add(new ThreadedDashboardTask(barrier,() -> alertsCache.getCache(time)));
-            tasks.add(new ThreadedDashboardTask(barrier,() -> serviceStatusCache.getCache(time)));
-            tasks.stream().forEach(t -> executor.submit(t));
-            try {
-                barrier.await();
-            }catch (Exception e) {
-            }
-            return dashboardAction.getDashboard();
+            return createDashboard(time, userContext, feedSummaryFilter);
         } else {
             return Dashboard.NOT_READY;
         }
     }
 
+    /**
+     * Get the dashboard for the current user as of the given time
+     */
+    public Dashboard getDashboard(Long time, FeedHealthSummaryCache.FeedSummaryFilter feedSummaryFilter) {
+        return createDashboard(time, feedAclCache.userContext(), feedSummaryFilter);
+    }
+
+    /**
+     * @return a value that changes whenever the data on the dashboard or the feed access changes, reloading any stale caches first
+     */
+    public String getDashboardGeneration() {
+        return feedHealthSummaryCache.getGeneration() + "." + dataConfidenceJobsCache.getGeneration() + "." + alertsCache.getGeneration() + "."
+               + serviceStatusCache.getGeneration() + "." + feedAclCache.getGeneration();
+    }
+
     public Map<String,Long> getUserFeedHealthCounts(){
         Long time = TimeUtil.getTimeNearestFiveSeconds();
        return feedHealthSummaryCache.getUserFeedHealthCounts(time);
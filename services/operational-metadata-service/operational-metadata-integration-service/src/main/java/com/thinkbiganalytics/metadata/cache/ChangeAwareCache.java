@@ -0,0 +1,117 @@
+package com.thinkbiganalytics.metadata.cache;
+/*-
+ * #%L
+ * thinkbig-operational-metadata-integration-service
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Holds a single value that is only reloaded after it has been invalidated by an event, or after it reaches its max age.
+ *
+ * Only one thread reloads the value at a time.  While a reload is in progress other callers get the previous value instead of waiting,
+ * so a change does not cause every caller to hit the database.
+ * If the value is invalidated while it is being loaded it will be reloaded again on the next call.
+ */
+public class ChangeAwareCache<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeAwareCache.class);
+
+    private final String name;
+
+    private final Supplier<T> loader;
+
+    private final long maxAgeMillis;
+
+    private final AtomicLong changes = new AtomicLong(1);
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private volatile T value;
+
+    private volatile long loadedChanges = 0L;
+
+    private volatile long loadedTime = 0L;
+
+    /**
+     * @param name         a name used for logging
+     * @param loader       loads the value
+     * @param maxAgeMillis reload the value if it is older than this, even if it was not invalidated.  0 or less will only reload when invalidated
+     */
+    public ChangeAwareCache(String name, Supplier<T> loader, long maxAgeMillis) {
+        this.name = name;
+        this.loader = loader;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Mark the value as changed so it is reloaded on the next call to {@link #get()}
+     */
+    public void invalidate() {
+        changes.incrementAndGet();
+    }
+
+    public boolean isStale() {
+        return value == null || loadedChanges != changes.get() || (maxAgeMillis > 0 && System.currentTimeMillis() - loadedTime > maxAgeMillis);
+    }
+
+    /**
+     * @return the current value, reloading it first if it is stale and no other thread is already reloading it
+     */
+    public T get() {
+        if (isStale()) {
+            if (value == null) {
+                loadLock.lock();
+            } else if (!loadLock.tryLock()) {
+                log.debug("{} is being reloaded by another thread, returning the previous value", name);
+                return value;
+            }
+            try {
+                if (isStale()) {
+                    long changesAtLoad = changes.get();
+                    long start = System.currentTimeMillis();
+                    T loaded = loader.get();
+                    value = loaded;
+                    loadedChanges = changesAtLoad;
+                    loadedTime = start;
+                    generation.incrementAndGet();
+                    log.debug("Reloaded {} in {} ms", name, (System.currentTimeMillis() - start));
+                }
+            } finally {
+                loadLock.unlock();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return a number that changes each time the value is reloaded, reloading it first if it is stale
+     */
+    public long getGeneration() {
+        get();
+        return generation.get();
+    }
+
+}
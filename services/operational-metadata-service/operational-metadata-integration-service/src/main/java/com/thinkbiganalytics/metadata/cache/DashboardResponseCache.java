@@ -0,0 +1,211 @@
+package com.thinkbiganalytics.metadata.cache;
+/*-
+ * #%L
+ * thinkbig-operational-metadata-integration-service
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.joda.JodaModule;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.thinkbiganalytics.metadata.cache.util.TimeUtil;
+import com.thinkbiganalytics.metadata.jpa.feed.security.FeedAclCache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+/**
+ * Memoizes the serialized dashboard so users with the same feed access share one payload.
+ *
+ * Payloads are keyed by the users access key from the {@link FeedAclCache}, the feed filter and the generation of the dashboard caches, and expire after the
+ * configured time so the times on the dashboard stay current.
+ * The shared payload leaves out the user, which is added back for each request so the response is the same as an unshared {@link Dashboard}.
+ * A payload is only shared if the generation did not change while it was built, so a payload never reflects acl entries newer than its key.
+ */
+public class DashboardResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardResponseCache.class);
+
+    @Inject
+    private CacheService cacheService;
+
+    @Inject
+    private FeedAclCache feedAclCache;
+
+    @Value("${kylo.ops.mgr.dashboard.response-cache.max-size:500}")
+    private long maxSize = 500;
+
+    @Value("${kylo.ops.mgr.dashboard.response-cache.expire-seconds:5}")
+    private long expireSeconds = 5;
+
+    /**
+     * The serialized dashboards shared between users, without the user
+     */
+    private Cache<Key, byte[]> responses;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @PostConstruct
+    private void init() {
+        responses = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(expireSeconds, TimeUnit.SECONDS).build();
+        objectMapper.registerModule(new JodaModule());
+        objectMapper.addMixIn(Dashboard.class, SharedDashboardView.class);
+        objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, true);
+        objectMapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+    }
+
+    private Key currentKey(FeedHealthSummaryCache.FeedSummaryFilter feedSummaryFilter) {
+        return new Key(feedAclCache.getAccessKey(feedAclCache.userContext()), filterKey(feedSummaryFilter), cacheService.getDashboardGeneration());
+    }
+
+    /**
+     * @return the ETag of the dashboard the current user would be sent, or null if the dashboard is not ready
+     */
+    public String getETag(FeedHealthSummaryCache.FeedSummaryFilter feedSummaryFilter) {
+        return cacheService.isDashboardReady() ? currentKey(feedSummaryFilter).getETag(feedAclCache.userContext().getName()) : null;
+    }
+
+    /**
+     * @return the serialized dashboard for the current user, or null if the dashboard is not ready
+     */
+    public DashboardResponse getDashboard(FeedHealthSummaryCache.FeedSummaryFilter feedSummaryFilter) {
+        if (!cacheService.isDashboardReady()) {
+            return null;
+        }
+        Key key = currentKey(feedSummaryFilter);
+        String user = feedAclCache.userContext().getName();
+        try {
+            byte[] json = responses.getIfPresent(key);
+            if (json == null) {
+                Dashboard dashboard = cacheService.getDashboard(TimeUtil.getTimeNearestFiveSeconds(), feedSummaryFilter);
+                json = objectMapper.writeValueAsBytes(dashboard);
+                if (key.generation.equals(cacheService.getDashboardGeneration())) {
+                    responses.put(key, json);
+                } else {
+                    log.debug("Dashboard changed while it was built. Not sharing it with other users");
+                }
+            }
+            return new DashboardResponse(key.getETag(user), withUser(user, json));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Unable to serialize the Dashboard " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Adds the user to a shared dashboard payload
+     *
+     * @param user       the user the dashboard is sent to
+     * @param sharedJson the dashboard serialized without the user
+     * @return the dashboard as it would be serialized for the user
+     */
+    private byte[] withUser(String user, byte[] sharedJson) throws JsonProcessingException {
+        byte[] field = ("{\"user\":" + objectMapper.writeValueAsString(user)).getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(field.length + sharedJson.length + 1);
+        out.write(field, 0, field.length);
+        if (sharedJson.length > 2) {
+            //replace the opening brace of the shared object with a comma after the user
+            out.write(',');
+            out.write(sharedJson, 1, sharedJson.length - 1);
+        } else {
+            out.write('}');
+        }
+        return out.toByteArray();
+    }
+
+    private static String filterKey(FeedHealthSummaryCache.FeedSummaryFilter filter) {
+        return filter.getFilter() + "|" + filter.getFeedName() + "|" + filter.getState() + "|" + filter.getStart() + "|" + filter.getLimit() + "|" + filter.getSort();
+    }
+
+    /**
+     * View of the {@link Dashboard} shared between users with the same feed access, leaving out the user it was built for
+     */
+    @JsonIgnoreProperties("user")
+    private abstract static class SharedDashboardView {
+
+    }
+
+    private static class Key {
+
+        private final String accessKey;
+        private final String filter;
+        private final String generation;
+
+        Key(String accessKey, String filter, String generation) {
+            this.accessKey = accessKey;
+            this.filter = filter;
+            this.generation = generation;
+        }
+
+        String getETag(String user) {
+            return Hashing.murmur3_128().hashString(user + "\n" + accessKey + "\n" + filter + "\n" + generation, StandardCharsets.UTF_8).toString();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(accessKey, key.accessKey) && Objects.equals(filter, key.filter) && Objects.equals(generation, key.generation);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(accessKey, filter, generation);
+        }
+    }
+
+    /**
+     * A serialized dashboard and its ETag
+     */
+    public static class DashboardResponse {
+
+        private final String eTag;
+
+        private final byte[] json;
+
+        public DashboardResponse(String eTag, byte[] json) {
+            this.eTag = eTag;
+            this.json = json;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+    }
+}
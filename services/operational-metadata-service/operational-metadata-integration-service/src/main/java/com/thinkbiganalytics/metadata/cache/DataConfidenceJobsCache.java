@@ -19,9 +19,6 @@ package com.thinkbiganalytics.metadata.cache;
  * #L%
  */
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.thinkbiganalytics.jobrepo.query.model.CheckDataJob;
 import com.thinkbiganalytics.jobrepo.query.model.transform.JobModelTransform;
 import com.thinkbiganalytics.metadata.api.MetadataAccess;
@@ -29,7 +26,6 @@ import com.thinkbiganalytics.metadata.api.event.MetadataEventListener;
 import com.thinkbiganalytics.metadata.api.event.MetadataEventService;
 import com.thinkbiganalytics.metadata.api.event.feed.FeedOperationStatusEvent;
 import com.thinkbiganalytics.metadata.api.event.feed.OperationStatus;
-import com.thinkbiganalytics.metadata.api.event.job.DataConfidenceJobDetected;
 import com.thinkbiganalytics.metadata.api.event.job.DataConfidenceJobEvent;
 import com.thinkbiganalytics.metadata.api.feed.LatestFeedJobExecution;
 import com.thinkbiganalytics.metadata.api.feed.OpsManagerFeedProvider;
@@ -38,14 +34,11 @@ import com.thinkbiganalytics.metadata.cache.util.TimeUtil;
 import com.thinkbiganalytics.metadata.config.RoleSetExposingSecurityExpressionRoot;
 import com.thinkbiganalytics.metadata.jpa.feed.security.FeedAclCache;
 
-import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
@@ -71,12 +64,10 @@ public class DataConfidenceJobsCache implements TimeBasedCache<CheckDataJob> {
     @Inject
     private MetadataEventService metadataEventService;
 
-    private List<CheckDataJob> latestCache = null;
-
-    private AtomicBoolean needsRefresh = new AtomicBoolean(true);
-
-    private DateTime needsRefreshAt = null;
-
+    /**
+     * The latest check data jobs, reloaded only after a check data job changes
+     */
+    private final ChangeAwareCache<List<CheckDataJob>> checkDataJobCache = new ChangeAwareCache<>("data confidence jobs", this::fetchDataConfidenceSummary, 0);
 
     private final BatchJobExecutionUpdatedListener batchJobExecutionUpdatedListener = new BatchJobExecutionUpdatedListener();
 
@@ -89,44 +80,23 @@ public class DataConfidenceJobsCache implements TimeBasedCache<CheckDataJob> {
     }
 
 
-    private LoadingCache<Long, List<CheckDataJob>> checkDataJobCache = CacheBuilder.newBuilder().expireAfterWrite(15, TimeUnit.SECONDS).build(new CacheLoader<Long, List<CheckDataJob>>() {
-        @Override
-        public List<CheckDataJob> load(Long millis) throws Exception {
-            return fetchDataConfidenceSummary();
-        }
-    });
+    private List<CheckDataJob> fetchDataConfidenceSummary() {
+        List<CheckDataJob> latestCache = metadataAccess.read(() -> {
 
+            List<? extends LatestFeedJobExecution> latestCheckDataJobs = opsManagerFeedProvider.findLatestCheckDataJobs();
 
-    private List<CheckDataJob> fetchDataConfidenceSummary() {
-        if (latestCache == null || needsRefresh.get()) {
-            DateTime refrshStart = DateTime.now();
-            latestCache = metadataAccess.read(() -> {
-
-                List<? extends LatestFeedJobExecution> latestCheckDataJobs = opsManagerFeedProvider.findLatestCheckDataJobs();
-
-                if (latestCheckDataJobs != null) {
-                    return latestCheckDataJobs.stream().map(latestFeedJobExecution -> JobModelTransform.checkDataJob(latestFeedJobExecution)).collect(Collectors.toList());
-                    // return new DataConfidenceSummary(checkDataJobs, 60);
-                } else {
-                    return Collections.emptyList();
-                }
-            }, MetadataAccess.SERVICE);
-            //reset the refresh flag including if any updates happened while we were loading
-            if (needsRefreshAt != null) {
-                needsRefresh.set(needsRefreshAt.isAfter(refrshStart));
+            if (latestCheckDataJobs != null) {
+                return latestCheckDataJobs.stream().map(latestFeedJobExecution -> JobModelTransform.checkDataJob(latestFeedJobExecution)).collect(Collectors.toList());
             } else {
-                needsRefresh.set(false);
+                return Collections.emptyList();
             }
-            log.debug("Loaded Data Confidence Summary from the database");
-            return latestCache;
-        } else {
-            log.debug("Returning Cached Data Confidence Summary");
-            return latestCache;
-        }
+        }, MetadataAccess.SERVICE);
+        log.debug("Loaded Data Confidence Summary from the database");
+        return latestCache;
     }
 
     public List<CheckDataJob> getDataConfidenceSummary(Long time) {
-        return checkDataJobCache.getUnchecked(time);
+        return checkDataJobCache.get();
     }
 
     public List<CheckDataJob> getUserDataConfidenceJobs() {
@@ -154,6 +124,13 @@ public class DataConfidenceJobsCache implements TimeBasedCache<CheckDataJob> {
         return getDataConfidenceSummary(time);
     }
 
+    /**
+     * @return a number that changes each time the cached data changes
+     */
+    public long getGeneration() {
+        return checkDataJobCache.getGeneration();
+    }
+
     @Override
     public boolean isAvailable() {
         return feedAclCache.isUserCacheAvailable();
@@ -165,8 +142,7 @@ public class DataConfidenceJobsCache implements TimeBasedCache<CheckDataJob> {
         public void notify(@Nonnull final FeedOperationStatusEvent metadataEvent) {
             OperationStatus change = metadataEvent.getData();
             if (FeedOperation.FeedType.CHECK == change.getFeedType()) {
-                needsRefreshAt = DateTime.now();
-                needsRefresh.set(true);
+                checkDataJobCache.invalidate();
             }
 
 
@@ -176,9 +152,7 @@ public class DataConfidenceJobsCache implements TimeBasedCache<CheckDataJob> {
     private class DataConfidenceJobDetectedListener implements MetadataEventListener<DataConfidenceJobEvent> {
 
         public void notify(@Nonnull final DataConfidenceJobEvent metadataEvent) {
-            DataConfidenceJobDetected change = metadataEvent.getData();
-            needsRefreshAt = DateTime.now();
-            needsRefresh.set(true);
+            checkDataJobCache.invalidate();
         }
     }
 }
@@ -20,20 +20,24 @@ package com.thinkbiganalytics.metadata.cache;
  */
 
 import com.google.common.base.Stopwatch;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.util.concurrent.AtomicLongMap;
 import com.thinkbiganalytics.DateTimeUtil;
 import com.thinkbiganalytics.jobrepo.query.model.FeedHealth;
 import com.thinkbiganalytics.jobrepo.query.model.FeedStatus;
 import com.thinkbiganalytics.jobrepo.query.model.transform.FeedModelTransform;
 import com.thinkbiganalytics.metadata.api.MetadataAccess;
+import com.thinkbiganalytics.metadata.api.event.MetadataChange;
+import com.thinkbiganalytics.metadata.api.event.MetadataEventListener;
 import com.thinkbiganalytics.metadata.api.event.MetadataEventService;
+import com.thinkbiganalytics.metadata.api.event.feed.FeedChange;
+import com.thinkbiganalytics.metadata.api.event.feed.FeedChangeEvent;
+import com.thinkbiganalytics.metadata.api.event.feed.FeedOperationStatusEvent;
+import com.thinkbiganalytics.metadata.api.event.feed.OperationStatus;
 import com.thinkbiganalytics.metadata.api.feed.FeedSummary;
 import com.thinkbiganalytics.metadata.api.feed.OpsManagerFeed;
 import com.thinkbiganalytics.metadata.api.feed.OpsManagerFeedProvider;
 import com.thinkbiganalytics.metadata.api.jobrepo.job.BatchJobExecution;
+import com.thinkbiganalytics.metadata.api.op.FeedOperation;
 import com.thinkbiganalytics.metadata.cache.util.TimeUtil;
 import com.thinkbiganalytics.metadata.config.RoleSetExposingSecurityExpressionRoot;
 import com.thinkbiganalytics.metadata.jpa.feed.JpaFeedSummary;
@@ -44,6 +48,7 @@ import com.thinkbiganalytics.rest.model.search.SearchResultImpl;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.util.comparator.NullSafeComparator;
 
 import java.util.ArrayList;
@@ -52,14 +57,27 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nonnull;
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
 /**
  * Created by sr186054 on 9/27/17.
+ *
+ * Keeps an index of the latest job summary for each feed.
+ * The index is loaded from the database once and then updated in place from the {@link FeedOperationStatusEvent}s published as jobs start and finish.
+ * User views are built by filtering the index with the {@link FeedAclCache} so they never query the database.
+ *
+ * The index is reloaded when a feed is created or deleted, when a job is abandoned, and every reconcile interval.
+ * The reconcile interval also refreshes the running status of streaming feeds which is derived from the NiFi feed stats rather than job events.
  */
 public class FeedHealthSummaryCache implements TimeBasedCache<FeedSummary> {
 
@@ -78,6 +96,39 @@ public class FeedHealthSummaryCache implements TimeBasedCache<FeedSummary> {
     @Inject
     private FeedAclCache feedAclCache;
 
+    @Value("${kylo.ops.mgr.dashboard.feed-health.reconcile.seconds:60}")
+    private long reconcileSeconds = 60;
+
+    /**
+     * feed id to the summary of the latest job for that feed.  Entries are replaced, never modified, so readers always see a consistent summary
+     */
+    private volatile Map<String, FeedSummary> feedSummaryIndex;
+
+    private volatile long feedSummaryIndexLoadTime = 0L;
+
+    private final AtomicBoolean needsReload = new AtomicBoolean(true);
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    /**
+     * Guards updates to the index.  While the index is being reloaded the job changes are also recorded so they can be applied to the new index
+     */
+    private final Object updateLock = new Object();
+
+    private List<OperationStatus> changesDuringReload;
+
+    private final FeedOperationStatusListener feedOperationStatusListener = new FeedOperationStatusListener();
+
+    private final FeedChangeListener feedChangeListener = new FeedChangeListener();
+
+    @PostConstruct
+    private void init() {
+        metadataEventService.addListener(feedOperationStatusListener);
+        metadataEventService.addListener(feedChangeListener);
+    }
+
     private Comparator<FeedSummary> byRunningStatus = Comparator.comparing(FeedSummary::getRunStatus, Comparator.nullsLast(Comparator.naturalOrder()));
 
     private Comparator<FeedSummary> byStartTime = Comparator.comparing(FeedSummary::getStartTime, Comparator.nullsLast(Comparator.naturalOrder()));
@@ -179,16 +230,108 @@ public class FeedHealthSummaryCache implements TimeBasedCache<FeedSummary> {
     }
 
 
-    LoadingCache<Long, List<? extends FeedSummary>> feedSummaryCache = CacheBuilder.newBuilder().expireAfterWrite(15, TimeUnit.SECONDS).build(new CacheLoader<Long, List<? extends FeedSummary>>() {
-        @Override
-        public List<? extends FeedSummary> load(Long millis) throws Exception {
-            return fetchFeedSummary();
+    private boolean isReloadNeeded() {
+        return feedSummaryIndex == null || needsReload.get() || (reconcileSeconds > 0 && System.currentTimeMillis() - feedSummaryIndexLoadTime > TimeUnit.SECONDS.toMillis(reconcileSeconds));
+    }
+
+    /**
+     * Return the feed summary index, reloading it first if needed.
+     * Only one thread reloads the index.  Other threads get the current index while the reload is in progress.
+     */
+    private Map<String, FeedSummary> getFeedSummaryIndex() {
+        if (isReloadNeeded()) {
+            if (feedSummaryIndex == null) {
+                reloadLock.lock();
+            } else if (!reloadLock.tryLock()) {
+                return feedSummaryIndex;
+            }
+            try {
+                if (isReloadNeeded()) {
+                    reloadFeedSummaryIndex();
+                }
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+        return feedSummaryIndex;
+    }
+
+    private void reloadFeedSummaryIndex() {
+        long start = System.currentTimeMillis();
+        needsReload.set(false);
+        synchronized (updateLock) {
+            changesDuringReload = new ArrayList<>();
+        }
+        Map<String, FeedSummary> index = new ConcurrentHashMap<>();
+        try {
+            fetchFeedSummary().forEach(f -> index.put(f.getFeedId().toString(), f));
+        } catch (RuntimeException e) {
+            synchronized (updateLock) {
+                changesDuringReload = null;
+            }
+            needsReload.set(true);
+            throw e;
+        }
+        synchronized (updateLock) {
+            //the database query may have missed jobs that changed while it ran
+            changesDuringReload.forEach(change -> applyJobChange(index, change));
+            changesDuringReload = null;
+            feedSummaryIndex = index;
+            generation.incrementAndGet();
         }
-    });
+        feedSummaryIndexLoadTime = start;
+    }
 
+    /**
+     * @return a number that changes each time the feed summary index changes, reloading the index first if needed
+     */
+    public long getGeneration() {
+        getFeedSummaryIndex();
+        return generation.get();
+    }
 
     public List<? extends FeedSummary> getFeedSummaryList(Long time) {
-        return feedSummaryCache.getUnchecked(time);
+        return new ArrayList<>(getFeedSummaryIndex().values());
+    }
+
+    /**
+     * Update the index with a job that started or finished
+     */
+    protected void onJobChange(OperationStatus change) {
+        synchronized (updateLock) {
+            if (changesDuringReload != null) {
+                changesDuringReload.add(change);
+            }
+            if (feedSummaryIndex != null) {
+                applyJobChange(feedSummaryIndex, change);
+            }
+        }
+    }
+
+    private void applyJobChange(Map<String, FeedSummary> index, OperationStatus change) {
+        if (change.getFeedId() == null || change.getOperationId() == null) {
+            return;
+        }
+        FeedSummary current = index.get(change.getFeedId().toString());
+        if (current == null || change.getState() == FeedOperation.State.ABANDONED) {
+            //a new feed, or a job that no longer counts against the feed health
+            needsReload.set(true);
+            return;
+        }
+        if (current.isStream()) {
+            return;
+        }
+        Long jobExecutionId;
+        try {
+            jobExecutionId = Long.valueOf(change.getOperationId().toString());
+        } catch (NumberFormatException e) {
+            return;
+        }
+        FeedSummary updated = FeedSummaryUpdater.apply(current, jobExecutionId, change.getState(), DateTimeUtil.getNowUTCTime());
+        if (updated != current) {
+            index.put(change.getFeedId().toString(), updated);
+            generation.incrementAndGet();
+        }
     }
 
 
@@ -478,4 +621,41 @@ public class FeedHealthSummaryCache implements TimeBasedCache<FeedSummary> {
         }
     }
 
+    private class FeedOperationStatusListener implements MetadataEventListener<FeedOperationStatusEvent> {
+
+        @Override
+        public void notify(@Nonnull final FeedOperationStatusEvent metadataEvent) {
+            onJobChange(metadataEvent.getData());
+        }
+    }
+
+    private class FeedChangeListener implements MetadataEventListener<FeedChangeEvent> {
+
+        @Override
+        public void notify(@Nonnull final FeedChangeEvent metadataEvent) {
+            FeedChange change = metadataEvent.getData();
+            Map<String, FeedSummary> index = feedSummaryIndex;
+            if (change.getFeedId() == null || index == null) {
+                return;
+            }
+            String feedId = change.getFeedId().toString();
+            if (change.getChange() == MetadataChange.ChangeType.DELETE) {
+                synchronized (updateLock) {
+                    feedSummaryIndex.remove(feedId);
+                    generation.incrementAndGet();
+                    if (changesDuringReload != null) {
+                        //the index being loaded may still include the feed
+                        needsReload.set(true);
+                    }
+                }
+            } else {
+                FeedSummary current = index.get(feedId);
+                if (current == null || current.isStream()) {
+                    //new feeds need to be added and enabling or disabling a streaming feed changes its status
+                    needsReload.set(true);
+                }
+            }
+        }
+    }
+
 }
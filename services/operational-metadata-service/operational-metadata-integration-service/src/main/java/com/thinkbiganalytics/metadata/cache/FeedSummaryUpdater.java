@@ -0,0 +1,185 @@
+package com.thinkbiganalytics.metadata.cache;
+/*-
+ * #%L
+ * thinkbig-operational-metadata-integration-service
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.metadata.api.feed.FeedSummary;
+import com.thinkbiganalytics.metadata.api.jobrepo.ExecutionConstants;
+import com.thinkbiganalytics.metadata.api.jobrepo.job.BatchJobExecution;
+import com.thinkbiganalytics.metadata.api.op.FeedOperation;
+import com.thinkbiganalytics.metadata.jpa.feed.JpaFeedSummary;
+
+import org.joda.time.DateTime;
+
+/**
+ * Applies a job start or finish to the summary of the latest job for a feed, producing the same values the FEED_SUMMARY_VIEW would return after the change.
+ *
+ * The summary passed in is never modified.  A copy is returned with the change applied, or the same summary if the change was already applied.
+ */
+public class FeedSummaryUpdater {
+
+    private enum Outcome {
+        COMPLETED, FAILED, OTHER
+    }
+
+    private FeedSummaryUpdater() {
+
+    }
+
+    /**
+     * @param current        the current summary for the feed
+     * @param jobExecutionId the job that changed
+     * @param state          the new state of the job
+     * @param now            the time of the change
+     * @return the updated summary
+     */
+    public static FeedSummary apply(FeedSummary current, Long jobExecutionId, FeedOperation.State state, DateTime now) {
+        Long currentJobExecutionId = current.getJobExecutionId();
+        boolean sameJob = jobExecutionId.equals(currentJobExecutionId);
+        boolean latest = currentJobExecutionId == null || jobExecutionId >= currentJobExecutionId;
+
+        if (state == FeedOperation.State.STARTED) {
+            if (sameJob || !latest) {
+                return current;
+            }
+            JpaFeedSummary updated = copyOf(current);
+            updated.setJobExecutionId(jobExecutionId);
+            updated.setJobInstanceId(null);
+            updated.setStartTime(now);
+            updated.setEndTime(null);
+            updated.setStatus(BatchJobExecution.JobStatus.STARTED);
+            updated.setExitCode(ExecutionConstants.ExitCode.EXECUTING);
+            updated.setExitMessage(null);
+            updated.setRunStatus(FeedSummary.RunStatus.RUNNING);
+            updated.setAllCount(increment(current.getAllCount(), 1));
+            updated.setRunningCount(increment(current.getRunningCount(), 1));
+            return updated;
+        }
+
+        Outcome outcome = outcome(state);
+        if (outcome == null) {
+            return current;
+        }
+
+        JpaFeedSummary updated = copyOf(current);
+        if (!latest) {
+            //an older job finished after a newer one started. Only the counts change
+            updated.setRunningCount(increment(current.getRunningCount(), -1));
+            addOutcome(updated, outcome, 1);
+            return updated;
+        }
+
+        if (sameJob && current.getRunStatus() == FeedSummary.RunStatus.FINISHED) {
+            Outcome previous = outcome(current);
+            if (previous == outcome) {
+                return current;
+            }
+            //the job finished again with a different result, such as a late failure
+            addOutcome(updated, previous, -1);
+        } else if (sameJob) {
+            updated.setRunningCount(increment(current.getRunningCount(), -1));
+        } else {
+            //the start of this job was not seen
+            updated.setJobExecutionId(jobExecutionId);
+            updated.setJobInstanceId(null);
+            updated.setStartTime(now);
+            updated.setExitMessage(null);
+            updated.setAllCount(increment(current.getAllCount(), 1));
+        }
+        updated.setEndTime(now);
+        updated.setRunStatus(FeedSummary.RunStatus.FINISHED);
+        switch (state) {
+            case SUCCESS:
+                updated.setStatus(BatchJobExecution.JobStatus.COMPLETED);
+                updated.setExitCode(ExecutionConstants.ExitCode.COMPLETED);
+                break;
+            case FAILURE:
+                updated.setStatus(BatchJobExecution.JobStatus.FAILED);
+                updated.setExitCode(ExecutionConstants.ExitCode.FAILED);
+                break;
+            default:
+                updated.setStatus(BatchJobExecution.JobStatus.STOPPED);
+                updated.setExitCode(ExecutionConstants.ExitCode.STOPPED);
+        }
+        addOutcome(updated, outcome, 1);
+        return updated;
+    }
+
+    private static Outcome outcome(FeedOperation.State state) {
+        switch (state) {
+            case SUCCESS:
+                return Outcome.COMPLETED;
+            case FAILURE:
+                return Outcome.FAILED;
+            case CANCELED:
+                return Outcome.OTHER;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Matches how the BATCH_FEED_SUMMARY_COUNTS_VW counts a job
+     */
+    private static Outcome outcome(FeedSummary summary) {
+        if (summary.getStatus() == BatchJobExecution.JobStatus.ABANDONED) {
+            return Outcome.OTHER;
+        } else if (summary.getStatus() == BatchJobExecution.JobStatus.FAILED || summary.getExitCode() == ExecutionConstants.ExitCode.FAILED) {
+            return Outcome.FAILED;
+        } else if (summary.getExitCode() == ExecutionConstants.ExitCode.COMPLETED) {
+            return Outcome.COMPLETED;
+        } else {
+            return Outcome.OTHER;
+        }
+    }
+
+    private static void addOutcome(JpaFeedSummary summary, Outcome outcome, int delta) {
+        if (outcome == Outcome.COMPLETED) {
+            summary.setCompletedCount(increment(summary.getCompletedCount(), delta));
+        } else if (outcome == Outcome.FAILED) {
+            summary.setFailedCount(increment(summary.getFailedCount(), delta));
+        }
+    }
+
+    private static Long increment(Long value, int delta) {
+        return Math.max(0L, (value != null ? value : 0L) + delta);
+    }
+
+    private static JpaFeedSummary copyOf(FeedSummary summary) {
+        JpaFeedSummary copy = new JpaFeedSummary();
+        copy.setFeedId(summary.getFeedId());
+        copy.setFeedName(summary.getFeedName());
+        copy.setFeedType(summary.getFeedType());
+        copy.setStream(summary.isStream());
+        copy.setJobExecutionId(summary.getJobExecutionId());
+        copy.setJobInstanceId(summary.getJobInstanceId());
+        copy.setStartTime(summary.getStartTime());
+        copy.setEndTime(summary.getEndTime());
+        copy.setStatus(summary.getStatus());
+        copy.setExitCode(summary.getExitCode());
+        copy.setExitMessage(summary.getExitMessage());
+        copy.setRunStatus(summary.getRunStatus());
+        copy.setAllCount(summary.getAllCount());
+        copy.setFailedCount(summary.getFailedCount());
+        copy.setCompletedCount(summary.getCompletedCount());
+        copy.setAbandonedCount(summary.getAbandonedCount());
+        copy.setRunningCount(summary.getRunningCount());
+        return copy;
+    }
+}
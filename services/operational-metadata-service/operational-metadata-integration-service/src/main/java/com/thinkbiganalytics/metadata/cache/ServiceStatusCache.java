@@ -19,48 +19,84 @@ package com.thinkbiganalytics.metadata.cache;
  * #L%
  */
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.thinkbiganalytics.alerts.api.Alert;
+import com.thinkbiganalytics.alerts.api.AlertListener;
+import com.thinkbiganalytics.alerts.api.AlertProvider;
+import com.thinkbiganalytics.alerts.service.ServiceStatusAlerts;
 import com.thinkbiganalytics.servicemonitor.ServiceMonitorRepository;
 import com.thinkbiganalytics.servicemonitor.model.ServiceStatusResponse;
 
+import org.springframework.beans.factory.annotation.Value;
+
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
 /**
  * Created by sr186054 on 9/27/17.
+ *
+ * The service checks are run again when a service status alert changes, or when the last check is older than the refresh interval.
  */
 public class ServiceStatusCache implements TimeBasedCache<ServiceStatusResponse> {
 
     @Inject
     private ServiceMonitorRepository serviceRepository;
 
-    LoadingCache<Long, List<ServiceStatusResponse>> serviceStatusCache = CacheBuilder.newBuilder().expireAfterWrite(15, TimeUnit.SECONDS).build(new CacheLoader<Long, List<ServiceStatusResponse>>() {
-        @Override
-        public List<ServiceStatusResponse> load(Long millis) throws Exception {
-            return serviceRepository.listServices();
-        }
-    });
+    @Inject
+    private AlertProvider alertProvider;
+
+    @Value("${kylo.ops.mgr.dashboard.service-status.refresh.seconds:15}")
+    private long refreshSeconds = 15;
+
+    private ChangeAwareCache<List<ServiceStatusResponse>> serviceStatusCache;
+
+    private final ServiceStatusAlertListener serviceStatusAlertListener = new ServiceStatusAlertListener();
+
+    @PostConstruct
+    private void init() {
+        serviceStatusCache = new ChangeAwareCache<>("service status", () -> serviceRepository.listServices(), TimeUnit.SECONDS.toMillis(refreshSeconds));
+        alertProvider.addListener(serviceStatusAlertListener);
+    }
+
+    public List<ServiceStatusResponse> getServiceStatus() {
+        return serviceStatusCache.get();
+    }
 
     public List<ServiceStatusResponse> getServiceStatus(Long time) {
-        return serviceStatusCache.getUnchecked(time);
+        return getServiceStatus();
     }
 
     @Override
     public List<ServiceStatusResponse> getCache(Long time) {
-        return getServiceStatus(time);
+        return getServiceStatus();
     }
 
     @Override
     public List<ServiceStatusResponse> getUserCache(Long time) {
-        return getServiceStatus(time);
+        return getServiceStatus();
+    }
+
+    /**
+     * @return a number that changes each time the cached data changes
+     */
+    public long getGeneration() {
+        return serviceStatusCache.getGeneration();
     }
 
     @Override
     public boolean isAvailable() {
         return true;
     }
+
+    private class ServiceStatusAlertListener implements AlertListener {
+
+        @Override
+        public void alertChange(Alert alert) {
+            if (ServiceStatusAlerts.SERVICE_STATUS_ALERT_TYPE.equals(alert.getType())) {
+                serviceStatusCache.invalidate();
+            }
+        }
+    }
 }
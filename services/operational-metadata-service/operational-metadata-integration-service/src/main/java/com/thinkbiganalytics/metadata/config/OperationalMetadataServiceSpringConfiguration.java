@@ -24,6 +24,7 @@ import com.thinkbiganalytics.alerts.api.AlertProvider;
 import com.thinkbiganalytics.metadata.cache.AlertsCache;
 import com.thinkbiganalytics.metadata.cache.CacheService;
 import com.thinkbiganalytics.metadata.cache.CategoryFeedService;
+import com.thinkbiganalytics.metadata.cache.DashboardResponseCache;
 import com.thinkbiganalytics.metadata.cache.DataConfidenceJobsCache;
 import com.thinkbiganalytics.metadata.cache.FeedHealthSummaryCache;
 import com.thinkbiganalytics.metadata.cache.RunningJobsCache;
@@ -32,11 +33,14 @@ import com.thinkbiganalytics.metadata.jobrepo.StreamingFeedService;
 import com.thinkbiganalytics.metadata.jobrepo.nifi.provenance.NifiBulletinExceptionExtractor;
 import com.thinkbiganalytics.metadata.jobrepo.nifi.provenance.NifiStatsJmsReceiver;
 import com.thinkbiganalytics.metadata.jobrepo.nifi.provenance.ProvenanceEventFeedUtil;
+import com.thinkbiganalytics.metadata.jobrepo.nifi.provenance.ProvenanceEventJobExecutionLockManager;
 import com.thinkbiganalytics.metadata.jobrepo.nifi.provenance.ProvenanceEventReceiver;
 import com.thinkbiganalytics.metadata.jobrepo.nifi.provenance.RetryProvenanceEventWithDelay;
 import com.thinkbiganalytics.metadata.sla.DefaultServiceLevelAgreementScheduler;
+import com.thinkbiganalytics.metadata.sla.JobCompletionServiceLevelAgreementListener;
 import com.thinkbiganalytics.metadata.sla.JpaJcrServiceLevelAgreementChecker;
 import com.thinkbiganalytics.metadata.sla.ServiceLevelAgreementActionAlertResponderFactory;
+import com.thinkbiganalytics.metadata.sla.ServiceLevelAgreementCheckBatcher;
 import com.thinkbiganalytics.metadata.sla.spi.ServiceLevelAgreementChecker;
 import com.thinkbiganalytics.metadata.sla.spi.ServiceLevelAgreementScheduler;
 
@@ -63,6 +67,16 @@ public class OperationalMetadataServiceSpringConfiguration {
         return new JpaJcrServiceLevelAgreementChecker();
     }
 
+    @Bean
+    public ServiceLevelAgreementCheckBatcher serviceLevelAgreementCheckBatcher() {
+        return new ServiceLevelAgreementCheckBatcher();
+    }
+
+    @Bean
+    public JobCompletionServiceLevelAgreementListener jobCompletionServiceLevelAgreementListener() {
+        return new JobCompletionServiceLevelAgreementListener();
+    }
+
     @Bean(name = "slaActionAlertResponder")
     public ServiceLevelAgreementActionAlertResponderFactory slaActionResponder(@Qualifier("alertProvider") AlertProvider alertProvider) {
         ServiceLevelAgreementActionAlertResponderFactory responder = new ServiceLevelAgreementActionAlertResponderFactory();
@@ -87,6 +101,12 @@ public class OperationalMetadataServiceSpringConfiguration {
         return new ProvenanceEventReceiver();
     }
 
+    @Bean
+    @Profile("!kyloUpgrade")
+    public ProvenanceEventJobExecutionLockManager provenanceEventJobExecutionLockManager() {
+        return new ProvenanceEventJobExecutionLockManager();
+    }
+
     @Bean
     @Profile("!kyloUpgrade")
     public NifiStatsJmsReceiver nifiStatsJmsReceiver() {
@@ -124,6 +144,10 @@ public class OperationalMetadataServiceSpringConfiguration {
     public ServiceStatusCache serviceStatusCache(){
         return new ServiceStatusCache();
     }
+    @Bean
+    public DashboardResponseCache dashboardResponseCache(){
+        return new DashboardResponseCache();
+    }
 
     @Bean
     public CategoryFeedService categoryFeedService() {
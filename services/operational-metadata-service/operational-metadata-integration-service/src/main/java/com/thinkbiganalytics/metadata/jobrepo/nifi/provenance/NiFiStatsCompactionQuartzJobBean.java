@@ -38,6 +38,7 @@ import javax.inject.Inject;
 
 /**
  * Quartz Scheduled Job Bean that will call the procedure to compact the statistcs table
+ * and delete the statistics rollups that are past their retention
  */
 public class NiFiStatsCompactionQuartzJobBean extends QuartzJobBean{
     private static final Logger log = LoggerFactory.getLogger(NiFiStatsCompactionQuartzJobBean.class);
@@ -55,5 +56,9 @@ public class NiFiStatsCompactionQuartzJobBean extends QuartzJobBean{
         String results = metadataAccess.commit(() -> {
             return feedProcessorStatisticsProvider.compactFeedProcessorStatistics();
         }, MetadataAccess.SERVICE);
+
+        metadataAccess.commit(() -> {
+            return feedProcessorStatisticsProvider.purgeExpiredRollups();
+        }, MetadataAccess.SERVICE);
     }
 }
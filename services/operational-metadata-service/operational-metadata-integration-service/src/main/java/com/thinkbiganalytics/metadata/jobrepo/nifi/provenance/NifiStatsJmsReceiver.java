@@ -128,6 +128,9 @@ public class NifiStatsJmsReceiver implements ClusterServiceMessageReceiver {
     @Value("${kylo.ops.mgr.stats.nifi.bulletins.persist:false}")
     private boolean persistErrors = false;
 
+    @Value("${kylo.ops.mgr.stats.rollup.retry.attempts:3}")
+    private int rollupRetryAttempts = 3;
+
     private LoadingCache<String, Queue<NifiFeedProcessorErrors>> feedProcessorErrors = CacheBuilder.newBuilder().build(new CacheLoader<String, Queue<NifiFeedProcessorErrors>>() {
         @Override
         public Queue<NifiFeedProcessorErrors> load(String feedName) throws Exception {
@@ -265,7 +268,7 @@ public class NifiStatsJmsReceiver implements ClusterServiceMessageReceiver {
 
             if (ensureValidRetryAttempt(stats)) {
                 final List<AggregatedFeedProcessorStatistics> unregisteredEvents = new ArrayList<>();
-                metadataAccess.commit(() -> {
+                List<NifiFeedProcessorStats> savedStats = metadataAccess.commit(() -> {
                     List<NifiFeedProcessorStats> summaryStats = createSummaryStats(stats, unregisteredEvents);
 
                     List<JpaNifiFeedProcessorStats> failedStatsWithFlowFiles = new ArrayList<>();
@@ -285,6 +288,7 @@ public class NifiStatsJmsReceiver implements ClusterServiceMessageReceiver {
                     }
                     return summaryStats;
                 }, MetadataAccess.SERVICE);
+                rollupStats(savedStats);
 
                 if (clusterService.isClustered() && !unregisteredEvents.isEmpty()) {
                     //reprocess with delay
@@ -305,6 +309,31 @@ public class NifiStatsJmsReceiver implements ClusterServiceMessageReceiver {
     }
 
 
+    /**
+     * Add the saved stats to the minute, hour and day rollups.
+     * This is done in its own transaction so a conflict with another node updating the same rollup does not lose the stats.
+     * The rollup is retried on a conflict.
+     *
+     * @param stats the saved stats
+     */
+    private void rollupStats(List<NifiFeedProcessorStats> stats) {
+        if (stats == null || stats.isEmpty()) {
+            return;
+        }
+        for (int attempt = 1; attempt <= rollupRetryAttempts; attempt++) {
+            try {
+                metadataAccess.commit(() -> nifiEventStatisticsProvider.rollup(stats), MetadataAccess.SERVICE);
+                return;
+            } catch (Exception e) {
+                if (attempt == rollupRetryAttempts) {
+                    log.error("Unable to add {} stats to the rollups after {} attempts ", stats.size(), attempt, e);
+                } else {
+                    log.debug("Conflict adding {} stats to the rollups.  Retry attempt {} ", stats.size(), attempt, e);
+                }
+            }
+        }
+    }
+
     private void assignNiFiBulletinErrors(List<JpaNifiFeedProcessorStats> stats) {
 
         //might need to query with the 'after' parameter
@@ -1,4 +1,5 @@
 package com.thinkbiganalytics.metadata.jobrepo.nifi.provenance;
+
 /*-
  * #%L
  * thinkbig-operational-metadata-integration-service
@@ -18,40 +19,137 @@ package com.thinkbiganalytics.metadata.jobrepo.nifi.provenance;
  * limitations under the License.
  * #L%
  */
-import com.thinkbiganalytics.metadata.api.feed.OpsManagerFeed;
-import com.thinkbiganalytics.metadata.api.jobrepo.job.BatchJobExecution;
-import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTO;
 
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.function.BiFunction;
-import java.util.function.Consumer;
-import java.util.function.Function;
-import java.util.function.Supplier;
 
 /**
- * Lock on a given key
+ * Serializes the work done for a given key (the job flow file id).
+ *
+ * Each key in use has its own fair lock, so work for a busy job runs in the order it arrived, and work for other jobs is never held up by it.
+ * The work always runs on the calling thread, so a caller never returns (and acknowledges its JMS message) before its events have been processed.
+ * A key's lock is removed once no thread holds or waits for it, so the number of locks is bounded by the number of threads processing events.
  */
 public class ProvenanceEventJobExecutionLockManager {
 
-    static Map<String, Lock> locks = new ConcurrentHashMap<>();
+    private static final String UNKNOWN_FEED = "unknown";
+
+    private final Map<String, KeyLock> locks = new ConcurrentHashMap<>();
+
+    private final Map<String, FeedLockStatistics> feedLockStatistics = new ConcurrentHashMap<>();
 
-    public static Lock getLock(String key) {
-        Lock lock = locks.putIfAbsent(key, new ReentrantLock());
-        if (lock == null) {
-            lock = locks.get(key);
+    /**
+     * Run the work for the key on the calling thread, after any work for the same key that is already running or waiting.
+     *
+     * @param key      the key to serialize the work on
+     * @param feedName the feed name used for the wait and contention statistics
+     * @param work     the work to do
+     */
+    public void execute(String key, String feedName, Runnable work) {
+        FeedLockStatistics statistics = feedLockStatistics.computeIfAbsent(feedName != null ? feedName : UNKNOWN_FEED, name -> new FeedLockStatistics());
+        String lockKey = key != null ? key : "";
+        long start = System.nanoTime();
+
+        boolean[] contended = new boolean[1];
+        KeyLock keyLock = locks.compute(lockKey, (k, existing) -> {
+            KeyLock lock = existing != null ? existing : new KeyLock();
+            contended[0] = lock.users++ > 0;
+            return lock;
+        });
+        if (contended[0]) {
+            statistics.contended.increment();
+        }
+
+        try {
+            keyLock.lock.lock();
+            try {
+                statistics.recordWait(System.nanoTime() - start);
+                work.run();
+            } finally {
+                keyLock.lock.unlock();
+            }
+        } finally {
+            locks.computeIfPresent(lockKey, (k, lock) -> --lock.users == 0 ? null : lock);
         }
-        return lock;
+    }
+
+    /**
+     * @return the number of keys that currently have work running or waiting
+     */
+    public int getActiveKeyCount() {
+        return locks.size();
+    }
+
+    /**
+     * @return the wait and contention statistics for each feed
+     */
+    public Map<String, FeedLockStatistics> getFeedLockStatistics() {
+        return new TreeMap<>(feedLockStatistics);
+    }
+
+    public void resetFeedLockStatistics() {
+        feedLockStatistics.clear();
+    }
+
+    private static class KeyLock {
+
+        private final ReentrantLock lock = new ReentrantLock(true);
 
+        /**
+         * the number of threads holding or waiting for the lock. Guarded by the map entry
+         */
+        private int users;
     }
 
-    public static void releaseLock(String key) {
-        Lock lock = locks.get(key);
-        if (lock != null) {
-            lock.unlock();
-            locks.remove(key);
+    /**
+     * Wait time and contention for the work done for a feed
+     */
+    public static class FeedLockStatistics {
+
+        private final LongAdder acquired = new LongAdder();
+
+        private final LongAdder contended = new LongAdder();
+
+        private final LongAdder totalWaitNanos = new LongAdder();
+
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        void recordWait(long waitNanos) {
+            acquired.increment();
+            totalWaitNanos.add(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        }
+
+        /**
+         * @return the number of times work was run for the feed
+         */
+        public long getAcquired() {
+            return acquired.sum();
+        }
+
+        /**
+         * @return the number of times work for the feed found its job busy and had to wait
+         */
+        public long getContended() {
+            return contended.sum();
+        }
+
+        public long getTotalWaitMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum());
+        }
+
+        public long getMaxWaitMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+        }
+
+        public double getAverageWaitMillis() {
+            long count = acquired.sum();
+            return count == 0 ? 0 : (double) getTotalWaitMillis() / count;
         }
     }
 
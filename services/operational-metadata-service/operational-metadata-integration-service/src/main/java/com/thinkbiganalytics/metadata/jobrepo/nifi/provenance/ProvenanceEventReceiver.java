@@ -37,9 +37,9 @@ import com.thinkbiganalytics.metadata.api.jobrepo.step.FailedStepExecutionListen
 import com.thinkbiganalytics.metadata.jpa.jobrepo.nifi.NifiEventProvider;
 import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTO;
 import com.thinkbiganalytics.nifi.provenance.model.ProvenanceEventRecordDTOHolder;
+import com.thinkbiganalytics.nifi.provenance.model.codec.ProvenanceEventCodecs;
 import com.thinkbiganalytics.nifi.rest.client.LegacyNifiRestClient;
 
-import org.apache.commons.lang.SerializationUtils;
 import org.apache.nifi.web.api.dto.BulletinDTO;
 import org.hibernate.exception.LockAcquisitionException;
 import org.joda.time.DateTime;
@@ -47,14 +47,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jms.annotation.JmsListener;
+import org.springframework.messaging.handler.annotation.Header;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
@@ -83,14 +86,6 @@ public class ProvenanceEventReceiver implements FailedStepExecutionListener {
      */
     Cache<String, DateTime> lastFeedFinishedNotificationCache = CacheBuilder.newBuilder().build();
 
-    /**
-     * Map of flowfiles attempting to get/create job executions
-     * When an Event comes it Kylo needs to associate it with a given JobExecution in the database.
-     * This process will lock on the events JobExecution Id.
-     * If the lock cant be acquired it will increment a retrycounter into this map and try again
-     */
-    private Map<String, AtomicInteger> findJobExecutionAttempts = new HashMap<>();
-
 
     /**
      * Should ops manager query NiFi for any related bulletins on failure events
@@ -128,6 +123,14 @@ public class ProvenanceEventReceiver implements FailedStepExecutionListener {
     @Inject
     private RetryProvenanceEventWithDelay retryProvenanceEventWithDelay;
 
+    /**
+     * When an Event comes it Kylo needs to associate it with a given JobExecution in the database.
+     * This process will lock on the events JobFlowFileId.
+     * If another thread is processing events for the same JobFlowFileId the events are handed off to that thread.
+     */
+    @Inject
+    private ProvenanceEventJobExecutionLockManager jobExecutionLockManager;
+
 
     /**
      * The amount of retry attempts the system will do if it gets a LockAcquisitionException
@@ -189,18 +192,19 @@ public class ProvenanceEventReceiver implements FailedStepExecutionListener {
      * if it is a stream just write to the Nifi_event table.
      * When either are marked as the last event Notify the event bus for the trigger feed mechanism to work.
      *
-     * @param events The events obtained from JMS
+     * @param events The encoded events obtained from JMS
+     * @param codec  the name of the codec used to encode the events, or null for java serialization
      */
     @JmsListener(id = JMS_LISTENER_ID2, destination = Queues.FEED_MANAGER_QUEUE2, containerFactory = JmsConstants.QUEUE_LISTENER_CONTAINER_FACTORY, concurrency = "3-10")
-    public void receiveEvents(byte[] events) {
-        Object o = null;
+    public void receiveEvents(byte[] events, @Header(value = ProvenanceEventCodecs.CODEC_PROPERTY, required = false) String codec) {
+        ProvenanceEventRecordDTOHolder holder = null;
         try {
-            o = SerializationUtils.deserialize(events);
+            holder = ProvenanceEventCodecs.decode(events, codec);
         } catch (Exception e) {
-            log.error("Unable to deserialize object ", e);
+            log.error("Unable to decode the {} provenance events ", codec != null ? codec : "serialized", e);
         }
-        if (o != null && o instanceof ProvenanceEventRecordDTOHolder) {
-            receiveEvents((ProvenanceEventRecordDTOHolder) o);
+        if (holder != null) {
+            receiveEvents(holder);
         }
 
     }
@@ -221,16 +225,21 @@ public class ProvenanceEventReceiver implements FailedStepExecutionListener {
 
             if (ensureValidRetryAttempt(events)) {
                 List<ProvenanceEventRecordDTO> unregisteredEvents = new ArrayList<>();
+                Map<String, List<ProvenanceEventRecordDTO>> eventsByJobFlowFile = new LinkedHashMap<>();
 
                 events.getEvents().stream().map(event -> provenanceEventFeedUtil.enrichEventWithFeedInformation(event)).forEach(event -> {
 
                     if (provenanceEventFeedUtil.isRegisteredWithFeedManager(event)) {
-                        processEvent(event, 0);
+                        eventsByJobFlowFile.computeIfAbsent(event.getJobFlowFileId(), jobFlowFileId -> new ArrayList<>()).add(event);
                     } else {
                         unregisteredEvents.add(event);
                     }
                 });
 
+                for (List<ProvenanceEventRecordDTO> jobEvents : eventsByJobFlowFile.values()) {
+                    submitEvents(jobEvents);
+                }
+
                 if (clusterService.isClustered() && !unregisteredEvents.isEmpty()) {
                     //reprocess with delay
                     if (retryProvenanceEventWithDelay != null) {
@@ -251,112 +260,117 @@ public class ProvenanceEventReceiver implements FailedStepExecutionListener {
     }
 
     /**
-     * Try to get JobExecution for the given event.
-     * This will lock on the events JobFlowFileId when looking for the jobExecution
-     * @param event the event to process
-     * @return the JobExeuction related to this Event
-     * @throws InterruptedException
+     * Process the events while holding the lock for their JobFlowFileId.
+     * If another thread holds the lock, this thread waits for it, so the events of a job are processed in order and the JMS message is not acknowledged before
+     * its events are saved.
+     *
+     * @param events the events sharing the same job flow file
      */
-    private BatchJobExecution findOrCreateJobExecution(ProvenanceEventRecordDTO event, OpsManagerFeed feed) throws InterruptedException{
-        BatchJobExecution jobExecution = null;
-        Lock lock = ProvenanceEventJobExecutionLockManager.getLock(event.getJobFlowFileId());
-        String key = event.getJobFlowFileId() + "-" + event.getFlowFileUuid() + "-" + event.getEventId();
-        findJobExecutionAttempts.putIfAbsent(key, new AtomicInteger(0));
-        try {
-            if (lock.tryLock(2L, TimeUnit.SECONDS)) {
-                try {
-                     jobExecution = metadataAccess.commit(() -> batchJobExecutionProvider.getOrCreateJobExecution(event,feed),
-                                                                           MetadataAccess.SERVICE);
-                } finally {
-                    findJobExecutionAttempts.remove(key);
-                    ProvenanceEventJobExecutionLockManager.releaseLock(event.getJobFlowFileId());
-                }
-            } else {
-                int retries = findJobExecutionAttempts.get(key).incrementAndGet();
-                log.warn("unable to acquire lock for {} while looking for JobExecution.  Retry attempt: {} ",event.getJobFlowFileId(),retries);
-                //try three times before giving up
-                if (retries < 3) {
-                    findOrCreateJobExecution(event, feed);
-                } else {
-                    //give up
-                    findJobExecutionAttempts.remove(key);
-                    log.error("Unable to acquire the Lock to get/create the JobExecution for this event {}. This event will not be processed",event);
+    private void submitEvents(List<ProvenanceEventRecordDTO> events) {
+        ProvenanceEventRecordDTO firstEvent = events.get(0);
+        jobExecutionLockManager.execute(firstEvent.getJobFlowFileId(), firstEvent.getFeedName(), () -> processEvents(events, 0));
+    }
+
+    /**
+     * Get/create the JobExecutions and write the steps for the events.
+     * The events are split in front of each final job event so the steps of the events before it are written before the job is finished.
+     *
+     * @return the JobExecution for each event
+     */
+    private List<BatchJobExecution> saveJobEvents(List<ProvenanceEventRecordDTO> events, OpsManagerFeed feed) {
+        List<BatchJobExecution> jobExecutions = new ArrayList<>(events.size());
+        int start = 0;
+        for (int i = 1; i <= events.size(); i++) {
+            if (i == events.size() || events.get(i).isFinalJobEvent()) {
+                List<ProvenanceEventRecordDTO> segment = events.subList(start, i);
+                List<BatchJobExecution> segmentJobExecutions = batchJobExecutionProvider.getOrCreateJobExecutions(segment, feed);
+                //group the batch events by their job to write the steps together
+                Map<Long, List<ProvenanceEventRecordDTO>> batchEventsByJob = new LinkedHashMap<>();
+                Map<Long, BatchJobExecution> jobsById = new HashMap<>();
+                for (int j = 0; j < segment.size(); j++) {
+                    BatchJobExecution jobExecution = segmentJobExecutions.get(j);
+                    if (jobExecution != null && !segment.get(j).isStream()) {
+                        jobsById.put(jobExecution.getJobExecutionId(), jobExecution);
+                        batchEventsByJob.computeIfAbsent(jobExecution.getJobExecutionId(), id -> new ArrayList<>()).add(segment.get(j));
+                    }
                 }
+                batchEventsByJob.forEach((jobExecutionId, jobEvents) -> batchJobExecutionProvider.save(jobsById.get(jobExecutionId), jobEvents));
+                jobExecutions.addAll(segmentJobExecutions);
+                start = i;
             }
-        }catch (InterruptedException e) {
-          throw e;
         }
-        return jobExecution;
-
+        return jobExecutions;
     }
 
     /**
-     * process the event and persist it along with creating the Job and Step.  If there is a lock error it will retry until it hits the {@link #lockAcquisitionRetryAmount}
+     * process the events for a job flow file and persist them along with creating the Job and Steps in a single transaction.
+     * If there is a lock error it will retry until it hits the {@link #lockAcquisitionRetryAmount}.
+     * If the transaction fails for any other reason each event is retried in its own transaction, so only the events in error are skipped
      *
-     * @param event        a provenance event
+     * @param events       the provenance events sharing the same job flow file
      * @param retryAttempt the retry number.  If there is a lock error it will retry until it hits the {@link #lockAcquisitionRetryAmount}
      */
-    private void processEvent(ProvenanceEventRecordDTO event, int retryAttempt) {
+    private void processEvents(List<ProvenanceEventRecordDTO> events, int retryAttempt) {
+        ProvenanceEventRecordDTO firstEvent = events.get(0);
+        String jobFlowFileId = firstEvent.getJobFlowFileId();
         try {
 
-            OpsManagerFeed feed = provenanceEventFeedUtil.getFeed(event);
-            log.debug("Process {} for flowfile: {} and processorId: {} ", event, event.getJobFlowFileId(), event.getFirstEventProcessorId());
-            //ensure the job is there
-
-            BatchJobExecution jobExecution = findOrCreateJobExecution(event, feed);
-            if (jobExecution != null) {
-                batchJobExecutionProvider.updateFeedJobStartTime(jobExecution, feed);
+            OpsManagerFeed feed = provenanceEventFeedUtil.getFeed(firstEvent);
+            log.debug("Process {} events for flowfile: {} and processorId: {} ", events.size(), jobFlowFileId, firstEvent.getFirstEventProcessorId());
+            //ensure the jobs are there and write the steps
+            List<BatchJobExecution> jobExecutions;
+            try {
+                jobExecutions = metadataAccess.commit(() -> saveJobEvents(events, feed), MetadataAccess.SERVICE);
+            } catch (LockAcquisitionException lae) {
+                throw lae;
+            } catch (Exception e) {
+                if (events.size() == 1) {
+                    throw e;
+                }
+                log.warn("Error saving {} Events for {}.  Saving each event in its own transaction ", events.size(), jobFlowFileId, e);
+                for (ProvenanceEventRecordDTO event : events) {
+                    processEvents(Collections.singletonList(event), 0);
+                }
+                return;
             }
 
-            if (jobExecution != null && !event.isStream()) {
-                metadataAccess.commit(() -> receiveBatchEvent(jobExecution, event),
-                                      MetadataAccess.SERVICE);
-            }
-            if (jobExecution != null && event.isFinalJobEvent()) {
-                notifyJobFinished(jobExecution, event);
+            Set<Long> updatedJobs = new HashSet<>();
+            for (int i = 0; i < events.size(); i++) {
+                BatchJobExecution jobExecution = jobExecutions.get(i);
+                ProvenanceEventRecordDTO event = events.get(i);
+                if (jobExecution != null && updatedJobs.add(jobExecution.getJobExecutionId())) {
+                    batchJobExecutionProvider.updateFeedJobStartTime(jobExecution, feed);
+                }
+                if (jobExecution != null && event.isFinalJobEvent()) {
+                    notifyJobFinished(jobExecution, event);
+                }
             }
         } catch (LockAcquisitionException lae) {
-            //safeguard against LockAcquisitionException if MySQL has a problem locking the table during its processing of the Event.
+            //safeguard against LockAcquisitionException if MySQL has a problem locking the table during its processing of the Events.
 
             if (retryAttempt < lockAcquisitionRetryAmount) {
                 retryAttempt++;
-                log.error("LockAcquisitionException found trying to process Event: {} .  Retry attempt # {} ", event, retryAttempt, lae);
+                log.error("LockAcquisitionException found trying to process {} Events for {} .  Retry attempt # {} ", events.size(), jobFlowFileId, retryAttempt, lae);
                 //wait and re attempt
                 try {
                     Thread.sleep(300L);
                 } catch (InterruptedException var10) {
 
                 }
-                processEvent(event, retryAttempt);
+                processEvents(events, retryAttempt);
             } else {
-                log.error("LockAcquisitionException found.  Unsuccessful after retrying {} times.  This event {} will not be processed. ", retryAttempt, event, lae);
+                log.error("LockAcquisitionException found.  Unsuccessful after retrying {} times.  These {} events for {} will not be processed. ", retryAttempt, events.size(), jobFlowFileId, lae);
             }
         } catch (Exception e) {
-            log.error("Error processing Event ", event, e);
+            if (events.size() == 1) {
+                log.error("Error processing Event {} for {}.  Skipping the event ", firstEvent.getEventId(), jobFlowFileId, e);
+            } else {
+                log.error("Error processing {} Events for {} ", events.size(), jobFlowFileId, e);
+            }
         }
 
     }
 
-
-    /**
-     * Process this record and record the Job and steps
-     *
-     * @param jobExecution the job execution
-     * @param event        a provenance event
-     * @return a persisted nifi event object
-     */
-    private void receiveBatchEvent(BatchJobExecution jobExecution, ProvenanceEventRecordDTO event) {
-        //   NifiEvent nifiEvent = null;
-        log.debug("Received ProvenanceEvent {}.  is ending flowfile:{}", event, event.isEndingFlowFileEvent());
-        //query it again
-        jobExecution = batchJobExecutionProvider.findByJobExecutionId(jobExecution.getJobExecutionId(), true);
-        BatchJobExecution job = batchJobExecutionProvider.save(jobExecution, event);
-        if (job == null) {
-            log.error(" Detected a Batch event, but could not find related Job record. for event: {}  is end of Job: {}.  is ending flowfile:{}, ", event, event.isEndingFlowFileEvent(),
-                      event.isEndingFlowFileEvent());
-        }
-    }
-
     /**
      * When should the system notify others the job has finished with success/failure.
      * if Batch always notify
@@ -28,6 +28,9 @@ import com.thinkbiganalytics.cluster.ClusterServiceMessageReceiver;
 import com.thinkbiganalytics.metadata.api.MetadataAccess;
 import com.thinkbiganalytics.metadata.api.PostMetadataConfigAction;
 import com.thinkbiganalytics.metadata.modeshape.sla.JcrServiceLevelAgreement;
+import com.thinkbiganalytics.metadata.sla.api.JobCompletionMetric;
+import com.thinkbiganalytics.metadata.sla.api.Metric;
+import com.thinkbiganalytics.metadata.sla.api.Obligation;
 import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAgreement;
 import com.thinkbiganalytics.metadata.sla.spi.ServiceLevelAgreementChecker;
 import com.thinkbiganalytics.metadata.sla.spi.ServiceLevelAgreementProvider;
@@ -42,7 +45,9 @@ import com.thinkbiganalytics.scheduler.model.DefaultJobIdentifier;
 import com.thinkbiganalytics.scheduler.model.DefaultTriggerIdentifier;
 
 import org.apache.commons.lang3.StringUtils;
+import org.quartz.CronTrigger;
 import org.quartz.SchedulerException;
+import org.quartz.Trigger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -72,6 +77,13 @@ public class DefaultServiceLevelAgreementScheduler implements ServiceLevelAgreem
     private String DEFAULT_CRON = "0 0/5 * 1/1 * ? *";// every 5 min
     @Value("${sla.cron.default:0 0/5 * 1/1 * ? *}")
     private String defaultCron;
+    /**
+     * Schedule of the SLAs that are assessed as the jobs of their feeds complete, which only needs to catch any job completions that were missed
+     */
+    @Value("${sla.cron.job.events:0 0/30 * 1/1 * ? *}")
+    private String jobEventsCron;
+    @Value("${sla.job.events.enabled:true}")
+    private boolean jobEventsEnabled = true;
     @Inject
     private JobScheduler jobScheduler;
     @Inject
@@ -108,6 +120,7 @@ public class DefaultServiceLevelAgreementScheduler implements ServiceLevelAgreem
                         scheduleServiceLevelAgreement(agreement);
                     } else {
                         scheduledJobNames.put(agreement.getId(), jobIdentifier.getName());
+                        updateCronExpression(agreement, jobIdentifier);
                     }
                 }
             } else {
@@ -284,21 +297,66 @@ public class DefaultServiceLevelAgreementScheduler implements ServiceLevelAgreem
      * Schedule the SlaQuartzJobBean for the given sla
      *
      * @param jobIdentifier the job identifier for this schedule
-     * @param slaId         the SLA id
+     * @param sla           the SLA
      */
-    private void scheduleSlaJob(JobIdentifier jobIdentifier, ServiceLevelAgreement.ID slaId) {
+    private void scheduleSlaJob(JobIdentifier jobIdentifier, ServiceLevelAgreement sla) {
 
         QuartzScheduler scheduler = (QuartzScheduler) jobScheduler;
         TriggerIdentifier triggerIdentifier = triggerIdentifier(jobIdentifier);
         Map<String, Object> map = new HashMap<String, Object>();
-        map.put(SlaQuartzJobBean.SLA_ID_PARAM, slaId);
+        map.put(SlaQuartzJobBean.SLA_ID_PARAM, sla.getId());
         try {
-            scheduler.scheduleJob(jobIdentifier, triggerIdentifier, SlaQuartzJobBean.class, (StringUtils.isBlank(defaultCron) ? DEFAULT_CRON : defaultCron), map);
+            scheduler.scheduleJob(jobIdentifier, triggerIdentifier, SlaQuartzJobBean.class, cronExpression(sla), map);
         } catch (SchedulerException e) {
             throw new RuntimeException("Error scheduling job", e);
         }
     }
 
+    /**
+     * Updates the schedule of an SLA that was scheduled before, if it no longer matches the schedule for its metrics.
+     */
+    private void updateCronExpression(ServiceLevelAgreement sla, JobIdentifier jobIdentifier) {
+        QuartzScheduler scheduler = (QuartzScheduler) jobScheduler;
+        TriggerIdentifier triggerIdentifier = triggerIdentifier(jobIdentifier);
+        String cronExpression = cronExpression(sla);
+        try {
+            Trigger trigger = scheduler.getScheduler().getTrigger(QuartzScheduler.triggerKeyForTriggerIdentifier(triggerIdentifier));
+            if (trigger instanceof CronTrigger && !cronExpression.equals(((CronTrigger) trigger).getCronExpression())) {
+                log.info("Rescheduling sla job {} with {}", jobIdentifier.getName(), cronExpression);
+                jobScheduler.updateTrigger(triggerIdentifier, cronExpression);
+                if (!sla.isEnabled()) {
+                    disableServiceLevelAgreement(sla);
+                }
+            }
+        } catch (SchedulerException | JobSchedulerException e) {
+            log.error("Unable to update the schedule of the SLA job {}", jobIdentifier.getName(), e);
+        }
+    }
+
+    /**
+     * SLAs made up only of {@link JobCompletionMetric}s are assessed by the {@link JobCompletionServiceLevelAgreementListener} as the jobs of their feeds
+     * complete, so they are scheduled less often.
+     */
+    private String cronExpression(ServiceLevelAgreement sla) {
+        if (jobEventsEnabled && StringUtils.isNotBlank(jobEventsCron) && isAssessedOnJobCompletion(sla)) {
+            return jobEventsCron;
+        }
+        return StringUtils.isBlank(defaultCron) ? DEFAULT_CRON : defaultCron;
+    }
+
+    private boolean isAssessedOnJobCompletion(ServiceLevelAgreement sla) {
+        boolean hasMetrics = false;
+        for (Obligation obligation : sla.getObligations()) {
+            for (Metric metric : obligation.getMetrics()) {
+                if (!(metric instanceof JobCompletionMetric)) {
+                    return false;
+                }
+                hasMetrics = true;
+            }
+        }
+        return hasMetrics;
+    }
+
 
     /**
      * Schedules an SLA to be run
@@ -312,7 +370,7 @@ public class DefaultServiceLevelAgreementScheduler implements ServiceLevelAgreem
         JobIdentifier jobIdentifier = slaJobName(sla);
         ServiceLevelAgreement.ID slaId = sla.getId();
         //schedule the job
-        scheduleSlaJob(jobIdentifier, slaId);
+        scheduleSlaJob(jobIdentifier, sla);
         log.info("Schedule sla job " + jobIdentifier.getName());
         scheduledJobNames.put(sla.getId(), jobIdentifier.getName());
         //notify the other schedulers in the cluster of the scheduled job name
@@ -0,0 +1,251 @@
+package com.thinkbiganalytics.metadata.sla;
+
+/*-
+ * #%L
+ * thinkbig-operational-metadata-integration-service
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.thinkbiganalytics.metadata.api.MetadataAccess;
+import com.thinkbiganalytics.metadata.api.event.MetadataEventListener;
+import com.thinkbiganalytics.metadata.api.event.MetadataEventService;
+import com.thinkbiganalytics.metadata.api.event.feed.FeedOperationStatusEvent;
+import com.thinkbiganalytics.metadata.api.event.feed.OperationStatus;
+import com.thinkbiganalytics.metadata.api.feed.OpsManagerFeed;
+import com.thinkbiganalytics.metadata.api.feed.OpsManagerFeedProvider;
+import com.thinkbiganalytics.metadata.api.op.FeedOperation;
+import com.thinkbiganalytics.metadata.api.sla.ServiceLevelAgreementDescriptionProvider;
+import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAgreement;
+import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAgreementDescription;
+import com.thinkbiganalytics.metadata.sla.spi.ServiceLevelAgreementProvider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+/**
+ * Assesses the SLAs of a feed as soon as one of its jobs completes, rather than waiting for their next scheduled check.
+ * <p>
+ * Completed jobs mark their feed as dirty.  The dirty feeds are collected for a short debounce interval so a burst of jobs for the same feed is only
+ * assessed once, then the SLAs of the dirty feeds are looked up together and submitted to the {@link ServiceLevelAgreementCheckBatcher}.
+ * <p>
+ * A failed job submits the SLAs of its feed right away.  Successful jobs submit an SLA at most once per minimum interval, and a success received
+ * within the interval is deferred until it elapses, so a feed that completes often does not cause its SLAs to be assessed on every job.
+ */
+public class JobCompletionServiceLevelAgreementListener {
+
+    private static final Logger log = LoggerFactory.getLogger(JobCompletionServiceLevelAgreementListener.class);
+
+    @Inject
+    private MetadataEventService metadataEventService;
+
+    @Inject
+    private MetadataAccess metadataAccess;
+
+    @Inject
+    private OpsManagerFeedProvider opsManagerFeedProvider;
+
+    @Inject
+    private ServiceLevelAgreementDescriptionProvider slaDescriptionProvider;
+
+    @Inject
+    private ServiceLevelAgreementProvider slaProvider;
+
+    @Inject
+    private ServiceLevelAgreementCheckBatcher slaCheckBatcher;
+
+    /**
+     * Indicates if SLAs should be assessed when the jobs of their feeds complete
+     */
+    @Value("${sla.job.events.enabled:true}")
+    private boolean enabled = true;
+
+    /**
+     * Time to collect other completed jobs after the first one is received
+     */
+    @Value("${sla.job.events.debounce.millis:5000}")
+    private long debounceMillis = 5000;
+
+    /**
+     * Minimum time between two submissions of an SLA for successful jobs
+     */
+    @Value("${sla.job.events.min.interval.millis:60000}")
+    private long minIntervalMillis = 60000;
+
+    private final FeedOperationStatusListener feedOperationStatusListener = new FeedOperationStatusListener();
+
+    /**
+     * The completed jobs of each dirty feed, by name
+     */
+    private final Map<String, CompletedJobs> dirtyFeeds = new HashMap<>();
+
+    /**
+     * The time each SLA was last submitted for a completed job.  Only used by the drain thread
+     */
+    private final Map<ServiceLevelAgreement.ID, Long> lastSubmitted = new HashMap<>();
+
+    /**
+     * The end time of the earliest job of each SLA waiting for the minimum interval to elapse.  Only used by the drain thread
+     */
+    private final Map<ServiceLevelAgreement.ID, Long> deferred = new HashMap<>();
+
+    private boolean drainScheduled = false;
+
+    private ScheduledExecutorService drainExecutor;
+
+    @PostConstruct
+    private void init() {
+        if (enabled) {
+            drainExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true).setNameFormat("sla-job-events-%d").build());
+            metadataEventService.addListener(feedOperationStatusListener);
+        }
+    }
+
+    @PreDestroy
+    private void destroy() {
+        if (drainExecutor != null) {
+            metadataEventService.removeListener(feedOperationStatusListener);
+            drainExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Marks the feed as dirty so its SLAs are assessed once the debounce interval elapses.
+     *
+     * @param feedName     the feed name as {category}.{feed}
+     * @param jobEndMillis the time the job ended
+     * @param failed       {@code true} if the job failed
+     */
+    public void markDirty(String feedName, long jobEndMillis, boolean failed) {
+        synchronized (dirtyFeeds) {
+            dirtyFeeds.computeIfAbsent(feedName, name -> new CompletedJobs()).add(jobEndMillis, failed);
+            if (!drainScheduled) {
+                drainScheduled = true;
+                drainExecutor.schedule(this::assessDirtyFeeds, debounceMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void assessDirtyFeeds() {
+        Map<String, CompletedJobs> feeds;
+        synchronized (dirtyFeeds) {
+            feeds = new HashMap<>(dirtyFeeds);
+            dirtyFeeds.clear();
+            drainScheduled = false;
+        }
+        try {
+            Map<ServiceLevelAgreement.ID, CompletedJobs> agreements = metadataAccess.read(() -> {
+                Map<ServiceLevelAgreement.ID, CompletedJobs> ids = new HashMap<>();
+                feeds.forEach((feedName, jobs) -> {
+                    OpsManagerFeed feed = opsManagerFeedProvider.findByName(feedName);
+                    if (feed != null) {
+                        List<? extends ServiceLevelAgreementDescription> slas = slaDescriptionProvider.findForFeed(feed.getId());
+                        for (ServiceLevelAgreementDescription sla : slas) {
+                            ids.computeIfAbsent(slaProvider.resolve(sla.getSlaId().toString()), id -> new CompletedJobs()).add(jobs);
+                        }
+                    }
+                });
+                return ids;
+            }, MetadataAccess.SERVICE);
+
+            long now = System.currentTimeMillis();
+            lastSubmitted.values().removeIf(submittedMillis -> now - submittedMillis >= minIntervalMillis);
+            log.debug("Assessing {} SLAs for the completed jobs of {} feeds", agreements.size(), feeds.size());
+            agreements.forEach((slaId, jobs) -> {
+                Long submittedMillis = lastSubmitted.get(slaId);
+                if (jobs.failed || submittedMillis == null) {
+                    submit(slaId, jobs.firstEndMillis, now);
+                } else {
+                    defer(slaId, jobs.firstEndMillis, submittedMillis + minIntervalMillis - now);
+                }
+            });
+        } catch (Exception e) {
+            log.error("Error finding the SLAs of {} feeds with completed jobs", feeds.size(), e);
+        }
+    }
+
+    private void submit(ServiceLevelAgreement.ID slaId, long jobEndMillis, long now) {
+        Long deferredEndMillis = deferred.remove(slaId);
+        lastSubmitted.put(slaId, now);
+        slaCheckBatcher.submitForJobEvent(slaId, deferredEndMillis != null ? Math.min(deferredEndMillis, jobEndMillis) : jobEndMillis);
+    }
+
+    /**
+     * Submits the SLA once the minimum interval since it was last submitted elapses, unless a failed job submits it first.
+     */
+    private void defer(ServiceLevelAgreement.ID slaId, long jobEndMillis, long delayMillis) {
+        if (deferred.containsKey(slaId)) {
+            deferred.merge(slaId, jobEndMillis, Math::min);
+        } else {
+            deferred.put(slaId, jobEndMillis);
+            drainExecutor.schedule(() -> submitDeferred(slaId), delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void submitDeferred(ServiceLevelAgreement.ID slaId) {
+        Long jobEndMillis = deferred.remove(slaId);
+        if (jobEndMillis != null) {
+            lastSubmitted.put(slaId, System.currentTimeMillis());
+            slaCheckBatcher.submitForJobEvent(slaId, jobEndMillis);
+        }
+    }
+
+    private class FeedOperationStatusListener implements MetadataEventListener<FeedOperationStatusEvent> {
+
+        @Override
+        public void notify(@Nonnull final FeedOperationStatusEvent metadataEvent) {
+            OperationStatus status = metadataEvent.getData();
+            if (status.getFeedName() != null && (status.getState() == FeedOperation.State.SUCCESS || status.getState() == FeedOperation.State.FAILURE)) {
+                long jobEndMillis = status.getEndTime() != null ? status.getEndTime().getMillis() : System.currentTimeMillis();
+                markDirty(status.getFeedName(), jobEndMillis, status.getState() == FeedOperation.State.FAILURE);
+            }
+        }
+    }
+
+    /**
+     * The jobs that completed for a feed or SLA since it was last assessed
+     */
+    private static class CompletedJobs {
+
+        private long firstEndMillis = Long.MAX_VALUE;
+
+        private boolean failed;
+
+        void add(long jobEndMillis, boolean jobFailed) {
+            firstEndMillis = Math.min(firstEndMillis, jobEndMillis);
+            failed |= jobFailed;
+        }
+
+        void add(CompletedJobs jobs) {
+            add(jobs.firstEndMillis, jobs.failed);
+        }
+    }
+}
@@ -21,15 +21,32 @@ package com.thinkbiganalytics.metadata.sla;
  */
 
 
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.thinkbiganalytics.metadata.api.MetadataAccess;
 import com.thinkbiganalytics.metadata.modeshape.JcrMetadataAccess;
 import com.thinkbiganalytics.metadata.sla.api.AssessmentResult;
 import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAgreement;
 import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAssessment;
+import com.thinkbiganalytics.metadata.sla.spi.PrefetchedMetrics;
 import com.thinkbiganalytics.metadata.sla.spi.core.DefaultServiceLevelAgreementChecker;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
 /**
@@ -43,6 +60,125 @@ public class JpaJcrServiceLevelAgreementChecker extends DefaultServiceLevelAgree
     @Inject
     JcrMetadataAccess jcrMetadataAccess;
 
+    @Inject
+    private MetadataAccess metadataAccess;
+
+    /**
+     * Number of threads assessing the agreements of a batch in parallel
+     */
+    @Value("${sla.batch.threads:4}")
+    private int batchThreads = 4;
+
+    /**
+     * Number of agreements of a partition assessed in each transaction
+     */
+    @Value("${sla.batch.commit.size:10}")
+    private int commitSize = 10;
+
+    private ExecutorService batchExecutor;
+
+    /**
+     * The latest assessments of the agreements being checked by the current thread as part of a batch, prefetched before they were assessed again
+     */
+    private final ThreadLocal<Map<ServiceLevelAgreement.ID, ServiceLevelAssessment>> previousAssessments = new ThreadLocal<>();
+
+    @PostConstruct
+    private void init() {
+        batchExecutor = Executors.newFixedThreadPool(Math.max(1, batchThreads), new ThreadFactoryBuilder().setDaemon(true).setNameFormat("sla-batch-%d").build());
+    }
+
+    @PreDestroy
+    private void destroy() {
+        if (batchExecutor != null) {
+            batchExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Checks the agreements as one batch.  The latest job executions of all the feeds referenced by the agreements are prefetched once, then the agreements are split
+     * among the batch threads, each assessing its share in small transactions, each against one query for the previous assessments of its agreements.
+     * <p>
+     * This manages its own transactions and should not be called within one.
+     *
+     * @param agreementIds the agreements to check
+     */
+    @Override
+    public void checkAgreements(Collection<ServiceLevelAgreement.ID> agreementIds) {
+        List<ServiceLevelAgreement.ID> enabledIds = new ArrayList<>();
+        PrefetchedMetrics prefetched = metadataAccess.read(() -> {
+            List<ServiceLevelAgreement> agreements = findEnabledAgreements(agreementIds);
+            agreements.stream().map(ServiceLevelAgreement::getId).forEach(enabledIds::add);
+            return assessor.prefetch(agreements);
+        }, MetadataAccess.SERVICE);
+
+        LOG.info("Checking a batch of {} service level agreements", enabledIds.size());
+
+        try {
+            if (!enabledIds.isEmpty()) {
+                int partitionSize = (enabledIds.size() + batchThreads - 1) / Math.max(1, batchThreads);
+                List<Future<?>> partitions = new ArrayList<>();
+                for (List<ServiceLevelAgreement.ID> partition : Lists.partition(enabledIds, partitionSize)) {
+                    partitions.add(batchExecutor.submit(() -> prefetched.run(() -> checkPartition(partition))));
+                }
+                for (Future<?> partition : partitions) {
+                    try {
+                        partition.get();
+                    } catch (ExecutionException e) {
+                        LOG.error("Error checking a batch of service level agreements", e.getCause());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        LOG.info("Completed checking the batch of SLAs");
+    }
+
+    /**
+     * Checks some of the agreements of a batch, committing every {@link #commitSize} agreements.  If a chunk fails its agreements are checked again one per
+     * transaction so a single failing agreement does not roll back the assessments and alerts of the others.
+     */
+    private void checkPartition(List<ServiceLevelAgreement.ID> agreementIds) {
+        for (List<ServiceLevelAgreement.ID> chunk : Lists.partition(agreementIds, Math.max(1, commitSize))) {
+            try {
+                checkChunk(chunk);
+            } catch (Exception e) {
+                if (chunk.size() == 1) {
+                    LOG.error("Error checking service level agreement {}", chunk.get(0), e);
+                } else {
+                    LOG.warn("Error checking a chunk of {} service level agreements. Checking them one at a time", chunk.size(), e);
+                    for (ServiceLevelAgreement.ID slaId : chunk) {
+                        try {
+                            checkChunk(Collections.singletonList(slaId));
+                        } catch (Exception slaException) {
+                            LOG.error("Error checking service level agreement {}", slaId, slaException);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks the agreements in a single transaction.
+     */
+    private void checkChunk(List<ServiceLevelAgreement.ID> agreementIds) {
+        metadataAccess.commit(() -> {
+            previousAssessments.set(assessmentProvider.findLatestAssessments(agreementIds));
+            try {
+                for (ServiceLevelAgreement.ID slaId : agreementIds) {
+                    ServiceLevelAgreement agreement = slaProvider.getAgreement(slaId);
+                    if (agreement != null) {
+                        checkAgreement(agreement);
+                    }
+                }
+            } finally {
+                previousAssessments.remove();
+            }
+        }, MetadataAccess.SERVICE);
+    }
+
     /**
      * Runs the assessment provider on the provided agreement and acts accordingly.
      *
@@ -56,7 +192,9 @@ public class JpaJcrServiceLevelAgreementChecker extends DefaultServiceLevelAgree
         try {
             shouldAlert = jcrMetadataAccess.read(() -> {
                 // Get the last assessment that was created for this SLA (if any).
-                ServiceLevelAssessment previous = this.assessmentProvider.findLatestAssessmentNotEqualTo(agreement.getId(), assessment.getId());
+                Map<ServiceLevelAgreement.ID, ServiceLevelAssessment> prefetched = previousAssessments.get();
+                ServiceLevelAssessment previous = (prefetched != null) ? prefetched.get(agreement.getId())
+                                                                       : this.assessmentProvider.findLatestAssessmentNotEqualTo(agreement.getId(), assessment.getId());
                 boolean alert = false;
                 if (previous != null) {
                     assessmentProvider.ensureServiceLevelAgreementOnAssessment(previous);
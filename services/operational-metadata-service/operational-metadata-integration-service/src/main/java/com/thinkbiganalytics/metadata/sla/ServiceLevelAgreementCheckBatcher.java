@@ -0,0 +1,158 @@
+package com.thinkbiganalytics.metadata.sla;
+
+/*-
+ * #%L
+ * thinkbig-operational-metadata-integration-service
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAgreement;
+import com.thinkbiganalytics.metadata.sla.spi.ServiceLevelAgreementChecker;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+/**
+ * Groups the SLAs whose scheduled jobs fire on the same tick so they are checked together as one batch.
+ * <p>
+ * The first SLA submitted opens a short window, and every SLA submitted before the window closes is checked in the same call to
+ * {@link ServiceLevelAgreementChecker#checkAgreements(java.util.Collection)}.  Batches are checked one at a time.
+ * <p>
+ * SLAs submitted because a job of one of their feeds completed are checked the same way, and the time from the job completing to the SLA
+ * being assessed is recorded in the {@link ServiceLevelAgreementCheckStatistics}.
+ */
+public class ServiceLevelAgreementCheckBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceLevelAgreementCheckBatcher.class);
+
+    @Inject
+    private ServiceLevelAgreementChecker slaChecker;
+
+    /**
+     * Time to wait for the other SLAs of the same tick after the first one is submitted
+     */
+    @Value("${sla.batch.window.millis:2000}")
+    private long batchWindowMillis = 2000;
+
+    private final Set<ServiceLevelAgreement.ID> pendingIds = new LinkedHashSet<>();
+
+    /**
+     * The end time of the earliest completed job of each pending SLA submitted because of a completed job
+     */
+    private final Map<ServiceLevelAgreement.ID, Long> pendingJobEventTimes = new HashMap<>();
+
+    private final ServiceLevelAgreementCheckStatistics statistics = new ServiceLevelAgreementCheckStatistics();
+
+    private boolean batchScheduled = false;
+
+    private ScheduledExecutorService batchExecutor;
+
+    @PostConstruct
+    private void init() {
+        batchExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true).setNameFormat("sla-check-batcher-%d").build());
+    }
+
+    @PreDestroy
+    private void destroy() {
+        if (batchExecutor != null) {
+            batchExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Adds the SLA to the next batch to be checked.
+     *
+     * @param slaId the SLA id
+     */
+    public void submit(ServiceLevelAgreement.ID slaId) {
+        synchronized (pendingIds) {
+            pendingIds.add(slaId);
+            scheduleBatch();
+        }
+    }
+
+    /**
+     * Adds the SLA to the next batch to be checked because a job of one of its feeds completed.
+     *
+     * @param slaId        the SLA id
+     * @param jobEndMillis the time the job ended
+     */
+    public void submitForJobEvent(ServiceLevelAgreement.ID slaId, long jobEndMillis) {
+        synchronized (pendingIds) {
+            pendingIds.add(slaId);
+            pendingJobEventTimes.merge(slaId, jobEndMillis, Math::min);
+            scheduleBatch();
+        }
+    }
+
+    /**
+     * @return the cost and latency of the SLA checks
+     */
+    public ServiceLevelAgreementCheckStatistics getStatistics() {
+        return statistics;
+    }
+
+    private void scheduleBatch() {
+        if (!batchScheduled) {
+            batchScheduled = true;
+            batchExecutor.schedule(this::checkPending, batchWindowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void checkPending() {
+        List<ServiceLevelAgreement.ID> batch;
+        Map<ServiceLevelAgreement.ID, Long> jobEventTimes;
+        synchronized (pendingIds) {
+            batch = new ArrayList<>(pendingIds);
+            jobEventTimes = new HashMap<>(pendingJobEventTimes);
+            pendingIds.clear();
+            pendingJobEventTimes.clear();
+            batchScheduled = false;
+        }
+        long start = System.nanoTime();
+        try {
+            slaChecker.checkAgreements(batch);
+        } catch (Exception e) {
+            log.error("Error checking a batch of {} SLAs", batch.size(), e);
+        }
+        statistics.recordBatch(batch.size(), System.nanoTime() - start);
+
+        long now = System.currentTimeMillis();
+        jobEventTimes.values().forEach(jobEndMillis -> statistics.recordJobEventCheck(now - jobEndMillis));
+    }
+
+    public void setBatchWindowMillis(long batchWindowMillis) {
+        this.batchWindowMillis = batchWindowMillis;
+    }
+}
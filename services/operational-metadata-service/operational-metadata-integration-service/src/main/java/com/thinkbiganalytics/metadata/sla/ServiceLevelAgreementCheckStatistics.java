@@ -0,0 +1,107 @@
+package com.thinkbiganalytics.metadata.sla;
+
+/*-
+ * #%L
+ * thinkbig-operational-metadata-integration-service
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cost of checking SLAs, and the time taken to assess an SLA after a job of one of its feeds completes.
+ */
+public class ServiceLevelAgreementCheckStatistics {
+
+    private final LongAdder batches = new LongAdder();
+
+    private final LongAdder agreementsChecked = new LongAdder();
+
+    private final LongAdder totalCheckNanos = new LongAdder();
+
+    private final AtomicLong maxBatchNanos = new AtomicLong();
+
+    private final LongAdder jobEventChecks = new LongAdder();
+
+    private final LongAdder totalDetectionMillis = new LongAdder();
+
+    private final AtomicLong maxDetectionMillis = new AtomicLong();
+
+    void recordBatch(int agreements, long checkNanos) {
+        batches.increment();
+        agreementsChecked.add(agreements);
+        totalCheckNanos.add(checkNanos);
+        maxBatchNanos.accumulateAndGet(checkNanos, Math::max);
+    }
+
+    void recordJobEventCheck(long detectionMillis) {
+        jobEventChecks.increment();
+        totalDetectionMillis.add(detectionMillis);
+        maxDetectionMillis.accumulateAndGet(detectionMillis, Math::max);
+    }
+
+    /**
+     * @return the number of batches of SLAs checked
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * @return the number of SLAs checked, counting an SLA once for each batch it was part of
+     */
+    public long getAgreementsChecked() {
+        return agreementsChecked.sum();
+    }
+
+    public long getTotalCheckMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalCheckNanos.sum());
+    }
+
+    public long getMaxBatchMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxBatchNanos.get());
+    }
+
+    /**
+     * @return the average time spent checking one SLA
+     */
+    public double getAverageCheckMillis() {
+        long count = agreementsChecked.sum();
+        return count == 0 ? 0 : (double) totalCheckNanos.sum() / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @return the number of SLA checks caused by a job completing
+     */
+    public long getJobEventChecks() {
+        return jobEventChecks.sum();
+    }
+
+    /**
+     * @return the average time from a job completing to the SLAs of its feed being assessed
+     */
+    public double getAverageDetectionMillis() {
+        long count = jobEventChecks.sum();
+        return count == 0 ? 0 : (double) totalDetectionMillis.sum() / count;
+    }
+
+    public long getMaxDetectionMillis() {
+        return maxDetectionMillis.get();
+    }
+}
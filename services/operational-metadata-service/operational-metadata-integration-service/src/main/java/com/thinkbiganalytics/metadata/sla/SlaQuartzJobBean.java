@@ -20,15 +20,10 @@ package com.thinkbiganalytics.metadata.sla;
  * #L%
  */
 
-import com.thinkbiganalytics.metadata.api.MetadataAccess;
 import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAgreement;
-import com.thinkbiganalytics.metadata.sla.spi.ServiceLevelAgreementChecker;
-import com.thinkbiganalytics.metadata.sla.spi.ServiceLevelAgreementProvider;
 
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.quartz.QuartzJobBean;
 
 import java.util.Map;
@@ -36,38 +31,19 @@ import java.util.Map;
 import javax.inject.Inject;
 
 /**
- * Quartz Scheduled Job Bean that will run the SLA code
+ * Quartz Scheduled Job Bean that will run the SLA code.  The SLA is handed to the {@link ServiceLevelAgreementCheckBatcher} so that all the SLAs firing on the
+ * same tick are checked together.
  */
 public class SlaQuartzJobBean extends QuartzJobBean{
     public static final String SLA_ID_PARAM = "SLA_ID";
-    private static final Logger log = LoggerFactory.getLogger(SlaQuartzJobBean.class);
-    @Inject
-    ServiceLevelAgreementProvider slaProvider;
 
     @Inject
-    private ServiceLevelAgreementChecker slaChecker;
-    @Inject
-    private MetadataAccess metadataAccess;
+    private ServiceLevelAgreementCheckBatcher slaCheckBatcher;
 
     @Override
     protected void executeInternal(JobExecutionContext context) throws JobExecutionException {
-        //query for this SLA
         final Map<String,   Object> jobDataMap = context.getMergedJobDataMap();
-
-        metadataAccess.commit(() -> {
-            ServiceLevelAgreement.ID slaId = (ServiceLevelAgreement.ID)jobDataMap.get(SLA_ID_PARAM);
-            ServiceLevelAgreement sla = slaProvider.getAgreement(slaId);
-            if (sla != null) {
-                ///Unable to find the SLA... Remove the SLA from teh schedule
-                //   unscheduleServiceLevelAgreement(slaId);
-                if (sla.isEnabled()) {
-                    slaChecker.checkAgreement(sla);
-                } else {
-                    log.info("SLA {} will not fire since it is disabled ", sla.getName());
-                }
-            }else {
-                log.error("UNABLE TO FIND SLA for {} ",slaId);
-            }
-        }, MetadataAccess.SERVICE);
+        ServiceLevelAgreement.ID slaId = (ServiceLevelAgreement.ID)jobDataMap.get(SLA_ID_PARAM);
+        slaCheckBatcher.submit(slaId);
     }
 }
@@ -0,0 +1,298 @@
+package com.thinkbiganalytics.alerts.spi.defaults;
+
+/*-
+ * #%L
+ * thinkbig-operational-metadata-integration-service
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.alerts.api.Alert;
+import com.thinkbiganalytics.alerts.api.Alert.Level;
+import com.thinkbiganalytics.alerts.spi.EntityIdentificationAlertContent;
+import com.thinkbiganalytics.cluster.ClusterService;
+import com.thinkbiganalytics.metadata.api.MetadataAccess;
+import com.thinkbiganalytics.metadata.api.MetadataAction;
+import com.thinkbiganalytics.metadata.api.MetadataCommand;
+import com.thinkbiganalytics.metadata.api.MetadataRollbackAction;
+import com.thinkbiganalytics.metadata.api.MetadataRollbackCommand;
+import com.thinkbiganalytics.metadata.jpa.alerts.JpaAlert;
+import com.thinkbiganalytics.metadata.jpa.alerts.JpaAlertRepository;
+import com.thinkbiganalytics.security.role.SecurityRole;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.Serializable;
+import java.net.URI;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests the coalescing of repeated alerts by the {@link DefaultAlertManager}.
+ */
+public class DefaultAlertManagerCoalesceTest {
+
+    private static final URI TYPE = URI.create("http://example.com/test/alert/coalesce");
+
+    private DefaultAlertManager manager;
+
+    private JpaAlertRepository repository;
+
+    /**
+     * Alerts saved by the repository, by ID
+     */
+    private final Map<Alert.ID, JpaAlert> saved = new ConcurrentHashMap<>();
+
+    /**
+     * Number of upcoming saves that fail
+     */
+    private final AtomicInteger failingSaves = new AtomicInteger();
+
+    /**
+     * Number of upcoming lookups that fail, failing the flush of occurrences
+     */
+    private final AtomicInteger failingLookups = new AtomicInteger();
+
+    /**
+     * Time each save takes, to let concurrent callers race for the same window
+     */
+    private volatile long saveMillis;
+
+    @Before
+    public void setUp() {
+        repository = Mockito.mock(JpaAlertRepository.class);
+        Mockito.when(repository.save(Mockito.any(JpaAlert.class))).thenAnswer(invocation -> {
+            JpaAlert alert = (JpaAlert) invocation.getArguments()[0];
+            if (saveMillis > 0) {
+                Thread.sleep(saveMillis);
+            }
+            if (failingSaves.getAndDecrement() > 0) {
+                throw new IllegalStateException("Unable to save alert");
+            }
+            saved.put(alert.getId(), alert);
+            return alert;
+        });
+        Mockito.when(repository.findOne(Mockito.any(JpaAlert.AlertId.class))).thenAnswer(invocation -> {
+            if (failingLookups.getAndDecrement() > 0) {
+                throw new IllegalStateException("Unable to find alert");
+            }
+            return saved.get(invocation.getArguments()[0]);
+        });
+
+        manager = new DefaultAlertManager(repository);
+        ReflectionTestUtils.setField(manager, "metadataAccess", new ExecutingMetadataAccess());
+        ReflectionTestUtils.setField(manager, "clusterService", Mockito.mock(ClusterService.class));
+        manager.setCoalesceWindowSeconds(60);
+    }
+
+    @Test
+    public void testRepeatsWithinWindowAreCoalesced() {
+        Alert first = manager.create(TYPE, "subtype", Level.MAJOR, "description", "content");
+        Alert second = manager.create(TYPE, "subtype", Level.MAJOR, "description", "content");
+        Alert third = manager.create(TYPE, "subtype", Level.MAJOR, "description", "content");
+
+        Assert.assertEquals(first.getId(), second.getId());
+        Assert.assertEquals(first.getId(), third.getId());
+        Assert.assertEquals(1, saved.size());
+
+        // The repeats are only counted once the occurrences are flushed
+        Assert.assertEquals(1, saved.get(first.getId()).getOccurrenceCount());
+        manager.flushOccurrences();
+        Assert.assertEquals(3, saved.get(first.getId()).getOccurrenceCount());
+
+        // Occurrences are only written once
+        manager.flushOccurrences();
+        Assert.assertEquals(3, saved.get(first.getId()).getOccurrenceCount());
+    }
+
+    @Test
+    public void testDifferentDescriptionOrContentIsCoalesced() {
+        Alert alert = manager.create(TYPE, "subtype", Level.MAJOR, "description", "content");
+
+        Assert.assertEquals(alert.getId(), manager.create(TYPE, "subtype", Level.MAJOR, "other description", "content").getId());
+        Assert.assertEquals(alert.getId(), manager.create(TYPE, "subtype", Level.MAJOR, "description", "other content").getId());
+        Assert.assertEquals(alert.getId(), manager.create(TYPE, "subtype", Level.MAJOR, "description", new HashMap<>()).getId());
+        Assert.assertEquals(1, saved.size());
+        Assert.assertEquals("description", saved.get(alert.getId()).getDescription());
+    }
+
+    @Test
+    public void testDifferentSubtypeOrLevelIsNotCoalesced() {
+        Alert alert = manager.create(TYPE, "subtype", Level.MAJOR, "description", "content");
+
+        Assert.assertNotEquals(alert.getId(), manager.create(TYPE, "other subtype", Level.MAJOR, "description", "content").getId());
+        Assert.assertNotEquals(alert.getId(), manager.create(TYPE, "subtype", Level.CRITICAL, "description", "content").getId());
+        Assert.assertEquals(3, saved.size());
+    }
+
+    @Test
+    public void testEntityAlertsAreCoalescedPerEntity() {
+        Alert feed1 = manager.createEntityAlert(TYPE, Level.FATAL, "Failed Job 1", entity("feed1", 1L));
+        Alert feed1OtherJob = manager.createEntityAlert(TYPE, Level.FATAL, "Failed Job 2", entity("feed1", 2L));
+        Alert feed2 = manager.createEntityAlert(TYPE, Level.FATAL, "Failed Job 3", entity("feed2", 3L));
+
+        Assert.assertEquals(feed1.getId(), feed1OtherJob.getId());
+        Assert.assertNotEquals(feed1.getId(), feed2.getId());
+        Assert.assertEquals(2, saved.size());
+    }
+
+    @Test
+    public void testFailedFlushKeepsOccurrences() {
+        Alert alert = manager.create(TYPE, "subtype", Level.MAJOR, "description", "content");
+        manager.create(TYPE, "subtype", Level.MAJOR, "description", "content");
+
+        failingLookups.set(1);
+        manager.flushOccurrences();
+        Assert.assertEquals(1, saved.get(alert.getId()).getOccurrenceCount());
+
+        manager.create(TYPE, "subtype", Level.MAJOR, "description", "content");
+        manager.flushOccurrences();
+        Assert.assertEquals(3, saved.get(alert.getId()).getOccurrenceCount());
+    }
+
+    @Test
+    public void testDisabledWindowAlwaysCreates() {
+        manager.setCoalesceWindowSeconds(0);
+
+        Alert first = manager.create(TYPE, "subtype", Level.MAJOR, "description", "content");
+        Alert second = manager.create(TYPE, "subtype", Level.MAJOR, "description", "content");
+
+        Assert.assertNotEquals(first.getId(), second.getId());
+        Assert.assertEquals(2, saved.size());
+    }
+
+    @Test
+    public void testClearedAlertClosesWindow() {
+        Alert first = manager.create(TYPE, "subtype", Level.MAJOR, "description", "content");
+        manager.create(TYPE, "subtype", Level.MAJOR, "description", "content");
+        manager.clearAlert((JpaAlert.AlertId) first.getId());
+
+        Alert afterClear = manager.create(TYPE, "subtype", Level.MAJOR, "description", "content");
+        Assert.assertNotEquals(first.getId(), afterClear.getId());
+
+        // The occurrence counted before the window closed is still written
+        manager.flushOccurrences();
+        Assert.assertEquals(2, saved.get(first.getId()).getOccurrenceCount());
+        Assert.assertEquals(1, saved.get(afterClear.getId()).getOccurrenceCount());
+    }
+
+    @Test
+    public void testFailedInsertReleasesWindow() {
+        failingSaves.set(1);
+        try {
+            manager.create(TYPE, "subtype", Level.MAJOR, "description", "content");
+            Assert.fail("Expected the insert to fail");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        Alert alert = manager.create(TYPE, "subtype", Level.MAJOR, "description", "content");
+        Assert.assertNotNull(alert);
+        Assert.assertEquals(1, saved.size());
+    }
+
+    @Test
+    public void testConcurrentRepeatsCreateOneAlert() throws Exception {
+        final int threads = 8;
+        saveMillis = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Alert>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return manager.create(TYPE, "subtype", Level.MAJOR, "description", "content");
+                }));
+            }
+            start.countDown();
+
+            Alert.ID id = futures.get(0).get(10, TimeUnit.SECONDS).getId();
+            for (Future<Alert> future : futures) {
+                Assert.assertEquals(id, future.get(10, TimeUnit.SECONDS).getId());
+            }
+            Assert.assertEquals(1, saved.size());
+
+            manager.flushOccurrences();
+            Assert.assertEquals(threads, saved.get(id).getOccurrenceCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static EntityIdentificationAlertContent<Long> entity(String feedId, Long jobExecutionId) {
+        return new EntityIdentificationAlertContent<>(feedId, SecurityRole.ENTITY_TYPE.FEED, jobExecutionId);
+    }
+
+    /**
+     * Executes commands directly, without a transaction.
+     */
+    private static class ExecutingMetadataAccess implements MetadataAccess {
+
+        @Override
+        public <R> R commit(MetadataCommand<R> cmd, Principal... principals) {
+            try {
+                return cmd.execute();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public <R> R commit(MetadataCommand<R> cmd, MetadataRollbackCommand rollbackCmd, Principal... principals) {
+            return commit(cmd, principals);
+        }
+
+        @Override
+        public void commit(MetadataAction cmd, Principal... principals) {
+            commit(() -> {
+                cmd.execute();
+                return null;
+            }, principals);
+        }
+
+        @Override
+        public void commit(MetadataAction cmd, MetadataRollbackAction rollbackAction, Principal... principals) {
+            commit(cmd, principals);
+        }
+
+        @Override
+        public <R> R read(MetadataCommand<R> cmd, Principal... principals) {
+            return commit(cmd, principals);
+        }
+
+        @Override
+        public void read(MetadataAction cmd, Principal... principals) {
+            commit(cmd, principals);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.thinkbiganalytics.alerts.spi.defaults;
+
+/*-
+ * #%L
+ * thinkbig-operational-metadata-integration-service
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.google.common.collect.Lists;
+import com.thinkbiganalytics.alerts.api.Alert;
+import com.thinkbiganalytics.alerts.api.Alert.Level;
+import com.thinkbiganalytics.alerts.api.AlertCriteria;
+import com.thinkbiganalytics.metadata.api.MetadataAccess;
+import com.thinkbiganalytics.metadata.jpa.alerts.JpaAlert;
+import com.thinkbiganalytics.metadata.jpa.alerts.JpaAlertRepository;
+import com.thinkbiganalytics.metadata.persistence.MetadataPersistenceConfig;
+import com.thinkbiganalytics.testing.jpa.TestPersistenceConfiguration;
+
+import org.assertj.core.api.Assertions;
+import org.joda.time.DateTime;
+import org.springframework.boot.test.SpringApplicationConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+/**
+ * Tests reading the alerts of a {@link DefaultAlertManager} one page at a time, continuing after the created time and ID of the last alert read.
+ */
+@TestPropertySource(locations = "classpath:test-jpa-application.properties")
+@SpringApplicationConfiguration(classes = {MetadataPersistenceConfig.class, TestPersistenceConfiguration.class, KyloAlertManagerConfig.class, SpringOperationalMetadataTestConfiguration.class})
+public class DefaultAlertManagerPagingTest extends AbstractTestNGSpringContextTests {
+
+    private static final URI TYPE = URI.create("http://example.com/test/alert/paging");
+
+    @Inject
+    private DefaultAlertManager manager;
+
+    @Inject
+    private JpaAlertRepository repository;
+
+    @Inject
+    private MetadataAccess metadataAccess;
+
+    private DateTime sameTime;
+
+    @BeforeClass
+    public void init() {
+        // Three alerts share a created time so that pages must be continued by ID as well as time
+        DateTime now = DateTime.now().withMillisOfSecond(0);
+        this.sameTime = now.minusMinutes(1);
+        this.metadataAccess.commit(() -> {
+            save(now.minusMinutes(3), "oldest");
+            save(now.minusMinutes(2), "older");
+            save(this.sameTime, "same1");
+            save(this.sameTime, "same2");
+            save(this.sameTime, "same3");
+            save(now, "newest");
+        }, MetadataAccess.SERVICE);
+    }
+
+    @AfterMethod
+    public void afterMethod() {
+        this.manager.setPageSize(DefaultAlertManager.DEFAULT_PAGE_SIZE);
+    }
+
+    @Test
+    public void testPagesReturnEachAlertOnceNewestFirst() {
+        List<Alert> unpaged = readAll(criteria());
+        Assertions.assertThat(unpaged).hasSize(6);
+        Assertions.assertThat(unpaged.get(0).getDescription()).isEqualTo("newest");
+        Assertions.assertThat(unpaged.get(5).getDescription()).isEqualTo("oldest");
+        Assertions.assertThat(unpaged.subList(1, 4)).extracting("createdTime").containsOnly(this.sameTime);
+
+        for (int pageSize = 1; pageSize <= 4; pageSize++) {
+            this.manager.setPageSize(pageSize);
+            Assertions.assertThat(ids(readAll(criteria()))).as("page size %d", pageSize).isEqualTo(ids(unpaged));
+        }
+    }
+
+    @Test
+    public void testPagesStopAtLimit() {
+        List<Alert> unpaged = readAll(criteria());
+
+        this.manager.setPageSize(2);
+        List<Alert> limited = readAll(criteria().limit(3));
+
+        Assertions.assertThat(ids(limited)).isEqualTo(ids(unpaged.subList(0, 3)));
+    }
+
+    @Test
+    public void testContinueAfterAlertWithSameTime() {
+        List<Alert> unpaged = readAll(criteria());
+        Alert last = unpaged.get(2);
+
+        this.manager.setPageSize(1);
+        List<Alert> remaining = readAll(criteria().continueAfter(last.getCreatedTime(), last.getId()));
+
+        Assertions.assertThat(ids(remaining)).isEqualTo(ids(unpaged.subList(3, 6)));
+    }
+
+    @Test
+    public void testContinueAfterTimeOnly() {
+        List<Alert> unpaged = readAll(criteria());
+
+        List<Alert> remaining = readAll(criteria().continueAfter(this.sameTime, null));
+
+        Assertions.assertThat(ids(remaining)).isEqualTo(ids(unpaged.subList(4, 6)));
+    }
+
+    private AlertCriteria criteria() {
+        return this.manager.criteria().asServiceAccount(true).type(TYPE);
+    }
+
+    private List<Alert> readAll(AlertCriteria criteria) {
+        return Lists.newArrayList(this.manager.getAlerts(criteria));
+    }
+
+    private static List<Alert.ID> ids(List<Alert> alerts) {
+        return alerts.stream().map(Alert::getId).collect(Collectors.toList());
+    }
+
+    private void save(DateTime createdTime, String description) {
+        JpaAlert alert = new JpaAlert(TYPE, "subtype", Level.INFO, null, description, null);
+        alert.setCreatedTime(createdTime);
+        this.repository.save(alert);
+    }
+}
@@ -0,0 +1,98 @@
+package com.thinkbiganalytics.metadata.cache;
+
+/*-
+ * #%L
+ * thinkbig-operational-metadata-integration-service
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.metadata.api.feed.FeedSummary;
+import com.thinkbiganalytics.metadata.api.jobrepo.ExecutionConstants;
+import com.thinkbiganalytics.metadata.api.jobrepo.job.BatchJobExecution;
+import com.thinkbiganalytics.metadata.api.op.FeedOperation;
+import com.thinkbiganalytics.metadata.jpa.feed.JpaFeedSummary;
+
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.UUID;
+
+public class FeedSummaryUpdaterTest {
+
+    private JpaFeedSummary finishedFeed() {
+        JpaFeedSummary summary = new JpaFeedSummary();
+        summary.setFeedId(UUID.randomUUID());
+        summary.setFeedName("category.feed");
+        summary.setJobExecutionId(10L);
+        summary.setStatus(BatchJobExecution.JobStatus.COMPLETED);
+        summary.setExitCode(ExecutionConstants.ExitCode.COMPLETED);
+        summary.setRunStatus(FeedSummary.RunStatus.FINISHED);
+        summary.setAllCount(5L);
+        summary.setCompletedCount(4L);
+        summary.setFailedCount(1L);
+        summary.setAbandonedCount(0L);
+        summary.setRunningCount(0L);
+        return summary;
+    }
+
+    @Test
+    public void testJobStartsAndFails() {
+        JpaFeedSummary current = finishedFeed();
+        DateTime now = DateTime.now();
+
+        FeedSummary started = FeedSummaryUpdater.apply(current, 11L, FeedOperation.State.STARTED, now);
+        Assert.assertEquals(FeedSummary.RunStatus.RUNNING, started.getRunStatus());
+        Assert.assertEquals(Long.valueOf(11L), started.getJobExecutionId());
+        Assert.assertEquals(Long.valueOf(6L), started.getAllCount());
+        Assert.assertEquals(Long.valueOf(1L), started.getRunningCount());
+        Assert.assertNull(started.getEndTime());
+        //the original is not modified
+        Assert.assertEquals(FeedSummary.RunStatus.FINISHED, current.getRunStatus());
+
+        FeedSummary failed = FeedSummaryUpdater.apply(started, 11L, FeedOperation.State.FAILURE, now);
+        Assert.assertEquals(FeedSummary.RunStatus.FINISHED, failed.getRunStatus());
+        Assert.assertEquals(BatchJobExecution.JobStatus.FAILED, failed.getStatus());
+        Assert.assertEquals(Long.valueOf(2L), failed.getFailedCount());
+        Assert.assertEquals(Long.valueOf(4L), failed.getCompletedCount());
+        Assert.assertEquals(Long.valueOf(0L), failed.getRunningCount());
+        Assert.assertEquals(Long.valueOf(6L), failed.getAllCount());
+
+        //the same change again does nothing
+        Assert.assertSame(failed, FeedSummaryUpdater.apply(failed, 11L, FeedOperation.State.FAILURE, now));
+        Assert.assertSame(failed, FeedSummaryUpdater.apply(failed, 11L, FeedOperation.State.STARTED, now));
+    }
+
+    @Test
+    public void testOlderJobOnlyChangesCounts() {
+        FeedSummary started = FeedSummaryUpdater.apply(finishedFeed(), 12L, FeedOperation.State.STARTED, DateTime.now());
+        FeedSummary olderFinished = FeedSummaryUpdater.apply(started, 11L, FeedOperation.State.SUCCESS, DateTime.now());
+        Assert.assertEquals(Long.valueOf(12L), olderFinished.getJobExecutionId());
+        Assert.assertEquals(FeedSummary.RunStatus.RUNNING, olderFinished.getRunStatus());
+        Assert.assertEquals(Long.valueOf(5L), olderFinished.getCompletedCount());
+    }
+
+    @Test
+    public void testFinishWithoutStart() {
+        FeedSummary finished = FeedSummaryUpdater.apply(finishedFeed(), 13L, FeedOperation.State.SUCCESS, DateTime.now());
+        Assert.assertEquals(Long.valueOf(13L), finished.getJobExecutionId());
+        Assert.assertEquals(Long.valueOf(6L), finished.getAllCount());
+        Assert.assertEquals(Long.valueOf(5L), finished.getCompletedCount());
+        Assert.assertEquals(Long.valueOf(0L), finished.getRunningCount());
+        Assert.assertEquals(BatchJobExecution.JobStatus.COMPLETED, finished.getStatus());
+    }
+}
@@ -0,0 +1,177 @@
+package com.thinkbiganalytics.metadata.jobrepo.nifi.provenance;
+
+/*-
+ * #%L
+ * thinkbig-operational-metadata-integration-service
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ProvenanceEventJobExecutionLockManagerTest {
+
+    @Test
+    public void testWorkForBusyKeyWaitsInOrderOnItsOwnThread() throws Exception {
+        ProvenanceEventJobExecutionLockManager lockManager = new ProvenanceEventJobExecutionLockManager();
+        CountDownLatch ownerStarted = new CountDownLatch(1);
+        CountDownLatch releaseOwner = new CountDownLatch(1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        Future<?> owner = executor.submit(() -> lockManager.execute("flowfile1", "feed1", () -> {
+            ownerStarted.countDown();
+            try {
+                releaseOwner.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            order.add("owner");
+            threads.add(Thread.currentThread().getName());
+        }));
+        Assert.assertTrue(ownerStarted.await(5, TimeUnit.SECONDS));
+
+        //the job is busy so these callers wait for it, in the order they arrived
+        Future<?> second = executor.submit(() -> lockManager.execute("flowfile1", "feed1", () -> {
+            order.add("second");
+            threads.add(Thread.currentThread().getName());
+        }));
+        waitForContention(lockManager, "feed1", 1);
+        Future<?> third = executor.submit(() -> lockManager.execute("flowfile1", "feed1", () -> {
+            order.add("third");
+            threads.add(Thread.currentThread().getName());
+        }));
+        waitForContention(lockManager, "feed1", 2);
+        Assert.assertFalse(second.isDone());
+        Assert.assertFalse(third.isDone());
+
+        releaseOwner.countDown();
+        owner.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        third.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        Assert.assertEquals(Arrays.asList("owner", "second", "third"), order);
+        Assert.assertEquals(3, threads.stream().distinct().count());
+        Assert.assertEquals(3, lockManager.getFeedLockStatistics().get("feed1").getAcquired());
+        Assert.assertEquals(0, lockManager.getActiveKeyCount());
+    }
+
+    @Test
+    public void testOtherKeysAreNotBlocked() throws Exception {
+        ProvenanceEventJobExecutionLockManager lockManager = new ProvenanceEventJobExecutionLockManager();
+        CountDownLatch ownerStarted = new CountDownLatch(1);
+        CountDownLatch releaseOwner = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<?> owner = executor.submit(() -> lockManager.execute("flowfile1", "feed1", () -> {
+            ownerStarted.countDown();
+            try {
+                releaseOwner.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        Assert.assertTrue(ownerStarted.await(5, TimeUnit.SECONDS));
+
+        Future<?> other = executor.submit(() -> lockManager.execute("flowfile2", "feed2", () -> {
+        }));
+        other.get(5, TimeUnit.SECONDS);
+        Assert.assertFalse(owner.isDone());
+        Assert.assertEquals(0, lockManager.getFeedLockStatistics().get("feed2").getContended());
+
+        releaseOwner.countDown();
+        owner.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        Assert.assertEquals(0, lockManager.getActiveKeyCount());
+    }
+
+    @Test
+    public void testFailedWorkReleasesLock() throws Exception {
+        ProvenanceEventJobExecutionLockManager lockManager = new ProvenanceEventJobExecutionLockManager();
+        try {
+            lockManager.execute("flowfile", "feed", () -> {
+                throw new IllegalStateException("failed");
+            });
+            Assert.fail("Expected the failure to be thrown to the caller");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("failed", e.getMessage());
+        }
+        Assert.assertEquals(0, lockManager.getActiveKeyCount());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> lockManager.execute("flowfile", "feed", () -> {
+            })).get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            Assert.fail("The lock was not released: " + e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testWorkForSameKeyIsSerialized() throws Exception {
+        ProvenanceEventJobExecutionLockManager lockManager = new ProvenanceEventJobExecutionLockManager();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        int tasks = 200;
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < tasks; i++) {
+            executor.submit(() -> lockManager.execute("flowfile", "feed", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                running.decrementAndGet();
+                completed.incrementAndGet();
+            }));
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        Assert.assertEquals(tasks, completed.get());
+        Assert.assertEquals(1, maxRunning.get());
+        Assert.assertEquals(tasks, lockManager.getFeedLockStatistics().get("feed").getAcquired());
+        Assert.assertEquals(0, lockManager.getActiveKeyCount());
+    }
+
+    private static void waitForContention(ProvenanceEventJobExecutionLockManager lockManager, String feedName, long contended) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            ProvenanceEventJobExecutionLockManager.FeedLockStatistics statistics = lockManager.getFeedLockStatistics().get(feedName);
+            if (statistics != null && statistics.getContended() >= contended) {
+                //give the caller time to get from counting the contention to waiting on the lock
+                Thread.sleep(50);
+                return;
+            }
+            Thread.sleep(10);
+        }
+        Assert.fail("Work for " + feedName + " never waited");
+    }
+}
@@ -0,0 +1,113 @@
+package com.thinkbiganalytics.metadata.sla;
+
+/*-
+ * #%L
+ * thinkbig-operational-metadata-integration-service
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+import com.thinkbiganalytics.metadata.sla.api.JobCompletionMetric;
+import com.thinkbiganalytics.metadata.sla.api.Metric;
+import com.thinkbiganalytics.metadata.sla.api.Obligation;
+import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAgreement;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Tests the schedule chosen for an SLA from its metrics.
+ */
+public class DefaultServiceLevelAgreementSchedulerTest {
+
+    private static final String DEFAULT_CRON = "0 0/5 * 1/1 * ? *";
+
+    private static final String JOB_EVENTS_CRON = "0 0/30 * 1/1 * ? *";
+
+    private DefaultServiceLevelAgreementScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new DefaultServiceLevelAgreementScheduler();
+        ReflectionTestUtils.setField(scheduler, "defaultCron", DEFAULT_CRON);
+        ReflectionTestUtils.setField(scheduler, "jobEventsCron", JOB_EVENTS_CRON);
+        ReflectionTestUtils.setField(scheduler, "jobEventsEnabled", true);
+    }
+
+    @Test
+    public void testOnlyJobCompletionMetricsUseJobEventsSchedule() {
+        ServiceLevelAgreement sla = newAgreement(obligation(jobCompletionMetric()), obligation(jobCompletionMetric(), jobCompletionMetric()));
+        Assert.assertEquals(JOB_EVENTS_CRON, cronExpression(sla));
+    }
+
+    @Test
+    public void testOtherMetricUsesDefaultSchedule() {
+        Assert.assertEquals(DEFAULT_CRON, cronExpression(newAgreement(obligation(jobCompletionMetric(), Mockito.mock(Metric.class)))));
+        Assert.assertEquals(DEFAULT_CRON, cronExpression(newAgreement(obligation(jobCompletionMetric()), obligation(Mockito.mock(Metric.class)))));
+    }
+
+    @Test
+    public void testAgreementWithoutMetricsUsesDefaultSchedule() {
+        Assert.assertEquals(DEFAULT_CRON, cronExpression(newAgreement()));
+        Assert.assertEquals(DEFAULT_CRON, cronExpression(newAgreement(obligation())));
+    }
+
+    @Test
+    public void testJobEventsDisabledUsesDefaultSchedule() {
+        ReflectionTestUtils.setField(scheduler, "jobEventsEnabled", false);
+        Assert.assertEquals(DEFAULT_CRON, cronExpression(newAgreement(obligation(jobCompletionMetric()))));
+    }
+
+    @Test
+    public void testBlankSchedules() {
+        ServiceLevelAgreement sla = newAgreement(obligation(jobCompletionMetric()));
+
+        ReflectionTestUtils.setField(scheduler, "jobEventsCron", "");
+        Assert.assertEquals(DEFAULT_CRON, cronExpression(sla));
+
+        // the built in default is used if no default schedule is configured
+        ReflectionTestUtils.setField(scheduler, "defaultCron", " ");
+        Assert.assertEquals("0 0/5 * 1/1 * ? *", cronExpression(sla));
+    }
+
+    private String cronExpression(ServiceLevelAgreement sla) {
+        return ReflectionTestUtils.invokeMethod(scheduler, "cronExpression", sla);
+    }
+
+    private static ServiceLevelAgreement newAgreement(Obligation... obligations) {
+        List<Obligation> list = new ArrayList<>(Arrays.asList(obligations));
+        ServiceLevelAgreement sla = Mockito.mock(ServiceLevelAgreement.class);
+        Mockito.when(sla.getObligations()).thenReturn(list);
+        return sla;
+    }
+
+    private static Obligation obligation(Metric... metrics) {
+        Obligation obligation = Mockito.mock(Obligation.class);
+        Mockito.when(obligation.getMetrics()).thenReturn(new HashSet<>(Arrays.asList(metrics)));
+        return obligation;
+    }
+
+    private static Metric jobCompletionMetric() {
+        return Mockito.mock(JobCompletionMetric.class);
+    }
+}
@@ -0,0 +1,289 @@
+package com.thinkbiganalytics.metadata.sla;
+
+/*-
+ * #%L
+ * thinkbig-operational-metadata-integration-service
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.metadata.api.MetadataAccess;
+import com.thinkbiganalytics.metadata.api.MetadataAction;
+import com.thinkbiganalytics.metadata.api.MetadataCommand;
+import com.thinkbiganalytics.metadata.api.MetadataRollbackAction;
+import com.thinkbiganalytics.metadata.api.MetadataRollbackCommand;
+import com.thinkbiganalytics.metadata.api.event.MetadataEventListener;
+import com.thinkbiganalytics.metadata.api.event.MetadataEventService;
+import com.thinkbiganalytics.metadata.api.event.feed.FeedOperationStatusEvent;
+import com.thinkbiganalytics.metadata.api.event.feed.OperationStatus;
+import com.thinkbiganalytics.metadata.api.feed.OpsManagerFeed;
+import com.thinkbiganalytics.metadata.api.feed.OpsManagerFeedProvider;
+import com.thinkbiganalytics.metadata.api.op.FeedOperation;
+import com.thinkbiganalytics.metadata.api.sla.ServiceLevelAgreementDescriptionProvider;
+import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAgreement;
+import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAgreementDescription;
+import com.thinkbiganalytics.metadata.sla.spi.ServiceLevelAgreementProvider;
+
+import org.joda.time.DateTime;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class JobCompletionServiceLevelAgreementListenerTest {
+
+    private static final long DEBOUNCE_MILLIS = 100;
+
+    private static final long MIN_INTERVAL_MILLIS = 1000;
+
+    private JobCompletionServiceLevelAgreementListener listener;
+
+    private ServiceLevelAgreementCheckBatcher batcher;
+
+    private OpsManagerFeedProvider feedProvider;
+
+    private MetadataEventListener<FeedOperationStatusEvent> eventListener;
+
+    /**
+     * The SLAs of each feed, by feed name
+     */
+    private final Map<String, List<ServiceLevelAgreementDescription>> feedSlas = new HashMap<>();
+
+    /**
+     * The SLA ids, by name
+     */
+    private final Map<String, ServiceLevelAgreement.ID> slaIds = new HashMap<>();
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        MetadataEventService eventService = Mockito.mock(MetadataEventService.class);
+        feedProvider = Mockito.mock(OpsManagerFeedProvider.class);
+        ServiceLevelAgreementDescriptionProvider descriptionProvider = Mockito.mock(ServiceLevelAgreementDescriptionProvider.class);
+        ServiceLevelAgreementProvider slaProvider = Mockito.mock(ServiceLevelAgreementProvider.class);
+        batcher = Mockito.mock(ServiceLevelAgreementCheckBatcher.class);
+
+        Mockito.when(feedProvider.findByName(Mockito.anyString())).thenAnswer(invocation -> {
+            String feedName = (String) invocation.getArguments()[0];
+            if (!feedSlas.containsKey(feedName)) {
+                return null;
+            }
+            OpsManagerFeed.ID feedId = Mockito.mock(OpsManagerFeed.ID.class);
+            Mockito.when(feedId.toString()).thenReturn(feedName);
+            OpsManagerFeed feed = Mockito.mock(OpsManagerFeed.class);
+            Mockito.when(feed.getId()).thenReturn(feedId);
+            return feed;
+        });
+        Mockito.when(descriptionProvider.findForFeed(Mockito.any(OpsManagerFeed.ID.class)))
+            .thenAnswer(invocation -> feedSlas.get(invocation.getArguments()[0].toString()));
+        Mockito.when(slaProvider.resolve(Mockito.anyString())).thenAnswer(invocation -> slaIds.get((String) invocation.getArguments()[0]));
+
+        listener = new JobCompletionServiceLevelAgreementListener();
+        ReflectionTestUtils.setField(listener, "metadataEventService", eventService);
+        ReflectionTestUtils.setField(listener, "metadataAccess", new ExecutingMetadataAccess());
+        ReflectionTestUtils.setField(listener, "opsManagerFeedProvider", feedProvider);
+        ReflectionTestUtils.setField(listener, "slaDescriptionProvider", descriptionProvider);
+        ReflectionTestUtils.setField(listener, "slaProvider", slaProvider);
+        ReflectionTestUtils.setField(listener, "slaCheckBatcher", batcher);
+        ReflectionTestUtils.setField(listener, "debounceMillis", DEBOUNCE_MILLIS);
+        ReflectionTestUtils.setField(listener, "minIntervalMillis", MIN_INTERVAL_MILLIS);
+        ReflectionTestUtils.invokeMethod(listener, "init");
+
+        ArgumentCaptor<MetadataEventListener> captor = ArgumentCaptor.forClass(MetadataEventListener.class);
+        Mockito.verify(eventService).addListener(captor.capture());
+        eventListener = captor.getValue();
+    }
+
+    @After
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(listener, "destroy");
+    }
+
+    @Test
+    public void testCompletedJobsAreDebounced() {
+        addSla("cat.feed", "sla1");
+
+        long firstEnd = System.currentTimeMillis() - 1000;
+        notify("cat.feed", FeedOperation.State.SUCCESS, firstEnd);
+        notify("cat.feed", FeedOperation.State.SUCCESS, firstEnd + 100);
+        notify("cat.feed", FeedOperation.State.SUCCESS, firstEnd + 200);
+
+        Mockito.verify(batcher, Mockito.timeout(2000)).submitForJobEvent(slaIds.get("sla1"), firstEnd);
+        sleep(DEBOUNCE_MILLIS * 3);
+        Mockito.verify(batcher, Mockito.times(1)).submitForJobEvent(Mockito.any(ServiceLevelAgreement.ID.class), Mockito.anyLong());
+        Mockito.verify(feedProvider, Mockito.times(1)).findByName("cat.feed");
+    }
+
+    @Test
+    public void testDirtyFeedsAreLookedUpTogether() {
+        addSla("cat.feed1", "shared");
+        addSla("cat.feed1", "sla1");
+        addSla("cat.feed2", "shared");
+
+        long now = System.currentTimeMillis();
+        notify("cat.feed1", FeedOperation.State.SUCCESS, now - 500);
+        notify("cat.feed2", FeedOperation.State.FAILURE, now - 800);
+        notify("cat.unknown", FeedOperation.State.FAILURE, now);
+
+        // each SLA is submitted once, with the end time of the earliest job of its feeds
+        Mockito.verify(batcher, Mockito.timeout(2000)).submitForJobEvent(slaIds.get("shared"), now - 800);
+        Mockito.verify(batcher, Mockito.timeout(2000)).submitForJobEvent(slaIds.get("sla1"), now - 500);
+        sleep(DEBOUNCE_MILLIS * 3);
+        Mockito.verify(batcher, Mockito.times(2)).submitForJobEvent(Mockito.any(ServiceLevelAgreement.ID.class), Mockito.anyLong());
+    }
+
+    @Test
+    public void testRunningJobsAreIgnored() {
+        addSla("cat.feed", "sla1");
+
+        notify("cat.feed", FeedOperation.State.STARTED, System.currentTimeMillis());
+        notify("cat.feed", FeedOperation.State.CANCELED, System.currentTimeMillis());
+
+        sleep(DEBOUNCE_MILLIS * 3);
+        Mockito.verifyZeroInteractions(batcher);
+        Mockito.verifyZeroInteractions(feedProvider);
+    }
+
+    @Test
+    public void testJobWithoutEndTimeUsesReceiveTime() {
+        addSla("cat.feed", "sla1");
+
+        long before = System.currentTimeMillis();
+        eventListener.notify(new FeedOperationStatusEvent(new OperationStatus(null, "cat.feed", null, null, FeedOperation.State.SUCCESS, "done")));
+
+        ArgumentCaptor<Long> endMillis = ArgumentCaptor.forClass(Long.class);
+        Mockito.verify(batcher, Mockito.timeout(2000)).submitForJobEvent(Mockito.eq(slaIds.get("sla1")), endMillis.capture());
+        Assert.assertTrue(endMillis.getValue() >= before);
+    }
+
+    @Test
+    public void testSuccessWithinMinIntervalIsDeferred() {
+        addSla("cat.feed", "sla1");
+        ServiceLevelAgreement.ID sla1 = slaIds.get("sla1");
+
+        long firstEnd = System.currentTimeMillis();
+        notify("cat.feed", FeedOperation.State.SUCCESS, firstEnd);
+        Mockito.verify(batcher, Mockito.timeout(2000)).submitForJobEvent(sla1, firstEnd);
+
+        long secondEnd = firstEnd + 10;
+        notify("cat.feed", FeedOperation.State.SUCCESS, secondEnd);
+        notify("cat.feed", FeedOperation.State.SUCCESS, secondEnd + 10);
+        sleep(DEBOUNCE_MILLIS * 3);
+        Mockito.verify(batcher, Mockito.never()).submitForJobEvent(sla1, secondEnd);
+
+        // submitted once the interval since the first submission elapses
+        Mockito.verify(batcher, Mockito.timeout(MIN_INTERVAL_MILLIS * 3)).submitForJobEvent(sla1, secondEnd);
+        Mockito.verify(batcher, Mockito.times(2)).submitForJobEvent(Mockito.eq(sla1), Mockito.anyLong());
+    }
+
+    @Test
+    public void testFailureIsNotDeferred() {
+        addSla("cat.feed", "sla1");
+        ServiceLevelAgreement.ID sla1 = slaIds.get("sla1");
+
+        long firstEnd = System.currentTimeMillis();
+        notify("cat.feed", FeedOperation.State.SUCCESS, firstEnd);
+        Mockito.verify(batcher, Mockito.timeout(2000)).submitForJobEvent(sla1, firstEnd);
+
+        notify("cat.feed", FeedOperation.State.SUCCESS, firstEnd + 10);
+        sleep(DEBOUNCE_MILLIS * 3);
+        notify("cat.feed", FeedOperation.State.FAILURE, firstEnd + 20);
+
+        // the failure is submitted with the deferred success, well before the interval elapses
+        Mockito.verify(batcher, Mockito.timeout(MIN_INTERVAL_MILLIS / 2)).submitForJobEvent(sla1, firstEnd + 10);
+
+        // the deferred success is not submitted again
+        sleep(MIN_INTERVAL_MILLIS);
+        Mockito.verify(batcher, Mockito.times(2)).submitForJobEvent(Mockito.eq(sla1), Mockito.anyLong());
+    }
+
+    private void addSla(String feedName, String slaName) {
+        ServiceLevelAgreement.ID slaId = slaIds.computeIfAbsent(slaName, name -> {
+            ServiceLevelAgreement.ID id = Mockito.mock(ServiceLevelAgreement.ID.class);
+            Mockito.when(id.toString()).thenReturn(name);
+            return id;
+        });
+        ServiceLevelAgreementDescription description = Mockito.mock(ServiceLevelAgreementDescription.class);
+        Mockito.when(description.getSlaId()).thenReturn(slaId);
+        feedSlas.computeIfAbsent(feedName, name -> new ArrayList<>()).add(description);
+    }
+
+    private void notify(String feedName, FeedOperation.State state, long endMillis) {
+        eventListener.notify(new FeedOperationStatusEvent(new OperationStatus(null, feedName, null, null, state, null, new DateTime(endMillis))));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Executes commands directly, without a transaction.
+     */
+    private static class ExecutingMetadataAccess implements MetadataAccess {
+
+        @Override
+        public <R> R commit(MetadataCommand<R> cmd, Principal... principals) {
+            try {
+                return cmd.execute();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public <R> R commit(MetadataCommand<R> cmd, MetadataRollbackCommand rollbackCmd, Principal... principals) {
+            return commit(cmd, principals);
+        }
+
+        @Override
+        public void commit(MetadataAction cmd, Principal... principals) {
+            commit(() -> {
+                cmd.execute();
+                return null;
+            }, principals);
+        }
+
+        @Override
+        public void commit(MetadataAction cmd, MetadataRollbackAction rollbackAction, Principal... principals) {
+            commit(cmd, principals);
+        }
+
+        @Override
+        public <R> R read(MetadataCommand<R> cmd, Principal... principals) {
+            return commit(cmd, principals);
+        }
+
+        @Override
+        public void read(MetadataAction cmd, Principal... principals) {
+            commit(cmd, principals);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.thinkbiganalytics.metadata.sla;
+
+/*-
+ * #%L
+ * thinkbig-operational-metadata-integration-service
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.thinkbiganalytics.metadata.api.MetadataAccess;
+import com.thinkbiganalytics.metadata.api.MetadataAction;
+import com.thinkbiganalytics.metadata.api.MetadataCommand;
+import com.thinkbiganalytics.metadata.api.MetadataRollbackAction;
+import com.thinkbiganalytics.metadata.api.MetadataRollbackCommand;
+import com.thinkbiganalytics.metadata.modeshape.JcrMetadataAccess;
+import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAgreement;
+import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAssessment;
+import com.thinkbiganalytics.metadata.sla.spi.BatchMetricAssessor;
+import com.thinkbiganalytics.metadata.sla.spi.PrefetchedMetrics;
+import com.thinkbiganalytics.metadata.sla.spi.ServiceLevelAgreementProvider;
+import com.thinkbiganalytics.metadata.sla.spi.ServiceLevelAssessmentProvider;
+import com.thinkbiganalytics.metadata.sla.spi.ServiceLevelAssessor;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class JpaJcrServiceLevelAgreementCheckerTest {
+
+    private JpaJcrServiceLevelAgreementChecker checker;
+
+    private ServiceLevelAgreementProvider slaProvider;
+
+    private ServiceLevelAssessmentProvider assessmentProvider;
+
+    private ServiceLevelAssessor assessor;
+
+    private TransactionalMetadataAccess metadataAccess;
+
+    /**
+     * Assessor whose prefetched data should be visible to every assessment of the batch
+     */
+    private final BatchMetricAssessor<?, String> batchAssessor = Mockito.mock(BatchMetricAssessor.class);
+
+    /**
+     * Names of the agreements assessed without the prefetched data
+     */
+    private final Set<String> assessedWithoutPrefetch = Collections.synchronizedSet(new HashSet<>());
+
+    /**
+     * Names of the agreements whose assessment throws an exception
+     */
+    private final Set<String> failingAgreements = new HashSet<>();
+
+    @Before
+    public void setUp() {
+        slaProvider = Mockito.mock(ServiceLevelAgreementProvider.class);
+        assessmentProvider = Mockito.mock(ServiceLevelAssessmentProvider.class);
+        assessor = Mockito.mock(ServiceLevelAssessor.class);
+        metadataAccess = new TransactionalMetadataAccess();
+
+        Mockito.when(assessmentProvider.findLatestAssessments(Mockito.anyCollection())).thenReturn(Collections.emptyMap());
+        Mockito.when(assessor.prefetch(Mockito.anyCollection())).thenReturn(new PrefetchedMetrics(Collections.singletonMap(batchAssessor, "prefetched")));
+        Mockito.when(assessor.assess(Mockito.any(ServiceLevelAgreement.class))).thenAnswer(invocation -> {
+            ServiceLevelAgreement agreement = (ServiceLevelAgreement) invocation.getArguments()[0];
+            if (failingAgreements.contains(agreement.getName())) {
+                throw new IllegalStateException("Unable to assess " + agreement.getName());
+            }
+            if (!"prefetched".equals(PrefetchedMetrics.get(batchAssessor))) {
+                assessedWithoutPrefetch.add(agreement.getName());
+            }
+            metadataAccess.write(agreement.getName());
+            return Mockito.mock(ServiceLevelAssessment.class);
+        });
+
+        checker = new JpaJcrServiceLevelAgreementChecker();
+        ReflectionTestUtils.setField(checker, "slaProvider", slaProvider);
+        ReflectionTestUtils.setField(checker, "assessmentProvider", assessmentProvider);
+        ReflectionTestUtils.setField(checker, "assessor", assessor);
+        ReflectionTestUtils.setField(checker, "metadataAccess", metadataAccess);
+        ReflectionTestUtils.setField(checker, "jcrMetadataAccess", Mockito.mock(JcrMetadataAccess.class));
+        ReflectionTestUtils.setField(checker, "batchThreads", 2);
+        ReflectionTestUtils.setField(checker, "commitSize", 2);
+        ReflectionTestUtils.invokeMethod(checker, "init");
+    }
+
+    @After
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(checker, "destroy");
+    }
+
+    @Test
+    public void testAgreementsArePartitionedAndCommittedInChunks() {
+        List<ServiceLevelAgreement.ID> ids = newAgreements("sla1", "sla2", "sla3", "sla4", "sla5", "sla6", "sla7");
+
+        checker.checkAgreements(ids);
+
+        Assert.assertEquals(setOf("sla1", "sla2", "sla3", "sla4", "sla5", "sla6", "sla7"), new HashSet<>(metadataAccess.committed));
+        Assert.assertEquals(7, metadataAccess.committed.size());
+        //2 partitions of 4 and 3 agreements, each committed 2 agreements at a time
+        Assert.assertEquals(4, metadataAccess.commits);
+        Assert.assertEquals(0, metadataAccess.rollbacks);
+
+        //the data of every agreement is prefetched once, and the previous assessments once per transaction
+        ArgumentCaptor<Collection> prefetched = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(assessor).prefetch(prefetched.capture());
+        Assert.assertEquals(7, prefetched.getValue().size());
+        Assert.assertEquals(Collections.emptySet(), assessedWithoutPrefetch);
+        Assert.assertNull(PrefetchedMetrics.get(batchAssessor));
+        Mockito.verify(assessmentProvider, Mockito.times(4)).findLatestAssessments(Mockito.anyCollection());
+    }
+
+    @Test
+    public void testFailingAgreementDoesNotRollBackOthers() {
+        List<ServiceLevelAgreement.ID> ids = newAgreements("sla1", "sla2", "sla3", "sla4");
+        failingAgreements.add("sla2");
+
+        checker.checkAgreements(ids);
+
+        //the chunk with the failing agreement is rolled back and its agreements retried one per transaction
+        Assert.assertEquals(setOf("sla1", "sla3", "sla4"), new HashSet<>(metadataAccess.committed));
+        Assert.assertEquals(3, metadataAccess.committed.size());
+        Assert.assertEquals(2, metadataAccess.rollbacks);
+        Assert.assertEquals(Collections.emptySet(), assessedWithoutPrefetch);
+    }
+
+    @Test
+    public void testDisabledAndMissingAgreementsAreSkipped() {
+        List<ServiceLevelAgreement.ID> ids = new ArrayList<>(newAgreements("sla1", "sla2"));
+        ServiceLevelAgreement disabled = newAgreement("disabled");
+        Mockito.when(disabled.isEnabled()).thenReturn(false);
+        ids.add(disabled.getId());
+        ids.add(Mockito.mock(ServiceLevelAgreement.ID.class));
+
+        checker.checkAgreements(ids);
+
+        Assert.assertEquals(setOf("sla1", "sla2"), new HashSet<>(metadataAccess.committed));
+        Mockito.verify(assessor, Mockito.never()).assess(disabled);
+    }
+
+    private List<ServiceLevelAgreement.ID> newAgreements(String... names) {
+        List<ServiceLevelAgreement.ID> ids = new ArrayList<>();
+        for (String name : names) {
+            ids.add(newAgreement(name).getId());
+        }
+        return ids;
+    }
+
+    private ServiceLevelAgreement newAgreement(String name) {
+        ServiceLevelAgreement.ID id = Mockito.mock(ServiceLevelAgreement.ID.class);
+        Mockito.when(id.toString()).thenReturn(name);
+        ServiceLevelAgreement agreement = Mockito.mock(ServiceLevelAgreement.class);
+        Mockito.when(agreement.getId()).thenReturn(id);
+        Mockito.when(agreement.getName()).thenReturn(name);
+        Mockito.when(agreement.isEnabled()).thenReturn(true);
+        Mockito.when(slaProvider.getAgreement(id)).thenReturn(agreement);
+        return agreement;
+    }
+
+    private static Set<String> setOf(String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+
+    /**
+     * Keeps the names of the agreements assessed in each transaction, discarding them if the transaction fails.
+     */
+    private static class TransactionalMetadataAccess implements MetadataAccess {
+
+        private final ThreadLocal<List<String>> transaction = new ThreadLocal<>();
+
+        private final List<String> committed = Collections.synchronizedList(new ArrayList<>());
+
+        private int commits;
+
+        private int rollbacks;
+
+        void write(String name) {
+            transaction.get().add(name);
+        }
+
+        @Override
+        public <R> R commit(MetadataCommand<R> cmd, Principal... principals) {
+            transaction.set(new ArrayList<>());
+            try {
+                R result = cmd.execute();
+                synchronized (this) {
+                    committed.addAll(transaction.get());
+                    commits++;
+                }
+                return result;
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    rollbacks++;
+                }
+                throw e;
+            } catch (Exception e) {
+                synchronized (this) {
+                    rollbacks++;
+                }
+                throw new IllegalStateException(e);
+            } finally {
+                transaction.remove();
+            }
+        }
+
+        @Override
+        public <R> R commit(MetadataCommand<R> cmd, MetadataRollbackCommand rollbackCmd, Principal... principals) {
+            return commit(cmd, principals);
+        }
+
+        @Override
+        public void commit(MetadataAction cmd, Principal... principals) {
+            commit(() -> {
+                cmd.execute();
+                return null;
+            }, principals);
+        }
+
+        @Override
+        public void commit(MetadataAction cmd, MetadataRollbackAction rollbackAction, Principal... principals) {
+            commit(cmd, principals);
+        }
+
+        @Override
+        public <R> R read(MetadataCommand<R> cmd, Principal... principals) {
+            try {
+                return cmd.execute();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void read(MetadataAction cmd, Principal... principals) {
+            read(() -> {
+                cmd.execute();
+                return null;
+            }, principals);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.thinkbiganalytics.metadata.sla;
+
+/*-
+ * #%L
+ * thinkbig-operational-metadata-integration-service
+ * %%
+ * Copyright (C) 2017 ThinkBig Analytics
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+import com.thinkbiganalytics.metadata.sla.api.ServiceLevelAgreement;
+import com.thinkbiganalytics.metadata.sla.spi.ServiceLevelAgreementChecker;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests the batching of SLA checks and the statistics recorded for them.
+ */
+public class ServiceLevelAgreementCheckBatcherTest {
+
+    private ServiceLevelAgreementCheckBatcher batcher;
+
+    private ServiceLevelAgreementChecker checker;
+
+    @Before
+    public void setUp() {
+        checker = Mockito.mock(ServiceLevelAgreementChecker.class);
+        batcher = new ServiceLevelAgreementCheckBatcher();
+        batcher.setBatchWindowMillis(100);
+        ReflectionTestUtils.setField(batcher, "slaChecker", checker);
+        ReflectionTestUtils.invokeMethod(batcher, "init");
+    }
+
+    @After
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(batcher, "destroy");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSubmittedAgreementsAreCheckedTogether() {
+        ServiceLevelAgreement.ID sla1 = Mockito.mock(ServiceLevelAgreement.ID.class);
+        ServiceLevelAgreement.ID sla2 = Mockito.mock(ServiceLevelAgreement.ID.class);
+        batcher.submit(sla1);
+        batcher.submit(sla2);
+        batcher.submitForJobEvent(sla1, System.currentTimeMillis());
+
+        ArgumentCaptor<List> batch = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(checker, Mockito.timeout(2000)).checkAgreements(batch.capture());
+        Assert.assertEquals(Arrays.asList(sla1, sla2), batch.getValue());
+
+        waitForBatches(1);
+        ServiceLevelAgreementCheckStatistics statistics = batcher.getStatistics();
+        Assert.assertEquals(2, statistics.getAgreementsChecked());
+        Assert.assertEquals(1, statistics.getJobEventChecks());
+    }
+
+    @Test
+    public void testDetectionTimeIsMeasuredFromEarliestJobEnd() {
+        ServiceLevelAgreement.ID sla = Mockito.mock(ServiceLevelAgreement.ID.class);
+        long now = System.currentTimeMillis();
+        batcher.submitForJobEvent(sla, now - 3000);
+        batcher.submitForJobEvent(sla, now - 5000);
+
+        waitForBatches(1);
+        ServiceLevelAgreementCheckStatistics statistics = batcher.getStatistics();
+        Assert.assertEquals(1, statistics.getJobEventChecks());
+        Assert.assertTrue(statistics.getMaxDetectionMillis() >= 5000);
+        Assert.assertTrue(statistics.getMaxDetectionMillis() < 10000);
+        Assert.assertEquals(statistics.getMaxDetectionMillis(), statistics.getAverageDetectionMillis(), 0.0);
+    }
+
+    @Test
+    public void testFailedCheckIsRecorded() {
+        Mockito.doThrow(new IllegalStateException("Unable to check")).when(checker).checkAgreements(Mockito.anyCollection());
+        batcher.submit(Mockito.mock(ServiceLevelAgreement.ID.class));
+        waitForBatches(1);
+
+        // later batches are still checked
+        batcher.submit(Mockito.mock(ServiceLevelAgreement.ID.class));
+        waitForBatches(2);
+        Assert.assertEquals(2, batcher.getStatistics().getAgreementsChecked());
+        Assert.assertEquals(0, batcher.getStatistics().getJobEventChecks());
+    }
+
+    @Test
+    public void testEmptyStatistics() {
+        ServiceLevelAgreementCheckStatistics statistics = batcher.getStatistics();
+        Assert.assertEquals(0, statistics.getBatches());
+        Assert.assertEquals(0.0, statistics.getAverageCheckMillis(), 0.0);
+        Assert.assertEquals(0.0, statistics.getAverageDetectionMillis(), 0.0);
+    }
+
+    private void waitForBatches(long batches) {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (batcher.getStatistics().getBatches() < batches && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        Assert.assertEquals(batches, batcher.getStatistics().getBatches());
+    }
+}
@@ -85,6 +85,34 @@ public interface SparkShellRestClient {
     @Nonnull
     Optional<TransformResponse> getTransformResult(@Nonnull SparkShellProcess process, @Nonnull String table);
 
+    /**
+     * Fetches a page of rows from the results of a query on the specified Spark Shell process.
+     *
+     * <p>The response entity is the JSON from the Spark Shell process, with the values grouped by column, and can be streamed to the client as is.</p>
+     *
+     * @param process the Spark Shell process
+     * @param id      the query identifier
+     * @param start   the index of the first row
+     * @param limit   the maximum number of rows
+     * @return the rows, if the query results exist
+     */
+    @Nonnull
+    Optional<Response> getQueryRows(@Nonnull SparkShellProcess process, @Nonnull String id, long start, int limit);
+
+    /**
+     * Fetches a page of rows from the results of a transformation on the specified Spark Shell process.
+     *
+     * <p>The response entity is the JSON from the Spark Shell process, with the values grouped by column, and can be streamed to the client as is.</p>
+     *
+     * @param process the Spark Shell process
+     * @param table   the destination table name
+     * @param start   the index of the first row
+     * @param limit   the maximum number of rows
+     * @return the rows, if the transformation results exist
+     */
+    @Nonnull
+    Optional<Response> getTransformRows(@Nonnull SparkShellProcess process, @Nonnull String table, long start, int limit);
+
     /**
      * Fetches the status of a save running on the specified Spark Shell process.
      *
@@ -60,11 +60,13 @@ import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.ws.rs.BadRequestException;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
@@ -223,6 +225,30 @@ public class SparkShellProxyController {
         return getResultResponse(() -> restClient.getQueryResult(process, id));
     }
 
+    /**
+     * Fetches a page of rows from the results of a query.
+     *
+     * @param id    the destination table name
+     * @param start the index of the first row
+     * @param limit the maximum number of rows
+     * @return the rows
+     */
+    @GET
+    @Path("/query/{table}/rows")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation("Fetches a page of rows from the results of a query.")
+    @ApiResponses({
+                      @ApiResponse(code = 200, message = "Returns the rows with the values of each field in an array."),
+                      @ApiResponse(code = 404, message = "The query does not exist.", response = RestResponseStatus.class),
+                      @ApiResponse(code = 500, message = "There was a problem accessing the data.", response = RestResponseStatus.class)
+                  })
+    @Nonnull
+    public Response getQueryRows(@Nonnull @PathParam("table") final String id, @QueryParam("start") @DefaultValue("0") final long start,
+                                 @QueryParam("limit") @DefaultValue("1000") final int limit) {
+        final SparkShellProcess process = getSparkShellProcess();
+        return getRowsResponse(() -> restClient.getQueryRows(process, id, start, limit));
+    }
+
     /**
      * Requests the status of a save.
      *
@@ -267,6 +293,30 @@ public class SparkShellProxyController {
         return getResultResponse(() -> restClient.getTransformResult(process, id));
     }
 
+    /**
+     * Fetches a page of rows from the results of a transformation.
+     *
+     * @param id    the destination table name
+     * @param start the index of the first row
+     * @param limit the maximum number of rows
+     * @return the rows
+     */
+    @GET
+    @Path("/transform/{table}/rows")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation("Fetches a page of rows from the results of a transformation.")
+    @ApiResponses({
+                      @ApiResponse(code = 200, message = "Returns the rows with the values of each field in an array."),
+                      @ApiResponse(code = 404, message = "The transformation does not exist.", response = RestResponseStatus.class),
+                      @ApiResponse(code = 500, message = "There was a problem accessing the data.", response = RestResponseStatus.class)
+                  })
+    @Nonnull
+    public Response getTransformRows(@Nonnull @PathParam("table") final String id, @QueryParam("start") @DefaultValue("0") final long start,
+                                     @QueryParam("limit") @DefaultValue("1000") final int limit) {
+        final SparkShellProcess process = getSparkShellProcess();
+        return getRowsResponse(() -> restClient.getTransformRows(process, id, start, limit));
+    }
+
     /**
      * Requests the status of a save.
      *
@@ -615,6 +665,25 @@ public class SparkShellProxyController {
         }
     }
 
+    /**
+     * Gets the rows response from the specified supplier.
+     *
+     * <p>The response from the Spark Shell process is passed through without parsing the rows.</p>
+     */
+    @Nonnull
+    private Response getRowsResponse(@Nonnull final Supplier<Optional<Response>> supplier) {
+        // Get the result
+        final Optional<Response> response;
+        try {
+            response = supplier.get();
+        } catch (final Exception e) {
+            throw transformError(Response.Status.INTERNAL_SERVER_ERROR, SparkShellProxyResources.TRANSFORM_ERROR, e);
+        }
+
+        // Return response
+        return response.orElseThrow(() -> transformError(Response.Status.NOT_FOUND, SparkShellProxyResources.ROWS_NOT_FOUND, null));
+    }
+
     /**
      * Gets the save response from the specified supplier.
      */
@@ -40,6 +40,8 @@ public class TransformQueryResult {
 
     private List<List<Object>> rows;
 
+    private Long rowCount;
+
     private List<List<TransformValidationResult>> validationResults;
 
     /**
@@ -68,6 +70,19 @@ public class TransformQueryResult {
         this.rows = rows;
     }
 
+    /**
+     * Gets the total number of rows in the result. This is greater than the number of rows included if only the first page was requested.
+     *
+     * @return the number of rows
+     */
+    public Long getRowCount() {
+        return rowCount;
+    }
+
+    public void setRowCount(Long rowCount) {
+        this.rowCount = rowCount;
+    }
+
     /**
      * Gets the list of validation results for each row.
      */
@@ -41,6 +41,11 @@ public class TransformRequest {
      */
     private List<Datasource> datasources;
 
+    /**
+     * Maximum number of rows to include in the response
+     */
+    private Integer pageSize;
+
     /**
      * Previous transformation result
      */
@@ -85,6 +90,24 @@ public class TransformRequest {
         this.datasources = datasources;
     }
 
+    /**
+     * Gets the maximum number of rows to include in the response. The remaining rows are read in pages.
+     *
+     * @return the number of rows, or {@code null} to include all rows
+     */
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Sets the maximum number of rows to include in the response.
+     *
+     * @param pageSize the number of rows, or {@code null} to include all rows
+     */
+    public void setPageSize(final Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
     /**
      * Gets the previous transformation result.
      *